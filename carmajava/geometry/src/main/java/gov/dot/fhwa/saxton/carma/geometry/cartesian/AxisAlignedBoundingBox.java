@@ -57,4 +57,19 @@ public class AxisAlignedBoundingBox implements IIntersectionChecker {
     }
     return true;
   }
+
+  @Override public boolean intersects(CartesianObject obj, double[] minBounds, double[] maxBounds) throws IllegalArgumentException {
+    if (obj.getNumDimensions() != minBounds.length || obj.getNumDimensions() != maxBounds.length)
+      throw new IllegalArgumentException("Cannot check the intersection of CartesianElements with different dimensions");
+    final double[][] bounds = obj.getBounds();
+    final int minIdx = obj.getMinBoundIndx();
+    final int maxIdx = obj.getMaxBoundIndx();
+
+    for (int i = 0; i < minBounds.length; i++) {
+      if (Math.max(bounds[i][minIdx], minBounds[i]) > Math.min(bounds[i][maxIdx], maxBounds[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
 }
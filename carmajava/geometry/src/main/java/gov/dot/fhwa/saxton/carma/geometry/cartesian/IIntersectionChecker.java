@@ -37,4 +37,15 @@ public interface IIntersectionChecker {
    * @throws IllegalArgumentException Thrown if obj and obj2 are not of the same dimension
    */
   boolean intersects(CartesianObject obj, CartesianObject obj2) throws IllegalArgumentException ;
+
+  /**
+   * True if the provided cartesian object intersects the box defined by the provided bounds
+   * Allows intersection testing against a box without constructing a CartesianObject for it
+   * @param obj The cartesian object to be checked
+   * @param minBounds The minimum coordinate of the box in each dimension. Must be of the same dimension as obj
+   * @param maxBounds The maximum coordinate of the box in each dimension. Must be of the same dimension as obj
+   * @return True if obj and the box intersect
+   * @throws IllegalArgumentException Thrown if obj and the bounds are not of the same dimension
+   */
+  boolean intersects(CartesianObject obj, double[] minBounds, double[] maxBounds) throws IllegalArgumentException ;
 }
@@ -19,6 +19,7 @@ package gov.dot.fhwa.saxton.carma.geometry.cartesian.spatialstructure;
 import gov.dot.fhwa.saxton.carma.geometry.cartesian.CartesianObject;
 import gov.dot.fhwa.saxton.carma.geometry.cartesian.Point;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interface for a data structure which maintains collections of objects to evaluate for collisions
@@ -64,6 +65,28 @@ public interface ISpatialStructure {
    */
   List<CartesianObject> getCollisions(Point p);
 
+  /**
+   * True if any object in this structure collides with the box defined by the provided bounds
+   * Implementations should not allocate memory making this suitable for repeated queries in tight loops
+   * 
+   * @param minBounds The minimum coordinate of the box in each dimension
+   * @param maxBounds The maximum coordinate of the box in each dimension
+   * 
+   * @return True if there is a collision. False if no collision or the bounds do not match the dimensions of this structure
+   */
+  boolean hasCollision(double[] minBounds, double[] maxBounds);
+
+  /**
+   * Passes each CartesianObject that collides with the box defined by the provided bounds to the provided visitor
+   * Each colliding object is visited exactly once.
+   * Implementations should not allocate memory making this suitable for repeated queries in tight loops
+   * 
+   * @param minBounds The minimum coordinate of the box in each dimension
+   * @param maxBounds The maximum coordinate of the box in each dimension
+   * @param visitor The function which will be called with each colliding object
+   */
+  void forEachCollision(double[] minBounds, double[] maxBounds, Consumer<CartesianObject> visitor);
+
   /**
    * True if the provided point is surrounded by the spacial bounds of this structure
    * 
@@ -27,5 +27,5 @@ public interface ISpatialStructureFactory {
      * 
      * The returned ISpatialStructure is not guaranteed to be thread safe
      */
-    public NSpatialHashMap buildSpatialStructure();
+    public ISpatialStructure buildSpatialStructure();
 }
\ No newline at end of file
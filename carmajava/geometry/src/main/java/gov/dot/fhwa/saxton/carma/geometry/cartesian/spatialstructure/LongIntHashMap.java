@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.geometry.cartesian.spatialstructure;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from primitive long keys to non-negative primitive int values
+ * Neither keys nor values are boxed making this map suitable for use in tight query loops
+ *
+ * Collisions are resolved with linear probing and removal uses backward shift deletion so no tombstones are left behind
+ * Negative values are not supported as {@link #NO_VALUE} marks an empty slot
+ * This class is not thread safe on its own
+ */
+final class LongIntHashMap {
+  static final int NO_VALUE = -1;
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private long[] keys;
+  private int[] values;
+  private int mask;
+  private int size;
+  private int resizeThreshold;
+
+  /**
+   * Constructor
+   */
+  LongIntHashMap() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param expectedSize The number of entries the map should hold before needing to resize
+   */
+  LongIntHashMap(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+    allocate(capacity);
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new int[capacity];
+    Arrays.fill(values, NO_VALUE);
+    mask = capacity - 1;
+    resizeThreshold = (int) (capacity * LOAD_FACTOR);
+  }
+
+  /**
+   * Helper function spreads the bits of a key so that neighboring cell coordinates do not cluster
+   */
+  private static int hash(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  /**
+   * Gets the value stored for the provided key
+   *
+   * @param key The key to look up
+   *
+   * @return The stored value or NO_VALUE if the key is not present
+   */
+  int get(long key) {
+    int i = hash(key) & mask;
+    int value;
+    while ((value = values[i]) != NO_VALUE) {
+      if (keys[i] == key) {
+        return value;
+      }
+      i = (i + 1) & mask;
+    }
+    return NO_VALUE;
+  }
+
+  /**
+   * Stores a value for the provided key replacing any existing value
+   *
+   * @param key The key
+   * @param value The value to store. Must not be negative
+   *
+   * @return The previous value or NO_VALUE if the key was not present
+   */
+  int put(long key, int value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("LongIntHashMap does not support negative values");
+    }
+    int i = hash(key) & mask;
+    int existing;
+    while ((existing = values[i]) != NO_VALUE) {
+      if (keys[i] == key) {
+        values[i] = value;
+        return existing;
+      }
+      i = (i + 1) & mask;
+    }
+    keys[i] = key;
+    values[i] = value;
+    if (++size > resizeThreshold) {
+      rehash(values.length << 1);
+    }
+    return NO_VALUE;
+  }
+
+  /**
+   * Removes the value stored for the provided key
+   *
+   * @param key The key to remove
+   *
+   * @return The removed value or NO_VALUE if the key was not present
+   */
+  int remove(long key) {
+    int i = hash(key) & mask;
+    int existing;
+    while ((existing = values[i]) != NO_VALUE) {
+      if (keys[i] == key) {
+        values[i] = NO_VALUE;
+        size--;
+        shiftBack(i);
+        return existing;
+      }
+      i = (i + 1) & mask;
+    }
+    return NO_VALUE;
+  }
+
+  /**
+   * Helper function closes the gap left at the provided slot by shifting back any entries whose probe sequence passes over it
+   */
+  private void shiftBack(int gap) {
+    int i = (gap + 1) & mask;
+    while (values[i] != NO_VALUE) {
+      int home = hash(keys[i]) & mask;
+      // Move the entry if its home slot is not cyclically within (gap, i]
+      boolean movable = (gap <= i) ? (home <= gap || home > i) : (home <= gap && home > i);
+      if (movable) {
+        keys[gap] = keys[i];
+        values[gap] = values[i];
+        values[i] = NO_VALUE;
+        gap = i;
+      }
+      i = (i + 1) & mask;
+    }
+  }
+
+  private void rehash(int capacity) {
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+    allocate(capacity);
+    for (int j = 0; j < oldValues.length; j++) {
+      if (oldValues[j] != NO_VALUE) {
+        int i = hash(oldKeys[j]) & mask;
+        while (values[i] != NO_VALUE) {
+          i = (i + 1) & mask;
+        }
+        keys[i] = oldKeys[j];
+        values[i] = oldValues[j];
+      }
+    }
+  }
+
+  /**
+   * Returns the number of entries in this map
+   *
+   * @return The number of entries
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns true if this map has no entries
+   *
+   * @return True if empty
+   */
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Removes all entries from this map
+   */
+  void clear() {
+    Arrays.fill(values, NO_VALUE);
+    size = 0;
+  }
+}
@@ -0,0 +1,458 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.geometry.cartesian.spatialstructure;
+
+import gov.dot.fhwa.saxton.carma.geometry.cartesian.CartesianObject;
+import gov.dot.fhwa.saxton.carma.geometry.cartesian.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 3-Dimensional Spatial Hash Map specialized for axis aligned bounding box collision checks
+ * Provides the same behavior as an {@link NSpatialHashMap} built with an AxisAlignedBoundingBox intersection checker
+ * but avoids allocating a key object for every cell lookup.
+ *
+ * The three cell coordinates of a cell are packed into a single long by interleaving their bits (Morton/Z-order)
+ * which is used as the key of a primitive open addressing table.
+ * Each cell holds the head of a singly linked chain of entries stored in parallel int arrays.
+ * The bounds of every object are copied into a flat double array indexed by the object's slot
+ * so intersection checks do not need to dereference the CartesianObject.
+ *
+ * Only the lowest 21 bits of each cell coordinate are used in the key. Cells which differ by a multiple of 2^21 in
+ * any dimension share a key. This only merges the cell chains as every candidate is still checked for intersection.
+ *
+ * This class is not thread safe on its own
+ */
+public class MortonSpatialHashMap implements ISpatialStructure {
+  public static final int MIN_BOUND_IDX = CartesianObject.MIN_BOUND_IDX;
+  public static final int MAX_BOUND_IDX = CartesianObject.MAX_BOUND_IDX;
+  private static final int NUM_DIMENSIONS = 3;
+  private static final int BOUNDS_STRIDE = 2 * NUM_DIMENSIONS;
+  private static final int NO_ENTRY = -1;
+  // Sized for a single path of collision check points which typically covers a few cells per point
+  private static final int DEFAULT_EXPECTED_OBJECTS = 300;
+  private static final int EXPECTED_CELLS_PER_OBJECT = 4;
+
+  private final double[] cellDims;
+  // Packed cell key -> index of the first entry in that cell
+  private final LongIntHashMap cells;
+  // Entry chains. Free entries are chained through entryNext starting at freeEntry
+  private int[] entryObject;
+  private int[] entryNext;
+  private int numEntries = 0;
+  private int freeEntry = NO_ENTRY;
+  // Object slots. Free slots are kept on a stack
+  private CartesianObject[] objects;
+  private double[] objectBounds;
+  private int numObjectSlots = 0;
+  private int[] freeObjectSlots;
+  private int numFreeObjectSlots = 0;
+
+  private double[][] bounds;
+  // Scratch buffers reused between calls so that lookups do not allocate
+  private final long[] minCell = new long[NUM_DIMENSIONS];
+  private final long[] maxCell = new long[NUM_DIMENSIONS];
+
+  /**
+   * Constructor
+   *
+   * @param cellDims The dimensions of a cell which this will map points to. Must have length 3
+   */
+  public MortonSpatialHashMap(double[] cellDims) {
+    this(cellDims, DEFAULT_EXPECTED_OBJECTS);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param cellDims The dimensions of a cell which this will map points to. Must have length 3
+   * @param expectedObjects The number of objects this map should hold before needing to grow its storage
+   */
+  public MortonSpatialHashMap(double[] cellDims, int expectedObjects) {
+    if (cellDims == null || cellDims.length != NUM_DIMENSIONS) {
+      throw new IllegalArgumentException("MortonSpatialHashMap requires exactly 3 cell dimensions");
+    }
+    this.cellDims = Arrays.copyOf(cellDims, NUM_DIMENSIONS);
+    final int objectCapacity = Math.max(1, expectedObjects);
+    final int entryCapacity = objectCapacity * EXPECTED_CELLS_PER_OBJECT;
+    cells = new LongIntHashMap(entryCapacity);
+    entryObject = new int[entryCapacity];
+    entryNext = new int[entryCapacity];
+    objects = new CartesianObject[objectCapacity];
+    objectBounds = new double[objectCapacity * BOUNDS_STRIDE];
+    freeObjectSlots = new int[objectCapacity];
+  }
+
+  @Override
+  public boolean insert(CartesianObject obj) {
+    if (obj == null || obj.getNumDimensions() != NUM_DIMENSIONS)
+      return false; // Cannot insert mismatched dimensions
+
+    final double[][] objBounds = obj.getBounds();
+    updateBounds(objBounds);
+
+    final int slot = allocateObjectSlot();
+    objects[slot] = obj;
+    final int offset = slot * BOUNDS_STRIDE;
+    for (int i = 0; i < NUM_DIMENSIONS; i++) {
+      objectBounds[offset + i] = objBounds[i][MIN_BOUND_IDX];
+      objectBounds[offset + NUM_DIMENSIONS + i] = objBounds[i][MAX_BOUND_IDX];
+    }
+
+    computeCells(objectBounds, offset, offset + NUM_DIMENSIONS);
+    final long minX = minCell[0], minY = minCell[1], minZ = minCell[2];
+    final long maxX = maxCell[0], maxY = maxCell[1], maxZ = maxCell[2];
+    for (long x = minX; x <= maxX; x++) {
+      final long xBits = spreadBits(x);
+      for (long y = minY; y <= maxY; y++) {
+        final long xyBits = xBits | (spreadBits(y) << 1);
+        for (long z = minZ; z <= maxZ; z++) {
+          final long key = xyBits | (spreadBits(z) << 2);
+          final int entry = allocateEntry();
+          entryObject[entry] = slot;
+          // Prepend to the cell chain. The previous head is returned by put
+          entryNext[entry] = cells.put(key, entry);
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean remove(CartesianObject obj) {
+    if (bounds == null || obj == null || obj.getNumDimensions() != NUM_DIMENSIONS)
+      return false; // Return false if nothing added yet or attempting to remove object of mismatched dimensions.
+
+    final double[][] objBounds = obj.getBounds();
+    for (int i = 0; i < NUM_DIMENSIONS; i++) {
+      minCell[i] = cell(objBounds[i][MIN_BOUND_IDX], i);
+      maxCell[i] = cell(objBounds[i][MAX_BOUND_IDX], i);
+    }
+
+    int removedSlot = NO_ENTRY;
+    final long minX = minCell[0], minY = minCell[1], minZ = minCell[2];
+    final long maxX = maxCell[0], maxY = maxCell[1], maxZ = maxCell[2];
+    for (long x = minX; x <= maxX; x++) {
+      final long xBits = spreadBits(x);
+      for (long y = minY; y <= maxY; y++) {
+        final long xyBits = xBits | (spreadBits(y) << 1);
+        for (long z = minZ; z <= maxZ; z++) {
+          final int slot = removeFromCell(xyBits | (spreadBits(z) << 2), obj);
+          if (slot != NO_ENTRY) {
+            removedSlot = slot;
+          }
+        }
+      }
+    }
+    if (removedSlot != NO_ENTRY) {
+      objects[removedSlot] = null;
+      freeObjectSlot(removedSlot);
+    }
+    return true;
+  }
+
+  /**
+   * Helper function removes the first entry in a cell referring to an object equal to the provided object
+   *
+   * @param key The packed cell key
+   * @param obj The object to remove
+   *
+   * @return The object slot of the removed entry or NO_ENTRY if no entry was removed
+   */
+  private int removeFromCell(long key, CartesianObject obj) {
+    int prev = NO_ENTRY;
+    int entry = cells.get(key);
+    while (entry != NO_ENTRY) {
+      final int slot = entryObject[entry];
+      if (objects[slot] == obj || obj.equals(objects[slot])) {
+        final int next = entryNext[entry];
+        if (prev == NO_ENTRY) {
+          if (next == NO_ENTRY) {
+            cells.remove(key);
+          } else {
+            cells.put(key, next);
+          }
+        } else {
+          entryNext[prev] = next;
+        }
+        freeEntry(entry);
+        return slot;
+      }
+      prev = entry;
+      entry = entryNext[entry];
+    }
+    return NO_ENTRY;
+  }
+
+  @Override
+  public List<CartesianObject> getCollisions(CartesianObject obj) {
+    if (obj == null || obj.getNumDimensions() != NUM_DIMENSIONS)
+      return null; // Return null if attempting to check an object of mismatched dimensions.
+    final List<CartesianObject> collidedObjects = new ArrayList<>();
+    if (bounds == null)
+      return collidedObjects; // Returned no conflicts as no other objects are present
+
+    final double[][] objBounds = obj.getBounds();
+    final double[] min = new double[NUM_DIMENSIONS];
+    final double[] max = new double[NUM_DIMENSIONS];
+    for (int i = 0; i < NUM_DIMENSIONS; i++) {
+      min[i] = objBounds[i][MIN_BOUND_IDX];
+      max[i] = objBounds[i][MAX_BOUND_IDX];
+    }
+    forEachCollision(min, max, collidedObjects::add);
+    return collidedObjects;
+  }
+
+  @Override
+  public List<CartesianObject> getCollisions(Point p) {
+    if (p == null || p.getNumDimensions() != NUM_DIMENSIONS)
+      return null; // Return null if attempting to check a point of mismatched dimensions.
+    final List<CartesianObject> collidingObjects = new LinkedList<>();
+    if (bounds == null)
+      return collidingObjects; // Returned no conflicts as no other objects are present
+
+    final double px = p.getDim(0), py = p.getDim(1), pz = p.getDim(2);
+    int entry = cells.get(packCell(cell(px, 0), cell(py, 1), cell(pz, 2)));
+    while (entry != NO_ENTRY) {
+      final int offset = entryObject[entry] * BOUNDS_STRIDE;
+      // Point intersections are exclusive of the object boundary to match AxisAlignedBoundingBox
+      if (objectBounds[offset] < px && px < objectBounds[offset + 3]
+        && objectBounds[offset + 1] < py && py < objectBounds[offset + 4]
+        && objectBounds[offset + 2] < pz && pz < objectBounds[offset + 5]) {
+        collidingObjects.add(objects[entryObject[entry]]);
+      }
+      entry = entryNext[entry];
+    }
+    return collidingObjects;
+  }
+
+  @Override
+  public boolean hasCollision(double[] minBounds, double[] maxBounds) {
+    if (bounds == null || minBounds == null || maxBounds == null
+      || minBounds.length != NUM_DIMENSIONS || maxBounds.length != NUM_DIMENSIONS) {
+      return false;
+    }
+    computeCells(minBounds, 0, maxBounds, 0);
+    final long minX = minCell[0], minY = minCell[1], minZ = minCell[2];
+    final long maxX = maxCell[0], maxY = maxCell[1], maxZ = maxCell[2];
+    for (long x = minX; x <= maxX; x++) {
+      final long xBits = spreadBits(x);
+      for (long y = minY; y <= maxY; y++) {
+        final long xyBits = xBits | (spreadBits(y) << 1);
+        for (long z = minZ; z <= maxZ; z++) {
+          int entry = cells.get(xyBits | (spreadBits(z) << 2));
+          while (entry != NO_ENTRY) {
+            if (intersects(entryObject[entry], minBounds, maxBounds)) {
+              return true;
+            }
+            entry = entryNext[entry];
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * {@inheritDoc}
+   * The provided visitor must not modify this structure
+   */
+  @Override
+  public void forEachCollision(double[] minBounds, double[] maxBounds, Consumer<CartesianObject> visitor) {
+    if (bounds == null || minBounds == null || maxBounds == null
+      || minBounds.length != NUM_DIMENSIONS || maxBounds.length != NUM_DIMENSIONS) {
+      return;
+    }
+    computeCells(minBounds, 0, maxBounds, 0);
+    // Copy the cell range so the visitor may query this structure
+    final long minX = minCell[0], minY = minCell[1], minZ = minCell[2];
+    final long maxX = maxCell[0], maxY = maxCell[1], maxZ = maxCell[2];
+    for (long x = minX; x <= maxX; x++) {
+      final long xBits = spreadBits(x);
+      for (long y = minY; y <= maxY; y++) {
+        final long xyBits = xBits | (spreadBits(y) << 1);
+        for (long z = minZ; z <= maxZ; z++) {
+          int entry = cells.get(xyBits | (spreadBits(z) << 2));
+          while (entry != NO_ENTRY) {
+            final int slot = entryObject[entry];
+            // An object spanning several cells is only reported from the cell containing the minimum corner of its overlap
+            if (intersects(slot, minBounds, maxBounds) && isReportingCell(slot, minBounds, x, y, z)) {
+              visitor.accept(objects[slot]);
+            }
+            entry = entryNext[entry];
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper function checks if an object's bounds intersect a box. Boundaries are inclusive
+   */
+  private boolean intersects(int slot, double[] minBounds, double[] maxBounds) {
+    final int offset = slot * BOUNDS_STRIDE;
+    for (int i = 0; i < NUM_DIMENSIONS; i++) {
+      if (Math.max(objectBounds[offset + i], minBounds[i]) > Math.min(objectBounds[offset + NUM_DIMENSIONS + i], maxBounds[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Helper function returns true if the provided cell contains the minimum corner of the overlap between an object and a box
+   */
+  private boolean isReportingCell(int slot, double[] minBounds, long x, long y, long z) {
+    final int offset = slot * BOUNDS_STRIDE;
+    return cell(Math.max(objectBounds[offset], minBounds[0]), 0) == x
+      && cell(Math.max(objectBounds[offset + 1], minBounds[1]), 1) == y
+      && cell(Math.max(objectBounds[offset + 2], minBounds[2]), 2) == z;
+  }
+
+  @Override
+  public boolean surrounds(Point p) {
+    if (p == null || bounds == null || p.getNumDimensions() != NUM_DIMENSIONS)
+      return false; // It is impossible for a point with mismatched dimensions to definitely be enclosed
+    for (int i = 0; i < NUM_DIMENSIONS; i++) {
+      if (!(bounds[i][MIN_BOUND_IDX] < p.getDim(i) && p.getDim(i) < bounds[i][MAX_BOUND_IDX])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public double[][] getBounds() {
+    return bounds;
+  }
+
+  @Override
+  public int getNumDimensions() {
+    return NUM_DIMENSIONS;
+  }
+
+  /**
+   * Helper function updates the hash map bounds when a new object is inserted
+   *
+   * @param objBounds The bounds of the new object
+   */
+  private void updateBounds(double[][] objBounds) {
+    if (bounds == null) {
+      bounds = new double[NUM_DIMENSIONS][2];
+      for (int i = 0; i < NUM_DIMENSIONS; i++) {
+        bounds[i][MIN_BOUND_IDX] = objBounds[i][MIN_BOUND_IDX];
+        bounds[i][MAX_BOUND_IDX] = objBounds[i][MAX_BOUND_IDX];
+      }
+      return;
+    }
+    for (int i = 0; i < NUM_DIMENSIONS; i++) {
+      if (objBounds[i][MIN_BOUND_IDX] < bounds[i][MIN_BOUND_IDX]) {
+        bounds[i][MIN_BOUND_IDX] = objBounds[i][MIN_BOUND_IDX];
+      }
+      if (objBounds[i][MAX_BOUND_IDX] > bounds[i][MAX_BOUND_IDX]) {
+        bounds[i][MAX_BOUND_IDX] = objBounds[i][MAX_BOUND_IDX];
+      }
+    }
+  }
+
+  /**
+   * Helper function populates minCell and maxCell from minimum and maximum coordinates stored in flat arrays
+   */
+  private void computeCells(double[] min, int minOffset, double[] max, int maxOffset) {
+    for (int i = 0; i < NUM_DIMENSIONS; i++) {
+      minCell[i] = cell(min[minOffset + i], i);
+      maxCell[i] = cell(max[maxOffset + i], i);
+    }
+  }
+
+  /**
+   * Helper function populates minCell and maxCell from coordinates stored in objectBounds
+   */
+  private void computeCells(double[] flatBounds, int minOffset, int maxOffset) {
+    computeCells(flatBounds, minOffset, flatBounds, maxOffset);
+  }
+
+  private long cell(double value, int dim) {
+    return (long) Math.floor(value / cellDims[dim]);
+  }
+
+  /**
+   * Packs three cell coordinates into a single key by interleaving the lowest 21 bits of each
+   *
+   * @param x The cell coordinate in the first dimension
+   * @param y The cell coordinate in the second dimension
+   * @param z The cell coordinate in the third dimension
+   *
+   * @return The Morton code of the cell
+   */
+  static long packCell(long x, long y, long z) {
+    return spreadBits(x) | (spreadBits(y) << 1) | (spreadBits(z) << 2);
+  }
+
+  /**
+   * Helper function spreads the lowest 21 bits of a value so there are two zero bits between each bit
+   */
+  private static long spreadBits(long v) {
+    v &= 0x1FFFFFL;
+    v = (v | (v << 32)) & 0x1F00000000FFFFL;
+    v = (v | (v << 16)) & 0x1F0000FF0000FFL;
+    v = (v | (v << 8)) & 0x100F00F00F00F00FL;
+    v = (v | (v << 4)) & 0x10C30C30C30C30C3L;
+    v = (v | (v << 2)) & 0x1249249249249249L;
+    return v;
+  }
+
+  private int allocateEntry() {
+    if (freeEntry != NO_ENTRY) {
+      final int entry = freeEntry;
+      freeEntry = entryNext[entry];
+      return entry;
+    }
+    if (numEntries == entryObject.length) {
+      entryObject = Arrays.copyOf(entryObject, numEntries * 2);
+      entryNext = Arrays.copyOf(entryNext, numEntries * 2);
+    }
+    return numEntries++;
+  }
+
+  private void freeEntry(int entry) {
+    entryNext[entry] = freeEntry;
+    freeEntry = entry;
+  }
+
+  private int allocateObjectSlot() {
+    if (numFreeObjectSlots > 0) {
+      return freeObjectSlots[--numFreeObjectSlots];
+    }
+    if (numObjectSlots == objects.length) {
+      objects = Arrays.copyOf(objects, numObjectSlots * 2);
+      objectBounds = Arrays.copyOf(objectBounds, numObjectSlots * 2 * BOUNDS_STRIDE);
+    }
+    return numObjectSlots++;
+  }
+
+  private void freeObjectSlot(int slot) {
+    if (numFreeObjectSlots == freeObjectSlots.length) {
+      freeObjectSlots = Arrays.copyOf(freeObjectSlots, numFreeObjectSlots * 2);
+    }
+    freeObjectSlots[numFreeObjectSlots++] = slot;
+  }
+}
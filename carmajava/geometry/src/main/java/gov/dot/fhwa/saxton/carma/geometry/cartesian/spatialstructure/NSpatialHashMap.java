@@ -29,6 +29,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * N-Dimensional Spatial Hash Map
@@ -46,6 +47,14 @@ public class NSpatialHashMap implements ISpatialStructure {
   private double[][] bounds;
   private NSpatialHashStrategy spatialHashStrategy;
   private final int numDimensions;
+  // Scratch buffers reused between calls so that lookups do not allocate.
+  // The scratch key wraps scratchIterators and is only used for lookups, never stored in the map
+  private final long[] scratchMinCell;
+  private final long[] scratchMaxCell;
+  private final long[] scratchIterators;
+  private final NSpatialHashKey scratchKey;
+  private final double[] scratchCoordinates;
+  private final long[] scratchCell;
   
   /**
    * Constructor
@@ -59,6 +68,12 @@ public class NSpatialHashMap implements ISpatialStructure {
     this.spatialHashStrategy = spatialHashStrategy;
     this.map = map;
     this.numDimensions = spatialHashStrategy.getNumDimensions();
+    this.scratchMinCell = new long[numDimensions];
+    this.scratchMaxCell = new long[numDimensions];
+    this.scratchIterators = new long[numDimensions];
+    this.scratchKey = new NSpatialHashKey(scratchIterators);
+    this.scratchCoordinates = new double[numDimensions];
+    this.scratchCell = new long[numDimensions];
   }
 
   @Override
@@ -66,18 +81,22 @@ public class NSpatialHashMap implements ISpatialStructure {
     if (obj == null || obj.getNumDimensions() != numDimensions)
       return false; // Cannot insert mismatched dimensions
     if (bounds == null) { // Create bounds if this is the first object
-      bounds = Arrays.copyOf(obj.getBounds(), obj.getBounds().length);
+      // Deep copy so that growing the map bounds does not modify the first object
+      bounds = new double[numDimensions][];
+      for (int i = 0; i < numDimensions; i++) {
+        bounds[i] = Arrays.copyOf(obj.getBounds()[i], obj.getBounds()[i].length);
+      }
     }
     
     double[][] minMaxCoordinates = obj.getMinMaxCoordinates();
     updateBounds(minMaxCoordinates);
     
-    // get keys for the min and max points
-    NSpatialHashKey minKey = spatialHashStrategy.getKey(new Point(minMaxCoordinates[MIN_BOUND_IDX]));
-    NSpatialHashKey maxKey = spatialHashStrategy.getKey(new Point(minMaxCoordinates[MAX_BOUND_IDX]));
+    // get cells for the min and max points
+    spatialHashStrategy.getCell(minMaxCoordinates[MIN_BOUND_IDX], scratchMinCell);
+    spatialHashStrategy.getCell(minMaxCoordinates[MAX_BOUND_IDX], scratchMaxCell);
     
     // iterate over all cells
-    addToCells(obj, minKey, maxKey, 0, Arrays.copyOf(minKey.values, minKey.values.length));
+    addToCells(obj, scratchMinCell, scratchMaxCell, 0, scratchIterators);
     return true;
   }
 
@@ -86,24 +105,25 @@ public class NSpatialHashMap implements ISpatialStructure {
    * This function recuses in the form of n-nested for loops to add an object to all cells it overlaps
    * 
    * @param obj The object to be added
-   * @param minKey The minimum key (cell) this object will be added to
-   * @param maxKey The maximum key (cell) this object will be added to
+   * @param minCell The minimum cell this object will be added to
+   * @param maxCell The maximum cell this object will be added to
    * @param dim The current dimension being processed. Can also be thought of as loop depth
+   * @param iterators An array containing the current value of each nest for loop iterator. Must be scratchIterators
    */
-  private void addToCells(CartesianObject obj, NSpatialHashKey minKey, NSpatialHashKey maxKey, int dim, long[] iterators) {
-	if (dim >= numDimensions) {
+  private void addToCells(CartesianObject obj, long[] minCell, long[] maxCell, int dim, long[] iterators) {
+    if (dim >= numDimensions) {
       return;
     }
-    for (long i = minKey.values[dim]; i <= maxKey.values[dim]; i++) {
+    for (long i = minCell[dim]; i <= maxCell[dim]; i++) {
       iterators[dim] = i;
-      addToCells(obj, minKey, maxKey, dim+1, iterators);
+      addToCells(obj, minCell, maxCell, dim+1, iterators);
       // Only add keys when at the base of recursion
       if (dim == numDimensions - 1) {
-        NSpatialHashKey key = new NSpatialHashKey(Arrays.copyOf(iterators, iterators.length));
-        List<CartesianObject> objects = map.get(key);
+        List<CartesianObject> objects = map.get(scratchKey);
         if (objects == null) {
-          objects = new LinkedList<>();
-          map.put(key, objects);
+          // Only new cells require a key to be allocated
+          objects = new ArrayList<>(4);
+          map.put(new NSpatialHashKey(Arrays.copyOf(iterators, iterators.length)), objects);
         }
         objects.add(obj);
       }
@@ -132,12 +152,12 @@ public class NSpatialHashMap implements ISpatialStructure {
       return false; // Return false if nothing added yet or attempting to remove object of mismatched dimensions.
 
     double[][] minMaxCoordinates = obj.getMinMaxCoordinates();
-    // get keys for the min and max points
-    NSpatialHashKey minKey = spatialHashStrategy.getKey(new Point(minMaxCoordinates[MIN_BOUND_IDX]));
-    NSpatialHashKey maxKey = spatialHashStrategy.getKey(new Point(minMaxCoordinates[MAX_BOUND_IDX]));
+    // get cells for the min and max points
+    spatialHashStrategy.getCell(minMaxCoordinates[MIN_BOUND_IDX], scratchMinCell);
+    spatialHashStrategy.getCell(minMaxCoordinates[MAX_BOUND_IDX], scratchMaxCell);
   
     // iterate over region
-    removeFromCells(obj, minKey, maxKey, 0, Arrays.copyOf(minKey.values, minKey.values.length));
+    removeFromCells(obj, scratchMinCell, scratchMaxCell, 0, scratchIterators);
     return true;
   }
 
@@ -145,21 +165,21 @@ public class NSpatialHashMap implements ISpatialStructure {
    * Helper function to remove objects to there respective cells
    * This function recuses in the form of n-nested for loops to remove an object from all cells it overlaps
    * 
-   * @param obj The object to be added
-   * @param minKey The minimum key (cell) this object will be added to
-   * @param maxKey The maximum key (cell) this object will be added to
+   * @param obj The object to be removed
+   * @param minCell The minimum cell this object will be removed from
+   * @param maxCell The maximum cell this object will be removed from
    * @param dim The current dimension being processed. Can also be thought of as loop depth
+   * @param iterators An array containing the current value of each nest for loop iterator. Must be scratchIterators
    */
-  private void removeFromCells(CartesianObject obj, NSpatialHashKey minKey, NSpatialHashKey maxKey, int dim, long[] iterators) {
+  private void removeFromCells(CartesianObject obj, long[] minCell, long[] maxCell, int dim, long[] iterators) {
     if (dim >= numDimensions) {
       return;
     }
-    for (long i = minKey.values[dim]; i <= maxKey.values[dim]; i++) {
+    for (long i = minCell[dim]; i <= maxCell[dim]; i++) {
       iterators[dim] = i;
-      removeFromCells(obj, minKey, maxKey, dim+1, iterators);
+      removeFromCells(obj, minCell, maxCell, dim+1, iterators);
       if (dim == numDimensions - 1) {
-        NSpatialHashKey key = new NSpatialHashKey(iterators);
-        List<CartesianObject> objects = map.get(key);
+        List<CartesianObject> objects = map.get(scratchKey);
         if (objects == null) {
           continue;
         }
@@ -176,13 +196,13 @@ public class NSpatialHashMap implements ISpatialStructure {
       return new LinkedList<>(); // Returned no conflicts as no other objects are present
     
     double[][] minMaxCoordinates = obj.getMinMaxCoordinates();
-    // get keys for the min and max points
-    NSpatialHashKey minKey = spatialHashStrategy.getKey(new Point(minMaxCoordinates[MIN_BOUND_IDX]));
-    NSpatialHashKey maxKey = spatialHashStrategy.getKey(new Point(minMaxCoordinates[MAX_BOUND_IDX]));
+    // get cells for the min and max points
+    spatialHashStrategy.getCell(minMaxCoordinates[MIN_BOUND_IDX], scratchMinCell);
+    spatialHashStrategy.getCell(minMaxCoordinates[MAX_BOUND_IDX], scratchMaxCell);
   
     // iterate over region
     HashSet<CartesianObject> collidedObjects = new HashSet<>();
-    getCollisionsInCells(obj, collidedObjects, minKey, maxKey, 0, Arrays.copyOf(minKey.values, minKey.values.length));
+    getCollisionsInCells(obj, collidedObjects, scratchMinCell, scratchMaxCell, 0, scratchIterators);
     return new ArrayList<CartesianObject>(collidedObjects);
   }
 
@@ -192,23 +212,22 @@ public class NSpatialHashMap implements ISpatialStructure {
    * 
    * @param obj The object to be added
    * @param collidedObjects A hash set of all previously detected collisions
-   * @param minKey The minimum key (cell) this object will be added to
-   * @param maxKey The maximum key (cell) this object will be added to
-   * @param iterators An array containing the current value of each nest for loop iterator
+   * @param minCell The minimum cell to check
+   * @param maxCell The maximum cell to check
    * @param dim The current dimension being processed. Can also be thought of as loop depth
+   * @param iterators An array containing the current value of each nest for loop iterator. Must be scratchIterators
    */
   private void getCollisionsInCells(CartesianObject obj, HashSet<CartesianObject> collidedObjects,
-  NSpatialHashKey minKey, NSpatialHashKey maxKey, int dim, long[] iterators) {
+  long[] minCell, long[] maxCell, int dim, long[] iterators) {
     if (dim >= numDimensions) {
       return;
     }
-    for (long i = minKey.values[dim]; i <= maxKey.values[dim]; i++) {
+    for (long i = minCell[dim]; i <= maxCell[dim]; i++) {
       iterators[dim] = i;
-      getCollisionsInCells(obj, collidedObjects, minKey, maxKey, dim+1, iterators);
+      getCollisionsInCells(obj, collidedObjects, minCell, maxCell, dim+1, iterators);
       // Only add objects at bottom of recursion
       if (dim == numDimensions - 1) {
-        NSpatialHashKey key = new NSpatialHashKey(iterators);
-        List<CartesianObject> objects = map.get(key);
+        List<CartesianObject> objects = map.get(scratchKey);
         if (objects == null) {
           continue;
         }
@@ -243,6 +262,118 @@ public class NSpatialHashMap implements ISpatialStructure {
     return collidingObjects;
   }
 
+  @Override
+  public boolean hasCollision(double[] minBounds, double[] maxBounds) {
+    if (bounds == null || minBounds == null || maxBounds == null
+      || minBounds.length != numDimensions || maxBounds.length != numDimensions) {
+      return false;
+    }
+    // get cells for the min and max points
+    spatialHashStrategy.getCell(minBounds, scratchMinCell);
+    spatialHashStrategy.getCell(maxBounds, scratchMaxCell);
+    return hasCollisionInCells(minBounds, maxBounds, 0);
+  }
+
+  /**
+   * Helper function to determine if any object collides with the provided box
+   * This function recuses in the form of n-nested for loops and returns as soon as a collision is found
+   * 
+   * @param minBounds The minimum coordinate of the box in each dimension
+   * @param maxBounds The maximum coordinate of the box in each dimension
+   * @param dim The current dimension being processed. Can also be thought of as loop depth
+   * 
+   * @return True if a collision was found
+   */
+  private boolean hasCollisionInCells(double[] minBounds, double[] maxBounds, int dim) {
+    for (long i = scratchMinCell[dim]; i <= scratchMaxCell[dim]; i++) {
+      scratchIterators[dim] = i;
+      if (dim < numDimensions - 1) {
+        if (hasCollisionInCells(minBounds, maxBounds, dim + 1)) {
+          return true;
+        }
+        continue;
+      }
+      // Only check objects at bottom of recursion
+      List<CartesianObject> objects = map.get(scratchKey);
+      if (objects == null) {
+        continue;
+      }
+      // Index based iteration avoids allocating an iterator for each cell
+      for (int j = 0; j < objects.size(); j++) {
+        if (intersectionChecker.intersects(objects.get(j), minBounds, maxBounds)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * {@inheritDoc}
+   * The provided visitor must not modify or query this structure
+   */
+  @Override
+  public void forEachCollision(double[] minBounds, double[] maxBounds, Consumer<CartesianObject> visitor) {
+    if (bounds == null || minBounds == null || maxBounds == null
+      || minBounds.length != numDimensions || maxBounds.length != numDimensions) {
+      return;
+    }
+    // get cells for the min and max points
+    spatialHashStrategy.getCell(minBounds, scratchMinCell);
+    spatialHashStrategy.getCell(maxBounds, scratchMaxCell);
+    forEachCollisionInCells(minBounds, maxBounds, visitor, 0);
+  }
+
+  /**
+   * Helper function to visit all objects which collide with the provided box
+   * This function recuses in the form of n-nested for loops.
+   * An object spanning several cells is only visited from the cell containing the
+   * minimum corner of its overlap with the box so that it is visited exactly once without tracking visited objects
+   * 
+   * @param minBounds The minimum coordinate of the box in each dimension
+   * @param maxBounds The maximum coordinate of the box in each dimension
+   * @param visitor The function to call with each colliding object
+   * @param dim The current dimension being processed. Can also be thought of as loop depth
+   */
+  private void forEachCollisionInCells(double[] minBounds, double[] maxBounds, Consumer<CartesianObject> visitor, int dim) {
+    for (long i = scratchMinCell[dim]; i <= scratchMaxCell[dim]; i++) {
+      scratchIterators[dim] = i;
+      if (dim < numDimensions - 1) {
+        forEachCollisionInCells(minBounds, maxBounds, visitor, dim + 1);
+        continue;
+      }
+      // Only check objects at bottom of recursion
+      List<CartesianObject> objects = map.get(scratchKey);
+      if (objects == null) {
+        continue;
+      }
+      for (int j = 0; j < objects.size(); j++) {
+        CartesianObject otherObject = objects.get(j);
+        if (intersectionChecker.intersects(otherObject, minBounds, maxBounds) && isReportingCell(otherObject, minBounds)) {
+          visitor.accept(otherObject);
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper function returns true if the cell currently held in scratchIterators contains
+   * the minimum corner of the overlap between the provided object and box
+   * 
+   * @param obj The object overlapping the box
+   * @param minBounds The minimum coordinate of the box in each dimension
+   * 
+   * @return True if the object should be reported from the current cell
+   */
+  private boolean isReportingCell(CartesianObject obj, double[] minBounds) {
+    final double[][] objBounds = obj.getBounds();
+    for (int i = 0; i < numDimensions; i++) {
+      scratchCoordinates[i] = Math.max(objBounds[i][MIN_BOUND_IDX], minBounds[i]);
+    }
+    spatialHashStrategy.getCell(scratchCoordinates, scratchCell);
+    return Arrays.equals(scratchCell, scratchIterators);
+  }
+
   @Override 
   public boolean surrounds(Point p) {
     if (p == null || bounds == null || p.getNumDimensions() != numDimensions)
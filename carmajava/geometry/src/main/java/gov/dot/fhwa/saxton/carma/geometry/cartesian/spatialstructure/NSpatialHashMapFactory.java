@@ -27,16 +27,42 @@ import gov.dot.fhwa.saxton.carma.geometry.cartesian.AxisAlignedBoundingBox;
  */
 public class NSpatialHashMapFactory implements ISpatialStructureFactory{
     public final double[] cellDims;
+    public final boolean usePackedKeys;
     /**
      * Constructor
      * 
      * @param cellDims The dimensions of a cell which this will map points to
      */
     public NSpatialHashMapFactory(double[] cellDims) {
+        this(cellDims, false);
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param cellDims The dimensions of a cell which this will map points to
+     * @param usePackedKeys If true and cellDims has 3 dimensions a MortonSpatialHashMap will be built
+     * which packs cell coordinates into primitive long keys instead of allocating key objects
+     */
+    public NSpatialHashMapFactory(double[] cellDims, boolean usePackedKeys) {
         this.cellDims = cellDims;
+        this.usePackedKeys = usePackedKeys;
     }
+
     @Override
-    public NSpatialHashMap buildSpatialStructure() {
+    public ISpatialStructure buildSpatialStructure() {
+        if (usePackedKeys && cellDims.length == 3) {
+            return new MortonSpatialHashMap(cellDims);
+        }
+        return buildNSpatialHashMap();
+    }
+
+    /**
+     * Build an NSpatialHashMap regardless of the packed key setting
+     * 
+     * @return A new NSpatialHashMap using axis aligned bounding box collision checks
+     */
+    public NSpatialHashMap buildNSpatialHashMap() {
         return new NSpatialHashMap(new AxisAlignedBoundingBox(), new SimpleHashStrategy(cellDims), new HashMap<>());
     }
 }
\ No newline at end of file
@@ -31,6 +31,15 @@ public interface NSpatialHashStrategy {
    */
   NSpatialHashKey getKey(Point point);
 
+  /**
+   * Computes the cell coordinates for the provided point coordinates without allocating a key
+   * The result must match the values of the key returned by getKey for the same point
+   * 
+   * @param coordinates The coordinates of the point to convert. Must have length equal to getNumDimensions
+   * @param cell Output array which will be populated with the cell coordinates. Must have length equal to getNumDimensions
+   */
+  void getCell(double[] coordinates, long[] cell);
+
   /**
    * Returns the number of dimensions this strategy is equipped to handle
    * 
@@ -47,6 +47,13 @@ public class SimpleHashStrategy implements NSpatialHashStrategy{
     return new NSpatialHashKey(key);
   }
 
+  @Override
+  public void getCell(double[] coordinates, long[] cell) {
+    for (int i = 0; i < cellDims.length; i++) {
+      cell[i] = (long)(coordinates[i]/cellDims[i]);
+    }
+  }
+
   @Override
   public int getNumDimensions() {
     return cellDims.length;
@@ -0,0 +1,413 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.geometry.cartesian.spatialstructure;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A single shared index of axis aligned boxes in (downtrack, crosstrack, time) space
+ * where every box is tagged with the key of the object (vehicle, plan etc.) which owns it.
+ *
+ * The time axis is divided into slices held in a sorted map so that slices which are entirely in the past
+ * can be dropped as a batch. Each slice is a 2d grid of cells over downtrack and crosstrack.
+ * A single query returns the keys of every owner with a box intersecting the query box.
+ *
+ * Box intersection is inclusive on all boundaries matching {@link gov.dot.fhwa.saxton.carma.geometry.cartesian.AxisAlignedBoundingBox}
+ * This class is not thread safe on its own
+ *
+ * @param <K> The type of key used to identify the owner of a box
+ */
+public class TimeSlicedSpatialIndex<K> {
+  public static final int DOWNTRACK_IDX = 0;
+  public static final int CROSSTRACK_IDX = 1;
+  public static final int TIME_IDX = 2;
+  public static final int MIN_BOUND_IDX = NSpatialHashMap.MIN_BOUND_IDX;
+  public static final int MAX_BOUND_IDX = NSpatialHashMap.MAX_BOUND_IDX;
+
+  private final double downtrackCellSize;
+  private final double crosstrackCellSize;
+  private final double timeCellSize;
+  // Time slice index -> (packed downtrack/crosstrack cell -> boxes in that cell)
+  // The sorted map provides ordering for batch expiry while the hash map provides allocation free lookup
+  private final TreeMap<Long, LongObjectHashMap<List<Box<K>>>> slices = new TreeMap<>();
+  private final LongObjectHashMap<LongObjectHashMap<List<Box<K>>>> sliceLookup = new LongObjectHashMap<>();
+  private final Map<K, Owner<K>> owners = new HashMap<>();
+  // Incremented on each query so an owner with several colliding boxes is only reported once
+  private long queryCount = 0;
+
+  /**
+   * A box stored in the index along with its owner
+   */
+  private static final class Box<K> {
+    final Owner<K> owner;
+    final double minDowntrack, minCrosstrack, minTime;
+    final double maxDowntrack, maxCrosstrack, maxTime;
+
+    Box(Owner<K> owner, double minDowntrack, double minCrosstrack, double minTime,
+      double maxDowntrack, double maxCrosstrack, double maxTime) {
+      this.owner = owner;
+      this.minDowntrack = minDowntrack;
+      this.minCrosstrack = minCrosstrack;
+      this.minTime = minTime;
+      this.maxDowntrack = maxDowntrack;
+      this.maxCrosstrack = maxCrosstrack;
+      this.maxTime = maxTime;
+    }
+
+    boolean intersects(double minD, double minC, double minT, double maxD, double maxC, double maxT) {
+      return Math.max(minDowntrack, minD) <= Math.min(maxDowntrack, maxD)
+        && Math.max(minCrosstrack, minC) <= Math.min(maxCrosstrack, maxC)
+        && Math.max(minTime, minT) <= Math.min(maxTime, maxT);
+    }
+  }
+
+  /**
+   * The set of boxes belonging to one key along with their combined bounds
+   */
+  private static final class Owner<K> {
+    final K key;
+    final List<Box<K>> boxes = new ArrayList<>();
+    final double[][] bounds = new double[3][2];
+    long lastReportedQuery = -1;
+
+    Owner(K key) {
+      this.key = key;
+    }
+  }
+
+  /**
+   * Constructor
+   *
+   * @param cellDims The size of a cell in the downtrack, crosstrack and time dimensions in that order
+   */
+  public TimeSlicedSpatialIndex(double[] cellDims) {
+    if (cellDims == null || cellDims.length != 3) {
+      throw new IllegalArgumentException("TimeSlicedSpatialIndex requires exactly 3 cell dimensions");
+    }
+    this.downtrackCellSize = cellDims[DOWNTRACK_IDX];
+    this.crosstrackCellSize = cellDims[CROSSTRACK_IDX];
+    this.timeCellSize = cellDims[TIME_IDX];
+  }
+
+  /**
+   * Insert a box for the provided owner. Boxes inserted under the same key accumulate
+   *
+   * @param key The key of the box's owner
+   * @param minDowntrack The minimum downtrack bound of the box
+   * @param minCrosstrack The minimum crosstrack bound of the box
+   * @param minTime The minimum time bound of the box
+   * @param maxDowntrack The maximum downtrack bound of the box
+   * @param maxCrosstrack The maximum crosstrack bound of the box
+   * @param maxTime The maximum time bound of the box
+   */
+  public void insert(K key, double minDowntrack, double minCrosstrack, double minTime,
+    double maxDowntrack, double maxCrosstrack, double maxTime) {
+
+    Owner<K> owner = owners.get(key);
+    if (owner == null) {
+      owner = new Owner<>(key);
+      owner.bounds[DOWNTRACK_IDX][MIN_BOUND_IDX] = minDowntrack;
+      owner.bounds[DOWNTRACK_IDX][MAX_BOUND_IDX] = maxDowntrack;
+      owner.bounds[CROSSTRACK_IDX][MIN_BOUND_IDX] = minCrosstrack;
+      owner.bounds[CROSSTRACK_IDX][MAX_BOUND_IDX] = maxCrosstrack;
+      owner.bounds[TIME_IDX][MIN_BOUND_IDX] = minTime;
+      owner.bounds[TIME_IDX][MAX_BOUND_IDX] = maxTime;
+      owners.put(key, owner);
+    } else {
+      updateBounds(owner.bounds[DOWNTRACK_IDX], minDowntrack, maxDowntrack);
+      updateBounds(owner.bounds[CROSSTRACK_IDX], minCrosstrack, maxCrosstrack);
+      updateBounds(owner.bounds[TIME_IDX], minTime, maxTime);
+    }
+
+    Box<K> box = new Box<>(owner, minDowntrack, minCrosstrack, minTime, maxDowntrack, maxCrosstrack, maxTime);
+    owner.boxes.add(box);
+
+    final long minSlice = cell(minTime, timeCellSize), maxSlice = cell(maxTime, timeCellSize);
+    final long minD = cell(minDowntrack, downtrackCellSize), maxD = cell(maxDowntrack, downtrackCellSize);
+    final long minC = cell(minCrosstrack, crosstrackCellSize), maxC = cell(maxCrosstrack, crosstrackCellSize);
+
+    for (long t = minSlice; t <= maxSlice; t++) {
+      LongObjectHashMap<List<Box<K>>> slice = sliceLookup.get(t);
+      if (slice == null) {
+        slice = new LongObjectHashMap<>();
+        slices.put(t, slice);
+        sliceLookup.put(t, slice);
+      }
+      for (long d = minD; d <= maxD; d++) {
+        for (long c = minC; c <= maxC; c++) {
+          long cellKey = packCell(d, c);
+          List<Box<K>> cellBoxes = slice.get(cellKey);
+          if (cellBoxes == null) {
+            cellBoxes = new ArrayList<>(2);
+            slice.put(cellKey, cellBoxes);
+          }
+          cellBoxes.add(box);
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes all boxes belonging to the provided key
+   *
+   * @param key The key of the owner to remove
+   *
+   * @return True if the key was present in the index. False otherwise
+   */
+  public boolean remove(K key) {
+    Owner<K> owner = owners.remove(key);
+    if (owner == null) {
+      return false;
+    }
+    for (Box<K> box : owner.boxes) {
+      removeBox(box);
+    }
+    return true;
+  }
+
+  /**
+   * Helper function removes a single box from every cell it was inserted into
+   * Cells or slices which become empty are discarded
+   *
+   * @param box The box to remove
+   */
+  private void removeBox(Box<K> box) {
+    final long minSlice = cell(box.minTime, timeCellSize), maxSlice = cell(box.maxTime, timeCellSize);
+    final long minD = cell(box.minDowntrack, downtrackCellSize), maxD = cell(box.maxDowntrack, downtrackCellSize);
+    final long minC = cell(box.minCrosstrack, crosstrackCellSize), maxC = cell(box.maxCrosstrack, crosstrackCellSize);
+
+    for (long t = minSlice; t <= maxSlice; t++) {
+      LongObjectHashMap<List<Box<K>>> slice = sliceLookup.get(t);
+      if (slice == null) {
+        continue; // This slice has already been expired
+      }
+      for (long d = minD; d <= maxD; d++) {
+        for (long c = minC; c <= maxC; c++) {
+          long cellKey = packCell(d, c);
+          List<Box<K>> cellBoxes = slice.get(cellKey);
+          if (cellBoxes == null) {
+            continue;
+          }
+          // Remove by identity as boxes do not override equals
+          for (int i = 0; i < cellBoxes.size(); i++) {
+            if (cellBoxes.get(i) == box) {
+              cellBoxes.remove(i);
+              break;
+            }
+          }
+          if (cellBoxes.isEmpty()) {
+            slice.remove(cellKey);
+          }
+        }
+      }
+      if (slice.isEmpty()) {
+        slices.remove(t);
+        sliceLookup.remove(t);
+      }
+    }
+  }
+
+  /**
+   * Expires stale data from the index
+   * Every owner whose latest box ends before minTime is removed entirely
+   * and every time slice which ends before minSliceTime is dropped as a batch.
+   * The remaining owners forget their boxes which were only held in the dropped slices,
+   * so an owner which keeps inserting boxes only holds the boxes which can still be queried
+   *
+   * @param minTime The time before which an owner's data is no longer relevant
+   * @param minSliceTime The earliest time which may still be queried. Should be less than or equal to minTime
+   * @param expiredKeys Collection which will be populated with the keys of removed owners. May be null
+   */
+  public void expire(double minTime, double minSliceTime, Collection<K> expiredKeys) {
+    // Slices strictly before the slice containing minSliceTime can no longer be queried
+    final long minSlice = cell(minSliceTime, timeCellSize);
+    for (Iterator<Owner<K>> it = owners.values().iterator(); it.hasNext();) {
+      Owner<K> owner = it.next();
+      if (minTime > owner.bounds[TIME_IDX][MAX_BOUND_IDX]) {
+        it.remove();
+        for (Box<K> box : owner.boxes) {
+          removeBox(box);
+        }
+        if (expiredKeys != null) {
+          expiredKeys.add(owner.key);
+        }
+      } else {
+        // Boxes ending before the min slice are only held by slices dropped below
+        owner.boxes.removeIf((box) -> cell(box.maxTime, timeCellSize) < minSlice);
+      }
+    }
+    Map<Long, LongObjectHashMap<List<Box<K>>>> staleSlices = slices.headMap(minSlice);
+    for (Long t : staleSlices.keySet()) {
+      sliceLookup.remove(t);
+    }
+    staleSlices.clear();
+  }
+
+  /**
+   * Finds the keys of every owner with a box intersecting the provided box
+   * This function performs no allocation of its own so a reusable result collection such as an ArrayList
+   * allows repeated queries without generating garbage
+   *
+   * @param minDowntrack The minimum downtrack bound of the query box
+   * @param minCrosstrack The minimum crosstrack bound of the query box
+   * @param minTime The minimum time bound of the query box
+   * @param maxDowntrack The maximum downtrack bound of the query box
+   * @param maxCrosstrack The maximum crosstrack bound of the query box
+   * @param maxTime The maximum time bound of the query box
+   * @param result The collection which the colliding keys will be added to. Each colliding key is added once
+   */
+  public void query(double minDowntrack, double minCrosstrack, double minTime,
+    double maxDowntrack, double maxCrosstrack, double maxTime, Collection<K> result) {
+
+    final long queryId = queryCount++;
+
+    final long minSlice = cell(minTime, timeCellSize), maxSlice = cell(maxTime, timeCellSize);
+    final long minD = cell(minDowntrack, downtrackCellSize), maxD = cell(maxDowntrack, downtrackCellSize);
+    final long minC = cell(minCrosstrack, crosstrackCellSize), maxC = cell(maxCrosstrack, crosstrackCellSize);
+
+    for (long t = minSlice; t <= maxSlice; t++) {
+      LongObjectHashMap<List<Box<K>>> slice = sliceLookup.get(t);
+      if (slice == null) {
+        continue;
+      }
+      for (long d = minD; d <= maxD; d++) {
+        for (long c = minC; c <= maxC; c++) {
+          List<Box<K>> cellBoxes = slice.get(packCell(d, c));
+          if (cellBoxes == null) {
+            continue;
+          }
+          for (int i = 0; i < cellBoxes.size(); i++) {
+            Box<K> box = cellBoxes.get(i);
+            if (box.owner.lastReportedQuery != queryId
+              && box.intersects(minDowntrack, minCrosstrack, minTime, maxDowntrack, maxCrosstrack, maxTime)) {
+              box.owner.lastReportedQuery = queryId;
+              result.add(box.owner.key);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns true if the provided point is strictly within the combined bounds of the boxes belonging to the provided key
+   *
+   * @param key The key of the owner to evaluate
+   * @param downtrack The downtrack value of the point
+   * @param crosstrack The crosstrack value of the point
+   * @param time The time value of the point
+   *
+   * @return True if the key is present and the point is fully within its bounds
+   */
+  public boolean surrounds(K key, double downtrack, double crosstrack, double time) {
+    Owner<K> owner = owners.get(key);
+    if (owner == null) {
+      return false;
+    }
+    return within(owner.bounds[DOWNTRACK_IDX], downtrack)
+      && within(owner.bounds[CROSSTRACK_IDX], crosstrack)
+      && within(owner.bounds[TIME_IDX], time);
+  }
+
+  /**
+   * Gets the combined bounds of the boxes belonging to the provided key
+   * Access min value of first dimension with bounds[0][0]
+   * Access max value of first dimension with bounds[0][1]
+   *
+   * @param key The key of the owner
+   *
+   * @return A 2d array where the rows are the dimension and the columns are the min/max values. Null if the key is not present
+   */
+  public double[][] getBounds(K key) {
+    Owner<K> owner = owners.get(key);
+    return owner == null ? null : owner.bounds;
+  }
+
+  /**
+   * Returns true if the provided key has boxes in this index
+   *
+   * @param key The key to check
+   *
+   * @return True if present
+   */
+  public boolean contains(K key) {
+    return owners.containsKey(key);
+  }
+
+  /**
+   * Returns the number of owners currently tracked by this index
+   *
+   * @return The number of owners
+   */
+  public int size() {
+    return owners.size();
+  }
+
+  /**
+   * Helper function for unit testing
+   * Extreme care should be taken if used outside a testing framework
+   *
+   * @return The number of time slices currently held in this index
+   */
+  protected int getNumSlices() {
+    return slices.size();
+  }
+
+  /**
+   * Helper function for unit testing
+   * Extreme care should be taken if used outside a testing framework
+   *
+   * @param key The key of the owner
+   *
+   * @return The number of boxes held by the owner. 0 if the key is not present
+   */
+  protected int getNumBoxes(K key) {
+    Owner<K> owner = owners.get(key);
+    return owner == null ? 0 : owner.boxes.size();
+  }
+
+  private static void updateBounds(double[] bounds, double min, double max) {
+    if (min < bounds[MIN_BOUND_IDX]) {
+      bounds[MIN_BOUND_IDX] = min;
+    }
+    if (max > bounds[MAX_BOUND_IDX]) {
+      bounds[MAX_BOUND_IDX] = max;
+    }
+  }
+
+  private static boolean within(double[] bounds, double value) {
+    return bounds[MIN_BOUND_IDX] < value && value < bounds[MAX_BOUND_IDX];
+  }
+
+  private static long cell(double value, double cellSize) {
+    return (long) Math.floor(value / cellSize);
+  }
+
+  /**
+   * Helper function packs a downtrack and crosstrack cell coordinate into a single long
+   * Each coordinate is truncated to 32 bits which covers any realistic route
+   */
+  private static long packCell(long downtrackCell, long crosstrackCell) {
+    return (downtrackCell << 32) | (crosstrackCell & 0xFFFFFFFFL);
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.geometry.cartesian.spatialstructure;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the LongIntHashMap class
+ */
+public class LongIntHashMapTest {
+
+  @Test
+  public void testPutGetRemove() throws Exception {
+    LongIntHashMap map = new LongIntHashMap();
+    assertTrue(map.isEmpty());
+    assertEquals(LongIntHashMap.NO_VALUE, map.put(1L, 0));
+    assertEquals(LongIntHashMap.NO_VALUE, map.put(-1L, 2));
+    assertEquals(LongIntHashMap.NO_VALUE, map.put(Long.MAX_VALUE, 3));
+    assertEquals(0, map.put(1L, 4));
+    assertEquals(3, map.size());
+
+    assertEquals(4, map.get(1L));
+    assertEquals(2, map.get(-1L));
+    assertEquals(3, map.get(Long.MAX_VALUE));
+    assertEquals(LongIntHashMap.NO_VALUE, map.get(2L));
+
+    assertEquals(2, map.remove(-1L));
+    assertEquals(LongIntHashMap.NO_VALUE, map.remove(-1L));
+    assertEquals(2, map.size());
+
+    map.clear();
+    assertTrue(map.isEmpty());
+    assertEquals(LongIntHashMap.NO_VALUE, map.get(1L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeValue() throws Exception {
+    new LongIntHashMap().put(1L, -5);
+  }
+
+  /**
+   * Compares against a java.util.HashMap under random inserts and removals to exercise resizing and backward shift deletion
+   */
+  @Test
+  public void testMatchesHashMap() throws Exception {
+    LongIntHashMap map = new LongIntHashMap(4);
+    Map<Long, Integer> expected = new HashMap<>();
+    Random rand = new Random(42);
+
+    for (int i = 0; i < 20000; i++) {
+      long key = rand.nextInt(500) - 250;
+      if (rand.nextBoolean()) {
+        Integer prev = expected.put(key, i);
+        assertEquals(prev == null ? LongIntHashMap.NO_VALUE : prev.intValue(), map.put(key, i));
+      } else {
+        Integer prev = expected.remove(key);
+        assertEquals(prev == null ? LongIntHashMap.NO_VALUE : prev.intValue(), map.remove(key));
+      }
+      assertEquals(expected.size(), map.size());
+    }
+    for (long key = -250; key < 250; key++) {
+      Integer value = expected.get(key);
+      assertEquals(value == null ? LongIntHashMap.NO_VALUE : value.intValue(), map.get(key));
+    }
+  }
+}
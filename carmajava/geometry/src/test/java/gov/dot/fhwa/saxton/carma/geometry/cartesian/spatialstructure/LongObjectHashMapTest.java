@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.geometry.cartesian.spatialstructure;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the LongObjectHashMap class
+ */
+public class LongObjectHashMapTest {
+
+  @Test
+  public void testPutGetRemove() throws Exception {
+    LongObjectHashMap<String> map = new LongObjectHashMap<>();
+    assertTrue(map.isEmpty());
+    assertNull(map.put(1L, "a"));
+    assertNull(map.put(-1L, "b"));
+    assertNull(map.put(Long.MAX_VALUE, "c"));
+    assertEquals("a", map.put(1L, "d"));
+    assertEquals(3, map.size());
+
+    assertEquals("d", map.get(1L));
+    assertEquals("b", map.get(-1L));
+    assertEquals("c", map.get(Long.MAX_VALUE));
+    assertNull(map.get(2L));
+
+    assertEquals("b", map.remove(-1L));
+    assertNull(map.remove(-1L));
+    assertNull(map.get(-1L));
+    assertEquals(2, map.size());
+
+    map.clear();
+    assertTrue(map.isEmpty());
+    assertNull(map.get(1L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullValue() throws Exception {
+    new LongObjectHashMap<String>().put(1L, null);
+  }
+
+  /**
+   * Compares against a java.util.HashMap under random inserts and removals to exercise resizing and backward shift deletion
+   */
+  @Test
+  public void testMatchesHashMap() throws Exception {
+    LongObjectHashMap<Long> map = new LongObjectHashMap<>(4);
+    Map<Long, Long> expected = new HashMap<>();
+    Random rand = new Random(42);
+
+    for (int i = 0; i < 20000; i++) {
+      long key = rand.nextInt(500) - 250;
+      if (rand.nextBoolean()) {
+        assertEquals(expected.put(key, key * 2), map.put(key, key * 2));
+      } else {
+        assertEquals(expected.remove(key), map.remove(key));
+      }
+      assertEquals(expected.size(), map.size());
+    }
+    for (long key = -250; key < 250; key++) {
+      assertEquals(expected.get(key), map.get(key));
+    }
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.geometry.cartesian.spatialstructure;
+
+import gov.dot.fhwa.saxton.carma.geometry.cartesian.CartesianObject;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Benchmark of a conflict check between realistic path sizes in the NSpatialHashMap and the MortonSpatialHashMap.
+ * One path is inserted and the points of a second path are checked against it as done when comparing two vehicle paths,
+ * and the average build and query time of each structure is printed.
+ * Benchmarks are excluded from the unit tests and run with the benchmark gradle task.
+ */
+public class MortonSpatialHashMapBenchmarkTest {
+
+  private static final int PATH_SIZE = 300;
+  private static final int ITERATIONS = 500;
+  private static final int WARMUP_PASSES = 2;
+
+  @Test
+  public void benchmarkRealisticPaths() throws Exception {
+    Random rand = new Random(11);
+    List<CartesianObject> otherPath = MortonSpatialHashMapTest.path(rand, PATH_SIZE, 1.5e9);
+    List<CartesianObject> hostPath = MortonSpatialHashMapTest.path(rand, PATH_SIZE, 1.5e9);
+    // Follow the other path for a while so that some collisions are found
+    hostPath.addAll(MortonSpatialHashMapTest.path(new Random(11), PATH_SIZE / 2, 1.5e9 + 0.05));
+
+    String[] names = {"NSpatialHashMap", "MortonSpatialHashMap"};
+    NSpatialHashMapFactory[] factories = {
+      new NSpatialHashMapFactory(MortonSpatialHashMapTest.CELL_DIMS),
+      new NSpatialHashMapFactory(MortonSpatialHashMapTest.CELL_DIMS, true)
+    };
+    long[] collisionCounts = new long[factories.length];
+    long[] buildTimes = new long[factories.length];
+    long[] queryTimes = new long[factories.length];
+    double[] min = new double[3];
+    double[] max = new double[3];
+    // Earlier passes warm up the JIT
+    for (int pass = 0; pass <= WARMUP_PASSES; pass++) {
+      for (int f = 0; f < factories.length; f++) {
+        collisionCounts[f] = 0;
+        buildTimes[f] = 0;
+        queryTimes[f] = 0;
+        for (int n = 0; n < ITERATIONS; n++) {
+          long startTime = System.nanoTime();
+          ISpatialStructure map = factories[f].buildSpatialStructure();
+          for (CartesianObject obj : otherPath) {
+            map.insert(obj);
+          }
+          long builtTime = System.nanoTime();
+          for (CartesianObject obj : hostPath) {
+            double[][] objBounds = obj.getBounds();
+            for (int i = 0; i < 3; i++) {
+              min[i] = objBounds[i][0];
+              max[i] = objBounds[i][1];
+            }
+            if (map.hasCollision(min, max)) {
+              collisionCounts[f] += map.getCollisions(obj).size();
+            }
+          }
+          long endTime = System.nanoTime();
+          buildTimes[f] += builtTime - startTime;
+          queryTimes[f] += endTime - builtTime;
+        }
+      }
+    }
+
+    for (int f = 0; f < factories.length; f++) {
+      System.out.println(String.format("%s: build %d us and query %d us per path pair with %d and %d points",
+          names[f], buildTimes[f] / ITERATIONS / 1000, queryTimes[f] / ITERATIONS / 1000, otherPath.size(), hostPath.size()));
+    }
+    assertTrue(collisionCounts[0] > 0);
+    assertEquals(collisionCounts[0], collisionCounts[1]);
+  }
+}
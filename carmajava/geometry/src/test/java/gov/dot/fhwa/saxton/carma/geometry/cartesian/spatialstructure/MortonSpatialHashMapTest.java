@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.geometry.cartesian.spatialstructure;
+
+import gov.dot.fhwa.saxton.carma.geometry.cartesian.CartesianObject;
+import gov.dot.fhwa.saxton.carma.geometry.cartesian.Point;
+import gov.dot.fhwa.saxton.carma.geometry.cartesian.Point3D;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the MortonSpatialHashMap class
+ */
+public class MortonSpatialHashMapTest {
+
+  static final double[] CELL_DIMS = {5.0, 5.0, 0.2};
+
+  /**
+   * Helper function builds a box centered on a point
+   */
+  static CartesianObject box(double x, double y, double t, double dx, double dy, double dt) {
+    List<Point3D> points = new ArrayList<>();
+    points.add(new Point3D(x - dx, y - dy, t - dt));
+    points.add(new Point3D(x + dx, y + dy, t + dt));
+    return new CartesianObject(points);
+  }
+
+  /**
+   * Helper function builds a path of boxes similar to a MobilityPath with a 0.1s timestep
+   */
+  static List<CartesianObject> path(Random rand, int numPoints, double startTime) {
+    List<CartesianObject> path = new ArrayList<>(numPoints);
+    double downtrack = rand.nextDouble() * 200.0;
+    double crosstrack = rand.nextDouble() * 8.0 - 4.0;
+    double speed = 10.0 + rand.nextDouble() * 20.0;
+    for (int i = 0; i < numPoints; i++) {
+      double t = startTime + i * 0.1;
+      path.add(box(downtrack + speed * i * 0.1, crosstrack, t, 2.5, 1.0, 0.05));
+    }
+    return path;
+  }
+
+  @Test
+  public void testInsertAndCollisions() throws Exception {
+    MortonSpatialHashMap map = new MortonSpatialHashMap(CELL_DIMS);
+    assertEquals(3, map.getNumDimensions());
+    assertNull(map.getBounds());
+    assertTrue(map.getCollisions(box(0, 0, 0, 1, 1, 1)).isEmpty());
+
+    CartesianObject obj1 = box(0, 0, 0, 1, 1, 1);
+    CartesianObject obj2 = box(-12, -3, -1, 1, 1, 0.5);
+    assertTrue(map.insert(obj1));
+    assertTrue(map.insert(obj2));
+    assertFalse(map.insert(new CartesianObject(Arrays.asList(new Point(0, 0), new Point(1, 1)))));
+
+    // Boundaries are inclusive for object collisions
+    List<CartesianObject> result = map.getCollisions(box(2, 0, 0, 1, 1, 1));
+    assertEquals(1, result.size());
+    assertTrue(result.get(0) == obj1);
+    result = map.getCollisions(box(-11, -3, -1, 0.5, 0.5, 0.1));
+    assertEquals(1, result.size());
+    assertTrue(result.get(0) == obj2);
+    assertTrue(map.getCollisions(box(20, 0, 0, 1, 1, 1)).isEmpty());
+    assertNull(map.getCollisions(new CartesianObject(Arrays.asList(new Point(0, 0), new Point(1, 1)))));
+
+    // Boundaries are exclusive for point collisions
+    assertEquals(1, map.getCollisions(new Point3D(0.5, 0.5, 0.5)).size());
+    assertTrue(map.getCollisions(new Point3D(1, 0, 0)).isEmpty());
+
+    double[][] bounds = map.getBounds();
+    assertEquals(-13, bounds[0][0], 0.0000001);
+    assertEquals(1, bounds[0][1], 0.0000001);
+    assertEquals(-1.5, bounds[2][0], 0.0000001);
+    assertTrue(map.surrounds(new Point3D(0, 0, 0)));
+    assertFalse(map.surrounds(new Point3D(1, 0, 0)));
+
+    assertTrue(map.remove(obj1));
+    assertTrue(map.getCollisions(box(0, 0, 0, 1, 1, 1)).isEmpty());
+    assertFalse(map.hasCollision(new double[] {-1, -1, -1}, new double[] {1, 1, 1}));
+    assertTrue(map.hasCollision(new double[] {-12, -3, -1}, new double[] {-12, -3, -1}));
+
+    // Freed slots are reused
+    CartesianObject obj3 = box(30, 2, 4, 1, 1, 1);
+    assertTrue(map.insert(obj3));
+    result = map.getCollisions(box(30, 2, 4, 0.1, 0.1, 0.1));
+    assertEquals(1, result.size());
+    assertTrue(result.get(0) == obj3);
+  }
+
+  @Test
+  public void testPackCell() throws Exception {
+    assertEquals(0L, MortonSpatialHashMap.packCell(0, 0, 0));
+    assertEquals(1L, MortonSpatialHashMap.packCell(1, 0, 0));
+    assertEquals(2L, MortonSpatialHashMap.packCell(0, 1, 0));
+    assertEquals(4L, MortonSpatialHashMap.packCell(0, 0, 1));
+    assertEquals(7L, MortonSpatialHashMap.packCell(1, 1, 1));
+    assertEquals(56L, MortonSpatialHashMap.packCell(2, 2, 2));
+    assertTrue(MortonSpatialHashMap.packCell(-1, 0, 0) != MortonSpatialHashMap.packCell(0, -1, 0));
+  }
+
+  /**
+   * Compares query results against an NSpatialHashMap built from the same objects
+   */
+  @Test
+  public void testMatchesNSpatialHashMap() throws Exception {
+    Random rand = new Random(7);
+    NSpatialHashMap reference = new NSpatialHashMapFactory(CELL_DIMS).buildNSpatialHashMap();
+    ISpatialStructure packed = new NSpatialHashMapFactory(CELL_DIMS, true).buildSpatialStructure();
+    assertTrue(packed instanceof MortonSpatialHashMap);
+
+    List<CartesianObject> inserted = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      // Include negative and absolute UTC style times
+      double startTime = (i % 2 == 0) ? -5.0 + rand.nextDouble() * 10.0 : 1.5e9 + rand.nextDouble() * 10.0;
+      for (CartesianObject obj : path(rand, 50, startTime)) {
+        reference.insert(obj);
+        packed.insert(obj);
+        inserted.add(obj);
+      }
+    }
+    // Remove a few objects
+    for (int i = 0; i < inserted.size(); i += 7) {
+      reference.remove(inserted.get(i));
+      packed.remove(inserted.get(i));
+    }
+
+    for (int i = 0; i < 500; i++) {
+      double startTime = (i % 2 == 0) ? -5.0 + rand.nextDouble() * 10.0 : 1.5e9 + rand.nextDouble() * 10.0;
+      CartesianObject query = box(rand.nextDouble() * 300.0, rand.nextDouble() * 8.0 - 4.0, startTime, 2.5, 1.0, 0.05);
+      Set<CartesianObject> expected = new HashSet<>(reference.getCollisions(query));
+      Set<CartesianObject> actual = new HashSet<>(packed.getCollisions(query));
+      assertEquals(expected, actual);
+
+      double[][] qBounds = query.getBounds();
+      double[] min = {qBounds[0][0], qBounds[1][0], qBounds[2][0]};
+      double[] max = {qBounds[0][1], qBounds[1][1], qBounds[2][1]};
+      assertEquals(!expected.isEmpty(), packed.hasCollision(min, max));
+      List<CartesianObject> visited = new ArrayList<>();
+      packed.forEachCollision(min, max, visited::add);
+      assertEquals(expected.size(), visited.size());
+      assertEquals(expected, new HashSet<>(visited));
+    }
+  }
+
+  /**
+   * Checks a conflict check between realistic path sizes gives the same collisions in both spatial structures
+   * One path is inserted and the points of a second path are checked against it as done when comparing two vehicle paths
+   */
+  @Test
+  public void testRealisticPathsMatchNSpatialHashMap() throws Exception {
+    final int pathSize = 300;
+    Random rand = new Random(11);
+    List<CartesianObject> otherPath = path(rand, pathSize, 1.5e9);
+    List<CartesianObject> hostPath = path(rand, pathSize, 1.5e9);
+    // Follow the other path for a while so that some collisions are found
+    hostPath.addAll(path(new Random(11), pathSize / 2, 1.5e9 + 0.05));
+
+    long[] collisionCounts = new long[2];
+    NSpatialHashMapFactory[] factories = {new NSpatialHashMapFactory(CELL_DIMS), new NSpatialHashMapFactory(CELL_DIMS, true)};
+    double[] min = new double[3];
+    double[] max = new double[3];
+    for (int f = 0; f < factories.length; f++) {
+      ISpatialStructure map = factories[f].buildSpatialStructure();
+      for (CartesianObject obj : otherPath) {
+        map.insert(obj);
+      }
+      for (CartesianObject obj : hostPath) {
+        double[][] objBounds = obj.getBounds();
+        for (int i = 0; i < 3; i++) {
+          min[i] = objBounds[i][0];
+          max[i] = objBounds[i][1];
+        }
+        if (map.hasCollision(min, max)) {
+          collisionCounts[f] += map.getCollisions(obj).size();
+        }
+      }
+    }
+    assertTrue(collisionCounts[0] > 0);
+    assertEquals(collisionCounts[0], collisionCounts[1]);
+  }
+}
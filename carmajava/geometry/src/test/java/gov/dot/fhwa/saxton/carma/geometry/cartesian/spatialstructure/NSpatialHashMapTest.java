@@ -59,7 +59,7 @@ public class NSpatialHashMapTest {
     // Test 2D
     double[] cellSizes = {2,2};
     NSpatialHashMapFactory factory = new NSpatialHashMapFactory(cellSizes);
-    NSpatialHashMap map = factory.buildSpatialStructure();
+    NSpatialHashMap map = factory.buildNSpatialHashMap();
 
     // Test 2D Object
     List<? extends Point> points = new LinkedList<>(Arrays.asList(
@@ -117,7 +117,7 @@ public class NSpatialHashMapTest {
 
     // Test single point object inserts to the same key as that point
     factory = new NSpatialHashMapFactory(cellSizes);
-    map = factory.buildSpatialStructure(); // Reset map
+    map = factory.buildNSpatialHashMap(); // Reset map
     points = new LinkedList<>(Arrays.asList(
       new Point2D(4,4)
     ));
@@ -131,7 +131,7 @@ public class NSpatialHashMapTest {
     // Test 3D object that fits within a cell
     cellSizes = new double[]{2,2,2};
     factory = new NSpatialHashMapFactory(cellSizes);
-    map = factory.buildSpatialStructure(); // Reset map
+    map = factory.buildNSpatialHashMap(); // Reset map
 
     points = new LinkedList<>(Arrays.asList(
       new Point3D(4.5,4.5,4.5),
@@ -165,7 +165,7 @@ public class NSpatialHashMapTest {
     // Test 2D
     double[] cellSizes = {1,1};
     NSpatialHashMapFactory factory = new NSpatialHashMapFactory(cellSizes);
-    NSpatialHashMap map = factory.buildSpatialStructure();
+    NSpatialHashMap map = factory.buildNSpatialHashMap();
 
 
     // Test No Intersect 2D Objects and Point
@@ -194,7 +194,7 @@ public class NSpatialHashMapTest {
     // Test No Intersect 3D
     cellSizes = new double[]{1,1,1};
     factory = new NSpatialHashMapFactory(cellSizes);
-    map = factory.buildSpatialStructure(); // Reset map
+    map = factory.buildNSpatialHashMap(); // Reset map
 
     points = new LinkedList<>(Arrays.asList(
       new Point3D(1,0, 7),
@@ -215,7 +215,7 @@ public class NSpatialHashMapTest {
     // Test No Intersect nd
     cellSizes = new double[]{1,1,1,1,1};
     factory = new NSpatialHashMapFactory(cellSizes);
-    map = factory.buildSpatialStructure(); // Reset map
+    map = factory.buildNSpatialHashMap(); // Reset map
 
     points = new LinkedList<>(Arrays.asList(
       new Point(1, 0, 7, 5, 3),
@@ -247,7 +247,7 @@ public class NSpatialHashMapTest {
     double[] cellSizes = {1,1};
     IIntersectionChecker aabbChecker = new AxisAlignedBoundingBox();
     NSpatialHashMapFactory factory = new NSpatialHashMapFactory(cellSizes);
-    NSpatialHashMap map = factory.buildSpatialStructure();
+    NSpatialHashMap map = factory.buildNSpatialHashMap();
 
 
     // Test No Intersect 2D
@@ -299,7 +299,7 @@ public class NSpatialHashMapTest {
     obj2 = new CartesianObject(points2);
 
     factory = new NSpatialHashMapFactory(cellSizes);
-    map = factory.buildSpatialStructure(); // Reset map
+    map = factory.buildNSpatialHashMap(); // Reset map
     map.insert(obj);
 
     collidingObjects = map.getCollisions(obj2);
@@ -332,7 +332,7 @@ public class NSpatialHashMapTest {
     // Test No Intersect 3D
     cellSizes = new double[]{1,1,1};
     factory = new NSpatialHashMapFactory(cellSizes);
-    map = factory.buildSpatialStructure(); // Reset map
+    map = factory.buildNSpatialHashMap(); // Reset map
 
     points = new LinkedList<>(Arrays.asList(
       new Point3D(1,0, 7),
@@ -364,7 +364,7 @@ public class NSpatialHashMapTest {
     // Test No Intersect nd
     cellSizes = new double[]{1,1,1,1,1};
     factory = new NSpatialHashMapFactory(cellSizes);
-    map = factory.buildSpatialStructure(); // Reset map
+    map = factory.buildNSpatialHashMap(); // Reset map
 
     points = new LinkedList<>(Arrays.asList(
       new Point(1, 0, 7, 5, 3),
@@ -405,6 +405,64 @@ public class NSpatialHashMapTest {
     assertNull(map.getCollisions(badObj));
   }
 
+  /**
+   * Tests the primitive box query functions
+   * @throws Exception
+   */
+  @Test
+  public void testHasCollisionAndForEachCollision() throws Exception {
+    double[] cellSizes = {1,1,1};
+    NSpatialHashMapFactory factory = new NSpatialHashMapFactory(cellSizes);
+    NSpatialHashMap map = factory.buildNSpatialHashMap();
+
+    // Test empty map
+    assertFalse(map.hasCollision(new double[]{0,0,0}, new double[]{1,1,1}));
+
+    // Object spanning several cells
+    CartesianObject obj = new CartesianObject(Arrays.asList(new Point3D(0.5,0.5,0.5), new Point3D(3.5,2.5,1.5)));
+    CartesianObject obj2 = new CartesianObject(Arrays.asList(new Point3D(10,10,10), new Point3D(11,11,11)));
+    map.insert(obj);
+    map.insert(obj2);
+
+    // Box overlapping many cells of obj
+    double[] min = {0,0,0};
+    double[] max = {4,3,2};
+    assertTrue(map.hasCollision(min, max));
+    List<CartesianObject> visited = new ArrayList<>();
+    map.forEachCollision(min, max, visited::add);
+    assertEquals(1, visited.size());
+    assertEquals(obj, visited.get(0));
+
+    // Box touching the boundary of obj
+    min = new double[]{3.5,2.5,1.5};
+    max = new double[]{4,3,2};
+    assertTrue(map.hasCollision(min, max));
+
+    // Box overlapping both objects
+    min = new double[]{1,1,1};
+    max = new double[]{10.5,10.5,10.5};
+    visited.clear();
+    map.forEachCollision(min, max, visited::add);
+    assertEquals(2, visited.size());
+    assertTrue(visited.contains(obj));
+    assertTrue(visited.contains(obj2));
+
+    // Box in an occupied cell but not overlapping
+    min = new double[]{3.6,2.6,1.6};
+    max = new double[]{3.9,2.9,1.9};
+    assertFalse(map.hasCollision(min, max));
+    visited.clear();
+    map.forEachCollision(min, max, visited::add);
+    assertTrue(visited.isEmpty());
+
+    // Mismatched dimensions
+    assertFalse(map.hasCollision(new double[]{0,0}, new double[]{1,1}));
+
+    // The first object's bounds must not grow with the map bounds
+    assertEquals(3.5, obj.getBounds()[0][1], 0.0000001);
+    assertFalse(map.hasCollision(new double[]{5,5,5}, new double[]{6,6,6}));
+  }
+
   /**
    * Tests the constructors
    * @throws Exception
@@ -415,7 +473,7 @@ public class NSpatialHashMapTest {
     double[] cellSizes = {2,2};
     IIntersectionChecker aabbChecker = new AxisAlignedBoundingBox();
     NSpatialHashMapFactory factory = new NSpatialHashMapFactory(cellSizes);
-    NSpatialHashMap map = factory.buildSpatialStructure();
+    NSpatialHashMap map = factory.buildNSpatialHashMap();
     
     // Test Removing object
     List<? extends Point> points = new LinkedList<>(Arrays.asList(
@@ -462,7 +520,7 @@ public class NSpatialHashMapTest {
     double[] cellSizes = {2,2};
     IIntersectionChecker aabbChecker = new AxisAlignedBoundingBox();
     NSpatialHashMapFactory factory = new NSpatialHashMapFactory(cellSizes);
-    NSpatialHashMap map = factory.buildSpatialStructure();
+    NSpatialHashMap map = factory.buildNSpatialHashMap();
 
     List<? extends Point> points = new LinkedList<>(Arrays.asList(
       new Point2D(0,2),
@@ -497,7 +555,7 @@ public class NSpatialHashMapTest {
     double[] cellSizes = {2,2};
     IIntersectionChecker aabbChecker = new AxisAlignedBoundingBox();
     NSpatialHashMapFactory factory = new NSpatialHashMapFactory(cellSizes);
-    NSpatialHashMap map = factory.buildSpatialStructure();
+    NSpatialHashMap map = factory.buildNSpatialHashMap();
 
     assertNull(map.getBounds());
 
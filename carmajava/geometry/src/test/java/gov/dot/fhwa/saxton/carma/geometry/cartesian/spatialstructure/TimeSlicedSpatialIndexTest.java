@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.geometry.cartesian.spatialstructure;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the TimeSlicedSpatialIndex class
+ */
+public class TimeSlicedSpatialIndexTest {
+
+  TimeSlicedSpatialIndex<String> index;
+
+  @Before
+  public void setUp() throws Exception {
+    index = new TimeSlicedSpatialIndex<>(new double[] {1, 1, 1});
+  }
+
+  /**
+   * Helper function inserts a unit box centered on the provided point
+   */
+  private void insertPoint(String key, double downtrack, double crosstrack, double time) {
+    index.insert(key, downtrack - 0.5, crosstrack - 0.5, time - 0.5, downtrack + 0.5, crosstrack + 0.5, time + 0.5);
+  }
+
+  /**
+   * Helper function queries with a unit box centered on the provided point
+   */
+  private Set<String> queryPoint(double downtrack, double crosstrack, double time) {
+    Set<String> result = new HashSet<>();
+    index.query(downtrack - 0.5, crosstrack - 0.5, time - 0.5, downtrack + 0.5, crosstrack + 0.5, time + 0.5, result);
+    return result;
+  }
+
+  @Test
+  public void testInsertAndQuery() throws Exception {
+    insertPoint("veh1", 0, 0, 0);
+    insertPoint("veh1", 1, 0, 1);
+    insertPoint("veh2", 1, 0, 1);
+    insertPoint("veh3", 10, 0, 1);
+
+    Set<String> result = queryPoint(1, 0, 1);
+    assertEquals(2, result.size());
+    assertTrue(result.contains("veh1"));
+    assertTrue(result.contains("veh2"));
+
+    // Boundaries are inclusive
+    result = queryPoint(2, 0, 2);
+    assertEquals(2, result.size());
+
+    // Separated in crosstrack
+    assertTrue(queryPoint(1, 5, 1).isEmpty());
+    // Separated in time
+    assertTrue(queryPoint(1, 0, 5).isEmpty());
+    // Negative coordinates
+    insertPoint("veh4", -3.2, -2.7, -1.5);
+    result = queryPoint(-3, -3, -1);
+    assertEquals(1, result.size());
+    assertTrue(result.contains("veh4"));
+
+    assertEquals(4, index.size());
+    assertTrue(index.contains("veh3"));
+    assertFalse(index.contains("veh5"));
+  }
+
+  @Test
+  public void testRemove() throws Exception {
+    insertPoint("veh1", 0, 0, 0);
+    insertPoint("veh1", 1, 0, 1);
+    insertPoint("veh2", 1, 0, 1);
+
+    assertTrue(index.remove("veh1"));
+    assertFalse(index.remove("veh1"));
+    Set<String> result = queryPoint(1, 0, 1);
+    assertEquals(1, result.size());
+    assertTrue(result.contains("veh2"));
+    assertFalse(queryPoint(0, 0, 0).contains("veh1"));
+
+    assertTrue(index.remove("veh2"));
+    assertTrue(queryPoint(1, 0, 1).isEmpty());
+    assertEquals(0, index.size());
+    assertEquals(0, index.getNumSlices());
+  }
+
+  @Test
+  public void testExpire() throws Exception {
+    insertPoint("veh1", 0, 0, 0);
+    insertPoint("veh1", 1, 0, 1);
+    insertPoint("veh2", 1, 0, 1);
+    insertPoint("veh2", 5, 0, 5);
+
+    List<String> expired = new LinkedList<>();
+    index.expire(2.0, 2.0, expired);
+    assertEquals(1, expired.size());
+    assertEquals("veh1", expired.get(0));
+    assertFalse(index.contains("veh1"));
+    assertTrue(index.contains("veh2"));
+
+    // Slices before the min slice time are no longer queryable
+    assertTrue(queryPoint(1, 0, 1).isEmpty());
+    Set<String> result = queryPoint(5, 0, 5);
+    assertEquals(1, result.size());
+    assertTrue(result.contains("veh2"));
+
+    // Removal after partial expiry is still valid
+    assertTrue(index.remove("veh2"));
+    assertEquals(0, index.getNumSlices());
+  }
+
+  @Test
+  public void testExpirePrunesOwnerBoxes() throws Exception {
+    // A vehicle which keeps broadcasting paths only holds the boxes which can still be queried
+    for (int t = 0; t < 100; t++) {
+      insertPoint("veh1", t, 0, t);
+      index.expire(t - 5.0, t - 5.0, null);
+      assertTrue(index.getNumBoxes("veh1") <= 7);
+    }
+    assertTrue(index.contains("veh1"));
+    assertEquals(1, queryPoint(99, 0, 99).size());
+    assertTrue(queryPoint(50, 0, 50).isEmpty());
+
+    // A box spanning the min slice is kept
+    index.insert("veh2", 0, 0, 90, 1, 1, 110);
+    index.expire(100.0, 100.0, null);
+    assertEquals(1, index.getNumBoxes("veh2"));
+    assertEquals(1, queryPoint(0.5, 0.5, 105).size());
+    assertFalse(index.contains("veh1"));
+
+    assertTrue(index.remove("veh2"));
+    assertEquals(0, index.getNumSlices());
+  }
+
+  @Test
+  public void testBounds() throws Exception {
+    insertPoint("veh1", 0, 0, 0);
+    insertPoint("veh1", 2, 1, 3);
+
+    double[][] bounds = index.getBounds("veh1");
+    assertEquals(-0.5, bounds[0][0], 0.0000001);
+    assertEquals(2.5, bounds[0][1], 0.0000001);
+    assertEquals(-0.5, bounds[1][0], 0.0000001);
+    assertEquals(1.5, bounds[1][1], 0.0000001);
+    assertEquals(-0.5, bounds[2][0], 0.0000001);
+    assertEquals(3.5, bounds[2][1], 0.0000001);
+    assertNull(index.getBounds("veh2"));
+
+    assertTrue(index.surrounds("veh1", 1, 1, 1));
+    assertFalse(index.surrounds("veh1", 2.5, 1, 1)); // On the boundary
+    assertFalse(index.surrounds("veh2", 1, 1, 1));
+  }
+}
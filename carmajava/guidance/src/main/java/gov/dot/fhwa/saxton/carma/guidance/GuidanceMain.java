@@ -145,6 +145,8 @@ public class GuidanceMain extends SaxtonBaseNode {
     router.setArbitrator(arbitrator);
     vehicleAwareness.setPluginManager(pluginManager);
     vehicleAwareness.setTrajectoryExecutor(trajectoryExecutor);
+    // Registered after the trajectory converter so the cached path prediction is advanced against the latest route state
+    routeService.registerNewRouteStateCallback((state) -> vehicleAwareness.onRouteStateUpdate(state.getDownTrack()));
 
     executor.execute(stateHandler);
     executor.execute(maneuverInputs);
@@ -191,6 +193,7 @@ public class GuidanceMain extends SaxtonBaseNode {
     double cellTime = params.getDouble("~conflict_map_cell_time_size", 0.15);
 
     double[] cellSize = { cellDowntrack, cellCrosstrack, cellTime };
+    boolean usePackedKeys = params.getBoolean("~conflict_map_use_packed_keys", false);
 
     double downtrackMargin = params.getDouble("~conflict_map_collision_downtrack_margin", 2.5);
     double crosstrackMargin = params.getDouble("~conflict_map_collision_crosstrack_margin", 1.0);
@@ -203,6 +206,7 @@ public class GuidanceMain extends SaxtonBaseNode {
     log.info("Param conflict_map_cell_downtrack_size: " + cellDowntrack);
     log.info("Param conflict_map_cell_crosstrack_size: " + cellCrosstrack);
     log.info("Param conflict_map_cell_time_size: " + cellTime);
+    log.info("Param conflict_map_use_packed_keys: " + usePackedKeys);
     log.info("Param conflict_map_collision_downtrack_margin: " + downtrackMargin);
     log.info("Param conflict_map_collision_crosstrack_margin: " + crosstrackMargin);
     log.info("Param conflict_map_collision_time_margin: " + timeMargin);
@@ -213,7 +217,7 @@ public class GuidanceMain extends SaxtonBaseNode {
     // Set time strategy
     IMobilityTimeProvider timeProvider = new SystemUTCTimeProvider();
     // Build conflict manager
-    conflictManager = new ConflictManager(new NSpatialHashMapFactory(cellSize), downtrackMargin, crosstrackMargin, timeMargin, lateralBias,
+    conflictManager = new ConflictManager(new NSpatialHashMapFactory(cellSize, usePackedKeys), cellSize, downtrackMargin, crosstrackMargin, timeMargin, lateralBias,
     longitudinalBias, temporalBias, timeProvider);
   }
 
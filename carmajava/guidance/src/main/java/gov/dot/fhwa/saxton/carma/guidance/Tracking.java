@@ -27,15 +27,14 @@ import gov.dot.fhwa.saxton.carma.guidance.arbitrator.Arbitrator;
 import gov.dot.fhwa.saxton.carma.guidance.maneuvers.LongitudinalManeuver;
 import gov.dot.fhwa.saxton.carma.guidance.pubsub.IPubSubService;
 import gov.dot.fhwa.saxton.carma.guidance.pubsub.IPublisher;
-import gov.dot.fhwa.saxton.carma.guidance.pubsub.IService;
 import gov.dot.fhwa.saxton.carma.guidance.pubsub.ISubscriber;
 import gov.dot.fhwa.saxton.carma.guidance.pubsub.OnMessageCallback;
-import gov.dot.fhwa.saxton.carma.guidance.pubsub.OnServiceResponseCallback;
-import gov.dot.fhwa.saxton.carma.guidance.pubsub.TopicNotFoundException;
 
 import gov.dot.fhwa.saxton.carma.guidance.trajectory.OnTrajectoryProgressCallback;
 import gov.dot.fhwa.saxton.carma.guidance.trajectory.Trajectory;
 import gov.dot.fhwa.saxton.carma.guidance.trajectory.TrajectoryExecutor;
+import gov.dot.fhwa.saxton.carma.guidance.util.VehicleMotionEstimator;
+import gov.dot.fhwa.saxton.carma.rosutils.TransformBuffer;
 import org.jboss.netty.buffer.ChannelBuffers;
 import org.ros.exception.ParameterClassCastException;
 import org.ros.exception.ParameterNotFoundException;
@@ -50,6 +49,7 @@ import com.google.common.util.concurrent.AtomicDouble;
 
 import sensor_msgs.NavSatFix;
 import std_msgs.Float64;
+import tf2_msgs.TFMessage;
 
 import java.nio.ByteOrder;
 import java.util.LinkedList;
@@ -71,6 +71,8 @@ public class Tracking extends GuidanceComponent implements IStateChangeListener,
 	
 	protected final int SECONDS_TO_MILLISECONDS = 1000;
 	protected final long SLEEP_DURATION = 100; // Frequency for J2735, 10Hz
+	protected static final int TF_HISTORY_SIZE = 50; // At least one second of the fastest published transforms
+	protected static final double MOTION_ESTIMATOR_TIME_CONSTANT = 0.2; // s
 	
 	// TODO: brake information on each individual wheel is not available
 	// When brake is applied at any angle, we set brake status to be 0xF
@@ -102,7 +104,12 @@ public class Tracking extends GuidanceComponent implements IStateChangeListener,
 	protected ISubscriber<std_msgs.Bool> stabilityActiveSubscriber;
 	protected ISubscriber<std_msgs.Bool> stabilityEnabledSubscriber;
 	protected ISubscriber<std_msgs.Bool> parkingBrakeSubscriber;
-	protected IService<GetTransformRequest, GetTransformResponse> getTransformClient;
+	protected ISubscriber<TFMessage> tfSubscriber;
+	protected ISubscriber<TFMessage> tfStaticSubscriber;
+	// Transforms are buffered from the tf topics so a BSM never waits on the get_transform service
+	protected TransformBuffer transformBuffer = new TransformBuffer(TF_HISTORY_SIZE);
+	protected final GeodesicCartesianConverter gcc = new GeodesicCartesianConverter();
+	protected VehicleMotionEstimator motionEstimator = new VehicleMotionEstimator(MOTION_ESTIMATOR_TIME_CONSTANT);
 	protected double speed_error_limit = 5; //speed error in meters
 	protected double downtrack_error_limit = 5; //downtrack error in meters
 	protected TrajectoryExecutor trajectoryExecutor = null;
@@ -123,6 +130,8 @@ public class Tracking extends GuidanceComponent implements IStateChangeListener,
 	private static final String STABILITY_CTRL_ACTIVE_CAPABILITY = "stability_ctrl_active";
 	private static final String STABILITY_CTRL_ENABLED_CAPABILITY = "stability_ctrl_enabled";
 	private static final String PARKING_BRAKE_CAPABILITY = "parking_brake";
+	private static final String EARTH_FRAME = "earth";
+	private static final String HOST_VEHICLE_FRAME = "host_vehicle";
 	
 
 	public Tracking(GuidanceStateMachine stateMachine, IPubSubService pubSubService, ConnectedNode node) {
@@ -146,12 +155,15 @@ public class Tracking extends GuidanceComponent implements IStateChangeListener,
         headingStampedSubscriber = pubSubService.getSubscriberForTopic("heading", HeadingStamped._TYPE);
         velocitySubscriber = pubSubService.getSubscriberForTopic("velocity", TwistStamped._TYPE);
         routeSubscriber = pubSubService.getSubscriberForTopic("route_state", RouteState._TYPE);
+        tfSubscriber = pubSubService.getSubscriberForTopic("/tf", TFMessage._TYPE);
+        tfStaticSubscriber = pubSubService.getSubscriberForTopic("/tf_static", TFMessage._TYPE);
 
         // TODO: acceleration set is not available from SF
         accelerationSubscriber = pubSubService.getSubscriberForTopic("acceleration", AccelerationSet4Way._TYPE);
 
         if (bsmPublisher == null || navSatFixSubscriber == null || headingStampedSubscriber == null
-                || velocitySubscriber == null || accelerationSubscriber == null || routeSubscriber == null) {
+                || velocitySubscriber == null || accelerationSubscriber == null || routeSubscriber == null
+                || tfSubscriber == null || tfStaticSubscriber == null) {
             log.warn("Cannot initialize pubs and subs");
         }
 
@@ -159,11 +171,23 @@ public class Tracking extends GuidanceComponent implements IStateChangeListener,
             @Override
             public void onMessage(TwistStamped msg) {
                 current_speed.set(msg.getTwist().getLinear().getX());
+                motionEstimator.updateSpeed(msg.getTwist().getLinear().getX(), msg.getHeader().getStamp().toSeconds());
                 if (!velocity_ready.get()) {
                     velocity_ready.set(true);
                 }
             }
         });
+
+        headingStampedSubscriber.registerOnMessageCallback(new OnMessageCallback<HeadingStamped>() {
+            @Override
+            public void onMessage(HeadingStamped msg) {
+                motionEstimator.updateHeading(msg.getHeading(), msg.getHeader().getStamp().toSeconds());
+            }
+        });
+
+        tfSubscriber.registerOnMessageCallback((msg) -> transformBuffer.addTransforms(msg, false));
+        tfStaticSubscriber.registerOnMessageCallback((msg) -> transformBuffer.addTransforms(msg, true));
+
         currentState.set(GuidanceState.STARTUP);
     }
 
@@ -201,12 +225,6 @@ public class Tracking extends GuidanceComponent implements IStateChangeListener,
             exceptionHandler.handleException("Cannot cast on the parameter type", e2);
         }
 
-		    try {
-			    getTransformClient = pubSubService.getServiceForTopic("get_transform", GetTransform._TYPE);
-		    } catch (TopicNotFoundException tnfe) {
-			    exceptionHandler.handleException("get_transform service cannot be found", tnfe);
-		    }
-
         currentState.set(GuidanceState.DRIVERS_READY);
     }
 
@@ -262,22 +280,6 @@ public class Tracking extends GuidanceComponent implements IStateChangeListener,
 		trajectory_start.set(false);
 	}
 	
-	@Override
-	public void onShutdown() {
-		super.onShutdown();
-		if(getTransformClient != null) {
-		    getTransformClient.close();
-		}
-	}
-
-	@Override
-	public void onPanic() {
-		super.onPanic();
-		if(getTransformClient != null) {
-		    getTransformClient.close();
-		}
-	}
-	
 	@Override
 	public void timingLoop() throws InterruptedException {
 		
@@ -370,7 +372,8 @@ public class Tracking extends GuidanceComponent implements IStateChangeListener,
 		BSM bsmFrame = bsmPublisher.newMessage();
 		
 		// Set header
-		bsmFrame.getHeader().setStamp(node.getCurrentTime());
+		Time now = node.getCurrentTime();
+		bsmFrame.getHeader().setStamp(now);
 		bsmFrame.getHeader().setFrameId(Tracking.class.getSimpleName());
 
 		// Set core data
@@ -378,22 +381,21 @@ public class Tracking extends GuidanceComponent implements IStateChangeListener,
 		coreData.setMsgCount((byte) ((msgCount++ % BSMCoreData.MSG_COUNT_MAX) + 1));
 
 		// ID is random and changes every 5 minutes
-		if(node.getCurrentTime().secs - last_id_changed >= BSMCoreData.ID_TIME_MAX) {
+		if(now.secs - last_id_changed >= BSMCoreData.ID_TIME_MAX) {
 			randomIdGenerator.nextBytes(random_id);
-			last_id_changed = node.getCurrentTime().secs;
+			last_id_changed = now.secs;
 		}
 		coreData.setId(ChannelBuffers.copiedBuffer(ByteOrder.LITTLE_ENDIAN, random_id));
 
 		// Set GPS data
 		if(navSatFixSubscriber != null && navSatFixSubscriber.getLastMessage() != null) {
 			NavSatFix gps_msg = navSatFixSubscriber.getLastMessage();
-			Transform earthToHostVehicle = getTransform("earth", "host_vehicle", gps_msg.getHeader().getStamp());
+			Transform earthToHostVehicle = transformBuffer.lookupTransform(EARTH_FRAME, HOST_VEHICLE_FRAME, gps_msg.getHeader().getStamp());
 
 			if (earthToHostVehicle == null) {
 				// No transform so leave the lat/lon/elev marked as unavailable
 				log.info("TRANSFORM", "Could not get transform for BSM");
 			} else {
-				GeodesicCartesianConverter gcc = new GeodesicCartesianConverter();
 				Location loc = gcc.cartesian2Geodesic(new Point3D(0,0,0), earthToHostVehicle);
 				double lat = loc.getLatitude();
 				double Lon = loc.getLongitude();
@@ -533,6 +535,32 @@ public class Tracking extends GuidanceComponent implements IStateChangeListener,
 			}
 
 			coreData.getAccelSet().setPresenceVector((short)(coreData.getAccelSet().getPresenceVector() | AccelerationSet4Way.YAWRATE_AVAILABLE));
+		} else {
+			// Fall back on the accelerations derived from the speed and heading of the vehicle
+			AccelerationSet4Way acceleration = coreData.getAccelSet();
+			if(motionEstimator.isAccelerationReady()) {
+				double accel = motionEstimator.getAcceleration();
+				if(accel <= AccelerationSet4Way.ACCELERATION_MIN) {
+					acceleration.setLongitudinal(AccelerationSet4Way.ACCELERATION_MIN);
+				} else if(accel >= AccelerationSet4Way.ACCELERATION_MAX) {
+					acceleration.setLongitudinal(AccelerationSet4Way.ACCELERATION_MAX);
+				} else {
+					acceleration.setLongitudinal((float) accel);
+				}
+				acceleration.setPresenceVector((short)(acceleration.getPresenceVector() | AccelerationSet4Way.ACCELERATION_AVAILABLE));
+			}
+			if(motionEstimator.isYawRateReady()) {
+				// Already in deg/s with positive yaw to the right
+				double yaw_rate = motionEstimator.getYawRate();
+				if(yaw_rate <= AccelerationSet4Way.YAWRATE_MIN) {
+					acceleration.setYawRate(AccelerationSet4Way.YAWRATE_MIN);
+				} else if(yaw_rate >= AccelerationSet4Way.YAWRATE_MAX) {
+					acceleration.setYawRate(AccelerationSet4Way.YAWRATE_MAX);
+				} else {
+					acceleration.setYawRate((float) yaw_rate);
+				}
+				acceleration.setPresenceVector((short)(acceleration.getPresenceVector() | AccelerationSet4Way.YAWRATE_AVAILABLE));
+			}
 		}
 		
 		coreData.getBrakes().getWheelBrakes().setBrakeAppliedStatus(BRAKES_STATUS_UNAVAILABLE);
@@ -636,44 +664,6 @@ public class Tracking extends GuidanceComponent implements IStateChangeListener,
         }
     }
 
-    private Transform getTransform(String parentFrame, String childFrame, Time stamp) {
-	    GetTransformRequest request = getTransformClient.newMessage();
-	    request.setParentFrame(parentFrame);
-	    request.setChildFrame(childFrame);
-	    request.setStamp(stamp);
-
-	    final GetTransformResponse[] response = new GetTransformResponse[1];
-	    final boolean[] gotTransform = {false};
-
-	    getTransformClient.call(request,
-		    new OnServiceResponseCallback<GetTransformResponse>() {
-
-			    @Override
-			    public void onSuccess(GetTransformResponse msg) {
-			    	if (msg.getErrorStatus() == GetTransformResponse.NO_ERROR
-					    || msg.getErrorStatus() == GetTransformResponse.COULD_NOT_EXTRAPOLATE) {
-					    response[0] = msg;
-					    gotTransform[0] = true;
-				    } else {
-			    		log.warn("TRANSFORM", "Request for transform ParentFrame: " + request.getParentFrame() +
-						    " ChildFrame: " + request.getChildFrame() + " returned ErrorCode: " + msg.getErrorStatus());
-				    }
-			    }
-
-			    @Override
-			    public void onFailure(Exception e) {
-				    exceptionHandler.handleException("get_transform service call failed", e);
-			    }
-
-		    });
-
-	    if(gotTransform[0]) {
-	    	return Transform.fromTransformMessage(response[0].getTransform().getTransform());
-	    } else {
-	    	return null;
-	    }
-    }
-
     @Override
     public String getCurrentBSMId() {
         if(random_id != null) {
@@ -35,6 +35,7 @@ import gov.dot.fhwa.saxton.carma.guidance.pubsub.IPublisher;
 import gov.dot.fhwa.saxton.carma.guidance.trajectory.Trajectory;
 import gov.dot.fhwa.saxton.carma.guidance.trajectory.TrajectoryExecutor;
 import gov.dot.fhwa.saxton.carma.guidance.util.ExecutionTimer;
+import gov.dot.fhwa.saxton.carma.guidance.util.trajectoryconverter.PathPredictionCache;
 import gov.dot.fhwa.saxton.carma.guidance.util.trajectoryconverter.RoutePointStamped;
 import gov.dot.fhwa.saxton.carma.guidance.util.trajectoryconverter.TrajectoryConverter;
 
@@ -57,6 +58,7 @@ public class VehicleAwareness extends GuidanceComponent implements IStateChangeL
     protected static final String BROADCAST_RECIPIENT_ID = "";
     protected IPublisher<MobilityPath> pathPub;
     protected PluginManager pluginManager;
+    protected PathPredictionCache pathPredictionCache = new PathPredictionCache(2.0, 0.5);
 
     public VehicleAwareness(GuidanceStateMachine stateMachine, IPubSubService pubSubService, ConnectedNode node,
             TrajectoryConverter converter, IConflictDetector conflictDetector, TrackingService tracking) {
@@ -92,9 +94,12 @@ public class VehicleAwareness extends GuidanceComponent implements IStateChangeL
         pathPublishInterval = node.getParameterTree().getInteger("~mobility_path_publish_interval", 3000);
         mobilitySenderId = node.getParameterTree().getString("~vehicle_id", "UNKNOWN");
         conflictHandlerName = node.getParameterTree().getString("~default_mobility_conflict_handler", "Yield Plugin");
+        double maxDowntrackError = node.getParameterTree().getDouble("~path_prediction_max_downtrack_error", 2.0);
+        double minRemainingFraction = node.getParameterTree().getDouble("~path_prediction_min_remaining_fraction", 0.5);
+        pathPredictionCache = new PathPredictionCache(maxDowntrackError, minRemainingFraction);
         log.info(String.format(
-                "VehicleAwareness init'd with pathPublishInterval=%d, mobilitySenderId=%s, conflictHandlerName=%s",
-                pathPublishInterval, mobilitySenderId, conflictHandlerName));
+                "VehicleAwareness init'd with pathPublishInterval=%d, mobilitySenderId=%s, conflictHandlerName=%s, maxDowntrackError=%.02f, minRemainingFraction=%.02f",
+                pathPublishInterval, mobilitySenderId, conflictHandlerName, maxDowntrackError, minRemainingFraction));
         pathPub = pubSubService.getPublisherForTopic("outgoing_mobility_path", MobilityPath._TYPE);
     }
 
@@ -119,6 +124,7 @@ public class VehicleAwareness extends GuidanceComponent implements IStateChangeL
         if (nextTrajectory != null) { // Don't roll if this is the first trajectory
             currentTrajectory = nextTrajectory;
             nextTrajectory = null;
+            pathPredictionCache.invalidate();
             publishMobilityPath();
         }
     }
@@ -138,6 +144,7 @@ public class VehicleAwareness extends GuidanceComponent implements IStateChangeL
         log.info("Restarting, cleaning up trajectories");
         currentTrajectory = null;
         nextTrajectory = null;
+        pathPredictionCache.invalidate();
     }
 
     @Override
@@ -146,21 +153,45 @@ public class VehicleAwareness extends GuidanceComponent implements IStateChangeL
     }
 
     /**
-     * Convert the back and front buffer trajectories into a single set of Route-frame points for
+     * Get the path prediction for the back and front buffer trajectories as a single set of Route-frame points for
      * conversion and publication in the MobilityPath message.
      * Generates a path predication with the maximum number of points allowed for collision detection
+     * 
+     * @return An unmodifiable snapshot of the path prediction. The contained points must not be modified
      */
     public synchronized List<RoutePointStamped> getPathPrediction() {
         return getPathPrediction(trajectoryConverter.getMaxPointsInPath());
     }
 
+    /**
+     * Get the path prediction for the back and front buffer trajectories as a single set of Route-frame points.
+     * The prediction is only converted again when the trajectories change or the vehicle has diverged from it.
+     * 
+     * @param maxPointsInPath The maximum number of points in the path
+     * 
+     * @return An unmodifiable snapshot of the path prediction
+     */
+    private synchronized List<RoutePointStamped> getPathPrediction(int maxPointsInPath) {
+        return pathPredictionCache.getPrediction(maxPointsInPath, this::convertPathPrediction);
+    }
+
+    /**
+     * Method to be called when the host vehicle's route state has been updated
+     * Drops the points of the cached path prediction which are now in the past
+     * 
+     * @param downtrack The current downtrack distance of the vehicle along the route in m
+     */
+    public void onRouteStateUpdate(double downtrack) {
+        pathPredictionCache.advance(System.currentTimeMillis() / 1000.0, downtrack);
+    }
+
     /**
      * Convert the back and front buffer trajectories into a single set of Route-frame points for
      * conversion and publication in the MobilityPath message.
      * 
      * @param maxPointsInPath The maximum number of points in a generated path
      */
-    private synchronized List<RoutePointStamped> getPathPrediction(int maxPointsInPath) {
+    private synchronized List<RoutePointStamped> convertPathPrediction(int maxPointsInPath) {
         List<RoutePointStamped> pathPrediction = new ArrayList<>();
         if (currentTrajectory != null) {
             pathPrediction.addAll(trajectoryConverter.convertToPath(currentTrajectory, maxPointsInPath));
@@ -197,6 +228,7 @@ public class VehicleAwareness extends GuidanceComponent implements IStateChangeL
             log.info("Inserted into back buffer!");
             nextTrajectory = traj;
         }
+        pathPredictionCache.invalidate();
 
         List<RoutePointStamped> pathPrediction = getPathPrediction();
         List<ConflictSpace> conflicts = conflictDetector.getConflicts(pathPrediction);
@@ -225,6 +257,7 @@ public class VehicleAwareness extends GuidanceComponent implements IStateChangeL
         log.info("Notified of a forced replan, cleaning invalid trajectories!");
         currentTrajectory = null;
         nextTrajectory = null;
+        pathPredictionCache.invalidate();
     }
 
     /**
@@ -32,7 +32,9 @@ import gov.dot.fhwa.saxton.carma.guidance.VehicleAwareness;
 import gov.dot.fhwa.saxton.carma.guidance.trajectory.TrajectoryExecutor;
 import gov.dot.fhwa.saxton.carma.guidance.arbitrator.TrajectoryPlanningResponse.PlanningRequest;
 import gov.dot.fhwa.saxton.carma.guidance.cruising.CruisingPlugin;
+import gov.dot.fhwa.saxton.carma.guidance.maneuvers.IComplexManeuver;
 import gov.dot.fhwa.saxton.carma.guidance.maneuvers.IManeuver;
+import gov.dot.fhwa.saxton.carma.guidance.maneuvers.ISimpleManeuver;
 import gov.dot.fhwa.saxton.carma.guidance.maneuvers.LateralManeuver;
 import gov.dot.fhwa.saxton.carma.guidance.maneuvers.LongitudinalManeuver;
 import gov.dot.fhwa.saxton.carma.guidance.maneuvers.ManeuverType;
@@ -55,8 +57,20 @@ import org.ros.node.parameter.ParameterTree;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * Guidance package Arbitrator component
@@ -71,7 +85,7 @@ public class Arbitrator extends GuidanceComponent
   protected ISubscriber<TwistStamped> twistSubscriber;
   protected AtomicReference<GuidanceState> state;
   protected PluginManager pluginManager;
-  protected List<IStrategicPlugin> plugins = new ArrayList<>();
+  protected List<IStrategicPlugin> plugins = new CopyOnWriteArrayList<>();
   protected CruisingPlugin cruisingPlugin;
   protected AtomicBoolean receivedDtdUpdate = new AtomicBoolean(false);
   protected AtomicDouble downtrackDistance = new AtomicDouble(0.0);
@@ -85,6 +99,13 @@ public class Arbitrator extends GuidanceComponent
   protected double planningWindowSnapThreshold = 20.0;
   protected double postComplexSteadyingDuration = 2.0;
   protected int numAcceptableFailures = 0;
+  protected boolean parallelPlanning = false;
+  protected long planningDeadlineMillis = 500;
+  protected List<String> sequentialPluginNames = new ArrayList<>();
+  protected ExecutorService planningExecutor;
+  protected ScheduledExecutorService replanScheduler;
+  protected ScheduledFuture<?> delayedAttempt;
+  protected Set<IStrategicPlugin> busyPlugins = ConcurrentHashMap.newKeySet();
   protected Trajectory trajectory = null;
   protected TrajectoryValidator trajectoryValidator;
   protected TrajectoryExecutor trajectoryExecutor;
@@ -157,6 +178,15 @@ public class Arbitrator extends GuidanceComponent
     planningWindowSnapThreshold = ptree.getDouble("~planning_window_snap_threshold", 20.0);
     postComplexSteadyingDuration = ptree.getDouble("~post_complex_trajectory_steadying_period", 2.0);
     double configuredSpeedLimit = ptree.getDouble("~trajectory_speed_limit", GuidanceCommands.MAX_SPEED_CMD_M_S);
+    parallelPlanning = ptree.getBoolean("~arbitrator_parallel_planning", false);
+    planningDeadlineMillis = ptree.getInteger("~arbitrator_planning_deadline", 500);
+    sequentialPluginNames = (List<String>) ptree.getList("~arbitrator_sequential_plugins", new ArrayList<>());
+    if (parallelPlanning) {
+      // Busy plugins are never scheduled again, so this holds at most one thread per strategic plugin
+      planningExecutor = Executors.newCachedThreadPool();
+      replanScheduler = Executors.newSingleThreadScheduledExecutor();
+      log.info("STARTUP", "Arbitrator planning in parallel with a deadline of " + planningDeadlineMillis + " ms");
+    }
 
     routeSub = pubSubService.getSubscriberForTopic("route", Route._TYPE);
     routeSub.registerOnMessageCallback(new OnMessageCallback<Route>() {
@@ -207,6 +237,24 @@ public class Arbitrator extends GuidanceComponent
     currentState.set(GuidanceState.STARTUP);
   }
 
+  @Override
+  public void onShutdown() {
+    super.onShutdown();
+    if (planningExecutor != null) {
+      planningExecutor.shutdownNow();
+      replanScheduler.shutdownNow();
+    }
+  }
+
+  @Override
+  public void onPanic() {
+    super.onPanic();
+    if (planningExecutor != null) {
+      planningExecutor.shutdownNow();
+      replanScheduler.shutdownNow();
+    }
+  }
+
   @Override
   public void onSystemReady() {
     currentState.set(GuidanceState.DRIVERS_READY);
@@ -259,6 +307,10 @@ public class Arbitrator extends GuidanceComponent
   public void onCleanRestart() {
     arbitratorStateMachine.processEvent(ArbitratorEvent.CLEAN_RESTART);
     // Reset member variables
+    if (delayedAttempt != null) {
+      delayedAttempt.cancel(false);
+      delayedAttempt = null;
+    }
     cruisingPlugin = null;
     plugins.clear();
     trajectory = null;
@@ -345,7 +397,15 @@ public class Arbitrator extends GuidanceComponent
     planningWindow = Math.max(planningWindow, minimumTrajectoryLength);
   }
 
-  protected Trajectory planTrajectory(double trajectoryStart, double trajectoryEnd) {
+  /**
+   * Plans a trajectory and passes it to onPlanned once planning has finished
+   * <p>
+   * Sequential planning finishes before this returns. When planning in parallel, an attempt delayed by a plugin's
+   * replan request runs as a later job on the job queue, so onPlanned is then called from that job.
+   *
+   * @param onPlanned Called with the planned trajectory, or null if no valid trajectory could be planned
+   */
+  protected void planTrajectory(double trajectoryStart, double trajectoryEnd, Consumer<Trajectory> onPlanned) {
     long planningStart = System.currentTimeMillis();
     log.info("Arbitrator planning new trajectory spanning [" + trajectoryStart + ", " + trajectoryEnd + ")");
 
@@ -353,21 +413,37 @@ public class Arbitrator extends GuidanceComponent
       log.warn("Trajectory planned smaller than " + TRAJ_SIZE_WARNING + ". Maneuvers may not have space to complete.");
     }
 
+    Consumer<Trajectory> onFinished = (out) -> {
+      if (out == null) {
+        exceptionHandler.handleException(
+            "Arbitrator unable to plan valid trajectory after " + numAcceptableFailures + " attempts!",
+            new RosRuntimeException("Unable to plan trajectory"));
+      }
+
+      long planningEnd = System.currentTimeMillis();
+      log.info("New trajectory planned in " + (planningEnd - planningStart) + " ms. Planning finished at "
+          + trajectoryExecutor.getTrajectoryCompletionPct() + "%");
+
+      onPlanned.accept(out);
+    };
+
+    if (parallelPlanning && planningExecutor != null && recursionCount == 0) {
+      planTrajectoryInParallel(trajectoryStart, trajectoryEnd, onFinished);
+    } else {
+      onFinished.accept(planTrajectorySequentially(trajectoryStart, trajectoryEnd));
+    }
+  }
+
+  /**
+   * Plans the trajectory by letting each strategic plugin plan in turn on the same trajectory
+   *
+   * @return The planned trajectory or null if no valid trajectory could be planned
+   */
+  protected Trajectory planTrajectorySequentially(double trajectoryStart, double trajectoryEnd) {
     Trajectory out = null;
     planningLoop: for (int failures = 0; failures < numAcceptableFailures; failures++) {
       Trajectory traj = new Trajectory(trajectoryStart, trajectoryEnd);
-      double expectedEntrySpeed = 0.0;
-      if (trajectory != null) {
-        if (trajectory.getComplexManeuver() != null) {
-          expectedEntrySpeed = currentSpeed.get();
-        } else {
-          List<LongitudinalManeuver> lonManeuvers = trajectory.getLongitudinalManeuvers();
-          LongitudinalManeuver lastManeuver = lonManeuvers.get(lonManeuvers.size() - 1);
-          expectedEntrySpeed = lastManeuver.getTargetSpeed();
-        }
-      } else {
-        expectedEntrySpeed = currentSpeed.get();
-      }
+      double expectedEntrySpeed = getExpectedEntrySpeed();
 
       // Use temp list to allow for modification
       List<IStrategicPlugin> tmpPlugins = new ArrayList<>(plugins);
@@ -421,17 +497,257 @@ public class Arbitrator extends GuidanceComponent
       log.warn("Candidate trajectory #" + (failures + 1) + " failed validation.");
     }
 
-    if (out == null) {
-      exceptionHandler.handleException(
-          "Arbitrator unable to plan valid trajectory after " + numAcceptableFailures + " attempts!",
-          new RosRuntimeException("Unable to plan trajectory"));
+    return out;
+
+  }
+
+  /**
+   * Plans the trajectory by letting the strategic plugins plan concurrently into independent copies of it
+   * <p>
+   * All active plugins not configured as sequential plugins plan at the same time and share a single deadline,
+   * plugins which miss it are cancelled and left out of this attempt. Their plans are then merged in priority order,
+   * each plan being kept only if its maneuvers fit around the ones already merged and the merged trajectory still
+   * passes validation. Plugins whose plan was rejected and the sequential plugins then plan on the merged trajectory
+   * one after another, as in {@link #planTrajectorySequentially(double, double)}.
+   * <p>
+   * The next attempt after a replan delay request is scheduled on the replan scheduler, which adds it to the job queue
+   * once the longest delay requested in the attempt has passed. The arbitrator thread keeps running other jobs in the
+   * meantime, and delays requested by several plugins in the same attempt overlap rather than add up. Plugins which are
+   * still planning after missing the deadline of an earlier attempt are left out of every attempt until they return.
+   *
+   * @param onPlanned Called with the planned trajectory, or null if no valid trajectory could be planned
+   */
+  protected void planTrajectoryInParallel(double trajectoryStart, double trajectoryEnd,
+      Consumer<Trajectory> onPlanned) {
+    planAttemptsInParallel(trajectoryStart, trajectoryEnd, 0, onPlanned);
+  }
+
+  /**
+   * Run the parallel planning attempts starting from the given number of failed attempts
+   */
+  private void planAttemptsInParallel(double trajectoryStart, double trajectoryEnd, int previousFailures,
+      Consumer<Trajectory> onPlanned) {
+    for (int failures = previousFailures; failures < numAcceptableFailures; failures++) {
+      int attempt = failures + 1;
+      double expectedEntrySpeed = getExpectedEntrySpeed();
+
+      List<IStrategicPlugin> concurrentPlugins = new ArrayList<>();
+      List<IStrategicPlugin> busy = new ArrayList<>();
+      for (IStrategicPlugin p : plugins) {
+        if (p.getActivation() && p.getAvailability()
+            && !sequentialPluginNames.contains(p.getVersionInfo().componentName())) {
+          if (busyPlugins.contains(p)) {
+            log.warn("Candidate trajectory #" + attempt + " Plugin: " + p.getVersionInfo().componentName()
+                + " is still busy planning an earlier attempt, leaving it out of this attempt");
+            busy.add(p);
+          } else {
+            concurrentPlugins.add(p);
+          }
+        }
+      }
+
+      List<PlanningCandidate> candidates = planConcurrently(concurrentPlugins,
+          new Trajectory(trajectoryStart, trajectoryEnd), expectedEntrySpeed, attempt);
+      if (candidates == null) {
+        onPlanned.accept(null);
+        return;
+      }
+
+      // Merge the successful plans in priority order and collect the plugins which made requests
+      Trajectory traj = new Trajectory(trajectoryStart, trajectoryEnd);
+      List<PlanningCandidate> requests = new ArrayList<>();
+      List<IStrategicPlugin> replanPlugins = new ArrayList<>();
+      for (PlanningCandidate candidate : candidates) {
+        if (!candidate.response.wasSuccessful()) {
+          requests.add(candidate);
+          continue;
+        }
+
+        Trajectory merged = mergeCandidate(traj, candidate.trajectory);
+        if (merged != null && trajectoryValidator.validate(merged)) {
+          traj = merged;
+        } else {
+          log.info("Candidate trajectory #" + attempt + " Plugin: " + candidate.plugin.getVersionInfo().componentName()
+              + " planned maneuvers which could not be merged, replanning it on the merged trajectory");
+          replanPlugins.add(candidate.plugin);
+        }
+      }
+
+      // Let the remaining plugins fill in the merged trajectory in priority order
+      if (requests.isEmpty()) {
+        for (IStrategicPlugin p : plugins) {
+          if (p.getActivation() && p.getAvailability() && !busy.contains(p)
+              && (replanPlugins.contains(p) || !concurrentPlugins.contains(p))) {
+            log.info("Allowing plugin: " + p.getVersionInfo().componentName() + " to plan trajectory.");
+            TrajectoryPlanningResponse resp = p.planTrajectory(traj, expectedEntrySpeed);
+            if (!resp.wasSuccessful()) {
+              requests.add(new PlanningCandidate(p, traj, resp));
+              break;
+            }
+          }
+        }
+      }
+
+      if (!requests.isEmpty()) {
+        long replanDelay = 0;
+        for (PlanningCandidate candidate : requests) {
+          String name = candidate.plugin.getVersionInfo().componentName();
+          if (candidate.response.getProposedTrajectoryEnd().isPresent()) {
+            trajectoryEnd = Math.max(candidate.response.getProposedTrajectoryEnd().get(), trajectoryEnd);
+            log.info("Candidate trajectory #" + attempt + " Plugin: " + name + " requested extended trajectory to "
+                + trajectoryEnd);
+          }
+
+          if (candidate.response.getProposedReplanDelay().isPresent()) {
+            long delay = candidate.response.getProposedReplanDelay().get();
+            log.info("Candidate trajectory #" + attempt + " Plugin: " + name + " requested to delay planning for "
+                + delay + " ms");
+            replanDelay = Math.max(replanDelay, delay);
+          }
+        }
+
+        // Promote the plugins to the top of the line for the next attempt, keeping their relative priority
+        for (int i = requests.size() - 1; i >= 0; i--) {
+          PlanningCandidate candidate = requests.get(i);
+          if (candidate.response.higherPriorityRequested()) {
+            log.info("Candidate trajectory #" + attempt + " Plugin: "
+                + candidate.plugin.getVersionInfo().componentName() + " requested higher priority");
+            plugins.remove(candidate.plugin);
+            plugins.add(0, candidate.plugin);
+          }
+        }
+
+        if (replanDelay > 0 && attempt < numAcceptableFailures) {
+          scheduleDelayedAttempt(trajectoryStart, trajectoryEnd, attempt, replanDelay, onPlanned);
+          return;
+        }
+        continue;
+      }
+
+      if (trajectoryValidator.validate(traj)) {
+        onPlanned.accept(traj);
+        return;
+      }
+      log.warn("Candidate trajectory #" + attempt + " failed validation.");
     }
 
-    long planningEnd = System.currentTimeMillis();
-    log.info("New trajectory planned in " + (planningEnd - planningStart) + " ms. Planning finished at "
-        + trajectoryExecutor.getTrajectoryCompletionPct() + "%");
+    onPlanned.accept(null);
+  }
 
-    return out;
+  /**
+   * Add the next parallel planning attempt to the job queue once the replan delay has passed
+   * <p>
+   * The attempt is dropped if the arbitrator has changed state in the meantime, as the planning it belonged to
+   * was then abandoned.
+   */
+  private void scheduleDelayedAttempt(double trajectoryStart, double trajectoryEnd, int failures, long replanDelay,
+      Consumer<Trajectory> onPlanned) {
+    ArbitratorState planningState = arbitratorStateMachine.getState();
+    Runnable nextAttempt = () -> {
+      delayedAttempt = null;
+      if (arbitratorStateMachine.getState() != planningState) {
+        log.info("Arbitrator left state " + planningState + " before the delayed planning attempt, dropping it");
+        return;
+      }
+      planAttemptsInParallel(trajectoryStart, trajectoryEnd, failures, onPlanned);
+    };
+    delayedAttempt = replanScheduler.schedule(() -> jobQueue.add(nextAttempt), replanDelay, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Run the planning of each plugin on its own copy of the trajectory in the planning executor
+   *
+   * @param concurrentPlugins The plugins to plan with
+   * @param traj The trajectory to be copied for each plugin
+   * @param expectedEntrySpeed The speed (in m/s) the vehicle is expected to have upon the start of the trajectory
+   * @param attempt The number of the current planning attempt, for logging
+   * @return The results of the plugins which finished before the deadline in priority order, or null if interrupted
+   */
+  private List<PlanningCandidate> planConcurrently(List<IStrategicPlugin> concurrentPlugins, Trajectory traj,
+      double expectedEntrySpeed, int attempt) {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(planningDeadlineMillis);
+    List<Future<PlanningCandidate>> futures = new ArrayList<>();
+    for (IStrategicPlugin p : concurrentPlugins) {
+      log.info("Allowing plugin: " + p.getVersionInfo().componentName() + " to plan trajectory.");
+      Trajectory copy = new Trajectory(traj);
+      // Cancelling only interrupts the plugin, so it stays busy until its planning actually returns
+      busyPlugins.add(p);
+      futures.add(planningExecutor.submit(() -> {
+        try {
+          return new PlanningCandidate(p, copy, p.planTrajectory(copy, expectedEntrySpeed));
+        } finally {
+          busyPlugins.remove(p);
+        }
+      }));
+    }
+
+    List<PlanningCandidate> candidates = new ArrayList<>();
+    for (int i = 0; i < futures.size(); i++) {
+      String name = concurrentPlugins.get(i).getVersionInfo().componentName();
+      try {
+        candidates.add(futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+      } catch (TimeoutException e) {
+        futures.get(i).cancel(true);
+        log.warn("Candidate trajectory #" + attempt + " Plugin: " + name + " missed the planning deadline of "
+            + planningDeadlineMillis + " ms");
+      } catch (ExecutionException e) {
+        log.error("Candidate trajectory #" + attempt + " Plugin: " + name + " failed to plan", e.getCause());
+      } catch (InterruptedException e) {
+        for (Future<PlanningCandidate> future : futures) {
+          future.cancel(true);
+        }
+        Thread.currentThread().interrupt();
+        return null;
+      }
+    }
+
+    return candidates;
+  }
+
+  /**
+   * Add the maneuvers of a candidate trajectory to a copy of the trajectory
+   *
+   * @return The merged trajectory or null if any of the candidate's maneuvers do not fit in the trajectory
+   */
+  private Trajectory mergeCandidate(Trajectory traj, Trajectory candidate) {
+    Trajectory merged = new Trajectory(traj);
+    for (IManeuver m : candidate.getManeuvers()) {
+      boolean added = (m instanceof IComplexManeuver) ? merged.setComplexManeuver((IComplexManeuver) m)
+          : merged.addManeuver((ISimpleManeuver) m);
+      if (!added) {
+        return null;
+      }
+    }
+
+    return merged;
+  }
+
+  /**
+   * Get the speed the vehicle is expected to have at the start of the next trajectory
+   */
+  private double getExpectedEntrySpeed() {
+    if (trajectory != null && trajectory.getComplexManeuver() == null) {
+      List<LongitudinalManeuver> lonManeuvers = trajectory.getLongitudinalManeuvers();
+      LongitudinalManeuver lastManeuver = lonManeuvers.get(lonManeuvers.size() - 1);
+      return lastManeuver.getTargetSpeed();
+    }
+
+    return currentSpeed.get();
+  }
+
+  /**
+   * The result of a plugin planning on its own copy of the trajectory
+   */
+  private static class PlanningCandidate {
+    final IStrategicPlugin plugin;
+    final Trajectory trajectory;
+    final TrajectoryPlanningResponse response;
+
+    PlanningCandidate(IStrategicPlugin plugin, Trajectory trajectory, TrajectoryPlanningResponse response) {
+      this.plugin = plugin;
+      this.trajectory = trajectory;
+      this.response = response;
+    }
   }
 
   /**
@@ -457,7 +773,14 @@ public class Arbitrator extends GuidanceComponent
       return;
     }
 
-    trajectory = planTrajectory(downtrackDistance.get(), getNextTrajectoryEndpoint(trajectoryStart));
+    planTrajectory(downtrackDistance.get(), getNextTrajectoryEndpoint(trajectoryStart), this::runInitialTrajectory);
+  }
+
+  /**
+   * Start executing the first trajectory and register the trigger for the next replan
+   */
+  private void runInitialTrajectory(Trajectory planned) {
+    trajectory = planned;
     trajectoryExecutor.registerOnTrajectoryProgressCallback(replanTriggerPercent, (pct) -> {
       if (trajectoryExecutor.getCurrentTrajectory() != null
           && trajectoryExecutor.getCurrentTrajectory().getComplexManeuver() != null) {
@@ -505,10 +828,7 @@ public class Arbitrator extends GuidanceComponent
         return;
       }
 
-      trajectory = planTrajectory(trajectoryStart, trajectoryEnd);
-      trajectoryExecutor.runTrajectory(trajectory);
-      arbitratorStateMachine.processEvent(ArbitratorEvent.FINISHED_TRAJECTORY_PLANNING);
-      vehicleAwareness.notifyNewTrajectoryPlanned(trajectory);
+      planTrajectory(trajectoryStart, trajectoryEnd, this::runReplannedTrajectory);
     } else {
       log.warn("Arbitrator has detected route completion, but Guidance has not yet received ROUTE_COMPLETE");
     }
@@ -564,16 +884,25 @@ public class Arbitrator extends GuidanceComponent
 
       // Set last trajectory to null such that this re-plan will use current speed as entry speed
       trajectory = null;
-      trajectory = planTrajectory(trajectoryStart, trajectoryEnd);
-      trajectoryExecutor.abortTrajectory();
-      trajectoryExecutor.runTrajectory(trajectory);
-      arbitratorStateMachine.processEvent(ArbitratorEvent.FINISHED_TRAJECTORY_PLANNING);
-      vehicleAwareness.notifyNewTrajectoryPlanned(trajectory);
+      planTrajectory(trajectoryStart, trajectoryEnd, (planned) -> {
+        trajectoryExecutor.abortTrajectory();
+        runReplannedTrajectory(planned);
+      });
     } else {
       log.warn("Arbitrator has detected route completion, but Guidance has not yet received ROUTE_COMPLETE");
     }
   }
 
+  /**
+   * Replace the executing trajectory with a replanned one
+   */
+  private void runReplannedTrajectory(Trajectory planned) {
+    trajectory = planned;
+    trajectoryExecutor.runTrajectory(trajectory);
+    arbitratorStateMachine.processEvent(ArbitratorEvent.FINISHED_TRAJECTORY_PLANNING);
+    vehicleAwareness.notifyNewTrajectoryPlanned(trajectory);
+  }
+
   @Override
   public void notifyTrajectoryFailure() {
     arbitratorStateMachine.processEvent(ArbitratorEvent.TRAJECTORY_FAILED_EXECUTION);
@@ -670,15 +999,17 @@ public class Arbitrator extends GuidanceComponent
   }
 
   @Override
-  public Trajectory planSubtrajectoryRecursively(double startDist, double endDist) {
+  public synchronized Trajectory planSubtrajectoryRecursively(double startDist, double endDist) {
     if (recursionCount > RECURSION_LIMIT) {
       throw new RosRuntimeException("Arbitrator planning recursion exceeded limit of: " + RECURSION_LIMIT + "!");
     }
     recursionCount++;
-    Trajectory out = planTrajectory(startDist, endDist);
+    // Nested planning is always sequential so the trajectory is planned before this returns
+    AtomicReference<Trajectory> out = new AtomicReference<>();
+    planTrajectory(startDist, endDist, out::set);
     recursionCount--;
 
-    return out;
+    return out.get();
   }
 
   @Override
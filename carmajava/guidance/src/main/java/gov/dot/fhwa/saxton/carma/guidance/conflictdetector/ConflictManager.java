@@ -20,6 +20,7 @@ import gov.dot.fhwa.saxton.carma.geometry.cartesian.CartesianObject;
 import gov.dot.fhwa.saxton.carma.geometry.cartesian.Point3D;
 import gov.dot.fhwa.saxton.carma.geometry.cartesian.spatialstructure.ISpatialStructure;
 import gov.dot.fhwa.saxton.carma.geometry.cartesian.spatialstructure.ISpatialStructureFactory;
+import gov.dot.fhwa.saxton.carma.geometry.cartesian.spatialstructure.TimeSlicedSpatialIndex;
 import gov.dot.fhwa.saxton.carma.guidance.util.ILogger;
 import gov.dot.fhwa.saxton.carma.guidance.util.LoggerManager;
 import gov.dot.fhwa.saxton.carma.guidance.util.trajectoryconverter.RoutePointStamped;
@@ -27,20 +28,19 @@ import gov.dot.fhwa.saxton.carma.route.Route;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 /**
  * Class Maintains a tracked set of external vehicle paths from MobilityPath and
  * MobilityRequests messages The set of paths can be queried for collisions.
  * 
- * Collision detection is done with an injected {@link ISpatialStructure} The path sets are
- * synchronized making this class Thread-Safe
+ * Tracked paths from all vehicles are stored in a single {@link TimeSlicedSpatialIndex} so each host point
+ * requires only one query regardless of the number of tracked vehicles.
+ * Collision detection between two arbitrary paths is done with an injected {@link ISpatialStructure}
+ * Access to the tracked paths is synchronized making this class Thread-Safe
  * 
  * The times stamps used on paths should all be referenced to the same origin
  * The current time information is provided by a passed in
@@ -55,18 +55,49 @@ public class ConflictManager implements IConflictManager {
   private final double lateralBias;
   private final double longitudinalBias;
   private final double temporalBias;
-  // The tracked paths
-  private final Map<String, ISpatialStructure> mobilityPathSpatialMaps = Collections.synchronizedMap(new HashMap<>());
-  private final Map<String, ISpatialStructure> requestedPathSpatialMaps = Collections.synchronizedMap(new HashMap<>());
-  private final Map<String, String> planIdMap = Collections.synchronizedMap(new HashMap<>());
+  // The tracked paths of all vehicles stored in a single index. Access is synchronized on the index
+  private final TimeSlicedSpatialIndex<PathKey> pathIndex;
+  private final Map<String, String> planIdMap = new HashMap<>();
   // Time provider
   private final IMobilityTimeProvider timeProvider;
   // Route
   private Route route;
   ILogger log;
 
+  /**
+   * Key identifying a tracked path in the path index
+   * MobilityPaths are keyed by vehicle static id and MobilityRequests by plan id
+   */
+  private static final class PathKey {
+    final String id;
+    final boolean requested;
+
+    PathKey(String id, boolean requested) {
+      this.id = id;
+      this.requested = requested;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * id.hashCode() + (requested ? 1 : 0);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (o == this) {
+        return true;
+      }
+      if (!(o instanceof PathKey)) {
+        return false;
+      }
+      PathKey other = (PathKey) o;
+      return requested == other.requested && id.equals(other.id);
+    }
+  }
+
   /**
    * Constructor
+   * The cells of the tracked path index are sized to the collision box defined by the provided margins
    * 
    * @param structureFactory Factory used to produce spatial structures used for collision checking
    * @param downtrackMargin  The downtrack distance margin within which a point
@@ -86,8 +117,35 @@ public class ConflictManager implements IConflictManager {
    */
   public ConflictManager(ISpatialStructureFactory structureFactory, double downtrackMargin, double crosstrackMargin, double timeMargin,
       double lateralBias, double longitudinalBias, double temporalBias, IMobilityTimeProvider timeProvider) {
+    this(structureFactory, new double[] { 2.0 * downtrackMargin, 2.0 * crosstrackMargin, 2.0 * timeMargin },
+      downtrackMargin, crosstrackMargin, timeMargin, lateralBias, longitudinalBias, temporalBias, timeProvider);
+  }
+
+  /**
+   * Constructor
+   * 
+   * @param structureFactory Factory used to produce spatial structures used for collision checking
+   * @param indexCellDims    The downtrack, crosstrack and time dimensions of a cell in the tracked path index
+   * @param downtrackMargin  The downtrack distance margin within which a point
+   *                         will be considered in collision
+   * @param crosstrackMargin The crosstrack distance margin within which a point
+   *                         will be considered in collision
+   * @param timeMargin       The time margin in seconds within which a point will
+   *                         be considered in collision
+   * @param lateralBias      The percentage of the crosstrack margin to bias the
+   *                         host vehicle's bounding box to the right
+   * @param longitudinalBias The percentage of the downtrack margin to bias the
+   *                         host vehicle's bounding box to the front
+   * @param temporalBias     The percentage of the time margin to bias the host
+   *                         vehicle's bounding box to the future
+   * @param timeProvider     The object responsible to determining the time used
+   *                         in mobility messages
+   */
+  public ConflictManager(ISpatialStructureFactory structureFactory, double[] indexCellDims, double downtrackMargin, double crosstrackMargin,
+      double timeMargin, double lateralBias, double longitudinalBias, double temporalBias, IMobilityTimeProvider timeProvider) {
 
     this.structureFactory = structureFactory;
+    this.pathIndex = new TimeSlicedSpatialIndex<>(indexCellDims);
     this.downtrackMargin = downtrackMargin;
     this.crosstrackMargin = crosstrackMargin;
     this.timeMargin = timeMargin;
@@ -122,8 +180,8 @@ public class ConflictManager implements IConflictManager {
     if (path == null || path.isEmpty() || vehicleStaticId == null) {
       return false;
     }
-    synchronized (mobilityPathSpatialMaps) {
-      addPath(path, vehicleStaticId, mobilityPathSpatialMaps);
+    synchronized (pathIndex) {
+      addPath(path, new PathKey(vehicleStaticId, false));
     }
     return true;
   }
@@ -134,37 +192,30 @@ public class ConflictManager implements IConflictManager {
     if (path == null || path.isEmpty() || planId == null || vehicleId == null) {
       return false;
     }
-    synchronized (requestedPathSpatialMaps) {
-      addPath(path, planId, requestedPathSpatialMaps);
+    synchronized (pathIndex) {
+      addPath(path, new PathKey(planId, true));
       planIdMap.put(planId, vehicleId);
     }
     return true;
   }
 
   /**
-   * Helper function for adding paths to a map of spatial hash maps
+   * Helper function for adding paths to the tracked path index
+   * Points added under an existing key are appended to that key's path
    * 
    * @param path The path to add for future conflict detection
    * @param key  The key to use for identifying this path
-   * 
-   * @return True if the path could be added. False if not.
    */
-  private void addPath(List<RoutePointStamped> path, String key, Map<String, ISpatialStructure> map) {
+  private void addPath(List<RoutePointStamped> path, PathKey key) {
     log.info("addPath");
-    // Get current path for this vehicle
-    ISpatialStructure vehiclesPath = map.get(key);
-    // If not current path for this vehicle add it
-    if (vehiclesPath == null) {
-      log.info("Creating new spatial hash map");
-      vehiclesPath = structureFactory.buildSpatialStructure();
-      map.put(key, vehiclesPath);
-    }
-    log.info("Preparing to insert points");
-    // Insert points
     long time0 = System.currentTimeMillis();
-    insertPoints(path, vehiclesPath, downtrackMargin, crosstrackMargin, timeMargin);
+    for (RoutePointStamped routePoint : path) {
+      pathIndex.insert(key,
+        routePoint.getDowntrack() - downtrackMargin, routePoint.getCrosstrack() - crosstrackMargin, routePoint.getStamp() - timeMargin,
+        routePoint.getDowntrack() + downtrackMargin, routePoint.getCrosstrack() + crosstrackMargin, routePoint.getStamp() + timeMargin);
+    }
     long time1 = System.currentTimeMillis();
-    log.debug("addPath: call to insertPoints took " + (time1 - time0) + " ms.");
+    log.debug("addPath: inserting " + path.size() + " points took " + (time1 - time0) + " ms.");
   }
 
   /**
@@ -179,9 +230,7 @@ public class ConflictManager implements IConflictManager {
   private void insertPoints(List<RoutePointStamped> path, ISpatialStructure map, double downtrackMargin, double crosstrackMargin, double timeMargin) {
     // Add points to spatial map
     log.debug("Inserting path with size " + path.size());
-    int count = 0;
     for (RoutePointStamped routePoint : path) {
-      // log.info("Inserting point " + count + ": " + routePoint.getPoint());
       // Define bounds
       Point3D minBoundingPoint = new Point3D(routePoint.getDowntrack() - downtrackMargin,
           routePoint.getCrosstrack() - crosstrackMargin, routePoint.getStamp() - timeMargin);
@@ -189,24 +238,28 @@ public class ConflictManager implements IConflictManager {
           routePoint.getCrosstrack() + crosstrackMargin, routePoint.getStamp() + timeMargin);
       // Insert point
       map.insert(new CartesianObject(Arrays.asList(minBoundingPoint, maxBoundingPoint)));
-      // log.info("Inserted point");
-      count++;
     }
     log.debug("Done inserting");
   }
 
   @Override
   public boolean removeMobilityPath(String vehicleStaticId) {
-    synchronized (mobilityPathSpatialMaps) {
-      return mobilityPathSpatialMaps.remove(vehicleStaticId) != null;
+    if (vehicleStaticId == null) {
+      return false;
+    }
+    synchronized (pathIndex) {
+      return pathIndex.remove(new PathKey(vehicleStaticId, false));
     }
   }
 
   @Override
   public boolean removeRequestedPath(String planId) {
-    synchronized (requestedPathSpatialMaps) {
+    if (planId == null) {
+      return false;
+    }
+    synchronized (pathIndex) {
       planIdMap.remove(planId);
-      return requestedPathSpatialMaps.remove(planId) != null;
+      return pathIndex.remove(new PathKey(planId, true));
     }
   }
 
@@ -225,6 +278,19 @@ public class ConflictManager implements IConflictManager {
     RoutePointStamped prevPoint = null;
     // Get the minimum time stamp which is still viable
     double minTime = timeProvider.getCurrentTimeSeconds();
+    // Remove paths which have ended and time slices which can no longer be reached by a host point's bounding box
+    List<PathKey> expiredPaths = new LinkedList<>();
+    synchronized (pathIndex) {
+      pathIndex.expire(minTime, minTime - timeMargin * (1.0 + Math.abs(temporalBias)), expiredPaths);
+      for (PathKey key : expiredPaths) {
+        // If this is the a requested path disassociate the plan and vehicle ids
+        if (key.requested) {
+          planIdMap.remove(key.id);
+        }
+      }
+    }
+    // Reused for every point so that the query loop does not generate garbage
+    List<PathKey> collidingPaths = new ArrayList<>();
 
     for (RoutePointStamped routePoint : hostPath) {
       // If the provided point occurs before the current time. There is no point in
@@ -235,19 +301,13 @@ public class ConflictManager implements IConflictManager {
       // Get lane
       lane = route.getSegments().get(routePoint.getSegmentIdx()).determinePrimaryLane(routePoint.getCrosstrack());
 
-      // Check for collisions with mobility paths
-      List<String> conflictingVehicles = hasCollision(mobilityPathSpatialMaps, routePoint, minTime);
-      if (conflictingVehicles.isEmpty()) {
-        // Check for collisions with requested paths
-        conflictingVehicles = hasCollision(requestedPathSpatialMaps, routePoint, minTime);
-      }
-      // Update conflicts
-      if (!conflictingVehicles.isEmpty()) {
+      // Check for collisions with mobility paths and requested paths then update conflicts
+      if (hasCollision(routePoint, collidingPaths)) {
         // If no conflict is being tracked this is a new conflict
         if (currentConflict == null) {
           currentConflict = new ConflictSpace(routePoint.getDowntrack(), routePoint.getStamp(), lane,
               routePoint.getSegmentIdx());
-          currentConflict.addConflictingVehicles(conflictingVehicles);
+          currentConflict.addConflictingVehicles(getConflictingVehicles(collidingPaths));
         } else if (lane != currentConflict.getLane()) {
           // If we are tracking a conflict but the lane has changed then end that conflict
           // and create a new one
@@ -257,13 +317,12 @@ public class ConflictManager implements IConflictManager {
           // define the start of the new conflict
           currentConflict = new ConflictSpace(prevPoint.getDowntrack(), prevPoint.getStamp(), lane,
               routePoint.getSegmentIdx());
-          currentConflict.addConflictingVehicles(conflictingVehicles);
+          currentConflict.addConflictingVehicles(getConflictingVehicles(collidingPaths));
         }
       } else {
         // If there were no conflicts but we are tracking a conflict then that conflict
         // is done
         if (currentConflict != null) {
-          currentConflict.addConflictingVehicles(conflictingVehicles);
           closeConflict(currentConflict, prevPoint.getDowntrack(), prevPoint.getStamp());
           conflicts.add(currentConflict);
           currentConflict = null; // Stop tracking the conflict
@@ -281,68 +340,56 @@ public class ConflictManager implements IConflictManager {
   }
 
   /**
-   * Helper function returns true if any of the spatial maps in the provided map
-   * contain elements which collide with the provided point
+   * Helper function finds the tracked paths which collide with the provided point
+   * This function does not allocate so it can be called for every point in a path without generating garbage
    * 
-   * @param mapContainer The set of spatial hash maps which will be evaluated
-   * @param routePoint   The point to check for collisions
-   * @param minTime      The minimum time in seconds which is still valid for
-   *                     consideration
+   * @param routePoint     The point to check for collisions
+   * @param collidingPaths A reusable list which will be cleared and populated with the keys of colliding paths
    * 
-   * @return A list static ids for vehicles which the provided point conflict
-   *         with. The list is empty if no conflict exist
+   * @return True if any tracked path collides with the provided point
    */
-  private List<String> hasCollision(Map<String, ISpatialStructure> mapContainer, RoutePointStamped routePoint,
-      double minTime) {
-    final int TIME_IDX = 2, MAX_IDX = 1;
-    List<String> conflictingVehicles = new LinkedList<>();
-    // Directly access iterator for safe removal while iterating
-    synchronized (mapContainer) {
-      for (Iterator<Entry<String, ISpatialStructure>> i = mapContainer.entrySet().iterator(); i.hasNext();) {
-        Entry<String, ISpatialStructure> entry = i.next();
-        String id = entry.getKey();
-        ISpatialStructure map = entry.getValue();
-
-        // If the maximum time of the current map is before the minimum time being
-        // evaluated
-        // it should be skipped and removed from future consideration
-        if (minTime > map.getBounds()[TIME_IDX][MAX_IDX]) {
-          i.remove();
-          // If this is the a requested path disassociate the plan and vehicle ids
-          if (mapContainer == requestedPathSpatialMaps) {
-            planIdMap.remove(id);
-          }
-          continue;
+  private boolean hasCollision(RoutePointStamped routePoint, List<PathKey> collidingPaths) {
+    final double downtrack = routePoint.getDowntrack() + (downtrackMargin * longitudinalBias);
+    final double crosstrack = routePoint.getCrosstrack() + (crosstrackMargin * lateralBias);
+    final double time = routePoint.getStamp() + (timeMargin * temporalBias);
+
+    collidingPaths.clear();
+    synchronized (pathIndex) {
+      pathIndex.query(downtrack - downtrackMargin, crosstrack - crosstrackMargin, time - timeMargin,
+        downtrack + downtrackMargin, crosstrack + crosstrackMargin, time + timeMargin, collidingPaths);
+
+      // Only paths which surround the point being evaluated are considered in collision
+      for (int i = collidingPaths.size() - 1; i >= 0; i--) {
+        if (!pathIndex.surrounds(collidingPaths.get(i), downtrack, crosstrack, time)) {
+          collidingPaths.remove(i);
         }
-        // If this map contains the point being evaluated collisions must be checked for
-        RoutePointStamped transformed = new RoutePointStamped(
-            routePoint.getDowntrack() + (downtrackMargin * longitudinalBias),
-            routePoint.getCrosstrack() + (crosstrackMargin * lateralBias),
-            routePoint.getStamp() + (timeMargin * temporalBias));
-
-        Point3D minBoundingPoint = new Point3D(transformed.getDowntrack() - downtrackMargin,
-            transformed.getCrosstrack() - crosstrackMargin, transformed.getStamp() - timeMargin);
-        Point3D maxBoundingPoint = new Point3D(transformed.getDowntrack() + downtrackMargin,
-            transformed.getCrosstrack() + crosstrackMargin, transformed.getStamp() + timeMargin);
-
-        List<Point3D> pointCloud = new ArrayList<>();
-        pointCloud.add(minBoundingPoint);
-        pointCloud.add(maxBoundingPoint);
-        CartesianObject boundingBox = new CartesianObject(pointCloud);
-        if (map.surrounds(transformed.getPoint())) {
-          if (!map.getCollisions(boundingBox).isEmpty()) {
-            // Get the vehicle id and add it to list of conflicting ids
-            if (mapContainer == requestedPathSpatialMaps) {
-              conflictingVehicles.add(planIdMap.get(id));
-            } else {
-              conflictingVehicles.add(id);
-            }
-            continue;
-          }
+      }
+    }
+    return !collidingPaths.isEmpty();
+  }
+
+  /**
+   * Helper function converts the keys of colliding paths into vehicle static ids
+   * Conflicts with MobilityPaths take precedence. Requested paths are only reported when no MobilityPath conflicts
+   * 
+   * @param collidingPaths The keys of the colliding paths
+   * 
+   * @return A list static ids for vehicles which the paths belong to
+   */
+  private List<String> getConflictingVehicles(List<PathKey> collidingPaths) {
+    List<String> mobilityPathVehicles = new LinkedList<>();
+    List<String> requestedPathVehicles = new LinkedList<>();
+    synchronized (pathIndex) {
+      for (PathKey key : collidingPaths) {
+        // Get the vehicle id and add it to list of conflicting ids
+        if (key.requested) {
+          requestedPathVehicles.add(planIdMap.get(key.id));
+        } else {
+          mobilityPathVehicles.add(key.id);
         }
       }
     }
-    return conflictingVehicles;
+    return mobilityPathVehicles.isEmpty() ? requestedPathVehicles : mobilityPathVehicles;
   }
 
   @Override
@@ -366,41 +413,60 @@ public class ConflictManager implements IConflictManager {
     //System.out.println("Host: " + hostPath.size());
     //System.out.println("Other: " + otherPath.size());
 
+    // Build Map for other path
+    buildPathStructure(otherPath, spatialStructure, downtrackMargin, crosstrackMargin, timeMargin);
+    return getConflicts(hostPath, spatialStructure, downtrackMargin, crosstrackMargin, timeMargin, longitudinalBias, lateralBias, temporalBias);
+  }
+
+  @Override
+  public ISpatialStructure buildPathStructure(List<RoutePointStamped> path, ISpatialStructure spatialStructure,
+    double downtrackMargin, double crosstrackMargin, double timeMargin) {
+    if (path == null || path.isEmpty()) {
+      return spatialStructure;
+    }
+    long startTime = System.nanoTime();
+    insertPoints(path, spatialStructure, downtrackMargin, crosstrackMargin, timeMargin);
+    nanoSecBuilding += (System.nanoTime()- startTime);
+    return spatialStructure;
+  }
+
+  // Note the parameters in this function are overriding the class members by the same name
+  @Override
+  public List<ConflictSpace> getConflicts(List<RoutePointStamped> hostPath, ISpatialStructure otherPathStructure,
+    double downtrackMargin, double crosstrackMargin, double timeMargin, double longitudinalBias, double lateralBias, double temporalBias) {
+    if (hostPath == null || otherPathStructure == null || hostPath.isEmpty()) {
+      return new LinkedList<>();
+    }
+
     long startTime = System.nanoTime();
     // Prepare to store conflicts
     List<ConflictSpace> conflicts = new LinkedList<>();
-    // Build Map for other path
-    insertPoints(otherPath, spatialStructure, downtrackMargin, crosstrackMargin, timeMargin);
-    
-    nanoSecBuilding += (System.nanoTime()- startTime);
-    startTime = System.nanoTime();
 
     // Iterate over all points in the host path
     ConflictSpace currentConflict = null;
     int lane = 0;
     RoutePointStamped prevPoint = null;
+    // Bounding box of the current host point. Reused for every point so that the query loop does not generate garbage
+    final double[] minBounds = new double[3];
+    final double[] maxBounds = new double[3];
 
     for (RoutePointStamped routePoint : hostPath) {
-      RoutePointStamped transformed = new RoutePointStamped(
-          routePoint.getDowntrack() + (downtrackMargin * longitudinalBias),
-          routePoint.getCrosstrack() + (crosstrackMargin * lateralBias),
-          routePoint.getStamp() + (timeMargin * temporalBias));
+      final double downtrack = routePoint.getDowntrack() + (downtrackMargin * longitudinalBias);
+      final double crosstrack = routePoint.getCrosstrack() + (crosstrackMargin * lateralBias);
+      final double time = routePoint.getStamp() + (timeMargin * temporalBias);
 
-      Point3D minBoundingPoint = new Point3D(transformed.getDowntrack() - downtrackMargin,
-          transformed.getCrosstrack() - crosstrackMargin, transformed.getStamp() - timeMargin);
-      Point3D maxBoundingPoint = new Point3D(transformed.getDowntrack() + downtrackMargin,
-          transformed.getCrosstrack() + crosstrackMargin, transformed.getStamp() + timeMargin);
+      minBounds[0] = downtrack - downtrackMargin;
+      minBounds[1] = crosstrack - crosstrackMargin;
+      minBounds[2] = time - timeMargin;
+      maxBounds[0] = downtrack + downtrackMargin;
+      maxBounds[1] = crosstrack + crosstrackMargin;
+      maxBounds[2] = time + timeMargin;
 
       // Get lane
-      lane = route.getSegments().get(transformed.getSegmentIdx()).determinePrimaryLane(transformed.getCrosstrack());
-
-      List<Point3D> pointCloud = new ArrayList<>();
-      pointCloud.add(minBoundingPoint);
-      pointCloud.add(maxBoundingPoint);
-      CartesianObject boundingBox = new CartesianObject(pointCloud);
+      lane = route.getSegments().get(routePoint.getSegmentIdx()).determinePrimaryLane(crosstrack);
 
       // Update conflicts
-      if (!spatialStructure.getCollisions(boundingBox).isEmpty()) {
+      if (otherPathStructure.hasCollision(minBounds, maxBounds)) {
         // If no conflict is being tracked this is a new conflict
         if (currentConflict == null) {
           currentConflict = new ConflictSpace(routePoint.getDowntrack(), routePoint.getStamp(), lane,
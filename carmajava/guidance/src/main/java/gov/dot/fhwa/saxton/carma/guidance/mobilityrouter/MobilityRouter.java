@@ -310,28 +310,20 @@ public class MobilityRouter extends GuidanceComponent implements IMobilityRouter
         ConflictSpace conflictSpace = null;
 
         ///// LOG PATH TODO remove when done testing
-        String pathLog = "The request which was processed was as follows (downtrack, crosstrack, time, segmentIdx, segmentDowntrack)\n";
-        for (RoutePointStamped rp : otherPath) {
-            pathLog = pathLog + rp.getDowntrack() + ", " + rp.getCrosstrack() + ", " + rp.getStamp() + ", "
-                    + rp.getSegmentIdx() + ", " + rp.getSegDowntrack() + "\n";
-        }
-        log.debug(pathLog);
+        log.debug(() -> describePath(
+                "The request which was processed was as follows (downtrack, crosstrack, time, segmentIdx, segmentDowntrack)\n", otherPath));
 
-        String hostLog = "The host path during request which was current was as follows (downtrack, crosstrack, time, segmentIdx, segmentDowntrack)\n";
-        for (RoutePointStamped rp : hostPath) {
-            hostLog = hostLog + rp.getDowntrack() + ", " + rp.getCrosstrack() + ", " + rp.getStamp() + ", "
-                    + rp.getSegmentIdx() + ", " + rp.getSegDowntrack() + "\n";
-        }
-        log.debug(hostLog);
+        log.debug(() -> describePath(
+                "The host path during request which was current was as follows (downtrack, crosstrack, time, segmentIdx, segmentDowntrack)\n", hostPath));
         //// END LOG PATH
 
         if (!conflictSpaces.isEmpty()) {
             conflictSpace = conflictSpaces.get(0); // Only use the first because the new trajectory will modify and
                                                    // change the others
-            log.info(String.format(
+            log.infof(
                     "Conflict detected in path %s, startDist = %.02f, endDist = %.02f, lane = %d, startTime = %.02f, endTime = %.02f",
                     msg.getHeader().getPlanId(), conflictSpace.getStartDowntrack(), conflictSpace.getEndDowntrack(),
-                    conflictSpace.getLane(), conflictSpace.getStartTime(), conflictSpace.getEndTime()));
+                    conflictSpace.getLane(), conflictSpace.getStartTime(), conflictSpace.getEndTime());
             conflictHandled = false;
         }
 
@@ -436,6 +428,22 @@ public class MobilityRouter extends GuidanceComponent implements IMobilityRouter
         }
     }
 
+    /**
+     * Helper function lists the points of a path for the debug log
+     * 
+     * @param header The first line of the listing
+     * @param path The path to list
+     * @return The listing with one (downtrack, crosstrack, time, segmentIdx, segmentDowntrack) line per point
+     */
+    private static String describePath(String header, List<RoutePointStamped> path) {
+        StringBuilder sb = new StringBuilder(header);
+        for (RoutePointStamped rp : path) {
+            sb.append(rp.getDowntrack()).append(", ").append(rp.getCrosstrack()).append(", ").append(rp.getStamp())
+                    .append(", ").append(rp.getSegmentIdx()).append(", ").append(rp.getSegDowntrack()).append("\n");
+        }
+        return sb.toString();
+    }
+
     /**
      * ROS messaging callback to be invoked upon receipt of an inbound MobilityPath
      * message
@@ -475,27 +483,19 @@ public class MobilityRouter extends GuidanceComponent implements IMobilityRouter
         log.debug("    Time to beginning of addMobilityPath was " + (tempTime1 - tempStartTime) + " ms");
         log.debug("    Time to run addMoblityPath = " + (tempTime2 - tempTime1) + " ms");
         ///// LOG PATH TODO remove when done testing
-        String pathLog = "The path which was processed was as follows (downtrack, crosstrack, time, segmentIdx, segmentDowntrack)\n";
-        for (RoutePointStamped rp : otherTrajectory) {
-            pathLog = pathLog + rp.getDowntrack() + ", " + rp.getCrosstrack() + ", " + rp.getStamp() + ", "
-                    + rp.getSegmentIdx() + ", " + rp.getSegDowntrack() + "\n";
-        }
-        log.debug(pathLog);
+        log.debug(() -> describePath(
+                "The path which was processed was as follows (downtrack, crosstrack, time, segmentIdx, segmentDowntrack)\n", otherTrajectory));
 
-        String hostLog = "The host path which was current was as follows (downtrack, crosstrack, time, segmentIdx, segmentDowntrack)\n";
-        for (RoutePointStamped rp : hostTrajectory) {
-            hostLog = hostLog + rp.getDowntrack() + ", " + rp.getCrosstrack() + ", " + rp.getStamp() + ", "
-                    + rp.getSegmentIdx() + ", " + rp.getSegDowntrack() + "\n";
-        }
-        log.debug(hostLog);
+        log.debug(() -> describePath(
+                "The host path which was current was as follows (downtrack, crosstrack, time, segmentIdx, segmentDowntrack)\n", hostTrajectory));
         //// END LOG PATH
         if (!conflictSpaces.isEmpty()) {
             ConflictSpace conflictSpace = conflictSpaces.get(0); // Only use the first because the new trajectory will
                                                                  // modify and change the others
-            log.info(String.format(
+            log.infof(
                     "Conflict detected in path %s, startDist = %.02f, endDist = %.02f, lane = %d, startTime = %.02f, endTime = %.02f",
                     msg.getHeader().getPlanId(), conflictSpace.getStartDowntrack(), conflictSpace.getEndDowntrack(),
-                    conflictSpace.getLane(), conflictSpace.getStartTime(), conflictSpace.getEndTime()));
+                    conflictSpace.getLane(), conflictSpace.getStartTime(), conflictSpace.getEndTime());
             // Handle in default conflict handler
             if (defaultConflictHandler != null) {
                 log.info("Handling path conflict with " + defaultConflictHandler.getVersionInfo());
@@ -92,6 +92,7 @@ public class OverlappingManeuversConstraint implements TrajectoryValidationConst
 				&& getType(m) == getType(m2)) {
 					overlappingManeuvers.add(m);
 					overlappingManeuvers.add(m2);
+					visited = new ArrayList<>();
 					return new TrajectoryValidationResult(new TrajectoryValidationError("Overlapping maneuvers detected!", overlappingManeuvers));
 				}
 			}
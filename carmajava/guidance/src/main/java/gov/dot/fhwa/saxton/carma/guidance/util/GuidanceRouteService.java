@@ -24,6 +24,7 @@ import gov.dot.fhwa.saxton.carma.route.RouteSegment;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.NavigableSet;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.function.Consumer;
@@ -39,9 +40,9 @@ public class GuidanceRouteService implements RouteService {
   protected RouteSegment currentSegment;
   protected volatile cav_msgs.RouteState routeState;
   protected ISubscriber<cav_msgs.RouteState> routeStateSubscriber;
-  protected SortedSet<SpeedLimit> limits;
-  protected SortedSet<AlgorithmFlags> disabledAlgorithms;
-  protected SortedSet<RequiredLane> requiredLanes;
+  protected NavigableSet<SpeedLimit> limits;
+  protected NavigableSet<AlgorithmFlags> disabledAlgorithms;
+  protected NavigableSet<RequiredLane> requiredLanes;
   protected List<Consumer<cav_msgs.Route>> routeCallbacks = Collections.synchronizedList(new ArrayList<>());
   protected List<Consumer<cav_msgs.RouteState>> routeStateCallbacks = Collections.synchronizedList(new ArrayList<>());
 
@@ -100,7 +101,7 @@ public class GuidanceRouteService implements RouteService {
     }
 
     // Remove duplicates to find out where lane changes must occur
-    SortedSet<RequiredLane> requiredLaneChanges = new TreeSet<>((a, b) -> Double.compare(a.getLocation(), b.getLocation()));
+    NavigableSet<RequiredLane> requiredLaneChanges = new TreeSet<>((a, b) -> Double.compare(a.getLocation(), b.getLocation()));
     RequiredLane prev = null;
     for (RequiredLane lane : requiredLanes) {
       if (prev != null && prev.getLaneId() != lane.getLaneId()) {
@@ -119,18 +120,13 @@ public class GuidanceRouteService implements RouteService {
 
   @Override
   public RouteSegment getRouteSegmentAtLocation(double location) {
-    double dtdAccum = 0;
-    RouteSegment out = null;
-    for (RouteSegment segment : currentRoute.getSegments()) {
-      dtdAccum += segment.length();
-
-      if (dtdAccum > location) {
-        out = segment;
-        break;
-      }
-    }
+    int index = getRouteSegmentIndexAtLocation(location);
+    return index < 0 ? null : currentRoute.getSegments().get(index);
+  }
 
-    return out;
+  @Override
+  public int getRouteSegmentIndexAtLocation(double location) {
+    return currentRoute.getSegmentIndexAtDowntrack(location);
   }
 
   @Override
@@ -160,61 +156,34 @@ public class GuidanceRouteService implements RouteService {
 
   @Override
   public SpeedLimit getSpeedLimitAtLocation(double location) {
-    if (location > limits.last().getLimit()) {
-      return limits.last();
-    }
+    // Limits are keyed by the end of their segment so the first limit at or past the location applies
+    SpeedLimit limit = limits.ceiling(new SpeedLimit(location, 0.0));
 
-    for (SpeedLimit limit : limits) {
-      if (limit.getLocation() >= location) {
-        return limit;
-      }
-    }
-
-    // Should be unreachable
-    return null;
+    // Locations past the end of the route use the last limit
+    return limit != null ? limit : limits.last();
   }
 
   @Override
   public AlgorithmFlags getAlgorithmFlagsAtLocation(double location) {
-    for (AlgorithmFlags flags : disabledAlgorithms) {
-      if (flags.getLocation() >= location) {
-        return flags;
-      }
-    }
-
-    return null;
+    return disabledAlgorithms.ceiling(new AlgorithmFlags(location, Collections.emptyList()));
   }
 
   @Override
   public SortedSet<SpeedLimit> getSpeedLimitsInRange(double start, double end) {
-    SortedSet<SpeedLimit> out = new TreeSet<>((a, b) -> Double.compare(a.getLocation(), b.getLocation()));
-    for (SpeedLimit limit : limits) {
-      if (limit.getLocation() > start && limit.getLocation() <= end) {
-        out.add(limit);
-      }
-
-      if (limit.getLocation() > end) {
-        break;
-      }
+    if (start >= end) {
+      return new TreeSet<>((a, b) -> Double.compare(a.getLocation(), b.getLocation()));
     }
-
-    return out;
+    // The copy keeps the location comparator of the route set
+    return new TreeSet<>(limits.subSet(new SpeedLimit(start, 0.0), false, new SpeedLimit(end, 0.0), true));
   }
 
   @Override
   public SortedSet<AlgorithmFlags> getAlgorithmFlagsInRange(double start, double end) {
-    SortedSet<AlgorithmFlags> out = new TreeSet<>((a, b) -> Double.compare(a.getLocation(), b.getLocation()));
-    for (AlgorithmFlags flags : disabledAlgorithms) {
-      if (flags.getLocation() > start && flags.getLocation() <= end) {
-        out.add(flags);
-      }
-
-      if (flags.getLocation() > end) {
-        break;
-      }
+    if (start >= end) {
+      return new TreeSet<>((a, b) -> Double.compare(a.getLocation(), b.getLocation()));
     }
-
-    return out;
+    // The copy keeps the location comparator of the route set
+    return new TreeSet<>(disabledAlgorithms.subSet(new AlgorithmFlags(start, Collections.emptyList()), false, new AlgorithmFlags(end, Collections.emptyList()), true));
   }
 
   @Override
@@ -274,29 +243,16 @@ public class GuidanceRouteService implements RouteService {
 
   @Override
   public RequiredLane getRequiredLaneAtLocation(double location) {
-    for (RequiredLane lane : requiredLanes) {
-      if (lane.getLocation() >= location) {
-        return lane;
-      }
-    }
-
-    return null;
+    return requiredLanes.ceiling(new RequiredLane(location, 0));
   }
 
   @Override
   public SortedSet<RequiredLane> getRequiredLanesInRange(double start, double end) {
-    SortedSet<RequiredLane> out = new TreeSet<>((a, b) -> Double.compare(a.getLocation(), b.getLocation()));
-    for (RequiredLane lane : requiredLanes) {
-      if (lane.getLocation() > start && lane.getLocation() <= end) {
-        out.add(lane);
-      }
-
-      if (lane.getLocation() > end) {
-        break;
-      }
+    if (start >= end) {
+      return new TreeSet<>((a, b) -> Double.compare(a.getLocation(), b.getLocation()));
     }
-
-    return out;
+    // The copy keeps the location comparator of the route set
+    return new TreeSet<>(requiredLanes.subSet(new RequiredLane(start, 0), false, new RequiredLane(end, 0), true));
   }
 
   /**
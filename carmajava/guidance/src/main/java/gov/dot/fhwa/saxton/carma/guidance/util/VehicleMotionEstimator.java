@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.guidance.util;
+
+/**
+ * Incremental estimator of the longitudinal acceleration and yaw rate of the host vehicle
+ * <p>
+ * Each speed or heading sample updates an exponentially smoothed derivative in constant time, so the
+ * current estimate is always available without keeping a history of samples.
+ */
+public class VehicleMotionEstimator {
+  private final double timeConstant;
+
+  private double lastSpeed;
+  private double lastSpeedTime;
+  private boolean hasSpeed = false;
+  private volatile double acceleration = 0.0;
+  private volatile boolean accelerationReady = false;
+
+  private double lastHeading;
+  private double lastHeadingTime;
+  private boolean hasHeading = false;
+  private volatile double yawRate = 0.0;
+  private volatile boolean yawRateReady = false;
+
+  /**
+   * @param timeConstant The time constant in s of the smoothing applied to the derivatives
+   */
+  public VehicleMotionEstimator(double timeConstant) {
+    this.timeConstant = timeConstant;
+  }
+
+  /**
+   * Update the acceleration estimate with a new speed sample
+   *
+   * @param speed The forward speed in m/s
+   * @param time The time of the sample in s
+   */
+  public synchronized void updateSpeed(double speed, double time) {
+    if (hasSpeed && time > lastSpeedTime) {
+      double dt = time - lastSpeedTime;
+      double rawAcceleration = (speed - lastSpeed) / dt;
+      acceleration = accelerationReady ? smooth(acceleration, rawAcceleration, dt) : rawAcceleration;
+      accelerationReady = true;
+    }
+    if (!hasSpeed || time > lastSpeedTime) {
+      lastSpeed = speed;
+      lastSpeedTime = time;
+      hasSpeed = true;
+    }
+  }
+
+  /**
+   * Update the yaw rate estimate with a new heading sample
+   *
+   * @param heading The heading in degrees east of north
+   * @param time The time of the sample in s
+   */
+  public synchronized void updateHeading(double heading, double time) {
+    if (hasHeading && time > lastHeadingTime) {
+      double dt = time - lastHeadingTime;
+      double delta = heading - lastHeading;
+      // Wrap the change around north
+      if (delta > 180.0) {
+        delta -= 360.0;
+      } else if (delta < -180.0) {
+        delta += 360.0;
+      }
+      // Headings increase clockwise so the yaw rate is positive to the right as in J2735
+      double rawYawRate = delta / dt;
+      yawRate = yawRateReady ? smooth(yawRate, rawYawRate, dt) : rawYawRate;
+      yawRateReady = true;
+    }
+    if (!hasHeading || time > lastHeadingTime) {
+      lastHeading = heading;
+      lastHeadingTime = time;
+      hasHeading = true;
+    }
+  }
+
+  private double smooth(double previous, double sample, double dt) {
+    double alpha = dt / (timeConstant + dt);
+    return previous + alpha * (sample - previous);
+  }
+
+  /**
+   * @return The longitudinal acceleration in m/s^2
+   */
+  public double getAcceleration() {
+    return acceleration;
+  }
+
+  /**
+   * @return True once two speed samples have been received
+   */
+  public boolean isAccelerationReady() {
+    return accelerationReady;
+  }
+
+  /**
+   * @return The yaw rate in deg/s, positive clockwise (to the right)
+   */
+  public double getYawRate() {
+    return yawRate;
+  }
+
+  /**
+   * @return True once two heading samples have been received
+   */
+  public boolean isYawRateReady() {
+    return yawRateReady;
+  }
+
+  /**
+   * Discard all samples
+   */
+  public synchronized void reset() {
+    hasSpeed = false;
+    hasHeading = false;
+    accelerationReady = false;
+    yawRateReady = false;
+    acceleration = 0.0;
+    yawRate = 0.0;
+  }
+}
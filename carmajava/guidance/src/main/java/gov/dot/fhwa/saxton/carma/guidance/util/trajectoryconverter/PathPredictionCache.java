@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.guidance.util.trajectoryconverter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Versioned cache of the host vehicle's path prediction
+ * The prediction is only regenerated when the planned trajectories change, when the vehicle has drifted from the
+ * prediction or when too little of the predicted horizon remains. Between regenerations the prediction is advanced
+ * by dropping the points which are already in the past.
+ *
+ * Predictions are handed out as unmodifiable snapshots which may be shared between threads.
+ * Consumers must not modify the RoutePointStamped objects contained in a snapshot.
+ */
+public class PathPredictionCache {
+
+  private final double maxDowntrackError;
+  private final double minRemainingFraction;
+
+  private long version = 0;
+  private RoutePointStamped[] points = null;
+  private List<RoutePointStamped> allPoints = Collections.emptyList();
+  private int startIdx = 0;
+  private int builtMaxPoints = 0;
+  private List<RoutePointStamped> snapshot = Collections.emptyList();
+
+  /**
+   * Constructor
+   *
+   * @param maxDowntrackError The distance in m the vehicle may deviate from the predicted downtrack before the prediction is regenerated
+   * @param minRemainingFraction The fraction of the originally predicted points which must remain before the prediction is regenerated
+   */
+  public PathPredictionCache(double maxDowntrackError, double minRemainingFraction) {
+    this.maxDowntrackError = maxDowntrackError;
+    this.minRemainingFraction = minRemainingFraction;
+  }
+
+  /**
+   * Marks the current prediction as invalid. The next call to getPrediction will regenerate it.
+   * Should be called whenever the trajectories the prediction was built from change.
+   */
+  public synchronized void invalidate() {
+    points = null;
+    allPoints = Collections.emptyList();
+    snapshot = Collections.emptyList();
+  }
+
+  /**
+   * Returns the version of the current prediction
+   * The version changes every time the prediction is regenerated so two snapshots with the same version
+   * contain the same points aside from any which have expired
+   *
+   * @return The version number
+   */
+  public synchronized long getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns the cached prediction regenerating it if needed
+   *
+   * @param maxPoints The maximum number of points the returned prediction may contain
+   * @param builder Function which generates a new prediction containing at most the provided number of points
+   *
+   * @return An unmodifiable snapshot of the prediction
+   */
+  public synchronized List<RoutePointStamped> getPrediction(int maxPoints, IntFunction<List<RoutePointStamped>> builder) {
+    if (maxPoints <= 0) {
+      return Collections.emptyList();
+    }
+    if (points == null || builtMaxPoints < maxPoints) {
+      build(maxPoints, builder);
+    }
+    if (snapshot.size() <= maxPoints) {
+      return snapshot;
+    }
+    // Predictions are generated forward from the vehicle's position so a shorter prediction is a prefix of a longer one
+    return snapshot.subList(0, maxPoints);
+  }
+
+  private void build(int maxPoints, IntFunction<List<RoutePointStamped>> builder) {
+    List<RoutePointStamped> prediction = builder.apply(maxPoints);
+    // The backing array is never modified after this point so views of it can be shared safely
+    points = prediction.toArray(new RoutePointStamped[prediction.size()]);
+    allPoints = Collections.unmodifiableList(Arrays.asList(points));
+    startIdx = 0;
+    builtMaxPoints = maxPoints;
+    version++;
+    updateSnapshot();
+  }
+
+  private void updateSnapshot() {
+    snapshot = allPoints.subList(startIdx, points.length);
+  }
+
+  /**
+   * Advances the prediction to the vehicle's current progress along the route
+   * Points which occur before the current time are dropped. If the vehicle is further than the allowed error from
+   * where the prediction expected it to be, or too few points remain, the prediction is invalidated instead.
+   *
+   * @param currentTime The current time in seconds since Jan 1, 1970 00:00:00 UTC
+   * @param downtrack The current downtrack distance of the vehicle along the route in m
+   */
+  public synchronized void advance(double currentTime, double downtrack) {
+    if (points == null) {
+      return;
+    }
+    final int firstValid = firstIndexAtOrAfter(currentTime);
+    final int remaining = points.length - firstValid;
+    if (remaining == 0 || remaining < points.length * minRemainingFraction) {
+      invalidate();
+      return;
+    }
+    // The prediction can only be checked once the vehicle has reached it
+    if (firstValid > 0 && Math.abs(expectedDowntrack(firstValid, currentTime) - downtrack) > maxDowntrackError) {
+      invalidate();
+      return;
+    }
+    if (firstValid != startIdx) {
+      startIdx = firstValid;
+      updateSnapshot();
+    }
+  }
+
+  /**
+   * Helper function returns the index of the first point with a time stamp no earlier than the provided time
+   */
+  private int firstIndexAtOrAfter(double time) {
+    int low = startIdx;
+    int high = points.length;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (points[mid].getStamp() < time) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Helper function linearly interpolates the predicted downtrack at the provided time between the point at index and the one before it
+   */
+  private double expectedDowntrack(int index, double time) {
+    final RoutePointStamped prev = points[index - 1];
+    final RoutePointStamped next = points[index];
+    final double dt = next.getStamp() - prev.getStamp();
+    if (dt <= 0) {
+      return next.getDowntrack();
+    }
+    final double ratio = (time - prev.getStamp()) / dt;
+    return prev.getDowntrack() + ratio * (next.getDowntrack() - prev.getDowntrack());
+  }
+}
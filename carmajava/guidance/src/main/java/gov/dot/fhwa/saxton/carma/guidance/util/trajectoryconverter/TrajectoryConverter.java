@@ -168,12 +168,23 @@ public class TrajectoryConverter implements ITrajectoryConverter {
   public List<RoutePointStamped> convertToPath(Trajectory traj, long startTimeMS,
    double downtrack, double crosstrack,
    int currentSegmentIdx, double segDowntrack, int lane, int maxPointsInPath) {
-    // TODO !!! remove lane parameter and calculate when conversion occurs
-    log.info("Converting trajectory to path");
     // If can't add points return an empty list
     if (maxPointsInPath <= 0) {
       return new LinkedList<>(); 
     }
+    return convertToRoutePath(traj, startTimeMS, downtrack, crosstrack, currentSegmentIdx, segDowntrack, lane, maxPointsInPath).toList();
+  }
+
+  @Override
+  public RoutePath convertToRoutePath(Trajectory traj, long startTimeMS,
+   double downtrack, double crosstrack,
+   int currentSegmentIdx, double segDowntrack, int lane, int maxPointsInPath) {
+    // TODO !!! remove lane parameter and calculate when conversion occurs
+    log.info("Converting trajectory to path");
+    // If can't add points return an empty path
+    if (maxPointsInPath <= 0) {
+      return new RoutePath(); 
+    }
     // Convert time to seconds
     final double currentTime = startTimeMS * SEC_PER_MS;
     // Get maneuvers
@@ -188,7 +199,8 @@ public class TrajectoryConverter implements ITrajectoryConverter {
                 ", currentTime = " + currentTime);
 
     // Starting simulation configuration
-    List<RoutePointStamped> path =  new LinkedList<RoutePointStamped>();
+    // Points are stored column wise so the lateral pass below has constant time indexed access
+    RoutePath path = new RoutePath(Math.min(maxPointsInPath, this.maxPointsInPath) + 1);
     //final double startTime = currentTime; 
     final double startingDowntrack = downtrack;
     final double startingSegDowntrack = segDowntrack;
@@ -197,7 +209,6 @@ public class TrajectoryConverter implements ITrajectoryConverter {
     // Process longitudinal maneuvers
     ////
     LongitudinalSimulationData longitudinalSimData = new LongitudinalSimulationData(currentTime, startingDowntrack, startingSegDowntrack, startingSegIdx);
-    RoutePointStamped oldPathEndPoint = null;
     int oldPathSize = 0;
     for (int i = 0; i < longitudinalManeuvers.size(); i++) {
       LongitudinalManeuver maneuver = longitudinalManeuvers.get(i);
@@ -211,13 +222,13 @@ public class TrajectoryConverter implements ITrajectoryConverter {
       // If this maneuver is happening or will happen add it to the path
       if (maneuver.getEndDistance() > longitudinalSimData.downtrack && longitudinalSimData.segmentIdx < route.getSegments().size()) {
         log.debug("PATH", "convertToPath adding long mvr #" + i);
-        longitudinalSimData = addLongitudinalManeuverToPath(maneuver, path, longitudinalSimData, maxPointsInPath);
+        longitudinalSimData = addKinematicMotionToPath(maneuver.getStartDistance(), maneuver.getEndDistance(),
+          maneuver.getStartSpeed(), maneuver.getTargetSpeed(), path, longitudinalSimData, maxPointsInPath);
         // Ensure there are no overlapping points in time
-        if (oldPathEndPoint != null && path.size() > oldPathSize && oldPathEndPoint.getStamp() == path.get(oldPathSize).getStamp()){
+        if (oldPathSize > 0 && path.size() > oldPathSize && path.getStamp(oldPathSize - 1) == path.getStamp(oldPathSize)){
           path.remove(oldPathSize);
         }
         oldPathSize = path.size();
-        oldPathEndPoint = path.get(path.size() - 1);
       }
     }
     ////
@@ -243,23 +254,23 @@ public class TrajectoryConverter implements ITrajectoryConverter {
         maneuver = lateralManeuvers.get(i);
       }
       // If this maneuver is happening or will happen add it to the path
-      if (maneuver.getEndDistance() > path.get(currentPoint).getDowntrack()) {
+      if (maneuver.getEndDistance() > path.getDowntrack(currentPoint)) {
         log.debug("PATH", "convertToPath adding lat mvr #" + i);
         // If no lane change occurs we will maintain the current crosstrack
         if (maneuver.getEndingRelativeLane() == 0) {
-          while (currentPoint < path.size() && maneuver.getEndDistance() > path.get(currentPoint).getDowntrack()) {
-            path.get(currentPoint).setCrosstrack(currentCrosstrack);
+          while (currentPoint < path.size() && maneuver.getEndDistance() > path.getDowntrack(currentPoint)) {
+            path.setCrosstrack(currentPoint, currentCrosstrack);
             currentPoint++;
           }
         } else { // A lane change will occur in this maneuver
           // Find the equation to generate the fake lane change
-          double laneWidth = route.getSegments().get(path.get(currentPoint).getSegmentIdx()).getDowntrackWaypoint().getLaneWidth();
+          double laneWidth = route.getSegments().get(path.getSegmentIdx(currentPoint)).getDowntrackWaypoint().getLaneWidth();
           double y_0 = currentCrosstrack;
           double y_1 = currentCrosstrack + laneWidth * -1 * maneuver.getEndingRelativeLane();
           double[] coefficients = getCubicFunction(maneuver.getStartDistance(), y_0, maneuver.getEndDistance(), y_1);
           // Apply equation to relevant points
-          while (currentPoint < path.size() && maneuver.getEndDistance() > path.get(currentPoint).getDowntrack()) {
-            path.get(currentPoint).setCrosstrack(solveCubic(path.get(currentPoint).getDowntrack(), coefficients));
+          while (currentPoint < path.size() && maneuver.getEndDistance() > path.getDowntrack(currentPoint)) {
+            path.setCrosstrack(currentPoint, solveCubic(path.getDowntrack(currentPoint), coefficients));
             currentPoint++;
           }
           currentCrosstrack = y_1;
@@ -418,7 +429,7 @@ public class TrajectoryConverter implements ITrajectoryConverter {
     final double endX = maneuver.getEndDistance();
     final double startV = maneuver.getStartSpeed();
     final double endV = maneuver.getTargetSpeed();
-    return addKinematicMotionToPath(startX, endX, startV, endV, path, startingData);
+    return addKinematicMotionToPath(startX, endX, startV, endV, path, startingData, this.maxPointsInPath);
   }
 
   @Override
@@ -436,8 +447,7 @@ public class TrajectoryConverter implements ITrajectoryConverter {
   /**
    * Helper function which generates a set of points along a route
    * which describe vehicle position based on starting and ending configurations.
-   * 
-   * Uses the TrajectoryConverter's current configured max path size
+   * The points are generated in a RoutePath and then appended to the provided list
    * 
    * @param startX The starting downtrack location on the route
    * @param endX The ending downtrack location on the route
@@ -445,14 +455,19 @@ public class TrajectoryConverter implements ITrajectoryConverter {
    * @param endV The ending velocity along the route
    * @param path The list of points which will be added to
    * @param startingData The starting configuration
-   * @param route The route being traversed
+   * @param maxPointsInPath The maximum number of points to convert
    * 
    * @return The new configuration resulting from the motion
    */
   private LongitudinalSimulationData addKinematicMotionToPath(
     final double startX, final double endX, final double startV, final double endV,
-     List<RoutePointStamped> path,final LongitudinalSimulationData startingData) {
-      return addKinematicMotionToPath(startX, endX, startV, endV, path, startingData, this.maxPointsInPath);
+    List<RoutePointStamped> path, final LongitudinalSimulationData startingData, int maxPointsInPath) {
+      // The new points start in an empty path so the point limit is reduced by the size of the existing path
+      final int remainingPoints = Math.min(maxPointsInPath, this.maxPointsInPath) - path.size();
+      RoutePath newPoints = new RoutePath(Math.max(remainingPoints + 1, 1));
+      LongitudinalSimulationData result = addKinematicMotionToPath(startX, endX, startV, endV, newPoints, startingData, remainingPoints);
+      path.addAll(newPoints.toList());
+      return result;
   }
 
   /**
@@ -463,16 +478,15 @@ public class TrajectoryConverter implements ITrajectoryConverter {
    * @param endX The ending downtrack location on the route
    * @param startV The starting velocity along the route
    * @param endV The ending velocity along the route
-   * @param path The list of points which will be added to
+   * @param path The path which will be added to
    * @param startingData The starting configuration
-   * @param route The route being traversed
    * @param maxPointsInPath The maximum number of points to convert
    * 
    * @return The new configuration resulting from the motion
    */
   private LongitudinalSimulationData addKinematicMotionToPath(
     final double startX, final double endX, final double startV, final double endV,
-    List<RoutePointStamped> path,final LongitudinalSimulationData startingData, int maxPointsInPath) {
+    RoutePath path, final LongitudinalSimulationData startingData, int maxPointsInPath) {
 
       final double deltaX = endX - startX;
       final double deltaV = endV - startV;
@@ -531,10 +545,7 @@ public class TrajectoryConverter implements ITrajectoryConverter {
         }
 
         // Add point to list with timestamp
-        RoutePointStamped point = new RoutePointStamped(currentDowntrack, 0.0, currentSimTime);
-        point.setSegDowntrack(currentSegDowntrack);
-        point.setSegmentIdx(currentSeg.getUptrackWaypoint().getWaypointId());
-        path.add(point);
+        path.add(currentDowntrack, 0.0, currentSimTime, currentSeg.getUptrackWaypoint().getWaypointId(), currentSegDowntrack);
         // Update starting distance, speed, and current time
         distanceChange = accelTerm + actualStartV * timeStep;
         currentDowntrack += distanceChange;
@@ -155,9 +155,9 @@ public class YieldPlugin extends AbstractPlugin
                 * params.getDouble("~max_yield_accel_authority", 0.8);
         vehicleResponseLag = params.getDouble("~vehicle_response_lag", 1.4);
 
-        log.info(String.format(
+        log.infof(
                 "Yield plugin inited with maxYieldAccelAuthority =%.02f, minConflictAvoidanceTimegap = %.02f",
-                maxYieldAccelAuthority, minConflictAvoidanceTimegap));
+                maxYieldAccelAuthority, minConflictAvoidanceTimegap);
     }
 
     @Override
@@ -201,10 +201,10 @@ public class YieldPlugin extends AbstractPlugin
         ConflictSpace conflict = replanData.get().conflictSpace;
         String planId = replanData.get().planId;
         Trajectory oldTraj = replanData.get().trajectoryToReplan;
-        log.info(String.format(
+        log.infof(
                 "Yield plugin replanning trajectory [%.02f, %.02f) due to conflicts at [%.02f, %.02f]m t=[%.02f, %.02f] with plan=%s",
                 trajectory.getStartLocation(), trajectory.getEndLocation(), conflict.getStartDowntrack(),
-                conflict.getEndDowntrack(), conflict.getStartTime(), conflict.getEndTime(), planId));
+                conflict.getEndDowntrack(), conflict.getStartTime(), conflict.getEndTime(), planId);
 
         List<LongitudinalManeuver> lonMvrs = new ArrayList<>();
 
@@ -253,8 +253,8 @@ public class YieldPlugin extends AbstractPlugin
             double epsilon = minConflictAvoidanceTimegap;
             requiredAcceleration = 2 * (d - (v * (t + epsilon))) / Math.pow(t + epsilon, 2);
 
-            log.debug(String.format("Evaluating candidate solution: d=%.02f, v=%.02f, t=%.02f, epsilon=%.02f, a=%.02f",
-                    d, v, t, epsilon, requiredAcceleration));
+            log.debugf("Evaluating candidate solution: d=%.02f, v=%.02f, t=%.02f, epsilon=%.02f, a=%.02f",
+                    d, v, t, epsilon, requiredAcceleration);
 
             if (Math.abs(requiredAcceleration) <= maxYieldAccelAuthority) {
                 log.debug("Candidate solution acceptable.");
@@ -282,18 +282,18 @@ public class YieldPlugin extends AbstractPlugin
             double t = timeAvailableForConflictAvoidance;
             double epsilon = minConflictAvoidanceTimegap;
             requiredAcceleration = 2 * (d - (v * (t + epsilon))) / Math.pow(t + epsilon, 2);
-            log.debug(String.format(
+            log.debugf(
                     "Evaluating last effort solution from start of trajectory: d=%.02f, v=%.02f, t=%.02f, epsilon=%.02f, a=%.02f",
-                    d, v, t, epsilon, requiredAcceleration));
+                    d, v, t, epsilon, requiredAcceleration);
         }
 
         if (Math.abs(requiredAcceleration) > maxYieldAccelAuthority) {
             log.error("Overall solution unacceptable, throwing error!");
             // Nothing we can do, throw control to driver
-            log.error(String.format(
+            log.errorf(
                     "Yield plugin unable to solve conflict at [%.02f, %.02f]m within acceleration constraints maxYieldAccelAuthority=%.02fm/s/s, requiredAccel=%.02fm/s/s",
                     conflict.getStartDowntrack(), conflict.getEndDowntrack(), maxYieldAccelAuthority,
-                    requiredAcceleration)); // TODO: Improve robustness of algo to return NACK if is request or look for
+                    requiredAcceleration); // TODO: Improve robustness of algo to return NACK if is request or look for
                                             // alternative type of soln (lane change, etc.)
             requiredAcceleration = maxYieldAccelAuthority; // Attempt a best effort max accel yield maneuver
         } else {
@@ -302,18 +302,18 @@ public class YieldPlugin extends AbstractPlugin
 
         // We solved it, implement solution
         for (LongitudinalManeuver mvr : lonMvrs) {
-            log.info(String.format("Yield plugin keeping longitudinal maneuver from [%.02f, %.02f)",
-                    mvr.getStartDistance(), mvr.getEndDistance()));
+            log.infof("Yield plugin keeping longitudinal maneuver from [%.02f, %.02f)",
+                    mvr.getStartDistance(), mvr.getEndDistance());
             trajectory.addManeuver(mvr);
         }
 
         double finalVelocity = conflictAvoidanceStartSpeed
                 + requiredAcceleration * (conflict.getStartTime() - conflictAvoidanceStartTime);
 
-        log.debug(String.format(
+        log.debugf(
                 "conflictAvoidanceStartSpeed=%.02f, requiredAcceleration=%.02f, finalVelocity=%.02f, conflictAvoidanceStartTime=%.02f, conflictStartTime=%.02f",
                 conflictAvoidanceStartSpeed, requiredAcceleration, finalVelocity, conflictAvoidanceStartTime,
-                conflict.getStartTime()));
+                conflict.getStartTime());
 
         LongitudinalManeuver conflictAvoidanceMvr;
         // Use delta-v because even small accel changes may be significant over large distances or time
@@ -333,13 +333,13 @@ public class YieldPlugin extends AbstractPlugin
 
         ManeuverPlanner planner = pluginServiceLocator.getManeuverPlanner();
         planner.planManeuver(conflictAvoidanceMvr, conflictAvoidanceStartDist);
-        log.info(String.format("Yield plugin planned %s maneuver from [%.02f, %.02f) with speeds [%.02f, %.02f]",
+        log.infof("Yield plugin planned %s maneuver from [%.02f, %.02f) with speeds [%.02f, %.02f]",
                 conflictAvoidanceMvr.getClass().getSimpleName(), conflictAvoidanceStartDist, conflictAvoidanceMvr.getEndDistance(), conflictAvoidanceMvr.getStartSpeed(),
-                conflictAvoidanceMvr.getTargetSpeed()));
+                conflictAvoidanceMvr.getTargetSpeed());
         trajectory.addManeuver(conflictAvoidanceMvr);
         if (conflictAvoidanceMvr.getEndDistance() <= conflict.getEndDowntrack()) {
-            log.info(String.format("Yield plugin planning steady speed maneuver from [%.02f, %.02f) @ %.02f m/s",
-                    conflictAvoidanceMvr.getEndDistance(), conflict.getEndDowntrack(), finalVelocity));
+            log.infof("Yield plugin planning steady speed maneuver from [%.02f, %.02f) @ %.02f m/s",
+                    conflictAvoidanceMvr.getEndDistance(), conflict.getEndDowntrack(), finalVelocity);
             SteadySpeed steady = new SteadySpeed(this);
             steady.setSpeeds(finalVelocity, finalVelocity);
             planner.planManeuver(steady, conflictAvoidanceMvr.getEndDistance(), conflict.getEndDowntrack());
@@ -349,8 +349,8 @@ public class YieldPlugin extends AbstractPlugin
         // Copy the unchanged lateral maneuvers
         double latMvrsEnd = Double.POSITIVE_INFINITY;
         for (LateralManeuver mvr : oldTraj.getLateralManeuvers()) {
-            log.info(String.format("Yield plugin keeping lateral maneuver from [%.02f, %.02f)", mvr.getStartDistance(),
-                    mvr.getEndDistance()));
+            log.infof("Yield plugin keeping lateral maneuver from [%.02f, %.02f)", mvr.getStartDistance(),
+                    mvr.getEndDistance());
             if (mvr.getEndDistance() < conflictAvoidanceStartDist) {
                 trajectory.addManeuver(mvr);
                 latMvrsEnd = mvr.getEndDistance();
@@ -363,8 +363,8 @@ public class YieldPlugin extends AbstractPlugin
             IGuidanceCommands gc = pluginServiceLocator.getManeuverPlanner().getGuidanceCommands();
             IManeuverInputs mi = pluginServiceLocator.getManeuverPlanner().getManeuverInputs();
             laneKeeping.planToTargetDistance(mi, gc, latMvrsEnd, conflict.getEndDowntrack());
-            log.info(String.format("Yield plugin backfilling with lane keeping maneuvers from [%.02f, %.02f)",
-                    latMvrsEnd, conflict.getEndDowntrack()));
+            log.infof("Yield plugin backfilling with lane keeping maneuvers from [%.02f, %.02f)",
+                    latMvrsEnd, conflict.getEndDowntrack());
         }
 
         return new TrajectoryPlanningResponse();
@@ -0,0 +1,281 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.guidance.arbitrator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ros.node.ConnectedNode;
+
+import gov.dot.fhwa.saxton.carma.guidance.GuidanceStateMachine;
+import gov.dot.fhwa.saxton.carma.guidance.VehicleAwareness;
+import gov.dot.fhwa.saxton.carma.guidance.maneuvers.ISimpleManeuver;
+import gov.dot.fhwa.saxton.carma.guidance.maneuvers.LongitudinalManeuver;
+import gov.dot.fhwa.saxton.carma.guidance.plugins.IStrategicPlugin;
+import gov.dot.fhwa.saxton.carma.guidance.plugins.PluginManager;
+import gov.dot.fhwa.saxton.carma.guidance.pubsub.IPubSubService;
+import gov.dot.fhwa.saxton.carma.guidance.trajectory.OverlappingManeuversConstraint;
+import gov.dot.fhwa.saxton.carma.guidance.trajectory.Trajectory;
+import gov.dot.fhwa.saxton.carma.guidance.trajectory.TrajectoryExecutor;
+import gov.dot.fhwa.saxton.carma.guidance.util.ILogger;
+import gov.dot.fhwa.saxton.carma.guidance.util.ILoggerFactory;
+import gov.dot.fhwa.saxton.carma.guidance.util.LoggerManager;
+import gov.dot.fhwa.saxton.utils.ComponentVersion;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ArbitratorTest {
+
+  @Before
+  public void setup() {
+    ILoggerFactory mockFact = mock(ILoggerFactory.class);
+    ILogger mockLogger = mock(ILogger.class);
+    when(mockFact.createLoggerForClass(anyObject())).thenReturn(mockLogger);
+    LoggerManager.setLoggerFactory(mockFact);
+
+    arbitrator = new Arbitrator(mock(GuidanceStateMachine.class), mock(IPubSubService.class),
+        mock(ConnectedNode.class), mock(PluginManager.class), mock(TrajectoryExecutor.class),
+        mock(VehicleAwareness.class));
+    arbitrator.trajectoryValidator.addValidationConstraint(new OverlappingManeuversConstraint());
+    arbitrator.numAcceptableFailures = 3;
+    arbitrator.parallelPlanning = true;
+    arbitrator.planningDeadlineMillis = 1000;
+    arbitrator.planningExecutor = Executors.newCachedThreadPool();
+    arbitrator.replanScheduler = Executors.newSingleThreadScheduledExecutor();
+  }
+
+  @After
+  public void cleanup() {
+    arbitrator.planningExecutor.shutdownNow();
+    arbitrator.replanScheduler.shutdownNow();
+  }
+
+  /**
+   * Helper function plans in parallel and runs the arbitrator's jobs until the planning has finished
+   */
+  private Trajectory planInParallel(double start, double end) throws InterruptedException {
+    AtomicBoolean planned = new AtomicBoolean(false);
+    AtomicReference<Trajectory> out = new AtomicReference<>();
+    arbitrator.planTrajectoryInParallel(start, end, (traj) -> {
+      out.set(traj);
+      planned.set(true);
+    });
+    while (!planned.get()) {
+      arbitrator.runJobQueue();
+    }
+
+    return out.get();
+  }
+
+  private ISimpleManeuver newManeuver(double start, double end) {
+    ISimpleManeuver m = mock(LongitudinalManeuver.class);
+    when(m.getStartDistance()).thenReturn(start);
+    when(m.getEndDistance()).thenReturn(end);
+    return m;
+  }
+
+  private IStrategicPlugin newPlugin() {
+    IStrategicPlugin p = mock(IStrategicPlugin.class);
+    when(p.getActivation()).thenReturn(true);
+    when(p.getAvailability()).thenReturn(true);
+    when(p.getVersionInfo()).thenReturn(mock(ComponentVersion.class));
+    arbitrator.plugins.add(p);
+    return p;
+  }
+
+  @Test
+  public void testMergeConcurrentPlans() throws InterruptedException {
+    ISimpleManeuver m1 = newManeuver(0.0, 10.0);
+    ISimpleManeuver m2 = newManeuver(10.0, 20.0);
+    IStrategicPlugin p1 = newPlugin();
+    IStrategicPlugin p2 = newPlugin();
+    when(p1.planTrajectory(any(Trajectory.class), anyDouble())).thenAnswer((inv) -> {
+      ((Trajectory) inv.getArguments()[0]).addManeuver(m1);
+      return new TrajectoryPlanningResponse();
+    });
+    when(p2.planTrajectory(any(Trajectory.class), anyDouble())).thenAnswer((inv) -> {
+      ((Trajectory) inv.getArguments()[0]).addManeuver(m2);
+      return new TrajectoryPlanningResponse();
+    });
+
+    Trajectory traj = planInParallel(0.0, 20.0);
+
+    assertNotNull(traj);
+    assertEquals(2, traj.getManeuvers().size());
+    assertTrue(traj.getManeuvers().contains(m1));
+    assertTrue(traj.getManeuvers().contains(m2));
+    verify(p1, times(1)).planTrajectory(any(Trajectory.class), anyDouble());
+    verify(p2, times(1)).planTrajectory(any(Trajectory.class), anyDouble());
+  }
+
+  @Test
+  public void testRejectedPlanIsReplannedOnMergedTrajectory() throws InterruptedException {
+    ISimpleManeuver m1 = newManeuver(0.0, 10.0);
+    ISimpleManeuver overlapping = newManeuver(5.0, 15.0);
+    ISimpleManeuver m2 = newManeuver(10.0, 20.0);
+    IStrategicPlugin p1 = newPlugin();
+    IStrategicPlugin p2 = newPlugin();
+    when(p1.planTrajectory(any(Trajectory.class), anyDouble())).thenAnswer((inv) -> {
+      ((Trajectory) inv.getArguments()[0]).addManeuver(m1);
+      return new TrajectoryPlanningResponse();
+    });
+    when(p2.planTrajectory(any(Trajectory.class), anyDouble())).thenAnswer((inv) -> {
+      Trajectory t = (Trajectory) inv.getArguments()[0];
+      t.addManeuver(t.getManeuvers().isEmpty() ? overlapping : m2);
+      return new TrajectoryPlanningResponse();
+    });
+
+    Trajectory traj = planInParallel(0.0, 20.0);
+
+    assertNotNull(traj);
+    assertEquals(2, traj.getManeuvers().size());
+    assertTrue(traj.getManeuvers().contains(m1));
+    assertTrue(traj.getManeuvers().contains(m2));
+    assertFalse(traj.getManeuvers().contains(overlapping));
+    verify(p1, times(1)).planTrajectory(any(Trajectory.class), anyDouble());
+    verify(p2, times(2)).planTrajectory(any(Trajectory.class), anyDouble());
+  }
+
+  @Test
+  public void testReplanRequest() throws InterruptedException {
+    ISimpleManeuver m1 = newManeuver(0.0, 30.0);
+    IStrategicPlugin p1 = newPlugin();
+    when(p1.planTrajectory(any(Trajectory.class), anyDouble())).thenAnswer((inv) -> {
+      Trajectory t = (Trajectory) inv.getArguments()[0];
+      TrajectoryPlanningResponse resp = new TrajectoryPlanningResponse();
+      if (t.getEndLocation() < 30.0) {
+        resp.requestLongerTrajectory(30.0);
+        resp.requestDelayedReplan(10);
+      } else {
+        t.addManeuver(m1);
+      }
+      return resp;
+    });
+
+    Trajectory traj = planInParallel(0.0, 20.0);
+
+    assertNotNull(traj);
+    assertEquals(30.0, traj.getEndLocation(), 0.0001);
+    assertTrue(traj.getManeuvers().contains(m1));
+    verify(p1, times(2)).planTrajectory(any(Trajectory.class), anyDouble());
+  }
+
+  @Test
+  public void testReplanDelayDoesNotBlock() throws InterruptedException {
+    ISimpleManeuver m1 = newManeuver(0.0, 20.0);
+    IStrategicPlugin p1 = newPlugin();
+    AtomicBoolean delayed = new AtomicBoolean(false);
+    when(p1.planTrajectory(any(Trajectory.class), anyDouble())).thenAnswer((inv) -> {
+      TrajectoryPlanningResponse resp = new TrajectoryPlanningResponse();
+      if (!delayed.getAndSet(true)) {
+        resp.requestDelayedReplan(5000);
+      } else {
+        ((Trajectory) inv.getArguments()[0]).addManeuver(m1);
+      }
+      return resp;
+    });
+
+    AtomicReference<Trajectory> out = new AtomicReference<>();
+    long start = System.nanoTime();
+    arbitrator.planTrajectoryInParallel(0.0, 20.0, out::set);
+
+    // The delayed attempt is scheduled rather than waited for on the calling thread
+    assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(5000));
+    assertNull(out.get());
+    assertNotNull(arbitrator.delayedAttempt);
+    assertTrue(arbitrator.delayedAttempt.getDelay(TimeUnit.MILLISECONDS) > 0);
+    verify(p1, times(1)).planTrajectory(any(Trajectory.class), anyDouble());
+    arbitrator.delayedAttempt.cancel(false);
+
+    // Once the delay has passed the next attempt runs as a job
+    delayed.set(false);
+    when(p1.planTrajectory(any(Trajectory.class), anyDouble())).thenAnswer((inv) -> {
+      TrajectoryPlanningResponse resp = new TrajectoryPlanningResponse();
+      if (!delayed.getAndSet(true)) {
+        resp.requestDelayedReplan(10);
+      } else {
+        ((Trajectory) inv.getArguments()[0]).addManeuver(m1);
+      }
+      return resp;
+    });
+    Trajectory traj = planInParallel(0.0, 20.0);
+
+    assertNotNull(traj);
+    assertTrue(traj.getManeuvers().contains(m1));
+    verify(p1, times(3)).planTrajectory(any(Trajectory.class), anyDouble());
+  }
+
+  @Test
+  public void testMissedDeadline() throws InterruptedException {
+    ISimpleManeuver m1 = newManeuver(0.0, 10.0);
+    ISimpleManeuver late = newManeuver(10.0, 20.0);
+    IStrategicPlugin p1 = newPlugin();
+    IStrategicPlugin slow = newPlugin();
+    CountDownLatch release = new CountDownLatch(1);
+    when(p1.planTrajectory(any(Trajectory.class), anyDouble())).thenAnswer((inv) -> {
+      ((Trajectory) inv.getArguments()[0]).addManeuver(m1);
+      return new TrajectoryPlanningResponse();
+    });
+    when(slow.planTrajectory(any(Trajectory.class), anyDouble())).thenAnswer((inv) -> {
+      // Ignore interrupts like a plugin which does not check for cancellation
+      boolean released = false;
+      while (!released) {
+        try {
+          released = release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+        }
+      }
+      ((Trajectory) inv.getArguments()[0]).addManeuver(late);
+      return new TrajectoryPlanningResponse();
+    });
+
+    Trajectory traj = planInParallel(0.0, 20.0);
+
+    assertNotNull(traj);
+    assertTrue(traj.getManeuvers().contains(m1));
+    assertFalse(traj.getManeuvers().contains(late));
+
+    // The slow plugin is still running so it must not be asked to plan again
+    traj = planInParallel(0.0, 20.0);
+
+    assertNotNull(traj);
+    assertFalse(traj.getManeuvers().contains(late));
+    verify(slow, times(1)).planTrajectory(any(Trajectory.class), anyDouble());
+
+    release.countDown();
+    for (int i = 0; i < 1000 && arbitrator.busyPlugins.contains(slow); i++) {
+      Thread.sleep(10);
+    }
+
+    assertFalse(arbitrator.busyPlugins.contains(slow));
+    traj = planInParallel(0.0, 20.0);
+
+    assertNotNull(traj);
+    assertTrue(traj.getManeuvers().contains(m1));
+    assertTrue(traj.getManeuvers().contains(late));
+    verify(slow, times(2)).planTrajectory(any(Trajectory.class), anyDouble());
+  }
+
+  private Arbitrator arbitrator;
+}
@@ -37,6 +37,7 @@ import static org.mockito.Mockito.*;
 import gov.dot.fhwa.saxton.carma.geometry.GeodesicCartesianConverter;
 import gov.dot.fhwa.saxton.carma.geometry.cartesian.Point;
 import gov.dot.fhwa.saxton.carma.geometry.cartesian.Point3D;
+import gov.dot.fhwa.saxton.carma.geometry.cartesian.spatialstructure.ISpatialStructure;
 import gov.dot.fhwa.saxton.carma.geometry.cartesian.spatialstructure.NSpatialHashMapFactory;
 import gov.dot.fhwa.saxton.carma.geometry.geodesic.Location;
 import gov.dot.fhwa.saxton.carma.guidance.maneuvers.FutureLateralManeuver;
@@ -727,6 +728,56 @@ public class ConflictManagerTest {
     assertTrue(cm.getConflicts(new LinkedList<>(), new LinkedList<>()).isEmpty());
   }
 
+  @Test
+  public void testGetConflictsWithPathStructure() {
+    double[] cellSize = {1,1,1};
+    double downtrackMargin = 0.5;
+    double crosstrackMargin = 0.5;
+    double timeMargin = 0.5;
+    MockTimeProvider timeProvider = new MockTimeProvider();
+    timeProvider.setCurrentTime(0.0);
+    NSpatialHashMapFactory factory = new NSpatialHashMapFactory(cellSize);
+    ConflictManager cm = new ConflictManager(factory, downtrackMargin, crosstrackMargin, timeMargin, 0.0, 0.0, 0.0, timeProvider);
+    cm.setRoute(route);
+    // Build path
+    List<RoutePointStamped> path = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      RoutePointStamped rp = new RoutePointStamped(i * 0.5, 0, i * 0.5);
+      rp.setSegDowntrack(i * 0.5);
+      rp.setSegmentIdx(0);
+      path.add(rp);
+    }
+    // Build path in adjacent lane
+    List<RoutePointStamped> path2 = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      RoutePointStamped rp = new RoutePointStamped(i * 0.5, 5, i * 0.5);
+      rp.setSegDowntrack(i * 0.5);
+      rp.setSegmentIdx(0);
+      path2.add(rp);
+    }
+
+    ISpatialStructure structure = cm.buildPathStructure(path, factory.buildSpatialStructure(), downtrackMargin, crosstrackMargin, timeMargin);
+
+    // The same structure can be checked repeatedly with the same results as building it for each check
+    for (int i = 0; i < 2; i++) {
+      List<ConflictSpace> conflicts = cm.getConflicts(path, structure, downtrackMargin, crosstrackMargin, timeMargin, 0.0, 0.0, 0.0);
+      assertEquals(1, conflicts.size());
+      assertEquals(0, conflicts.get(0).getStartDowntrack(), 0.0000001);
+      assertEquals(0, conflicts.get(0).getStartTime(), 0.0000001);
+      assertEquals(2.0, conflicts.get(0).getEndDowntrack(), 0.0000001);
+      assertEquals(2.0, conflicts.get(0).getEndTime(), 0.0000001);
+      assertEquals(cm.getConflicts(path, path).size(), conflicts.size());
+
+      assertTrue(cm.getConflicts(path2, structure, downtrackMargin, crosstrackMargin, timeMargin, 0.0, 0.0, 0.0).isEmpty());
+    }
+
+    // Check invalid input
+    assertTrue(cm.getConflicts(null, structure, downtrackMargin, crosstrackMargin, timeMargin, 0.0, 0.0, 0.0).isEmpty());
+    assertTrue(cm.getConflicts(path, (ISpatialStructure) null, downtrackMargin, crosstrackMargin, timeMargin, 0.0, 0.0, 0.0).isEmpty());
+    assertTrue(cm.getConflicts(path, cm.buildPathStructure(new LinkedList<>(), factory.buildSpatialStructure(),
+      downtrackMargin, crosstrackMargin, timeMargin), downtrackMargin, crosstrackMargin, timeMargin, 0.0, 0.0, 0.0).isEmpty());
+  }
+
   @Test
   public void testTimeFiltering() {
     double[] cellSize = {1,1,1};
@@ -125,5 +125,36 @@ public class OverlappingManeuversConstraintTest {
     assertFalse(omc.getResult().getSuccess());
   }
 
+  @Test
+  public void testValidationsAfterRejection() {
+    IManeuver m1 = mock(LongitudinalManeuver.class);
+    when(m1.getStartDistance()).thenReturn(0.0);
+    when(m1.getEndDistance()).thenReturn(1.0);
+
+    IManeuver m2 = mock(LongitudinalManeuver.class);
+    when(m2.getStartDistance()).thenReturn(0.0);
+    when(m2.getEndDistance()).thenReturn(2.0);
+
+    IManeuver m3 = mock(LongitudinalManeuver.class);
+    when(m3.getStartDistance()).thenReturn(5.0);
+    when(m3.getEndDistance()).thenReturn(10.0);
+
+    omc.visit(m1);
+    omc.visit(m2);
+
+    assertFalse(omc.getResult().getSuccess());
+
+    // The maneuvers of a rejected trajectory must not carry over into the next validations
+    omc.visit(m1);
+    omc.visit(m3);
+
+    assertTrue(omc.getResult().getSuccess());
+
+    omc.visit(m2);
+    omc.visit(m3);
+
+    assertTrue(omc.getResult().getSuccess());
+  }
+
   private OverlappingManeuversConstraint omc;
 }
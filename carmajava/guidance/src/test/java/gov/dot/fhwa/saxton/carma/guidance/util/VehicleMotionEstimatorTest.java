@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.guidance.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the VehicleMotionEstimator class
+ */
+public class VehicleMotionEstimatorTest {
+
+  private static final double TIME_CONSTANT = 0.5;
+  private VehicleMotionEstimator estimator;
+
+  @Before
+  public void setup() {
+    estimator = new VehicleMotionEstimator(TIME_CONSTANT);
+  }
+
+  @Test
+  public void testReadiness() throws Exception {
+    assertFalse(estimator.isAccelerationReady());
+    assertFalse(estimator.isYawRateReady());
+    estimator.updateSpeed(10.0, 1.0);
+    estimator.updateHeading(90.0, 1.0);
+    assertFalse(estimator.isAccelerationReady());
+    assertFalse(estimator.isYawRateReady());
+
+    // Samples which are not newer than the last sample are ignored
+    estimator.updateSpeed(12.0, 1.0);
+    estimator.updateHeading(95.0, 0.5);
+    assertFalse(estimator.isAccelerationReady());
+    assertFalse(estimator.isYawRateReady());
+
+    estimator.updateSpeed(11.0, 2.0);
+    estimator.updateHeading(91.0, 2.0);
+    assertTrue(estimator.isAccelerationReady());
+    assertTrue(estimator.isYawRateReady());
+    assertEquals(1.0, estimator.getAcceleration(), 0.000001);
+    assertEquals(1.0, estimator.getYawRate(), 0.000001);
+
+    estimator.reset();
+    assertFalse(estimator.isAccelerationReady());
+    assertFalse(estimator.isYawRateReady());
+    assertEquals(0.0, estimator.getAcceleration(), 0.000001);
+    assertEquals(0.0, estimator.getYawRate(), 0.000001);
+  }
+
+  @Test
+  public void testYawRateUnitsAndSign() throws Exception {
+    // A right turn at 10 deg/s is a positive yaw rate in deg/s as in J2735
+    estimator.updateHeading(90.0, 0.0);
+    estimator.updateHeading(91.0, 0.1);
+    assertEquals(10.0, estimator.getYawRate(), 0.000001);
+
+    // A left turn at 10 deg/s is negative
+    estimator.reset();
+    estimator.updateHeading(90.0, 0.0);
+    estimator.updateHeading(89.0, 0.1);
+    assertEquals(-10.0, estimator.getYawRate(), 0.000001);
+  }
+
+  @Test
+  public void testYawRateWrapsAroundNorth() throws Exception {
+    // 359 to 1 deg is a right turn of 2 deg rather than a left turn of 358 deg
+    estimator.updateHeading(359.0, 0.0);
+    estimator.updateHeading(1.0, 1.0);
+    assertEquals(2.0, estimator.getYawRate(), 0.000001);
+
+    // 1 to 359 deg is a left turn of 2 deg
+    estimator.reset();
+    estimator.updateHeading(1.0, 0.0);
+    estimator.updateHeading(359.0, 1.0);
+    assertEquals(-2.0, estimator.getYawRate(), 0.000001);
+  }
+
+  @Test
+  public void testSmoothing() throws Exception {
+    estimator.updateSpeed(0.0, 0.0);
+    estimator.updateSpeed(1.0, 1.0);
+    assertEquals(1.0, estimator.getAcceleration(), 0.000001);
+
+    // The next sample moves the estimate by dt / (timeConstant + dt) of the difference
+    estimator.updateSpeed(4.0, 2.0);
+    double alpha = 1.0 / (TIME_CONSTANT + 1.0);
+    assertEquals(1.0 + alpha * (3.0 - 1.0), estimator.getAcceleration(), 0.000001);
+
+    // A constant rate converges to that rate
+    estimator.reset();
+    double heading = 350.0;
+    for (int i = 0; i <= 100; i++) {
+      estimator.updateHeading(heading, i * 0.1);
+      heading = (heading + 0.5) % 360.0;
+    }
+    assertEquals(5.0, estimator.getYawRate(), 0.000001);
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.guidance.util.intervaltree;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class SortedIntervalArrayTest {
+    private SortedIntervalArray<String> array;
+
+    @Before
+    public void setup() {
+        array = new SortedIntervalArray<>();
+    }
+
+    @Test
+    public void testInsertKeepsOrder() {
+        assertTrue(array.insert(new Interval<String>("b", 4.0, 5.0)));
+        assertTrue(array.insert(new Interval<String>("a", 0.0, 1.0)));
+        assertTrue(array.insert(new Interval<String>("c", 10.0, 11.0)));
+        assertTrue(array.insert(new Interval<String>("empty", 1.0, 1.0)));
+
+        assertEquals(Arrays.asList("a", "empty", "b", "c"), array.toSortedList());
+        assertFalse(array.insert(new Interval<String>(3.0, 3.5)));
+    }
+
+    @Test
+    public void testInsertWithOverlap() {
+        array.insert(new Interval<String>("test", 4.0, 5.0));
+        array.insert(new Interval<String>("test", 0.0, 1.0));
+        assertFalse(array.insert(new Interval<String>("test", 3.0, 4.1)));
+        assertFalse(array.insert(new Interval<String>("test", 4.5, 4.6)));
+        assertFalse(array.insert(new Interval<String>("test", -1.0, 10.0)));
+        // Adjacent intervals do not overlap since the end points are open
+        assertTrue(array.insert(new Interval<String>("test", 1.0, 4.0)));
+        assertEquals(3, array.size());
+    }
+
+    @Test
+    public void testFindIntersectionWithPoint() {
+        assertNull(array.findIntersectionWith(0.0));
+        array.insert(new Interval<String>("a", 0.0, 1.0));
+        array.insert(new Interval<String>("b", 1.0, 4.0));
+        array.insert(new Interval<String>("empty", 2.0, 2.0));
+        array.insert(new Interval<String>("c", 5.0, 6.0));
+
+        assertEquals("a", array.findIntersectionWith(0.0).getData());
+        assertEquals("b", array.findIntersectionWith(1.0).getData());
+        assertEquals("b", array.findIntersectionWith(2.0).getData());
+        assertEquals("b", array.findIntersectionWith(3.9).getData());
+        assertNull(array.findIntersectionWith(4.5));
+        assertNull(array.findIntersectionWith(6.0));
+        assertNull(array.findIntersectionWith(-1.0));
+    }
+
+    @Test
+    public void testFindFirstEndingAfter() {
+        array.insert(new Interval<String>("a", 0.0, 1.0));
+        array.insert(new Interval<String>("empty", 2.0, 2.0));
+        array.insert(new Interval<String>("b", 3.0, 4.0));
+
+        assertEquals("a", array.findFirstEndingAfter(-5.0).getData());
+        assertEquals("a", array.findFirstEndingAfter(0.5).getData());
+        assertEquals("b", array.findFirstEndingAfter(1.0).getData());
+        assertEquals("b", array.findFirstEndingAfter(2.0).getData());
+        assertNull(array.findFirstEndingAfter(4.0));
+    }
+
+    @Test
+    public void testForEachIntersection() {
+        array.insert(new Interval<String>("a", 0.0, 1.0));
+        array.insert(new Interval<String>("b", 1.0, 4.0));
+        array.insert(new Interval<String>("empty", 4.0, 4.0));
+        array.insert(new Interval<String>("c", 5.0, 6.0));
+
+        List<String> visited = new ArrayList<>();
+        array.forEachIntersection(0.5, 5.0, (interval) -> visited.add(interval.getData()));
+        assertEquals(Arrays.asList("a", "b"), visited);
+
+        visited.clear();
+        array.forEachIntersection(2.0, 2.0, (interval) -> visited.add(interval.getData()));
+        assertTrue(visited.isEmpty());
+
+        assertTrue(array.intersects(3.0, 5.5));
+        assertFalse(array.intersects(4.0, 5.0));
+    }
+
+    @Test
+    public void testMatchesLinearSearch() {
+        SortedIntervalArray<Integer> sorted = new SortedIntervalArray<>();
+        List<Interval<Integer>> inserted = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            double start = random.nextInt(1000);
+            double end = start + random.nextInt(10);
+            Interval<Integer> interval = new Interval<>(i, start, end);
+            // Empty intervals never overlap
+            boolean overlaps = false;
+            for (Interval<Integer> other : inserted) {
+                overlaps |= start < end && other.getStart() < other.getEnd()
+                        && start < other.getEnd() && other.getStart() < end;
+            }
+            assertEquals(!overlaps, sorted.insert(interval));
+            if (!overlaps) {
+                inserted.add(interval);
+            }
+        }
+
+        for (double pt = -1.0; pt < 1011.0; pt += 0.25) {
+            Interval<Integer> expected = null;
+            for (Interval<Integer> interval : inserted) {
+                if (pt >= interval.getStart() && pt < interval.getEnd()) {
+                    expected = interval;
+                }
+            }
+            assertSame(expected, sorted.findIntersectionWith(pt));
+        }
+    }
+
+    @Test
+    public void testCopy() {
+        array.insert(new Interval<String>("a", 0.0, 1.0));
+        SortedIntervalArray<String> copy = new SortedIntervalArray<>(array);
+        copy.insert(new Interval<String>("b", 1.0, 2.0));
+
+        assertEquals(1, array.size());
+        assertEquals(2, copy.size());
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.guidance.util.trajectoryconverter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the PathPredictionCache class
+ */
+public class PathPredictionCacheTest {
+
+  private int buildCount;
+  private double startTime;
+  private IntFunction<List<RoutePointStamped>> builder;
+
+  @Before
+  public void setup() {
+    buildCount = 0;
+    startTime = 100.0;
+    // Vehicle moving at 10 m/s with points every 0.1 s
+    builder = (maxPoints) -> {
+      buildCount++;
+      List<RoutePointStamped> path = new ArrayList<>();
+      for (int i = 0; i < maxPoints; i++) {
+        path.add(new RoutePointStamped(i, 0.0, startTime + i * 0.1, 0, i));
+      }
+      return path;
+    };
+  }
+
+  @Test
+  public void testCachedUntilInvalidated() throws Exception {
+    PathPredictionCache cache = new PathPredictionCache(2.0, 0.5);
+    List<RoutePointStamped> first = cache.getPrediction(10, builder);
+    assertEquals(10, first.size());
+    assertEquals(1, buildCount);
+    long version = cache.getVersion();
+
+    assertSame(first, cache.getPrediction(10, builder));
+    assertEquals(1, buildCount);
+
+    // Smaller requests are served from the prefix
+    List<RoutePointStamped> prefix = cache.getPrediction(4, builder);
+    assertEquals(4, prefix.size());
+    assertSame(first.get(3), prefix.get(3));
+    assertEquals(1, buildCount);
+
+    // Larger requests require a new conversion
+    assertEquals(20, cache.getPrediction(20, builder).size());
+    assertEquals(2, buildCount);
+    assertTrue(cache.getVersion() != version);
+
+    cache.invalidate();
+    cache.getPrediction(20, builder);
+    assertEquals(3, buildCount);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSnapshotUnmodifiable() throws Exception {
+    PathPredictionCache cache = new PathPredictionCache(2.0, 0.5);
+    cache.getPrediction(10, builder).remove(0);
+  }
+
+  @Test
+  public void testAdvance() throws Exception {
+    PathPredictionCache cache = new PathPredictionCache(2.0, 0.5);
+    List<RoutePointStamped> first = cache.getPrediction(10, builder);
+
+    // Vehicle is where it was predicted to be so expired points are dropped without a new conversion
+    cache.advance(100.25, 2.5);
+    List<RoutePointStamped> advanced = cache.getPrediction(10, builder);
+    assertEquals(1, buildCount);
+    assertEquals(7, advanced.size());
+    assertEquals(100.3, advanced.get(0).getStamp(), 0.0001);
+    // Snapshots already handed out are unaffected
+    assertEquals(10, first.size());
+
+    // Vehicle has drifted from the prediction
+    cache.advance(100.35, 10.0);
+    assertEquals(10, cache.getPrediction(10, builder).size());
+    assertEquals(2, buildCount);
+  }
+
+  @Test
+  public void testAdvancePastHorizon() throws Exception {
+    PathPredictionCache cache = new PathPredictionCache(2.0, 0.5);
+    cache.getPrediction(10, builder);
+
+    // Only 4 of 10 points remain which is less than the required fraction
+    cache.advance(100.55, 5.5);
+    cache.getPrediction(10, builder);
+    assertEquals(2, buildCount);
+
+    // Advancing before a prediction exists has no effect
+    cache.invalidate();
+    cache.advance(200.0, 0.0);
+    assertEquals(10, cache.getPrediction(10, builder).size());
+    assertEquals(3, buildCount);
+  }
+}
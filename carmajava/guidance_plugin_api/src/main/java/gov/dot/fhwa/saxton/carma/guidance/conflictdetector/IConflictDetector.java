@@ -66,4 +66,39 @@ public interface IConflictDetector {
    */
   public List<ConflictSpace> getConflicts(List<RoutePointStamped> hostPath, List<RoutePointStamped> otherPath, ISpatialStructure spatialStructure,
     double downtrackMargin, double crosstrackMargin, double timeMargin, double longitudinalBias, double lateralBias, double temporalBias);
+
+  /**
+   * Inserts the points of a vehicle path into the provided spatial structure so that the path can be repeatedly
+   * checked for conflicts with {@link #getConflicts(List, ISpatialStructure, double, double, double, double, double, double)}
+   * without rebuilding the structure for every check.
+   * 
+   * @param path The path to insert
+   * @param spatialStructure The spatial structure which will store the path points. Should be empty
+   * @param downtrackMargin The margin around a RoutePointStamped in the downtrack dimension in which a collision will be considered to have occurred
+   * @param crosstrackMargin The margin around a RoutePointStamped in the crosstrack dimension in which a collision will be considered to have occurred
+   * @param timeMargin The margin around a RoutePointStamped in the time dimension in which a collision will be considered to have occurred
+   * 
+   * @return The provided spatial structure now containing the path
+   */
+  public ISpatialStructure buildPathStructure(List<RoutePointStamped> path, ISpatialStructure spatialStructure,
+    double downtrackMargin, double crosstrackMargin, double timeMargin);
+
+  /**
+   * Returns the list of conflicts between the provided host path and another path which has already been inserted
+   * into a spatial structure using {@link #buildPathStructure(List, ISpatialStructure, double, double, double)}.
+   * The spatial structure is only queried and is not modified
+   * 
+   * @param hostPath The path representing the host trajectory
+   * @param otherPathStructure The spatial structure containing the other path
+   * @param downtrackMargin The margin around a RoutePointStamped in the downtrack dimension in which a collision will be considered to have occurred
+   * @param crosstrackMargin The margin around a RoutePointStamped in the crosstrack dimension in which a collision will be considered to have occurred
+   * @param timeMargin The margin around a RoutePointStamped in the time dimension in which a collision will be considered to have occurred
+   * @param longitudinalBias The percentage of the longitudinal conflict margin by which to bias the host vehicle's position to the front
+   * @param lateralBias The percentage of the lateral conflict margin by which to bias the host vehicle's position to the right
+   * @param temporalBias The percentage of the time conflict margin by which to bias the host vehicle's position forward in time
+   * 
+   * @return A sorted list of conflict spaces where the two paths conflict
+   */
+  public List<ConflictSpace> getConflicts(List<RoutePointStamped> hostPath, ISpatialStructure otherPathStructure,
+    double downtrackMargin, double crosstrackMargin, double timeMargin, double longitudinalBias, double lateralBias, double temporalBias);
 }
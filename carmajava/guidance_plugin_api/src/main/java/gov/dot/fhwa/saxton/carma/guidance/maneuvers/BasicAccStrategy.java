@@ -16,13 +16,13 @@
 
 package gov.dot.fhwa.saxton.carma.guidance.maneuvers;
 
+import gov.dot.fhwa.saxton.carma.guidance.signals.DoubleFilter;
+import gov.dot.fhwa.saxton.carma.guidance.signals.DoubleFilters;
+import gov.dot.fhwa.saxton.carma.guidance.signals.DoubleSignal;
 import gov.dot.fhwa.saxton.carma.guidance.signals.Pipeline;
-import gov.dot.fhwa.saxton.carma.guidance.signals.Signal;
 import gov.dot.fhwa.saxton.carma.guidance.util.ILogger;
 import gov.dot.fhwa.saxton.carma.guidance.util.LoggerManager;
 
-import java.util.Optional;
-
 /**
  * Simple IAccStrategyImplementation based on a sliding blend of vehicle speeds.
  * <p>
@@ -31,12 +31,17 @@ import java.util.Optional;
  */
 public class BasicAccStrategy extends AbstractAccStrategy {
   protected double standoffDistance = 5.0;
-  private Pipeline<Double> speedCmdPipeline; // Pipeline is assumed to include a pid controller
+  private DoubleFilter speedCmdPipeline; // Pipeline is assumed to include a pid controller
+  private final DoubleSignal speedCmdSignal = new DoubleSignal(0.0, 0.0);
   private double exitDistanceFactor = 2.0;
   private boolean pidActive = false;
   protected ILogger log;
 
   public BasicAccStrategy(double minStandoffDistance, double exitDistanceFactor, Pipeline<Double> speedCmdPipeline) {
+    this(minStandoffDistance, exitDistanceFactor, DoubleFilters.toDoubleFilter(speedCmdPipeline));
+  }
+
+  public BasicAccStrategy(double minStandoffDistance, double exitDistanceFactor, DoubleFilter speedCmdPipeline) {
     super();
     this.standoffDistance = minStandoffDistance;
     this.exitDistanceFactor = exitDistanceFactor;
@@ -90,9 +95,9 @@ public class BasicAccStrategy extends AbstractAccStrategy {
 
     double speedCmd = desiredSpeedCommand;
     if (pidActive) {
-      Optional<Signal<Double>> speedCmdSignal = speedCmdPipeline
-          .apply(new Signal<>(computeActualTimeGap(distanceGap, currentSpeed, frontVehicleSpeed)));
-      double rawSpeedCmd = speedCmdSignal.get().getData() + currentSpeed;
+      speedCmdSignal.set(computeActualTimeGap(distanceGap, currentSpeed, frontVehicleSpeed), (double) System.currentTimeMillis());
+      speedCmdPipeline.apply(speedCmdSignal);
+      double rawSpeedCmd = speedCmdSignal.getData() + currentSpeed;
       speedCmd = rawSpeedCmd;
       //speedCmd = applyAccelLimit(rawSpeedCmd, currentSpeed, maxAccel);
       log.debug(String.format(
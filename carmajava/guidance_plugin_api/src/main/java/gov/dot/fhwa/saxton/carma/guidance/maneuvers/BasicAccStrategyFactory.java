@@ -16,6 +16,8 @@
 
 package gov.dot.fhwa.saxton.carma.guidance.maneuvers;
 
+import gov.dot.fhwa.saxton.carma.guidance.signals.DoubleFilter;
+import gov.dot.fhwa.saxton.carma.guidance.signals.DoubleFilters;
 import gov.dot.fhwa.saxton.carma.guidance.signals.Pipeline;
 
 /**
@@ -27,10 +29,14 @@ public class BasicAccStrategyFactory implements IAccStrategyFactory {
   protected double maxAccel;
   protected double minStandoffDistance;
   protected double exitDistanceFactor;
-  protected Pipeline<Double> filterPipeline;
+  protected DoubleFilter filterPipeline;
   protected volatile static BasicAccStrategy strat;
 
   public BasicAccStrategyFactory(double desiredTimeGap, double maxAccel, double vehicleResponseDelay, double minStandoffDistance, double exitDistanceFactor, Pipeline<Double> filterPipeline) {
+    this(desiredTimeGap, maxAccel, vehicleResponseDelay, minStandoffDistance, exitDistanceFactor, DoubleFilters.toDoubleFilter(filterPipeline));
+  }
+
+  public BasicAccStrategyFactory(double desiredTimeGap, double maxAccel, double vehicleResponseDelay, double minStandoffDistance, double exitDistanceFactor, DoubleFilter filterPipeline) {
     this.vehicleResponseDelay = vehicleResponseDelay;
     this.desiredTimeGap = desiredTimeGap;
     this.maxAccel = maxAccel;
@@ -23,7 +23,7 @@ import java.util.Optional;
  * If error between signal and setpoint is < deadband then filter will return the setpoint instead
  * Otherwise passes the provided signal through unchanged
  */
-public class Deadband implements Filter<Double> {
+public class Deadband implements Filter<Double>, DoubleFilter {
     private double setpoint = 0;
     private double deadband = 0;
 
@@ -64,13 +64,24 @@ public class Deadband implements Filter<Double> {
      * @return An Optional always containing the control response value
      */
     public Optional<Signal<Double>> apply(Signal<Double> signal) {
-        double error = Math.abs(setpoint - signal.getData());
-        if (error < deadband) {
+        if (isWithinDeadband(signal.getData())) {
             return Optional.of(new Signal<>(setpoint, signal.getTimestamp()));
         }
         return Optional.of(signal);
     }
 
+    @Override
+    public boolean apply(DoubleSignal signal) {
+        if (isWithinDeadband(signal.getData())) {
+            signal.setData(setpoint);
+        }
+        return true;
+    }
+
+    private boolean isWithinDeadband(double value) {
+        return Math.abs(setpoint - value) < deadband;
+    }
+
     @Override public void reset() {
         // No maintained state to reset
     }
@@ -79,4 +90,9 @@ public class Deadband implements Filter<Double> {
     public void changeSetpoint(Double setpoint) {
         // No setpoint in this filter
     }
+
+    @Override
+    public void changeSetpoint(double setpoint) {
+        // No setpoint in this filter
+    }
 }
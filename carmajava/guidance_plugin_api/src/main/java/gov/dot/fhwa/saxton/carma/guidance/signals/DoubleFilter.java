@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.guidance.signals;
+
+/**
+ * Interface for classes which process DoubleSignal objects
+ * The double-specialized counterpart of Filter which transforms a signal in place
+ * so that no Signal or Double is allocated per sample.
+ */
+public interface DoubleFilter {
+
+    /**
+     * Apply the filter to the specified signal value.
+     * The signal is updated in place with the new value.
+     * 
+     * @param signal The input signal to feed the filter, which will hold the output value
+     * @return True if the filter emitted a value, false if the signal should be dropped
+     */
+    boolean apply(DoubleSignal signal);
+
+    /**
+     * Removes all maintained state from a filter and resets it to default values
+     * Note: This DOES NOT reset configured filter parameters
+     * 
+     * Example: A PID controller would have its integrator reset but not its setpoint
+     */
+    void reset();
+
+    /**
+     * Updates the setpoint of this filter
+     * Note: Filters are not required to have setpoints and this function should do nothing in that case. 
+     * 
+     * @param setpoint The value to provide as the setpoint
+     */
+    void changeSetpoint(double setpoint);
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.guidance.signals;
+
+import java.util.Optional;
+
+/**
+ * Adapters between the boxed Filter&lt;Double&gt; and the primitive DoubleFilter interfaces
+ * so existing filters can be composed into a DoublePipeline and the other way around.
+ */
+public final class DoubleFilters {
+
+    private DoubleFilters() {}
+
+    /**
+     * Get a DoubleFilter view of a Filter&lt;Double&gt;
+     * Filters which already implement DoubleFilter are returned unchanged, others are
+     * applied through a boxed Signal for every sample.
+     * 
+     * @param filter The filter to adapt
+     * @return A DoubleFilter which applies the provided filter
+     */
+    public static DoubleFilter toDoubleFilter(Filter<Double> filter) {
+        if (filter instanceof DoubleFilter) {
+            return (DoubleFilter) filter;
+        }
+        return new BoxedFilterAdapter(filter);
+    }
+
+    /**
+     * Get a Filter&lt;Double&gt; view of a DoubleFilter
+     * Filters which already implement Filter&lt;Double&gt; should be used directly instead.
+     * 
+     * @param filter The filter to adapt
+     * @return A Filter&lt;Double&gt; which applies the provided filter
+     */
+    public static Filter<Double> toFilter(DoubleFilter filter) {
+        return new PrimitiveFilterAdapter(filter);
+    }
+
+    private static final class BoxedFilterAdapter implements DoubleFilter {
+        private final Filter<Double> filter;
+
+        BoxedFilterAdapter(Filter<Double> filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean apply(DoubleSignal signal) {
+            Optional<Signal<Double>> res = filter.apply(new Signal<>(signal.getData(), signal.getTimestamp()));
+            if (!res.isPresent()) {
+                return false;
+            }
+            signal.set(res.get().getData(), res.get().getTimestamp());
+            return true;
+        }
+
+        @Override
+        public void reset() {
+            filter.reset();
+        }
+
+        @Override
+        public void changeSetpoint(double setpoint) {
+            filter.changeSetpoint(setpoint);
+        }
+    }
+
+    private static final class PrimitiveFilterAdapter implements Filter<Double> {
+        private final DoubleFilter filter;
+
+        PrimitiveFilterAdapter(DoubleFilter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public Optional<Signal<Double>> apply(Signal<Double> signal) {
+            DoubleSignal res = new DoubleSignal(signal.getData(), signal.getTimestamp());
+            if (!filter.apply(res)) {
+                return Optional.empty();
+            }
+            return Optional.of(new Signal<>(res.getData(), res.getTimestamp()));
+        }
+
+        @Override
+        public void reset() {
+            filter.reset();
+        }
+
+        @Override
+        public void changeSetpoint(Double setpoint) {
+            filter.changeSetpoint(setpoint);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.guidance.signals;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Double-specialized counterpart of Pipeline which applies its filters to a single
+ * DoubleSignal in place. The filters are held in an array so applying the pipeline
+ * does not allocate or box.
+ * <p>
+ * Existing Filter&lt;Double&gt; implementations are composed through DoubleFilters.toDoubleFilter.
+ * The pipeline may also be used as a Filter&lt;Double&gt;, in which case one Signal is allocated for the result.
+ * Like the filters it holds, a pipeline keeps state and must not be applied from several threads at once.
+ */
+public class DoublePipeline implements DoubleFilter, Filter<Double> {
+    private DoubleFilter[] filters = new DoubleFilter[0];
+    private final DoubleSignal scratch = new DoubleSignal(0.0, 0.0);
+
+    /**
+     * Default constructor
+     */
+    public DoublePipeline() {}
+
+    /**
+     * Constructor
+     * @param filters a list of filters to applied in the provided order
+     */
+    public DoublePipeline(DoubleFilter... filters) {
+        this.filters = Arrays.copyOf(filters, filters.length);
+    }
+
+    @Override
+    public boolean apply(DoubleSignal signal) {
+        // Apply all the filters, stopping at the first filter which does not emit a value
+        for (DoubleFilter filter : filters) {
+            if (!filter.apply(signal)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Optional<Signal<Double>> apply(Signal<Double> signal) {
+        scratch.set(signal.getData(), signal.getTimestamp());
+        if (!apply(scratch)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Signal<>(scratch.getData(), scratch.getTimestamp()));
+    }
+
+    /**
+     * Add a filter into the pipeline at the specified position
+     * 
+     * @param idx The index at which to insert the filter
+     * @param filter The filter to insert
+     */
+    public void compose(int idx, DoubleFilter filter) {
+        if (idx < 0 || idx > filters.length) {
+            throw new IndexOutOfBoundsException("Index: " + idx + ", Size: " + filters.length);
+        }
+        DoubleFilter[] newFilters = new DoubleFilter[filters.length + 1];
+        System.arraycopy(filters, 0, newFilters, 0, idx);
+        newFilters[idx] = filter;
+        System.arraycopy(filters, idx, newFilters, idx + 1, filters.length - idx);
+        filters = newFilters;
+    }
+
+    /**
+     * Add a filter into the pipeline at the end.
+     * 
+     * @param filter the filter to insert
+     */
+    public void compose(DoubleFilter filter) {
+        compose(filters.length, filter);
+    }
+
+    /**
+     * Calls reset() on all filters to removed maintained state but not parameters
+     */
+    @Override
+    public void reset() {
+        for (DoubleFilter filter : filters) {
+            filter.reset();
+        }
+    }
+
+    /**
+     * Updates the setpoints of this pipeline
+     * Setpoints assigned in order. If the sizes of the pipeline and setpoint array do not match, 
+     * the indexes that do match will still be assigned.
+     * 
+     * @param setpoints The setpoints to assign
+     */
+    public void changeSetpoints(double... setpoints) {
+        int size = Math.min(setpoints.length, filters.length);
+        for (int i = 0; i < size; i++) {
+            filters[i].changeSetpoint(setpoints[i]);
+        }
+    }
+
+    /**
+     * Updates the setpoints of this pipeline
+     * All filters provided the same setpoint
+     * 
+     * @param setpoint The setpoint to assign
+     */
+    @Override
+    public void changeSetpoint(double setpoint) {
+        for (DoubleFilter filter : filters) {
+            filter.changeSetpoint(setpoint);
+        }
+    }
+
+    @Override
+    public void changeSetpoint(Double setpoint) {
+        changeSetpoint(setpoint.doubleValue());
+    }
+
+    /**
+     * Returns the number of filters in the pipeline
+     * 
+     * @return number of filters
+     */
+    public int getNumFilters() {
+        return filters.length;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.guidance.signals;
+
+/**
+ * Mutable datum for use with DoubleFilter classes
+ * 
+ * Holds a double value and its timestamp without boxing, so a single instance
+ * can be passed through every stage of a DoublePipeline and reused for every sample.
+ */
+public class DoubleSignal {
+    private double data;
+    private double timestamp;
+
+    /**
+     * Construct a signal holding the data and it's associated timestamp
+     * in some arbitrary reference frame
+     */
+    public DoubleSignal(double data, double timestamp) {
+        this.data = data;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Get the data associated with this signal
+     */
+    public double getData() {
+        return data;
+    }
+
+    /**
+     * Get the timestamp associated with this signal
+     */
+    public double getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Replace the data of this signal while keeping its timestamp
+     */
+    public void setData(double data) {
+        this.data = data;
+    }
+
+    /**
+     * Replace the data and the timestamp of this signal
+     */
+    public void set(double data, double timestamp) {
+        this.data = data;
+        this.timestamp = timestamp;
+    }
+}
@@ -17,28 +17,28 @@
 package gov.dot.fhwa.saxton.carma.guidance.signals;
 
 import java.util.Optional;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Simple MovingAverageFilter
  * A moving average filter serves as extermely simple low pass filter
+ * <p>
+ * Samples are kept in a ring buffer with a running sum so each update is O(1).
+ * The sum is recomputed from the buffer every time the buffer wraps around
+ * to prevent floating point error from accumulating.
  */
-public class MovingAverageFilter implements Filter<Double> {
-    private Queue<Double> samples = new ConcurrentLinkedQueue<Double>();
-    private int numSamples = 1; 
+public class MovingAverageFilter implements Filter<Double>, DoubleFilter {
+    private final double[] samples;
+    private int count = 0;
+    private int next = 0;
     private double sum = 0;
 
     /**
-     * Construct a PID controller with the specified Kp, Ki, Kd, and setpoint values
+     * Construct a moving average filter over the specified number of samples
      * 
-     * @param Kp The coefficient associated with the proportional response of the PID controller
-     * @param Ki The coefficient associated with the integral response of the PID controller
-     * @param Kd The coefficient associated with the derivative response of the PID controller
-     * @param setpoint The initial setpoint to be used for error computation
+     * @param numSamples The number of most recent samples to average
      */
     public MovingAverageFilter(int numSamples) {
-        this.numSamples = numSamples;
+        this.samples = new double[Math.max(numSamples, 1)];
     }
 
     @Override
@@ -46,33 +46,50 @@ public class MovingAverageFilter implements Filter<Double> {
         // No setpoint in this filter
     }
 
+    @Override
+    public void changeSetpoint(double setpoint) {
+        // No setpoint in this filter
+    }
+
     /**
-     * Apply the PID controller to the input signal
-     * </p>
-     * The input signal is treated as the plant value and compared to the setpoint configured
-     * with adjustSetPoint for the purpose of error computation. The output signal is the 
-     * control response to correct the error.
+     * Apply the moving average to the input signal
      * 
-     * @param signal The measured plant value
-     * @return An Optional always containing the control response value
+     * @param signal The new sample
+     * @return An Optional always containing the average of the most recent samples
      */
     public Optional<Signal<Double>> apply(Signal<Double> signal) {
-        Double newSample = signal.getData();
-        samples.add(newSample); // Add the sample to the queue of samples
-
-        Double oldestValue = 0.0;
-        if (samples.size() > numSamples) {
-            oldestValue = samples.poll(); // Pop the oldest sample from the queue
-        }
+        return Optional.of(new Signal<>(update(signal.getData()), signal.getTimestamp()));
+    }
 
-        sum += -oldestValue + newSample;
-        Double result = sum / samples.size();
+    @Override
+    public boolean apply(DoubleSignal signal) {
+        signal.setData(update(signal.getData()));
+        return true;
+    }
 
-        return Optional.of(new Signal<>(result, signal.getTimestamp()));
+    private double update(double newSample) {
+        // Replace the oldest sample once the buffer is full
+        double oldestValue = count == samples.length ? samples[next] : 0.0;
+        if (count < samples.length) {
+            count++;
+        }
+        samples[next] = newSample;
+        next++;
+        if (next == samples.length) {
+            next = 0;
+            sum = 0;
+            for (double sample : samples) {
+                sum += sample;
+            }
+        } else {
+            sum += newSample - oldestValue;
+        }
+        return sum / count;
     }
 
     @Override public void reset() {
         sum = 0;
-        samples = new ConcurrentLinkedQueue<Double>();
+        count = 0;
+        next = 0;
     }
 }
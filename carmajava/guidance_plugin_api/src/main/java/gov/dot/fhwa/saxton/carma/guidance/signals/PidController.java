@@ -23,8 +23,13 @@ import java.util.Optional;
  * 
  * Transforms a plant value into a control signal for correcting error relative
  * to the PID controller's configured setpoint.
+ * <p>
+ * The controller keeps its state in primitive fields so applying it as a DoubleFilter does not allocate.
+ * Optionally the output can be limited to a range, in which case the integrator only accumulates
+ * up to the value which saturates the output (anti-windup), and the derivative term
+ * can be passed through a first order low pass filter to suppress measurement noise.
  */
-public class PidController implements Filter<Double> {
+public class PidController implements Filter<Double>, DoubleFilter {
     private final double Kp;
     private final double Ki;
     private final double Kd;
@@ -32,7 +37,14 @@ public class PidController implements Filter<Double> {
     private double integrator = 0;
     private double integratorMax = Double.MAX_VALUE;
     private double integratorMin = Double.MIN_VALUE;
-    private Optional<Signal<Double>> lastError = Optional.empty();
+    private double outputMax = Double.POSITIVE_INFINITY;
+    private double outputMin = Double.NEGATIVE_INFINITY;
+    private double derivativeTimeConstant = 0;
+    private boolean hasLastError = false;
+    private double lastError = 0;
+    private double lastTimestamp = 0;
+    private boolean hasDerivative = false;
+    private double derivative = 0;
 
 
     /**
@@ -60,6 +72,16 @@ public class PidController implements Filter<Double> {
         this.setpoint = setpoint;
     }
 
+    /**
+     * Change the setpoint of this PID controller
+     * 
+     * @param setpoint The setpoint to try to attain
+     */
+    @Override
+    public void changeSetpoint(double setpoint) {
+        this.setpoint = setpoint;
+    }
+
     /**
      * Apply the PID controller to the input signal
      * </p>
@@ -71,16 +93,47 @@ public class PidController implements Filter<Double> {
      * @return An Optional always containing the control response value
      */
     public Optional<Signal<Double>> apply(Signal<Double> signal) {
-        double error = setpoint - signal.getData();
+        return Optional.of(new Signal<>(update(signal.getData(), signal.getTimestamp()), signal.getTimestamp()));
+    }
+
+    /**
+     * Apply the PID controller to the input signal in place
+     * 
+     * @param signal The measured plant value, which is replaced by the control response value
+     * @return Always true
+     */
+    @Override
+    public boolean apply(DoubleSignal signal) {
+        signal.setData(update(signal.getData(), signal.getTimestamp()));
+        return true;
+    }
+
+    private double update(double value, double timestamp) {
+        double error = setpoint - value;
         double output = Kp * error;
 
         // If this isn't our first timestep, handle the I and D terms
-        if (lastError.isPresent()) {
-            double dt = signal.getTimestamp() - lastError.get().getTimestamp();
+        if (hasLastError) {
+            double dt = timestamp - lastTimestamp;
+            double rawDerivative = (error - lastError) / dt;
+            if (derivativeTimeConstant <= 0 || !hasDerivative) {
+                derivative = rawDerivative;
+            } else if (dt > 0) {
+                derivative += dt / (derivativeTimeConstant + dt) * (rawDerivative - derivative);
+            }
+            hasDerivative = true;
 
             if (Ki > 0) {
+                double previousIntegrator = integrator;
                 // double type will not overflow from positive to negative
                 integrator += error * dt;
+                // Do not integrate further than needed to saturate the output
+                double otherTerms = output + Kd * derivative;
+                if (error > 0 && otherTerms + Ki * integrator > outputMax) {
+                    integrator = Math.max(previousIntegrator, (outputMax - otherTerms) / Ki);
+                } else if (error < 0 && otherTerms + Ki * integrator < outputMin) {
+                    integrator = Math.min(previousIntegrator, (outputMin - otherTerms) / Ki);
+                }
                 if(integrator > this.integratorMax) {
                     integrator = this.integratorMax;
                 } else if(integrator < this.integratorMin) {
@@ -89,22 +142,51 @@ public class PidController implements Filter<Double> {
                 output += Ki * integrator;
             }
 
-            output += Kd * (error - lastError.get().getData()) / dt;
+            output += Kd * derivative;
         }
 
-        lastError = Optional.of(new Signal<>(error, signal.getTimestamp()));
+        hasLastError = true;
+        lastError = error;
+        lastTimestamp = timestamp;
 
-        return Optional.of(new Signal<>(output, signal.getTimestamp()));
+        if (output > outputMax) {
+            return outputMax;
+        } else if (output < outputMin) {
+            return outputMin;
+        }
+        return output;
     }
 
     public void setIntegratorRange(double min, double max) {
         this.integratorMax = max;
         this.integratorMin = min;
     }
+
+    /**
+     * Limit the output of this controller. The integrator is not accumulated beyond the limits.
+     * 
+     * @param min The lowest output value
+     * @param max The highest output value
+     */
+    public void setOutputRange(double min, double max) {
+        this.outputMax = max;
+        this.outputMin = min;
+    }
+
+    /**
+     * Low pass filter the derivative term. A time constant of zero disables the filter.
+     * 
+     * @param timeConstant The filter time constant in the unit of the signal timestamps
+     */
+    public void setDerivativeFilter(double timeConstant) {
+        this.derivativeTimeConstant = timeConstant;
+    }
     
     @Override public void reset() {
         integrator = 0;
-        lastError = Optional.empty();
+        hasLastError = false;
+        hasDerivative = false;
+        derivative = 0;
     }
     
 }
@@ -19,14 +19,14 @@ package gov.dot.fhwa.saxton.carma.guidance.signals;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.LinkedList;
+import java.util.ArrayList;
 
 /**
  * Structure to enable the composition of Filters which, itself, may
  * be treated as an instance of Filter.
  */
 public class Pipeline<T> implements Filter<T> {
-    private List<Filter<T>> filters = new LinkedList<>();
+    private List<Filter<T>> filters = new ArrayList<>();
 
     /**
      * Default constructor
@@ -38,7 +38,7 @@ public class Pipeline<T> implements Filter<T> {
      * @param filters a list of filters to applied in the provided order
      */
     public Pipeline (Filter<T>... filters) {
-        this.filters = new LinkedList<>(Arrays.asList(filters));
+        this.filters = new ArrayList<>(Arrays.asList(filters));
     }
 
 	@Override
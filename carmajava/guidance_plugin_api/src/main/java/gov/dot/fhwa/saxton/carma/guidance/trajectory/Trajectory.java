@@ -23,12 +23,11 @@ import gov.dot.fhwa.saxton.carma.guidance.maneuvers.LateralManeuver;
 import gov.dot.fhwa.saxton.carma.guidance.maneuvers.LongitudinalManeuver;
 import gov.dot.fhwa.saxton.carma.guidance.maneuvers.ManeuverType;
 import gov.dot.fhwa.saxton.carma.guidance.util.intervaltree.Interval;
-import gov.dot.fhwa.saxton.carma.guidance.util.intervaltree.IntervalTree;
-import gov.dot.fhwa.saxton.carma.guidance.util.intervaltree.IntervalTreeFactory;
+import gov.dot.fhwa.saxton.carma.guidance.util.intervaltree.SortedIntervalArray;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.SortedSet;
+import java.util.function.Consumer;
 
 /**
  * Data structure and helper method container for describing and creating vehicle trajectories
@@ -40,8 +39,8 @@ public class Trajectory {
 
   protected double startLocation;
   protected double endLocation;
-  protected IntervalTree<LateralManeuver> lateralManeuvers;
-  protected IntervalTree<LongitudinalManeuver> longitudinalManeuvers;
+  protected SortedIntervalArray<LateralManeuver> lateralManeuvers;
+  protected SortedIntervalArray<LongitudinalManeuver> longitudinalManeuvers;
   protected IComplexManeuver complexManeuver = null;
   protected static final double DISTANCE_EPSILON = 0.00001;
 
@@ -52,26 +51,21 @@ public class Trajectory {
     this.startLocation = startLocation;
     this.endLocation = endLocation;
 
-    lateralManeuvers = IntervalTreeFactory.buildIntervalTree();
-    longitudinalManeuvers = IntervalTreeFactory.buildIntervalTree();
+    lateralManeuvers = new SortedIntervalArray<>();
+    longitudinalManeuvers = new SortedIntervalArray<>();
   }
 
   /**
    * Deep copy constructor for Trajectory instances
+   * <p>
+   * The maneuver instances are shared with the copied trajectory
    */
   public Trajectory(Trajectory traj) {
     startLocation = traj.startLocation;
     endLocation = traj.endLocation;
 
-    lateralManeuvers = IntervalTreeFactory.buildIntervalTree();
-    longitudinalManeuvers = IntervalTreeFactory.buildIntervalTree();
-
-    for (LateralManeuver m : traj.lateralManeuvers.toSortedList()) {
-      lateralManeuvers.insert(new Interval<LateralManeuver>(m, m.getStartDistance(), m.getEndDistance()));
-    }
-    for (LongitudinalManeuver m : traj.longitudinalManeuvers.toSortedList()) {
-      longitudinalManeuvers.insert(new Interval<LongitudinalManeuver>(m, m.getStartDistance(), m.getEndDistance()));
-    }
+    lateralManeuvers = new SortedIntervalArray<>(traj.lateralManeuvers);
+    longitudinalManeuvers = new SortedIntervalArray<>(traj.longitudinalManeuvers);
 
     complexManeuver = traj.complexManeuver;
   }
@@ -146,13 +140,11 @@ public class Trajectory {
     }
 
     // Check for overlap with any other maneuvers currentl planned
-    if (!lateralManeuvers.findIntersectionsWith(new Interval<>(maneuver.getStartDistance(), maneuver.getEndDistance()))
-        .isEmpty()) {
+    if (lateralManeuvers.intersects(maneuver.getStartDistance(), maneuver.getEndDistance())) {
       return false;
     }
 
-    if (!longitudinalManeuvers
-        .findIntersectionsWith(new Interval<>(maneuver.getStartDistance(), maneuver.getEndDistance())).isEmpty()) {
+    if (longitudinalManeuvers.intersects(maneuver.getStartDistance(), maneuver.getEndDistance())) {
       return false;
     }
 
@@ -171,6 +163,20 @@ public class Trajectory {
     return complexManeuver;
   }
 
+  /**
+   * Get the number of maneuvers in the sorted maneuvers followed by the complex maneuver, if it exists
+   */
+  private int countWithComplexManeuver(SortedIntervalArray<? extends IManeuver> maneuvers) {
+    return maneuvers.size() + (complexManeuver != null ? 1 : 0);
+  }
+
+  /**
+   * Get the maneuver at the index in the sorted maneuvers followed by the complex maneuver, if it exists
+   */
+  private IManeuver getWithComplexManeuver(SortedIntervalArray<? extends IManeuver> maneuvers, int index) {
+    return (index < maneuvers.size() ? maneuvers.get(index).getData() : complexManeuver);
+  }
+
   /**
    * Find the earliest available space in the longitudinal domain of the current trajectory for 
    * which a maneuver of the specified size might fit.
@@ -178,18 +184,14 @@ public class Trajectory {
    * @returns The distance location of the start of the window if found, -1 otherwise
    */
   public double findEarliestLongitudinalWindowOfSize(double size) {
-    List<IManeuver> maneuvers = new ArrayList<>();
-    maneuvers.addAll(longitudinalManeuvers.toSortedList());
-    if (complexManeuver != null) {
-      maneuvers.add(complexManeuver);
-    }
-
-    if (maneuvers.isEmpty()) {
+    int numManeuvers = countWithComplexManeuver(longitudinalManeuvers);
+    if (numManeuvers == 0) {
       return getStartLocation();
     }
 
     double lastEnd = startLocation;
-    for (IManeuver m : maneuvers) {
+    for (int i = 0; i < numManeuvers; i++) {
+      IManeuver m = getWithComplexManeuver(longitudinalManeuvers, i);
       if (m.getStartDistance() - lastEnd >= size) {
         return lastEnd;
       }
@@ -211,18 +213,14 @@ public class Trajectory {
    * @returns The distance location of the start of the window if found, -1 otherwise
    */
   public double findEarliestLateralWindowOfSize(double size) {
-    List<IManeuver> maneuvers = new ArrayList<>();
-    maneuvers.addAll(lateralManeuvers.toSortedList());
-    if (complexManeuver != null) {
-      maneuvers.add(complexManeuver);
-    }
-
-    if (maneuvers.isEmpty()) {
+    int numManeuvers = countWithComplexManeuver(lateralManeuvers);
+    if (numManeuvers == 0) {
       return getStartLocation();
     }
 
     double lastEnd = startLocation;
-    for (IManeuver m : maneuvers) {
+    for (int i = 0; i < numManeuvers; i++) {
+      IManeuver m = getWithComplexManeuver(lateralManeuvers, i);
       if (m.getStartDistance() - lastEnd >= size) {
         return lastEnd;
       }
@@ -244,19 +242,14 @@ public class Trajectory {
    * @returns The distance location of the start of the window if found, -1 otherwise
    */
   public double findLatestLongitudinalWindowOfSize(double size) {
-    List<IManeuver> maneuvers = new ArrayList<>();
-    maneuvers.addAll(longitudinalManeuvers.toSortedList());
-    if (complexManeuver != null) {
-      maneuvers.add(complexManeuver);
-    }
-
-    if (maneuvers.size() == 0) {
+    int numManeuvers = countWithComplexManeuver(longitudinalManeuvers);
+    if (numManeuvers == 0) {
       return endLocation - size;
     }
 
     double lastStart = endLocation;
-    for (int i = maneuvers.size() - 1; i >= 0; i--) {
-      IManeuver m = maneuvers.get(i);
+    for (int i = numManeuvers - 1; i >= 0; i--) {
+      IManeuver m = getWithComplexManeuver(longitudinalManeuvers, i);
       if (lastStart - m.getEndDistance() >= size) {
         return m.getEndDistance();
       }
@@ -278,19 +271,14 @@ public class Trajectory {
    * @returns The distance location of the start of the window if found, -1 otherwise
    */
   public double findLatestLateralWindowOfSize(double size) {
-    List<IManeuver> maneuvers = new ArrayList<>();
-    maneuvers.addAll(lateralManeuvers.toSortedList());
-    if (complexManeuver != null) {
-      maneuvers.add(complexManeuver);
-    }
-
-    if (maneuvers.size() == 0) {
+    int numManeuvers = countWithComplexManeuver(lateralManeuvers);
+    if (numManeuvers == 0) {
       return endLocation - size;
     }
 
     double lastStart = endLocation;
-    for (int i = maneuvers.size() - 1; i >= 0; i--) {
-      IManeuver m = maneuvers.get(i);
+    for (int i = numManeuvers - 1; i >= 0; i--) {
+      IManeuver m = getWithComplexManeuver(lateralManeuvers, i);
       if (lastStart - m.getEndDistance() >= size) {
         return m.getEndDistance();
       }
@@ -310,20 +298,29 @@ public class Trajectory {
    */
   public List<IManeuver> getManeuversAt(double loc) {
     List<IManeuver> out = new ArrayList<>();
+    forEachManeuverAt(loc, out::add);
+    return out;
+  }
 
-    for (Interval<LongitudinalManeuver> mvr : longitudinalManeuvers.findIntersectionsWith(loc)) {
-      out.add(mvr.getData());
+  /**
+   * Visit all maneuvers that will be active at loc without building a result list
+   * <p>
+   * Maneuvers are visited in the order longitudinal, lateral, complex.
+   */
+  public void forEachManeuverAt(double loc, Consumer<? super IManeuver> visitor) {
+    Interval<LongitudinalManeuver> lon = longitudinalManeuvers.findIntersectionWith(loc);
+    if (lon != null) {
+      visitor.accept(lon.getData());
     }
-    for (Interval<LateralManeuver> mvr : lateralManeuvers.findIntersectionsWith(loc)) {
-      out.add(mvr.getData());
+    Interval<LateralManeuver> lat = lateralManeuvers.findIntersectionWith(loc);
+    if (lat != null) {
+      visitor.accept(lat.getData());
     }
 
     if (complexManeuver != null && loc >= complexManeuver.getStartDistance()
         && loc < complexManeuver.getEndDistance()) {
-      out.add(complexManeuver);
+      visitor.accept(complexManeuver);
     }
-
-    return out;
   }
 
   /**
@@ -332,13 +329,13 @@ public class Trajectory {
    */
   public IManeuver getManeuverAt(double loc, ManeuverType type) {
     if (type == ManeuverType.LATERAL) {
-      SortedSet<Interval<LateralManeuver>> mvrs = lateralManeuvers.findIntersectionsWith(loc);
-      return (mvrs.isEmpty() ? null : mvrs.first().getData());
+      Interval<LateralManeuver> mvr = lateralManeuvers.findIntersectionWith(loc);
+      return (mvr == null ? null : mvr.getData());
     }
 
     if (type == ManeuverType.LONGITUDINAL) {
-      SortedSet<Interval<LongitudinalManeuver>> mvrs = longitudinalManeuvers.findIntersectionsWith(loc);
-      return (mvrs.isEmpty() ? null : mvrs.first().getData());
+      Interval<LongitudinalManeuver> mvr = longitudinalManeuvers.findIntersectionWith(loc);
+      return (mvr == null ? null : mvr.getData());
     }
 
     if (type == ManeuverType.COMPLEX) {
@@ -357,37 +354,11 @@ public class Trajectory {
    */
   public IManeuver getNextManeuverAfter(double loc, ManeuverType type) {
     if (type == ManeuverType.LONGITUDINAL) {
-      SortedSet<Interval<LongitudinalManeuver>> mvrsAtPt = longitudinalManeuvers.findIntersectionsWith(loc);
-      if (!mvrsAtPt.isEmpty()) {
-        double endOfMvrAtPt = mvrsAtPt.first().getEnd();
-        SortedSet<Interval<LongitudinalManeuver>> mvrs = longitudinalManeuvers
-            .findIntersectionsWith(new Interval<>(endOfMvrAtPt, endLocation));
-        return (mvrs.isEmpty() ? null : mvrs.first().getData());
-      } else {
-        SortedSet<Interval<LongitudinalManeuver>> intersections = longitudinalManeuvers.findIntersectionsWith(new Interval<>(loc, endLocation));
-        if (!intersections.isEmpty()) {
-          return intersections.first().getData();
-        } else {
-          return null;
-        }
-      }
+      return getNextManeuverAfter(loc, longitudinalManeuvers);
     }
 
     if (type == ManeuverType.LATERAL) {
-      SortedSet<Interval<LateralManeuver>> mvrsAtPt = lateralManeuvers.findIntersectionsWith(loc);
-      if (!mvrsAtPt.isEmpty()) {
-        double endOfMvrAtPt = mvrsAtPt.first().getEnd();
-        SortedSet<Interval<LateralManeuver>> mvrs = lateralManeuvers
-            .findIntersectionsWith(new Interval<>(endOfMvrAtPt, endLocation));
-        return (mvrs.isEmpty() ? null : mvrs.first().getData());
-      } else {
-        SortedSet<Interval<LateralManeuver>> intersections = lateralManeuvers.findIntersectionsWith(new Interval<>(loc, endLocation));
-        if (!intersections.isEmpty()) {
-          return intersections.first().getData();
-        } else {
-          return null;
-        }
-      }
+      return getNextManeuverAfter(loc, lateralManeuvers);
     }
 
     if (type == ManeuverType.COMPLEX) {
@@ -403,14 +374,21 @@ public class Trajectory {
     return null;
   }
 
+  /**
+   * Helper function for getNextManeuverAfter, finds the first maneuver which starts at or after the end of
+   * the maneuver active at loc, or after loc if there is no active maneuver
+   */
+  private <T extends IManeuver> IManeuver getNextManeuverAfter(double loc, SortedIntervalArray<T> maneuvers) {
+    Interval<T> mvrAtPt = maneuvers.findIntersectionWith(loc);
+    Interval<T> next = maneuvers.findFirstEndingAfter(mvrAtPt != null ? mvrAtPt.getEnd() : loc);
+    return (next != null && next.getStart() < endLocation ? next.getData() : null);
+  }
+
   /**
    * Get the trajectory's stored lateral maneuvers in sorted order by start location
    */
   public List<LateralManeuver> getLateralManeuvers() {
-    List<LateralManeuver> out = new ArrayList<>();
-    out.addAll(lateralManeuvers.toSortedList());
-
-    return out;
+    return lateralManeuvers.toSortedList();
   }
 
   /**
@@ -465,40 +443,40 @@ public class Trajectory {
   /**
    * Get the trajectory's stored maneuvers in sorted order by start location
    * <p>
-   * Note: This operation is more expensive than it might seem, it requires traversal
-   * of two separate trees and a merge of the resulting flattened lists. If possible,
-   * call once and cache the result.
+   * Note: This operation builds a new list on every call. If possible, call once and cache the result
+   * or visit the maneuvers with {@link #forEachManeuver(Consumer)} instead.
    */
   public List<IManeuver> getManeuvers() {
-    List<IManeuver> out = new ArrayList<>();
+    List<IManeuver> out = new ArrayList<>(lateralManeuvers.size() + longitudinalManeuvers.size() + 1);
+    forEachManeuver(out::add);
+    return out;
+  }
 
-    // Merge the two sorted lists, a la mergesort
-    List<LateralManeuver> laterals = lateralManeuvers.toSortedList();
-    List<LongitudinalManeuver> longitudinals = longitudinalManeuvers.toSortedList();
-    int numElems = laterals.size() + longitudinals.size();
-
-    // Merge the lists by peeling elements off their fronts until one is empty
-    while (!laterals.isEmpty() && !longitudinals.isEmpty()) {
-        LateralManeuver lat = laterals.get(0);
-        LongitudinalManeuver lon = longitudinals.get(0);
-        if (lon.getStartDistance() <= lat.getStartDistance()) {
-          out.add(laterals.remove(0));
-        } else {
-          out.add(laterals.remove(0));
-        }
+  /**
+   * Visit the trajectory's stored maneuvers in sorted order by start location without building a list
+   * <p>
+   * The lateral and longitudinal maneuvers are merged a la mergesort, the complex maneuver is visited last.
+   */
+  public void forEachManeuver(Consumer<? super IManeuver> visitor) {
+    int lat = 0;
+    int lon = 0;
+    while (lat < lateralManeuvers.size() && lon < longitudinalManeuvers.size()) {
+      if (longitudinalManeuvers.get(lon).getStart() <= lateralManeuvers.get(lat).getStart()) {
+        visitor.accept(longitudinalManeuvers.get(lon++).getData());
+      } else {
+        visitor.accept(lateralManeuvers.get(lat++).getData());
+      }
     }
-
-    if (laterals.isEmpty()) {
-      out.addAll(longitudinals);
-    } else if (longitudinals.isEmpty()) {
-      out.addAll(laterals);
+    while (lat < lateralManeuvers.size()) {
+      visitor.accept(lateralManeuvers.get(lat++).getData());
+    }
+    while (lon < longitudinalManeuvers.size()) {
+      visitor.accept(longitudinalManeuvers.get(lon++).getData());
     }
 
     if (complexManeuver != null) {
-      out.add(complexManeuver);
+      visitor.accept(complexManeuver);
     }
-
-    return out;
   }
 
   @Override
@@ -41,6 +41,14 @@ public interface RouteService {
    */
   RouteSegment getRouteSegmentAtLocation(double location);
 
+  /**
+   * Get the index of the segment of the route that is valid at the input location, -1 if the location is past the end
+   * of the route. Uses a binary search over the cumulative segment lengths of the route.
+   * 
+   * @param location The location in question, in terms of linear distance downtrack on the route
+   */
+  int getRouteSegmentIndexAtLocation(double location);
+
   /**
    * Get the current downtrack distance of the vehicle in m
    */
@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.guidance.util.intervaltree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Sorted array of non-overlapping intervals which are closed on their start and open on their end
+ * <p>
+ * Provides the same semantics as the default {@link IntervalTree} built by {@link IntervalTreeFactory},
+ * but is optimized for collections which are built once and then read many times. Intervals are kept
+ * ordered by start and end point, so all queries are binary searches that neither allocate result sets
+ * nor depend on the order of insertion. Inserts shift the array and are therefore O(n).
+ * <p>
+ * Empty intervals (start == end) may be stored but never intersect anything, as in the interval tree.
+ */
+public class SortedIntervalArray<T> {
+    private static final int INITIAL_CAPACITY = 8;
+
+    protected Interval<T>[] intervals;
+    protected int size = 0;
+
+    @SuppressWarnings("unchecked")
+    public SortedIntervalArray() {
+        intervals = (Interval<T>[]) new Interval<?>[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Copy constructor, the intervals themselves are shared between both arrays
+     */
+    public SortedIntervalArray(SortedIntervalArray<T> other) {
+        intervals = Arrays.copyOf(other.intervals, Math.max(other.size, INITIAL_CAPACITY));
+        size = other.size;
+    }
+
+    /**
+     * Attempt to insert the interval into the array.
+     * <p>
+     * Only accepts Intervals with non-null data fields which do not overlap an interval already stored
+     *
+     * @return True if the insertion was successful, false o.w.
+     */
+    public boolean insert(Interval<T> value) {
+        if (value.getData() == null) {
+            // Reject an interval with null data
+            return false;
+        }
+
+        if (intersects(value.getStart(), value.getEnd())) {
+            return false;
+        }
+
+        int index = insertionPoint(value);
+        if (size == intervals.length) {
+            intervals = Arrays.copyOf(intervals, intervals.length * 2);
+        }
+        System.arraycopy(intervals, index, intervals, index + 1, size - index);
+        intervals[index] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * Get the number of intervals in the array
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Get the interval at the specified position in the sorted order
+     */
+    public Interval<T> get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return intervals[index];
+    }
+
+    /**
+     * Get the interval which contains the specified point
+     *
+     * @return The interval or null if no interval contains the point
+     */
+    public Interval<T> findIntersectionWith(double pt) {
+        int index = indexOfNonEmptyBefore(upperBound(pt));
+        if (index >= 0 && pt < intervals[index].getEnd()) {
+            return intervals[index];
+        }
+        return null;
+    }
+
+    /**
+     * Get the first interval which ends after the specified point. That is the interval which contains
+     * the point if there is one, or the next interval wholly after the point otherwise.
+     *
+     * @return The interval or null if every interval ends at or before the point
+     */
+    public Interval<T> findFirstEndingAfter(double pt) {
+        int upper = upperBound(pt);
+        int index = indexOfNonEmptyBefore(upper);
+        if (index >= 0 && pt < intervals[index].getEnd()) {
+            return intervals[index];
+        }
+        index = indexOfNonEmptyFrom(upper);
+        return index < size ? intervals[index] : null;
+    }
+
+    /**
+     * Check if any interval intersects with [start, end)
+     */
+    public boolean intersects(double start, double end) {
+        if (start >= end) {
+            return false;
+        }
+        Interval<T> first = findFirstEndingAfter(start);
+        return first != null && first.getStart() < end;
+    }
+
+    /**
+     * Visit the intervals which intersect with [start, end) in sorted order
+     */
+    public void forEachIntersection(double start, double end, Consumer<? super Interval<T>> visitor) {
+        if (start >= end) {
+            return;
+        }
+        int index = indexOfNonEmptyBefore(upperBound(start));
+        if (index < 0 || intervals[index].getEnd() <= start) {
+            index = upperBound(start);
+        }
+        for (; index < size && intervals[index].getStart() < end; index++) {
+            if (intervals[index].getStart() < intervals[index].getEnd()) {
+                visitor.accept(intervals[index]);
+            }
+        }
+    }
+
+    /**
+     * Visit the data of every interval in sorted order
+     */
+    public void forEach(Consumer<? super T> visitor) {
+        for (int i = 0; i < size; i++) {
+            visitor.accept(intervals[i].getData());
+        }
+    }
+
+    /**
+     * Flatten the array into a sorted list of raw elements. Discards all interval data in the output.
+     */
+    public List<T> toSortedList() {
+        List<T> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            out.add(intervals[i].getData());
+        }
+        return out;
+    }
+
+    /**
+     * Get the index of the first interval which starts after the point
+     */
+    private int upperBound(double pt) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (intervals[mid].getStart() <= pt) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Get the index where the interval belongs when ordered by start and then end point
+     */
+    private int insertionPoint(Interval<T> value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            Interval<T> other = intervals[mid];
+            if (other.getStart() < value.getStart()
+                    || (other.getStart() == value.getStart() && other.getEnd() <= value.getEnd())) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Get the index of the last non-empty interval before the specified index, -1 if there is none
+     * <p>
+     * Since the non-empty intervals do not overlap, this is the only interval starting before the
+     * index which may reach past the start of the interval at the index.
+     */
+    private int indexOfNonEmptyBefore(int index) {
+        int i = index - 1;
+        while (i >= 0 && intervals[i].getStart() == intervals[i].getEnd()) {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * Get the index of the first non-empty interval at or after the specified index, size if there is none
+     */
+    private int indexOfNonEmptyFrom(int index) {
+        int i = index;
+        while (i < size && intervals[i].getStart() == intervals[i].getEnd()) {
+            i++;
+        }
+        return i;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder dataString = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            dataString.append(intervals[i]).append(",");
+        }
+        return "SortedIntervalArray{data=" + dataString + "}";
+    }
+}
@@ -97,6 +97,27 @@ public interface ITrajectoryConverter {
    double downtrack, double crosstrack,
    int currentSegmentIdx, double segDowntrack, int lane, int maxPointsInPath);
 
+  /**
+   * Converts the provided trajectory and starting configuration into a RoutePath of (downtrack, crosstrack) points with associated time stamps
+   * 
+   * This function behaves the same as {@link #convertToPath(Trajectory, long, double, double, int, double, int, int)}
+   * but returns the columnar RoutePath which can be converted to a list of RoutePointStamped with {@link RoutePath#toList()} as needed
+   * 
+   * @param traj The trajectory to convert
+   * @param startTimeMs The starting time for this path in ms
+   * @param downtrack Current downtrack distance on route, m
+   * @param crosstrack Current crosstrack on route, m
+   * @param currentSegmentIdx The current route segment index
+   * @param segDowntrack The current downtrack distance relative to the current segment start, m
+   * @param lane The current lane index
+   * @param maxPointsInPath The maximum number of points to include in the path, not to exceed the configured value
+   * 
+   * @return A path of downtrack, crosstrack points associated with time stamps and segments
+   */
+  RoutePath convertToRoutePath(Trajectory traj, long startTimeMs,
+   double downtrack, double crosstrack,
+   int currentSegmentIdx, double segDowntrack, int lane, int maxPointsInPath);
+
   /**
    * Converts the provided trajectory and starting configuration into a list of (downtrack, crosstrack) points with associated time stamps
    * 
@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.guidance.util.trajectoryconverter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact path representation returned by the TrajectoryConverter.
+ * Points are stored column wise in parallel primitive arrays giving constant time indexed access
+ * without allocating an object per point.
+ *
+ * Each point has the same fields as a {@link RoutePointStamped}
+ * A location on the route as (downtrack, crosstrack, UTC time)
+ * The route segment it corresponds to
+ * A downtrack distance along the current segment
+ *
+ * This class is not thread safe
+ */
+public final class RoutePath {
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private double[] downtracks;
+  private double[] crosstracks;
+  private double[] stamps;
+  private double[] segDowntracks;
+  private int[] segmentIdxs;
+  private int size = 0;
+
+  /**
+   * Constructor
+   */
+  public RoutePath() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param initialCapacity The number of points this path can hold before needing to grow
+   */
+  public RoutePath(int initialCapacity) {
+    final int capacity = Math.max(1, initialCapacity);
+    downtracks = new double[capacity];
+    crosstracks = new double[capacity];
+    stamps = new double[capacity];
+    segDowntracks = new double[capacity];
+    segmentIdxs = new int[capacity];
+  }
+
+  /**
+   * Builds a RoutePath containing the provided points
+   *
+   * @param points The points to copy
+   *
+   * @return A new RoutePath
+   */
+  public static RoutePath fromList(List<RoutePointStamped> points) {
+    RoutePath path = new RoutePath(points.size());
+    for (RoutePointStamped point: points) {
+      path.add(point.getDowntrack(), point.getCrosstrack(), point.getStamp(), point.getSegmentIdx(), point.getSegDowntrack());
+    }
+    return path;
+  }
+
+  /**
+   * Adds a point to the end of this path
+   *
+   * @param downtrack The downtrack distance along the route
+   * @param crosstrack The cross track distance
+   * @param time Time in seconds since Jan 1, 1970 00:00:00 UTC
+   * @param segmentIdx The segment index
+   * @param segDowntrack The downtrack distance on the segment in m
+   */
+  public void add(double downtrack, double crosstrack, double time, int segmentIdx, double segDowntrack) {
+    if (size == downtracks.length) {
+      grow();
+    }
+    downtracks[size] = downtrack;
+    crosstracks[size] = crosstrack;
+    stamps[size] = time;
+    segmentIdxs[size] = segmentIdx;
+    segDowntracks[size] = segDowntrack;
+    size++;
+  }
+
+  /**
+   * Removes the point at the provided index shifting all later points back by one
+   *
+   * @param index The index of the point to remove
+   */
+  public void remove(int index) {
+    checkIndex(index);
+    final int numMoved = size - index - 1;
+    if (numMoved > 0) {
+      System.arraycopy(downtracks, index + 1, downtracks, index, numMoved);
+      System.arraycopy(crosstracks, index + 1, crosstracks, index, numMoved);
+      System.arraycopy(stamps, index + 1, stamps, index, numMoved);
+      System.arraycopy(segDowntracks, index + 1, segDowntracks, index, numMoved);
+      System.arraycopy(segmentIdxs, index + 1, segmentIdxs, index, numMoved);
+    }
+    size--;
+  }
+
+  private void grow() {
+    final int capacity = downtracks.length * 2;
+    downtracks = Arrays.copyOf(downtracks, capacity);
+    crosstracks = Arrays.copyOf(crosstracks, capacity);
+    stamps = Arrays.copyOf(stamps, capacity);
+    segDowntracks = Arrays.copyOf(segDowntracks, capacity);
+    segmentIdxs = Arrays.copyOf(segmentIdxs, capacity);
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public double getDowntrack(int index) {
+    checkIndex(index);
+    return downtracks[index];
+  }
+
+  public double getCrosstrack(int index) {
+    checkIndex(index);
+    return crosstracks[index];
+  }
+
+  public double getStamp(int index) {
+    checkIndex(index);
+    return stamps[index];
+  }
+
+  public double getSegDowntrack(int index) {
+    checkIndex(index);
+    return segDowntracks[index];
+  }
+
+  public int getSegmentIdx(int index) {
+    checkIndex(index);
+    return segmentIdxs[index];
+  }
+
+  public void setCrosstrack(int index, double crosstrack) {
+    checkIndex(index);
+    crosstracks[index] = crosstrack;
+  }
+
+  /**
+   * Returns the point at the provided index as a new RoutePointStamped
+   *
+   * @param index The index of the point
+   *
+   * @return A new RoutePointStamped which does not share state with this path
+   */
+  public RoutePointStamped getPoint(int index) {
+    checkIndex(index);
+    return new RoutePointStamped(downtracks[index], crosstracks[index], stamps[index], segmentIdxs[index], segDowntracks[index]);
+  }
+
+  /**
+   * Converts this path to a list of RoutePointStamped
+   *
+   * @return A new list containing a copy of each point in this path
+   */
+  public List<RoutePointStamped> toList() {
+    List<RoutePointStamped> points = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      points.add(new RoutePointStamped(downtracks[i], crosstracks[i], stamps[i], segmentIdxs[i], segDowntracks[i]));
+    }
+    return points;
+  }
+
+  @Override
+  public String toString() {
+    return "RoutePath [size=" + size + "]";
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.guidance.signals;
+
+import org.junit.Test;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class DoublePipelineTest {
+
+    @Test
+    public void testMatchesBoxedPipeline() {
+        Pipeline<Double> boxed = new Pipeline<>(new Deadband(1.0, 0.05), new PidController(Kp, Ki, Kd, 1.0), new MovingAverageFilter(3));
+        DoublePipeline primitive = new DoublePipeline(new Deadband(1.0, 0.05), new PidController(Kp, Ki, Kd, 1.0), new MovingAverageFilter(3));
+        DoubleSignal signal = new DoubleSignal(0.0, 0.0);
+        for (int i = 0; i < 20; i++) {
+            double value = Math.sin(i * 0.3);
+            double timestamp = i * 100.0;
+            Optional<Signal<Double>> expected = boxed.apply(new Signal<>(value, timestamp));
+            signal.set(value, timestamp);
+            assertTrue(primitive.apply(signal));
+            assertEquals(expected.get().getData(), signal.getData(), EPSILON);
+        }
+    }
+
+    @Test
+    public void testMovingAverage() {
+        MovingAverageFilter filter = new MovingAverageFilter(3);
+        DoubleSignal signal = new DoubleSignal(0.0, 0.0);
+        double[] inputs = {3.0, 6.0, 9.0, 12.0, 0.0};
+        double[] outputs = {3.0, 4.5, 6.0, 9.0, 7.0};
+        for (int i = 0; i < inputs.length; i++) {
+            signal.set(inputs[i], i);
+            filter.apply(signal);
+            assertEquals(outputs[i], signal.getData(), EPSILON);
+        }
+        filter.reset();
+        signal.set(1.0, 10);
+        filter.apply(signal);
+        assertEquals(1.0, signal.getData(), EPSILON);
+    }
+
+    @Test
+    public void testPidAntiWindup() {
+        PidController controller = new PidController(0.0, 1.0, 0.0, 10.0);
+        controller.setIntegratorRange(-100.0, 100.0);
+        controller.setOutputRange(-1.0, 1.0);
+        DoubleSignal signal = new DoubleSignal(0.0, 0.0);
+        controller.apply(signal);
+        // A large positive error saturates the output but does not wind up the integrator
+        for (int i = 1; i <= 10; i++) {
+            signal.set(0.0, i);
+            controller.apply(signal);
+            assertEquals(1.0, signal.getData(), EPSILON);
+        }
+        // The output follows the error as soon as it changes sign
+        signal.set(20.0, 11);
+        controller.apply(signal);
+        assertTrue(signal.getData() < 0.0);
+    }
+
+    @Test
+    public void testPidDerivativeFilter() {
+        PidController controller = new PidController(0.0, 0.0, 1.0, 0.0);
+        controller.setDerivativeFilter(3.0);
+        DoubleSignal signal = new DoubleSignal(0.0, 0.0);
+        controller.apply(signal);
+        signal.set(-1.0, 1.0);
+        controller.apply(signal);
+        assertEquals(1.0, signal.getData(), EPSILON);
+        // A step back is only followed at a quarter of the raw derivative with dt / (tau + dt) = 0.25
+        signal.set(-1.0, 2.0);
+        controller.apply(signal);
+        assertEquals(0.75, signal.getData(), EPSILON);
+    }
+
+    @Test
+    public void testAdapters() {
+        Filter<Double> dropAll = new Filter<Double>() {
+            @Override
+            public Optional<Signal<Double>> apply(Signal<Double> signal) {
+                return Optional.empty();
+            }
+
+            @Override
+            public void reset() {}
+
+            @Override
+            public void changeSetpoint(Double setpoint) {}
+        };
+        DoublePipeline pipeline = new DoublePipeline(new MovingAverageFilter(2));
+        pipeline.compose(DoubleFilters.toDoubleFilter(dropAll));
+        assertEquals(2, pipeline.getNumFilters());
+        assertFalse(pipeline.apply(new DoubleSignal(1.0, 0.0)));
+        assertFalse(pipeline.apply(new Signal<>(1.0, 0.0)).isPresent());
+
+        MovingAverageFilter average = new MovingAverageFilter(2);
+        assertSame(average, DoubleFilters.toDoubleFilter(average));
+        Filter<Double> boxed = DoubleFilters.toFilter(new DoublePipeline(average));
+        boxed.apply(new Signal<>(2.0, 0.0));
+        assertEquals(3.0, boxed.apply(new Signal<>(4.0, 1.0)).get().getData(), EPSILON);
+    }
+
+    private static final double Kp = 1.0;
+    private static final double Ki = 0.01;
+    private static final double Kd = 0.001;
+    private static final double EPSILON = 0.0001;
+}
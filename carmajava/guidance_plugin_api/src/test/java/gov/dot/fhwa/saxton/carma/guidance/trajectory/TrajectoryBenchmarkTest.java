@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.guidance.trajectory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.anyObject;
+
+import java.lang.management.ManagementFactory;
+import java.util.SortedSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import gov.dot.fhwa.saxton.carma.guidance.maneuvers.IManeuver;
+import gov.dot.fhwa.saxton.carma.guidance.maneuvers.LateralManeuver;
+import gov.dot.fhwa.saxton.carma.guidance.maneuvers.LongitudinalManeuver;
+import gov.dot.fhwa.saxton.carma.guidance.maneuvers.ManeuverType;
+import gov.dot.fhwa.saxton.carma.guidance.util.ILogger;
+import gov.dot.fhwa.saxton.carma.guidance.util.ILoggerFactory;
+import gov.dot.fhwa.saxton.carma.guidance.util.LoggerManager;
+import gov.dot.fhwa.saxton.carma.guidance.util.intervaltree.Interval;
+import gov.dot.fhwa.saxton.carma.guidance.util.intervaltree.IntervalTree;
+import gov.dot.fhwa.saxton.carma.guidance.util.intervaltree.IntervalTreeFactory;
+
+/**
+ * Benchmark of the maneuver lookups made by the TrajectoryExecutorWorker on every time step.
+ * A trajectory with hundreds of maneuvers is queried at every position along it, once through the
+ * Trajectory and once through the interval trees it used to be built on, and the average time
+ * and allocation per time step is printed.
+ * Benchmarks are excluded from the unit tests and run with the benchmark gradle task.
+ */
+public class TrajectoryBenchmarkTest {
+
+  private static final int NUM_MANEUVERS = 500;
+  private static final double MANEUVER_LENGTH = 2.0;
+  private static final double STEP = 0.1;
+  private static final int ITERATIONS = 20;
+
+  private Trajectory traj;
+  private IntervalTree<LongitudinalManeuver> longitudinalTree;
+  private IntervalTree<LateralManeuver> lateralTree;
+
+  @Before
+  public void setup() {
+    ILoggerFactory mockFact = mock(ILoggerFactory.class);
+    ILogger mockLogger = mock(ILogger.class);
+    when(mockFact.createLoggerForClass(anyObject())).thenReturn(mockLogger);
+    LoggerManager.setLoggerFactory(mockFact);
+
+    traj = new Trajectory(0, NUM_MANEUVERS * MANEUVER_LENGTH);
+    longitudinalTree = IntervalTreeFactory.buildIntervalTree();
+    lateralTree = IntervalTreeFactory.buildIntervalTree();
+    for (int i = 0; i < NUM_MANEUVERS; i++) {
+      double start = i * MANEUVER_LENGTH;
+      double end = start + MANEUVER_LENGTH;
+      LongitudinalManeuver lon = mock(LongitudinalManeuver.class);
+      when(lon.getStartDistance()).thenReturn(start);
+      when(lon.getEndDistance()).thenReturn(end);
+      LateralManeuver lat = mock(LateralManeuver.class);
+      when(lat.getStartDistance()).thenReturn(start);
+      when(lat.getEndDistance()).thenReturn(end);
+
+      assertTrue(traj.addManeuver(lon));
+      assertTrue(traj.addManeuver(lat));
+      longitudinalTree.insert(new Interval<>(lon, start, end));
+      lateralTree.insert(new Interval<>(lat, start, end));
+    }
+  }
+
+  @Test
+  public void benchmarkManeuverLookup() {
+    // Both structures must find the same maneuvers
+    for (double loc = 0; loc < traj.getEndLocation(); loc += STEP) {
+      assertEquals(longitudinalTree.findIntersectionsWith(loc).first().getData(),
+          traj.getManeuverAt(loc, ManeuverType.LONGITUDINAL));
+      assertEquals(lateralTree.findIntersectionsWith(loc).first().getData(),
+          traj.getManeuverAt(loc, ManeuverType.LATERAL));
+    }
+
+    Runnable trajectoryLookup = () -> {
+      int found = 0;
+      for (double loc = 0; loc < traj.getEndLocation(); loc += STEP) {
+        found += lookup(traj.getManeuverAt(loc, ManeuverType.LONGITUDINAL));
+        found += lookup(traj.getManeuverAt(loc, ManeuverType.LATERAL));
+        found += lookup(traj.getManeuverAt(loc, ManeuverType.COMPLEX));
+      }
+      assertTrue(found > 0);
+    };
+    Runnable treeLookup = () -> {
+      int found = 0;
+      for (double loc = 0; loc < traj.getEndLocation(); loc += STEP) {
+        found += lookup(first(longitudinalTree.findIntersectionsWith(loc)));
+        found += lookup(first(lateralTree.findIntersectionsWith(loc)));
+        found += lookup(traj.getManeuverAt(loc, ManeuverType.COMPLEX));
+      }
+      assertTrue(found > 0);
+    };
+
+    int stepsPerRun = (int) Math.ceil(traj.getEndLocation() / STEP);
+    report("Interval tree", treeLookup, stepsPerRun);
+    report("Trajectory", trajectoryLookup, stepsPerRun);
+  }
+
+  @Test
+  public void benchmarkCopy() {
+    Runnable copy = () -> assertEquals(2 * NUM_MANEUVERS, new Trajectory(traj).getManeuvers().size());
+    report("Trajectory copy", copy, 1);
+  }
+
+  private int lookup(IManeuver maneuver) {
+    return maneuver != null ? 1 : 0;
+  }
+
+  private <T> T first(SortedSet<Interval<T>> intervals) {
+    return intervals.isEmpty() ? null : intervals.first().getData();
+  }
+
+  /**
+   * Prints the average time and the bytes allocated by the current thread for each step of the action
+   */
+  private void report(String name, Runnable action, int stepsPerRun) {
+    for (int i = 0; i < ITERATIONS; i++) {
+      action.run();
+    }
+
+    long allocatedBefore = allocatedBytes();
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      action.run();
+    }
+    long elapsed = System.nanoTime() - start;
+    long allocated = allocatedBytes() - allocatedBefore;
+
+    long steps = (long) ITERATIONS * stepsPerRun;
+    System.out.println(String.format("%s: %d ns and %d bytes per step with %d maneuvers", name, elapsed / steps,
+        allocatedBefore < 0 ? -1 : allocated / steps, 2 * NUM_MANEUVERS));
+  }
+
+  /**
+   * Returns the bytes allocated by the current thread or -1 if the JVM does not support allocation measurement
+   */
+  private long allocatedBytes() {
+    if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+      return -1;
+    }
+    com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.guidance.util.trajectoryconverter;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the RoutePath class
+ */
+public class RoutePathTest {
+
+  @Test
+  public void testAddAndGet() throws Exception {
+    RoutePath path = new RoutePath(1);
+    assertTrue(path.isEmpty());
+    // Add enough points to force the path to grow
+    for (int i = 0; i < 10; i++) {
+      path.add(i * 2.0, -i, 100.0 + i * 0.1, i / 3, i * 0.5);
+    }
+    assertEquals(10, path.size());
+    assertEquals(8.0, path.getDowntrack(4), 0.0000001);
+    assertEquals(-4.0, path.getCrosstrack(4), 0.0000001);
+    assertEquals(100.4, path.getStamp(4), 0.0000001);
+    assertEquals(1, path.getSegmentIdx(4));
+    assertEquals(2.0, path.getSegDowntrack(4), 0.0000001);
+
+    path.setCrosstrack(4, 1.5);
+    assertEquals(1.5, path.getCrosstrack(4), 0.0000001);
+
+    RoutePointStamped point = path.getPoint(4);
+    assertEquals(8.0, point.getDowntrack(), 0.0000001);
+    assertEquals(1.5, point.getCrosstrack(), 0.0000001);
+    assertEquals(100.4, point.getStamp(), 0.0000001);
+    assertEquals(1, point.getSegmentIdx());
+    assertEquals(2.0, point.getSegDowntrack(), 0.0000001);
+  }
+
+  @Test
+  public void testRemove() throws Exception {
+    RoutePath path = new RoutePath();
+    for (int i = 0; i < 5; i++) {
+      path.add(i, 0.0, i, 0, i);
+    }
+    path.remove(2);
+    assertEquals(4, path.size());
+    assertEquals(1.0, path.getDowntrack(1), 0.0000001);
+    assertEquals(3.0, path.getDowntrack(2), 0.0000001);
+    path.remove(3);
+    assertEquals(3, path.size());
+    assertEquals(3.0, path.getDowntrack(2), 0.0000001);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testOutOfBounds() throws Exception {
+    RoutePath path = new RoutePath();
+    path.add(0.0, 0.0, 0.0, 0, 0.0);
+    path.getDowntrack(1);
+  }
+
+  @Test
+  public void testListConversion() throws Exception {
+    List<RoutePointStamped> points = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      points.add(new RoutePointStamped(i, i + 1, i + 2, i + 3, i + 4));
+    }
+    List<RoutePointStamped> result = RoutePath.fromList(points).toList();
+    assertEquals(3, result.size());
+    for (int i = 0; i < 3; i++) {
+      assertEquals(points.get(i).getDowntrack(), result.get(i).getDowntrack(), 0.0000001);
+      assertEquals(points.get(i).getCrosstrack(), result.get(i).getCrosstrack(), 0.0000001);
+      assertEquals(points.get(i).getStamp(), result.get(i).getStamp(), 0.0000001);
+      assertEquals(points.get(i).getSegmentIdx(), result.get(i).getSegmentIdx());
+      assertEquals(points.get(i).getSegDowntrack(), result.get(i).getSegDowntrack(), 0.0000001);
+      // Converted points do not share state with the original points
+      assertFalse(points.get(i) == result.get(i));
+    }
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.interfacemgr;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the drivers known to the InterfaceWorker.
+ * Drivers are kept in the order they were registered, and each capability name is indexed to the drivers
+ * providing it, so both driver lookups by name and capability lookups take constant time. Changes are made
+ * by building a new snapshot, which lets readers use a snapshot without any locking.
+ */
+public final class DriverRegistry {
+
+    public static final DriverRegistry EMPTY = new DriverRegistry(Collections.<DriverInfo>emptyList());
+
+    private static final int[] NO_DRIVERS = new int[0];
+
+    private final List<DriverInfo>              drivers_;
+    private final Map<String, Integer>          indexByName_ = new HashMap<>();
+    //for each driver, the first of its fully qualified capabilities with a given capability name
+    private final List<Map<String, String>>     capabilitiesByName_ = new ArrayList<>();
+    //capability name -> indices of the drivers providing it, in registration order
+    private final Map<String, int[]>            driversByCapability_ = new HashMap<>();
+
+    private DriverRegistry(List<DriverInfo> drivers) {
+        drivers_ = Collections.unmodifiableList(drivers);
+
+        Map<String, List<Integer>> driversByCapability = new HashMap<>();
+        for (int i = 0;  i < drivers.size();  ++i) {
+            DriverInfo driver = drivers.get(i);
+            indexByName_.put(driver.getName(), i);
+
+            Map<String, String> caps = new HashMap<>();
+            if (driver.getCapabilities() != null) {
+                for (String cap : driver.getCapabilities()) {
+                    String name = capabilityName(cap);
+                    if (!caps.containsKey(name)) {
+                        caps.put(name, cap);
+                        driversByCapability.computeIfAbsent(name, (k) -> new ArrayList<>()).add(i);
+                    }
+                }
+            }
+            capabilitiesByName_.add(caps);
+        }
+
+        for (Map.Entry<String, List<Integer>> entry : driversByCapability.entrySet()) {
+            List<Integer> indices = entry.getValue();
+            int[] array = new int[indices.size()];
+            for (int i = 0;  i < array.length;  ++i) {
+                array[i] = indices.get(i);
+            }
+            driversByCapability_.put(entry.getKey(), array);
+        }
+    }
+
+    /**
+     * Returns a new registry with the given driver added, or replacing the known driver of the same name
+     * while keeping its position in the registration order.
+     *
+     * @param driver - the driver to store
+     * @return - the updated registry
+     */
+    public DriverRegistry withDriver(DriverInfo driver) {
+        List<DriverInfo> drivers = new ArrayList<>(drivers_);
+        Integer index = indexByName_.get(driver.getName());
+        if (index != null) {
+            drivers.set(index, driver);
+        }else {
+            drivers.add(driver);
+        }
+        return new DriverRegistry(drivers);
+    }
+
+    /**
+     * Returns a new registry without the named driver.
+     *
+     * @param driverName - unique ID of the driver
+     * @return - the updated registry, or this registry if the driver is not known
+     */
+    public DriverRegistry withoutDriver(String driverName) {
+        Integer index = indexByName_.get(driverName);
+        if (index == null) {
+            return this;
+        }
+        List<DriverInfo> drivers = new ArrayList<>(drivers_);
+        drivers.remove(index.intValue());
+        return new DriverRegistry(drivers);
+    }
+
+    /**
+     * @param driverName - unique ID of the driver
+     * @return - the driver of that name, or null if it is not known
+     */
+    public DriverInfo getDriver(String driverName) {
+        Integer index = indexByName_.get(driverName);
+        return (index == null) ? null : drivers_.get(index);
+    }
+
+    /**
+     * @return - all known drivers in registration order
+     */
+    public List<DriverInfo> getDrivers() {
+        return drivers_;
+    }
+
+    public int size() {
+        return drivers_.size();
+    }
+
+    /**
+     * Finds the drivers that each provide all of the requested capabilities, see {@link InterfaceWorker#getDrivers}
+     * for the format of the requests.
+     *
+     * @param requestedCapabilities - a list of capabilities that must be met (inclusive)
+     * @return - the fully qualified capabilities of the matching drivers, grouped by driver in registration order
+     * and in request order within each driver
+     */
+    public List<String> findCapabilities(List<String> requestedCapabilities) {
+        List<String> result = new ArrayList<>();
+        if (requestedCapabilities.isEmpty()) {
+            return result;
+        }
+
+        //parse the requests once rather than once per driver
+        int numRequests = requestedCapabilities.size();
+        DriverCategory[] categories = new DriverCategory[numRequests];
+        String[] names = new String[numRequests];
+        for (int req = 0;  req < numRequests;  ++req) {
+            String[] items = requestedCapabilities.get(req).split("/");
+            categories[req] = (items.length > 1) ? DriverCategory.getCat(items[items.length - 2]) : DriverCategory.UNDEFINED;
+            names[req] = items[items.length - 1];
+        }
+
+        //only the drivers providing the first requested capability can satisfy the request
+        int[] candidates = driversByCapability_.getOrDefault(names[0], NO_DRIVERS);
+        for (int index : candidates) {
+            DriverInfo driver = drivers_.get(index);
+            Map<String, String> caps = capabilitiesByName_.get(index);
+            int resultSize = result.size();
+
+            for (int req = 0;  req < numRequests;  ++req) {
+                String cap = driver.hasCategory(categories[req]) ? caps.get(names[req]) : null;
+                if (cap == null) {
+                    //this driver cannot provide this capability, so discard what it has matched so far
+                    result.subList(resultSize, result.size()).clear();
+                    break;
+                }
+                result.add(cap);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return - the capability name of a fully qualified capability, i.e. the last element of its path
+     */
+    private static String capabilityName(String capability) {
+        String[] items = capability.split("/");
+        return (items.length > 0) ? items[items.length - 1] : "";
+    }
+}
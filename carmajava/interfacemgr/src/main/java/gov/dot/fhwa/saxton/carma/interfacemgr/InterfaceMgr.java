@@ -30,6 +30,7 @@ import org.ros.exception.RemoteException;
 import org.ros.message.MessageListener;
 import org.ros.namespace.GraphName;
 import org.ros.node.ConnectedNode;
+import org.ros.node.Node;
 import org.ros.node.parameter.ParameterTree;
 import org.ros.node.service.ServiceClient;
 import org.ros.node.service.ServiceResponseBuilder;
@@ -400,6 +401,13 @@ public class  InterfaceMgr extends SaxtonBaseNode implements IInterfaceMgr {
         connectedNode_.shutdown();
     }
 
+    @Override
+    public void onShutdown(Node node) {
+        if (worker_ != null) {
+            worker_.shutdown();
+        }
+    }
+
     @Override
     public void errorShutdown(String msg) {
         shutdownInitiated_ = true;
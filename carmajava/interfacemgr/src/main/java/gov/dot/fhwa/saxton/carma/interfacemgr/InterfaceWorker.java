@@ -20,13 +20,23 @@ import gov.dot.fhwa.saxton.carma.rosutils.AlertSeverity;
 import gov.dot.fhwa.saxton.carma.rosutils.SaxtonLogger;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import gov.dot.fhwa.saxton.carma.rosutils.SaxtonBaseNode;
 
 public class InterfaceWorker {
 
-    protected ArrayList<DriverInfo>         drivers_ = new ArrayList<DriverInfo>();
+    //ms to wait after a broken bond before checking the state of its driver
+    protected static final long             BOND_RECHECK_DELAY = 1000;
+
+    //drivers are replaced by whole snapshots so that service calls can read them without locking
+    protected AtomicReference<DriverRegistry> drivers_ = new AtomicReference<>(DriverRegistry.EMPTY);
+    protected ScheduledExecutorService      bondChecker_;
     protected int                           waitTime_ = 10;  //seconds that we must wait after last driver registered
     protected IInterfaceMgr                 mgr_;
     protected SaxtonLogger                  log_;
@@ -40,6 +50,18 @@ public class InterfaceWorker {
         mgr_ = mgr;
         log_ = log;
         startedWaiting_ = System.currentTimeMillis();
+        bondChecker_ = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+            Thread thread = new Thread(runnable, "InterfaceWorker bond checker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stops the checks of broken bonds which have not run yet.
+     */
+    public void shutdown() {
+        bondChecker_.shutdownNow();
     }
 
     /**
@@ -70,15 +92,15 @@ public class InterfaceWorker {
         String name = newDriver.getName();
 
         //if we already know about this driver then
-        int index = getDriverIndex(name);
-        if (index >= 0) {
+        DriverInfo knownDriver = drivers_.get().getDriver(name);
+        if (knownDriver != null) {
 
             //if its info has changed then
-            if (!newDriver.equalCategoryAndState(drivers_.get(index))) {
+            if (!newDriver.equalCategoryAndState(knownDriver)) {
                 log_.debug("DRIVER", "InterfaceWorker.handleNewDriverStatus: status changed for " + name);
                 //record the updates. Will need to fetch new driver api as well
                 newDriver.setCapabilities(mgr_.getDriverApi(name));
-                drivers_.set(index, newDriver);
+                drivers_.updateAndGet((registry) -> registry.withDriver(newDriver));
                 if ((newDriver.isPosition() || newDriver.isLonController())
                   && (newDriver.getState() == DriverState.FAULT
                   || newDriver.getState() == DriverState.OFF)) {
@@ -99,7 +121,7 @@ public class InterfaceWorker {
 
                 // Only operational drivers are considered available for use
                 if (newDriver.getState() == DriverState.OPERATIONAL) {
-                    drivers_.add(newDriver);
+                    drivers_.updateAndGet((registry) -> registry.withDriver(newDriver));
                     //request InterfaceMgr to bind with it
                     mgr_.bindWithDriver(name);
 
@@ -115,7 +137,7 @@ public class InterfaceWorker {
 
                 //else if it is a position driver in a degraded state, allow it
                 }else if(newDriver.getState() == DriverState.DEGRADED  &&  newDriver.isPosition()) {
-                    drivers_.add(newDriver);
+                    drivers_.updateAndGet((registry) -> registry.withDriver(newDriver));
                     mgr_.bindWithDriver(name);
                     positionReady_.set(true);
                     startedWaiting_ = System.currentTimeMillis();
@@ -131,33 +153,49 @@ public class InterfaceWorker {
      * Updates the status of a driver that has broken its bond.  A broken bond simply indicates a status change for
      * that driver; it may still be alive and functioning, but at a different level of capability (it may have even
      * corrected a previous deficiency, e.g. gone from DEGRADED to fully functional).
+     * The new status of the driver is checked a second later, once its latest status info has been published to
+     * the discovery topic and therefore updated in our internal "database", so the caller is not blocked.
      *
      * @param driverName - unique ID of the driver
+     * @return - the pending check of the driver's new status
      */
-    public void handleBrokenBond(String driverName) throws IndexOutOfBoundsException {
+    public ScheduledFuture<?> handleBrokenBond(String driverName) throws IndexOutOfBoundsException {
 
-        //wait a second to make sure that the latest status info from that driver has been published to the
-        // discovery topic and therefore updated in our internal "database"
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
+        if (drivers_.get().getDriver(driverName) == null) {
+            String msg = "InterfaceWorker.handleBrokenBond can't find driver" + driverName + ". ABORTING.";
+            log_.warn("DRIVER", msg);
+            throw new IndexOutOfBoundsException(msg);
         }
 
+        return bondChecker_.schedule(() -> {
+            try {
+                checkBrokenBond(driverName);
+            } catch (Exception e) {
+                log_.error("DRIVER", "InterfaceWorker.handleBrokenBond failed to check driver " + driverName, e);
+            }
+        }, BOND_RECHECK_DELAY, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Updates the status of a driver that has broken its bond from the latest status info it has published.
+     *
+     * @param driverName - unique ID of the driver
+     */
+    protected void checkBrokenBond(String driverName) {
+
         //look up the driver and determine its new set of properties (they will have been stored via the
         // /driver_discovery topic update)
-        int index = getDriverIndex(driverName);
-        if (index < 0) {
-            String msg = "InterfaceWorker.handleBrokenBond can't find driver" + driverName + ". ABORTING.";
-            log_.warn("DRIVER", msg);
-            throw new IndexOutOfBoundsException(msg);
+        DriverInfo driver = drivers_.get().getDriver(driverName);
+        if (driver == null) {
+            log_.warn("DRIVER", "InterfaceWorker.handleBrokenBond: driver " + driverName + " is no longer known.");
+            return;
         }
-        DriverInfo driver = drivers_.get(index);
 
         //if functionality is totally unavailable then
         DriverState state = driver.getState();
         if (state == DriverState.FAULT  ||  state == DriverState.OFF) {
             //remove the driver from the list of available drivers
-            drivers_.remove(index);
+            drivers_.updateAndGet((registry) -> registry.withoutDriver(driverName));
             log_.warn("DRIVER", "InterfaceWorker.handleBrokenBond: driver " + driverName + " is no longer available.");
         }
 
@@ -214,57 +252,13 @@ public class InterfaceWorker {
      * all of the requestedCapabilities
      */
     public List<String> getDrivers(List<String> requestedCapabilities) {
-        List<String> result = new ArrayList<String>();
 
-        //if the system is ready for operation then
+        //if the system is ready for operation then look the capabilities up in the current snapshot
         if (systemOperational_.get()) {
-
-            //loop through all known drivers
-            for (int driverIndex = 0;  driverIndex < drivers_.size();  ++driverIndex) {
-                DriverInfo driver = drivers_.get(driverIndex);
-                List<String> driverCaps = driver.getCapabilities();
-                List<String> tentativeResult = new ArrayList<>();
-
-                //loop through all requested capabilities
-                boolean foundAllCapabilities = true;
-                for (int req = 0;  req < requestedCapabilities.size();  ++req) {
-
-                    //get the requested driver category, if any, and the requested capability
-                    String[] items = requestedCapabilities.get(req).split("/");
-                    DriverCategory cat = DriverCategory.UNDEFINED;
-                    if (items.length > 1) {
-                        cat = DriverCategory.getCat(items[items.length - 2]);
-                    }
-                    String reqCapability = items[items.length - 1];
-
-                    //if this driver cannot provide this capability then break out of loop
-                    boolean foundThisCapability = false;
-                    if (driver.hasCategory(cat)) {
-                        for (int capIndex = 0;  capIndex < driverCaps.size();  ++capIndex) {
-                            String[] capBreakout = driverCaps.get(capIndex).split("/");
-                            String driverCap = capBreakout[capBreakout.length - 1];
-                            if (reqCapability.equals(driverCap)) {
-                                foundThisCapability = true;
-                                tentativeResult.add(driverCaps.get(capIndex));
-                                break;
-                            }
-                        }
-                    }
-                    if (!foundThisCapability) {
-                        foundAllCapabilities = false;
-                        break;
-                    }
-                }
-
-                //if the driver is satisfactory then
-                if (foundAllCapabilities) {
-                    //add them all to the return list
-                    result.addAll(tentativeResult);
-                }
-            }
+            return drivers_.get().findCapabilities(requestedCapabilities);
         }
 
-        return result;
+        return new ArrayList<String>();
     }
 
     /**
@@ -315,25 +309,4 @@ public class InterfaceWorker {
     public long timeSinceSystemReady() {
     	return System.currentTimeMillis() - systemReadyTime_;
     }
-
-    //////////
-
-    /**
-     * Returns the index in the drivers_ array that matches the name of the given driver.
-     *
-     * @param givenName - the one we are looking for
-     * @return - index of the driver that matches given
-     */
-    protected int getDriverIndex(String givenName) {
-
-        if (drivers_.size() > 0) {
-            for (int i = 0;  i < drivers_.size();  ++i) {
-                if (drivers_.get(i).getName().equals(givenName)) {
-                    return i;
-                }
-            }
-        }
-
-        return -1;
-    }
 }
@@ -24,6 +24,8 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -286,6 +288,113 @@ public class InterfaceWorkerTest {
         w_.handleBrokenBond("sensor1"); //this should write a message to the log AND THROW AN EXCEPTION
     }
 
+    @Test
+    public void handleBrokenBondDoesNotBlock() throws Exception {
+        log_.info("///// Entering handleBrokenBondDoesNotBlock.");
+
+        addNewDrivers();
+        addControllerDriver();
+
+        //the bond check is scheduled rather than run on the calling thread
+        long start = System.currentTimeMillis();
+        ScheduledFuture<?> check = w_.handleBrokenBond("sensor1");
+        assertTrue(System.currentTimeMillis() - start < 500);
+
+        //the driver reports a FAULT before the check runs, so it is removed once the check completes
+        DriverInfo sensor1 = new DriverInfo();
+        sensor1.setSensor(true);
+        sensor1.setName("sensor1");
+        sensor1.setState(DriverState.FAULT);
+        w_.handleNewDriverStatus(sensor1);
+        assertNotNull(w_.drivers_.get().getDriver("sensor1"));
+
+        check.get(5, TimeUnit.SECONDS);
+        assertNull(w_.drivers_.get().getDriver("sensor1"));
+        assertNotNull(w_.drivers_.get().getDriver("position1"));
+    }
+
+    @Test
+    public void testGetDriversFleet() throws Exception {
+        log_.info("///// Entering testGetDriversFleet.");
+
+        final int numDrivers = 500;
+        IInterfaceMgr fleetMgr = new FakeInterfaceMgr() {
+            @Override
+            public List<String> getDriverApi(String driverName) {
+                List<String> caps = new ArrayList<>();
+                caps.add(driverName + "/status");
+                //every other driver also reports a position, every tenth is a radar as well
+                int id = Integer.parseInt(driverName.substring(driverName.lastIndexOf('/') + 2));
+                if (id % 2 == 0) {
+                    caps.add(driverName + "/latitude");
+                    caps.add(driverName + "/longitude");
+                }
+                if (id % 10 == 0) {
+                    caps.add(driverName + "/tracked_objects");
+                }
+                return caps;
+            }
+        };
+        w_ = new InterfaceWorker(fleetMgr, log_);
+        w_.setWaitTime(0);
+
+        for (int i = 0;  i < numDrivers;  ++i) {
+            DriverInfo driver = new DriverInfo();
+            if (i % 10 == 0) {
+                driver.setName("mock/sensor/d" + i);
+                driver.setSensor(true);
+            }else if (i == 1) {
+                driver.setName("mock/controller/d" + i);
+                driver.setLonController(true);
+            }else {
+                driver.setName("mock/position/d" + i);
+                driver.setPosition(true);
+            }
+            driver.setState(DriverState.OPERATIONAL);
+            w_.handleNewDriverStatus(driver);
+        }
+        assertEquals(numDrivers, w_.drivers_.get().size());
+
+        Thread.sleep(5);
+        assertTrue(w_.isSystemReady());
+
+        List<String> capabilities = new ArrayList<>();
+        capabilities.add("status");
+        List<String> res = w_.getDrivers(capabilities);
+        assertEquals(numDrivers, res.size());
+        assertEquals("mock/sensor/d0/status", res.get(0));
+        assertEquals("mock/position/d499/status", res.get(numDrivers - 1));
+
+        //only the position drivers with even ids provide both, in registration order then request order
+        capabilities.clear();
+        capabilities.add("position/longitude");
+        capabilities.add("latitude");
+        res = w_.getDrivers(capabilities);
+        assertEquals(2 * 200, res.size());
+        assertEquals("mock/position/d2/longitude", res.get(0));
+        assertEquals("mock/position/d2/latitude", res.get(1));
+        assertEquals("mock/position/d498/latitude", res.get(res.size() - 1));
+
+        //the radars are only reachable as sensors
+        capabilities.clear();
+        capabilities.add("sensor/tracked_objects");
+        assertEquals(numDrivers / 10, w_.getDrivers(capabilities).size());
+        capabilities.clear();
+        capabilities.add("position/tracked_objects");
+        assertEquals(0, w_.getDrivers(capabilities).size());
+
+        //repeated lookups across the whole fleet stay cheap
+        capabilities.clear();
+        capabilities.add("latitude");
+        capabilities.add("longitude");
+        long start = System.nanoTime();
+        for (int i = 0;  i < 1000;  ++i) {
+            assertEquals(2 * (numDrivers / 2), w_.getDrivers(capabilities).size());
+        }
+        log_.info("1000 capability lookups over " + numDrivers + " drivers took "
+                + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
     @After
     public void tearDown() throws Exception {
     }
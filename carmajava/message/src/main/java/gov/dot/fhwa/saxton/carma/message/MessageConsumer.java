@@ -21,7 +21,10 @@ import cav_srvs.*;
 import gov.dot.fhwa.saxton.carma.message.factory.DSRCMessageFactory;
 import gov.dot.fhwa.saxton.carma.message.factory.IMessage;
 import gov.dot.fhwa.saxton.carma.message.factory.MessageContainer;
+import gov.dot.fhwa.saxton.carma.message.helper.MessagePipeline;
+import gov.dot.fhwa.saxton.carma.message.helper.MessagePipeline.OverflowPolicy;
 import gov.dot.fhwa.saxton.carma.message.helper.MessageStatistic;
+import gov.dot.fhwa.saxton.carma.message.uper.J2735MessageFrame;
 import gov.dot.fhwa.saxton.carma.rosutils.AlertSeverity;
 import gov.dot.fhwa.saxton.carma.rosutils.SaxtonBaseNode;
 import gov.dot.fhwa.saxton.carma.rosutils.SaxtonLogger;
@@ -29,9 +32,9 @@ import gov.dot.fhwa.saxton.carma.rosutils.RosServiceSynchronizer;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Set;
 
 import org.ros.message.MessageListener;
 import org.ros.node.parameter.ParameterTree;
@@ -51,6 +54,7 @@ import j2735_msgs.MapData;
 import org.ros.concurrent.CancellableLoop;
 import org.ros.namespace.GraphName;
 import org.ros.node.ConnectedNode;
+import org.ros.node.Node;
 import org.ros.node.topic.Publisher;
 
 //Services
@@ -107,8 +111,12 @@ public class MessageConsumer extends SaxtonBaseNode {
 	// Recoding message frequency
 	protected MessageStatistic messageCounters = null;
 	
-	// Messages to be encoded
-	protected BlockingQueue<MessageContainer> dsrcMessageQueue = new LinkedBlockingQueue<>();
+	// Codecs which are reused by each pipeline worker
+	protected DSRCMessageFactory codecFactory_ = null;
+	
+	// Workers for decoding incoming byte arrays and encoding outgoing messages
+	protected MessagePipeline<ByteArray> decodePipeline_ = null;
+	protected MessagePipeline<MessageContainer> encodePipeline_ = null;
 
 	// Configure parameters
     protected boolean publishOutboundBsm_ = true;
@@ -116,6 +124,11 @@ public class MessageConsumer extends SaxtonBaseNode {
     protected boolean publishOutboundMobilityPath_ = true;
     protected boolean publishOutboundMobilityResponse_ = true;
     protected boolean publishOutboundMobilityOperation_ = true;
+    protected Set<String> javaCodecTypes_ = new HashSet<>(); // message types encoded and decoded by the pure Java UPER codec
+    protected int decodeWorkerCount_ = 2;
+    protected int encodeWorkerCount_ = 1;
+    protected int pipelineQueueCapacity_ = 100;
+    protected long pipelineStatisticPeriod_ = 5000; // ms
     
 	@Override
 	public GraphName getDefaultNodeName() {
@@ -137,12 +150,21 @@ public class MessageConsumer extends SaxtonBaseNode {
             publishOutboundMobilityPath_ = param.getBoolean("~/publish_outbound_mobility_path", true);
             publishOutboundMobilityResponse_ = param.getBoolean("~/publish_outbound_mobility_response", true);
             publishOutboundMobilityOperation_ = param.getBoolean("~/publish_outbound_mobility_operation", true);
+            for(Object type : param.getList("~/java_codec_message_types", new ArrayList<>())) {
+                javaCodecTypes_.add(type.toString());
+            }
+            decodeWorkerCount_ = param.getInteger("~/decode_worker_count", 2);
+            encodeWorkerCount_ = param.getInteger("~/encode_worker_count", 1);
+            pipelineQueueCapacity_ = param.getInteger("~/pipeline_queue_capacity", 100);
         }catch (Exception e) {
             log_.warn("STARTUP", "Error reading Message parameters. Using defaults.");
         }
         log_.debug("Read params to publish outbound: BSM = " + publishOutboundBsm_ + ", REQUEST = " + publishOutboundMobilityRequest_);
         log_.debug("Read params to publish outbound: PATH = " + publishOutboundMobilityPath_ + ", RESPONSE = " + publishOutboundMobilityResponse_);
         log_.debug("Read params to publish outbound: OPERATION = " + publishOutboundMobilityOperation_);
+        log_.debug("Read params to use java codec for message types: " + javaCodecTypes_);
+        log_.debug("Read params for pipelines: DECODE WORKERS = " + decodeWorkerCount_ + ", ENCODE WORKERS = " + encodeWorkerCount_
+                + ", QUEUE CAPACITY = " + pipelineQueueCapacity_);
 
         //initialize message statistic
 		messageCounters = new MessageStatistic(connectedNode_, log_);
@@ -256,53 +278,33 @@ public class MessageConsumer extends SaxtonBaseNode {
 		    log_.error("Cannot initialize necessary subscribers.");
 		    handleException(new RosRuntimeException("Cannot initialize necessary subscribers."));
 		}
-        bsmSub_.addMessageListener((bsm) -> dsrcMessageQueue.add(new MessageContainer("BSM", bsm)));
-        mobilityReqSub_.addMessageListener((req) -> dsrcMessageQueue.add(new MessageContainer("MobilityRequest", req)));
-        mobilityPathSub_.addMessageListener((path) -> dsrcMessageQueue.add(new MessageContainer("MobilityPath", path)));
-        mobilityResponseSub_.addMessageListener((response) -> dsrcMessageQueue.add(new MessageContainer("MobilityResponse", response)));
-        mobilityOperationSub_.addMessageListener((op) -> dsrcMessageQueue.add(new MessageContainer("MobilityOperation", op)));
+		
+		//initialize decode and encode pipelines
+		codecFactory_ = new DSRCMessageFactory(connectedNode_, log_, connectedNode_.getTopicMessageFactory());
+		decodePipeline_ = new MessagePipeline<>("MessageDecoder", decodeWorkerCount_, pipelineQueueCapacity_, this::decodeAndPublish, log_);
+		encodePipeline_ = new MessagePipeline<>("MessageEncoder", encodeWorkerCount_, pipelineQueueCapacity_, this::encodeAndPublish, log_);
+		// Only the latest BSM, path, MAP and SPAT from a sender is useful but mobility negotiation must never be dropped
+		for(MessagePipeline<?> pipeline : Arrays.asList(decodePipeline_, encodePipeline_)) {
+		    pipeline.setDefaultOverflowPolicy(OverflowPolicy.BLOCK);
+		    pipeline.setOverflowPolicy("BSM", OverflowPolicy.DROP_OLDEST_FROM_SENDER);
+		    pipeline.setOverflowPolicy("MobilityPath", OverflowPolicy.DROP_OLDEST_FROM_SENDER);
+		    pipeline.setOverflowPolicy("MAP", OverflowPolicy.DROP_OLDEST_FROM_SENDER);
+		    pipeline.setOverflowPolicy("SPAT", OverflowPolicy.DROP_OLDEST_FROM_SENDER);
+		}
+		
+        // Outgoing messages all come from the host vehicle so they are kept in order per message type
+        bsmSub_.addMessageListener((bsm) -> submitOutgoing(new MessageContainer("BSM", bsm)));
+        mobilityReqSub_.addMessageListener((req) -> submitOutgoing(new MessageContainer("MobilityRequest", req)));
+        mobilityPathSub_.addMessageListener((path) -> submitOutgoing(new MessageContainer("MobilityPath", path)));
+        mobilityResponseSub_.addMessageListener((response) -> submitOutgoing(new MessageContainer("MobilityResponse", response)));
+        mobilityOperationSub_.addMessageListener((op) -> submitOutgoing(new MessageContainer("MobilityOperation", op)));
         inboundSub_.addMessageListener((msg) -> {
 		    messageCounters.onMessageReceiving(msg.getMessageType());
-		    IMessage<?> message = DSRCMessageFactory.getMessage(msg.getMessageType(), connectedNode_, log_, connectedNode_.getTopicMessageFactory());
-		    if(message != null) {
-		        MessageContainer decodedMessage = message.decode(msg);
-	            if(decodedMessage.getMessage() != null) {
-	                switch (decodedMessage.getType()) {
-	                case "BSM":
-	                    bsmPub_.publish((BSM) decodedMessage.getMessage());
-	                    break;
-	                case "MobilityRequest":
-	                    mobilityReqPub_.publish((MobilityRequest) decodedMessage.getMessage());
-	                    log_.debug("V2V", "Received & decoded MobilityRequest, plan ID = " +
-	                                ((MobilityRequest) decodedMessage.getMessage()).getHeader().getPlanId());
-	                    break;
-	                case "MobilityPath":
-	                    mobilityPathPub_.publish((MobilityPath) decodedMessage.getMessage());
-	                    log_.debug("V2V", "Received & decoded MobilityPath, plan ID = " +
-	                                ((MobilityPath) decodedMessage.getMessage()).getHeader().getPlanId());
-	                    break;
-	                case "MobilityResponse":
-	                    mobilityResponsePub_.publish((MobilityResponse) decodedMessage.getMessage());
-	                    log_.debug("V2V", "Received & decoded MobilityResponse, plan ID = " +
-								((MobilityResponse) decodedMessage.getMessage()).getHeader().getPlanId());
-						break;
-	                case "MobilityOperation":
-	                    mobilityOperationPub_.publish((MobilityOperation) decodedMessage.getMessage());
-	                    log_.debug("V2V", "Received & decoded MobilityOperation, plan ID = " +
-								((MobilityOperation) decodedMessage.getMessage()).getHeader().getPlanId());
-						break;
-	                case "MAP":
-	                    MapData map = (MapData) decodedMessage.getMessage();
-	                    map.getHeader().setStamp(connectedNode_.getCurrentTime());
-	                    mapPub_.publish(map);
-                            break;
-	                case "SPAT":
-	                    spatPub_.publish((SPAT) decodedMessage.getMessage());
-                            break;
-	                default:
-	                    log_.warn("Cannot find correct publisher for " + decodedMessage.getType());
-	                }
-	            }
+		    try {
+		        decodePipeline_.submit(msg.getMessageType(), J2735MessageFrame.peekSenderId(msg.getContent()), msg);
+		    } catch(InterruptedException e) {
+		        log_.warn("Queueing incoming " + msg.getMessageType() + " has been interrupted.");
+		        Thread.currentThread().interrupt();
 		    }
 		});
 		
@@ -310,32 +312,108 @@ public class MessageConsumer extends SaxtonBaseNode {
 		connectedNode_.executeCancellableLoop(new CancellableLoop() {
 			@Override
 			protected void loop() throws InterruptedException {
-			    MessageContainer outgoingMessage = dsrcMessageQueue.take();
-			    String mtype = outgoingMessage.getType();
-			    if((mtype.equals("BSM")             && publishOutboundBsm_) ||
-				   (mtype.equals("MobilityRequest") && publishOutboundMobilityRequest_) ||
-				   (mtype.equals("MobilityPath") && publishOutboundMobilityPath_) ||
-				   (mtype.equals("MobilityResponse") && publishOutboundMobilityResponse_) ||
-				   (mtype.equals("MobilityOperation") && publishOutboundMobilityOperation_)) {
-			        IMessage<?> message = DSRCMessageFactory.getMessage(outgoingMessage.getType(), connectedNode_, log_, connectedNode_.getTopicMessageFactory());
-                    if(message != null) {
-                        log_.debug("Found message factory on type " + outgoingMessage.getType());
-                        MessageContainer encodedMessage = message.encode(outgoingMessage.getMessage());
-                        if(encodedMessage.getMessage() != null) {
-                            log_.debug("We encode " + outgoingMessage.getType());
-                            messageCounters.onMessageSending(((ByteArray) encodedMessage.getMessage()).getMessageType());
-                            outboundPub_.publish((ByteArray) encodedMessage.getMessage());
-                        } else {
-                            log_.warn("We failed to encode " + outgoingMessage.getType());
-                        }
-                    }
-			        
-			    }
+			    Thread.sleep(pipelineStatisticPeriod_);
+			    log_.debug(decodePipeline_.getSummary());
+			    log_.debug(encodePipeline_.getSummary());
 			}
 		});
 		
 	}
 	
+	/**
+	 * Queues an outgoing message for encoding if publishing its type is enabled
+	 */
+	protected void submitOutgoing(MessageContainer outgoingMessage) {
+	    String mtype = outgoingMessage.getType();
+	    if((mtype.equals("BSM")             && publishOutboundBsm_) ||
+	       (mtype.equals("MobilityRequest") && publishOutboundMobilityRequest_) ||
+	       (mtype.equals("MobilityPath") && publishOutboundMobilityPath_) ||
+	       (mtype.equals("MobilityResponse") && publishOutboundMobilityResponse_) ||
+	       (mtype.equals("MobilityOperation") && publishOutboundMobilityOperation_)) {
+	        try {
+	            encodePipeline_.submit(mtype, null, outgoingMessage);
+	        } catch(InterruptedException e) {
+	            log_.warn("Queueing outgoing " + mtype + " has been interrupted.");
+	            Thread.currentThread().interrupt();
+	        }
+	    }
+	}
+	
+	/**
+	 * Decodes an incoming byte array and publishes the result. Called from the decode workers.
+	 */
+	protected void decodeAndPublish(ByteArray msg) {
+	    IMessage<?> message = codecFactory_.getCodec(msg.getMessageType(), javaCodecTypes_.contains(msg.getMessageType()));
+	    if(message != null) {
+	        MessageContainer decodedMessage = message.decode(msg);
+	        if(decodedMessage.getMessage() != null) {
+	            switch (decodedMessage.getType()) {
+	            case "BSM":
+	                bsmPub_.publish((BSM) decodedMessage.getMessage());
+	                break;
+	            case "MobilityRequest":
+	                mobilityReqPub_.publish((MobilityRequest) decodedMessage.getMessage());
+	                log_.debug("V2V", "Received & decoded MobilityRequest, plan ID = " +
+	                            ((MobilityRequest) decodedMessage.getMessage()).getHeader().getPlanId());
+	                break;
+	            case "MobilityPath":
+	                mobilityPathPub_.publish((MobilityPath) decodedMessage.getMessage());
+	                log_.debug("V2V", "Received & decoded MobilityPath, plan ID = " +
+	                            ((MobilityPath) decodedMessage.getMessage()).getHeader().getPlanId());
+	                break;
+	            case "MobilityResponse":
+	                mobilityResponsePub_.publish((MobilityResponse) decodedMessage.getMessage());
+	                log_.debug("V2V", "Received & decoded MobilityResponse, plan ID = " +
+	                            ((MobilityResponse) decodedMessage.getMessage()).getHeader().getPlanId());
+	                break;
+	            case "MobilityOperation":
+	                mobilityOperationPub_.publish((MobilityOperation) decodedMessage.getMessage());
+	                log_.debug("V2V", "Received & decoded MobilityOperation, plan ID = " +
+	                            ((MobilityOperation) decodedMessage.getMessage()).getHeader().getPlanId());
+	                break;
+	            case "MAP":
+	                MapData map = (MapData) decodedMessage.getMessage();
+	                map.getHeader().setStamp(connectedNode_.getCurrentTime());
+	                mapPub_.publish(map);
+	                break;
+	            case "SPAT":
+	                spatPub_.publish((SPAT) decodedMessage.getMessage());
+	                break;
+	            default:
+	                log_.warn("Cannot find correct publisher for " + decodedMessage.getType());
+	            }
+	        }
+	    }
+	}
+	
+	/**
+	 * Encodes an outgoing message and publishes the byte array. Called from the encode workers.
+	 */
+	protected void encodeAndPublish(MessageContainer outgoingMessage) {
+	    IMessage<?> message = codecFactory_.getCodec(outgoingMessage.getType(), javaCodecTypes_.contains(outgoingMessage.getType()));
+	    if(message != null) {
+	        log_.debug("Found message factory on type " + outgoingMessage.getType());
+	        MessageContainer encodedMessage = message.encode(outgoingMessage.getMessage());
+	        if(encodedMessage.getMessage() != null) {
+	            log_.debug("We encode " + outgoingMessage.getType());
+	            messageCounters.onMessageSending(((ByteArray) encodedMessage.getMessage()).getMessageType());
+	            outboundPub_.publish((ByteArray) encodedMessage.getMessage());
+	        } else {
+	            log_.warn("We failed to encode " + outgoingMessage.getType());
+	        }
+	    }
+	}
+	
+	@Override
+	public void onShutdown(Node node) {
+	    if(decodePipeline_ != null) {
+	        decodePipeline_.shutdown();
+	    }
+	    if(encodePipeline_ != null) {
+	        encodePipeline_.shutdown();
+	    }
+	}
+	
 	@Override
 	protected void handleException(Throwable e) {
 		String msg = "Uncaught exception in " + connectedNode_.getName() + " caught by handleException";
@@ -40,6 +40,11 @@ public class BSMMessage implements IMessage<BSM> {
     protected SaxtonLogger log_;
     protected MessageFactory messageFactory_;
 
+    // Scratch buffers reused by decode, so an instance must not be shared between threads
+    protected final EncodedMessageBuffer encodedBuffer_ = new EncodedMessageBuffer();
+    protected final byte[] tempId_ = new byte[4];
+    protected final byte[] brakeStatus_ = new byte[6];
+
     public BSMMessage(ConnectedNode node, SaxtonLogger log, MessageFactory messageFactory) {
         this.node_ = node;
         this.log_ = log;
@@ -106,7 +111,7 @@ public class BSMMessage implements IMessage<BSM> {
             return new MessageContainer("ByteArray", null);
         }
         ByteArray binary_msg = messageFactory_.newFromType(ByteArray._TYPE);
-        ChannelBuffer buffer = ChannelBuffers.copiedBuffer(ByteOrder.LITTLE_ENDIAN, encode_msg);
+        ChannelBuffer buffer = ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN, encode_msg);
         binary_msg.setContent(buffer);
         binary_msg.setMessageType("BSM");
         binary_msg.getHeader().setFrameId("0");
@@ -116,14 +121,10 @@ public class BSMMessage implements IMessage<BSM> {
 
     @Override
     public MessageContainer decode(ByteArray binaryMessage) {
-        ChannelBuffer channelBuffer = binaryMessage.getContent();
-        byte[] encoded_bsm = new byte[channelBuffer.capacity()];
-        for(int i = 0; i < channelBuffer.capacity(); i++) {
-            encoded_bsm[i] = channelBuffer.getByte(i);
-        }
-        byte[] temp_ID = new byte[4];
+        byte[] encoded_bsm = encodedBuffer_.copyOf(binaryMessage.getContent());
+        byte[] temp_ID = tempId_;
         Arrays.fill(temp_ID, (byte) 0);
-        byte[] brakeStatus = new byte[6];
+        byte[] brakeStatus = brakeStatus_;
         Arrays.fill(brakeStatus, (byte) 0);
         BSM msg_object = messageFactory_.newFromType(BSM._TYPE);
         int result = decode_BSM(
@@ -16,13 +16,80 @@
 
 package gov.dot.fhwa.saxton.carma.message.factory;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.ros.message.MessageFactory;
 import org.ros.node.ConnectedNode;
 
 import gov.dot.fhwa.saxton.carma.rosutils.SaxtonLogger;
 
+/**
+ * Creates the encoders and decoders of DSRC messages.
+ * The codec instances keep scratch buffers between calls and are not thread safe, so an instance of this class
+ * hands out one codec per message type and thread which is reused for every later message.
+ */
 public class DSRCMessageFactory {
+
+    protected final ConnectedNode node_;
+    protected final SaxtonLogger log_;
+    protected final MessageFactory factory_;
+    protected final ThreadLocal<Map<String, IMessage<?>>> codecs_ = ThreadLocal.withInitial(HashMap::new);
+
+    public DSRCMessageFactory(ConnectedNode node, SaxtonLogger log, MessageFactory factory) {
+        this.node_ = node;
+        this.log_ = log;
+        this.factory_ = factory;
+    }
+
+    /**
+     * Gets the codec of a message type which is confined to the calling thread
+     * @param useJavaCodec If true the pure Java UPER codec is used for the message types it supports instead of the asn1c library
+     * @return the codec for the message type or null if the type is unknown
+     */
+    public IMessage<?> getCodec(String messageType, boolean useJavaCodec) {
+        Map<String, IMessage<?>> codecs = codecs_.get();
+        String key = useJavaCodec ? "Uper" + messageType : messageType;
+        IMessage<?> codec = codecs.get(key);
+        if(codec == null) {
+            codec = getMessage(messageType, node_, log_, factory_, useJavaCodec);
+            if(codec != null) {
+                codecs.put(key, codec);
+            }
+        }
+        return codec;
+    }
+
     public static IMessage<?> getMessage(String messageType, ConnectedNode node, SaxtonLogger log, MessageFactory factory) {
+        return getMessage(messageType, node, log, factory, false);
+    }
+
+    /**
+     * Creates the encoder and decoder for a message type
+     * @param useJavaCodec If true the pure Java UPER codec is used for the message types it supports instead of the asn1c library
+     * @return the codec for the message type or null if the type is unknown
+     */
+    public static IMessage<?> getMessage(String messageType, ConnectedNode node, SaxtonLogger log, MessageFactory factory, boolean useJavaCodec) {
+        if(useJavaCodec) {
+            switch(messageType) {
+            case "BSM":
+                return new UperBSMMessage(node, log, factory);
+            case "MobilityRequest":
+                return new UperMobilityRequestMessage(factory, log);
+            case "MobilityPath":
+                return new UperMobilityPathMessage(factory, log);
+            case "MobilityResponse":
+                return new UperMobilityResponseMessage(factory, log);
+            case "MobilityOperation":
+                return new UperMobilityOperationMessage(factory, log);
+            case "MAP":
+                return new UperMapMessage(factory, log);
+            case "SPAT":
+                return new UperSPATMessage(factory, log);
+            default:
+                break;
+            }
+        }
         switch(messageType) {
         case "BSM":
             return new BSMMessage(node, log, factory);
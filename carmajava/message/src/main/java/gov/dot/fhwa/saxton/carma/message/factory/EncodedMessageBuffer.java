@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.message.factory;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+
+/**
+ * Reusable copy of an encoded message for the asn1c decoders.
+ * The native decoders take the array length as the message length so the array must match the message size.
+ * It is reallocated only when the size changes, which is rare for a stream of messages of one type.
+ * Not thread safe, each codec instance owns its buffer.
+ */
+final class EncodedMessageBuffer {
+
+    private byte[] data = new byte[0];
+
+    /**
+     * Copies the content of the buffer from index 0 to its capacity
+     * @return an array holding the encoded message which is only valid until the next call
+     */
+    byte[] copyOf(ChannelBuffer buffer) {
+        int length = buffer.capacity();
+        if (data.length != length) {
+            data = new byte[length];
+        }
+        buffer.getBytes(0, data);
+        return data;
+    }
+}
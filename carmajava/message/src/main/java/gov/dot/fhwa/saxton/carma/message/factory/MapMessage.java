@@ -1,6 +1,7 @@
 package gov.dot.fhwa.saxton.carma.message.factory;
 
-import org.jboss.netty.buffer.ChannelBuffer;
+import java.util.Arrays;
+
 import org.ros.internal.message.Message;
 import org.ros.message.MessageFactory;
 
@@ -24,6 +25,18 @@ public class MapMessage implements IMessage<MapData>{
 
     protected SaxtonLogger log;
     protected MessageFactory messageFactory;
+
+    // Scratch buffers reused by decode, so an instance must not be shared between threads.
+    // The native decoder always writes the lane arrays in full so only the intersection data needs to be cleared.
+    protected final EncodedMessageBuffer encodedBuffer = new EncodedMessageBuffer();
+    protected final int[] intersectionData = new int[INTERSECTION_DATA_SIZE];
+    protected final int[] laneIDData = new int[MAX_LANE_LIST_SIZE];
+    protected final int[] ingressApproachData = new int[MAX_LANE_LIST_SIZE];
+    protected final int[] egressApproachData = new int[MAX_LANE_LIST_SIZE];
+    protected final int[] laneDirectionData = new int[MAX_LANE_LIST_SIZE];
+    protected final int[] laneTypeData = new int[MAX_LANE_LIST_SIZE];
+    protected final int[][] nodeOffsetData = new int[MAX_LANE_LIST_SIZE][NODE_OFFSETS_DATA_SIZE];
+    protected final int[][] connectsToData = new int[MAX_LANE_LIST_SIZE][CONNECTION_DATA_SIZE];
     
     public MapMessage(MessageFactory factory, SaxtonLogger logger) {
         this.log            = logger;
@@ -57,20 +70,9 @@ public class MapMessage implements IMessage<MapData>{
     @Override
     public MessageContainer decode(ByteArray binaryMessage) {
         // Copy binary message from ChannelBuffer to byte array
-        ChannelBuffer buffer = binaryMessage.getContent();
-        byte[] encodedMsg = new byte[buffer.capacity()];
-        for (int i = 0; i < buffer.capacity(); i++) {
-            encodedMsg[i] = buffer.getByte(i);
-        }
-        // Initialize empty arrays to hold MAP data
-        int[] intersectionData = new int[INTERSECTION_DATA_SIZE];
-        int[] laneIDData = new int[MAX_LANE_LIST_SIZE];
-        int[] ingressApproachData = new int[MAX_LANE_LIST_SIZE];
-        int[] egressApproachData = new int[MAX_LANE_LIST_SIZE];
-        int[] laneDirectionData = new int[MAX_LANE_LIST_SIZE];
-        int[] laneTypeData = new int[MAX_LANE_LIST_SIZE];
-        int[][] nodeOffsetData = new int[MAX_LANE_LIST_SIZE][NODE_OFFSETS_DATA_SIZE];
-        int[][] connectsToData = new int[MAX_LANE_LIST_SIZE][CONNECTION_DATA_SIZE];
+        byte[] encodedMsg = encodedBuffer.copyOf(binaryMessage.getContent());
+        // The intersection data is only written when the MAP holds an intersection
+        Arrays.fill(intersectionData, 0);
         MapData map = messageFactory.newFromType(MapData._TYPE);
         int res = decodeMap(encodedMsg, map, intersectionData, laneIDData, ingressApproachData,
                             egressApproachData, laneDirectionData, laneTypeData, nodeOffsetData, connectsToData);
@@ -42,6 +42,16 @@ public class MobilityOperationMessage implements IMessage<MobilityOperation> {
     
     private MessageFactory factory;
     private SaxtonLogger   log;
+
+    // Scratch buffers reused by decode, so an instance must not be shared between threads
+    private final EncodedMessageBuffer encodedBuffer = new EncodedMessageBuffer();
+    private final byte[] senderId = new byte[16];
+    private final byte[] targetId = new byte[16];
+    private final byte[] bsmId = new byte[8];
+    private final byte[] planId = new byte[36];
+    private final byte[] timestamp = new byte[19];
+    private final byte[] strategy = new byte[STRATEGY_MAX_LENGTH];
+    private final byte[] strategyParams = new byte[STRATEGY_PARAMS_MAX_LENGTH];
     
     public MobilityOperationMessage(MessageFactory factory, SaxtonLogger log) {
         this.factory = factory;
@@ -84,7 +94,7 @@ public class MobilityOperationMessage implements IMessage<MobilityOperation> {
             return new MessageContainer("ByteArray", null);
         }
         ByteArray binaryMsg = factory.newFromType(ByteArray._TYPE);
-        ChannelBuffer buffer = ChannelBuffers.copiedBuffer(ByteOrder.LITTLE_ENDIAN, encodedMsg);
+        ChannelBuffer buffer = ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN, encodedMsg);
         binaryMsg.setContent(buffer);
         binaryMsg.setMessageType("MobilityOperation");
         binaryMsg.getHeader().setFrameId("0");
@@ -94,18 +104,12 @@ public class MobilityOperationMessage implements IMessage<MobilityOperation> {
 
     @Override
     public MessageContainer decode(ByteArray binaryMessage) {
-        ChannelBuffer buffer = binaryMessage.getContent();
-        byte[] encodedMsg = new byte[buffer.capacity()];
-        for (int i = 0; i < buffer.capacity(); i++) {
-            encodedMsg[i] = buffer.getByte(i);
-        }
-        byte[] senderId = new byte[16];
-        byte[] targetId = new byte[16];
-        byte[] bsmId = new byte[8];
-        byte[] planId = new byte[36];
-        byte[] timestamp = new byte[19];
-        byte[] strategy = new byte[50];
-        byte[] strategyParams = new byte[100];
+        byte[] encodedMsg = encodedBuffer.copyOf(binaryMessage.getContent());
+        // variable length strings are terminated by the first zero byte
+        Arrays.fill(senderId, (byte) 0);
+        Arrays.fill(targetId, (byte) 0);
+        Arrays.fill(strategy, (byte) 0);
+        Arrays.fill(strategyParams, (byte) 0);
         // fill with character 'zero'
         Arrays.fill(timestamp, (byte) 48);
         MobilityOperation operation = factory.newFromType(MobilityOperation._TYPE);
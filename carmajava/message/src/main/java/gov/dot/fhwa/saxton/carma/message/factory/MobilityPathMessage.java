@@ -41,6 +41,16 @@ public class MobilityPathMessage implements IMessage<MobilityPathMessage> {
         private MessageFactory factory;
         private SaxtonLogger log;
 
+        // Scratch buffers reused by decode, so an instance must not be shared between threads
+        private final EncodedMessageBuffer encodedBuffer = new EncodedMessageBuffer();
+        private final byte[] senderId = new byte[16];
+        private final byte[] targetId = new byte[16];
+        private final byte[] bsmId = new byte[8];
+        private final byte[] planId = new byte[36];
+        private final byte[] timestamp = new byte[19];
+        private final byte[] trajectoryStartTime = new byte[19];
+        private final int[][] offsets = new int[3][60];
+
         public MobilityPathMessage(SaxtonLogger log, MessageFactory factory) {
                 this.factory = factory;
                 this.log = log;
@@ -98,7 +108,7 @@ public class MobilityPathMessage implements IMessage<MobilityPathMessage> {
                         return new MessageContainer("ByteArray", null);
                 }
                 ByteArray binaryMsg = factory.newFromType(ByteArray._TYPE);
-                ChannelBuffer buffer = ChannelBuffers.copiedBuffer(ByteOrder.LITTLE_ENDIAN, encodedMsg);
+                ChannelBuffer buffer = ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN, encodedMsg);
                 binaryMsg.setContent(buffer);
                 binaryMsg.setMessageType("MobilityPath");
                 binaryMsg.getHeader().setFrameId("0");
@@ -108,18 +118,10 @@ public class MobilityPathMessage implements IMessage<MobilityPathMessage> {
 
         @Override
         public MessageContainer decode(ByteArray binaryMessage) {
-                ChannelBuffer buffer = binaryMessage.getContent();
-                byte[] encodedMsg = new byte[buffer.capacity()];
-                for (int i = 0; i < buffer.capacity(); i++) {
-                        encodedMsg[i] = buffer.getByte(i);
-                }
-                byte[] senderId = new byte[16];
-                byte[] targetId = new byte[16];
-                byte[] bsmId = new byte[8];
-                byte[] planId = new byte[36];
-                byte[] timestamp = new byte[19];
-                byte[] trajectoryStartTime = new byte[19];
-                int[][] offsets = new int[3][60];
+                byte[] encodedMsg = encodedBuffer.copyOf(binaryMessage.getContent());
+                // variable length strings are terminated by the first zero byte
+                Arrays.fill(senderId, (byte) 0);
+                Arrays.fill(targetId, (byte) 0);
                 // fill with character 'zero'
                 Arrays.fill(trajectoryStartTime, (byte) 48);
                 // fill with unavailable data 
@@ -40,6 +40,20 @@ public class MobilityRequestMessage implements IMessage<MobilityRequestMessage>{
     
     protected SaxtonLogger log_;
     protected MessageFactory messageFactory_;
+
+    // Scratch buffers reused by decode, so an instance must not be shared between threads
+    protected final EncodedMessageBuffer encodedBuffer_ = new EncodedMessageBuffer();
+    protected final byte[] senderId_ = new byte[16];
+    protected final byte[] targetId_ = new byte[16];
+    protected final byte[] bsmId_ = new byte[8];
+    protected final byte[] planId_ = new byte[36];
+    protected final byte[] timestamp_ = new byte[19];
+    protected final byte[] strategy_ = new byte[50];
+    protected final byte[] locationTime_ = new byte[19];
+    protected final byte[] strategyParams_ = new byte[100];
+    protected final byte[] trajectoryStartTime_ = new byte[19];
+    protected final int[][] offsets_ = new int[3][60];
+    protected final byte[] expiration_ = new byte[19];
     
     public MobilityRequestMessage(SaxtonLogger log, MessageFactory messageFactory) {
         this.log_ = log;
@@ -89,7 +103,7 @@ public class MobilityRequestMessage implements IMessage<MobilityRequestMessage>{
             return new MessageContainer("ByteArray", null);
         }
         ByteArray binaryMsg = messageFactory_.newFromType(ByteArray._TYPE);
-        ChannelBuffer buffer = ChannelBuffers.copiedBuffer(ByteOrder.LITTLE_ENDIAN, encodedMsg);
+        ChannelBuffer buffer = ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN, encodedMsg);
         binaryMsg.setContent(buffer);
         binaryMsg.setMessageType("MobilityRequest");
         binaryMsg.getHeader().setFrameId("0");
@@ -99,22 +113,23 @@ public class MobilityRequestMessage implements IMessage<MobilityRequestMessage>{
 
     @Override
     public MessageContainer decode(ByteArray binaryMessage) {
-        ChannelBuffer buffer = binaryMessage.getContent();
-        byte[] encodedMsg = new byte[buffer.capacity()];
-        for(int i = 0; i < buffer.capacity(); i++) {
-            encodedMsg[i] = buffer.getByte(i);
-        }
-        byte[] senderId = new byte[16];
-        byte[] targetId = new byte[16];
-        byte[] bsmId = new byte[8];
-        byte[] planId = new byte[36];
-        byte[] timestamp = new byte[19];
-        byte[] strategy = new byte[50];
-        byte[] locationTime = new byte[19];
-        byte[] strategyParams = new byte[100];
-        byte[] trajectoryStartTime = new byte[19];
-        int[][] offsets = new int[3][60];
-        byte[] expiration = new byte[19];
+        byte[] encodedMsg = encodedBuffer_.copyOf(binaryMessage.getContent());
+        byte[] senderId = senderId_;
+        byte[] targetId = targetId_;
+        byte[] bsmId = bsmId_;
+        byte[] planId = planId_;
+        byte[] timestamp = timestamp_;
+        byte[] strategy = strategy_;
+        byte[] locationTime = locationTime_;
+        byte[] strategyParams = strategyParams_;
+        byte[] trajectoryStartTime = trajectoryStartTime_;
+        int[][] offsets = offsets_;
+        byte[] expiration = expiration_;
+        // variable length strings are terminated by the first zero byte
+        Arrays.fill(senderId, (byte) 0);
+        Arrays.fill(targetId, (byte) 0);
+        Arrays.fill(strategy, (byte) 0);
+        Arrays.fill(strategyParams, (byte) 0);
         // fill with character 'zero'
         Arrays.fill(timestamp, (byte) 48);
         Arrays.fill(trajectoryStartTime, (byte) 48);
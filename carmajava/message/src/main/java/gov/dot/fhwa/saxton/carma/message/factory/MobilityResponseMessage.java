@@ -42,6 +42,14 @@ public class MobilityResponseMessage implements IMessage<MobilityResponse> {
     
     private MessageFactory factory;
     private SaxtonLogger   log;
+
+    // Scratch buffers reused by decode, so an instance must not be shared between threads
+    private final EncodedMessageBuffer encodedBuffer = new EncodedMessageBuffer();
+    private final byte[] senderId = new byte[16];
+    private final byte[] targetId = new byte[16];
+    private final byte[] bsmId = new byte[8];
+    private final byte[] planId = new byte[36];
+    private final byte[] timestamp = new byte[19];
     
     public MobilityResponseMessage(SaxtonLogger log, MessageFactory factory) {
         this.factory = factory;
@@ -84,7 +92,7 @@ public class MobilityResponseMessage implements IMessage<MobilityResponse> {
             return new MessageContainer("ByteArray", null);
         }
         ByteArray binaryMsg = factory.newFromType(ByteArray._TYPE);
-        ChannelBuffer buffer = ChannelBuffers.copiedBuffer(ByteOrder.LITTLE_ENDIAN, encodedMsg);
+        ChannelBuffer buffer = ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN, encodedMsg);
         binaryMsg.setContent(buffer);
         binaryMsg.setMessageType("MobilityResponse");
         binaryMsg.getHeader().setFrameId("0");
@@ -94,16 +102,10 @@ public class MobilityResponseMessage implements IMessage<MobilityResponse> {
 
     @Override
     public MessageContainer decode(ByteArray binaryMessage) {
-        ChannelBuffer buffer = binaryMessage.getContent();
-        byte[] encodedMsg = new byte[buffer.capacity()];
-        for (int i = 0; i < buffer.capacity(); i++) {
-            encodedMsg[i] = buffer.getByte(i);
-        }
-        byte[] senderId = new byte[16];
-        byte[] targetId = new byte[16];
-        byte[] bsmId = new byte[8];
-        byte[] planId = new byte[36];
-        byte[] timestamp = new byte[19];
+        byte[] encodedMsg = encodedBuffer.copyOf(binaryMessage.getContent());
+        // variable length strings are terminated by the first zero byte
+        Arrays.fill(senderId, (byte) 0);
+        Arrays.fill(targetId, (byte) 0);
         // fill with character 'zero'
         Arrays.fill(timestamp, (byte) 48);
         MobilityResponse response = factory.newFromType(MobilityResponse._TYPE);
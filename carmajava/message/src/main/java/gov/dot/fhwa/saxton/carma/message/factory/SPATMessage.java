@@ -1,6 +1,5 @@
 package gov.dot.fhwa.saxton.carma.message.factory;
 
-import org.jboss.netty.buffer.ChannelBuffer;
 import org.ros.internal.message.Message;
 import org.ros.message.MessageFactory;
 
@@ -22,6 +21,12 @@ public class SPATMessage implements IMessage<SPAT> {
     
     protected SaxtonLogger log;
     protected MessageFactory messageFactory;
+
+    // Scratch buffers reused by decode, so an instance must not be shared between threads.
+    // The native decoder always writes both arrays in full.
+    protected final EncodedMessageBuffer encodedBuffer = new EncodedMessageBuffer();
+    protected final int[] intersectionData = new int[INTERSECTION_DATA_SIZE];
+    protected final int[][] statesData = new int[MAX_STATE_LIST_SIZE][STATE_DATA_SIZE];
     
     public SPATMessage(MessageFactory factory, SaxtonLogger logger) {
         this.log            = logger;
@@ -53,15 +58,8 @@ public class SPATMessage implements IMessage<SPAT> {
 
     @Override
     public MessageContainer decode(ByteArray binaryMessage) {
-     // Copy binary message from ChannelBuffer to byte array
-        ChannelBuffer buffer = binaryMessage.getContent();
-        byte[] encodedMsg = new byte[buffer.capacity()];
-        for (int i = 0; i < buffer.capacity(); i++) {
-            encodedMsg[i] = buffer.getByte(i);
-        }
-        // Initialize empty arrays to hold MAP data
-        int[] intersectionData = new int[INTERSECTION_DATA_SIZE];
-        int[][] statesData = new int[MAX_STATE_LIST_SIZE][STATE_DATA_SIZE];
+        // Copy binary message from ChannelBuffer to byte array
+        byte[] encodedMsg = encodedBuffer.copyOf(binaryMessage.getContent());
         SPAT spat = messageFactory.newFromType(SPAT._TYPE);
         int res = decodeSPAT(encodedMsg, intersectionData, statesData);
         if (res == -1) {
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.message.factory;
+
+import java.nio.ByteOrder;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.ros.internal.message.Message;
+import org.ros.message.MessageFactory;
+import org.ros.node.ConnectedNode;
+
+import j2735_msgs.BSM;
+import j2735_msgs.BSMCoreData;
+import j2735_msgs.BrakeSystemStatus;
+import cav_msgs.ByteArray;
+import gov.dot.fhwa.saxton.carma.message.helper.BSMMessageHelper;
+import gov.dot.fhwa.saxton.carma.message.uper.J2735MessageFrame;
+import gov.dot.fhwa.saxton.carma.message.uper.UperBitReader;
+import gov.dot.fhwa.saxton.carma.message.uper.UperBitWriter;
+import gov.dot.fhwa.saxton.carma.rosutils.SaxtonLogger;
+
+/**
+ * This class is the actual worker for encoding and decoding BSM message
+ * by using the pure Java UPER codec. Its output matches BSMMessage.
+ * Only the BSM core data is supported. Part II and regional extensions are never sent and are ignored when received.
+ */
+public class UperBSMMessage implements IMessage<BSM> {
+
+    protected static final int BSM_ID_LENGTH = 4;
+    protected static final int WHEEL_BRAKES_BITS = 5;
+    // BrakeAppliedStatus is held in the top bits of a byte by BSMMessageHelper
+    protected static final int WHEEL_BRAKES_SHIFT = 3;
+
+    protected ConnectedNode node_;
+    protected SaxtonLogger log_;
+    protected MessageFactory messageFactory_;
+
+    // Writers reused by encode which grow on demand, so an instance must not be shared between threads
+    protected final UperBitWriter writer_ = new UperBitWriter(64);
+    protected final UperBitWriter frameWriter_ = new UperBitWriter(64);
+
+    public UperBSMMessage(ConnectedNode node, SaxtonLogger log, MessageFactory messageFactory) {
+        this.node_ = node;
+        this.log_ = log;
+        this.messageFactory_ = messageFactory;
+    }
+
+    /**
+     * Encodes the core data of a BSM into a J2735 MessageFrame
+     * @return encoded BSM message
+     * @throws IllegalArgumentException if a field cannot be encoded
+     */
+    public byte[] encodeBytes(BSM message) {
+        BSMMessageHelper helper = new BSMMessageHelper(message.getCoreData());
+        UperBitWriter writer = writer_;
+        writer.reset();
+        // No extensions, part II or regional data
+        writer.writeBoolean(false);
+        writer.writeBoolean(false);
+        writer.writeBoolean(false);
+        writer.writeConstrainedWholeNumber(helper.getMsgCnt(), 0, 127);
+        for (int idByte : helper.getId()) {
+            writer.writeBits(idByte, 8);
+        }
+        writer.writeConstrainedWholeNumber(helper.getSecMark(), 0, 65535);
+        writer.writeConstrainedWholeNumber(helper.getLat(), -900000000, 900000001);
+        writer.writeConstrainedWholeNumber(helper.getLon(), -1799999999, 1800000001);
+        writer.writeConstrainedWholeNumber(helper.getElev(), -4096, 61439);
+        int[] accuracy = helper.getAccuracy();
+        writer.writeConstrainedWholeNumber(accuracy[0], 0, 255);
+        writer.writeConstrainedWholeNumber(accuracy[1], 0, 255);
+        writer.writeConstrainedWholeNumber(accuracy[2], 0, 65535);
+        // TransmissionState is an extensible enumeration
+        writer.writeBoolean(false);
+        writer.writeConstrainedWholeNumber(helper.getTransmission(), 0, 7);
+        writer.writeConstrainedWholeNumber(helper.getSpeed(), 0, 8191);
+        writer.writeConstrainedWholeNumber(helper.getHeading(), 0, 28800);
+        writer.writeConstrainedWholeNumber(helper.getAngle(), -126, 127);
+        // The helper holds acceleration as lateral, longitudinal, vertical, yaw rate
+        int[] acceleration = helper.getAcceleration();
+        writer.writeConstrainedWholeNumber(acceleration[1], -2000, 2001);
+        writer.writeConstrainedWholeNumber(acceleration[0], -2000, 2001);
+        writer.writeConstrainedWholeNumber(acceleration[2], -127, 127);
+        writer.writeConstrainedWholeNumber(acceleration[3], -32767, 32767);
+        writer.writeBits((helper.getWheel_brakes() >> WHEEL_BRAKES_SHIFT) & 0x1F, WHEEL_BRAKES_BITS);
+        writer.writeConstrainedWholeNumber(helper.getTraction(), 0, 3);
+        writer.writeConstrainedWholeNumber(helper.getAbs(), 0, 3);
+        writer.writeConstrainedWholeNumber(helper.getScs(), 0, 3);
+        writer.writeConstrainedWholeNumber(helper.getBba(), 0, 2);
+        writer.writeConstrainedWholeNumber(helper.getAux(), 0, 3);
+        int[] size = helper.getVehicle_size();
+        writer.writeConstrainedWholeNumber(size[0], 0, 1023);
+        writer.writeConstrainedWholeNumber(size[1], 0, 4095);
+        return J2735MessageFrame.encode(J2735MessageFrame.BSM_ID, writer, frameWriter_);
+    }
+
+    /**
+     * Decodes the core data of a BSM from a J2735 MessageFrame
+     * @return decoded BSM message
+     * @throws IllegalArgumentException if the data is not a valid BSM
+     */
+    public BSM decodeBytes(byte[] encodedMsg) {
+        return readBSM(J2735MessageFrame.decode(encodedMsg, 0, encodedMsg.length, J2735MessageFrame.BSM_ID));
+    }
+
+    private BSM readBSM(UperBitReader reader) {
+        if (reader.readBoolean()) {
+            throw new IllegalArgumentException("BSM extensions are not supported");
+        }
+        // Part II and regional data follow the core data so their presence bits can be ignored
+        reader.readBits(2);
+        BSM msg = messageFactory_.newFromType(BSM._TYPE);
+        BSMCoreData coreData = msg.getCoreData();
+        coreData.setMsgCount((byte) reader.readConstrainedWholeNumber(0, 127));
+        byte[] id = new byte[BSM_ID_LENGTH];
+        for (int i = 0; i < id.length; i++) {
+            id[i] = (byte) reader.readBits(8);
+        }
+        coreData.setId(ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN, id));
+        coreData.setSecMark((short) reader.readConstrainedWholeNumber(0, 65535));
+        coreData.setLatitude((int) reader.readConstrainedWholeNumber(-900000000, 900000001));
+        coreData.setLongitude((int) reader.readConstrainedWholeNumber(-1799999999, 1800000001));
+        coreData.setElev((int) reader.readConstrainedWholeNumber(-4096, 61439));
+        coreData.getAccuracy().setSemiMajor((byte) reader.readConstrainedWholeNumber(0, 255));
+        coreData.getAccuracy().setSemiMinor((byte) reader.readConstrainedWholeNumber(0, 255));
+        coreData.getAccuracy().setOrientation((short) reader.readConstrainedWholeNumber(0, 65535));
+        if (reader.readBoolean()) {
+            throw new IllegalArgumentException("TransmissionState extensions are not supported");
+        }
+        coreData.getTransmission().setTransmissionState((byte) reader.readConstrainedWholeNumber(0, 7));
+        coreData.setSpeed((short) reader.readConstrainedWholeNumber(0, 8191));
+        coreData.setHeading((short) reader.readConstrainedWholeNumber(0, 28800));
+        coreData.setAngle((byte) reader.readConstrainedWholeNumber(-126, 127));
+        coreData.getAccelSet().setLongitudinal((short) reader.readConstrainedWholeNumber(-2000, 2001));
+        coreData.getAccelSet().setLateral((short) reader.readConstrainedWholeNumber(-2000, 2001));
+        coreData.getAccelSet().setVert((byte) reader.readConstrainedWholeNumber(-127, 127));
+        coreData.getAccelSet().setYawRate((short) reader.readConstrainedWholeNumber(-32767, 32767));
+        BrakeSystemStatus brakes = coreData.getBrakes();
+        brakes.getWheelBrakes().setBrakeAppliedStatus((byte) reader.readBits(WHEEL_BRAKES_BITS));
+        brakes.getTraction().setTractionControlStatus((byte) reader.readConstrainedWholeNumber(0, 3));
+        brakes.getAbs().setAntiLockBrakeStatus((byte) reader.readConstrainedWholeNumber(0, 3));
+        brakes.getScs().setStabilityControlStatus((byte) reader.readConstrainedWholeNumber(0, 3));
+        brakes.getBrakeBoost().setBrakeBoostApplied((byte) reader.readConstrainedWholeNumber(0, 2));
+        brakes.getAuxBrakes().setAuxiliaryBrakeStatus((byte) reader.readConstrainedWholeNumber(0, 3));
+        coreData.getSize().setVehicleWidth((short) reader.readConstrainedWholeNumber(0, 1023));
+        coreData.getSize().setVehicleLength((short) reader.readConstrainedWholeNumber(0, 4095));
+        msg.getHeader().setFrameId("MessageConsumer");
+        msg.getHeader().setStamp(node_.getCurrentTime());
+        return msg;
+    }
+
+    @Override
+    public MessageContainer encode(Message plainMessage) {
+        byte[] encodedMsg;
+        try {
+            encodedMsg = encodeBytes((BSM) plainMessage);
+        } catch (IllegalArgumentException e) {
+            log_.error("BSM", "UperBSMMessage cannot encode bsm message: " + e.getMessage());
+            return new MessageContainer("ByteArray", null);
+        }
+        ByteArray binaryMsg = messageFactory_.newFromType(ByteArray._TYPE);
+        ChannelBuffer buffer = ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN, encodedMsg);
+        binaryMsg.setContent(buffer);
+        binaryMsg.setMessageType("BSM");
+        binaryMsg.getHeader().setFrameId("0");
+        binaryMsg.getHeader().setStamp(node_.getCurrentTime());
+        return new MessageContainer("ByteArray", binaryMsg);
+    }
+
+    @Override
+    public MessageContainer decode(ByteArray binaryMessage) {
+        try {
+            UperBitReader reader = J2735MessageFrame.decode(binaryMessage.getContent(), J2735MessageFrame.BSM_ID);
+            return new MessageContainer("BSM", readBSM(reader));
+        } catch (IllegalArgumentException e) {
+            log_.error("BSM", "UperBSMMessage cannot decode bsm message: " + e.getMessage());
+            return new MessageContainer("BSM", null);
+        }
+    }
+}
@@ -0,0 +1,457 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.message.factory;
+
+import org.ros.internal.message.Message;
+import org.ros.message.MessageFactory;
+
+import cav_msgs.ByteArray;
+import j2735_msgs.Connection;
+import j2735_msgs.GenericLane;
+import j2735_msgs.IntersectionGeometry;
+import j2735_msgs.MapData;
+import j2735_msgs.NodeListXY;
+import j2735_msgs.NodeOffsetPointXY;
+import j2735_msgs.NodeXY;
+import j2735_msgs.Position3D;
+import gov.dot.fhwa.saxton.carma.message.uper.J2735FieldCodec;
+import gov.dot.fhwa.saxton.carma.message.uper.J2735MessageFrame;
+import gov.dot.fhwa.saxton.carma.message.uper.UperBitReader;
+import gov.dot.fhwa.saxton.carma.rosutils.SaxtonLogger;
+
+/**
+ * This class is the actual worker for decoding MAP message by using the pure Java UPER codec.
+ * Its output matches MapMessage, so only the first intersection of a MAP is decoded and
+ * the fields which MapMessage leaves empty are skipped.
+ * Unlike the asn1c library, node-LatLon offsets are decoded with both their latitude and longitude,
+ * lanes with a computed node list get an empty node list and nodes with a regional offset are dropped.
+ */
+public class UperMapMessage implements IMessage<MapData> {
+
+    protected static final int LAYER_TYPE_COUNT = 8;
+    protected static final int LAYER_ID_MAX = 100;
+    protected static final int INTERSECTIONS_MAX_COUNT = 32;
+    protected static final int LANES_MAX_COUNT = 255;
+    protected static final int APPROACH_ID_MAX = 15;
+    protected static final int LANE_DIRECTION_BITS = 2;
+    protected static final int LANE_SHARING_BITS = 10;
+    protected static final int LANE_TYPE_COUNT = 8;
+    protected static final int LANE_TYPE_BITS = 16;
+    protected static final int VEHICLE_LANE_TYPE_BITS = 8;
+    protected static final int ALLOWED_MANEUVERS_BITS = 12;
+    protected static final int NODES_MIN_COUNT = 2;
+    protected static final int NODES_MAX_COUNT = 63;
+    protected static final int NODE_ATTRIBUTES_MAX_COUNT = 8;
+    protected static final int NODE_ATTRIBUTE_COUNT = 12;
+    protected static final int SEGMENT_ATTRIBUTE_COUNT = 38;
+    protected static final int CONNECTIONS_MAX_COUNT = 16;
+    protected static final int OVERLAYS_MAX_COUNT = 5;
+    // Offset-B10 to Offset-B16 of node-XY1 to node-XY6
+    protected static final int[] NODE_OFFSET_BOUNDS = {512, 1024, 2048, 4096, 8192, 32768};
+    protected static final int NODE_LATLON = 6;
+    protected static final int NODE_REGIONAL = 7;
+
+    protected SaxtonLogger log;
+    protected MessageFactory messageFactory;
+
+    public UperMapMessage(MessageFactory factory, SaxtonLogger logger) {
+        this.log            = logger;
+        this.messageFactory = factory;
+    }
+
+    @Override
+    public MessageContainer encode(Message plainMessage) {
+        // This parser currently does not support encode MAP messages
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Decodes the first intersection of a MAP from a J2735 MessageFrame
+     * @return decoded MAP message
+     * @throws IllegalArgumentException if the data is not a valid MAP
+     */
+    public MapData decodeBytes(byte[] encodedMsg) {
+        return readMap(J2735MessageFrame.decode(encodedMsg, 0, encodedMsg.length, J2735MessageFrame.MAP_ID));
+    }
+
+    @Override
+    public MessageContainer decode(ByteArray binaryMessage) {
+        try {
+            UperBitReader reader = J2735MessageFrame.decode(binaryMessage.getContent(), J2735MessageFrame.MAP_ID);
+            return new MessageContainer("MAP", readMap(reader));
+        } catch (IllegalArgumentException e) {
+            log.warn("UperMapMessage cannot be decoded: " + e.getMessage());
+            return new MessageContainer("MAP", null);
+        }
+    }
+
+    private MapData readMap(UperBitReader reader) {
+        // Extensions, road segments and the other fields following the intersections are never read
+        reader.readBoolean();
+        boolean hasTimeStamp = reader.readBoolean();
+        boolean hasLayerType = reader.readBoolean();
+        boolean hasLayerId = reader.readBoolean();
+        boolean hasIntersections = reader.readBoolean();
+        reader.readBits(4);
+        MapData map = messageFactory.newFromType(MapData._TYPE);
+        if (hasTimeStamp) {
+            reader.readConstrainedWholeNumber(0, J2735FieldCodec.MINUTE_OF_THE_YEAR_MAX);
+        }
+        map.setMsgIssueRevision((byte) reader.readConstrainedWholeNumber(0, J2735FieldCodec.MSG_COUNT_MAX));
+        if (hasLayerType) {
+            J2735FieldCodec.skipExtensibleEnumerated(reader, LAYER_TYPE_COUNT);
+        }
+        if (hasLayerId) {
+            reader.readConstrainedWholeNumber(0, LAYER_ID_MAX);
+        }
+        // TODO Current version only support one intersection in each MAP message
+        map.setIntersectionsExists(hasIntersections);
+        if (hasIntersections) {
+            reader.readConstrainedWholeNumber(1, INTERSECTIONS_MAX_COUNT);
+            map.getIntersections().add(readIntersection(reader));
+        }
+        map.getHeader().setFrameId("0");
+        return map;
+    }
+
+    private IntersectionGeometry readIntersection(UperBitReader reader) {
+        // Extensions, preempt priorities and regional data follow the lane set so they are never read
+        reader.readBoolean();
+        boolean hasName = reader.readBoolean();
+        boolean hasLaneWidth = reader.readBoolean();
+        boolean hasSpeedLimits = reader.readBoolean();
+        reader.readBits(2);
+        IntersectionGeometry intersection = messageFactory.newFromType(IntersectionGeometry._TYPE);
+        if (hasName) {
+            J2735FieldCodec.skipDescriptiveName(reader);
+        }
+        intersection.getId().setId((short) J2735FieldCodec.readIntersectionReferenceID(reader));
+        intersection.setRevision((byte) reader.readConstrainedWholeNumber(0, J2735FieldCodec.MSG_COUNT_MAX));
+        readPosition(reader, intersection.getRefPoint());
+        intersection.setLaneWidthExists(hasLaneWidth);
+        if (hasLaneWidth) {
+            intersection.setLaneWidth((short) reader.readConstrainedWholeNumber(0, 32767));
+        }
+        if (hasSpeedLimits) {
+            J2735FieldCodec.skipSpeedLimitList(reader);
+        }
+        int laneCount = (int) reader.readConstrainedWholeNumber(1, LANES_MAX_COUNT);
+        for (int i = 0; i < laneCount; i++) {
+            intersection.getLaneSet().getLaneList().add(readLane(reader));
+        }
+        return intersection;
+    }
+
+    private void readPosition(UperBitReader reader, Position3D position) {
+        boolean extended = reader.readBoolean();
+        boolean hasElevation = reader.readBoolean();
+        boolean hasRegional = reader.readBoolean();
+        position.setLatitude((int) reader.readConstrainedWholeNumber(-900000000, 900000001));
+        position.setLongitude((int) reader.readConstrainedWholeNumber(-1799999999, 1800000001));
+        position.setElevationExists(hasElevation);
+        if (hasElevation) {
+            position.setElevation((int) reader.readConstrainedWholeNumber(-4096, 61439));
+        }
+        if (hasRegional) {
+            J2735FieldCodec.skipRegionalExtensions(reader);
+        }
+        if (extended) {
+            J2735FieldCodec.skipExtensionAdditions(reader);
+        }
+    }
+
+    private GenericLane readLane(UperBitReader reader) {
+        boolean extended = reader.readBoolean();
+        boolean hasName = reader.readBoolean();
+        boolean hasIngressApproach = reader.readBoolean();
+        boolean hasEgressApproach = reader.readBoolean();
+        boolean hasManeuvers = reader.readBoolean();
+        boolean hasConnectsTo = reader.readBoolean();
+        boolean hasOverlays = reader.readBoolean();
+        boolean hasRegional = reader.readBoolean();
+        GenericLane lane = messageFactory.newFromType(GenericLane._TYPE);
+        lane.setLaneId((byte) reader.readConstrainedWholeNumber(0, J2735FieldCodec.LANE_ID_MAX));
+        if (hasName) {
+            J2735FieldCodec.skipDescriptiveName(reader);
+        }
+        lane.setIngressApproachExists(hasIngressApproach);
+        if (hasIngressApproach) {
+            lane.setIngressApproach((byte) reader.readConstrainedWholeNumber(0, APPROACH_ID_MAX));
+        }
+        lane.setEgressApproachExists(hasEgressApproach);
+        if (hasEgressApproach) {
+            lane.setEgressApproach((byte) reader.readConstrainedWholeNumber(0, APPROACH_ID_MAX));
+        }
+        readLaneAttributes(reader, lane);
+        if (hasManeuvers) {
+            reader.skipBits(ALLOWED_MANEUVERS_BITS);
+        }
+        readNodeList(reader, lane.getNodeList());
+        if (hasConnectsTo) {
+            int connectionCount = (int) reader.readConstrainedWholeNumber(1, CONNECTIONS_MAX_COUNT);
+            lane.setConnectsToExists(true);
+            for (int i = 0; i < connectionCount; i++) {
+                lane.getConnectsTo().getConnectToList().add(readConnection(reader));
+            }
+        }
+        if (hasOverlays) {
+            int overlayCount = (int) reader.readConstrainedWholeNumber(1, OVERLAYS_MAX_COUNT);
+            reader.skipBits(overlayCount * 8);
+        }
+        if (hasRegional) {
+            J2735FieldCodec.skipRegionalExtensions(reader);
+        }
+        if (extended) {
+            J2735FieldCodec.skipExtensionAdditions(reader);
+        }
+        return lane;
+    }
+
+    private void readLaneAttributes(UperBitReader reader, GenericLane lane) {
+        boolean hasRegional = reader.readBoolean();
+        // 0b11 means {ingressPath, egressPath}, 0b10 means {ingressPath}, 0b01 means {egressPath} and 0b00 means an empty set
+        lane.getLaneAttributes().getDirectionalUse().setLaneDirection((byte) reader.readBits(LANE_DIRECTION_BITS));
+        reader.skipBits(LANE_SHARING_BITS);
+        if (reader.readBoolean()) {
+            throw new IllegalArgumentException("LaneTypeAttributes extensions are not supported");
+        }
+        int laneType = (int) reader.readConstrainedWholeNumber(0, LANE_TYPE_COUNT - 1);
+        lane.getLaneAttributes().getLaneType().setChoice((byte) laneType);
+        if (laneType == 0) {
+            // Only the vehicle lane attributes have an extensible size
+            J2735FieldCodec.skipExtensibleBitString(reader, VEHICLE_LANE_TYPE_BITS);
+        } else {
+            reader.skipBits(LANE_TYPE_BITS);
+        }
+        if (hasRegional) {
+            J2735FieldCodec.skipRegionalExtension(reader);
+        }
+    }
+
+    private void readNodeList(UperBitReader reader, NodeListXY nodeList) {
+        if (reader.readBoolean()) {
+            throw new IllegalArgumentException("NodeListXY extensions are not supported");
+        }
+        // Current version only supports the choice of NODE_SET_XY
+        nodeList.setChoice(NodeListXY.NODE_SET_XY);
+        if (reader.readBoolean()) {
+            skipComputedLane(reader);
+            return;
+        }
+        int nodeCount = (int) reader.readConstrainedWholeNumber(NODES_MIN_COUNT, NODES_MAX_COUNT);
+        for (int i = 0; i < nodeCount; i++) {
+            NodeXY node = readNode(reader);
+            if (node != null) {
+                nodeList.getNodes().getNodeSetXy().add(node);
+            }
+        }
+    }
+
+    /**
+     * Reads a NodeXY
+     * @return The decoded node or null if its offset is a regional extension
+     */
+    private NodeXY readNode(UperBitReader reader) {
+        boolean extended = reader.readBoolean();
+        boolean hasAttributes = reader.readBoolean();
+        NodeXY node = messageFactory.newFromType(NodeXY._TYPE);
+        NodeOffsetPointXY delta = node.getDelta();
+        int choice = (int) reader.readConstrainedWholeNumber(0, NODE_REGIONAL);
+        if (choice < NODE_LATLON) {
+            int bound = NODE_OFFSET_BOUNDS[choice];
+            int x = (int) reader.readConstrainedWholeNumber(-bound, bound - 1);
+            int y = (int) reader.readConstrainedWholeNumber(-bound, bound - 1);
+            delta.setChoice((byte) choice);
+            switch (choice) {
+            case NodeOffsetPointXY.NODE_XY1:
+                delta.getNodeXy1().setX(x);
+                delta.getNodeXy1().setY(y);
+                break;
+            case NodeOffsetPointXY.NODE_XY2:
+                delta.getNodeXy2().setX(x);
+                delta.getNodeXy2().setY(y);
+                break;
+            case NodeOffsetPointXY.NODE_XY3:
+                delta.getNodeXy3().setX(x);
+                delta.getNodeXy3().setY(y);
+                break;
+            case NodeOffsetPointXY.NODE_XY4:
+                delta.getNodeXy4().setX(x);
+                delta.getNodeXy4().setY(y);
+                break;
+            case NodeOffsetPointXY.NODE_XY5:
+                delta.getNodeXy5().setX(x);
+                delta.getNodeXy5().setY(y);
+                break;
+            default:
+                delta.getNodeXy6().setX(x);
+                delta.getNodeXy6().setY(y);
+                break;
+            }
+        } else if (choice == NODE_LATLON) {
+            // Node-LLmD-64b holds the longitude before the latitude
+            delta.setChoice(NodeOffsetPointXY.NODE_LATLON);
+            delta.getNodeLatlon().setLongitude((int) reader.readConstrainedWholeNumber(-1799999999, 1800000001));
+            delta.getNodeLatlon().setLatitude((int) reader.readConstrainedWholeNumber(-900000000, 900000001));
+        } else {
+            J2735FieldCodec.skipRegionalExtension(reader);
+            node = null;
+        }
+        if (hasAttributes) {
+            skipNodeAttributes(reader);
+        }
+        if (extended) {
+            J2735FieldCodec.skipExtensionAdditions(reader);
+        }
+        return node;
+    }
+
+    private void skipNodeAttributes(UperBitReader reader) {
+        boolean extended = reader.readBoolean();
+        boolean hasLocalNode = reader.readBoolean();
+        boolean hasDisabled = reader.readBoolean();
+        boolean hasEnabled = reader.readBoolean();
+        boolean hasData = reader.readBoolean();
+        boolean hasWidth = reader.readBoolean();
+        boolean hasElevation = reader.readBoolean();
+        boolean hasRegional = reader.readBoolean();
+        if (hasLocalNode) {
+            skipEnumeratedList(reader, NODE_ATTRIBUTE_COUNT);
+        }
+        if (hasDisabled) {
+            skipEnumeratedList(reader, SEGMENT_ATTRIBUTE_COUNT);
+        }
+        if (hasEnabled) {
+            skipEnumeratedList(reader, SEGMENT_ATTRIBUTE_COUNT);
+        }
+        if (hasData) {
+            int count = (int) reader.readConstrainedWholeNumber(1, NODE_ATTRIBUTES_MAX_COUNT);
+            for (int i = 0; i < count; i++) {
+                skipLaneDataAttribute(reader);
+            }
+        }
+        if (hasWidth) {
+            reader.readConstrainedWholeNumber(-512, 511);
+        }
+        if (hasElevation) {
+            reader.readConstrainedWholeNumber(-512, 511);
+        }
+        if (hasRegional) {
+            J2735FieldCodec.skipRegionalExtensions(reader);
+        }
+        if (extended) {
+            J2735FieldCodec.skipExtensionAdditions(reader);
+        }
+    }
+
+    private void skipEnumeratedList(UperBitReader reader, int rootCount) {
+        int count = (int) reader.readConstrainedWholeNumber(1, NODE_ATTRIBUTES_MAX_COUNT);
+        for (int i = 0; i < count; i++) {
+            J2735FieldCodec.skipExtensibleEnumerated(reader, rootCount);
+        }
+    }
+
+    private void skipLaneDataAttribute(UperBitReader reader) {
+        if (reader.readBoolean()) {
+            throw new IllegalArgumentException("LaneDataAttribute extensions are not supported");
+        }
+        switch ((int) reader.readConstrainedWholeNumber(0, 6)) {
+        case 0:
+            // pathEndPointAngle
+            reader.readConstrainedWholeNumber(-150, 150);
+            break;
+        case 1:
+        case 2:
+        case 3:
+            // laneCrownPointCenter, laneCrownPointLeft and laneCrownPointRight
+            reader.readConstrainedWholeNumber(-128, 127);
+            break;
+        case 4:
+            // laneAngle
+            reader.readConstrainedWholeNumber(-180, 180);
+            break;
+        case 5:
+            J2735FieldCodec.skipSpeedLimitList(reader);
+            break;
+        default:
+            J2735FieldCodec.skipRegionalExtensions(reader);
+            break;
+        }
+    }
+
+    private void skipComputedLane(UperBitReader reader) {
+        boolean extended = reader.readBoolean();
+        boolean hasRotation = reader.readBoolean();
+        boolean hasScaleX = reader.readBoolean();
+        boolean hasScaleY = reader.readBoolean();
+        boolean hasRegional = reader.readBoolean();
+        reader.readConstrainedWholeNumber(0, J2735FieldCodec.LANE_ID_MAX);
+        skipDrivenLineOffset(reader);
+        skipDrivenLineOffset(reader);
+        if (hasRotation) {
+            reader.readConstrainedWholeNumber(0, 28800);
+        }
+        if (hasScaleX) {
+            reader.readConstrainedWholeNumber(-2048, 2047);
+        }
+        if (hasScaleY) {
+            reader.readConstrainedWholeNumber(-2048, 2047);
+        }
+        if (hasRegional) {
+            J2735FieldCodec.skipRegionalExtensions(reader);
+        }
+        if (extended) {
+            J2735FieldCodec.skipExtensionAdditions(reader);
+        }
+    }
+
+    private void skipDrivenLineOffset(UperBitReader reader) {
+        if (reader.readBoolean()) {
+            reader.readConstrainedWholeNumber(-32767, 32767);
+        } else {
+            reader.readConstrainedWholeNumber(-2047, 2047);
+        }
+    }
+
+    private Connection readConnection(UperBitReader reader) {
+        boolean hasRemoteIntersection = reader.readBoolean();
+        boolean hasSignalGroup = reader.readBoolean();
+        boolean hasUserClass = reader.readBoolean();
+        boolean hasConnectionId = reader.readBoolean();
+        Connection connection = messageFactory.newFromType(Connection._TYPE);
+        boolean hasManeuver = reader.readBoolean();
+        connection.getConnectingLane().setLane((short) reader.readConstrainedWholeNumber(0, J2735FieldCodec.LANE_ID_MAX));
+        if (hasManeuver) {
+            // TODO This field is not populated to match MapMessage
+            reader.skipBits(ALLOWED_MANEUVERS_BITS);
+        }
+        if (hasRemoteIntersection) {
+            J2735FieldCodec.readIntersectionReferenceID(reader);
+        }
+        connection.setSignalGroupExists(hasSignalGroup);
+        if (hasSignalGroup) {
+            connection.setSignalGroup((byte) reader.readConstrainedWholeNumber(0, J2735FieldCodec.SIGNAL_GROUP_ID_MAX));
+        }
+        if (hasUserClass) {
+            reader.readConstrainedWholeNumber(0, 255);
+        }
+        if (hasConnectionId) {
+            reader.readConstrainedWholeNumber(0, 255);
+        }
+        return connection;
+    }
+}
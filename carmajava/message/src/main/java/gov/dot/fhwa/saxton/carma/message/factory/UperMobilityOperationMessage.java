@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.message.factory;
+
+import java.nio.ByteOrder;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.ros.internal.message.Message;
+import org.ros.message.MessageFactory;
+import org.ros.message.Time;
+
+import cav_msgs.ByteArray;
+import cav_msgs.MobilityOperation;
+import gov.dot.fhwa.saxton.carma.message.helper.MobilityHeaderHelper;
+import gov.dot.fhwa.saxton.carma.message.helper.StringConverterHelper;
+import gov.dot.fhwa.saxton.carma.message.uper.J2735MessageFrame;
+import gov.dot.fhwa.saxton.carma.message.uper.MobilityFieldCodec;
+import gov.dot.fhwa.saxton.carma.message.uper.UperBitReader;
+import gov.dot.fhwa.saxton.carma.message.uper.UperBitWriter;
+import gov.dot.fhwa.saxton.carma.rosutils.SaxtonLogger;
+
+/**
+ * This class is the actual worker for encoding and decoding Mobility Operation message
+ * by using the pure Java UPER codec. Its output matches MobilityOperationMessage.
+ */
+public class UperMobilityOperationMessage implements IMessage<MobilityOperation> {
+
+    private MessageFactory factory;
+    private SaxtonLogger   log;
+
+    // Writers reused by encode which grow on demand, so an instance must not be shared between threads
+    private final UperBitWriter writer = new UperBitWriter();
+    private final UperBitWriter frameWriter = new UperBitWriter();
+
+    public UperMobilityOperationMessage(MessageFactory factory, SaxtonLogger log) {
+        this.factory = factory;
+        this.log     = log;
+    }
+
+    /**
+     * Encodes a MobilityOperation message into a J2735 MessageFrame
+     * @return encoded MobilityOperation message
+     * @throws IllegalArgumentException if a field cannot be encoded
+     */
+    public byte[] encodeBytes(MobilityOperation message) {
+        writer.reset();
+        // No extensions
+        writer.writeBoolean(false);
+        MobilityFieldCodec.writeHeader(writer, new MobilityHeaderHelper(message.getHeader()));
+        writer.writeIA5String(StringConverterHelper.setDynamicLengthString(message.getStrategy(), MobilityFieldCodec.STRATEGY_MAX_LENGTH),
+                MobilityFieldCodec.STRATEGY_MIN_LENGTH, MobilityFieldCodec.STRATEGY_MAX_LENGTH);
+        writer.writeIA5String(StringConverterHelper.setDynamicLengthString(message.getStrategyParams(), MobilityFieldCodec.STRATEGY_PARAMS_MAX_LENGTH),
+                MobilityFieldCodec.STRATEGY_PARAMS_MIN_LENGTH, MobilityFieldCodec.STRATEGY_PARAMS_MAX_LENGTH);
+        return J2735MessageFrame.encode(J2735MessageFrame.MOBILITY_OPERATION_ID, writer, frameWriter);
+    }
+
+    /**
+     * Decodes a MobilityOperation message from a J2735 MessageFrame
+     * @return decoded MobilityOperation message
+     * @throws IllegalArgumentException if the data is not a valid MobilityOperation message
+     */
+    public MobilityOperation decodeBytes(byte[] encodedMsg) {
+        return readOperation(J2735MessageFrame.decode(encodedMsg, 0, encodedMsg.length, J2735MessageFrame.MOBILITY_OPERATION_ID));
+    }
+
+    private MobilityOperation readOperation(UperBitReader reader) {
+        if (reader.readBoolean()) {
+            throw new IllegalArgumentException("MobilityOperation extensions are not supported");
+        }
+        MobilityOperation operation = factory.newFromType(MobilityOperation._TYPE);
+        MobilityFieldCodec.readHeader(reader, operation.getHeader());
+        operation.setStrategy(MobilityFieldCodec.readDynamicLengthString(reader,
+                MobilityFieldCodec.STRATEGY_MIN_LENGTH, MobilityFieldCodec.STRATEGY_MAX_LENGTH));
+        operation.setStrategyParams(MobilityFieldCodec.readDynamicLengthString(reader,
+                MobilityFieldCodec.STRATEGY_PARAMS_MIN_LENGTH, MobilityFieldCodec.STRATEGY_PARAMS_MAX_LENGTH));
+        return operation;
+    }
+
+    @Override
+    public MessageContainer encode(Message plainMessage) {
+        byte[] encodedMsg;
+        try {
+            encodedMsg = encodeBytes((MobilityOperation) plainMessage);
+        } catch (IllegalArgumentException e) {
+            log.warn("MobilityOperation", "UperMobilityOperationMessage cannot encode the message: " + e.getMessage());
+            return new MessageContainer("ByteArray", null);
+        }
+        ByteArray binaryMsg = factory.newFromType(ByteArray._TYPE);
+        ChannelBuffer buffer = ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN, encodedMsg);
+        binaryMsg.setContent(buffer);
+        binaryMsg.setMessageType("MobilityOperation");
+        binaryMsg.getHeader().setFrameId("0");
+        binaryMsg.getHeader().setStamp(Time.fromMillis(System.currentTimeMillis()));
+        return new MessageContainer("ByteArray", binaryMsg);
+    }
+
+    @Override
+    public MessageContainer decode(ByteArray binaryMessage) {
+        try {
+            UperBitReader reader = J2735MessageFrame.decode(binaryMessage.getContent(), J2735MessageFrame.MOBILITY_OPERATION_ID);
+            return new MessageContainer("MobilityOperation", readOperation(reader));
+        } catch (IllegalArgumentException e) {
+            log.warn("UperMobilityOperationMessage cannot decode message: " + e.getMessage());
+            return new MessageContainer("MobilityOperation", null);
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.message.factory;
+
+import java.nio.ByteOrder;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.ros.internal.message.Message;
+import org.ros.message.MessageFactory;
+import org.ros.message.Time;
+
+import cav_msgs.ByteArray;
+import cav_msgs.MobilityPath;
+import gov.dot.fhwa.saxton.carma.message.helper.MobilityPathHelper;
+import gov.dot.fhwa.saxton.carma.message.uper.J2735MessageFrame;
+import gov.dot.fhwa.saxton.carma.message.uper.MobilityFieldCodec;
+import gov.dot.fhwa.saxton.carma.message.uper.UperBitReader;
+import gov.dot.fhwa.saxton.carma.message.uper.UperBitWriter;
+import gov.dot.fhwa.saxton.carma.rosutils.SaxtonLogger;
+
+/**
+ * This class is the actual worker for encoding and decoding Mobility Path message
+ * by using the pure Java UPER codec. Its output matches MobilityPathMessage.
+ */
+public class UperMobilityPathMessage implements IMessage<MobilityPath> {
+
+    private MessageFactory factory;
+    private SaxtonLogger   log;
+
+    // Writers reused by encode which grow on demand, so an instance must not be shared between threads
+    private final UperBitWriter writer = new UperBitWriter();
+    private final UperBitWriter frameWriter = new UperBitWriter();
+
+    public UperMobilityPathMessage(MessageFactory factory, SaxtonLogger log) {
+        this.factory = factory;
+        this.log     = log;
+    }
+
+    /**
+     * Encodes a MobilityPath message into a J2735 MessageFrame
+     * @return encoded MobilityPath message
+     * @throws IllegalArgumentException if a field cannot be encoded
+     */
+    public byte[] encodeBytes(MobilityPath message) {
+        writer.reset();
+        // No extensions
+        writer.writeBoolean(false);
+        MobilityPathHelper helper = new MobilityPathHelper(message);
+        MobilityFieldCodec.writeHeader(writer, helper.getHeaderHelper());
+        MobilityFieldCodec.writeLocation(writer, helper.getTrajectoryHelper().getStartLocationHelper());
+        MobilityFieldCodec.writeOffsets(writer, helper.getTrajectoryHelper().getOffsets());
+        return J2735MessageFrame.encode(J2735MessageFrame.MOBILITY_PATH_ID, writer, frameWriter);
+    }
+
+    /**
+     * Decodes a MobilityPath message from a J2735 MessageFrame
+     * @return decoded MobilityPath message
+     * @throws IllegalArgumentException if the data is not a valid MobilityPath message
+     */
+    public MobilityPath decodeBytes(byte[] encodedMsg) {
+        return readPath(J2735MessageFrame.decode(encodedMsg, 0, encodedMsg.length, J2735MessageFrame.MOBILITY_PATH_ID));
+    }
+
+    private MobilityPath readPath(UperBitReader reader) {
+        if (reader.readBoolean()) {
+            throw new IllegalArgumentException("MobilityPath extensions are not supported");
+        }
+        MobilityPath path = factory.newFromType(MobilityPath._TYPE);
+        MobilityFieldCodec.readHeader(reader, path.getHeader());
+        MobilityFieldCodec.readLocation(reader, path.getTrajectory().getLocation());
+        path.getTrajectory().setOffsets(MobilityFieldCodec.readOffsets(reader, factory));
+        return path;
+    }
+
+    @Override
+    public MessageContainer encode(Message plainMessage) {
+        byte[] encodedMsg;
+        try {
+            encodedMsg = encodeBytes((MobilityPath) plainMessage);
+        } catch (IllegalArgumentException e) {
+            log.warn("MobilityPath", "UperMobilityPathMessage cannot encode the message: " + e.getMessage());
+            return new MessageContainer("ByteArray", null);
+        }
+        ByteArray binaryMsg = factory.newFromType(ByteArray._TYPE);
+        ChannelBuffer buffer = ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN, encodedMsg);
+        binaryMsg.setContent(buffer);
+        binaryMsg.setMessageType("MobilityPath");
+        binaryMsg.getHeader().setFrameId("0");
+        binaryMsg.getHeader().setStamp(Time.fromMillis(System.currentTimeMillis()));
+        return new MessageContainer("ByteArray", binaryMsg);
+    }
+
+    @Override
+    public MessageContainer decode(ByteArray binaryMessage) {
+        try {
+            UperBitReader reader = J2735MessageFrame.decode(binaryMessage.getContent(), J2735MessageFrame.MOBILITY_PATH_ID);
+            return new MessageContainer("MobilityPath", readPath(reader));
+        } catch (IllegalArgumentException e) {
+            log.warn("UperMobilityPathMessage cannot decode message: " + e.getMessage());
+            return new MessageContainer("MobilityPath", null);
+        }
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.message.factory;
+
+import java.nio.ByteOrder;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.ros.internal.message.Message;
+import org.ros.message.MessageFactory;
+import org.ros.message.Time;
+
+import cav_msgs.ByteArray;
+import cav_msgs.MobilityRequest;
+import gov.dot.fhwa.saxton.carma.message.helper.MobilityECEFLocationHelper;
+import gov.dot.fhwa.saxton.carma.message.helper.MobilityRequestHelper;
+import gov.dot.fhwa.saxton.carma.message.uper.J2735MessageFrame;
+import gov.dot.fhwa.saxton.carma.message.uper.MobilityFieldCodec;
+import gov.dot.fhwa.saxton.carma.message.uper.UperBitReader;
+import gov.dot.fhwa.saxton.carma.message.uper.UperBitWriter;
+import gov.dot.fhwa.saxton.carma.rosutils.SaxtonLogger;
+
+/**
+ * This class is the actual worker for encoding and decoding Mobility Request message
+ * by using the pure Java UPER codec. Its output matches MobilityRequestMessage.
+ */
+public class UperMobilityRequestMessage implements IMessage<MobilityRequest> {
+
+    private MessageFactory factory;
+    private SaxtonLogger   log;
+
+    // Writers reused by encode which grow on demand, so an instance must not be shared between threads
+    private final UperBitWriter writer = new UperBitWriter();
+    private final UperBitWriter frameWriter = new UperBitWriter();
+
+    public UperMobilityRequestMessage(MessageFactory factory, SaxtonLogger log) {
+        this.factory = factory;
+        this.log     = log;
+    }
+
+    /**
+     * Encodes a MobilityRequest message into a J2735 MessageFrame
+     * @return encoded MobilityRequest message
+     * @throws IllegalArgumentException if a field cannot be encoded
+     */
+    public byte[] encodeBytes(MobilityRequest message) {
+        writer.reset();
+        // No extensions
+        writer.writeBoolean(false);
+        MobilityRequestHelper helper = new MobilityRequestHelper(message);
+        MobilityFieldCodec.writeHeader(writer, helper.getHeaderHelper());
+        // Match the asn1c encoder which only sends a trajectory with a known start location
+        MobilityECEFLocationHelper trajectoryStart = helper.getTrajectoryHelper().getStartLocationHelper();
+        int[][] offsets = helper.getTrajectoryHelper().getOffsets();
+        boolean hasTrajectoryStart = trajectoryStart.getEcefX() != 0 || trajectoryStart.getEcefY() != 0 || trajectoryStart.getEcefZ() != 0;
+        boolean hasTrajectory = hasTrajectoryStart && offsets[0].length > 0;
+        boolean hasExpiration = !isZeroTimestamp(helper.getExpiration());
+        writer.writeBoolean(hasTrajectoryStart);
+        writer.writeBoolean(hasTrajectory);
+        writer.writeBoolean(hasExpiration);
+        writer.writeIA5String(helper.getStrategy(), MobilityFieldCodec.STRATEGY_MIN_LENGTH, MobilityFieldCodec.STRATEGY_MAX_LENGTH);
+        writer.writeConstrainedWholeNumber(helper.getPlanType(), MobilityFieldCodec.PLAN_TYPE_MIN, MobilityFieldCodec.PLAN_TYPE_MAX);
+        writer.writeConstrainedWholeNumber(helper.getUrgency(), MobilityFieldCodec.URGENCY_MIN, MobilityFieldCodec.URGENCY_MAX);
+        MobilityFieldCodec.writeLocation(writer, helper.getLocationHelper());
+        writer.writeIA5String(helper.getStrategyParams(), MobilityFieldCodec.STRATEGY_PARAMS_MIN_LENGTH, MobilityFieldCodec.STRATEGY_PARAMS_MAX_LENGTH);
+        if (hasTrajectoryStart) {
+            MobilityFieldCodec.writeLocation(writer, trajectoryStart);
+        }
+        if (hasTrajectory) {
+            MobilityFieldCodec.writeOffsets(writer, offsets);
+        }
+        if (hasExpiration) {
+            writer.writeFixedIA5String(helper.getExpiration(), MobilityFieldCodec.TIMESTAMP_LENGTH);
+        }
+        return J2735MessageFrame.encode(J2735MessageFrame.MOBILITY_REQUEST_ID, writer, frameWriter);
+    }
+
+    /**
+     * Decodes a MobilityRequest message from a J2735 MessageFrame
+     * @return decoded MobilityRequest message
+     * @throws IllegalArgumentException if the data is not a valid MobilityRequest message
+     */
+    public MobilityRequest decodeBytes(byte[] encodedMsg) {
+        return readRequest(J2735MessageFrame.decode(encodedMsg, 0, encodedMsg.length, J2735MessageFrame.MOBILITY_REQUEST_ID));
+    }
+
+    private MobilityRequest readRequest(UperBitReader reader) {
+        if (reader.readBoolean()) {
+            throw new IllegalArgumentException("MobilityRequest extensions are not supported");
+        }
+        MobilityRequest request = factory.newFromType(MobilityRequest._TYPE);
+        MobilityFieldCodec.readHeader(reader, request.getHeader());
+        boolean hasTrajectoryStart = reader.readBoolean();
+        boolean hasTrajectory = reader.readBoolean();
+        boolean hasExpiration = reader.readBoolean();
+        request.setStrategy(MobilityFieldCodec.readDynamicLengthString(reader,
+                MobilityFieldCodec.STRATEGY_MIN_LENGTH, MobilityFieldCodec.STRATEGY_MAX_LENGTH));
+        request.getPlanType().setType((byte) reader.readConstrainedWholeNumber(MobilityFieldCodec.PLAN_TYPE_MIN, MobilityFieldCodec.PLAN_TYPE_MAX));
+        request.setUrgency((short) reader.readConstrainedWholeNumber(MobilityFieldCodec.URGENCY_MIN, MobilityFieldCodec.URGENCY_MAX));
+        MobilityFieldCodec.readLocation(reader, request.getLocation());
+        request.setStrategyParams(MobilityFieldCodec.readDynamicLengthString(reader,
+                MobilityFieldCodec.STRATEGY_PARAMS_MIN_LENGTH, MobilityFieldCodec.STRATEGY_PARAMS_MAX_LENGTH));
+        if (hasTrajectoryStart) {
+            MobilityFieldCodec.readLocation(reader, request.getTrajectory().getLocation());
+        }
+        if (hasTrajectory) {
+            request.getTrajectory().setOffsets(MobilityFieldCodec.readOffsets(reader, factory));
+        }
+        if (hasExpiration) {
+            request.setExpiration(MobilityFieldCodec.readTimestamp(reader));
+        }
+        return request;
+    }
+
+    private static boolean isZeroTimestamp(byte[] timestamp) {
+        for (byte ch : timestamp) {
+            if (ch != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public MessageContainer encode(Message plainMessage) {
+        byte[] encodedMsg;
+        try {
+            encodedMsg = encodeBytes((MobilityRequest) plainMessage);
+        } catch (IllegalArgumentException e) {
+            log.warn("MobilityRequest", "UperMobilityRequestMessage cannot encode the message: " + e.getMessage());
+            return new MessageContainer("ByteArray", null);
+        }
+        ByteArray binaryMsg = factory.newFromType(ByteArray._TYPE);
+        ChannelBuffer buffer = ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN, encodedMsg);
+        binaryMsg.setContent(buffer);
+        binaryMsg.setMessageType("MobilityRequest");
+        binaryMsg.getHeader().setFrameId("0");
+        binaryMsg.getHeader().setStamp(Time.fromMillis(System.currentTimeMillis()));
+        return new MessageContainer("ByteArray", binaryMsg);
+    }
+
+    @Override
+    public MessageContainer decode(ByteArray binaryMessage) {
+        try {
+            UperBitReader reader = J2735MessageFrame.decode(binaryMessage.getContent(), J2735MessageFrame.MOBILITY_REQUEST_ID);
+            return new MessageContainer("MobilityRequest", readRequest(reader));
+        } catch (IllegalArgumentException e) {
+            log.warn("UperMobilityRequestMessage cannot decode message: " + e.getMessage());
+            return new MessageContainer("MobilityRequest", null);
+        }
+    }
+
+}
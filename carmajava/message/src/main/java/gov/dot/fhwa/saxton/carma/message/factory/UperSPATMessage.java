@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.message.factory;
+
+import org.ros.internal.message.Message;
+import org.ros.message.MessageFactory;
+
+import cav_msgs.ByteArray;
+import j2735_msgs.IntersectionState;
+import j2735_msgs.MovementEvent;
+import j2735_msgs.MovementState;
+import j2735_msgs.SPAT;
+import j2735_msgs.TimeChangeDetails;
+import gov.dot.fhwa.saxton.carma.message.uper.J2735FieldCodec;
+import gov.dot.fhwa.saxton.carma.message.uper.J2735MessageFrame;
+import gov.dot.fhwa.saxton.carma.message.uper.UperBitReader;
+import gov.dot.fhwa.saxton.carma.rosutils.SaxtonLogger;
+
+/**
+ * This class is the actual worker for decoding SPAT message by using the pure Java UPER codec.
+ * Its output matches SPATMessage, so only the first intersection of a SPAT is decoded and
+ * the fields which SPATMessage leaves empty are skipped.
+ */
+public class UperSPATMessage implements IMessage<SPAT> {
+
+    protected static final int INTERSECTIONS_MAX_COUNT = 32;
+    protected static final int INTERSECTION_STATUS_BITS = 16;
+    protected static final int ENABLED_LANES_MAX_COUNT = 16;
+    protected static final int MOVEMENTS_MAX_COUNT = 255;
+    protected static final int EVENTS_MAX_COUNT = 16;
+    protected static final int MOVEMENT_PHASE_STATE_MAX = 9;
+    protected static final int TIME_MARK_MAX = 36001;
+    protected static final int ADVISORY_SPEEDS_MAX_COUNT = 16;
+    protected static final int ADVISORY_SPEED_TYPE_COUNT = 4;
+
+    protected SaxtonLogger log;
+    protected MessageFactory messageFactory;
+
+    public UperSPATMessage(MessageFactory factory, SaxtonLogger logger) {
+        this.log            = logger;
+        this.messageFactory = factory;
+    }
+
+    @Override
+    public MessageContainer encode(Message plainMessage) {
+        // This parser currently does not support encode SPAT messages
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Decodes the first intersection of a SPAT from a J2735 MessageFrame
+     * @return decoded SPAT message
+     * @throws IllegalArgumentException if the data is not a valid SPAT
+     */
+    public SPAT decodeBytes(byte[] encodedMsg) {
+        return readSPAT(J2735MessageFrame.decode(encodedMsg, 0, encodedMsg.length, J2735MessageFrame.SPAT_ID));
+    }
+
+    @Override
+    public MessageContainer decode(ByteArray binaryMessage) {
+        try {
+            UperBitReader reader = J2735MessageFrame.decode(binaryMessage.getContent(), J2735MessageFrame.SPAT_ID);
+            return new MessageContainer("SPAT", readSPAT(reader));
+        } catch (IllegalArgumentException e) {
+            log.warn("UperSPATMessage cannot be decoded: " + e.getMessage());
+            return new MessageContainer("SPAT", null);
+        }
+    }
+
+    private SPAT readSPAT(UperBitReader reader) {
+        // Extensions and regional data follow the intersections so they are never read
+        reader.readBoolean();
+        boolean hasTimeStamp = reader.readBoolean();
+        boolean hasName = reader.readBoolean();
+        reader.readBoolean();
+        SPAT spat = messageFactory.newFromType(SPAT._TYPE);
+        spat.setTimeStampExists(hasTimeStamp);
+        if (hasTimeStamp) {
+            spat.setTimeStamp((int) reader.readConstrainedWholeNumber(0, J2735FieldCodec.MINUTE_OF_THE_YEAR_MAX));
+        }
+        if (hasName) {
+            J2735FieldCodec.skipDescriptiveName(reader);
+        }
+        // TODO Current version only support one intersection in each SPAT message
+        reader.readConstrainedWholeNumber(1, INTERSECTIONS_MAX_COUNT);
+        spat.getIntersections().getIntersectionStateList().add(readIntersection(reader));
+        return spat;
+    }
+
+    private IntersectionState readIntersection(UperBitReader reader) {
+        // Extensions, maneuver assists and regional data follow the movement states so they are never read
+        reader.readBoolean();
+        boolean hasName = reader.readBoolean();
+        boolean hasMoy = reader.readBoolean();
+        boolean hasTimeStamp = reader.readBoolean();
+        boolean hasEnabledLanes = reader.readBoolean();
+        reader.readBits(2);
+        IntersectionState intersection = messageFactory.newFromType(IntersectionState._TYPE);
+        if (hasName) {
+            J2735FieldCodec.skipDescriptiveName(reader);
+        }
+        intersection.getId().setId((short) J2735FieldCodec.readIntersectionReferenceID(reader));
+        intersection.setRevision((byte) reader.readConstrainedWholeNumber(0, J2735FieldCodec.MSG_COUNT_MAX));
+        reader.skipBits(INTERSECTION_STATUS_BITS);
+        intersection.setMoyExists(hasMoy);
+        if (hasMoy) {
+            intersection.setMoy((int) reader.readConstrainedWholeNumber(0, J2735FieldCodec.MINUTE_OF_THE_YEAR_MAX));
+        }
+        intersection.setTimeStampExists(hasTimeStamp);
+        if (hasTimeStamp) {
+            intersection.setTimeStamp((int) reader.readConstrainedWholeNumber(0, 65535));
+        }
+        if (hasEnabledLanes) {
+            int laneCount = (int) reader.readConstrainedWholeNumber(1, ENABLED_LANES_MAX_COUNT);
+            reader.skipBits(laneCount * 8);
+        }
+        int stateCount = (int) reader.readConstrainedWholeNumber(1, MOVEMENTS_MAX_COUNT);
+        for (int i = 0; i < stateCount; i++) {
+            intersection.getStates().getMovementList().add(readMovementState(reader));
+        }
+        return intersection;
+    }
+
+    private MovementState readMovementState(UperBitReader reader) {
+        boolean extended = reader.readBoolean();
+        boolean hasName = reader.readBoolean();
+        boolean hasManeuverAssists = reader.readBoolean();
+        boolean hasRegional = reader.readBoolean();
+        MovementState state = messageFactory.newFromType(MovementState._TYPE);
+        if (hasName) {
+            J2735FieldCodec.skipDescriptiveName(reader);
+        }
+        state.setSignalGroup((byte) reader.readConstrainedWholeNumber(0, J2735FieldCodec.SIGNAL_GROUP_ID_MAX));
+        int eventCount = (int) reader.readConstrainedWholeNumber(1, EVENTS_MAX_COUNT);
+        for (int i = 0; i < eventCount; i++) {
+            state.getStateTimeSpeed().getMovementEventList().add(readMovementEvent(reader));
+        }
+        if (hasManeuverAssists) {
+            J2735FieldCodec.skipManeuverAssistList(reader);
+        }
+        if (hasRegional) {
+            J2735FieldCodec.skipRegionalExtensions(reader);
+        }
+        if (extended) {
+            J2735FieldCodec.skipExtensionAdditions(reader);
+        }
+        return state;
+    }
+
+    private MovementEvent readMovementEvent(UperBitReader reader) {
+        boolean extended = reader.readBoolean();
+        boolean hasTiming = reader.readBoolean();
+        boolean hasSpeeds = reader.readBoolean();
+        boolean hasRegional = reader.readBoolean();
+        MovementEvent event = messageFactory.newFromType(MovementEvent._TYPE);
+        event.getEventState().setMovementPhaseState((byte) reader.readConstrainedWholeNumber(0, MOVEMENT_PHASE_STATE_MAX));
+        event.setTimingExists(hasTiming);
+        if (hasTiming) {
+            readTiming(reader, event.getTiming());
+        }
+        if (hasSpeeds) {
+            int speedCount = (int) reader.readConstrainedWholeNumber(1, ADVISORY_SPEEDS_MAX_COUNT);
+            for (int i = 0; i < speedCount; i++) {
+                skipAdvisorySpeed(reader);
+            }
+        }
+        if (hasRegional) {
+            J2735FieldCodec.skipRegionalExtensions(reader);
+        }
+        if (extended) {
+            J2735FieldCodec.skipExtensionAdditions(reader);
+        }
+        return event;
+    }
+
+    private void readTiming(UperBitReader reader, TimeChangeDetails timing) {
+        boolean hasStartTime = reader.readBoolean();
+        boolean hasMaxEndTime = reader.readBoolean();
+        boolean hasLikelyTime = reader.readBoolean();
+        boolean hasConfidence = reader.readBoolean();
+        boolean hasNextTime = reader.readBoolean();
+        timing.setStartTimeExists(hasStartTime);
+        if (hasStartTime) {
+            timing.setStartTime((short) reader.readConstrainedWholeNumber(0, TIME_MARK_MAX));
+        }
+        timing.setMinEndTime((short) reader.readConstrainedWholeNumber(0, TIME_MARK_MAX));
+        timing.setMaxEndTimeExists(hasMaxEndTime);
+        if (hasMaxEndTime) {
+            timing.setMaxEndTime((short) reader.readConstrainedWholeNumber(0, TIME_MARK_MAX));
+        }
+        if (hasLikelyTime) {
+            reader.readConstrainedWholeNumber(0, TIME_MARK_MAX);
+        }
+        if (hasConfidence) {
+            reader.readConstrainedWholeNumber(0, 15);
+        }
+        timing.setNextTimeExists(hasNextTime);
+        if (hasNextTime) {
+            timing.setNextTime((short) reader.readConstrainedWholeNumber(0, TIME_MARK_MAX));
+        }
+    }
+
+    private void skipAdvisorySpeed(UperBitReader reader) {
+        boolean extended = reader.readBoolean();
+        boolean hasSpeed = reader.readBoolean();
+        boolean hasConfidence = reader.readBoolean();
+        boolean hasDistance = reader.readBoolean();
+        boolean hasClass = reader.readBoolean();
+        boolean hasRegional = reader.readBoolean();
+        J2735FieldCodec.skipExtensibleEnumerated(reader, ADVISORY_SPEED_TYPE_COUNT);
+        if (hasSpeed) {
+            reader.readConstrainedWholeNumber(0, 500);
+        }
+        if (hasConfidence) {
+            reader.readConstrainedWholeNumber(0, 7);
+        }
+        if (hasDistance) {
+            reader.readConstrainedWholeNumber(0, J2735FieldCodec.ZONE_LENGTH_MAX);
+        }
+        if (hasClass) {
+            reader.readConstrainedWholeNumber(0, 255);
+        }
+        if (hasRegional) {
+            J2735FieldCodec.skipRegionalExtensions(reader);
+        }
+        if (extended) {
+            J2735FieldCodec.skipExtensionAdditions(reader);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.message.helper;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import gov.dot.fhwa.saxton.carma.rosutils.SaxtonLogger;
+
+/**
+ * A bounded multi-worker stage for encoding or decoding DSRC messages.
+ * Every item is submitted with a sender key and all items of the same key are handled by the same worker,
+ * so the order of the messages from one sender is preserved while different senders are handled in parallel.
+ * When the queue of a worker is full the overflow policy registered for the message type is applied.
+ */
+public class MessagePipeline<T> {
+
+    /**
+     * The action taken when an item is submitted to a full queue
+     */
+    public enum OverflowPolicy {
+        /** Drop the oldest queued item of the same type and sender, or the new item if there is none */
+        DROP_OLDEST_FROM_SENDER,
+        /** Drop the new item */
+        DROP_NEWEST,
+        /** Block the submitting thread until there is space so the item is never dropped */
+        BLOCK
+    }
+
+    private static class Entry<T> {
+        final String type;
+        final String key;
+        final T item;
+        final long enqueueTime;
+
+        Entry(String type, String key, T item, long enqueueTime) {
+            this.type = type;
+            this.key = key;
+            this.item = item;
+            this.enqueueTime = enqueueTime;
+        }
+    }
+
+    private static class Lane<T> {
+        final ArrayDeque<Entry<T>> queue = new ArrayDeque<>();
+        Thread worker;
+    }
+
+    /**
+     * Counters of a single message type. Latency is measured from submission to the end of handling.
+     */
+    public static class TypeCounter {
+        private final AtomicLong submitted = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong handled = new AtomicLong();
+        private final AtomicLong totalLatencyNanos = new AtomicLong();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+        public long getSubmitted() {
+            return submitted.get();
+        }
+
+        public long getDropped() {
+            return dropped.get();
+        }
+
+        public long getHandled() {
+            return handled.get();
+        }
+
+        public long getMaxLatencyNanos() {
+            return maxLatencyNanos.get();
+        }
+
+        public long getAverageLatencyNanos() {
+            long count = handled.get();
+            return count == 0 ? 0 : totalLatencyNanos.get() / count;
+        }
+
+        private void onHandled(long latency) {
+            handled.incrementAndGet();
+            totalLatencyNanos.addAndGet(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        }
+    }
+
+    protected final String name_;
+    protected final int capacity_;
+    protected final Consumer<T> handler_;
+    protected final SaxtonLogger log_;
+    protected final Lane<T>[] lanes_;
+    protected final Map<String, OverflowPolicy> policies_ = new ConcurrentHashMap<>();
+    protected final Map<String, TypeCounter> counters_ = new ConcurrentHashMap<>();
+    protected OverflowPolicy defaultPolicy_ = OverflowPolicy.BLOCK;
+    protected volatile boolean running_ = true;
+
+    /**
+     * Creates the pipeline and starts its workers
+     * @param name The name of the pipeline used for the worker threads and in logs
+     * @param workerCount The number of worker threads
+     * @param capacity The maximum number of queued items per worker
+     * @param handler The action applied to every item. It is called from the worker threads.
+     * @param log The logger for handler failures
+     */
+    @SuppressWarnings("unchecked")
+    public MessagePipeline(String name, int workerCount, int capacity, Consumer<T> handler, SaxtonLogger log) {
+        if(workerCount < 1 || capacity < 1) {
+            throw new IllegalArgumentException("MessagePipeline requires at least one worker and a capacity of one");
+        }
+        this.name_ = name;
+        this.capacity_ = capacity;
+        this.handler_ = handler;
+        this.log_ = log;
+        this.lanes_ = new Lane[workerCount];
+        for(int i = 0; i < workerCount; i++) {
+            Lane<T> lane = new Lane<>();
+            lane.worker = new Thread(() -> work(lane), name + "-" + i);
+            lane.worker.setDaemon(true);
+            lanes_[i] = lane;
+        }
+        for(Lane<T> lane : lanes_) {
+            lane.worker.start();
+        }
+    }
+
+    /**
+     * Sets the overflow policy of a message type
+     */
+    public void setOverflowPolicy(String type, OverflowPolicy policy) {
+        policies_.put(type, policy);
+    }
+
+    /**
+     * Sets the overflow policy of message types without a registered policy
+     */
+    public void setDefaultOverflowPolicy(OverflowPolicy policy) {
+        defaultPolicy_ = policy;
+    }
+
+    /**
+     * Queues an item to be handled by the worker of its sender
+     * @param type The message type which selects the overflow policy
+     * @param senderKey The sender of the message. If null the message type is used so the type stays in order.
+     * @param item The item to handle
+     * @return true if the item was queued, false if it was dropped
+     * @throws InterruptedException if the thread is interrupted while blocked on a full queue
+     */
+    public boolean submit(String type, String senderKey, T item) throws InterruptedException {
+        String key = senderKey == null ? type : senderKey;
+        Lane<T> lane = lanes_[Math.floorMod(key.hashCode(), lanes_.length)];
+        TypeCounter counter = getCounter(type);
+        counter.submitted.incrementAndGet();
+        OverflowPolicy policy = policies_.getOrDefault(type, defaultPolicy_);
+        synchronized(lane) {
+            while(running_ && lane.queue.size() >= capacity_) {
+                if(policy == OverflowPolicy.BLOCK) {
+                    lane.wait();
+                } else if(policy == OverflowPolicy.DROP_OLDEST_FROM_SENDER && removeOldest(lane, type, key)) {
+                    counter.dropped.incrementAndGet();
+                } else {
+                    counter.dropped.incrementAndGet();
+                    return false;
+                }
+            }
+            if(!running_) {
+                counter.dropped.incrementAndGet();
+                return false;
+            }
+            lane.queue.addLast(new Entry<>(type, key, item, System.nanoTime()));
+            lane.notifyAll();
+        }
+        return true;
+    }
+
+    /**
+     * Gets the counters of a message type
+     */
+    public TypeCounter getCounter(String type) {
+        return counters_.computeIfAbsent(type, t -> new TypeCounter());
+    }
+
+    /**
+     * Gets the number of items waiting in all worker queues
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for(Lane<T> lane : lanes_) {
+            synchronized(lane) {
+                depth += lane.queue.size();
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Describes the queue depth and the counters of every message type for logging
+     */
+    public String getSummary() {
+        StringBuilder sb = new StringBuilder(name_).append(" queue depth = ").append(getQueueDepth());
+        for(Map.Entry<String, TypeCounter> entry : counters_.entrySet()) {
+            TypeCounter counter = entry.getValue();
+            sb.append(String.format(", %s: handled %d dropped %d avg latency %.03f ms max latency %.03f ms",
+                    entry.getKey(), counter.getHandled(), counter.getDropped(),
+                    counter.getAverageLatencyNanos() / 1e6, counter.getMaxLatencyNanos() / 1e6));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Stops the workers. Queued items which have not been handled are discarded.
+     */
+    public void shutdown() {
+        running_ = false;
+        for(Lane<T> lane : lanes_) {
+            synchronized(lane) {
+                lane.queue.clear();
+                lane.notifyAll();
+            }
+            lane.worker.interrupt();
+        }
+    }
+
+    private boolean removeOldest(Lane<T> lane, String type, String key) {
+        Iterator<Entry<T>> it = lane.queue.iterator();
+        while(it.hasNext()) {
+            Entry<T> entry = it.next();
+            if(entry.type.equals(type) && entry.key.equals(key)) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void work(Lane<T> lane) {
+        while(running_) {
+            Entry<T> entry;
+            synchronized(lane) {
+                while(running_ && lane.queue.isEmpty()) {
+                    try {
+                        lane.wait();
+                    } catch(InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if(!running_) {
+                    return;
+                }
+                entry = lane.queue.pollFirst();
+                // Wake up any producer blocked on a full queue
+                lane.notifyAll();
+            }
+            try {
+                handler_.accept(entry.item);
+            } catch(RuntimeException e) {
+                log_.warn(name_ + " failed to handle " + entry.type + ": " + e.getMessage());
+            }
+            getCounter(entry.type).onHandled(System.nanoTime() - entry.enqueueTime);
+        }
+    }
+}
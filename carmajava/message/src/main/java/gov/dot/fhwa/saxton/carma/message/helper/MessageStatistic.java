@@ -26,6 +26,7 @@ import gov.dot.fhwa.saxton.carma.rosutils.SaxtonLogger;
 /**
  * This class is for recording the frequency of outgoing DSRC messages
  * and recording the number of incoming DSRC messages in a period of time.
+ * The counters may be updated from the encode workers of MessageConsumer so updates are synchronized.
  */
 public class MessageStatistic {
 
@@ -60,7 +61,7 @@ public class MessageStatistic {
         }
     }
     
-    public void onMessageSending(String messageType) {
+    public synchronized void onMessageSending(String messageType) {
         MessageCounter counter = findMessageCounter(messageType);
         if(counter == null) {
             //TODO: comment this out since we do not need to record mobility message freq for now
@@ -79,7 +80,7 @@ public class MessageStatistic {
         }
     }
     
-    public void onMessageReceiving(String messageType) {
+    public synchronized void onMessageReceiving(String messageType) {
         MessageCounter counter = findMessageCounter(messageType);
         if(counter == null) {
             log_.warn("Cannot find the right message counter based on given type.");
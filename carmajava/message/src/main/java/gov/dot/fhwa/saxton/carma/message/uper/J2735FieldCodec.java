@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.message.uper;
+
+/**
+ * UPER decoding of the J2735 data frames shared by the MAP and SPaT messages.
+ * Most of these fields are not copied into the ROS messages, so they are only read far enough to skip over them.
+ */
+public final class J2735FieldCodec {
+
+    public static final int MINUTE_OF_THE_YEAR_MAX = 527040;
+    public static final int MSG_COUNT_MAX = 127;
+    public static final int LANE_ID_MAX = 255;
+    public static final int SIGNAL_GROUP_ID_MAX = 255;
+    public static final int ZONE_LENGTH_MAX = 10000;
+    public static final int DESCRIPTIVE_NAME_MIN_LENGTH = 1;
+    public static final int DESCRIPTIVE_NAME_MAX_LENGTH = 63;
+    public static final int REGIONAL_MAX_COUNT = 4;
+    public static final int SPEED_LIMITS_MAX_COUNT = 9;
+    public static final int MANEUVER_ASSISTS_MAX_COUNT = 16;
+    public static final int SPEED_LIMIT_TYPE_COUNT = 13;
+
+    private static final int IA5_CHAR_BITS = 7;
+    private static final int REGION_ID_BITS = 8;
+    private static final int NORMALLY_SMALL_BITS = 6;
+
+    private J2735FieldCodec() {}
+
+    /**
+     * Reads an IntersectionReferenceID
+     * @return The intersection id. The optional road regulator id is skipped.
+     */
+    public static int readIntersectionReferenceID(UperBitReader reader) {
+        boolean hasRegion = reader.readBoolean();
+        if (hasRegion) {
+            reader.readConstrainedWholeNumber(0, 65535);
+        }
+        return (int) reader.readConstrainedWholeNumber(0, 65535);
+    }
+
+    /**
+     * Skips a DescriptiveName
+     */
+    public static void skipDescriptiveName(UperBitReader reader) {
+        int length = (int) reader.readConstrainedWholeNumber(DESCRIPTIVE_NAME_MIN_LENGTH, DESCRIPTIVE_NAME_MAX_LENGTH);
+        reader.skipBits(length * IA5_CHAR_BITS);
+    }
+
+    /**
+     * Skips a single RegionalExtension
+     */
+    public static void skipRegionalExtension(UperBitReader reader) {
+        reader.skipBits(REGION_ID_BITS);
+        reader.skipOpenType();
+    }
+
+    /**
+     * Skips the list of RegionalExtensions which ends most J2735 data frames
+     */
+    public static void skipRegionalExtensions(UperBitReader reader) {
+        int count = (int) reader.readConstrainedWholeNumber(1, REGIONAL_MAX_COUNT);
+        for (int i = 0; i < count; i++) {
+            skipRegionalExtension(reader);
+        }
+    }
+
+    /**
+     * Skips the extension additions of a SEQUENCE whose extension bit was set.
+     * Must be called after all of the root components of the SEQUENCE have been read.
+     */
+    public static void skipExtensionAdditions(UperBitReader reader) {
+        int count;
+        if (reader.readBoolean()) {
+            count = reader.readUnconstrainedLength();
+        } else {
+            count = (int) reader.readBits(NORMALLY_SMALL_BITS) + 1;
+        }
+        int present = 0;
+        for (int i = 0; i < count; i++) {
+            if (reader.readBoolean()) {
+                present++;
+            }
+        }
+        for (int i = 0; i < present; i++) {
+            reader.skipOpenType();
+        }
+    }
+
+    /**
+     * Skips a value of an ENUMERATED type with an extension marker
+     * @param rootCount The number of values in the root of the enumeration
+     */
+    public static void skipExtensibleEnumerated(UperBitReader reader, int rootCount) {
+        if (!reader.readBoolean()) {
+            reader.readConstrainedWholeNumber(0, rootCount - 1);
+        } else if (reader.readBoolean()) {
+            // Extension values are normally small numbers which only grow past 6 bits in exotic cases
+            reader.skipBits(8 * reader.readUnconstrainedLength());
+        } else {
+            reader.skipBits(NORMALLY_SMALL_BITS);
+        }
+    }
+
+    /**
+     * Skips a BIT STRING whose size constraint has an extension marker
+     * @param rootSize The size of the bit string in the root of the constraint
+     */
+    public static void skipExtensibleBitString(UperBitReader reader, int rootSize) {
+        if (reader.readBoolean()) {
+            reader.skipBits(reader.readUnconstrainedLength());
+        } else {
+            reader.skipBits(rootSize);
+        }
+    }
+
+    /**
+     * Skips a SpeedLimitList
+     */
+    public static void skipSpeedLimitList(UperBitReader reader) {
+        int count = (int) reader.readConstrainedWholeNumber(1, SPEED_LIMITS_MAX_COUNT);
+        for (int i = 0; i < count; i++) {
+            skipExtensibleEnumerated(reader, SPEED_LIMIT_TYPE_COUNT);
+            reader.readConstrainedWholeNumber(0, 8191);
+        }
+    }
+
+    /**
+     * Skips a ManeuverAssistList
+     */
+    public static void skipManeuverAssistList(UperBitReader reader) {
+        int count = (int) reader.readConstrainedWholeNumber(1, MANEUVER_ASSISTS_MAX_COUNT);
+        for (int i = 0; i < count; i++) {
+            boolean extended = reader.readBoolean();
+            boolean hasQueueLength = reader.readBoolean();
+            boolean hasStorageLength = reader.readBoolean();
+            boolean hasWaitOnStop = reader.readBoolean();
+            boolean hasPedBicycleDetect = reader.readBoolean();
+            boolean hasRegional = reader.readBoolean();
+            reader.readConstrainedWholeNumber(0, 255);
+            if (hasQueueLength) {
+                reader.readConstrainedWholeNumber(0, ZONE_LENGTH_MAX);
+            }
+            if (hasStorageLength) {
+                reader.readConstrainedWholeNumber(0, ZONE_LENGTH_MAX);
+            }
+            if (hasWaitOnStop) {
+                reader.readBoolean();
+            }
+            if (hasPedBicycleDetect) {
+                reader.readBoolean();
+            }
+            if (hasRegional) {
+                skipRegionalExtensions(reader);
+            }
+            if (extended) {
+                skipExtensionAdditions(reader);
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.message.uper;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+
+/**
+ * Encodes and decodes the J2735 MessageFrame which wraps every DSRC message.
+ * The frame holds the message id followed by the encoded message as an open type.
+ */
+public final class J2735MessageFrame {
+
+    public static final int MAP_ID = 18;
+    public static final int SPAT_ID = 19;
+    public static final int BSM_ID = 20;
+    public static final int MOBILITY_REQUEST_ID = 240;
+    public static final int MOBILITY_RESPONSE_ID = 241;
+    public static final int MOBILITY_PATH_ID = 242;
+    public static final int MOBILITY_OPERATION_ID = 243;
+
+    private static final int MESSAGE_ID_MAX = 32767;
+
+    private J2735MessageFrame() {}
+
+    /**
+     * Wraps an encoded message in a MessageFrame
+     * @param messageId The J2735 message id
+     * @param value The writer holding the encoded message
+     * @return The encoded MessageFrame
+     */
+    public static byte[] encode(int messageId, UperBitWriter value) {
+        return encode(messageId, value, new UperBitWriter(value.getByteLength() + 4));
+    }
+
+    /**
+     * Wraps an encoded message in a MessageFrame using a reusable writer for the frame
+     * @param messageId The J2735 message id
+     * @param value The writer holding the encoded message
+     * @param frame The writer for the frame which is reset before use
+     * @return The encoded MessageFrame
+     */
+    public static byte[] encode(int messageId, UperBitWriter value, UperBitWriter frame) {
+        frame.reset();
+        // Extensions of the MessageFrame are never used
+        frame.writeBoolean(false);
+        frame.writeConstrainedWholeNumber(messageId, 0, MESSAGE_ID_MAX);
+        frame.writeOpenType(value);
+        return frame.toByteArray();
+    }
+
+    /**
+     * Unwraps a MessageFrame without copying the encoded message
+     * @param data The array holding the encoded MessageFrame
+     * @param offset The index of the first byte of the MessageFrame
+     * @param length The number of bytes in the MessageFrame
+     * @param messageId The J2735 message id the frame is expected to hold
+     * @return A reader positioned at the start of the encoded message
+     */
+    public static UperBitReader decode(byte[] data, int offset, int length, int messageId) {
+        UperBitReader frame = new UperBitReader(data, offset, length);
+        int frameMessageId = readMessageId(frame);
+        if (frameMessageId != messageId) {
+            throw new IllegalArgumentException("Expected message id " + messageId + " but found " + frameMessageId);
+        }
+        return readValue(frame, data, offset, length);
+    }
+
+    /**
+     * Unwraps a MessageFrame held in a ChannelBuffer.
+     * The backing array of the buffer is read in place when it is available.
+     * @param buffer The buffer holding the encoded MessageFrame from index 0 to its capacity
+     * @param messageId The J2735 message id the frame is expected to hold
+     * @return A reader positioned at the start of the encoded message
+     */
+    public static UperBitReader decode(ChannelBuffer buffer, int messageId) {
+        if (buffer.hasArray()) {
+            return decode(buffer.array(), buffer.arrayOffset(), buffer.capacity(), messageId);
+        }
+        byte[] data = new byte[buffer.capacity()];
+        buffer.getBytes(0, data);
+        return decode(data, 0, data.length, messageId);
+    }
+
+    /**
+     * Reads the id of the sender from a MessageFrame without decoding the rest of the message.
+     * The BSM temporary id is returned as hex and the Mobility messages return their sender id.
+     * @param buffer The buffer holding the encoded MessageFrame from index 0 to its capacity
+     * @return The sender id or null if the message type has no known sender field or the frame is malformed
+     */
+    public static String peekSenderId(ChannelBuffer buffer) {
+        byte[] data;
+        int offset;
+        if (buffer.hasArray()) {
+            data = buffer.array();
+            offset = buffer.arrayOffset();
+        } else {
+            data = new byte[buffer.capacity()];
+            buffer.getBytes(0, data);
+            offset = 0;
+        }
+        try {
+            UperBitReader frame = new UperBitReader(data, offset, buffer.capacity());
+            int messageId = readMessageId(frame);
+            UperBitReader value = readValue(frame, data, offset, buffer.capacity());
+            switch (messageId) {
+            case BSM_ID:
+                // Skip the extension and optional bits and msgCnt which come before the temporary id
+                value.readBits(10);
+                return String.format("%08x", value.readBits(32));
+            case MOBILITY_REQUEST_ID:
+            case MOBILITY_RESPONSE_ID:
+            case MOBILITY_PATH_ID:
+            case MOBILITY_OPERATION_ID:
+                value.readBoolean();
+                return value.readIA5String(MobilityFieldCodec.STATIC_ID_MIN_LENGTH, MobilityFieldCodec.STATIC_ID_MAX_LENGTH);
+            default:
+                return null;
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static int readMessageId(UperBitReader frame) {
+        if (frame.readBoolean()) {
+            throw new IllegalArgumentException("MessageFrame extensions are not supported");
+        }
+        return (int) frame.readConstrainedWholeNumber(0, MESSAGE_ID_MAX);
+    }
+
+    private static UperBitReader readValue(UperBitReader frame, byte[] data, int offset, int length) {
+        int valueLength = frame.readUnconstrainedLength();
+        // The message id and length determinant always end on an octet boundary
+        int valueOffset = frame.getBitPosition() >>> 3;
+        if (valueLength > length - valueOffset) {
+            throw new IllegalArgumentException("MessageFrame holds " + (length - valueOffset)
+                    + " bytes but declares " + valueLength);
+        }
+        return new UperBitReader(data, offset + valueOffset, valueLength);
+    }
+}
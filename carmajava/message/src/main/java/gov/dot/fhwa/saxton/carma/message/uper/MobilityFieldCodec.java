@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.message.uper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.ros.message.MessageFactory;
+
+import cav_msgs.LocationECEF;
+import cav_msgs.LocationOffsetECEF;
+import cav_msgs.MobilityHeader;
+import gov.dot.fhwa.saxton.carma.message.helper.MobilityECEFLocationHelper;
+import gov.dot.fhwa.saxton.carma.message.helper.MobilityHeaderHelper;
+import gov.dot.fhwa.saxton.carma.message.helper.StringConverterHelper;
+
+/**
+ * UPER encoding and decoding of the fields shared by the J2735 Mobility messages.
+ * Encoding takes the validated values produced by the Mobility helper classes so the
+ * output matches the asn1c shared library byte for byte.
+ */
+public final class MobilityFieldCodec {
+
+    public static final int STATIC_ID_MIN_LENGTH = 2;
+    public static final int STATIC_ID_MAX_LENGTH = 16;
+    public static final int BSM_ID_LENGTH = 8;
+    public static final int GUID_LENGTH = 36;
+    public static final int TIMESTAMP_LENGTH = StringConverterHelper.TIMESTAMP_LENGTH;
+    public static final int STRATEGY_MIN_LENGTH = 2;
+    public static final int STRATEGY_MAX_LENGTH = 50;
+    public static final int STRATEGY_PARAMS_MIN_LENGTH = 2;
+    public static final int STRATEGY_PARAMS_MAX_LENGTH = 100;
+    public static final int URGENCY_MIN = 0;
+    public static final int URGENCY_MAX = 1000;
+    public static final int PLAN_TYPE_MIN = 0;
+    public static final int PLAN_TYPE_MAX = 15;
+    public static final int ECEF_MIN = -638363700;
+    public static final int ECEF_MAX = 638363700;
+    public static final int OFFSET_MIN = -500;
+    public static final int OFFSET_MAX = 500;
+    public static final int OFFSETS_MAX_COUNT = 60;
+
+    private MobilityFieldCodec() {}
+
+    /**
+     * Writes a MobilityHeader
+     * @param writer The destination of the encoded header
+     * @param header The validated header fields
+     */
+    public static void writeHeader(UperBitWriter writer, MobilityHeaderHelper header) {
+        writer.writeIA5String(header.getSenderId(), STATIC_ID_MIN_LENGTH, STATIC_ID_MAX_LENGTH);
+        writer.writeIA5String(header.getTargetId(), STATIC_ID_MIN_LENGTH, STATIC_ID_MAX_LENGTH);
+        writer.writeFixedIA5String(header.getBSMId(), BSM_ID_LENGTH);
+        writer.writeFixedIA5String(header.getPlanId(), GUID_LENGTH);
+        writer.writeFixedIA5String(header.getTimestamp(), TIMESTAMP_LENGTH);
+    }
+
+    /**
+     * Reads a MobilityHeader
+     * @param reader The source of the encoded header
+     * @param header The message which will be filled with the decoded fields
+     */
+    public static void readHeader(UperBitReader reader, MobilityHeader header) {
+        header.setSenderId(readDynamicLengthString(reader, STATIC_ID_MIN_LENGTH, STATIC_ID_MAX_LENGTH));
+        header.setRecipientId(readDynamicLengthString(reader, STATIC_ID_MIN_LENGTH, STATIC_ID_MAX_LENGTH));
+        header.setSenderBsmId(reader.readFixedIA5String(BSM_ID_LENGTH));
+        header.setPlanId(reader.readFixedIA5String(GUID_LENGTH));
+        header.setTimestamp(readTimestamp(reader));
+    }
+
+    /**
+     * Reads a string written from the output of StringConverterHelper.setDynamicLengthString
+     * @return The decoded string which is empty if the default dynamic string was sent
+     */
+    public static String readDynamicLengthString(UperBitReader reader, int minLength, int maxLength) {
+        String value = reader.readIA5String(minLength, maxLength);
+        return value.equals(StringConverterHelper.DYNAMIC_STRING_DEFAULT) ? "" : value;
+    }
+
+    /**
+     * Reads a timestamp written from the output of StringConverterHelper.setTimestamp
+     * @return The decoded timestamp
+     */
+    public static long readTimestamp(UperBitReader reader) {
+        return Long.parseLong(reader.readFixedIA5String(TIMESTAMP_LENGTH));
+    }
+
+    /**
+     * Writes a MobilityLocation
+     * @param writer The destination of the encoded location
+     * @param location The validated location fields
+     */
+    public static void writeLocation(UperBitWriter writer, MobilityECEFLocationHelper location) {
+        writer.writeConstrainedWholeNumber(location.getEcefX(), ECEF_MIN, ECEF_MAX);
+        writer.writeConstrainedWholeNumber(location.getEcefY(), ECEF_MIN, ECEF_MAX);
+        writer.writeConstrainedWholeNumber(location.getEcefZ(), ECEF_MIN, ECEF_MAX);
+        writer.writeFixedIA5String(location.getTimestamp(), TIMESTAMP_LENGTH);
+    }
+
+    /**
+     * Reads a MobilityLocation
+     * @param reader The source of the encoded location
+     * @param location The message which will be filled with the decoded fields
+     */
+    public static void readLocation(UperBitReader reader, LocationECEF location) {
+        location.setEcefX((int) reader.readConstrainedWholeNumber(ECEF_MIN, ECEF_MAX));
+        location.setEcefY((int) reader.readConstrainedWholeNumber(ECEF_MIN, ECEF_MAX));
+        location.setEcefZ((int) reader.readConstrainedWholeNumber(ECEF_MIN, ECEF_MAX));
+        location.setTimestamp(readTimestamp(reader));
+    }
+
+    /**
+     * Writes a list of trajectory offsets preceded by their count
+     * @param writer The destination of the encoded offsets
+     * @param offsets The validated offsets indexed by axis then point as produced by MobilityTrajectoryHelper
+     */
+    public static void writeOffsets(UperBitWriter writer, int[][] offsets) {
+        int count = offsets[0].length;
+        writer.writeConstrainedWholeNumber(count, 0, OFFSETS_MAX_COUNT);
+        for (int i = 0; i < count; i++) {
+            writer.writeConstrainedWholeNumber(offsets[0][i], OFFSET_MIN, OFFSET_MAX);
+            writer.writeConstrainedWholeNumber(offsets[1][i], OFFSET_MIN, OFFSET_MAX);
+            writer.writeConstrainedWholeNumber(offsets[2][i], OFFSET_MIN, OFFSET_MAX);
+        }
+    }
+
+    /**
+     * Reads a list of trajectory offsets preceded by their count
+     * @param reader The source of the encoded offsets
+     * @param factory The factory used to create the offset messages
+     * @return The decoded offsets
+     */
+    public static List<LocationOffsetECEF> readOffsets(UperBitReader reader, MessageFactory factory) {
+        int count = (int) reader.readConstrainedWholeNumber(0, OFFSETS_MAX_COUNT);
+        List<LocationOffsetECEF> offsets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocationOffsetECEF offset = factory.newFromType(LocationOffsetECEF._TYPE);
+            offset.setOffsetX((short) reader.readConstrainedWholeNumber(OFFSET_MIN, OFFSET_MAX));
+            offset.setOffsetY((short) reader.readConstrainedWholeNumber(OFFSET_MIN, OFFSET_MAX));
+            offset.setOffsetZ((short) reader.readConstrainedWholeNumber(OFFSET_MIN, OFFSET_MAX));
+            offsets.add(offset);
+        }
+        return offsets;
+    }
+}
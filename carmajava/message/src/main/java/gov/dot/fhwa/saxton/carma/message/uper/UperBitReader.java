@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.message.uper;
+
+/**
+ * Reads values from a region of a byte array encoded with the ASN.1 unaligned packed encoding rules (UPER).
+ * The region is read in place so the encoded data does not need to be copied before decoding.
+ * Reading past the end of the region or reading a value outside its constraint causes an IllegalArgumentException.
+ * <p>
+ * This class is not thread safe.
+ */
+public final class UperBitReader {
+
+    private static final int IA5_CHAR_BITS = 7;
+
+    private final byte[] data;
+    private final int offset;
+    private final int bitLimit;
+    private int bitPosition = 0;
+
+    /**
+     * @param data The array holding the encoded data
+     * @param offset The index of the first byte of the encoded data
+     * @param length The number of bytes of encoded data
+     */
+    public UperBitReader(byte[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > data.length) {
+            throw new IllegalArgumentException("Invalid region [" + offset + ", " + (offset + length)
+                    + ") of an array with length " + data.length);
+        }
+        this.data = data;
+        this.offset = offset;
+        this.bitLimit = 8 * length;
+    }
+
+    /**
+     * @return The number of bits read so far
+     */
+    public int getBitPosition() {
+        return bitPosition;
+    }
+
+    /**
+     * @return The number of bits which have not been read
+     */
+    public int getRemainingBits() {
+        return bitLimit - bitPosition;
+    }
+
+    /**
+     * Reads an unsigned value
+     * @param bitCount The number of bits to read in the range [0, 63]
+     * @return The value of the bits
+     */
+    public long readBits(int bitCount) {
+        if (bitCount < 0 || bitCount > 63) {
+            throw new IllegalArgumentException("Cannot read " + bitCount + " bits into a long");
+        }
+        if (bitCount > bitLimit - bitPosition) {
+            throw new IllegalArgumentException("Cannot read " + bitCount + " bits at bit " + bitPosition
+                    + " of a " + bitLimit + " bit buffer");
+        }
+        long value = 0;
+        int remaining = bitCount;
+        while (remaining > 0) {
+            int available = 8 - (bitPosition & 7);
+            int take = Math.min(available, remaining);
+            int chunk = ((data[offset + (bitPosition >>> 3)] & 0xFF) >>> (available - take)) & ((1 << take) - 1);
+            value = (value << take) | chunk;
+            remaining -= take;
+            bitPosition += take;
+        }
+        return value;
+    }
+
+    /**
+     * Skips over bits which do not need to be decoded
+     * @param bitCount The number of bits to skip
+     */
+    public void skipBits(int bitCount) {
+        if (bitCount < 0 || bitCount > bitLimit - bitPosition) {
+            throw new IllegalArgumentException("Cannot skip " + bitCount + " bits at bit " + bitPosition
+                    + " of a " + bitLimit + " bit buffer");
+        }
+        bitPosition += bitCount;
+    }
+
+    public boolean readBoolean() {
+        return readBits(1) == 1;
+    }
+
+    /**
+     * Reads a constrained whole number encoded as an offset from its lower bound
+     * @param lowerBound The lower bound of the constraint
+     * @param upperBound The upper bound of the constraint
+     * @return The decoded value
+     */
+    public long readConstrainedWholeNumber(long lowerBound, long upperBound) {
+        long value = lowerBound + readBits(UperBitWriter.bitsForRange(lowerBound, upperBound));
+        if (value > upperBound) {
+            throw new IllegalArgumentException(
+                    "Value " + value + " is outside the range [" + lowerBound + ", " + upperBound + "]");
+        }
+        return value;
+    }
+
+    /**
+     * Reads an IA5String with a fixed size
+     * @param size The size of the string from its constraint
+     * @return The decoded string
+     */
+    public String readFixedIA5String(int size) {
+        return readIA5Chars(size);
+    }
+
+    /**
+     * Reads an IA5String with a constrained size which is preceded by its length determinant
+     * @param minSize The lower bound of the size constraint
+     * @param maxSize The upper bound of the size constraint
+     * @return The decoded string
+     */
+    public String readIA5String(int minSize, int maxSize) {
+        return readIA5Chars((int) readConstrainedWholeNumber(minSize, maxSize));
+    }
+
+    /**
+     * Reads a length determinant without an upper bound as used for open types
+     * @return The decoded length
+     */
+    public int readUnconstrainedLength() {
+        int first = (int) readBits(8);
+        if ((first & 0x80) == 0) {
+            return first;
+        }
+        if ((first & 0x40) == 0) {
+            return ((first & 0x3F) << 8) | (int) readBits(8);
+        }
+        throw new IllegalArgumentException("Fragmented lengths are not supported");
+    }
+
+    /**
+     * Skips over an open type which is preceded by its length determinant in octets
+     */
+    public void skipOpenType() {
+        skipBits(8 * readUnconstrainedLength());
+    }
+
+    private String readIA5Chars(int size) {
+        char[] chars = new char[size];
+        for (int i = 0; i < size; i++) {
+            chars[i] = (char) readBits(IA5_CHAR_BITS);
+        }
+        return new String(chars);
+    }
+}
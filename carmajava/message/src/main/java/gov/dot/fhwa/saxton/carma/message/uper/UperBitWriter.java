@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.message.uper;
+
+import java.util.Arrays;
+
+/**
+ * Writes values into a growable buffer using the ASN.1 unaligned packed encoding rules (UPER).
+ * Bits are written most significant bit first without any octet alignment between fields.
+ * Only the subset of UPER used by the J2735 messages in this package is supported.
+ * A value which does not fit its constraint causes an IllegalArgumentException.
+ * <p>
+ * A writer can be reused by calling reset. This class is not thread safe.
+ */
+public final class UperBitWriter {
+
+    private static final int DEFAULT_CAPACITY = 256;
+    private static final int IA5_CHAR_BITS = 7;
+
+    private byte[] buffer;
+    private int bitPosition = 0;
+
+    public UperBitWriter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity The number of bytes which can be written before the buffer needs to grow
+     */
+    public UperBitWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(1, initialCapacity)];
+    }
+
+    /**
+     * Clears all written data while keeping the allocated buffer
+     */
+    public void reset() {
+        Arrays.fill(buffer, 0, getByteLength(), (byte) 0);
+        bitPosition = 0;
+    }
+
+    /**
+     * @return The number of bits written so far
+     */
+    public int getBitLength() {
+        return bitPosition;
+    }
+
+    /**
+     * @return The number of bytes needed to hold the written bits including padding of the last byte
+     */
+    public int getByteLength() {
+        return (bitPosition + 7) >>> 3;
+    }
+
+    /**
+     * Writes the lowest bits of a value
+     * @param value The value to write which must fit in bitCount bits when treated as unsigned
+     * @param bitCount The number of bits to write in the range [0, 63]
+     */
+    public void writeBits(long value, int bitCount) {
+        if (bitCount < 0 || bitCount > 63 || (value >>> bitCount) != 0) {
+            throw new IllegalArgumentException("Value " + value + " does not fit in " + bitCount + " bits");
+        }
+        ensureCapacity(bitPosition + bitCount);
+        int remaining = bitCount;
+        while (remaining > 0) {
+            int available = 8 - (bitPosition & 7);
+            int take = Math.min(available, remaining);
+            int chunk = (int) (value >>> (remaining - take)) & ((1 << take) - 1);
+            buffer[bitPosition >>> 3] |= chunk << (available - take);
+            remaining -= take;
+            bitPosition += take;
+        }
+    }
+
+    public void writeBoolean(boolean value) {
+        writeBits(value ? 1 : 0, 1);
+    }
+
+    /**
+     * Writes a constrained whole number as an offset from its lower bound using the minimum number of bits
+     * @param value The value to write
+     * @param lowerBound The lower bound of the constraint
+     * @param upperBound The upper bound of the constraint
+     */
+    public void writeConstrainedWholeNumber(long value, long lowerBound, long upperBound) {
+        if (value < lowerBound || value > upperBound) {
+            throw new IllegalArgumentException(
+                    "Value " + value + " is outside the range [" + lowerBound + ", " + upperBound + "]");
+        }
+        writeBits(value - lowerBound, bitsForRange(lowerBound, upperBound));
+    }
+
+    /**
+     * Writes an IA5String with a fixed size. No length determinant is encoded.
+     * @param chars The characters of the string
+     * @param size The size of the string from its constraint
+     */
+    public void writeFixedIA5String(byte[] chars, int size) {
+        if (chars.length != size) {
+            throw new IllegalArgumentException("IA5String of length " + chars.length + " must have length " + size);
+        }
+        writeIA5Chars(chars);
+    }
+
+    /**
+     * Writes an IA5String with a constrained size as a length determinant followed by its characters
+     * @param chars The characters of the string
+     * @param minSize The lower bound of the size constraint
+     * @param maxSize The upper bound of the size constraint
+     */
+    public void writeIA5String(byte[] chars, int minSize, int maxSize) {
+        writeConstrainedWholeNumber(chars.length, minSize, maxSize);
+        writeIA5Chars(chars);
+    }
+
+    /**
+     * Writes a length determinant without an upper bound as used for open types
+     * @param length The length to write which must be less than 16384
+     */
+    public void writeUnconstrainedLength(int length) {
+        if (length < 0 || length >= 16384) {
+            throw new IllegalArgumentException("Unsupported unconstrained length " + length);
+        }
+        if (length < 128) {
+            writeBits(length, 8);
+        } else {
+            writeBits(0x8000 | length, 16);
+        }
+    }
+
+    /**
+     * Writes the contents of another writer as an open type. The contents are padded to a whole number of octets.
+     * @param value The writer holding the encoded value
+     */
+    public void writeOpenType(UperBitWriter value) {
+        // An empty encoding is replaced by a single zero octet
+        int length = Math.max(1, value.getByteLength());
+        writeUnconstrainedLength(length);
+        ensureCapacity(bitPosition + 8 * length);
+        if ((bitPosition & 7) == 0) {
+            System.arraycopy(value.buffer, 0, buffer, bitPosition >>> 3, value.getByteLength());
+            bitPosition += 8 * length;
+        } else {
+            for (int i = 0; i < length; i++) {
+                writeBits(value.buffer[i] & 0xFF, 8);
+            }
+        }
+    }
+
+    /**
+     * @return A copy of the written bytes with the last byte padded with zero bits
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, getByteLength());
+    }
+
+    /**
+     * Returns the number of bits needed to encode any value in a constrained range
+     * @param lowerBound The lower bound of the range
+     * @param upperBound The upper bound of the range
+     * @return The number of bits needed which is 0 if the range holds a single value
+     */
+    static int bitsForRange(long lowerBound, long upperBound) {
+        long range = upperBound - lowerBound;
+        return 64 - Long.numberOfLeadingZeros(range);
+    }
+
+    private void writeIA5Chars(byte[] chars) {
+        for (byte ch : chars) {
+            if (ch < 0) {
+                throw new IllegalArgumentException("Character " + (ch & 0xFF) + " is not a valid IA5 character");
+            }
+            writeBits(ch, IA5_CHAR_BITS);
+        }
+    }
+
+    private void ensureCapacity(int bitCount) {
+        int byteCount = (bitCount + 7) >>> 3;
+        if (byteCount > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(byteCount, buffer.length * 2));
+        }
+    }
+}
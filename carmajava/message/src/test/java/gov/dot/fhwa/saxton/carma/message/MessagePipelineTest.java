@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.message;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import gov.dot.fhwa.saxton.carma.message.helper.MessagePipeline;
+import gov.dot.fhwa.saxton.carma.message.helper.MessagePipeline.OverflowPolicy;
+import gov.dot.fhwa.saxton.carma.rosutils.SaxtonLogger;
+
+public class MessagePipelineTest {
+
+    SaxtonLogger mockLogger = mock(SaxtonLogger.class);
+
+    @Test
+    public void testOrderPerSender() throws InterruptedException {
+        Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(300);
+        MessagePipeline<int[]> pipeline = new MessagePipeline<>("test", 4, 10, (item) -> {
+            received.computeIfAbsent("sender" + item[0], k -> Collections.synchronizedList(new ArrayList<>())).add(item[1]);
+            done.countDown();
+        }, mockLogger);
+        for(int i = 0; i < 100; i++) {
+            for(int sender = 0; sender < 3; sender++) {
+                assertTrue(pipeline.submit("MobilityRequest", "sender" + sender, new int[] {sender, i}));
+            }
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for(List<Integer> sequence : received.values()) {
+            for(int i = 0; i < 100; i++) {
+                assertEquals(i, (int) sequence.get(i));
+            }
+        }
+        assertEquals(300, pipeline.getCounter("MobilityRequest").getHandled());
+        assertEquals(0, pipeline.getCounter("MobilityRequest").getDropped());
+        pipeline.shutdown();
+    }
+
+    @Test
+    public void testOverflowPolicies() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> handled = Collections.synchronizedList(new ArrayList<>());
+        MessagePipeline<String> pipeline = new MessagePipeline<>("test", 1, 2, (item) -> {
+            if(item.equals("first")) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            handled.add(item);
+        }, mockLogger);
+        pipeline.setOverflowPolicy("BSM", OverflowPolicy.DROP_OLDEST_FROM_SENDER);
+        pipeline.setOverflowPolicy("MAP", OverflowPolicy.DROP_NEWEST);
+        // Hold the only worker so the queue fills up
+        pipeline.submit("BSM", "a", "first");
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        pipeline.submit("BSM", "a", "a1");
+        pipeline.submit("BSM", "b", "b1");
+        assertEquals(2, pipeline.getQueueDepth());
+        // The oldest BSM of the same sender is replaced
+        assertTrue(pipeline.submit("BSM", "b", "b2"));
+        // Without a queued BSM of the sender the new one is dropped
+        assertFalse(pipeline.submit("BSM", "c", "c1"));
+        assertFalse(pipeline.submit("MAP", "a", "map"));
+        assertEquals(2, pipeline.getCounter("BSM").getDropped());
+        assertEquals(1, pipeline.getCounter("MAP").getDropped());
+
+        // A blocking type waits for space instead of dropping
+        Thread producer = new Thread(() -> {
+            try {
+                pipeline.submit("MobilityRequest", "a", "request");
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        producer.join(200);
+        assertTrue(producer.isAlive());
+        release.countDown();
+        producer.join(5000);
+        assertFalse(producer.isAlive());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while(handled.size() < 4 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(Arrays.asList("first", "a1", "b2", "request"), handled);
+        assertEquals(0, pipeline.getQueueDepth());
+        assertEquals(1, pipeline.getCounter("MobilityRequest").getHandled());
+        assertTrue(pipeline.getCounter("BSM").getMaxLatencyNanos() > 0);
+        pipeline.shutdown();
+    }
+}
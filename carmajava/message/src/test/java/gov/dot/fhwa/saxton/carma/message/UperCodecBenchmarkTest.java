@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.message;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNoException;
+import static org.mockito.Mockito.mock;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteOrder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.junit.Test;
+import org.ros.message.MessageFactory;
+import org.ros.node.ConnectedNode;
+import org.ros.node.NodeConfiguration;
+
+import cav_msgs.ByteArray;
+import gov.dot.fhwa.saxton.carma.message.factory.DSRCMessageFactory;
+import gov.dot.fhwa.saxton.carma.message.factory.IMessage;
+import gov.dot.fhwa.saxton.carma.message.factory.UperBSMMessage;
+import gov.dot.fhwa.saxton.carma.message.factory.UperMobilityOperationMessage;
+import gov.dot.fhwa.saxton.carma.message.factory.UperMobilityPathMessage;
+import gov.dot.fhwa.saxton.carma.message.factory.UperMobilityRequestMessage;
+import gov.dot.fhwa.saxton.carma.message.factory.UperMobilityResponseMessage;
+import gov.dot.fhwa.saxton.carma.rosutils.SaxtonLogger;
+import j2735_msgs.BSM;
+
+/**
+ * Throughput benchmark of the pure Java UPER codec using the captured fixtures from UperCodecTest.
+ * Each message is decoded and re-encoded after a warm up period and the average time per message is printed.
+ * The allocation benchmarks compare a new codec per message with the codecs reused by DSRCMessageFactory,
+ * for both the Java codec and the asn1c codec when its native library is available.
+ * Benchmarks are excluded from the unit tests and run with the benchmark gradle task.
+ */
+public class UperCodecBenchmarkTest {
+
+    private static final int WARM_UP_ITERATIONS = 20000;
+    private static final int MEASURED_ITERATIONS = 100000;
+
+    MessageFactory messageFactory = NodeConfiguration.newPrivate().getTopicMessageFactory();
+    SaxtonLogger mockLogger = mock(SaxtonLogger.class);
+    ConnectedNode mockNode = mock(ConnectedNode.class);
+
+    @Test
+    public void benchmarkMobilityOperation() {
+        UperMobilityOperationMessage codec = new UperMobilityOperationMessage(messageFactory, mockLogger);
+        benchmark("MobilityOperation", UperCodecTest.OPERATION, codec::decodeBytes, codec::encodeBytes);
+    }
+
+    @Test
+    public void benchmarkMobilityRequest() {
+        UperMobilityRequestMessage codec = new UperMobilityRequestMessage(messageFactory, mockLogger);
+        benchmark("MobilityRequest", UperCodecTest.REQUEST_WITH_OPTIONAL_FIELDS, codec::decodeBytes, codec::encodeBytes);
+    }
+
+    @Test
+    public void benchmarkMobilityPath() {
+        UperMobilityPathMessage codec = new UperMobilityPathMessage(messageFactory, mockLogger);
+        benchmark("MobilityPath", UperCodecTest.PATH_WITH_OFFSETS, codec::decodeBytes, codec::encodeBytes);
+    }
+
+    @Test
+    public void benchmarkMobilityResponse() {
+        UperMobilityResponseMessage codec = new UperMobilityResponseMessage(messageFactory, mockLogger);
+        benchmark("MobilityResponse", UperCodecTest.ACK_RESPONSE, codec::decodeBytes, codec::encodeBytes);
+    }
+
+    @Test
+    public void benchmarkBSM() {
+        UperBSMMessage codec = new UperBSMMessage(mockNode, mockLogger, messageFactory);
+        benchmark("BSM", UperCodecTest.BSM_MESSAGE, codec::decodeBytes, codec::encodeBytes);
+    }
+
+    @Test
+    public void benchmarkBSMAllocation() {
+        benchmarkBSMAllocation("UPER", true);
+    }
+
+    @Test
+    public void benchmarkAsn1cBSMAllocation() {
+        // BSMMessage loads the native library when it is first created and it is only linked on the first call
+        try {
+            new DSRCMessageFactory(mockNode, mockLogger, messageFactory).getCodec("BSM", false).decode(bsmByteArray());
+        } catch (UnsatisfiedLinkError | NoClassDefFoundError e) {
+            assumeNoException("The asn1c library is not available", e);
+        }
+        benchmarkBSMAllocation("asn1c", false);
+    }
+
+    /**
+     * Measures the allocations of the BSM codec with a new codec per message and with the codec pooled by DSRCMessageFactory
+     */
+    private void benchmarkBSMAllocation(String codecName, boolean useJavaCodec) {
+        DSRCMessageFactory codecFactory = new DSRCMessageFactory(mockNode, mockLogger, messageFactory);
+        ByteArray binaryMsg = bsmByteArray();
+        BSM bsm = new UperBSMMessage(mockNode, mockLogger, messageFactory).decodeBytes(UperCodecTest.BSM_MESSAGE);
+
+        Supplier<IMessage<?>> newCodec = () -> DSRCMessageFactory.getMessage("BSM", mockNode, mockLogger, messageFactory, useJavaCodec);
+        Supplier<IMessage<?>> pooledCodec = () -> codecFactory.getCodec("BSM", useJavaCodec);
+        long newDecode = bytesPerMessage(() -> newCodec.get().decode(binaryMsg));
+        long pooledDecode = bytesPerMessage(() -> pooledCodec.get().decode(binaryMsg));
+        long newEncode = bytesPerMessage(() -> newCodec.get().encode(bsm));
+        long pooledEncode = bytesPerMessage(() -> pooledCodec.get().encode(bsm));
+        System.out.println("BSM " + codecName + " decode allocates " + newDecode + " bytes with a new codec and " + pooledDecode + " bytes with a pooled codec per message");
+        System.out.println("BSM " + codecName + " encode allocates " + newEncode + " bytes with a new codec and " + pooledEncode + " bytes with a pooled codec per message");
+        // Reusing the codecs never allocates more than creating a codec per message
+        assertTrue(pooledDecode <= newDecode);
+        assertTrue(pooledEncode <= newEncode);
+    }
+
+    private ByteArray bsmByteArray() {
+        ByteArray binaryMsg = messageFactory.newFromType(ByteArray._TYPE);
+        binaryMsg.setMessageType("BSM");
+        binaryMsg.setContent(ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN, UperCodecTest.BSM_MESSAGE));
+        return binaryMsg;
+    }
+
+    /**
+     * Measures the bytes allocated by the current thread for each run of the action.
+     * Returns -1 if the JVM does not support allocation measurement.
+     */
+    private long bytesPerMessage(Runnable action) {
+        if(!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            action.run();
+        }
+        long start = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            action.run();
+        }
+        return (threadBean.getThreadAllocatedBytes(threadId) - start) / MEASURED_ITERATIONS;
+    }
+
+    private <T> void benchmark(String name, byte[] fixture, Function<byte[], T> decoder, Function<T, byte[]> encoder) {
+        T message = decoder.apply(fixture);
+        // Consume the results so the loops cannot be optimized away
+        long checksum = 0;
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            checksum += encoder.apply(decoder.apply(fixture)).length;
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            message = decoder.apply(fixture);
+        }
+        long decodeEnd = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            checksum += encoder.apply(message).length;
+        }
+        long encodeEnd = System.nanoTime();
+
+        assertEquals((long) fixture.length * (WARM_UP_ITERATIONS + MEASURED_ITERATIONS), checksum);
+        System.out.println(name + " UPER decode takes " + (decodeEnd - start) / MEASURED_ITERATIONS + "ns and encode takes "
+                + (encodeEnd - decodeEnd) / MEASURED_ITERATIONS + "ns per message");
+    }
+}
@@ -0,0 +1,664 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.message;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.junit.Before;
+import org.junit.Test;
+import org.ros.message.MessageFactory;
+import org.ros.node.ConnectedNode;
+import org.ros.node.NodeConfiguration;
+
+import cav_msgs.ByteArray;
+import cav_msgs.LocationECEF;
+import cav_msgs.LocationOffsetECEF;
+import cav_msgs.MobilityHeader;
+import cav_msgs.MobilityOperation;
+import cav_msgs.MobilityPath;
+import cav_msgs.MobilityRequest;
+import cav_msgs.MobilityResponse;
+import gov.dot.fhwa.saxton.carma.message.factory.DSRCMessageFactory;
+import gov.dot.fhwa.saxton.carma.message.factory.UperBSMMessage;
+import gov.dot.fhwa.saxton.carma.message.factory.UperMapMessage;
+import gov.dot.fhwa.saxton.carma.message.factory.UperMobilityOperationMessage;
+import gov.dot.fhwa.saxton.carma.message.factory.UperMobilityPathMessage;
+import gov.dot.fhwa.saxton.carma.message.factory.UperMobilityRequestMessage;
+import gov.dot.fhwa.saxton.carma.message.factory.UperMobilityResponseMessage;
+import gov.dot.fhwa.saxton.carma.message.factory.UperSPATMessage;
+import gov.dot.fhwa.saxton.carma.message.uper.J2735MessageFrame;
+import gov.dot.fhwa.saxton.carma.message.uper.UperBitReader;
+import gov.dot.fhwa.saxton.carma.message.uper.UperBitWriter;
+import gov.dot.fhwa.saxton.carma.rosutils.SaxtonLogger;
+import j2735_msgs.BSM;
+import j2735_msgs.BSMCoreData;
+import j2735_msgs.Connection;
+import j2735_msgs.GenericLane;
+import j2735_msgs.IntersectionGeometry;
+import j2735_msgs.IntersectionState;
+import j2735_msgs.LaneTypeAttributes;
+import j2735_msgs.MapData;
+import j2735_msgs.MovementEvent;
+import j2735_msgs.MovementPhaseState;
+import j2735_msgs.MovementState;
+import j2735_msgs.NodeListXY;
+import j2735_msgs.NodeOffsetPointXY;
+import j2735_msgs.NodeXY;
+import j2735_msgs.SPAT;
+
+/**
+ * Conformance tests for the pure Java UPER codec.
+ * The binary fixtures were captured from the asn1c shared library and are shared with the JNI codec tests.
+ */
+public class UperCodecTest {
+
+    static final byte[] OPERATION = {0, -13, -128, -121, 77, 90, 113, 39, -44, 90, -47, -85, 22, 12, 38, -83, 56,
+            -109, -22, 45, 104, -43, -125, -106, -84, 88, 65, -123, 14, 36, 88, -52, 88,
+            -79, 98, -59, -117, 22, 43, 89, 50, 100, -55, 107, 54, 108, -39, -83, -125,
+            6, 12, 21, -84, 88, -79, 98, -59, -117, 22, 44, 88, -79, 98, -63, -125, 6,
+            12, 24, 48, 96, -63, -125, 22, 76, -38, 53, 108, -35, -61, -109, -95, -31,
+            -27, -73, 10, -6, 27, 48, -12, -33, -65, 118, -99, -39, -40, 73, -99, 26, 127,
+            -55, -111, 96, -60, -117, 73, -43, 90, 113, 39, -44, 90, -47, -85, 22, 12, 22,
+            82, -117, 6, -107, -8, -107, 34, 58, 102, -47, 115, 38, 75, 41, -48, -117, 22,
+            35, -90, 44, 23, 48, 98};
+
+    static final byte[] REQUEST_WITHOUT_OPTIONAL_FIELDS = {0, -16, -128, -125, 77, 90, 113, 39, -44, 90, -47, -85, 22, 12, 2, -35,
+            -42, 44, 32, -62, -121, 18, 44, 102, 44, 88, -79, 98, -59, -117, 21, -84,
+            -103, 50, 100, -75, -101, 54, 108, -42, -63, -125, 6, 10, -42, 44, 88, -79,
+            98, -59, -117, 22, 44, 88, -79, 96, -63, -125, 6, 12, 24, 48, 96, -63, -117,
+            38, 109, 26, -74, 110, -31, -56, 58, 30, 30, 91, 112, -81, -95, -77, 15, 77,
+            -5, -9, 105, -35, -100, 62, 116, -62, -92, 74, -23, -123, -75, 23, -109, 12,
+            67, 50, -80, 96, -63, -125, 6, 12, 24, 48, 96, -63, -125, 6, 12, 24, 48, 96,
+            -64, -116, 26, 81, -40, -70, 106, -71, -126, -60, 16, 105, 71, 100, -23, -117, 101, -52, 0};
+
+    static final byte[] REQUEST_WITH_OPTIONAL_FIELDS = {0, -16, -127, -111, 77, 90, 113, 39, -44, 90, -47, -85, 22, 12, 2, -35, -42, 44,
+            32, -62, -121, 18, 44, 102, 44, 88, -79, 98, -59, -117, 21, -84, -103, 50, 100,
+            -75, -101, 54, 108, -42, -63, -125, 6, 10, -42, 44, 88, -79, 98, -59, -117, 22,
+            44, 88, -79, 96, -63, -125, 6, 12, 24, 48, 96, -63, -117, 38, 109, 26, -74, 110,
+            -31, -49, 58, 30, 30, 91, 112, -81, -95, -77, 15, 77, -5, -9, 105, -35, -100, 62,
+            116, -62, -92, 74, -23, -123, -75, 23, -109, 12, 67, 50, -80, 96, -63, -125, 6, 12,
+            24, 48, 96, -63, -125, 6, 12, 24, 48, 96, -64, -116, 26, 81, -40, -70, 106, -71, -126,
+            -60, 16, 105, 71, 100, -23, -117, 101, -52, 19, 6, 84, 76, 38, 12, -88, -104, 76, 25,
+            81, 48, -63, -125, 6, 12, 24, 48, 96, -63, -125, 6, 12, 24, 48, 96, -63, -125, 95, 31,
+            71, -47, -12, 125, 95, 87, -43, -10, 125, -97, 103, -35, -9, 125, -33, -121, -31, -8,
+            126, 95, -105, -27, -6, 126, -97, -89, -19, -5, 126, -33, -57, -15, -4, 127, 95, -41,
+            -11, -2, 127, -97, -25, -3, -1, 127, -32, 8, 2, 0, -128, 96, 24, 6, 2, -128, -96, 40,
+            14, 3, -128, -32, 72, 18, 4, -127, 96, 88, 22, 6, -127, -96, 104, 30, 7, -127, -32, -120,
+            34, 8, -126, 96, -104, 38, 10, -126, -96, -88, 46, 11, -126, -32, -56, 50, 12, -125, 96,
+            -40, 54, 14, -125, -96, -24, 62, 15, -125, -31, 8, 66, 16, -124, 97, 24, 70, 18, -124,
+            -95, 40, 78, 19, -124, -31, 72, 82, 20, -123, 97, 88, 86, 22, -123, -95, 104, 94, 23,
+            -123, -31, -120, 98, 24, -122, 97, -104, 102, 26, -122, -95, -88, 110, 27, -122, -31,
+            -56, 114, 28, -121, 97, -40, 118, 30, -121, -95, -24, 126, 31, -121, -30, 8, -126, 32,
+            -120, 98, 24, -122, 34, -120, -94, 40, -114, 35, -120, -30, 72, -110, 36, -119, 98, 88,
+            -106, 38, -119, -94, 104, -98, 39, -119, -30, -120, -94, 40, -118, 98, -104, -90, 42,
+            -118, -94, -88, -82, 43, -118, -30, -56, -78, 44, -117, 98, -40, -74, 46, -117, -94, -24,
+            -66, 47, -117, -40, 48, 96, -63, -125, 6, 12, 24, 48, 96, -63, -125, 6, 12, 24, 56, 100};
+
+    static final byte[] PATH_WITHOUT_OFFSETS = { 0, -14, 97, 77, 90, 113, 39, -44, 90, -47, -85, 22, 12, 2, -35, -42, 44, 32, -62, -121, 18,
+            44, 102, 44, 88, -79, 98, -59, -117, 21, -84, -103, 50, 100, -75, -101, 54, 108, -42, -63, -125, 6, 10,
+            -42, 44, 88, -79, 98, -59, -117, 22, 44, 88, -79, 96, -63, -125, 6, 12, 24, 48, 96, -63, -117, 38, 109,
+            26, -74, 110, -31, -54, 96, -54, -125, 68, -63, -107, 6, -119, -125, 42, 13, 24, 48, 96, -63, -125, 6,
+            12, 24, 48, 96, -63, -125, 6, 12, 24, 48, 96, 0 };
+
+    static final byte[] PATH_WITH_OFFSETS = { 0, -14, 108, 77, 90, 113, 39, -44, 90, -47, -85, 22, 12, 2, -35, -42, 44, 32, -62, -121, 18,
+            44, 102, 44, 88, -79, 98, -59, -117, 21, -84, -103, 50, 100, -75, -101, 54, 108, -42, -63, -125, 6, 10,
+            -42, 44, 88, -79, 98, -59, -117, 22, 44, 88, -79, 96, -63, -125, 6, 12, 24, 48, 96, -63, -117, 38, 109,
+            26, -74, 110, -31, -54, 96, -54, -125, 68, -63, -107, 6, -119, -125, 42, 13, 24, 48, 96, -63, -125, 6,
+            12, 24, 48, 96, -63, -125, 6, 12, 24, 48, 96, 27, -4, -1, 63, -48, 68, 17, 4, 65, 16, 108, 36 };
+
+    static final byte[] ACK_RESPONSE = {0, -15, 77, 77, 90, 113, 39, -44, 90, -47, -85, 22, 12, 38, -83, 56, -109,
+            -22, 45, 104, -43, -125, -106, -84, 88, 65, -123, 14, 36, 88, -52, 88, -79,
+            98, -59, -117, 22, 43, 89, 50, 100, -55, 107, 54, 108, -39, -83, -125, 6,
+            12, 21, -84, 88, -79, 98, -59, -117, 22, 44, 88, -79, 98, -63, -125, 6, 12,
+            24, 48, 96, -63, -125, 22, 76, -38, 53, 108, -35, -61, -112, -54};
+
+    static final byte[] NACK_RESPONSE = {0, -15, 77, 77, 90, 113, 39, -44, 90, -47, -85, 22, 12, 38, -83, 56, -109,
+            -22, 45, 104, -43, -125, -106, -84, 88, 65, -123, 14, 36, 88, -52, 88, -79,
+            98, -59, -117, 22, 43, 89, 50, 100, -55, 107, 54, 108, -39, -83, -125, 6,
+            12, 21, -84, 88, -79, 98, -59, -117, 22, 44, 88, -79, 98, -63, -125, 6, 12,
+            24, 48, 96, -63, -125, 22, 76, -38, 53, 108, -35, -61, -112, -56};
+
+    // The hex string from BSMDecodeTest
+    static final byte[] BSM_MESSAGE = {0, 20, 37, 3, -105, 13, 107, 59, 19, 57, 38, 110, -110, 106, 30, -90, -63, 85, -112,
+            0, 127, -1, -116, -52, -81, -1, -16, -128, 126, -6, 31, -95, 0, 127, -1, 8, 0, 75, 9, -80};
+
+    // The hex string from MapDecodeTest
+    static final String MAP_MESSAGE = "0012815338033020204bda0d4cdcf8143d4dc48811860224164802280008002297d4bc80a0a0a9825825923a90b2f2e418986f41b7006480602403812020084015480010004521d9f001414160c7c42a1879858619502a42a060e927100662000400105be6bf41c8aded5816ebc050507dcb860ec57aead5079e02828900890001000417223a50728b750f9c6ea9e8ae480a0a0f68746ad447c002828900a0880704404020803b9000200062b68d5305d1f9269a725027d8352f72867d6c82403340004000c53f5b761abbb7d35d3c0813ec1a3baac16bfc048050240301202008402208001000310fe55f849acd608d8ace136b440000dfe4808880008002086365c0017d1612eb34026067404895390907bd848050440302201c100024000200000090026180a0a0f2852600140001000000169fc1585bd1da000b00008000000a3bb2f439459a80060000400000046d55c416c67f40";
+
+    // Encoded by the asn1c library from XER with every optional field set, a computed lane and node-LatLon offsets
+    static final String MAP_WITH_OPTIONAL_FIELDS = "001280ab78405607f6c8170d9b874ee4187764411b4f2e7d3fffffffe1400000000d693a400fffe2cfff8000004fdfe3ccc3bb2a0dfbb2f83aa9ffffeaa80d6000fffbb1584252052001ff90000fffca0001fffe600000000d693a4020003ff1f81fffc001c0023fc242880802804080c0008002c0002bbfe0000ffee100001ffe280684000408024007ff0480c4001ffe0801000000040035a4e9006b49d1ff00000100018000000200800100c020";
+
+    // Decoded by the asn1c library. Holds extension additions and every kind of node attribute.
+    static final String MAP_WITH_EXTENSIONS = "0012350801000000501a66e7c0a1ea6e24408c30080800000009000000018829ec7e0b2940828c0002f29675067ffc00ffc040400110ba80";
+
+    // The hex string from SPATDecodeTest
+    static final String SPAT_MESSAGE = "00131c44630800812f6800000c2d40100204342b3fac0a0020232159495f9c";
+
+    // Encoded by the asn1c library from XER with every optional field set and a second intersection
+    static final String SPAT_WITH_OPTIONAL_FIELDS = "00135c680ac0169e9cfbb0ec0be0e6e1d3ba00184bdbfe00040c0e7fffc407fc0586a9a396feb9f47f934fe328400040008000fc00105e7f4f3887f800051c91942000a2f00ce20002c0010018232001900320000700000200000000002000";
+
+    MessageFactory messageFactory = NodeConfiguration.newPrivate().getTopicMessageFactory();
+    SaxtonLogger mockLogger;
+    ConnectedNode mockNode;
+
+    @Before
+    public void setup() {
+        mockLogger = mock(SaxtonLogger.class);
+        mockNode = mock(ConnectedNode.class);
+    }
+
+    @Test
+    public void testBitWriterAndReader() {
+        UperBitWriter writer = new UperBitWriter(1);
+        writer.writeBoolean(true);
+        writer.writeConstrainedWholeNumber(-3, -5, 5);
+        writer.writeConstrainedWholeNumber(7, 7, 7);
+        writer.writeBits(0x1FFFFFFFFL, 33);
+        writer.writeIA5String("Carma".getBytes(), 2, 16);
+        writer.writeFixedIA5String("AB".getBytes(), 2);
+        assertEquals(1 + 4 + 0 + 33 + 4 + 35 + 14, writer.getBitLength());
+        assertEquals(12, writer.getByteLength());
+
+        byte[] data = writer.toByteArray();
+        UperBitReader reader = new UperBitReader(data, 0, data.length);
+        assertTrue(reader.readBoolean());
+        assertEquals(-3, reader.readConstrainedWholeNumber(-5, 5));
+        assertEquals(7, reader.readConstrainedWholeNumber(7, 7));
+        assertEquals(0x1FFFFFFFFL, reader.readBits(33));
+        assertEquals("Carma", reader.readIA5String(2, 16));
+        assertEquals("AB", reader.readFixedIA5String(2));
+        assertEquals(5, reader.getRemainingBits());
+
+        writer.reset();
+        assertEquals(0, writer.getBitLength());
+        writer.writeBits(1, 1);
+        assertArrayEquals(new byte[] {-128}, writer.toByteArray());
+    }
+
+    @Test
+    public void testOpenTypeLengths() {
+        for (int length : new int[] {1, 127, 128, 300}) {
+            UperBitWriter value = new UperBitWriter();
+            for (int i = 0; i < length; i++) {
+                value.writeBits(i & 0xFF, 8);
+            }
+            UperBitWriter frame = new UperBitWriter();
+            frame.writeBits(1, 3);
+            frame.writeOpenType(value);
+            byte[] data = frame.toByteArray();
+            UperBitReader reader = new UperBitReader(data, 0, data.length);
+            assertEquals(1, reader.readBits(3));
+            assertEquals(length, reader.readUnconstrainedLength());
+            for (int i = 0; i < length; i++) {
+                assertEquals(i & 0xFF, reader.readBits(8));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValueOutsideConstraint() {
+        new UperBitWriter().writeConstrainedWholeNumber(1001, 0, 1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadPastEnd() {
+        new UperBitReader(new byte[] {0, 1}, 1, 1).readBits(9);
+    }
+
+    @Test
+    public void testMobilityOperation() {
+        UperMobilityOperationMessage codec = new UperMobilityOperationMessage(messageFactory, mockLogger);
+        MobilityOperation operation = messageFactory.newFromType(MobilityOperation._TYPE);
+        setHeader(operation.getHeader(), "USDOT-45095");
+        operation.setStrategy("Carma/Platooning");
+        operation.setStrategyParams("INFO|LEADER:USDOT-45100,REAR_DTD:34.22,SPEED:10.01");
+        assertArrayEquals(OPERATION, codec.encodeBytes(operation));
+
+        MobilityOperation decoded = codec.decodeBytes(OPERATION);
+        assertHeader(decoded.getHeader(), "USDOT-45095");
+        assertEquals("Carma/Platooning", decoded.getStrategy());
+        assertEquals("INFO|LEADER:USDOT-45100,REAR_DTD:34.22,SPEED:10.01", decoded.getStrategyParams());
+    }
+
+    @Test
+    public void testMobilityRequestWithoutOptionalFields() {
+        UperMobilityRequestMessage codec = new UperMobilityRequestMessage(messageFactory, mockLogger);
+        MobilityRequest request = newRequest();
+        assertArrayEquals(REQUEST_WITHOUT_OPTIONAL_FIELDS, codec.encodeBytes(request));
+
+        MobilityRequest decoded = codec.decodeBytes(REQUEST_WITHOUT_OPTIONAL_FIELDS);
+        assertRequest(decoded);
+        assertEquals(0, decoded.getTrajectory().getLocation().getEcefX());
+        assertEquals(0, decoded.getTrajectory().getLocation().getTimestamp());
+        assertTrue(decoded.getTrajectory().getOffsets().isEmpty());
+        assertEquals(0, decoded.getExpiration());
+    }
+
+    @Test
+    public void testMobilityRequestWithOptionalFields() {
+        UperMobilityRequestMessage codec = new UperMobilityRequestMessage(messageFactory, mockLogger);
+        MobilityRequest request = newRequest();
+        setLocation(request.getTrajectory().getLocation(), 100, 100, 100, 5L);
+        List<LocationOffsetECEF> offsets = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            offsets.add(newOffset(i, i, i));
+        }
+        request.getTrajectory().setOffsets(offsets);
+        request.setExpiration(82L);
+        assertArrayEquals(REQUEST_WITH_OPTIONAL_FIELDS, codec.encodeBytes(request));
+
+        MobilityRequest decoded = codec.decodeBytes(REQUEST_WITH_OPTIONAL_FIELDS);
+        assertRequest(decoded);
+        assertLocation(decoded.getTrajectory().getLocation(), 100, 100, 100, 5L);
+        assertEquals(60, decoded.getTrajectory().getOffsets().size());
+        for (int i = 0; i < 60; i++) {
+            assertOffset(decoded.getTrajectory().getOffsets().get(i), i, i, i);
+        }
+        assertEquals(82L, decoded.getExpiration());
+    }
+
+    @Test
+    public void testMobilityPath() {
+        UperMobilityPathMessage codec = new UperMobilityPathMessage(messageFactory, mockLogger);
+        MobilityPath path = messageFactory.newFromType(MobilityPath._TYPE);
+        setHeader(path.getHeader(), "");
+        assertArrayEquals(PATH_WITHOUT_OFFSETS, codec.encodeBytes(path));
+        assertTrue(codec.decodeBytes(PATH_WITHOUT_OFFSETS).getTrajectory().getOffsets().isEmpty());
+
+        List<LocationOffsetECEF> offsets = new ArrayList<>();
+        offsets.add(newOffset(10, 10, 10));
+        offsets.add(newOffset(20, 20, 20));
+        offsets.add(newOffset(20, 25, 30));
+        path.getTrajectory().setOffsets(offsets);
+        assertArrayEquals(PATH_WITH_OFFSETS, codec.encodeBytes(path));
+
+        MobilityPath decoded = codec.decodeBytes(PATH_WITH_OFFSETS);
+        assertHeader(decoded.getHeader(), "");
+        assertLocation(decoded.getTrajectory().getLocation(), 0, 0, 0, 0L);
+        assertEquals(3, decoded.getTrajectory().getOffsets().size());
+        assertOffset(decoded.getTrajectory().getOffsets().get(0), 10, 10, 10);
+        assertOffset(decoded.getTrajectory().getOffsets().get(1), 20, 20, 20);
+        assertOffset(decoded.getTrajectory().getOffsets().get(2), 20, 25, 30);
+    }
+
+    @Test
+    public void testMobilityResponse() {
+        UperMobilityResponseMessage codec = new UperMobilityResponseMessage(messageFactory, mockLogger);
+        MobilityResponse response = messageFactory.newFromType(MobilityResponse._TYPE);
+        setHeader(response.getHeader(), "USDOT-45095");
+        response.setUrgency((short) 50);
+        response.setIsAccepted(true);
+        assertArrayEquals(ACK_RESPONSE, codec.encodeBytes(response));
+        response.setIsAccepted(false);
+        assertArrayEquals(NACK_RESPONSE, codec.encodeBytes(response));
+
+        MobilityResponse decoded = codec.decodeBytes(ACK_RESPONSE);
+        assertHeader(decoded.getHeader(), "USDOT-45095");
+        assertEquals(50, decoded.getUrgency());
+        assertTrue(decoded.getIsAccepted());
+        assertFalse(codec.decodeBytes(NACK_RESPONSE).getIsAccepted());
+    }
+
+    @Test
+    public void testBSM() {
+        UperBSMMessage codec = new UperBSMMessage(mockNode, mockLogger, messageFactory);
+        BSM bsm = codec.decodeBytes(BSM_MESSAGE);
+        BSMCoreData coreData = bsm.getCoreData();
+        assertEquals(14, coreData.getMsgCount());
+        assertEquals(92, coreData.getId().getByte(0));
+        assertEquals(-20, coreData.getId().getByte(3));
+        assertEquals(19684, coreData.getSecMark());
+        assertEquals(389561300, coreData.getLatitude());
+        assertEquals(-771510100, coreData.getLongitude());
+        assertEquals(4096, coreData.getElev());
+        assertEquals(6553, coreData.getAccuracy().getOrientation());
+        assertEquals(8191, coreData.getSpeed());
+        assertEquals(24832, coreData.getHeading());
+        assertEquals(1907, coreData.getAccelSet().getLongitudinal());
+        assertEquals(1906, coreData.getAccelSet().getLateral());
+        assertEquals(2, coreData.getBrakes().getWheelBrakes().getBrakeAppliedStatus());
+        assertEquals(300, coreData.getSize().getVehicleWidth());
+        assertEquals(620, coreData.getSize().getVehicleLength());
+        // Re-encoding the decoded message reproduces the captured bytes
+        assertArrayEquals(BSM_MESSAGE, codec.encodeBytes(bsm));
+    }
+
+    @Test
+    public void testMap() {
+        UperMapMessage codec = new UperMapMessage(messageFactory, mockLogger);
+        MapData map = codec.decodeBytes(hexToBytes(MAP_MESSAGE));
+        // The expected values are the output of the asn1c library which is checked by MapDecodeTest
+        assertEquals(3, map.getMsgIssueRevision());
+        assertTrue(map.getIntersectionsExists());
+        assertEquals(1, map.getIntersections().size());
+        IntersectionGeometry intersection = map.getIntersections().get(0);
+        assertEquals(9709, intersection.getId().getId());
+        assertEquals(3, intersection.getRevision());
+        assertEquals(389549844, intersection.getRefPoint().getLatitude(), 0);
+        assertEquals(-771493239, intersection.getRefPoint().getLongitude(), 0);
+        assertTrue(intersection.getRefPoint().getElevationExists());
+        assertEquals(390, intersection.getRefPoint().getElevation(), 0);
+        assertTrue(intersection.getLaneWidthExists());
+        assertEquals(274, intersection.getLaneWidth());
+        int[] laneIds = {1, 5, 6, 2, 7, 3, 8, 4, 9, 10, 11, 12};
+        int[] ingressApproaches = {1, -1, -1, 2, -1, 3, -1, 4, -1, -1, -1, -1};
+        int[] egressApproaches = {-1, 5, 6, -1, 7, -1, 8, -1, -1, -1, -1, -1};
+        int[] laneDirections = {2, 1, 1, 2, 1, 2, 1, 2, 0, 0, 0, 0};
+        int[] nodeCounts = {6, 6, 6, 6, 5, 5, 5, 6, 2, 2, 2, 2};
+        List<GenericLane> lanes = intersection.getLaneSet().getLaneList();
+        assertEquals(laneIds.length, lanes.size());
+        for (int i = 0; i < lanes.size(); i++) {
+            GenericLane lane = lanes.get(i);
+            assertEquals(laneIds[i], lane.getLaneId());
+            assertEquals(ingressApproaches[i] != -1, lane.getIngressApproachExists());
+            if (lane.getIngressApproachExists()) {
+                assertEquals(ingressApproaches[i], lane.getIngressApproach());
+            }
+            assertEquals(egressApproaches[i] != -1, lane.getEgressApproachExists());
+            if (lane.getEgressApproachExists()) {
+                assertEquals(egressApproaches[i], lane.getEgressApproach());
+            }
+            assertEquals(laneDirections[i], lane.getLaneAttributes().getDirectionalUse().getLaneDirection());
+            // The first 8 lanes are for vehicles and the last 4 lanes are crosswalks
+            assertEquals(i < 8 ? LaneTypeAttributes.VEHICLE : LaneTypeAttributes.CROSSWALK, lane.getLaneAttributes().getLaneType().getChoice());
+            assertEquals(NodeListXY.NODE_SET_XY, lane.getNodeList().getChoice());
+            assertEquals(nodeCounts[i], lane.getNodeList().getNodes().getNodeSetXy().size());
+            // Only the ingress lanes have connections
+            assertEquals(ingressApproaches[i] != -1, lane.getConnectsToExists());
+        }
+        List<NodeXY> nodes = lanes.get(0).getNodeList().getNodes().getNodeSetXy();
+        assertEquals(NodeOffsetPointXY.NODE_XY3, nodes.get(0).getDelta().getChoice());
+        assertEquals(-523, nodes.get(0).getDelta().getNodeXy3().getX(), 0);
+        assertEquals(-1294, nodes.get(0).getDelta().getNodeXy3().getY(), 0);
+        assertEquals(NodeOffsetPointXY.NODE_XY2, nodes.get(1).getDelta().getChoice());
+        assertEquals(-360, nodes.get(1).getDelta().getNodeXy2().getX(), 0);
+        assertEquals(-724, nodes.get(1).getDelta().getNodeXy2().getY(), 0);
+        assertEquals(NodeOffsetPointXY.NODE_XY1, nodes.get(5).getDelta().getChoice());
+        assertEquals(366, nodes.get(5).getDelta().getNodeXy1().getX(), 0);
+        assertEquals(-509, nodes.get(5).getDelta().getNodeXy1().getY(), 0);
+        List<Connection> connections = lanes.get(3).getConnectsTo().getConnectToList();
+        assertEquals(3, connections.size());
+        int[] connectingLanes = {5, 7, 8};
+        for (int i = 0; i < connections.size(); i++) {
+            assertEquals(connectingLanes[i], connections.get(i).getConnectingLane().getLane());
+            assertTrue(connections.get(i).getSignalGroupExists());
+            assertEquals(4, connections.get(i).getSignalGroup());
+        }
+    }
+
+    @Test
+    public void testMapWithOptionalFields() {
+        UperMapMessage codec = new UperMapMessage(messageFactory, mockLogger);
+        MapData map = codec.decodeBytes(hexToBytes(MAP_WITH_OPTIONAL_FIELDS));
+        assertEquals(127, map.getMsgIssueRevision());
+        // Only the first intersection is decoded
+        assertEquals(1, map.getIntersections().size());
+        IntersectionGeometry intersection = map.getIntersections().get(0);
+        assertEquals((short) 65535, intersection.getId().getId());
+        assertEquals(5, intersection.getRevision());
+        assertEquals(-900000000, intersection.getRefPoint().getLatitude(), 0);
+        assertEquals(1800000001, intersection.getRefPoint().getLongitude(), 0);
+        assertFalse(intersection.getRefPoint().getElevationExists());
+        assertEquals(32767, intersection.getLaneWidth());
+        List<GenericLane> lanes = intersection.getLaneSet().getLaneList();
+        assertEquals(3, lanes.size());
+
+        GenericLane lane = lanes.get(0);
+        assertEquals((byte) 255, lane.getLaneId());
+        assertEquals(15, lane.getIngressApproach());
+        assertTrue(lane.getEgressApproachExists());
+        assertEquals(0, lane.getEgressApproach());
+        assertEquals(3, lane.getLaneAttributes().getDirectionalUse().getLaneDirection());
+        assertEquals(LaneTypeAttributes.PARKING, lane.getLaneAttributes().getLaneType().getChoice());
+        List<NodeXY> nodes = lane.getNodeList().getNodes().getNodeSetXy();
+        assertEquals(5, nodes.size());
+        assertEquals(-4096, nodes.get(0).getDelta().getNodeXy4().getX(), 0);
+        assertEquals(4095, nodes.get(0).getDelta().getNodeXy4().getY(), 0);
+        assertEquals(-8192, nodes.get(1).getDelta().getNodeXy5().getX(), 0);
+        assertEquals(8191, nodes.get(1).getDelta().getNodeXy5().getY(), 0);
+        assertEquals(-32768, nodes.get(2).getDelta().getNodeXy6().getX(), 0);
+        assertEquals(32767, nodes.get(2).getDelta().getNodeXy6().getY(), 0);
+        // The asn1c library copies the longitude of node-LatLon offsets into their latitude
+        assertEquals(NodeOffsetPointXY.NODE_LATLON, nodes.get(3).getDelta().getChoice());
+        assertEquals(900000001, nodes.get(3).getDelta().getNodeLatlon().getLatitude());
+        assertEquals(-1799999999, nodes.get(3).getDelta().getNodeLatlon().getLongitude());
+        assertEquals(-512, nodes.get(4).getDelta().getNodeXy1().getX(), 0);
+        assertEquals(511, nodes.get(4).getDelta().getNodeXy1().getY(), 0);
+        List<Connection> connections = lane.getConnectsTo().getConnectToList();
+        assertEquals(2, connections.size());
+        assertEquals(3, connections.get(0).getConnectingLane().getLane());
+        assertEquals((byte) 255, connections.get(0).getSignalGroup());
+        assertEquals(4, connections.get(1).getConnectingLane().getLane());
+        assertFalse(connections.get(1).getSignalGroupExists());
+
+        // The asn1c library cannot decode computed lanes so they get an empty node list
+        lane = lanes.get(1);
+        assertEquals(2, lane.getLaneId());
+        assertEquals(LaneTypeAttributes.TRACKED_VEHICLE, lane.getLaneAttributes().getLaneType().getChoice());
+        assertTrue(lane.getNodeList().getNodes().getNodeSetXy().isEmpty());
+        assertFalse(lane.getConnectsToExists());
+
+        lane = lanes.get(2);
+        assertEquals(3, lane.getLaneId());
+        assertEquals(4, lane.getEgressApproach());
+        assertEquals(LaneTypeAttributes.VEHICLE, lane.getLaneAttributes().getLaneType().getChoice());
+        nodes = lane.getNodeList().getNodes().getNodeSetXy();
+        assertEquals(2, nodes.size());
+        assertEquals(-1024, nodes.get(0).getDelta().getNodeXy2().getX(), 0);
+        assertEquals(2047, nodes.get(1).getDelta().getNodeXy3().getY(), 0);
+        assertEquals(1, lane.getConnectsTo().getConnectToList().get(0).getConnectingLane().getLane());
+        assertEquals(0, lane.getConnectsTo().getConnectToList().get(0).getSignalGroup());
+    }
+
+    @Test
+    public void testMapWithExtensions() {
+        UperMapMessage codec = new UperMapMessage(messageFactory, mockLogger);
+        IntersectionGeometry intersection = codec.decodeBytes(hexToBytes(MAP_WITH_EXTENSIONS)).getIntersections().get(0);
+        assertEquals(390, intersection.getRefPoint().getElevation(), 0);
+        List<NodeXY> nodes = intersection.getLaneSet().getLaneList().get(0).getNodeList().getNodes().getNodeSetXy();
+        assertEquals(2, nodes.size());
+        assertEquals(10, nodes.get(0).getDelta().getNodeXy1().getX(), 0);
+        assertEquals(-20, nodes.get(0).getDelta().getNodeXy1().getY(), 0);
+        // The node following the skipped attributes and extension is still aligned
+        assertEquals(33, nodes.get(1).getDelta().getNodeXy1().getX(), 0);
+        assertEquals(-44, nodes.get(1).getDelta().getNodeXy1().getY(), 0);
+    }
+
+    @Test
+    public void testSPAT() {
+        UperSPATMessage codec = new UperSPATMessage(messageFactory, mockLogger);
+        SPAT spat = codec.decodeBytes(hexToBytes(SPAT_MESSAGE));
+        assertTrue(spat.getTimeStampExists());
+        assertEquals(287496, spat.getTimeStamp());
+        IntersectionState intersection = spat.getIntersections().getIntersectionStateList().get(0);
+        assertEquals(9709, intersection.getId().getId());
+        assertEquals(0, intersection.getRevision());
+        assertFalse(intersection.getMoyExists());
+        assertTrue(intersection.getTimeStampExists());
+        assertEquals(49876, intersection.getTimeStamp());
+        List<MovementState> states = intersection.getStates().getMovementList();
+        assertEquals(2, states.size());
+        assertEquals(2, states.get(0).getSignalGroup());
+        MovementEvent event = states.get(0).getStateTimeSpeed().getMovementEventList().get(0);
+        assertEquals(MovementPhaseState.STOP_AND_REMAIN, event.getEventState().getMovementPhaseState());
+        assertTrue(event.getTimingExists());
+        assertFalse(event.getTiming().getStartTimeExists());
+        assertEquals(22143, event.getTiming().getMinEndTime());
+        assertTrue(event.getTiming().getMaxEndTimeExists());
+        assertEquals(22548, event.getTiming().getMaxEndTime());
+        assertFalse(event.getTiming().getNextTimeExists());
+        assertEquals(4, states.get(1).getSignalGroup());
+        event = states.get(1).getStateTimeSpeed().getMovementEventList().get(0);
+        assertEquals(MovementPhaseState.PROTECTED_MOVEMENT_ALLOWED, event.getEventState().getMovementPhaseState());
+        assertEquals(22098, event.getTiming().getMinEndTime());
+        assertEquals(22503, event.getTiming().getMaxEndTime());
+    }
+
+    @Test
+    public void testSPATWithOptionalFields() {
+        UperSPATMessage codec = new UperSPATMessage(messageFactory, mockLogger);
+        SPAT spat = codec.decodeBytes(hexToBytes(SPAT_WITH_OPTIONAL_FIELDS));
+        assertEquals(527040, spat.getTimeStamp());
+        // Only the first intersection is decoded
+        assertEquals(1, spat.getIntersections().getIntersectionStateList().size());
+        IntersectionState intersection = spat.getIntersections().getIntersectionStateList().get(0);
+        assertEquals(9709, intersection.getId().getId());
+        assertEquals(127, intersection.getRevision());
+        assertEquals(12345, intersection.getMoy());
+        assertEquals(65535, intersection.getTimeStamp());
+        List<MovementState> states = intersection.getStates().getMovementList();
+        assertEquals(2, states.size());
+        assertEquals((byte) 255, states.get(0).getSignalGroup());
+        List<MovementEvent> events = states.get(0).getStateTimeSpeed().getMovementEventList();
+        assertEquals(3, events.size());
+        assertEquals(MovementPhaseState.CAUTION_CONFLICTING_TRAFFIC, events.get(0).getEventState().getMovementPhaseState());
+        assertEquals((short) 36001, events.get(0).getTiming().getStartTime());
+        assertEquals(1, events.get(0).getTiming().getMinEndTime());
+        assertEquals(2, events.get(0).getTiming().getMaxEndTime());
+        assertTrue(events.get(0).getTiming().getNextTimeExists());
+        assertEquals(4, events.get(0).getTiming().getNextTime());
+        assertEquals(MovementPhaseState.DARK, events.get(1).getEventState().getMovementPhaseState());
+        assertFalse(events.get(1).getTimingExists());
+        assertEquals(MovementPhaseState.PERMISSIVE_CLEARANCE, events.get(2).getEventState().getMovementPhaseState());
+        assertEquals((short) 36001, events.get(2).getTiming().getMinEndTime());
+        assertFalse(events.get(2).getTiming().getMaxEndTimeExists());
+        // The state following the skipped maneuver assists is still aligned
+        assertEquals(3, states.get(1).getSignalGroup());
+        MovementEvent event = states.get(1).getStateTimeSpeed().getMovementEventList().get(0);
+        assertEquals(MovementPhaseState.PROTECTED_MOVEMENT_ALLOWED, event.getEventState().getMovementPhaseState());
+        assertEquals(100, event.getTiming().getMinEndTime());
+        assertEquals(200, event.getTiming().getMaxEndTime());
+    }
+
+    @Test
+    public void testJavaCodecSelection() {
+        assertTrue(DSRCMessageFactory.getMessage("MAP", mockNode, mockLogger, messageFactory, true) instanceof UperMapMessage);
+        assertTrue(DSRCMessageFactory.getMessage("SPAT", mockNode, mockLogger, messageFactory, true) instanceof UperSPATMessage);
+        // Truncated data and frames holding another message are rejected
+        ByteArray binaryMsg = messageFactory.newFromType(ByteArray._TYPE);
+        binaryMsg.setContent(ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN, hexToBytes(SPAT_MESSAGE.substring(0, 40))));
+        assertNull(new UperSPATMessage(messageFactory, mockLogger).decode(binaryMsg).getMessage());
+        assertNull(new UperMapMessage(messageFactory, mockLogger).decode(binaryMsg).getMessage());
+    }
+
+    @Test
+    public void testDecodeFromByteArray() {
+        UperMobilityOperationMessage codec = new UperMobilityOperationMessage(messageFactory, mockLogger);
+        // The frame is read in place from a buffer which does not start at the beginning of its backing array
+        byte[] padded = new byte[OPERATION.length + 3];
+        System.arraycopy(OPERATION, 0, padded, 3, OPERATION.length);
+        ByteArray binaryMsg = messageFactory.newFromType(ByteArray._TYPE);
+        binaryMsg.setMessageType("MobilityOperation");
+        binaryMsg.setContent(ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN, padded, 3, OPERATION.length));
+        MobilityOperation decoded = (MobilityOperation) codec.decode(binaryMsg).getMessage();
+        assertEquals("Carma/Platooning", decoded.getStrategy());
+
+        // Truncated data and frames holding another message are rejected
+        binaryMsg.setContent(ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN, padded, 3, OPERATION.length - 1));
+        assertNull(codec.decode(binaryMsg).getMessage());
+        binaryMsg.setContent(ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN, ACK_RESPONSE));
+        assertNull(codec.decode(binaryMsg).getMessage());
+    }
+
+    @Test
+    public void testPeekSenderId() {
+        byte[] padded = new byte[OPERATION.length + 3];
+        System.arraycopy(OPERATION, 0, padded, 3, OPERATION.length);
+        assertEquals("USDOT-45100", J2735MessageFrame.peekSenderId(ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN, padded, 3, OPERATION.length)));
+        assertEquals("USDOT-45100", J2735MessageFrame.peekSenderId(ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN, ACK_RESPONSE)));
+        assertEquals("5c35acec", J2735MessageFrame.peekSenderId(ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN, BSM_MESSAGE)));
+        assertNull(J2735MessageFrame.peekSenderId(ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN, new byte[] {0x00, 0x14})));
+    }
+
+    private static byte[] hexToBytes(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = Integer.valueOf(hex.substring(i * 2, i * 2 + 2), 16).byteValue();
+        }
+        return bytes;
+    }
+
+    private void setHeader(MobilityHeader header, String recipientId) {
+        header.setSenderId("USDOT-45100");
+        header.setRecipientId(recipientId);
+        header.setSenderBsmId("10ABCDEF");
+        header.setPlanId("11111111-2222-3333-AAAA-111111111111");
+        header.setTimestamp(123456789L);
+    }
+
+    private void assertHeader(MobilityHeader header, String recipientId) {
+        assertEquals("USDOT-45100", header.getSenderId());
+        assertEquals(recipientId, header.getRecipientId());
+        assertEquals("10ABCDEF", header.getSenderBsmId());
+        assertEquals("11111111-2222-3333-AAAA-111111111111", header.getPlanId());
+        assertEquals(123456789L, header.getTimestamp());
+    }
+
+    private MobilityRequest newRequest() {
+        MobilityRequest request = messageFactory.newFromType(MobilityRequest._TYPE);
+        setHeader(request.getHeader(), "");
+        request.setStrategy("Carma/Platooning");
+        request.getPlanType().setType((byte) 0);
+        request.setUrgency((short) 999);
+        setLocation(request.getLocation(), 555555, 666666, 777777, 0L);
+        request.setStrategyParams("ARG1:5.0, ARG2:16.0");
+        return request;
+    }
+
+    private void assertRequest(MobilityRequest request) {
+        assertHeader(request.getHeader(), "");
+        assertEquals("Carma/Platooning", request.getStrategy());
+        assertEquals(0, request.getPlanType().getType());
+        assertEquals(999, request.getUrgency());
+        assertLocation(request.getLocation(), 555555, 666666, 777777, 0L);
+        assertEquals("ARG1:5.0, ARG2:16.0", request.getStrategyParams());
+    }
+
+    private void setLocation(LocationECEF location, int x, int y, int z, long timestamp) {
+        location.setEcefX(x);
+        location.setEcefY(y);
+        location.setEcefZ(z);
+        location.setTimestamp(timestamp);
+    }
+
+    private void assertLocation(LocationECEF location, int x, int y, int z, long timestamp) {
+        assertEquals(x, location.getEcefX());
+        assertEquals(y, location.getEcefY());
+        assertEquals(z, location.getEcefZ());
+        assertEquals(timestamp, location.getTimestamp());
+    }
+
+    private LocationOffsetECEF newOffset(int x, int y, int z) {
+        LocationOffsetECEF offset = messageFactory.newFromType(LocationOffsetECEF._TYPE);
+        offset.setOffsetX((short) x);
+        offset.setOffsetY((short) y);
+        offset.setOffsetZ((short) z);
+        return offset;
+    }
+
+    private void assertOffset(LocationOffsetECEF offset, int x, int y, int z) {
+        assertEquals(x, offset.getOffsetX());
+        assertEquals(y, offset.getOffsetY());
+        assertEquals(z, offset.getOffsetZ());
+    }
+}
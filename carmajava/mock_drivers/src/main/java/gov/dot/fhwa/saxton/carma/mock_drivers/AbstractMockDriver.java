@@ -29,12 +29,12 @@ import org.ros.node.service.ServiceServer;
 import org.ros.node.topic.Publisher;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.util.LinkedList;
 import java.util.List;
 
 /**
  * Abstract implementation of a simulated driver. Reads a simulated data file and publishes the data.
+ * The data file is compiled into a {@link ReplayFile} on start so each publication replays pre-parsed data.
  */
 public abstract class AbstractMockDriver implements IMockDriver {
   protected final ConnectedNode connectedNode;
@@ -59,8 +59,8 @@ public abstract class AbstractMockDriver implements IMockDriver {
   protected final ServiceServer<GetDriverApiRequest, GetDriverApiResponse> getApiService;
   protected final ServiceServer<GetDriverStatusRequest, GetDriverStatusResponse> getStatusService;
 
-  protected final String delimiter = ","; // Comma for csv file
-  protected RandomAccessFile reader = null;
+  protected ReplayFile replayFile = null;
+  protected int nextSampleIdx = 0;
   protected byte driverStatus = cav_msgs.DriverStatus.OFF;
 
   /**
@@ -114,18 +114,24 @@ public abstract class AbstractMockDriver implements IMockDriver {
 
   /**
    * Function which should be called in the onStart function of a containing ROS Node
-   * This implementation opens a data file to use for simulation
+   * This implementation opens a data file to use for simulation, compiling it for replay if needed
    * @param connectedNode The node which is being started
    */
   @Override public void onStart(ConnectedNode connectedNode) {
     try {
-      reader = new RandomAccessFile(dataFilePath, "r");
+      replayFile = ReplayFile.open(dataFilePath, getExpectedColCount(), getSampleIdIdx(), log);
+      nextSampleIdx = 0;
       driverStatus = cav_msgs.DriverStatus.OPERATIONAL;
     } catch (FileNotFoundException e) {
       e.printStackTrace();
       log
         .warn(getGraphName() + " could not find file " + dataFilePath + ".No data published");
       driverStatus = cav_msgs.DriverStatus.DEGRADED;
+    } catch (IOException e) {
+      e.printStackTrace();
+      // Log warning if the node failed to read data in the file. All publishing will be stopped in this case as the file may be corrupt.
+      log.warn(getGraphName() + " failed to read data file. No data will be published");
+      driverStatus = cav_msgs.DriverStatus.FAULT;
     }
   }
 
@@ -139,60 +145,17 @@ public abstract class AbstractMockDriver implements IMockDriver {
   }
 
   @Override public void readAndPublishData() {
-    if (reader != null) {
-      try {
-        List<String[]> data = new LinkedList<>();
-        String dataLine;
-        String[] elements;
-        boolean exitBeforeEOF = false;
-        int prevSampleIndex = -1;
-        int currentSampleIndex;
-        long prevLineIndex = reader.getFilePointer();
-
-        while((dataLine = reader.readLine()) != null) {
-          // Skip the header line of all data files
-          if (prevLineIndex == 0) {
-            prevLineIndex = reader.getFilePointer();
-            continue;
-          }
-          // separate on delimiter
-          elements = dataLine.split(delimiter);
-          // Update sample index
-          if (elements.length != getExpectedColCount()) {
-            log.warn(
-              "Publish data requested for " + getGraphName() + " with incorrect number of data elements. "
-                + "The required number of data elements is " + getExpectedColCount());
-            continue; // Skip this invalid line
-          }
-
-          currentSampleIndex = Integer.parseInt(elements[getSampleIdIdx()]);
-          //If this is the first sample
-          if (prevSampleIndex == -1) {
-            prevSampleIndex = currentSampleIndex;
-          }
-          // If the end of this sample set then exit the loop
-          if (currentSampleIndex != prevSampleIndex) {
-            exitBeforeEOF = true;
-            break;
-          }
-          data.add(elements);
-        }
-        if (!exitBeforeEOF) {
-          reader.seek(0);
-        }
-        publishData(data);
-
-      } catch (IOException e) {
-        e.printStackTrace();
-        closeDataFile();
-        reader = null;
-        // Log warning if the node failed to read data in the file. All publishing will be stopped in this case as the file may be corrupt.
-        log.warn(getGraphName() + " failed to read data file. No data will be published");
-        driverStatus = cav_msgs.DriverStatus.FAULT;
-      }
+    if (replayFile != null && replayFile.getSampleCount() > 0) {
+      publishData(replayFile.getSample(nextSampleIdx));
+      // Loop back to the first sample at the end of the file
+      nextSampleIdx = (nextSampleIdx + 1) % replayFile.getSampleCount();
     }
   }
 
+  @Override public boolean hasData() {
+    return replayFile != null && replayFile.getSampleCount() > 0;
+  }
+
   /**
    * Helper function to build a driver status message
    * @return The driver status message
@@ -238,16 +201,10 @@ public abstract class AbstractMockDriver implements IMockDriver {
   }
 
   /**
-   * Safely closes the opened data file
+   * Releases the opened data file. The mapped data is freed once it is no longer referenced.
    */
   protected void closeDataFile() {
-    if (reader != null) {
-      try {
-        reader.close();
-      } catch (IOException ex) {
-        ex.printStackTrace();
-      }
-    }
+    replayFile = null;
   }
 
   @Override public GraphName getGraphName() {
@@ -255,10 +212,10 @@ public abstract class AbstractMockDriver implements IMockDriver {
   }
 
   /**
-   * Publishes the provided data array
-   * @param data The data to be published usually provided as a direct line from a data file
+   * Publishes the provided data rows
+   * @param data The data to be published, the lines of a single sample in the data file
    */
-  protected abstract void publishData(List<String[]> data);
+  protected abstract void publishData(List<ReplayRow> data);
 
   /**
    * Gets the expected number of row elements in a data line
@@ -53,6 +53,11 @@ public interface IMockDriver {
    */
   void readAndPublishData();
 
+  /**
+   * Returns true if a data file with at least one sample was loaded, so readAndPublishData has data to publish
+   */
+  boolean hasData();
+
   /**
    * Publishes the status of this driver
    */
@@ -98,9 +98,9 @@ public class MockCANDriver extends AbstractMockDriver {
     stabilityEnabledPub = connectedNode.newPublisher("~/can/stability_ctrl_enabled", std_msgs.Bool._TYPE);
   }
 
-  @Override protected void publishData(List<String[]> data) {
+  @Override protected void publishData(List<ReplayRow> data) {
 
-    for (String[] elements : data) {
+    for (ReplayRow row : data) {
       // Make messages
       std_msgs.Bool acc = accPub.newMessage();
       std_msgs.Float64 accel = accelPub.newMessage();
@@ -122,24 +122,24 @@ public class MockCANDriver extends AbstractMockDriver {
       std_msgs.Bool stabilityEnabledState = stabilityEnabledPub.newMessage();
 
       // Set Data
-      acc.setData(Boolean.parseBoolean(elements[ACC_IDX]));
-      accel.setData(Float.parseFloat(elements[ACCEL_IDX]));
-      brakeLights.setData(Boolean.parseBoolean(elements[BRAKE_LIGHTS_IDX]));
-      brakePos.setData(Float.parseFloat(elements[BRAKE_POS_IDX]));
-      engineSpeed.setData(Float.parseFloat(elements[ENGINE_SPEED_IDX]));
-      fuelFlow.setData(Float.parseFloat(elements[FUEL_FLOW_IDX]));
-      odometry.setData(Float.parseFloat(elements[ODOMETRY_IDX]));
-      parkingBrake.setData(Boolean.parseBoolean(elements[PARKING_BRAKE_IDX]));
-      speed.setData(Float.parseFloat(elements[SPEED_IDX]));
-      steering.setData(Float.parseFloat(elements[STEERING_IDX]));
-      throttle.setData(Float.parseFloat(elements[THROTTLE_IDX]));
-      turnSignalState.setState(Byte.parseByte(elements[TURN_SIGNAL_STATE_IDX]));
-      transmissionState.setTransmissionState(Byte.parseByte(elements[TRANSMISSION_STATE_IDX]));
-      tractionActiveState.setData(Boolean.parseBoolean(elements[TRACTION_ACTIVE_IDX]));
-      tractionEnabledState.setData(Boolean.parseBoolean(elements[TRACTION_ENABLED_IDX]));
-      antilockState.setData(Boolean.parseBoolean(elements[ANTILOCK_BRAKE_IDX]));
-      stabilityActiveState.setData(Boolean.parseBoolean(elements[STABILITY_ACTIVE_IDX]));
-      stabilityEnabledState.setData(Boolean.parseBoolean(elements[STABILITY_ENABLED_IDX]));
+      acc.setData(row.getBoolean(ACC_IDX));
+      accel.setData(row.getFloat(ACCEL_IDX));
+      brakeLights.setData(row.getBoolean(BRAKE_LIGHTS_IDX));
+      brakePos.setData(row.getFloat(BRAKE_POS_IDX));
+      engineSpeed.setData(row.getFloat(ENGINE_SPEED_IDX));
+      fuelFlow.setData(row.getFloat(FUEL_FLOW_IDX));
+      odometry.setData(row.getFloat(ODOMETRY_IDX));
+      parkingBrake.setData(row.getBoolean(PARKING_BRAKE_IDX));
+      speed.setData(row.getFloat(SPEED_IDX));
+      steering.setData(row.getFloat(STEERING_IDX));
+      throttle.setData(row.getFloat(THROTTLE_IDX));
+      turnSignalState.setState(row.getByte(TURN_SIGNAL_STATE_IDX));
+      transmissionState.setTransmissionState(row.getByte(TRANSMISSION_STATE_IDX));
+      tractionActiveState.setData(row.getBoolean(TRACTION_ACTIVE_IDX));
+      tractionEnabledState.setData(row.getBoolean(TRACTION_ENABLED_IDX));
+      antilockState.setData(row.getBoolean(ANTILOCK_BRAKE_IDX));
+      stabilityActiveState.setData(row.getBoolean(STABILITY_ACTIVE_IDX));
+      stabilityEnabledState.setData(row.getBoolean(STABILITY_ENABLED_IDX));
       
       // Publish Data
       accPub.publish(acc);
@@ -70,21 +70,21 @@ public class MockCellularDriver extends AbstractMockDriver {
     });
   }
 
-  @Override protected void publishData(List<String[]> data) {
-    for (String[] elements : data) {
+  @Override protected void publishData(List<ReplayRow> data) {
+    for (ReplayRow row : data) {
       // Make messages
       ByteArray recvMsg = recvPub.newMessage();
 
       // Set Data
       std_msgs.Header hdr = messageFactory.newFromType(std_msgs.Header._TYPE);
       hdr.setFrameId("0");
-      hdr.setSeq(Integer.parseInt(elements[SAMPLE_ID_IDX]));
+      hdr.setSeq(row.getInt(SAMPLE_ID_IDX));
       hdr.setStamp(connectedNode.getCurrentTime());
 
       recvMsg.setHeader(hdr);
-      recvMsg.setMessageType(elements[MSG_TYPE_IDX]);
+      recvMsg.setMessageType(row.getString(MSG_TYPE_IDX));
 
-      byte[] rawBytes = (elements[RAW_BYTES_IDX].getBytes());
+      byte[] rawBytes = (row.getString(RAW_BYTES_IDX).getBytes());
       // It seems that the ros messages byte[] is LittleEndian. Using BigEndian results in a IllegalArgumentException
       recvMsg.setContent(ChannelBuffers.copiedBuffer(ByteOrder.LITTLE_ENDIAN, rawBytes));
 
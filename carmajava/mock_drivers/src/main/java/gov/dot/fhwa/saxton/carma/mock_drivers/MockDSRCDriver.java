@@ -95,8 +95,8 @@ public class MockDSRCDriver extends AbstractMockDriver {
       });
   }
 
-  @Override protected void publishData(List<String[]> data) {
-    for (String[] elements : data) {
+  @Override protected void publishData(List<ReplayRow> data) {
+    for (ReplayRow row : data) {
       // Make messages
       cav_msgs.ByteArray recvMsg = recvPub.newMessage();
 
@@ -106,10 +106,10 @@ public class MockDSRCDriver extends AbstractMockDriver {
       hdr.setStamp(connectedNode.getCurrentTime());
 
       recvMsg.setHeader(hdr);
-      recvMsg.setMessageType(elements[MSG_TYPE_IDX]);
+      recvMsg.setMessageType(row.getString(MSG_TYPE_IDX));
 
       // Raw byte data has the form "0a 1f 23"
-      // String rawByteString = elements[RAW_BYTES_IDX];
+      // String rawByteString = row.getString(RAW_BYTES_IDX);
       // Set to static data for test
       
       String[] rawByteString = {
@@ -31,6 +31,7 @@ import org.ros.namespace.GraphName;
  * ROSJava does not support rosrun parameter setting so a rosrun is a two step process
  * rosparam set /mock_driver/simulated_driver 'can'
  * rosparam set /mock_driver/data_file_path '/home/username/temp.csv'
+ * rosparam set /mock_driver/replay_time_scale 10.0 (optional, 0 publishes as fast as possible)
  * rosrun carmajava mock_drivers gov.dot.fhwa.saxton.carma.mock_drivers.MockDriverNode
  */
 public class MockDriverNode extends SaxtonBaseNode {
@@ -75,18 +76,29 @@ public class MockDriverNode extends SaxtonBaseNode {
     }
 
     simulatedDriver.onStart(connectedNode);
+    // Data is replayed at a multiple of real time, the driver status is always published in real time
+    final ReplayClock replayClock = new ReplayClock(params.getDouble("~/replay_time_scale", 1.0), log);
+    if (simulatedDriver.hasData()) {
+      replayClock.addDriver(simulatedDriver);
+    } else {
+      log.warn(simulatedDriver.getGraphName() + " has no data to replay, only its status will be published");
+    }
     // This CancellableLoop will be canceled automatically when the node shuts
     // down.
     connectedNode.executeCancellableLoop(new CancellableLoop() {
+      private long lastStatusTime = 0;
 
       @Override protected void loop() throws InterruptedException {
-        simulatedDriver.publishDriverStatus();
-        simulatedDriver.readAndPublishData();
-
-        Thread.sleep(simulatedDriver.getPublishDelay());
+        long now = System.currentTimeMillis();
+        if (now - lastStatusTime >= simulatedDriver.getPublishDelay()) {
+          simulatedDriver.publishDriverStatus();
+          lastStatusTime = now;
+        }
+        replayClock.step();
       }//loop
 
       @Override protected void handleInterruptedException(InterruptedException e) {
+        replayClock.reportRates();
         simulatedDriver.onInterruption();
         super.handleInterruptedException(e);
       }
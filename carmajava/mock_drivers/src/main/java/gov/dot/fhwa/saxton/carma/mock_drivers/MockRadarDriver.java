@@ -91,29 +91,29 @@ public class MockRadarDriver extends AbstractMockDriver {
     visionObjectPub = connectedNode.newPublisher("~/vision/sensor/objects", cav_msgs.ExternalObjectList._TYPE);
   }
 
-  @Override protected void publishData(List<String[]> data) {
+  @Override protected void publishData(List<ReplayRow> data) {
 
     List<cav_msgs.ExternalObject> objects = new LinkedList<>(); // The list of ExternalObjects (obstacles) detected by the radar
 
     String frameId = "f_lrr_frame";
     Time currentTime = connectedNode.getCurrentTime();
-    for (String[] elements :  data){
+    for (ReplayRow row : data){
       cav_msgs.ExternalObject externalObject = messageFactory.newFromType(cav_msgs.ExternalObject._TYPE);
 
       // Build Header
       std_msgs.Header hdr = externalObject.getHeader();
       hdr.setFrameId(frameId);
-      hdr.setSeq(Integer.parseInt(elements[SAMPLE_ID_IDX]));
+      hdr.setSeq(row.getInt(SAMPLE_ID_IDX));
       hdr.setStamp(currentTime);
 
       externalObject.setHeader(hdr);
-      externalObject.setId(Short.parseShort(elements[ID_IDX]));
+      externalObject.setId(row.getShort(ID_IDX));
 
       // Build Size Vector
       geometry_msgs.Vector3 size = externalObject.getSize();
-      size.setX(Double.parseDouble(elements[SIZE_X_IDX]));
-      size.setY(Double.parseDouble(elements[SIZE_Y_IDX]));
-      size.setZ(Double.parseDouble(elements[SIZE_Z_IDX]));
+      size.setX(row.getDouble(SIZE_X_IDX));
+      size.setY(row.getDouble(SIZE_Y_IDX));
+      size.setZ(row.getDouble(SIZE_Z_IDX));
       externalObject.setSize(size);
 
       // Build Pose with Covariance
@@ -121,22 +121,22 @@ public class MockRadarDriver extends AbstractMockDriver {
       geometry_msgs.Pose pose = poseWithCovar.getPose();
       geometry_msgs.Quaternion quat = pose.getOrientation();
       geometry_msgs.Point point = pose.getPosition();
-      point.setX(Double.parseDouble(elements[POINT_X_IDX]));
-      point.setY(Double.parseDouble(elements[POINT_Y_IDX]));
-      point.setZ(Double.parseDouble(elements[POINT_Z_IDX]));
+      point.setX(row.getDouble(POINT_X_IDX));
+      point.setY(row.getDouble(POINT_Y_IDX));
+      point.setZ(row.getDouble(POINT_Z_IDX));
       pose.setPosition(point);
 
-      quat.setW(Double.parseDouble(elements[QUAT_W_IDX]));
-      quat.setX(Double.parseDouble(elements[QUAT_X_IDX]));
-      quat.setY(Double.parseDouble(elements[QUAT_Y_IDX]));
-      quat.setZ(Double.parseDouble(elements[QUAT_Z_IDX]));
+      quat.setW(row.getDouble(QUAT_W_IDX));
+      quat.setX(row.getDouble(QUAT_X_IDX));
+      quat.setY(row.getDouble(QUAT_Y_IDX));
+      quat.setZ(row.getDouble(QUAT_Z_IDX));
       pose.setOrientation(quat);
 
       poseWithCovar.setPose(pose);
 
       double[] poseCovariance = new double[COVARINCE_ELEMENT_COUNT];
       for (int i = 0; i < COVARINCE_ELEMENT_COUNT; i++){
-        poseCovariance[i] = Double.parseDouble(elements[MIN_POSE_COVAR_IDX + i]);
+        poseCovariance[i] = row.getDouble(MIN_POSE_COVAR_IDX + i);
       }
 
       poseWithCovar.setCovariance(poseCovariance);
@@ -147,13 +147,13 @@ public class MockRadarDriver extends AbstractMockDriver {
       geometry_msgs.Twist twist = twistWithCovar.getTwist();
       geometry_msgs.Vector3 angularVel = twist.getAngular();
       geometry_msgs.Vector3 linearVel = twist.getLinear();
-      angularVel.setX(Double.parseDouble(elements[VEL_ANG_X_IDX]));
-      angularVel.setY(Double.parseDouble(elements[VEL_ANG_Y_IDX]));
-      angularVel.setZ(Double.parseDouble(elements[VEL_ANG_Z_IDX]));
+      angularVel.setX(row.getDouble(VEL_ANG_X_IDX));
+      angularVel.setY(row.getDouble(VEL_ANG_Y_IDX));
+      angularVel.setZ(row.getDouble(VEL_ANG_Z_IDX));
 
-      linearVel.setX(Double.parseDouble(elements[VEL_LIN_X_IDX]));
-      linearVel.setY(Double.parseDouble(elements[VEL_LIN_Y_IDX]));
-      linearVel.setZ(Double.parseDouble(elements[VEL_LIN_Z_IDX]));
+      linearVel.setX(row.getDouble(VEL_LIN_X_IDX));
+      linearVel.setY(row.getDouble(VEL_LIN_Y_IDX));
+      linearVel.setZ(row.getDouble(VEL_LIN_Z_IDX));
 
       twist.setAngular(angularVel);
       twist.setLinear(linearVel);
@@ -161,7 +161,7 @@ public class MockRadarDriver extends AbstractMockDriver {
 
       double[] velocityCovariance = new double[COVARINCE_ELEMENT_COUNT];
       for (int i = 0; i < COVARINCE_ELEMENT_COUNT; i++){
-        velocityCovariance[i] = Double.parseDouble(elements[MIN_VEL_COVAR_IDX + i]);
+        velocityCovariance[i] = row.getDouble(MIN_VEL_COVAR_IDX + i);
       }
 
       twistWithCovar.setCovariance(velocityCovariance);
@@ -171,13 +171,13 @@ public class MockRadarDriver extends AbstractMockDriver {
       geometry_msgs.Twist twistInst = twistInstWithCovar.getTwist();
       geometry_msgs.Vector3 angularVelInst = twistInst.getAngular();
       geometry_msgs.Vector3 linearVelInst = twistInst.getLinear();
-      angularVelInst.setX(Double.parseDouble(elements[VEL_INST_ANG_X_IDX]));
-      angularVelInst.setY(Double.parseDouble(elements[VEL_INST_ANG_Y_IDX]));
-      angularVelInst.setZ(Double.parseDouble(elements[VEL_INST_ANG_Z_IDX]));
+      angularVelInst.setX(row.getDouble(VEL_INST_ANG_X_IDX));
+      angularVelInst.setY(row.getDouble(VEL_INST_ANG_Y_IDX));
+      angularVelInst.setZ(row.getDouble(VEL_INST_ANG_Z_IDX));
 
-      linearVelInst.setX(Double.parseDouble(elements[LIN_INST_ANG_X_IDX]));
-      linearVelInst.setY(Double.parseDouble(elements[LIN_INST_ANG_Y_IDX]));
-      linearVelInst.setZ(Double.parseDouble(elements[LIN_INST_ANG_Z_IDX]));
+      linearVelInst.setX(row.getDouble(LIN_INST_ANG_X_IDX));
+      linearVelInst.setY(row.getDouble(LIN_INST_ANG_Y_IDX));
+      linearVelInst.setZ(row.getDouble(LIN_INST_ANG_Z_IDX));
 
       twistInst.setAngular(angularVelInst);
       twistInst.setLinear(linearVelInst);
@@ -185,7 +185,7 @@ public class MockRadarDriver extends AbstractMockDriver {
 
       double[] velocityInstCovariance = new double[COVARINCE_ELEMENT_COUNT];
       for (int i = 0; i < COVARINCE_ELEMENT_COUNT; i++){
-        velocityInstCovariance[i] = Double.parseDouble(elements[MIN_VEL_INST_COVAR_IDX + i]);
+        velocityInstCovariance[i] = row.getDouble(MIN_VEL_INST_COVAR_IDX + i);
       }
 
       twistInstWithCovar.setCovariance(velocityInstCovariance);
@@ -129,37 +129,37 @@ public class MockSRXControllerDriver extends AbstractMockDriver {
   }
   
   @Override
-  protected void publishData(List<String[]> data) throws IllegalArgumentException {
+  protected void publishData(List<ReplayRow> data) throws IllegalArgumentException {
 
-    for (String[] elements : data) {
+    for (ReplayRow row : data) {
       // Make messages
       diagnostic_msgs.DiagnosticArray diagMsg = diagnosticsPub.newMessage();
       RobotEnabled statusMsg = statusPub.newMessage();
 
       // Build RobotEnabled Message
-      statusMsg.setBrakeDecel(Double.parseDouble(elements[BRAKE_DECEL_IDX]));
-      statusMsg.setRobotEnabled(Boolean.parseBoolean(elements[ROBOT_ENABLED_IDX]));
-      statusMsg.setRobotActive(Boolean.parseBoolean(elements[ROBOT_ENABLED_IDX]));
-      statusMsg.setTorque(Double.parseDouble(elements[TORQUE_IDX]));
+      statusMsg.setBrakeDecel(row.getDouble(BRAKE_DECEL_IDX));
+      statusMsg.setRobotEnabled(row.getBoolean(ROBOT_ENABLED_IDX));
+      statusMsg.setRobotActive(row.getBoolean(ROBOT_ENABLED_IDX));
+      statusMsg.setTorque(row.getDouble(TORQUE_IDX));
 
       // Build Diagnostics Message: Assumes that only diagnostic is in a data file line
       std_msgs.Header hdr = messageFactory.newFromType(std_msgs.Header._TYPE);
       hdr.setFrameId("0");
-      hdr.setSeq(Integer.parseInt(elements[SAMPLE_ID_IDX]));
+      hdr.setSeq(row.getInt(SAMPLE_ID_IDX));
       hdr.setStamp(connectedNode.getCurrentTime());
 
       diagMsg.setHeader(hdr);
 
       diagnostic_msgs.DiagnosticStatus diagnosticStatus = messageFactory
           .newFromType(diagnostic_msgs.DiagnosticStatus._TYPE);
-      diagnosticStatus.setHardwareId(elements[HARDWARE_ID_IDX]);
-      diagnosticStatus.setLevel(Byte.valueOf(elements[DIAG_LEVEL_IDX]));
+      diagnosticStatus.setHardwareId(row.getString(HARDWARE_ID_IDX));
+      diagnosticStatus.setLevel(row.getByte(DIAG_LEVEL_IDX));
       diagnosticStatus.setName(getGraphName().toString());
-      diagnosticStatus.setMessage(elements[DIAG_MSG_IDX]);
+      diagnosticStatus.setMessage(row.getString(DIAG_MSG_IDX));
 
       diagnostic_msgs.KeyValue keyValue = messageFactory.newFromType(diagnostic_msgs.KeyValue._TYPE);
-      keyValue.setKey(elements[DIAG_KEY_MSG]);
-      keyValue.setValue(elements[DIAG_VALUE_IDX]);
+      keyValue.setKey(row.getString(DIAG_KEY_MSG));
+      keyValue.setValue(row.getString(DIAG_VALUE_IDX));
 
       diagnosticStatus.setValues(new ArrayList<>(Arrays.asList(keyValue)));
       diagMsg.setStatus(new ArrayList<>(Arrays.asList(diagnosticStatus)));
@@ -126,35 +126,35 @@ public class MockTruckControllerDriver extends AbstractMockDriver {
         });
   }
 
-  @Override protected void publishData(List<String[]> data) throws IllegalArgumentException {
+  @Override protected void publishData(List<ReplayRow> data) throws IllegalArgumentException {
 
-    for(String[] elements : data) {
+    for(ReplayRow row : data) {
       // Make messages
       cav_msgs.RobotEnabled enabledMsg = enabledPub.newMessage();
       diagnostic_msgs.DiagnosticArray diagMsg = diagnosticsPub.newMessage();
 
       // Build RobotEnabled Message
-      enabledMsg.setBrakeDecel(Double.parseDouble(elements[BRAKE_DECEL_IDX]));
-      enabledMsg.setRobotEnabled(Boolean.parseBoolean(elements[ROBOT_ENABLED_IDX]));
-      enabledMsg.setTorque(Double.parseDouble(elements[TORQUE_IDX]));
+      enabledMsg.setBrakeDecel(row.getDouble(BRAKE_DECEL_IDX));
+      enabledMsg.setRobotEnabled(row.getBoolean(ROBOT_ENABLED_IDX));
+      enabledMsg.setTorque(row.getDouble(TORQUE_IDX));
 
       // Build Diagnostics Message: Assumes that only diagnostic is in a data file line
       std_msgs.Header hdr = messageFactory.newFromType(std_msgs.Header._TYPE);
       hdr.setFrameId("0");
-      hdr.setSeq(Integer.parseInt(elements[SAMPLE_ID_IDX]));
+      hdr.setSeq(row.getInt(SAMPLE_ID_IDX));
       hdr.setStamp(connectedNode.getCurrentTime());
 
       diagMsg.setHeader(hdr);
 
       DiagnosticStatus diagnosticStatus = messageFactory.newFromType(DiagnosticStatus._TYPE);
-      diagnosticStatus.setHardwareId(elements[HARDWARE_ID_IDX]);
-      diagnosticStatus.setLevel(Byte.valueOf(elements[DIAG_LEVEL_IDX]));
+      diagnosticStatus.setHardwareId(row.getString(HARDWARE_ID_IDX));
+      diagnosticStatus.setLevel(row.getByte(DIAG_LEVEL_IDX));
       diagnosticStatus.setName(getGraphName().toString());
-      diagnosticStatus.setMessage(elements[DIAG_MSG_IDX]);
+      diagnosticStatus.setMessage(row.getString(DIAG_MSG_IDX));
 
       KeyValue keyValue = messageFactory.newFromType(KeyValue._TYPE);
-      keyValue.setKey(elements[DIAG_KEY_MSG]);
-      keyValue.setValue(elements[DIAG_VALUE_IDX]);
+      keyValue.setKey(row.getString(DIAG_KEY_MSG));
+      keyValue.setValue(row.getString(DIAG_VALUE_IDX));
 
       diagnosticStatus.setValues(new ArrayList<>(Arrays.asList(keyValue)));
       diagMsg.setStatus(new ArrayList<>(Arrays.asList(diagnosticStatus)));
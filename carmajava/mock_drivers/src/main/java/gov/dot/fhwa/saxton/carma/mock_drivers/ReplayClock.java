@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.mock_drivers;
+
+import org.apache.commons.logging.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clock which schedules the publishing of one or more simulated drivers.
+ * <p>
+ * Each driver publishes its next sample every {@link IMockDriver#getPublishDelay()} ms of simulated time. Simulated
+ * time runs at a multiple of real time given by the time scale, or as fast as the drivers can publish when the time
+ * scale is {@link #AS_FAST_AS_POSSIBLE}. Drivers due at the same simulated time always publish in the order they were
+ * added and a driver which falls behind catches up without skipping samples, so the order of the published data
+ * does not depend on how long publishing takes.
+ */
+public class ReplayClock {
+
+  public static final double AS_FAST_AS_POSSIBLE = 0.0;
+  protected static final long REPORT_PERIOD = 10000; // ms of real time between rate reports
+  protected static final long MAX_WAIT = 50; // ms of real time a step waits at most
+
+  protected final double timeScale;
+  protected final Log log;
+  protected final List<ScheduledDriver> drivers = new ArrayList<>();
+  protected long startTime = -1; // ns
+  protected long lastReportTime;
+
+  /**
+   * Constructor
+   *
+   * @param timeScale The rate of simulated time relative to real time, or {@link #AS_FAST_AS_POSSIBLE}
+   * @param log The log used for rate reports
+   */
+  public ReplayClock(double timeScale, Log log) {
+    this.timeScale = Math.max(timeScale, AS_FAST_AS_POSSIBLE);
+    this.log = log;
+  }
+
+  /**
+   * Adds a driver to the clock. Drivers can only be added before the first step.
+   *
+   * @param driver The driver to publish data from
+   */
+  public void addDriver(IMockDriver driver) {
+    if (startTime >= 0) {
+      throw new IllegalStateException("Drivers must be added to the replay clock before it is started");
+    }
+    drivers.add(new ScheduledDriver(driver));
+  }
+
+  /**
+   * Waits until the next driver is due and lets it publish its data.
+   * A step waits at most {@link #MAX_WAIT} ms of real time, so the caller can keep doing real time work such as
+   * publishing the driver status when simulated time runs slower than real time or there is nothing to publish.
+   *
+   * @return True if a driver published its data, false if the wait was cut short
+   * @throws InterruptedException If interrupted while waiting
+   */
+  public boolean step() throws InterruptedException {
+    if (drivers.isEmpty()) {
+      TimeUnit.MILLISECONDS.sleep(MAX_WAIT);
+      return false;
+    }
+    if (startTime < 0) {
+      startTime = System.nanoTime();
+      lastReportTime = startTime;
+    }
+
+    // Earliest due driver, ties go to the driver added first
+    ScheduledDriver next = drivers.get(0);
+    for (ScheduledDriver scheduled : drivers) {
+      if (scheduled.simTimeDue < next.simTimeDue) {
+        next = scheduled;
+      }
+    }
+
+    if (timeScale != AS_FAST_AS_POSSIBLE) {
+      long realTimeDue = startTime + (long) (TimeUnit.MILLISECONDS.toNanos(next.simTimeDue) / timeScale);
+      long wait = realTimeDue - System.nanoTime();
+      if (wait > TimeUnit.MILLISECONDS.toNanos(MAX_WAIT)) {
+        TimeUnit.MILLISECONDS.sleep(MAX_WAIT);
+        return false;
+      }
+      if (wait > 0) {
+        TimeUnit.NANOSECONDS.sleep(wait);
+      }
+    }
+
+    next.driver.readAndPublishData();
+    next.publishCount++;
+    next.simTimeDue += Math.max(next.driver.getPublishDelay(), 1);
+
+    if (System.nanoTime() - lastReportTime >= TimeUnit.MILLISECONDS.toNanos(REPORT_PERIOD)) {
+      lastReportTime = System.nanoTime();
+      reportRates();
+    }
+    return true;
+  }
+
+  /**
+   * Gets the rate at which a driver has published since the clock was started
+   *
+   * @param driver The driver added to this clock
+   * @return The achieved rate in Hz
+   */
+  public double getAchievedRate(IMockDriver driver) {
+    ScheduledDriver scheduled = find(driver);
+    double elapsed = (startTime < 0) ? 0.0 : (System.nanoTime() - startTime) / 1e9;
+    return (elapsed > 0.0) ? scheduled.publishCount / elapsed : 0.0;
+  }
+
+  /**
+   * Gets the rate at which a driver was requested to publish
+   *
+   * @param driver The driver added to this clock
+   * @return The requested rate in Hz, infinite when replaying as fast as possible
+   */
+  public double getRequestedRate(IMockDriver driver) {
+    find(driver);
+    if (timeScale == AS_FAST_AS_POSSIBLE) {
+      return Double.POSITIVE_INFINITY;
+    }
+    return timeScale * 1000.0 / Math.max(driver.getPublishDelay(), 1);
+  }
+
+  /**
+   * Logs the achieved and requested publishing rate of each driver
+   */
+  public void reportRates() {
+    for (ScheduledDriver scheduled : drivers) {
+      log.info(String.format("%s published %d samples at %.1f Hz, requested %.1f Hz", scheduled.driver.getGraphName(),
+        scheduled.publishCount, getAchievedRate(scheduled.driver), getRequestedRate(scheduled.driver)));
+    }
+  }
+
+  /**
+   * Helper function finds the schedule of an added driver
+   */
+  private ScheduledDriver find(IMockDriver driver) {
+    for (ScheduledDriver scheduled : drivers) {
+      if (scheduled.driver == driver) {
+        return scheduled;
+      }
+    }
+    throw new IllegalArgumentException("Driver " + driver.getGraphName() + " was not added to the replay clock");
+  }
+
+  /**
+   * The publishing schedule of a single driver
+   */
+  protected static class ScheduledDriver {
+    final IMockDriver driver;
+    long simTimeDue = 0; // ms
+    long publishCount = 0;
+
+    ScheduledDriver(IMockDriver driver) {
+      this.driver = driver;
+    }
+  }
+}
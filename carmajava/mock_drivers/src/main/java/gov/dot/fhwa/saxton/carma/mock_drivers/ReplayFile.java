@@ -0,0 +1,365 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.mock_drivers;
+
+import org.apache.commons.logging.Log;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A driver data file compiled into a compact binary form which is memory mapped for replay.
+ * <p>
+ * A csv data file is compiled once, parsing every cell and grouping the lines into samples by their sample id.
+ * The compiled file is cached next to the csv file and reused until the csv file is modified.
+ * Replaying a sample afterwards needs no file reads, string splitting or number parsing.
+ * <p>
+ * Binary format (big endian):
+ * <pre>
+ *   int magic, int version, int column count, int sample count
+ *   sample count * (int sample id, int row count, int offset of the first row)
+ *   rows, each being column count cells of a one byte tag followed by the value for that tag
+ * </pre>
+ */
+public class ReplayFile {
+
+  public static final String REPLAY_EXTENSION = ".replay";
+
+  private static final int MAGIC = 0x43525046; // CRPF
+  private static final int VERSION = 1;
+  private static final String DELIMITER = ","; // Comma for csv file
+
+  private final ByteBuffer buffer;
+  private final int columnCount;
+  private final int[] sampleIds;
+  private final int[] sampleFirstRows; // Index of the first row of each sample, followed by the total row count
+  private final int[] cellOffsets; // Offset of every cell of every row, row after row
+
+  /**
+   * Constructor which memory maps a compiled data file
+   *
+   * @param compiledFile The compiled data file
+   * @throws IOException If the file could not be read or is not a compiled data file
+   */
+  public ReplayFile(File compiledFile) throws IOException {
+    MappedByteBuffer buffer;
+    try (RandomAccessFile file = new RandomAccessFile(compiledFile, "r");
+         FileChannel channel = file.getChannel()) {
+      // The mapping remains valid after the channel is closed
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    if (buffer.limit() < 16 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+      throw new IOException(compiledFile + " is not a compiled data file of version " + VERSION);
+    }
+    this.buffer = buffer;
+    columnCount = buffer.getInt(8);
+    int sampleCount = buffer.getInt(12);
+    sampleIds = new int[sampleCount];
+    sampleFirstRows = new int[sampleCount + 1];
+    for (int i = 0; i < sampleCount; i++) {
+      int entry = 16 + i * 12;
+      sampleIds[i] = buffer.getInt(entry);
+      sampleFirstRows[i + 1] = sampleFirstRows[i] + buffer.getInt(entry + 4);
+    }
+
+    // Locate the cells of every row once so replaying a sample only reads the requested values
+    cellOffsets = new int[sampleFirstRows[sampleCount] * columnCount];
+    int cell = 0;
+    for (int i = 0; i < sampleCount; i++) {
+      int offset = buffer.getInt(16 + i * 12 + 8);
+      int end = sampleFirstRows[i + 1] * columnCount;
+      for (; cell < end; cell++) {
+        cellOffsets[cell] = offset;
+        offset = skipCell(buffer, offset);
+      }
+    }
+  }
+
+  /**
+   * Opens a driver data file for replay.
+   * A compiled data file is opened directly. A csv data file is compiled into a replay file next to it, or into a
+   * temporary file if that location is not writable, unless an up to date compiled file already exists.
+   *
+   * @param dataFilePath The path to a csv data file or a compiled data file
+   * @param expectedColCount The number of elements required in each line of a csv data file
+   * @param sampleIdIdx The column of the sample id in a csv data file
+   * @param log The log used to report skipped lines while compiling
+   *
+   * @return The opened replay file
+   * @throws FileNotFoundException If the data file does not exist
+   * @throws IOException If the data file could not be read or compiled
+   */
+  public static ReplayFile open(String dataFilePath, int expectedColCount, int sampleIdIdx, Log log)
+    throws IOException {
+    File dataFile = new File(dataFilePath);
+    if (!dataFile.isFile()) {
+      throw new FileNotFoundException(dataFilePath);
+    }
+    if (dataFilePath.endsWith(REPLAY_EXTENSION)) {
+      return new ReplayFile(dataFile);
+    }
+
+    File compiledFile = new File(dataFilePath + REPLAY_EXTENSION);
+    if (compiledFile.isFile() && compiledFile.lastModified() >= dataFile.lastModified()) {
+      try {
+        ReplayFile replayFile = new ReplayFile(compiledFile);
+        if (replayFile.getColumnCount() == expectedColCount) {
+          return replayFile;
+        }
+      } catch (IOException e) {
+        log.warn("Recompiling unreadable replay file " + compiledFile, e);
+      }
+    }
+
+    File parent = dataFile.getAbsoluteFile().getParentFile();
+    if (!parent.canWrite() || (compiledFile.exists() && !compiledFile.canWrite())) {
+      compiledFile = File.createTempFile(dataFile.getName(), REPLAY_EXTENSION);
+      compiledFile.deleteOnExit();
+    }
+    compile(dataFile, compiledFile, expectedColCount, sampleIdIdx, log);
+    return new ReplayFile(compiledFile);
+  }
+
+  /**
+   * Compiles a csv data file into the binary replay format.
+   * The first line of the data file is a header and is skipped, as are lines which do not have the expected number
+   * of elements or whose sample id is not an integer. Consecutive lines with the same sample id form one sample.
+   *
+   * @param dataFile The csv data file
+   * @param compiledFile The file to write the compiled data to
+   * @param expectedColCount The number of elements required in each line
+   * @param sampleIdIdx The column of the sample id
+   * @param log The log used to report skipped lines
+   *
+   * @return The number of samples compiled
+   * @throws IOException If the data file could not be read or the compiled file could not be written
+   */
+  public static int compile(File dataFile, File compiledFile, int expectedColCount, int sampleIdIdx, Log log)
+    throws IOException {
+    ByteArrayBuilder rows = new ByteArrayBuilder();
+    List<int[]> sampleTable = new ArrayList<>(); // sample id, row count, row offset relative to the first row
+    int skippedLines = 0;
+
+    // The driver data files were read a byte per character, so keep decoding them that way
+    try (BufferedReader reader = new BufferedReader(
+      new InputStreamReader(new FileInputStream(dataFile), StandardCharsets.ISO_8859_1))) {
+      String dataLine = reader.readLine(); // Skip the header line of all data files
+      while ((dataLine = reader.readLine()) != null) {
+        String[] elements = dataLine.split(DELIMITER);
+        int sampleId;
+        try {
+          if (elements.length != expectedColCount) {
+            throw new NumberFormatException("Expected " + expectedColCount + " elements");
+          }
+          sampleId = Integer.parseInt(elements[sampleIdIdx]);
+        } catch (NumberFormatException e) {
+          skippedLines++;
+          continue; // Skip this invalid line
+        }
+
+        int[] lastSample = sampleTable.isEmpty() ? null : sampleTable.get(sampleTable.size() - 1);
+        if (lastSample != null && lastSample[0] == sampleId) {
+          lastSample[1]++;
+        } else {
+          sampleTable.add(new int[] {sampleId, 1, rows.size()});
+        }
+        for (String element : elements) {
+          writeCell(rows, element);
+        }
+      }
+    }
+
+    if (skippedLines > 0) {
+      log.warn(dataFile + " has " + skippedLines + " invalid lines which will not be published. "
+        + "The required number of data elements is " + expectedColCount);
+    }
+
+    int headerSize = 16 + sampleTable.size() * 12;
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(compiledFile)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(expectedColCount);
+      out.writeInt(sampleTable.size());
+      for (int[] sample : sampleTable) {
+        out.writeInt(sample[0]);
+        out.writeInt(sample[1]);
+        out.writeInt(headerSize + sample[2]);
+      }
+      rows.writeTo(out);
+    }
+
+    return sampleTable.size();
+  }
+
+  /**
+   * @return The number of elements in each row
+   */
+  public int getColumnCount() {
+    return columnCount;
+  }
+
+  /**
+   * @return The number of samples in the file
+   */
+  public int getSampleCount() {
+    return sampleIds.length;
+  }
+
+  /**
+   * @return The sample id of the sample at the provided index
+   */
+  public int getSampleId(int index) {
+    return sampleIds[index];
+  }
+
+  /**
+   * @return The rows of the sample at the provided index
+   */
+  public List<ReplayRow> getSample(int index) {
+    int firstRow = sampleFirstRows[index];
+    List<ReplayRow> rows = new ArrayList<>(sampleFirstRows[index + 1] - firstRow);
+    for (int r = firstRow; r < sampleFirstRows[index + 1]; r++) {
+      rows.add(new ReplayRow(buffer, cellOffsets, r * columnCount, columnCount));
+    }
+    return Collections.unmodifiableList(rows);
+  }
+
+  /**
+   * Helper function writes a cell using the most compact tag which preserves its original text
+   */
+  private static void writeCell(ByteArrayBuilder out, String text) {
+    switch (text) {
+      case "true":
+        out.writeByte(ReplayRow.TAG_TRUE);
+        return;
+      case "false":
+        out.writeByte(ReplayRow.TAG_FALSE);
+        return;
+      case "TRUE":
+        out.writeByte(ReplayRow.TAG_TRUE_UPPER);
+        return;
+      case "FALSE":
+        out.writeByte(ReplayRow.TAG_FALSE_UPPER);
+        return;
+    }
+
+    try {
+      long value = Long.parseLong(text);
+      if (Long.toString(value).equals(text)) {
+        out.writeByte(ReplayRow.TAG_LONG);
+        out.writeLong(value);
+        return;
+      }
+    } catch (NumberFormatException e) {
+      // Not an integer
+    }
+
+    try {
+      double value = Double.parseDouble(text);
+      if (Double.toString(value).equals(text)) {
+        out.writeByte(ReplayRow.TAG_DOUBLE);
+        out.writeLong(Double.doubleToRawLongBits(value));
+      } else {
+        out.writeByte(ReplayRow.TAG_DOUBLE_TEXT);
+        out.writeLong(Double.doubleToRawLongBits(value));
+        out.writeText(text);
+      }
+      return;
+    } catch (NumberFormatException e) {
+      // Not a number
+    }
+
+    out.writeByte(ReplayRow.TAG_STRING);
+    out.writeText(text);
+  }
+
+  /**
+   * Helper function returns the offset of the cell following the cell at the provided offset
+   */
+  private static int skipCell(ByteBuffer buffer, int offset) throws IOException {
+    switch (buffer.get(offset)) {
+      case ReplayRow.TAG_STRING:
+        return offset + 5 + buffer.getInt(offset + 1);
+      case ReplayRow.TAG_LONG:
+      case ReplayRow.TAG_DOUBLE:
+        return offset + 9;
+      case ReplayRow.TAG_DOUBLE_TEXT:
+        return offset + 13 + buffer.getInt(offset + 9);
+      case ReplayRow.TAG_TRUE:
+      case ReplayRow.TAG_FALSE:
+      case ReplayRow.TAG_TRUE_UPPER:
+      case ReplayRow.TAG_FALSE_UPPER:
+        return offset + 1;
+      default:
+        throw new IOException("Unknown cell tag " + buffer.get(offset) + " at offset " + offset);
+    }
+  }
+
+  /**
+   * Growable byte array used to build the rows of a compiled file before its header can be written
+   */
+  private static class ByteArrayBuilder {
+    private ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+    int size() {
+      return buffer.position();
+    }
+
+    void writeByte(byte value) {
+      ensureCapacity(1).put(value);
+    }
+
+    void writeLong(long value) {
+      ensureCapacity(8).putLong(value);
+    }
+
+    void writeText(String text) {
+      byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+      ensureCapacity(4 + bytes.length).putInt(bytes.length).put(bytes);
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+      out.write(buffer.array(), 0, buffer.position());
+    }
+
+    private ByteBuffer ensureCapacity(int bytes) {
+      if (buffer.remaining() < bytes) {
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        buffer.flip();
+        larger.put(buffer);
+        buffer = larger;
+      }
+      return buffer;
+    }
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.mock_drivers;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A single line of a driver data file, read from the memory mapped buffer of a {@link ReplayFile}.
+ * <p>
+ * Numeric and boolean cells were parsed when the data file was compiled, so the typed getters only decode the stored
+ * value. Each getter returns the same value or throws the same exception as parsing the original text of the cell
+ * with the matching Java parse function, e.g. {@link #getDouble(int)} behaves as Double.parseDouble.
+ */
+public class ReplayRow {
+
+  // Cell tags of the binary format
+  static final byte TAG_STRING = 0;
+  static final byte TAG_LONG = 1;
+  static final byte TAG_DOUBLE = 2;
+  static final byte TAG_DOUBLE_TEXT = 3;
+  static final byte TAG_TRUE = 4;
+  static final byte TAG_FALSE = 5;
+  static final byte TAG_TRUE_UPPER = 6;
+  static final byte TAG_FALSE_UPPER = 7;
+
+  private final ByteBuffer buffer;
+  private final int[] cellOffsets;
+  private final int firstCell;
+  private final int columnCount;
+
+  /**
+   * Constructor
+   *
+   * @param buffer The buffer holding the compiled data file. Only absolute reads are made from it.
+   * @param cellOffsets The offset in the buffer of the tag of each cell of the file, shared by all its rows
+   * @param firstCell The index in cellOffsets of the first cell of this row
+   * @param columnCount The number of cells in this row
+   */
+  ReplayRow(ByteBuffer buffer, int[] cellOffsets, int firstCell, int columnCount) {
+    this.buffer = buffer;
+    this.cellOffsets = cellOffsets;
+    this.firstCell = firstCell;
+    this.columnCount = columnCount;
+  }
+
+  /**
+   * @return The number of cells in this row
+   */
+  public int size() {
+    return columnCount;
+  }
+
+  /**
+   * @return The original text of the cell
+   */
+  public String getString(int col) {
+    int offset = offset(col);
+    switch (buffer.get(offset)) {
+      case TAG_STRING:
+        return readText(offset + 1);
+      case TAG_LONG:
+        return Long.toString(buffer.getLong(offset + 1));
+      case TAG_DOUBLE:
+        return Double.toString(buffer.getDouble(offset + 1));
+      case TAG_DOUBLE_TEXT:
+        return readText(offset + 9);
+      case TAG_TRUE:
+        return "true";
+      case TAG_FALSE:
+        return "false";
+      case TAG_TRUE_UPPER:
+        return "TRUE";
+      case TAG_FALSE_UPPER:
+        return "FALSE";
+      default:
+        throw new IllegalStateException("Unknown cell tag " + buffer.get(offset) + " in replay data");
+    }
+  }
+
+  public double getDouble(int col) {
+    int offset = offset(col);
+    switch (buffer.get(offset)) {
+      case TAG_LONG:
+        return buffer.getLong(offset + 1);
+      case TAG_DOUBLE:
+      case TAG_DOUBLE_TEXT:
+        return buffer.getDouble(offset + 1);
+      default:
+        return Double.parseDouble(getString(col));
+    }
+  }
+
+  public float getFloat(int col) {
+    int offset = offset(col);
+    switch (buffer.get(offset)) {
+      case TAG_LONG:
+        return buffer.getLong(offset + 1);
+      case TAG_DOUBLE:
+        return (float) buffer.getDouble(offset + 1);
+      default:
+        return Float.parseFloat(getString(col));
+    }
+  }
+
+  public long getLong(int col) {
+    int offset = offset(col);
+    if (buffer.get(offset) == TAG_LONG) {
+      return buffer.getLong(offset + 1);
+    }
+    return Long.parseLong(getString(col));
+  }
+
+  public int getInt(int col) {
+    return (int) checkedLong(col, Integer.MIN_VALUE, Integer.MAX_VALUE);
+  }
+
+  public short getShort(int col) {
+    return (short) checkedLong(col, Short.MIN_VALUE, Short.MAX_VALUE);
+  }
+
+  public byte getByte(int col) {
+    return (byte) checkedLong(col, Byte.MIN_VALUE, Byte.MAX_VALUE);
+  }
+
+  public boolean getBoolean(int col) {
+    switch (buffer.get(offset(col))) {
+      case TAG_TRUE:
+      case TAG_TRUE_UPPER:
+        return true;
+      case TAG_FALSE:
+      case TAG_FALSE_UPPER:
+        return false;
+      default:
+        return Boolean.parseBoolean(getString(col));
+    }
+  }
+
+  /**
+   * Helper function returns the offset in the buffer of the tag of a cell in this row
+   */
+  private int offset(int col) {
+    if (col < 0 || col >= columnCount) {
+      throw new ArrayIndexOutOfBoundsException(col);
+    }
+    return cellOffsets[firstCell + col];
+  }
+
+  /**
+   * Helper function reads an integer cell which must fit in the provided range
+   */
+  private long checkedLong(int col, long min, long max) {
+    long value = getLong(col);
+    if (value < min || value > max) {
+      throw new NumberFormatException("Value out of range. Value:\"" + getString(col) + "\"");
+    }
+    return value;
+  }
+
+  /**
+   * Helper function reads a length prefixed string
+   */
+  private String readText(int offset) {
+    int length = buffer.getInt(offset);
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = buffer.get(offset + 4 + i);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
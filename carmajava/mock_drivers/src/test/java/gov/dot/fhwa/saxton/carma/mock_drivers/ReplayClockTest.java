@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.mock_drivers;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.ros.namespace.GraphName;
+import org.ros.node.ConnectedNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the scheduling of simulated drivers by the ReplayClock
+ */
+public class ReplayClockTest {
+
+  private Log log;
+  private List<String> published;
+
+  @Before
+  public void setUp() {
+    log = LogFactory.getLog(ReplayClockTest.class);
+    published = new ArrayList<>();
+  }
+
+  /**
+   * Tests that drivers publish in simulated time order with ties going to the driver added first
+   */
+  @Test
+  public void testDeterministicOrder() throws Exception {
+    for (int run = 0; run < 2; run++) {
+      published.clear();
+      ReplayClock clock = new ReplayClock(ReplayClock.AS_FAST_AS_POSSIBLE, log);
+      clock.addDriver(new FakeDriver("pinpoint", 100));
+      clock.addDriver(new FakeDriver("radar", 50));
+      clock.addDriver(new FakeDriver("can", 100));
+      for (int i = 0; i < 8; i++) {
+        clock.step();
+      }
+
+      assertEquals(Arrays.asList("pinpoint", "radar", "can", "radar", "pinpoint", "radar", "can", "radar"),
+        published);
+    }
+  }
+
+  /**
+   * Tests that the time scale speeds up publishing and that the rates are reported
+   */
+  @Test
+  public void testTimeScale() throws Exception {
+    FakeDriver driver = new FakeDriver("pinpoint", 100);
+    ReplayClock clock = new ReplayClock(10.0, log);
+    clock.addDriver(driver);
+    assertEquals(100.0, clock.getRequestedRate(driver), 0.0001);
+
+    long start = System.currentTimeMillis();
+    while (published.size() < 11) {
+      clock.step();
+    }
+    long elapsed = System.currentTimeMillis() - start;
+
+    // 1 s of simulated data takes at least 100 ms at 10x
+    assertEquals(11, published.size());
+    assertTrue(elapsed >= 95);
+    assertTrue(clock.getAchievedRate(driver) > 10.0);
+    clock.reportRates();
+
+    ReplayClock fastClock = new ReplayClock(ReplayClock.AS_FAST_AS_POSSIBLE, log);
+    fastClock.addDriver(driver);
+    assertEquals(Double.POSITIVE_INFINITY, fastClock.getRequestedRate(driver), 0.0);
+  }
+
+  /**
+   * Tests that a step waits for at most a short real time period when the next driver is not due yet
+   */
+  @Test
+  public void testWaitIsCapped() throws Exception {
+    // The second sample is due after 10 s of real time
+    ReplayClock clock = new ReplayClock(0.01, log);
+    clock.addDriver(new FakeDriver("pinpoint", 100));
+
+    assertTrue(clock.step());
+    assertFalse(clock.step());
+    assertFalse(clock.step());
+    assertEquals(Arrays.asList("pinpoint"), published);
+  }
+
+  /**
+   * Tests that a clock without drivers waits instead of returning immediately
+   */
+  @Test
+  public void testNoDrivers() throws Exception {
+    ReplayClock clock = new ReplayClock(ReplayClock.AS_FAST_AS_POSSIBLE, log);
+    long start = System.nanoTime();
+    assertFalse(clock.step());
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(ReplayClock.MAX_WAIT) / 2);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testAddDriverAfterStart() throws Exception {
+    ReplayClock clock = new ReplayClock(1.0, log);
+    clock.addDriver(new FakeDriver("pinpoint", 100));
+    clock.step();
+    clock.addDriver(new FakeDriver("radar", 100));
+  }
+
+  /**
+   * Driver which records when it is asked to publish
+   */
+  private class FakeDriver implements IMockDriver {
+    private final String name;
+    private final long publishDelay;
+
+    FakeDriver(String name, long publishDelay) {
+      this.name = name;
+      this.publishDelay = publishDelay;
+    }
+
+    @Override public void onStart(ConnectedNode connectedNode) {
+    }
+
+    @Override public void onInterruption() {
+    }
+
+    @Override public GraphName getGraphName() {
+      return GraphName.of(name);
+    }
+
+    @Override public void readAndPublishData() {
+      published.add(name);
+    }
+
+    @Override public boolean hasData() {
+      return true;
+    }
+
+    @Override public void publishDriverStatus() {
+    }
+
+    @Override public List<String> getDriverAPI() {
+      return new ArrayList<>();
+    }
+
+    @Override public long getPublishDelay() {
+      return publishDelay;
+    }
+  }
+}
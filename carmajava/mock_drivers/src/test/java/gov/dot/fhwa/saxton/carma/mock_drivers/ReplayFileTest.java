@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.mock_drivers;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the compiled replay data files
+ */
+public class ReplayFileTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private Log log;
+
+  @Before
+  public void setUp() {
+    log = LogFactory.getLog(ReplayFileTest.class);
+  }
+
+  /**
+   * Tests that every cell reads back as its original text and as the value its text parses to
+   */
+  @Test
+  public void testCellValues() throws Exception {
+    File csv = writeCsv("id,a,b,c,d,e,f\n"
+      + "0,12,-0.5,TRUE,false,abc def,0.10\n"
+      + "0,-7,1.0E-5,true,FALSE,,1e3\n");
+    File compiled = folder.newFile("cells" + ReplayFile.REPLAY_EXTENSION);
+    assertEquals(1, ReplayFile.compile(csv, compiled, 7, 0, log));
+
+    ReplayFile replayFile = new ReplayFile(compiled);
+    assertEquals(1, replayFile.getSampleCount());
+    assertEquals(0, replayFile.getSampleId(0));
+    List<ReplayRow> rows = replayFile.getSample(0);
+    assertEquals(2, rows.size());
+
+    String[][] expected = {
+      {"0", "12", "-0.5", "TRUE", "false", "abc def", "0.10"},
+      {"0", "-7", "1.0E-5", "true", "FALSE", "", "1e3"}};
+    for (int r = 0; r < expected.length; r++) {
+      ReplayRow row = rows.get(r);
+      assertEquals(expected[r].length, row.size());
+      for (int c = 0; c < expected[r].length; c++) {
+        final int col = c;
+        String text = expected[r][c];
+        assertEquals(text, row.getString(c));
+        assertEquals(Boolean.parseBoolean(text), row.getBoolean(c));
+        try {
+          assertEquals(Double.parseDouble(text), row.getDouble(c), 0.0);
+          assertEquals(Float.parseFloat(text), row.getFloat(c), 0.0f);
+        } catch (NumberFormatException e) {
+          assertParseFails(() -> row.getDouble(col));
+        }
+        try {
+          assertEquals(Integer.parseInt(text), row.getInt(c));
+          assertEquals(Byte.parseByte(text), row.getByte(c));
+        } catch (NumberFormatException e) {
+          assertParseFails(() -> row.getInt(col));
+        }
+      }
+    }
+  }
+
+  /**
+   * Tests that lines are grouped into samples and that invalid lines are skipped
+   */
+  @Test
+  public void testSamples() throws Exception {
+    File csv = writeCsv("sample id,value\n"
+      + "0,1\n"
+      + "0,2\n"
+      + "1,3\n"
+      + "1,9,9\n"
+      + "x,9\n"
+      + "2,4\n"
+      + "2,5\n");
+    File compiled = folder.newFile("samples" + ReplayFile.REPLAY_EXTENSION);
+    assertEquals(3, ReplayFile.compile(csv, compiled, 2, 0, log));
+
+    ReplayFile replayFile = new ReplayFile(compiled);
+    int[] expectedRows = {2, 1, 2};
+    long value = 1;
+    for (int i = 0; i < expectedRows.length; i++) {
+      assertEquals(i, replayFile.getSampleId(i));
+      assertEquals(expectedRows[i], replayFile.getSample(i).size());
+      for (ReplayRow row : replayFile.getSample(i)) {
+        assertEquals(value++, row.getLong(1));
+      }
+    }
+
+    // Rows share one offset table, so a column past the end must not read the next row
+    try {
+      replayFile.getSample(1).get(0).getLong(2);
+      fail("Expected ArrayIndexOutOfBoundsException");
+    } catch (ArrayIndexOutOfBoundsException e) {
+      // Expected
+    }
+  }
+
+  /**
+   * Tests that a driver data file is compiled once and then reused
+   */
+  @Test
+  public void testOpenCachesCompiledFile() throws Exception {
+    File csv = writeCsv("sample id,value\n0,1\n1,2\n");
+    ReplayFile replayFile = ReplayFile.open(csv.getPath(), 2, 0, log);
+    assertEquals(2, replayFile.getSampleCount());
+
+    File compiled = new File(csv.getPath() + ReplayFile.REPLAY_EXTENSION);
+    assertTrue(compiled.isFile());
+    long compiledTime = compiled.lastModified();
+    replayFile = ReplayFile.open(csv.getPath(), 2, 0, log);
+    assertEquals(2, replayFile.getSampleCount());
+    assertEquals(compiledTime, compiled.lastModified());
+
+    // A compiled file can also be opened directly
+    replayFile = ReplayFile.open(compiled.getPath(), 2, 0, log);
+    assertEquals(2, replayFile.getSample(1).get(0).getInt(1));
+
+    try {
+      ReplayFile.open(csv.getPath() + ".missing", 2, 0, log);
+      fail("Expected a FileNotFoundException");
+    } catch (IOException e) {
+      assertTrue(e instanceof java.io.FileNotFoundException);
+    }
+  }
+
+  /**
+   * Tests compiling the driver test data
+   */
+  @Test
+  public void testDriverData() throws Exception {
+    File compiled = folder.newFile("radar" + ReplayFile.REPLAY_EXTENSION);
+    assertEquals(2, ReplayFile.compile(new File("src/test/data/radar.csv"), compiled, 132, 0, log));
+    ReplayFile radar = new ReplayFile(compiled);
+    assertEquals(2, radar.getSample(0).size());
+    assertEquals(2, radar.getSample(1).get(1).getShort(1));
+    assertEquals(4.1, radar.getSample(0).get(0).getDouble(3), 0.0);
+
+    compiled = folder.newFile("can" + ReplayFile.REPLAY_EXTENSION);
+    assertEquals(6, ReplayFile.compile(new File("src/test/data/can.csv"), compiled, 19, 0, log));
+    ReplayRow can = new ReplayFile(compiled).getSample(0).get(0);
+    assertTrue(can.getBoolean(1));
+    assertEquals(0.5f, can.getFloat(2), 0.0f);
+    assertEquals(3, can.getByte(12));
+  }
+
+  private File writeCsv(String contents) throws IOException {
+    File csv = folder.newFile();
+    try (FileWriter writer = new FileWriter(csv)) {
+      writer.write(contents);
+    }
+    return csv;
+  }
+
+  private void assertParseFails(Runnable parse) {
+    try {
+      parse.run();
+      fail("Expected a NumberFormatException");
+    } catch (NumberFormatException e) {
+      // Expected
+    }
+  }
+}
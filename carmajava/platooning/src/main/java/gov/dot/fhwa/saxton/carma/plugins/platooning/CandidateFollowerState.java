@@ -22,6 +22,8 @@ import gov.dot.fhwa.saxton.carma.guidance.util.ILogger;
 import gov.dot.fhwa.saxton.carma.guidance.util.RouteService;
 import gov.dot.fhwa.saxton.carma.guidance.util.SpeedLimit;
 import gov.dot.fhwa.saxton.carma.guidance.util.trajectoryconverter.RoutePointStamped;
+import gov.dot.fhwa.saxton.carma.rosutils.StrategyParamsWriter;
+import gov.dot.fhwa.saxton.carma.plugins.platooning.PlatoonMembership.ChangeType;
 
 /**
  * The CandidateFollowerState is a state which platooning algorithm is enabled on the current trajectory
@@ -48,6 +50,7 @@ public class CandidateFollowerState implements IPlatooningState {
     private   double               trajectoryEndLocation;
     private   PlatoonPlan          currentPlan;
     private   long                 stateStartTime;
+    private   StrategyParamsWriter statusWriter;
 
     public CandidateFollowerState(PlatooningPlugin plugin, ILogger log, PluginServiceLocator pluginServiceLocator, String targetId, String newPlatoonId, double trajectoryEnd) {
         this.plugin                = plugin;
@@ -58,6 +61,7 @@ public class CandidateFollowerState implements IPlatooningState {
         this.trajectoryEndLocation = trajectoryEnd;
         this.stateStartTime        = System.currentTimeMillis();
         this.plugin.handleMobilityPath.set(false);
+        this.statusWriter          = new StrategyParamsWriter(PlatooningPlugin.OPERATION_STATUS_SCHEMA, plugin.binaryStrategyParams);
     }
 
     @Override
@@ -278,6 +282,11 @@ public class CandidateFollowerState implements IPlatooningState {
         }
     }
     
+    @Override
+    public void onPlatoonMembershipChanged(ChangeType type, PlatoonMember member) {
+        // The candidate follower only monitors its own followers and has nothing to update on a change
+    }
+    
     @Override
     public String toString() {
         return "CandidateFollowerState";
@@ -296,9 +305,11 @@ public class CandidateFollowerState implements IPlatooningState {
         msg.setStrategy(PlatooningPlugin.MOBILITY_STRATEGY);
         double cmdSpeed = plugin.getLastSpeedCmd();
         // For STATUS params, the string format is "STATUS|CMDSPEED:xx,DTD:xx,SPEED:xx"
-        String statusParams = String.format(PlatooningPlugin.OPERATION_STATUS_PARAMS,
-                                            cmdSpeed, pluginServiceLocator.getRouteService().getCurrentDowntrackDistance(),
-                                            pluginServiceLocator.getManeuverPlanner().getManeuverInputs().getCurrentSpeed());
+        String statusParams = statusWriter.begin()
+                                          .putDouble(cmdSpeed)
+                                          .putDouble(pluginServiceLocator.getRouteService().getCurrentDowntrackDistance())
+                                          .putDouble(pluginServiceLocator.getManeuverPlanner().getManeuverInputs().getCurrentSpeed())
+                                          .finish();
         msg.setStrategyParams(statusParams);
         log.debug("Composed a mobility operation message with params " + msg.getStrategyParams());
     }
@@ -16,15 +16,12 @@
 
 package gov.dot.fhwa.saxton.carma.plugins.platooning;
 
-import java.util.Optional;
-
 import com.google.common.util.concurrent.AtomicDouble;
 
 import gov.dot.fhwa.saxton.carma.guidance.plugins.PluginServiceLocator;
-import gov.dot.fhwa.saxton.carma.guidance.signals.Filter;
+import gov.dot.fhwa.saxton.carma.guidance.signals.DoublePipeline;
+import gov.dot.fhwa.saxton.carma.guidance.signals.DoubleSignal;
 import gov.dot.fhwa.saxton.carma.guidance.signals.PidController;
-import gov.dot.fhwa.saxton.carma.guidance.signals.Pipeline;
-import gov.dot.fhwa.saxton.carma.guidance.signals.Signal;
 import gov.dot.fhwa.saxton.carma.guidance.util.ILogger;
 import gov.dot.fhwa.saxton.carma.guidance.util.SpeedLimit;
 
@@ -38,27 +35,28 @@ public class CommandGenerator implements Runnable, IPlatooningCommandInputs {
     protected PlatooningPlugin plugin_;
     protected PluginServiceLocator pluginServiceLocator_;
     protected ILogger log_;
-    protected Filter<Double> distanceGapController_;
-    protected Pipeline<Double> speedController_;
+    protected PidController distanceGapController_;
+    protected DoublePipeline speedController_;
+    // Reused for every control step so the controller does not allocate
+    protected DoubleSignal controllerSignal_ = new DoubleSignal(0.0, 0.0);
     protected double desiredGap_ = 0.0;
     protected double adjustmentCap = 10.0;
     protected AtomicDouble speedCmd_ = new AtomicDouble(0.0);
-    protected Optional<Double> lastCmdSpeed = Optional.empty();
+    protected double lastCmdSpeed = Double.NaN;
     
     private boolean enableMaxAccelFilter;
     private boolean enableMaxAdjustmentFilter;
     private boolean enableLocalSpeedLimitFilter;
     
-    @SuppressWarnings("unchecked")
     public CommandGenerator(PlatooningPlugin plugin, ILogger log, PluginServiceLocator pluginServiceLocator) {
         this.plugin_ = plugin;
         this.pluginServiceLocator_ = pluginServiceLocator;
         this.log_ = log;
         this.distanceGapController_ = new PidController(plugin_.kpPID, plugin_.kiPID, plugin_.kdPID, plugin_.standStillHeadway);
         if(plugin_.integratorMaxCap > plugin_.integratorMinCap) {
-            ((PidController) this.distanceGapController_).setIntegratorRange(plugin_.integratorMinCap, plugin_.integratorMaxCap);
+            this.distanceGapController_.setIntegratorRange(plugin_.integratorMinCap, plugin_.integratorMaxCap);
         }
-        this.speedController_ = new Pipeline<Double>(distanceGapController_);
+        this.speedController_ = new DoublePipeline(distanceGapController_);
         this.adjustmentCap = Math.max(0, plugin.cmdSpeedMaxAdjustment);
         this.enableMaxAccelFilter = plugin.maxAccelCapEnabled;
         this.enableLocalSpeedLimitFilter = plugin.speedLimitCapEnabled;
@@ -107,37 +105,39 @@ public class CommandGenerator implements Runnable, IPlatooningCommandInputs {
                 } else {
                     desiredGap_ = Math.max(plugin_.platooningMinGap, plugin_.desiredTimeGap * plugin_.getManeuverInputs().getCurrentSpeed());
                     distanceGapController_.changeSetpoint(desiredGap_);
-                    Signal<Double> signal = new Signal<Double>(currentGap, timeStamp);
-                    controllerOutput = speedController_.apply(signal).get().getData();
+                    controllerSignal_.set(currentGap, timeStamp);
+                    speedController_.apply(controllerSignal_);
+                    controllerOutput = controllerSignal_.getData();
                 }
             } else {
                 double leaderCurrentPosition = leader.vehiclePosition;
-                log_.info("The current leader position is " + leaderCurrentPosition);
+                log_.infof("The current leader position is %s", leaderCurrentPosition);
                 double hostVehiclePosition = pluginServiceLocator_.getRouteService().getCurrentDowntrackDistance();
                 double hostVehicleSpeed = pluginServiceLocator_.getManeuverPlanner().getManeuverInputs().getCurrentSpeed();
-                log_.info("The host vehicle speed is + " + hostVehicleSpeed + " and its position is " + hostVehiclePosition);
+                log_.infof("The host vehicle speed is + %s and its position is %s", hostVehicleSpeed, hostVehiclePosition);
                 // If the host vehicle is the fifth vehicle and it is following the third vehicle, the leader index here is 2
                 // vehiclesInFront should be 2, because number of vehicles in front is 4, then numOfVehiclesGaps = VehicleInFront - leaderIndex   
                 int leaderIndex = plugin_.platoonManager.getIndexOf(leader);
                 int numOfVehiclesGaps = plugin_.platoonManager.getNumberOfVehicleInFront() - leaderIndex;
-                log_.info("The host vehicle have " + numOfVehiclesGaps + " vehicles between itself and its leader (includes the leader)");
+                log_.infof("The host vehicle have %s vehicles between itself and its leader (includes the leader)", numOfVehiclesGaps);
                 desiredGap_ = Math.max(hostVehicleSpeed * plugin_.timeHeadway * numOfVehiclesGaps, plugin_.standStillHeadway * numOfVehiclesGaps);
-                log_.info("The desired gap with the leader is " + desiredGap_);
-                log_.info("Based on raw radar, the current gap with the front vehicle is " + plugin_.getManeuverInputs().getDistanceToFrontVehicle());
+                log_.infof("The desired gap with the leader is %s", desiredGap_);
+                log_.infof("Based on raw radar, the current gap with the front vehicle is %s", plugin_.getManeuverInputs().getDistanceToFrontVehicle());
                 double desiredHostPosition = leaderCurrentPosition - this.desiredGap_;
-                log_.info("The desired host position and the setpoint for pid controller is " + desiredHostPosition);
+                log_.infof("The desired host position and the setpoint for pid controller is %s", desiredHostPosition);
                 // PD controller is used to adjust the speed to maintain the distance gap between the subject vehicle and leader vehicle
                 // Error input for PD controller is defined as the difference between leaderCurrentPosition and desiredLeaderPosition
                 // A positive error implies that that the two vehicles are too far and a negative error implies that the two vehicles are too close
                 // The summation of the leader vehicle command speed and the output of PD controller will be used as speed commands
                 // The command speed of leader vehicle will act as the baseline for our speed control
                 distanceGapController_.changeSetpoint(desiredHostPosition);
-                Signal<Double> signal = new Signal<Double>(hostVehiclePosition, timeStamp);
-                controllerOutput = speedController_.apply(signal).get().getData();
+                controllerSignal_.set(hostVehiclePosition, timeStamp);
+                speedController_.apply(controllerSignal_);
+                controllerOutput = controllerSignal_.getData();
             }
             double adjSpeedCmd = controllerOutput + leader.commandSpeed;
-            log_.info("Adjusted Speed Cmd = " + adjSpeedCmd + "; Controller Output = " + controllerOutput
-                     + "; Leader CmdSpeed= " + leader.commandSpeed + "; Adjustment Cap " + adjustmentCap);
+            log_.infof("Adjusted Speed Cmd = %s; Controller Output = %s; Leader CmdSpeed= %s; Adjustment Cap %s",
+                     adjSpeedCmd, controllerOutput, leader.commandSpeed, adjustmentCap);
             // After we get a adjSpeedCmd, we apply three filters on it if the filter is enabled
             // First: we do not allow the difference between command speed of the host vehicle and the leader's commandSpeed higher than adjustmentCap
             if(enableMaxAdjustmentFilter) {
@@ -146,7 +146,7 @@ public class CommandGenerator implements Runnable, IPlatooningCommandInputs {
                 } else if(adjSpeedCmd < leader.commandSpeed - this.adjustmentCap) {
                     adjSpeedCmd = leader.commandSpeed - this.adjustmentCap;
                 }
-                log_.info("The adjusted cmd speed after max adjustment cap is " + adjSpeedCmd + " m/s");
+                log_.infof("The adjusted cmd speed after max adjustment cap is %s m/s", adjSpeedCmd);
             }
             // Second: we do not exceed the local speed limit
             if(enableLocalSpeedLimitFilter) {
@@ -154,30 +154,30 @@ public class CommandGenerator implements Runnable, IPlatooningCommandInputs {
                 double localSpeedLimit = adjSpeedCmd;
                 if(limit != null) {
                     localSpeedLimit = limit.getLimit();
-                    log_.info("The local speed limit is " + localSpeedLimit + ", cap adjusted speed to speed limit if necessary");
+                    log_.infof("The local speed limit is %s, cap adjusted speed to speed limit if necessary", localSpeedLimit);
                 } else {
                     log_.warn("Cannot find local speed limit in current location" + pluginServiceLocator_.getRouteService().getCurrentDowntrackDistance());
                 }
                 adjSpeedCmd = Math.min(Math.max(adjSpeedCmd, 0), localSpeedLimit);
-                log_.info("The speed command after local limit cap is: " + adjSpeedCmd + " m/s");
+                log_.infof("The speed command after local limit cap is: %s m/s", adjSpeedCmd);
             }
             // Third: we allow do not a large gap between two consecutive speed commands
             if(enableMaxAccelFilter) {
-                if(!lastCmdSpeed.isPresent()) {
-                    lastCmdSpeed = Optional.of(plugin_.getLastSpeedCmd());
+                if(Double.isNaN(lastCmdSpeed)) {
+                    lastCmdSpeed = plugin_.getLastSpeedCmd();
                 }
-                double max = lastCmdSpeed.get() + (plugin_.maxAccel * (CMD_TIMESTEP / 1000.0));
-                double min = lastCmdSpeed.get() - (plugin_.maxAccel * (CMD_TIMESTEP / 1000.0));
+                double max = lastCmdSpeed + (plugin_.maxAccel * (CMD_TIMESTEP / 1000.0));
+                double min = lastCmdSpeed - (plugin_.maxAccel * (CMD_TIMESTEP / 1000.0));
                 if(adjSpeedCmd > max) {
                     adjSpeedCmd = max; 
                 } else if (adjSpeedCmd < min) {
                     adjSpeedCmd = min;
                 }
-                lastCmdSpeed = Optional.of(adjSpeedCmd);
-                log_.info("The speed command after max accel cap is: " + adjSpeedCmd + " m/s");
+                lastCmdSpeed = adjSpeedCmd;
+                log_.infof("The speed command after max accel cap is: %s m/s", adjSpeedCmd);
             }
             speedCmd_.set(adjSpeedCmd);
-            log_.info("A speed command is generated from command generator: " + speedCmd_.get() + " m/s");
+            log_.infof("A speed command is generated from command generator: %s m/s", speedCmd_.get());
         } else {
             // TODO if there is no leader available, we should change back to Leader State and re-join other platoon later
             speedCmd_.set(plugin_.getManeuverInputs().getCurrentSpeed());
@@ -29,6 +29,9 @@ import gov.dot.fhwa.saxton.carma.guidance.plugins.PluginServiceLocator;
 import gov.dot.fhwa.saxton.carma.guidance.trajectory.Trajectory;
 import gov.dot.fhwa.saxton.carma.guidance.util.ILogger;
 import gov.dot.fhwa.saxton.carma.guidance.util.RouteService;
+import gov.dot.fhwa.saxton.carma.rosutils.StrategyParamsReader;
+import gov.dot.fhwa.saxton.carma.rosutils.StrategyParamsWriter;
+import gov.dot.fhwa.saxton.carma.plugins.platooning.PlatoonMembership.ChangeType;
 
 /**
  * The FollowerState is a state when the platooning algorithm is enabled and the host vehicle is a follower.
@@ -45,6 +48,8 @@ public class FollowerState implements IPlatooningState {
     protected ILogger              log;
     protected PluginServiceLocator pluginServiceLocator;
     private   int                  noLeaderUpdatesCounter = 0;
+    private   StrategyParamsReader infoReader = new StrategyParamsReader(PlatooningPlugin.OPERATION_INFO_SCHEMA);
+    private   StrategyParamsWriter statusWriter;
     
     
     public FollowerState(PlatooningPlugin plugin, ILogger log, PluginServiceLocator pluginServiceLocator) {
@@ -52,6 +57,7 @@ public class FollowerState implements IPlatooningState {
         this.log = log;
         this.pluginServiceLocator = pluginServiceLocator;
         this.plugin.handleMobilityPath.set(false);
+        this.statusWriter = new StrategyParamsWriter(PlatooningPlugin.OPERATION_STATUS_SCHEMA, plugin.binaryStrategyParams);
         updateLightBar();
     }
 
@@ -117,8 +123,7 @@ public class FollowerState implements IPlatooningState {
             plugin.platoonManager.memberUpdates(vehicleID, platoonID, msg.getHeader().getSenderBsmId(), statusParams);
         } else if(isPlatoonInfoMsg) {
             if(msg.getHeader().getSenderId().equals(plugin.platoonManager.leaderID)) {
-                String infoParams = strategyParams.substring(PlatooningPlugin.OPERATION_INFO_TYPE.length() + 1);
-                plugin.platoonManager.platoonSize = Integer.parseInt(infoParams.split(",")[3].split(":")[1]);
+                plugin.platoonManager.platoonSize = infoReader.read(strategyParams).getInt(3);
                 log.debug("Update from the lead: the current platoon size is " + plugin.platoonManager.getTotalPlatooningSize());
             }
         } else {
@@ -169,6 +174,13 @@ public class FollowerState implements IPlatooningState {
         }
     }
     
+    @Override
+    public void onPlatoonMembershipChanged(ChangeType type, PlatoonMember member) {
+        if(type == ChangeType.LEFT && plugin.platoonManager.getNumberOfVehicleInFront() == 0) {
+            log.debug("The last vehicle in front of us left the platoon");
+        }
+    }
+    
     @Override
     public String toString() {
         return "FollowerState";
@@ -187,9 +199,11 @@ public class FollowerState implements IPlatooningState {
         msg.setStrategy(PlatooningPlugin.MOBILITY_STRATEGY);
         double cmdSpeed = plugin.getLastSpeedCmd();
         // For STATUS params, the string format is "STATUS|CMDSPEED:xx,DTD:xx,SPEED:xx"
-        String statusParams = String.format(PlatooningPlugin.OPERATION_STATUS_PARAMS,
-                                            cmdSpeed, pluginServiceLocator.getRouteService().getCurrentDowntrackDistance(),
-                                            pluginServiceLocator.getManeuverPlanner().getManeuverInputs().getCurrentSpeed());
+        String statusParams = statusWriter.begin()
+                                          .putDouble(cmdSpeed)
+                                          .putDouble(pluginServiceLocator.getRouteService().getCurrentDowntrackDistance())
+                                          .putDouble(pluginServiceLocator.getManeuverPlanner().getManeuverInputs().getCurrentSpeed())
+                                          .finish();
         msg.setStrategyParams(statusParams);
         log.debug("Composed a mobility operation message with params " + msg.getStrategyParams());
     }
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.plugins.platooning;
+
+import gov.dot.fhwa.saxton.carma.plugins.platooning.PlatoonMembership.ChangeType;
+
+/**
+ * Receives the changes of the platoon membership table.
+ * Changes are delivered in order after the table is unlocked, so a listener may query the platoon manager.
+ */
+public interface IPlatoonMembershipListener {
+
+    /**
+     * Callback method for a change in the platoon member list
+     * @param type JOINED or LEFT if the member was added or expired, REORDERED if the member changed its position in the list
+     * @param member the member which changed
+     */
+    public void onPlatoonMembershipChanged(ChangeType type, PlatoonMember member);
+}
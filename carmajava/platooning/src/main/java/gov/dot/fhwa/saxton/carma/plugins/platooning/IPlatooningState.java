@@ -23,7 +23,7 @@ import gov.dot.fhwa.saxton.carma.guidance.arbitrator.TrajectoryPlanningResponse;
 import gov.dot.fhwa.saxton.carma.guidance.mobilityrouter.MobilityRequestResponse;
 import gov.dot.fhwa.saxton.carma.guidance.trajectory.Trajectory;
 
-public interface IPlatooningState extends Runnable {
+public interface IPlatooningState extends Runnable, IPlatoonMembershipListener {
     
     /**
      * Execute the plugin's planning algorithm and generate maneuvers in the supplied trajectory if possible.
@@ -16,6 +16,9 @@ import gov.dot.fhwa.saxton.carma.guidance.trajectory.Trajectory;
 import gov.dot.fhwa.saxton.carma.guidance.util.ILogger;
 import gov.dot.fhwa.saxton.carma.guidance.util.RouteService;
 import gov.dot.fhwa.saxton.carma.guidance.util.trajectoryconverter.RoutePointStamped;
+import gov.dot.fhwa.saxton.carma.rosutils.StrategyParamsReader;
+import gov.dot.fhwa.saxton.carma.rosutils.StrategyParamsWriter;
+import gov.dot.fhwa.saxton.carma.plugins.platooning.PlatoonMembership.ChangeType;
 
 /**
  * The PlatoonLeaderState is a state which platooning algorithm is enabled on the current trajectory
@@ -36,12 +39,20 @@ public class LeaderState implements IPlatooningState {
     private   String               potentialNewPlatoonId = "";
     private   Object               currentPlanMutex = new Object();
     private   double               trajectoryEndLocation = 0.0;
+    private   StrategyParamsReader joinReader = new StrategyParamsReader(PlatooningPlugin.JOIN_AT_REAR_SCHEMA);
+    private   StrategyParamsReader infoReader = new StrategyParamsReader(PlatooningPlugin.OPERATION_INFO_SCHEMA);
+    private   StrategyParamsWriter joinWriter;
+    private   StrategyParamsWriter infoWriter;
+    private   StrategyParamsWriter statusWriter;
 
     public LeaderState(PlatooningPlugin plugin, ILogger log, PluginServiceLocator pluginServiceLocator) {
         this.plugin = plugin;
         this.log = log;
         this.pluginServiceLocator = pluginServiceLocator;
         this.plugin.handleMobilityPath.set(false);
+        this.joinWriter = new StrategyParamsWriter(PlatooningPlugin.JOIN_AT_REAR_SCHEMA, plugin.binaryStrategyParams);
+        this.infoWriter = new StrategyParamsWriter(PlatooningPlugin.OPERATION_INFO_SCHEMA, plugin.binaryStrategyParams);
+        this.statusWriter = new StrategyParamsWriter(PlatooningPlugin.OPERATION_STATUS_SCHEMA, plugin.binaryStrategyParams);
         // Update the light bar
         updateLightBar();
     }
@@ -51,6 +62,9 @@ public class LeaderState implements IPlatooningState {
         this.log = log;
         this.pluginServiceLocator = pluginServiceLocator;
         this.plugin.handleMobilityPath.set(false);
+        this.joinWriter = new StrategyParamsWriter(PlatooningPlugin.JOIN_AT_REAR_SCHEMA, plugin.binaryStrategyParams);
+        this.infoWriter = new StrategyParamsWriter(PlatooningPlugin.OPERATION_INFO_SCHEMA, plugin.binaryStrategyParams);
+        this.statusWriter = new StrategyParamsWriter(PlatooningPlugin.OPERATION_STATUS_SCHEMA, plugin.binaryStrategyParams);
         this.trajectoryEndLocation = trajectoryEnd;
         // Update the light bar
         updateLightBar();
@@ -89,9 +103,10 @@ public class LeaderState implements IPlatooningState {
             log.debug("The strategy parameters are " + params);
             // For JOIN_PLATOON_AT_REAR message, the strategy params is defined as "SIZE:xx,SPEED:xx,DTD:xx"
             // TODO In future, we should remove down track distance from this string and use location field in request message
-            int applicantSize = Integer.parseInt(params.split(",")[0].split(":")[1]);
-            double applicantCurrentSpeed = Double.parseDouble(params.split(",")[1].split(":")[1]);
-            double applicantCurrentDtd = Double.parseDouble(params.split(",")[2].split(":")[1]);
+            joinReader.read(params);
+            int applicantSize = joinReader.getInt(0);
+            double applicantCurrentSpeed = joinReader.getDouble(1);
+            double applicantCurrentDtd = joinReader.getDouble(2);
             // Check if we have enough room for that applicant
             int currentPlatoonSize = plugin.platoonManager.getTotalPlatooningSize();
             boolean hasEnoughRoomInPlatoon = applicantSize + currentPlatoonSize <= plugin.maxPlatoonSize;
@@ -141,8 +156,9 @@ public class LeaderState implements IPlatooningState {
             if(isPlatoonInfoMsg && isNotInNegotiation) {
                 // For INFO params, the string format is INFO|REAR:%s,LENGTH:%.2f,SPEED:%.2f,SIZE:%d
                 // TODO In future, we should remove downtrack distance from this string and send XYZ location in ECEF
-                String rearVehicleBsmId = strategyParams.split(",")[0].split(":")[1];
-                double rearVehicleDtd = Double.parseDouble(strategyParams.split(",")[4].split(":")[1]);
+                infoReader.read(strategyParams);
+                String rearVehicleBsmId = infoReader.getString(0);
+                double rearVehicleDtd = infoReader.getDouble(4);
                 // We are trying to validate is the platoon rear is right in front of the host vehicle
                 if(isVehicleRightInFront(rearVehicleBsmId, rearVehicleDtd)) {
                     log.debug("Found a platoon with id = " + platoonId + " in front of us.");
@@ -161,9 +177,11 @@ public class LeaderState implements IPlatooningState {
                     request.setLocation(currentLocationMsg.getLocation());
                     request.getPlanType().setType(PlanType.JOIN_PLATOON_AT_REAR);
                     request.setStrategy(PlatooningPlugin.MOBILITY_STRATEGY);
-                    String strategyParamsString = String.format(PlatooningPlugin.JOIN_AT_REAR_PARAMS,
-                                                          plugin.platoonManager.getTotalPlatooningSize(),
-                                                          plugin.getManeuverInputs().getCurrentSpeed(), pluginServiceLocator.getRouteService().getCurrentDowntrackDistance());
+                    String strategyParamsString = joinWriter.begin()
+                                                          .putInt(plugin.platoonManager.getTotalPlatooningSize())
+                                                          .putDouble(plugin.getManeuverInputs().getCurrentSpeed())
+                                                          .putDouble(pluginServiceLocator.getRouteService().getCurrentDowntrackDistance())
+                                                          .finish();
                     request.setStrategyParams(strategyParamsString);
                     // TODO Need to populate the urgency later
                     request.setUrgency((short) 50);
@@ -264,6 +282,14 @@ public class LeaderState implements IPlatooningState {
         }
     }
     
+    @Override
+    public void onPlatoonMembershipChanged(ChangeType type, PlatoonMember member) {
+        // The light bar shows whether we have followers, so it is updated as soon as the platoon size changes
+        if(type != ChangeType.REORDERED) {
+            updateLightBar();
+        }
+    }
+    
     @Override
     public String toString() {
         return "PlatoonLeaderState";
@@ -348,19 +374,22 @@ public class LeaderState implements IPlatooningState {
         msg.setStrategy(PlatooningPlugin.MOBILITY_STRATEGY);
         if(type.equals(PlatooningPlugin.OPERATION_INFO_TYPE)) {
             // For INFO params, the string format is INFO|REAR:%s,LENGTH:%.2f,SPEED:%.2f,SIZE:%d
-            String infoParams = String.format(PlatooningPlugin.OPERATION_INFO_PARAMS,
-                                plugin.platoonManager.getPlatoonRearBsmId(),
-                                plugin.platoonManager.getCurrentPlatoonLength(),
-                                plugin.getManeuverInputs().getCurrentSpeed(),
-                                plugin.platoonManager.getTotalPlatooningSize(),
-                                plugin.platoonManager.getPlatoonRearDowntrackDistance());
+            String infoParams = infoWriter.begin()
+                                .putString(plugin.platoonManager.getPlatoonRearBsmId())
+                                .putDouble(plugin.platoonManager.getCurrentPlatoonLength())
+                                .putDouble(plugin.getManeuverInputs().getCurrentSpeed())
+                                .putInt(plugin.platoonManager.getTotalPlatooningSize())
+                                .putDouble(plugin.platoonManager.getPlatoonRearDowntrackDistance())
+                                .finish();
             msg.setStrategyParams(infoParams);
         } else if(type.equals(PlatooningPlugin.OPERATION_STATUS_TYPE)) {
             double cmdSpeed = plugin.getLastSpeedCmd();
             // For STATUS params, the string format is "STATUS|CMDSPEED:xx,DTD:xx,SPEED:xx"
-            String statusParams = String.format(PlatooningPlugin.OPERATION_STATUS_PARAMS,
-                                                cmdSpeed, pluginServiceLocator.getRouteService().getCurrentDowntrackDistance(),
-                                                pluginServiceLocator.getManeuverPlanner().getManeuverInputs().getCurrentSpeed());
+            String statusParams = statusWriter.begin()
+                                              .putDouble(cmdSpeed)
+                                              .putDouble(pluginServiceLocator.getRouteService().getCurrentDowntrackDistance())
+                                              .putDouble(pluginServiceLocator.getManeuverPlanner().getManeuverInputs().getCurrentSpeed())
+                                              .finish();
             msg.setStrategyParams(statusParams);
         } else {
             log.error("UNKNOW strategy param string!!!");
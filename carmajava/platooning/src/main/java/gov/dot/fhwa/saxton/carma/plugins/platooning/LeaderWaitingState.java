@@ -26,6 +26,8 @@ import gov.dot.fhwa.saxton.carma.guidance.plugins.PluginServiceLocator;
 import gov.dot.fhwa.saxton.carma.guidance.trajectory.Trajectory;
 import gov.dot.fhwa.saxton.carma.guidance.util.ILogger;
 import gov.dot.fhwa.saxton.carma.guidance.util.RouteService;
+import gov.dot.fhwa.saxton.carma.rosutils.StrategyParamsWriter;
+import gov.dot.fhwa.saxton.carma.plugins.platooning.PlatoonMembership.ChangeType;
 
 /**
  * The LeaderWaitingState is a state when the platooning algorithm is enabled and is waiting for a candidate to join.
@@ -44,6 +46,7 @@ public class LeaderWaitingState implements IPlatooningState {
     // The target vehicle we are currently waiting for
     protected String               applicantId;
     protected long                 waitingStartTime;
+    private   StrategyParamsWriter statusWriter;
     
     public LeaderWaitingState(PlatooningPlugin plugin, ILogger log, PluginServiceLocator pluginServiceLocator, String applicantId) {
         this.plugin               = plugin;
@@ -52,6 +55,7 @@ public class LeaderWaitingState implements IPlatooningState {
         this.applicantId          = applicantId;
         this.waitingStartTime     = System.currentTimeMillis();
         this.plugin.handleMobilityPath.set(false);
+        this.statusWriter         = new StrategyParamsWriter(PlatooningPlugin.OPERATION_STATUS_SCHEMA, plugin.binaryStrategyParams);
     }
     
     @Override
@@ -136,6 +140,11 @@ public class LeaderWaitingState implements IPlatooningState {
         }
     }
     
+    @Override
+    public void onPlatoonMembershipChanged(ChangeType type, PlatoonMember member) {
+        // The waiting leader will check its followers when it transits to the leader state
+    }
+    
     @Override
     public String toString() {
         return "LeaderWaitingState";
@@ -156,7 +165,7 @@ public class LeaderWaitingState implements IPlatooningState {
         double cmdSpeed = plugin.getLastSpeedCmd();
         double downtrackDistance = pluginServiceLocator.getRouteService().getCurrentDowntrackDistance();
         double currentSpeed = pluginServiceLocator.getManeuverPlanner().getManeuverInputs().getCurrentSpeed();
-        String params = String.format(PlatooningPlugin.OPERATION_STATUS_PARAMS, cmdSpeed, downtrackDistance, currentSpeed);
+        String params = statusWriter.begin().putDouble(cmdSpeed).putDouble(downtrackDistance).putDouble(currentSpeed).finish();
         msg.setStrategyParams(params);
     }
     
@@ -16,38 +16,43 @@
 
 package gov.dot.fhwa.saxton.carma.plugins.platooning;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
 import java.util.UUID;
 
 import gov.dot.fhwa.saxton.carma.guidance.maneuvers.IManeuverInputs;
 import gov.dot.fhwa.saxton.carma.guidance.plugins.PluginServiceLocator;
 import gov.dot.fhwa.saxton.carma.guidance.util.ILogger;
+import gov.dot.fhwa.saxton.carma.plugins.platooning.PlatoonMembership.ChangeType;
+import gov.dot.fhwa.saxton.carma.rosutils.StrategyParamsReader;
 
 /**
  * This class manages the info of members in the current platoon and leader selection process.
  * In leader state, the manager will maintain a full list of followers' information.
  * In follower state, the manager will keep a list of platoon members' information who is in front of the host vehicle. 
+ * Member updates and expiry are serialized by the manager while the queries of the member list read
+ * the latest snapshot of the PlatoonMembership table without locking. Membership changes are forwarded
+ * to the current platooning state.
  */
-public class PlatoonManager implements Runnable {
+public class PlatoonManager implements Runnable, IPlatoonMembershipListener {
     
     protected PlatooningPlugin     plugin;
     protected ILogger              log;
     protected PluginServiceLocator psl;
-    protected String               leaderID         = "";
-    protected String               currentPlatoonID = UUID.randomUUID().toString();
-    protected boolean              isFollower       = false;
+    protected volatile String      leaderID         = "";
+    protected volatile String      currentPlatoonID = UUID.randomUUID().toString();
+    protected volatile boolean     isFollower       = false;
     // This field is only used by Follower State
-    protected int                  platoonSize      = 2;   
+    protected volatile int         platoonSize      = 2;   
     
-    // The first two variables are used for APF and LPF leader selection algorithm
+    // The first two variables are used for APF and LPF leader selection algorithm and are guarded by leaderSelectionLock
     // The last one is used internally for removing expired entries 
     private String               previousFunctionalLeaderID    = "";
     private int                  previousFunctionalLeaderIndex = -1;
+    private final Object         leaderSelectionLock           = new Object();
     private long                 memberInfoTimeout             = 250; // ms
-    private List<PlatoonMember>  platoon                       = Collections.synchronizedList(new ArrayList<>());
+    private PlatoonMembership    platoon;
+    // Only used inside the synchronized memberUpdates method
+    private StrategyParamsReader statusReader                  = new StrategyParamsReader(PlatooningPlugin.STATUS_FIELDS_SCHEMA);
 
     public PlatoonManager(PlatooningPlugin plugin, ILogger log, PluginServiceLocator psl) {
         this.plugin            = plugin;
@@ -55,6 +60,7 @@ public class PlatoonManager implements Runnable {
         this.psl               = psl;
         this.memberInfoTimeout = (long) (plugin.statusMessageInterval * plugin.statusTimeoutFactor);
         this.leaderID          = psl.getMobilityRouter().getHostMobilityId();
+        this.platoon           = new PlatoonMembership(memberInfoTimeout, System.currentTimeMillis());
     }
     
     /**
@@ -65,15 +71,22 @@ public class PlatoonManager implements Runnable {
      * @param senderId sender ID for the current info
      * @param platoonId sender platoon id
      * @param senderBsmId sender BSM ID
-     * @param params strategy params from STATUS message in the format of "CMDSPEED:xx,DOWNTRACK:xx,SPEED:xx"
+     * @param params strategy params from STATUS message in the format of "CMDSPEED:xx,DTD:xx,SPEED:xx" or its binary form
      */
-    protected synchronized void memberUpdates(String senderId, String platoonId, String senderBsmId, String params) {
-        String[] inputsParams = params.split(",");
+    protected void memberUpdates(String senderId, String platoonId, String senderBsmId, String params) {
+        synchronized(this) {
+            updateMember(senderId, platoonId, senderBsmId, params);
+        }
+        platoon.dispatchEvents(this);
+    }
+    
+    private void updateMember(String senderId, String platoonId, String senderBsmId, String params) {
+        statusReader.read(params);
         // TODO we should get downtrack distance for other vehicle from either roadway environment or
         // from strategy params in the ECEF frame, but not directly from this string
-        double cmdSpeed   = Double.parseDouble(inputsParams[0].split(":")[1]);
-        double dtDistance = Double.parseDouble(inputsParams[1].split(":")[1]);
-        double curSpeed   = Double.parseDouble(inputsParams[2].split(":")[1]);
+        double cmdSpeed   = statusReader.getDouble(0);
+        double dtDistance = statusReader.getDouble(1);
+        double curSpeed   = statusReader.getDouble(2);
         // If we are currently in a follower state:
         // 1. We will update platoon ID based on leader's STATUS
         // 2. We will update platoon members info based on platoon ID if it is in front of us 
@@ -89,7 +102,7 @@ public class PlatoonManager implements Runnable {
             } else if(this.currentPlatoonID.equals(platoonId) && isVehicleInFrontOf) {
                 log.debug("This STATUS messages is from our platoon in front of us. Updating the info...");
                 updatesOrAddMemberInfo(senderId, senderBsmId, cmdSpeed, dtDistance, curSpeed);
-                this.leaderID = platoon.isEmpty() ? psl.getMobilityRouter().getHostMobilityId() : platoon.get(0).staticId;
+                this.leaderID = platoon.isEmpty() ? psl.getMobilityRouter().getHostMobilityId() : platoon.getFirst().staticId;
                 log.debug("The first vehicle in our list is now " + this.leaderID);
             } else {
                 log.debug("This STATUS message is not from our platoon. We ignore this message with id: " + senderId);
@@ -104,124 +117,123 @@ public class PlatoonManager implements Runnable {
     }
     
     private void updatesOrAddMemberInfo(String senderId, String senderBsmId, double cmdSpeed, double dtDistance, double curSpeed) {
-        boolean isExisted = false;
         // update/add this info into the list
-        for(PlatoonMember pm : platoon) {
-            if(pm.staticId.equals(senderId)) {
-                pm.bsmId = senderBsmId;
-                pm.commandSpeed = cmdSpeed;
-                pm.vehiclePosition = dtDistance;
-                pm.vehicleSpeed = curSpeed;
-                pm.timestamp = System.currentTimeMillis();
-                log.debug("Receive and update platooning info on vehicel " + pm.staticId);
-                log.debug("    BSM ID = "                                  + pm.bsmId);
-                log.debug("    Speed = "                                   + pm.vehicleSpeed);
-                log.debug("    Location = "                                + pm.vehiclePosition);
-                log.debug("    CommandSpeed = "                            + pm.commandSpeed);
-                isExisted = true;
-                break;
-            }
-        }
-        if(!isExisted) {
-            PlatoonMember newMember = new PlatoonMember(senderId, senderBsmId, cmdSpeed, curSpeed, dtDistance, System.currentTimeMillis());
-            platoon.add(newMember);
-            Collections.sort(platoon, (a, b) -> (Double.compare(b.vehiclePosition, a.vehiclePosition)));
-            log.debug("Add a new vehicle into our platoon list " + newMember.staticId);
-        }
+        PlatoonMember pm = platoon.update(senderId, senderBsmId, cmdSpeed, dtDistance, curSpeed, System.currentTimeMillis());
+        log.debug("Receive and update platooning info on vehicel " + pm.staticId);
+        log.debug("    BSM ID = "                                  + pm.bsmId);
+        log.debug("    Speed = "                                   + pm.vehicleSpeed);
+        log.debug("    Location = "                                + pm.vehiclePosition);
+        log.debug("    CommandSpeed = "                            + pm.commandSpeed);
     }
     
-    protected synchronized int getTotalPlatooningSize() {
+    // The following queries read the member list snapshot and do not block on member updates
+    
+    protected int getTotalPlatooningSize() {
         if(isFollower) {
             return platoonSize;
         }
         return platoon.size() + 1;
     }
     
-    protected synchronized int getNumberOfVehicleInFront() {
+    protected int getNumberOfVehicleInFront() {
         if(isFollower) {
             return platoon.size();
         }
         return 0;
     }
     
-    protected synchronized double getPlatoonRearDowntrackDistance() {
-        if(this.platoon.size() == 0) {
+    protected double getPlatoonRearDowntrackDistance() {
+        PlatoonMember rear = platoon.getRear();
+        if(rear == null) {
             return psl.getRouteService().getCurrentDowntrackDistance();
         }
-        return this.platoon.get(this.platoon.size() - 1).vehiclePosition;
+        return rear.vehiclePosition;
     }
     
-    protected synchronized String getPlatoonRearBsmId() {
-        if(this.platoon.size() == 0) {
+    protected String getPlatoonRearBsmId() {
+        PlatoonMember rear = platoon.getRear();
+        if(rear == null) {
             return psl.getTrackingService().getCurrentBSMId();
         }
-        return this.platoon.get(platoon.size() - 1).bsmId;
+        return rear.bsmId;
     }
     
     // This method should only be called in the leader state
-    protected synchronized double getCurrentPlatoonLength() {
-        if(this.platoon.size() == 0) {
+    protected double getCurrentPlatoonLength() {
+        PlatoonMember rear = platoon.getRear();
+        if(rear == null) {
             return plugin.vehicleLength;
         } else {
-            return psl.getRouteService().getCurrentDowntrackDistance() - this.platoon.get(platoon.size() - 1).vehiclePosition + plugin.vehicleLength; 
+            return psl.getRouteService().getCurrentDowntrackDistance() - rear.vehiclePosition + plugin.vehicleLength; 
         }
     }
     
     protected synchronized void changeFromLeaderToFollower(String newPlatoonId) {
         this.isFollower = true;
         this.currentPlatoonID = newPlatoonId;
-        this.platoon = Collections.synchronizedList(new ArrayList<>());
+        this.platoon.clear();
         log.debug("The platoon manager is changed from leader state to follower state.");
     }
     
     protected synchronized void changeFromFollowerToLeader() {
         this.isFollower = false;
-        this.platoon = Collections.synchronizedList(new ArrayList<>());
+        this.platoon.clear();
         this.leaderID = psl.getMobilityRouter().getHostMobilityId();
         this.currentPlatoonID = UUID.randomUUID().toString();
-        this.previousFunctionalLeaderID = "";
-        this.previousFunctionalLeaderIndex = -1;
+        synchronized(leaderSelectionLock) {
+            this.previousFunctionalLeaderID = "";
+            this.previousFunctionalLeaderIndex = -1;
+        }
         log.debug("The platoon manager is changed from follower state to leader state.");
     }
     
-    protected synchronized int getIndexOf(PlatoonMember member) {
+    protected int getIndexOf(PlatoonMember member) {
         return this.platoon.indexOf(member);
     }
     
     // This method removes any expired/invalid entries from platoon list
-    protected synchronized void removeExpiredMember() {
-        List<PlatoonMember> removeCandidates = new ArrayList<>();
-        for(PlatoonMember pm : platoon) {
-            boolean isTimeout = System.currentTimeMillis() - pm.timestamp > this.memberInfoTimeout;
-            if(isTimeout) {
-                removeCandidates.add(pm);
-                log.debug("Found invalid vehicel entry " + pm.staticId + " in platoon list which will be removed");
+    protected void removeExpiredMember() {
+        synchronized(this) {
+            int removed = platoon.expire(System.currentTimeMillis());
+            if(removed != 0) {
+                log.debug("Removed " + removed + " expired vehicle entries from platoon list");
             }
-        }
-        if(removeCandidates.size() != 0) {
-            for(PlatoonMember candidate: removeCandidates) {
-                platoon.remove(candidate);
+            if(isFollower) {
+                String firstVehicleId;
+                if(platoon.isEmpty()) {
+                    firstVehicleId = psl.getMobilityRouter().getHostMobilityId();
+                    this.platoonSize = 1;
+                } else {
+                    firstVehicleId = platoon.getFirst().staticId; 
+                }
+                if(!firstVehicleId.equals(this.leaderID)) {
+                    this.leaderID = firstVehicleId;
+                    log.debug("The first vehicle in our list is now " + this.leaderID);
+                }
             }
         }
-        if(isFollower) {
-            if(platoon.isEmpty()) {
-                this.leaderID = psl.getMobilityRouter().getHostMobilityId();
-                this.platoonSize = 1;
-            } else {
-                this.leaderID = platoon.get(0).staticId; 
-            }
-            log.debug("The first vehicle in our list is now " + this.leaderID);
+        platoon.dispatchEvents(this);
+    }
+    
+    @Override
+    public void onPlatoonMembershipChanged(ChangeType type, PlatoonMember member) {
+        log.debug("Platoon member " + member.staticId + " " + type);
+        IPlatooningState state = plugin.state;
+        if(state != null) {
+            state.onPlatoonMembershipChanged(type, member);
         }
     }
     
     @Override
     public void run() {
+        // The timer wheel of the member list only visits the entries which are due, so it is advanced every tick
+        long tickLength = platoon.getTickLength();
         try {
             while(!Thread.currentThread().isInterrupted()) {
                 long loopStart = System.currentTimeMillis();
                 removeExpiredMember();
                 long loopEnd = System.currentTimeMillis();
-                long sleepDuration = Math.max(this.memberInfoTimeout - (loopEnd - loopStart), 0);
+                long sleepDuration = Math.max(tickLength - (loopEnd - loopStart), 0);
                 Thread.sleep(sleepDuration);
             }
         } catch (InterruptedException e) {
@@ -232,42 +244,51 @@ public class PlatoonManager implements Runnable {
     /**
      * This method contains will use the indicated algorithm to determine
      * which vehicle in the platoon will function as the leader.
+     * The member list is read from its latest snapshot without locking. Only the state of the
+     * leader selection algorithms is locked, so the caller never waits for member updates.
      */
-    protected synchronized PlatoonMember getLeader() {
-        PlatoonMember leader = null;
-        if(isFollower && platoon.size() != 0) {
-            // return the first vehicle in the platoon as default if no valid algorithm applied
-            leader = platoon.get(0);
-            if(plugin.algorithmType == PlatooningPlugin.APF_ALGORITHM) {
-                // TODO The following method needs to move into a single strategy class
-                try {
-                    int newLeaderIndex = allPredecessorFollowing();
-                    if(newLeaderIndex < platoon.size() && newLeaderIndex >= 0) {
-                        leader = platoon.get(newLeaderIndex);
-                        log.info("APF output: " + leader.staticId);
-                        previousFunctionalLeaderIndex = newLeaderIndex;
-                        previousFunctionalLeaderID = leader.staticId;
-                    } else {
-                        // it might happened when the subject vehicle gets far away from the preceding vehicle so we follow the one in front
-                        leader = platoon.get(platoon.size() - 1);
-                        previousFunctionalLeaderIndex = platoon.size() - 1;
-                        previousFunctionalLeaderID = leader.staticId;
-                        log.info("Based on the output of APF algorithm we start to follow our predecessor.");
-                    }
-                } catch(Exception e) {
-                    log.error("Platooning is unstable. Follow the current predecessor");
-                    leader = platoon.get(platoon.size() - 1);
+    protected PlatoonMember getLeader() {
+        // All decisions of one call are based on the same snapshot of the member list
+        PlatoonMember[] members = platoon.getMembers();
+        if(!isFollower || members.length == 0) {
+            return null;
+        }
+        synchronized(leaderSelectionLock) {
+            return selectLeader(members);
+        }
+    }
+    
+    private PlatoonMember selectLeader(PlatoonMember[] members) {
+        // return the first vehicle in the platoon as default if no valid algorithm applied
+        PlatoonMember leader = members[0];
+        if(plugin.algorithmType == PlatooningPlugin.APF_ALGORITHM) {
+            // TODO The following method needs to move into a single strategy class
+            try {
+                int newLeaderIndex = allPredecessorFollowing(members);
+                if(newLeaderIndex < members.length && newLeaderIndex >= 0) {
+                    leader = members[newLeaderIndex];
+                    log.info("APF output: " + leader.staticId);
+                    previousFunctionalLeaderIndex = newLeaderIndex;
+                    previousFunctionalLeaderID = leader.staticId;
+                } else {
+                    // it might happened when the subject vehicle gets far away from the preceding vehicle so we follow the one in front
+                    leader = members[members.length - 1];
+                    previousFunctionalLeaderIndex = members.length - 1;
+                    previousFunctionalLeaderID = leader.staticId;
+                    log.info("Based on the output of APF algorithm we start to follow our predecessor.");
                 }
-            } else if(plugin.algorithmType == PlatooningPlugin.PF_ALGORITHM) {
-                // Number 2 indicates PF algorithm and it will always return the vehicle in its immediate front
-                leader = platoon.get(platoon.size() - 1);
-                log.info("PF algorithm require us to follow our current predecessor");
-            } else if(plugin.algorithmType == PlatooningPlugin.LPF_ALGORITHM) {
-                leader = leaderPredecessorFollowing();
+            } catch(Exception e) {
+                log.error("Platooning is unstable. Follow the current predecessor");
+                leader = members[members.length - 1];
             }
-            return leader;
+        } else if(plugin.algorithmType == PlatooningPlugin.PF_ALGORITHM) {
+            // Number 2 indicates PF algorithm and it will always return the vehicle in its immediate front
+            leader = members[members.length - 1];
+            log.info("PF algorithm require us to follow our current predecessor");
+        } else if(plugin.algorithmType == PlatooningPlugin.LPF_ALGORITHM) {
+            leader = leaderPredecessorFollowing(members);
         }
-        return null;
+        return leader;
     }
     
     /**
@@ -279,32 +300,32 @@ public class PlatoonManager implements Runnable {
      * and forth between two leaders.
      * @return the functional leader from platoon list
      */
-    private PlatoonMember leaderPredecessorFollowing() {
+    private PlatoonMember leaderPredecessorFollowing(PlatoonMember[] members) {
         double currentGap = plugin.getManeuverInputs().getDistanceToFrontVehicle();
         if(!Double.isFinite(currentGap)) {
             previousFunctionalLeaderIndex = 0;
-            return platoon.get(0);
+            return members[0];
         }
         double currentTimeGap =  currentGap / plugin.getManeuverInputs().getCurrentSpeed(); 
         // if we are not following the front vehicle in the last time step
         if(previousFunctionalLeaderIndex == -1 || previousFunctionalLeaderIndex == 0) {
             // if the current time gap is smaller then the lower gap boundary, we follow the immediate front vehicle
             if(currentTimeGap < plugin.lowerBoundary) {
-                previousFunctionalLeaderIndex = platoon.size() - 1;
-                return platoon.get(platoon.size() - 1);
+                previousFunctionalLeaderIndex = members.length - 1;
+                return members[members.length - 1];
             } else {
                 previousFunctionalLeaderIndex = 0;
-                return platoon.get(0);
+                return members[0];
             }
         } else {
             // if the current time gap becomes higher then upper gap boundary, we start follow the first vehicle
             if(currentTimeGap > plugin.upperBoundary) {
                 previousFunctionalLeaderIndex = 0;
-                return platoon.get(0);
+                return members[0];
             } else {
                 // if the current time gap is still not large enough, we continue follow the immediate front vehicle
-                previousFunctionalLeaderIndex = platoon.size() - 1;
-                return platoon.get(platoon.size() - 1);
+                previousFunctionalLeaderIndex = members.length - 1;
+                return members[members.length - 1];
             }
         }
     }
@@ -322,11 +343,11 @@ public class PlatoonManager implements Runnable {
      * to the subject vehicle, potentially even the predecessor, will function as the leader.
      * @return the index of the leader in the platoon list
      */
-    private int allPredecessorFollowing() {
+    private int allPredecessorFollowing(PlatoonMember[] members) {
         IManeuverInputs inputs = this.plugin.getManeuverInputs();
         ///***** Case Zero *****///
         // If we are the second vehicle in this platoon, we will always follow the leader vehicle
-        if(platoon.size() == 1) {
+        if(members.length == 1) {
             log.debug("As the second vehicle in the platoon, it will always follow the leader. Case Zero");
             return 0;
         }
@@ -337,18 +358,18 @@ public class PlatoonManager implements Runnable {
             return 0;
         }
         // Generate an array of downtrack distance for every vehicles in this platoon including the host vehicle
-        // The size of distance array is platoon.size() + 1, because the platoon list did not contain the host vehicle
-        double[] downtrackDistance = new double[platoon.size() + 1];
-        for(int i = 0; i < platoon.size(); i++) {
-            downtrackDistance[i] = platoon.get(i).vehiclePosition; 
+        // The size of distance array is members.length + 1, because the platoon list did not contain the host vehicle
+        double[] downtrackDistance = new double[members.length + 1];
+        for(int i = 0; i < members.length; i++) {
+            downtrackDistance[i] = members[i].vehiclePosition; 
         }
         downtrackDistance[downtrackDistance.length - 1] = inputs.getDistanceFromRouteStart();
         
         // Generate an array of speed for every vehicles in this platoon including the host vehicle
-        // The size of speed array is platoon.size() + 1, because the platoon list did not contain the host vehicle
-        double[] speed = new double[platoon.size() + 1];
-        for(int i = 0; i < platoon.size(); i++) {
-            speed[i] = platoon.get(i).vehicleSpeed;
+        // The size of speed array is members.length + 1, because the platoon list did not contain the host vehicle
+        double[] speed = new double[members.length + 1];
+        for(int i = 0; i < members.length; i++) {
+            speed[i] = members[i].vehicleSpeed;
         }
         speed[speed.length - 1] = inputs.getCurrentSpeed();
         ///***** Case Two *****///
@@ -356,9 +377,9 @@ public class PlatoonManager implements Runnable {
         // according to the "min_gap" and "max_gap" thresholds, then it should follow its predecessor
         // The following line will not throw exception because the length of downtrack array is larger than two in this case
         double timeHeadwayWithPredecessor = downtrackDistance[downtrackDistance.length - 2] - downtrackDistance[downtrackDistance.length - 1];
-        if(insufficientGapWithPredecessor(timeHeadwayWithPredecessor)) {
+        if(insufficientGapWithPredecessor(members, timeHeadwayWithPredecessor)) {
             log.debug("APF algorithm decides there is an issue with the gap with preceding vehicle: " + timeHeadwayWithPredecessor + ". Case Two");
-            return platoon.size() - 1;
+            return members.length - 1;
         } else {
             // implementation of the main part of APF algorithm
             // calculate the time headway between every consecutive pair of vehicles
@@ -437,9 +458,9 @@ public class PlatoonManager implements Runnable {
     }
     
     // Check if we have enough gap with the front vehicle
-    private boolean insufficientGapWithPredecessor(double distanceToFrontVehicle) {
+    private boolean insufficientGapWithPredecessor(PlatoonMember[] members, double distanceToFrontVehicle) {
         boolean frontGapIsTooSmall = distanceToFrontVehicle < plugin.minGap;
-        boolean previousLeaderIsPredecessor = previousFunctionalLeaderID.equals(platoon.get(platoon.size() - 1).staticId);
+        boolean previousLeaderIsPredecessor = previousFunctionalLeaderID.equals(members[members.length - 1].staticId);
         boolean frontGapIsNotLargeEnough = distanceToFrontVehicle < plugin.maxGap && previousLeaderIsPredecessor;
         return frontGapIsTooSmall || frontGapIsNotLargeEnough;
     }
@@ -19,21 +19,24 @@ package gov.dot.fhwa.saxton.carma.plugins.platooning;
 /**
  * This class describes the latest knowledge for a platoon member.
  * This class will not be used to store the host vehicle status.
+ * The member information is updated in place by PlatoonMembership and read without locking,
+ * so each field is volatile. Each field read returns its latest value, but reading several fields
+ * is not atomic.
  */
 public class PlatoonMember {
     
     // Static ID is permanent ID for each vehicle
-    protected String staticId;
+    protected final String    staticId;
     // Current BSM Id for each CAV
-    protected String bsmId;
+    protected volatile String bsmId;
     // Vehicle real time command speed in m/s
-    protected double commandSpeed;
+    protected volatile double commandSpeed;
     // Actual vehicle speed in m/s
-    protected double vehicleSpeed;
+    protected volatile double vehicleSpeed;
     // Vehicle current down track distance on the current route in m
-    protected double vehiclePosition;
+    protected volatile double vehiclePosition;
     // The local time stamp when the host vehicle update any informations of this member
-    protected long   timestamp;
+    protected volatile long   timestamp;
 
     public PlatoonMember(String staticId, String bsmId, double commandSpeed, double vehicleSpeed, double vehiclePosition, long timestamp) {
         this.staticId        = staticId;
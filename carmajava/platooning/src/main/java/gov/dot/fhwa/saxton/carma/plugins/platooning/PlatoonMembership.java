@@ -0,0 +1,302 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.plugins.platooning;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The table of known platoon members ordered by down track distance from the platoon front to its rear.
+ * Members are kept in a tree so an update or insert costs O(log n) and the list is never re-sorted.
+ * Readers get an immutable snapshot of the order without locking, which gives O(1) access to the first member,
+ * the rear member, the predecessor of a member and the index of a member. The snapshot is only rebuilt when
+ * a member joins, leaves or passes another member.
+ * Members expire through a hashed timer wheel advanced by expire(), which only visits the members due in
+ * the elapsed ticks instead of every member.
+ * Changes are queued while the table is locked and delivered to a listener by dispatchEvents().
+ */
+public class PlatoonMembership {
+
+    /**
+     * The kind of change to the table
+     */
+    public enum ChangeType {
+        JOINED, LEFT, REORDERED
+    }
+
+    private static final class Entry {
+        final PlatoonMember member;
+        long deadline;
+        int  slot = -1;
+
+        Entry(PlatoonMember member) {
+            this.member = member;
+        }
+    }
+
+    private static final class Event {
+        final ChangeType    type;
+        final PlatoonMember member;
+
+        Event(ChangeType type, PlatoonMember member) {
+            this.type   = type;
+            this.member = member;
+        }
+    }
+
+    private static final class Snapshot {
+        final PlatoonMember[]             members;
+        final Map<PlatoonMember, Integer> indexes;
+
+        Snapshot(PlatoonMember[] members) {
+            this.members = members;
+            this.indexes = new IdentityHashMap<>(members.length * 2);
+            for(int i = 0; i < members.length; i++) {
+                indexes.put(members[i], i);
+            }
+        }
+    }
+
+    // The vehicle with the largest down track distance is the first one
+    private static final Comparator<Entry> FRONT_TO_REAR = (a, b) -> {
+        int result = Double.compare(b.member.vehiclePosition, a.member.vehiclePosition);
+        return result != 0 ? result : a.member.staticId.compareTo(b.member.staticId);
+    };
+
+    private final Map<String, Entry>  entries = new HashMap<>();
+    private final TreeSet<Entry>      ordered = new TreeSet<>(FRONT_TO_REAR);
+    private final List<Set<Entry>>    wheel   = new ArrayList<>();
+    private final long                timeout;
+    private final long                tickLength;
+    private long                      lastTick;
+    private final Queue<Event>        pendingEvents = new ArrayDeque<>();
+    private final Object              dispatchLock  = new Object();
+    private volatile Snapshot         snapshot      = new Snapshot(new PlatoonMember[0]);
+
+    /**
+     * @param timeout a member expires when it has not been updated for longer than this time in ms
+     * @param now the current time in ms
+     */
+    public PlatoonMembership(long timeout, long now) {
+        this.timeout    = Math.max(timeout, 0);
+        this.tickLength = Math.max(this.timeout / 4, 1);
+        // The wheel spans more than one timeout so a slot never holds members of two different rounds
+        int slotCount = (int) ((this.timeout + 1) / tickLength) + 2;
+        for(int i = 0; i < slotCount; i++) {
+            wheel.add(new HashSet<>());
+        }
+        this.lastTick = now / tickLength;
+    }
+
+    /**
+     * @return the interval in ms at which expire() should be called
+     */
+    public long getTickLength() {
+        return tickLength;
+    }
+
+    /**
+     * Adds a member or updates the information of an existing member
+     * @return the member with the given static id
+     */
+    public synchronized PlatoonMember update(String staticId, String bsmId, double commandSpeed, double vehiclePosition, double vehicleSpeed, long now) {
+        Entry entry = entries.get(staticId);
+        if(entry == null) {
+            entry = new Entry(new PlatoonMember(staticId, bsmId, commandSpeed, vehicleSpeed, vehiclePosition, now));
+            entries.put(staticId, entry);
+            ordered.add(entry);
+            schedule(entry, now);
+            publishSnapshot();
+            pendingEvents.add(new Event(ChangeType.JOINED, entry.member));
+            return entry.member;
+        }
+        PlatoonMember member = entry.member;
+        boolean positionChanged = Double.compare(member.vehiclePosition, vehiclePosition) != 0;
+        if(positionChanged) {
+            // The entry must leave the tree before its sort key changes
+            ordered.remove(entry);
+        }
+        member.bsmId           = bsmId;
+        member.commandSpeed    = commandSpeed;
+        member.vehicleSpeed    = vehicleSpeed;
+        member.vehiclePosition = vehiclePosition;
+        member.timestamp       = now;
+        schedule(entry, now);
+        if(positionChanged) {
+            ordered.add(entry);
+            if(!hasSameNeighbors(entry)) {
+                publishSnapshot();
+                pendingEvents.add(new Event(ChangeType.REORDERED, member));
+            }
+        }
+        return member;
+    }
+
+    /**
+     * Advances the timer wheel and removes the members which have not been updated within the timeout
+     * @param now the current time in ms
+     * @return the number of removed members
+     */
+    public synchronized int expire(long now) {
+        long currentTick = now / tickLength;
+        // After a long pause every slot is visited once
+        long firstTick = Math.max(lastTick, currentTick - wheel.size() + 1);
+        int removed = 0;
+        for(long tick = firstTick; tick <= currentTick; tick++) {
+            Iterator<Entry> it = wheel.get((int) (tick % wheel.size())).iterator();
+            while(it.hasNext()) {
+                Entry entry = it.next();
+                if(entry.deadline <= now) {
+                    it.remove();
+                    entry.slot = -1;
+                    entries.remove(entry.member.staticId);
+                    ordered.remove(entry);
+                    pendingEvents.add(new Event(ChangeType.LEFT, entry.member));
+                    removed++;
+                }
+            }
+        }
+        lastTick = currentTick;
+        if(removed != 0) {
+            publishSnapshot();
+        }
+        return removed;
+    }
+
+    /**
+     * Removes all members without change events, which is used when the host vehicle changes its role
+     */
+    public synchronized void clear() {
+        entries.clear();
+        ordered.clear();
+        for(Set<Entry> slot : wheel) {
+            slot.clear();
+        }
+        pendingEvents.clear();
+        snapshot = new Snapshot(new PlatoonMember[0]);
+    }
+
+    /**
+     * Delivers the queued changes in order. It must not be called while holding a lock the listener may need.
+     */
+    public void dispatchEvents(IPlatoonMembershipListener listener) {
+        synchronized(dispatchLock) {
+            while(true) {
+                Event event;
+                synchronized(this) {
+                    event = pendingEvents.poll();
+                }
+                if(event == null) {
+                    return;
+                }
+                if(listener != null) {
+                    listener.onPlatoonMembershipChanged(event.type, event.member);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the members from front to rear. The array is shared and must not be modified.
+     */
+    public PlatoonMember[] getMembers() {
+        return snapshot.members;
+    }
+
+    public int size() {
+        return snapshot.members.length;
+    }
+
+    public boolean isEmpty() {
+        return snapshot.members.length == 0;
+    }
+
+    /**
+     * @return the member with the largest down track distance or null if there is no member
+     */
+    public PlatoonMember getFirst() {
+        PlatoonMember[] members = snapshot.members;
+        return members.length == 0 ? null : members[0];
+    }
+
+    /**
+     * @return the member with the smallest down track distance or null if there is no member
+     */
+    public PlatoonMember getRear() {
+        PlatoonMember[] members = snapshot.members;
+        return members.length == 0 ? null : members[members.length - 1];
+    }
+
+    /**
+     * @return the member right in front of the given member or null if there is none
+     */
+    public PlatoonMember getPredecessorOf(PlatoonMember member) {
+        Snapshot current = snapshot;
+        Integer index = current.indexes.get(member);
+        return index == null || index == 0 ? null : current.members[index - 1];
+    }
+
+    /**
+     * @return the index of the member from the front or -1 if it is not in the table
+     */
+    public int indexOf(PlatoonMember member) {
+        Integer index = snapshot.indexes.get(member);
+        return index == null ? -1 : index;
+    }
+
+    private void schedule(Entry entry, long now) {
+        // Expired when more than timeout ms passed since the last update
+        entry.deadline = now + timeout + 1;
+        int slot = (int) ((entry.deadline / tickLength) % wheel.size());
+        if(slot != entry.slot) {
+            if(entry.slot != -1) {
+                wheel.get(entry.slot).remove(entry);
+            }
+            wheel.get(slot).add(entry);
+            entry.slot = slot;
+        }
+    }
+
+    private boolean hasSameNeighbors(Entry entry) {
+        Snapshot current = snapshot;
+        int index = current.indexes.get(entry.member);
+        Entry front = ordered.lower(entry);
+        Entry behind = ordered.higher(entry);
+        PlatoonMember expectedFront = index == 0 ? null : current.members[index - 1];
+        PlatoonMember expectedBehind = index == current.members.length - 1 ? null : current.members[index + 1];
+        return (front == null ? null : front.member) == expectedFront && (behind == null ? null : behind.member) == expectedBehind;
+    }
+
+    private void publishSnapshot() {
+        PlatoonMember[] members = new PlatoonMember[ordered.size()];
+        int i = 0;
+        for(Entry entry : ordered) {
+            members[i++] = entry.member;
+        }
+        snapshot = new Snapshot(members);
+    }
+}
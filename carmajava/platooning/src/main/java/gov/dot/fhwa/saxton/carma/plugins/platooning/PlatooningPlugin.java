@@ -50,6 +50,7 @@ import gov.dot.fhwa.saxton.carma.guidance.pubsub.ISubscriber;
 import gov.dot.fhwa.saxton.carma.guidance.pubsub.OnServiceResponseCallback;
 import gov.dot.fhwa.saxton.carma.guidance.pubsub.TopicNotFoundException;
 import gov.dot.fhwa.saxton.carma.guidance.trajectory.Trajectory;
+import gov.dot.fhwa.saxton.carma.rosutils.StrategyParamsSchema;
 
 public class PlatooningPlugin extends AbstractPlugin
         implements IStrategicPlugin, MobilityOperationHandler, MobilityRequestHandler, MobilityResponseHandler {
@@ -62,6 +63,16 @@ public class PlatooningPlugin extends AbstractPlugin
     protected static final String OPERATION_STATUS_PARAMS = "STATUS|CMDSPEED:%.2f,DTD:%.2f,SPEED:%.2f";
     protected static final String OPERATION_INFO_TYPE     = "INFO";
     protected static final String OPERATION_STATUS_TYPE   = "STATUS";
+    // Typed layouts of the params above which are written and read without String.format or split
+    protected static final StrategyParamsSchema JOIN_AT_REAR_SCHEMA     = new StrategyParamsSchema(null)
+            .addInt("SIZE").addDouble("SPEED").addDouble("DTD");
+    protected static final StrategyParamsSchema OPERATION_INFO_SCHEMA   = new StrategyParamsSchema(OPERATION_INFO_TYPE)
+            .addString("REAR").addDouble("LENGTH").addDouble("SPEED").addInt("SIZE").addDouble("DTD");
+    protected static final StrategyParamsSchema OPERATION_STATUS_SCHEMA = new StrategyParamsSchema(OPERATION_STATUS_TYPE)
+            .addDouble("CMDSPEED").addDouble("DTD").addDouble("SPEED");
+    // STATUS params after the type prefix as they are passed to PlatoonManager.memberUpdates
+    protected static final StrategyParamsSchema STATUS_FIELDS_SCHEMA    = new StrategyParamsSchema(null)
+            .addDouble("CMDSPEED").addDouble("DTD").addDouble("SPEED");
     protected static final int    NEGOTIATION_TIMEOUT     = 5000;  // ms
     protected static final int    OPERATION_QUEUE_SIZE    = 8;
     protected static final int    LF_ALGORITHM            = 0;
@@ -120,6 +131,9 @@ public class PlatooningPlugin extends AbstractPlugin
     protected boolean speedLimitCapEnabled  = true;
     protected boolean maxAccelCapEnabled    = true;
     protected boolean leaderSpeedCapEnabled = true;
+
+    // strategy params encoding, the binary form must only be enabled when every vehicle can read it
+    protected boolean binaryStrategyParams  = false;
     
     // platooning plug-in components
     protected IPlatooningState state                  = null;
@@ -193,6 +207,7 @@ public class PlatooningPlugin extends AbstractPlugin
         infoMessageInterval     = pluginServiceLocator.getParameterSource().getInteger("~platooning_info_time_interval", 200);
         desiredTimeGap          = pluginServiceLocator.getParameterSource().getDouble("~platooning_desired_time_gap", 1.0);
         platooningMinGap        = pluginServiceLocator.getParameterSource().getDouble("~platooning_stand_still_gap", 10.0);
+        binaryStrategyParams    = pluginServiceLocator.getParameterSource().getBoolean("~platooning_binary_strategy_params", false);
 
         //log all loaded parameters
         log.info("Load param maxAccel = " + maxAccel);
@@ -224,6 +239,7 @@ public class PlatooningPlugin extends AbstractPlugin
         log.info("Load param infoMessageInterval = " + infoMessageInterval);
         log.info("Load param desiredTimeGap = " + desiredTimeGap);
         log.info("Load param platooningMinGap = " + platooningMinGap);
+        log.info("Load param binaryStrategyParams = " + binaryStrategyParams);
         
         
         
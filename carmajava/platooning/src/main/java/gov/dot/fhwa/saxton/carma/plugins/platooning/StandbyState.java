@@ -26,6 +26,7 @@ import gov.dot.fhwa.saxton.carma.guidance.plugins.PluginServiceLocator;
 import gov.dot.fhwa.saxton.carma.guidance.trajectory.Trajectory;
 import gov.dot.fhwa.saxton.carma.guidance.util.ILogger;
 import gov.dot.fhwa.saxton.carma.guidance.util.RouteService;
+import gov.dot.fhwa.saxton.carma.plugins.platooning.PlatoonMembership.ChangeType;
 
 /**
  * The StandbyState is a state when the platooning algorithm is current disabled on the route.
@@ -93,6 +94,11 @@ public class StandbyState implements IPlatooningState {
         }
     }
     
+    @Override
+    public void onPlatoonMembershipChanged(ChangeType type, PlatoonMember member) {
+        // In standby state, it is not part of any platoon
+    }
+    
     @Override
     public String toString() {
         return "StandbyState";
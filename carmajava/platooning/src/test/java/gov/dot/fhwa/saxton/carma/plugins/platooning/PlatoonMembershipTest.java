@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.plugins.platooning;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import gov.dot.fhwa.saxton.carma.plugins.platooning.PlatoonMembership.ChangeType;
+
+public class PlatoonMembershipTest {
+
+    private PlatoonMembership membership;
+    private List<String>      events;
+    private IPlatoonMembershipListener listener;
+
+    @Before
+    public void setup() {
+        membership = new PlatoonMembership(1000, 0);
+        events     = new ArrayList<>();
+        listener   = (type, member) -> events.add(type + " " + member.staticId);
+    }
+
+    @Test
+    public void membersAreOrderedFromFrontToRear() {
+        assertNull(membership.getFirst());
+        assertNull(membership.getRear());
+        PlatoonMember a = membership.update("A", "00000000", 5.0, 50.0, 5.0, 0);
+        PlatoonMember b = membership.update("B", "00000001", 5.0, 70.0, 5.0, 0);
+        PlatoonMember c = membership.update("C", "00000002", 5.0, 60.0, 5.0, 0);
+        assertEquals(3, membership.size());
+        assertEquals("B", membership.getFirst().staticId);
+        assertEquals("A", membership.getRear().staticId);
+        assertEquals(1, membership.indexOf(c));
+        assertEquals(b, membership.getPredecessorOf(c));
+        assertEquals(c, membership.getPredecessorOf(a));
+        assertNull(membership.getPredecessorOf(b));
+        // A passes C and B
+        membership.update("A", "00000000", 5.0, 80.0, 5.0, 100);
+        PlatoonMember[] members = membership.getMembers();
+        assertEquals("A", members[0].staticId);
+        assertEquals("B", members[1].staticId);
+        assertEquals("C", members[2].staticId);
+        assertEquals(0, membership.indexOf(a));
+    }
+
+    @Test
+    public void eventsAreDispatchedInOrder() {
+        membership.update("A", "00000000", 5.0, 50.0, 5.0, 0);
+        membership.update("B", "00000001", 5.0, 70.0, 5.0, 0);
+        // Moving without passing anyone does not change the order
+        membership.update("A", "00000000", 5.0, 55.0, 5.0, 10);
+        membership.update("A", "00000000", 5.0, 75.0, 5.0, 20);
+        membership.dispatchEvents(listener);
+        assertEquals(3, events.size());
+        assertEquals("JOINED A", events.get(0));
+        assertEquals("JOINED B", events.get(1));
+        assertEquals("REORDERED A", events.get(2));
+        // Events are only delivered once
+        membership.dispatchEvents(listener);
+        assertEquals(3, events.size());
+    }
+
+    @Test
+    public void membersExpireAfterTimeout() {
+        membership.update("A", "00000000", 5.0, 50.0, 5.0, 0);
+        membership.update("B", "00000001", 5.0, 70.0, 5.0, 0);
+        membership.update("A", "00000000", 5.0, 51.0, 5.0, 600);
+        assertEquals(0, membership.expire(1000));
+        assertEquals(1, membership.expire(1001));
+        assertEquals("A", membership.getFirst().staticId);
+        assertEquals(-1, membership.indexOf(new PlatoonMember("B", "", 0, 0, 0, 0)));
+        // A long pause removes all members which are due
+        assertEquals(1, membership.expire(100000));
+        assertTrue(membership.isEmpty());
+        membership.dispatchEvents(listener);
+        assertEquals("LEFT B", events.get(2));
+        assertEquals("LEFT A", events.get(3));
+    }
+
+    @Test
+    public void clearRemovesMembersWithoutEvents() {
+        membership.update("A", "00000000", 5.0, 50.0, 5.0, 0);
+        membership.clear();
+        assertTrue(membership.isEmpty());
+        assertEquals(0, membership.expire(5000));
+        membership.dispatchEvents(listener);
+        assertTrue(events.isEmpty());
+    }
+}
@@ -21,8 +21,6 @@ import cav_msgs.RouteState;
 import cav_msgs.SystemAlert;
 import geometry_msgs.TransformStamped;
 import gov.dot.fhwa.saxton.carma.geometry.GeodesicCartesianConverter;
-import gov.dot.fhwa.saxton.carma.geometry.cartesian.CartesianObject;
-import gov.dot.fhwa.saxton.carma.geometry.cartesian.Point3D;
 import gov.dot.fhwa.saxton.carma.geometry.cartesian.QuaternionUtils;
 import gov.dot.fhwa.saxton.carma.geometry.cartesian.Vector;
 import gov.dot.fhwa.saxton.carma.geometry.cartesian.Vector3D;
@@ -45,8 +43,8 @@ import org.ros.rosjava_geometry.Vector3;
 import std_msgs.Header;
 import tf2_msgs.TFMessage;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -134,13 +132,22 @@ public class EnvironmentWorker {
       return;
     }
     List<cav_msgs.ExternalObject> objects = externalObjects.getObjects();
-    List<RoadwayObstacle> roadwayObstacles = new LinkedList<>();
+    List<RoadwayObstacle> roadwayObstacles = new ArrayList<>(objects.size());
     Transform earthToOdom = roadwayMgr.getTransform(earthFrame, odomFrame, externalObjects.getHeader().getStamp());
     if (earthToOdom == null) {
       log.warn("Roadway could not process object message as earth to odom transform was null");
+      return;
+    }
+    // The route segments around the host vehicle are the same for every object in the message
+    int currentSegIndex = currentSegment.getUptrackWaypoint().getWaypointId();
+    ObjectRouteProjector projector = new ObjectRouteProjector(activeRoute, currentSegIndex,
+      routeState.getSegmentDownTrack(), routeState.getDownTrack(), distBackward, distForward, earthToOdom);
+    if (projector.isEmpty()) {
+      log.warn("Roadway could not process object message as the host vehicle segment is not on the route");
+      return;
     }
     for (cav_msgs.ExternalObject obj: objects) {
-      roadwayObstacles.add(buildObstacleFromMsg(obj, earthToOdom));
+      roadwayObstacles.add(buildObstacleFromMsg(obj, projector));
     }
     cav_msgs.RoadwayEnvironment roadwayMsg = messageFactory.newFromType(cav_msgs.RoadwayEnvironment._TYPE);
     roadwayMsg.setRoadwayObstacles(roadwayObstacles);
@@ -151,11 +158,11 @@ public class EnvironmentWorker {
    * Helper function constructs a RoadwayObstacle from an ExternalObject 
    * 
    * @param obj The external object to convert (Should be defined relative to odom frame)
-   * @param earthToOdom The corresponding transform from the earth to the odom frame
+   * @param projector The projector onto the route built for the message containing this object
    * 
    * @return A fully constructed RoadwayObstacle object
    */
-  protected RoadwayObstacle buildObstacleFromMsg(cav_msgs.ExternalObject obj, Transform earthToOdom) {
+  protected RoadwayObstacle buildObstacleFromMsg(cav_msgs.ExternalObject obj, ObjectRouteProjector projector) {
     //Get Id
     int id = obj.getId();  
     // Get connected vehicle type
@@ -163,28 +170,15 @@ public class EnvironmentWorker {
     if ((short) (obj.getPresenceVector() & cav_msgs.ExternalObject.BSM_ID_PRESENCE_VECTOR) != 0) {
       connectedVehicleType = ConnectedVehicleType.CONNECTED;
     }
-    // Convert object to ECEF frame  
+    // Convert object to the frame of the route segment it is on
     Transform objInOdom = Transform.fromPoseMessage(obj.getPose().getPose());
-    Transform objInECEF = earthToOdom.multiply(objInOdom);
-    Vector3 objVecECEF = objInECEF.getTranslation();
-    Point3D objPositionECEF = new Point3D(objVecECEF.getX(), objVecECEF.getY(), objVecECEF.getZ());
-
-    // Find the route segment which this route segment is on
-    int currentSegIndex = currentSegment.getUptrackWaypoint().getWaypointId();
-    List<RouteSegment> segmentsToSearch = activeRoute.findRouteSubsection(currentSegIndex, routeState.getSegmentDownTrack(), distBackward, distForward);
-    RouteSegment bestSegment = activeRoute.routeSegmentOfPoint(objPositionECEF, segmentsToSearch);
-    int segmentIndex = bestSegment.getUptrackWaypoint().getWaypointId();
-   
-    // Convert object to segment frame
-    Transform objInSegment = bestSegment.getECEFToSegmentTransform().invert().multiply(objInECEF); // Find the transform from the segment to this object
-    Vector3 objVec = objInSegment.getTranslation();
-    Point3D objPosition = new Point3D(objVec.getX(), objVec.getY(), objVec.getZ());
-    double downtrackDistance = objDowntrack(segmentIndex, currentSegIndex, objPosition.getX(), routeState.getSegmentDownTrack(), routeState.getDownTrack());
-    double crosstrackDistance = objPosition.getY(); //bestSegment.crossTrackDistance(objPosition);
-    
-    // Convert velocities
-    Transform odomInSegment = bestSegment.getECEFToSegmentTransform().invert().multiply(earthToOdom);
-    Vector3 velocityLinear = odomInSegment.getRotationAndScale().rotateAndScaleVector(Vector3.fromVector3Message(obj.getVelocity().getTwist().getLinear()));
+    ObjectRouteProjector.Projection projection = projector.project(objInOdom,
+      Vector3.fromVector3Message(obj.getSize()), Vector3.fromVector3Message(obj.getVelocity().getTwist().getLinear()));
+    RouteSegment bestSegment = projection.segment;
+    Vector3 objPosition = projection.position;
+    double downtrackDistance = projection.downtrack;
+    double crosstrackDistance = objPosition.getY();
+    Vector3 velocityLinear = projection.velocity;
     
     // Calculate obj lanes
     int primaryLane = bestSegment.determinePrimaryLane(crosstrackDistance);
@@ -204,36 +198,15 @@ public class EnvironmentWorker {
       }
       primaryLane = expectedLane;
     }
-    // Determine secondary lanes
-    List<Point3D> objPoints = new LinkedList<>();
-    geometry_msgs.Vector3 size = obj.getSize();
-    objPoints.add(new Point3D(size.getX(), size.getY(), size.getZ()));
-    objPoints.add(new Point3D(size.getX(), size.getY(),-size.getZ()));
-    objPoints.add(new Point3D(size.getX(), -size.getY(), size.getZ()));
-    objPoints.add(new Point3D(size.getX(), -size.getY(), -size.getZ()));
-    objPoints.add(new Point3D(-size.getX(), size.getY(), size.getZ()));
-    objPoints.add(new Point3D(-size.getX(), size.getY(), -size.getZ()));
-    objPoints.add(new Point3D(-size.getX(), -size.getY(), size.getZ()));
-    objPoints.add(new Point3D(-size.getX(), -size.getY(), -size.getZ()));
-
-    CartesianObject cartObj = new CartesianObject(objPoints);
-    CartesianObject cartObjInSegment = cartObj.transform(objInSegment);
-    final int minIdx = CartesianObject.MIN_BOUND_IDX;
-    final int maxIdx = CartesianObject.MAX_BOUND_IDX;
-    final int xIdx = 0;
-    final int yIdx = 1;
-    final int zIdx = 2;
-    double[][] bounds = cartObjInSegment.getBounds();
-    byte[]  secondaryLanes = bestSegment.determineSecondaryLanes(bounds[yIdx][minIdx], bounds[yIdx][maxIdx], primaryLane);
+    // Determine secondary lanes from the bounding box of the object in the segment frame
+    double[] extents = projection.extents;
+    byte[]  secondaryLanes = bestSegment.determineSecondaryLanes(crosstrackDistance - extents[1],
+      crosstrackDistance + extents[1], primaryLane);
     
-    // Convert AABB to size
-    double sizeX = (bounds[xIdx][maxIdx] - bounds[xIdx][minIdx]) / 2.0;
-    double sizeY = (bounds[yIdx][maxIdx] - bounds[yIdx][minIdx]) / 2.0;
-    double sizeZ = (bounds[zIdx][maxIdx] - bounds[zIdx][minIdx]) / 2.0;
     geometry_msgs.Vector3 sizeMsg = messageFactory.newFromType(geometry_msgs.Vector3._TYPE);
-    sizeMsg.setX(sizeX);
-    sizeMsg.setY(sizeY);
-    sizeMsg.setZ(sizeZ);
+    sizeMsg.setX(extents[0]);
+    sizeMsg.setY(extents[1]);
+    sizeMsg.setZ(extents[2]);
 
     // Construct new roadway obstacle
 
@@ -284,34 +257,6 @@ public class EnvironmentWorker {
     return newObstacle;
   }
 
-  /**
-   * Calculates the downtrack value of an object based on its segment downtrack
-   * 
-   * @param objSegmentIndex The index of this objects current segment in the route
-   * @param hostSegmentIndex the index of the host vehicle's current segment in the route
-   * @param objSegDowntrack the downtrack of the object along its current segment
-   * @param hostSegmentDowntrack the downtrack of the host vehicle along its current segment
-   * @param hostDowntrack the downtrack of the host vehicle along the route
-   * 
-   * @return The object's downtrack distance along the entire route
-   */
-  protected double objDowntrack(int objSegmentIndex, int hostSegmentIndex, double objSegDowntrack, double hostSegDowntrack, double hostDowntrack) {
-    if (objSegmentIndex == hostSegmentIndex) {
-      
-      return hostDowntrack + (objSegDowntrack - hostSegDowntrack);
-    } else if (objSegmentIndex < hostSegmentIndex) {
-
-      double intermediateDist = activeRoute.lengthOfSegments(objSegmentIndex + 1, hostSegmentIndex - 1);
-      double remainingObjSegDist = activeRoute.getSegments().get(objSegmentIndex).length() - objSegDowntrack;
-      return hostDowntrack - remainingObjSegDist - intermediateDist - hostSegDowntrack; 
-    } else { // objSegmentIndex > hostSegmentIndex
-
-      double intermediateDist = activeRoute.lengthOfSegments(hostSegmentIndex + 1, objSegmentIndex - 1);
-      double remainingHostSegDist = activeRoute.getSegments().get(hostSegmentIndex).length() - hostSegDowntrack;
-      return hostDowntrack + remainingHostSegDist + intermediateDist + objSegDowntrack; 
-    }
-  }
-
   /**
    * SystemAlert message handler.
    * Will shutdown this node on receipt of FATAL or SHUTDOWN
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.roadway;
+
+import gov.dot.fhwa.saxton.carma.geometry.cartesian.QuaternionUtils;
+import gov.dot.fhwa.saxton.carma.route.Route;
+import gov.dot.fhwa.saxton.carma.route.RouteSegment;
+import gov.dot.fhwa.saxton.carma.route.RouteWaypoint;
+import org.ros.rosjava_geometry.Quaternion;
+import org.ros.rosjava_geometry.Transform;
+import org.ros.rosjava_geometry.Vector3;
+
+import java.util.List;
+
+/**
+ * Projects objects located in the odom frame onto the route segments around the host vehicle
+ * <p>
+ * A projector is built once for each object list message. The segments to search and the transforms from
+ * each of those segments to the odom frame are computed on construction, so projecting an object only
+ * costs one transform application per searched segment and no matrix inversions.
+ */
+public class ObjectRouteProjector {
+  protected final Route route;
+  protected final RouteSegment[] segments;
+  protected final Transform[] segmentToOdom;
+  protected final double[] maxCrosstracks;
+  protected final int hostSegmentIndex;
+  protected final double hostSegmentDowntrack;
+  protected final double hostDowntrack;
+
+  /**
+   * Constructor
+   *
+   * @param route The active route
+   * @param hostSegmentIndex The index of the host vehicle's current segment in the route
+   * @param hostSegmentDowntrack The downtrack of the host vehicle along its current segment
+   * @param hostDowntrack The downtrack of the host vehicle along the route
+   * @param distBackward The distance in m uptrack of the host vehicles segment which will be searched
+   * @param distForward The distance in m downtrack of the host vehicles segment which will be searched
+   * @param earthToOdom The transform from the earth frame to the odom frame at the time of the objects
+   */
+  public ObjectRouteProjector(Route route, int hostSegmentIndex, double hostSegmentDowntrack, double hostDowntrack,
+    double distBackward, double distForward, Transform earthToOdom) {
+    this.route = route;
+    this.hostSegmentIndex = hostSegmentIndex;
+    this.hostSegmentDowntrack = hostSegmentDowntrack;
+    this.hostDowntrack = hostDowntrack;
+
+    List<RouteSegment> subsection =
+      route.findRouteSubsection(hostSegmentIndex, hostSegmentDowntrack, distBackward, distForward);
+    segments = subsection.toArray(new RouteSegment[subsection.size()]);
+    segmentToOdom = new Transform[segments.length];
+    maxCrosstracks = new double[segments.length];
+    for (int i = 0; i < segments.length; i++) {
+      segmentToOdom[i] = segments[i].getECEFToSegmentTransform().invert().multiply(earthToOdom);
+      RouteWaypoint wp = segments[i].getDowntrackWaypoint();
+      maxCrosstracks[i] = Math.max(Math.abs(wp.getMinCrossTrack()), Math.abs(wp.getMaxCrossTrack())); //either could be negative
+    }
+  }
+
+  /**
+   * @return True if there are no route segments to project objects onto
+   */
+  public boolean isEmpty() {
+    return segments.length == 0;
+  }
+
+  /**
+   * Projects an object onto the route
+   * <p>
+   * The segment is chosen with the same rules as {@link Route#routeSegmentOfPoint}
+   *
+   * @param objInOdom The pose of the object in the odom frame
+   * @param size The half extents of the object along the axes of its own frame
+   * @param velocityInOdom The linear velocity of the object in the odom frame
+   *
+   * @return The projection of the object
+   */
+  public Projection project(Transform objInOdom, Vector3 size, Vector3 velocityInOdom) {
+    int best = findSegment(objInOdom.getTranslation());
+    RouteSegment segment = segments[best];
+
+    Transform objInSegment = segmentToOdom[best].multiply(objInOdom);
+    Vector3 position = objInSegment.getTranslation();
+    Vector3 velocity = segmentToOdom[best].getRotationAndScale().rotateAndScaleVector(velocityInOdom);
+    int segmentIndex = segment.getUptrackWaypoint().getWaypointId();
+    double downtrack = downtrack(segmentIndex, position.getX());
+
+    return new Projection(segment, position, orientedBoxExtents(objInSegment.getRotationAndScale(), size),
+      velocity, downtrack);
+  }
+
+  /**
+   * Helper function finds the index of the segment containing a point in the odom frame
+   */
+  protected int findSegment(Vector3 pointInOdom) {
+    double prevMaxCrosstrack = 0.0;
+    int best = 0; // Default to starting segment if no match is found
+
+    for (int i = 0; i < segments.length; i++) {
+      //find where the point in question lies relative to the segment
+      Vector3 pointInSegment = segmentToOdom[i].apply(pointInOdom);
+      double crossTrack = pointInSegment.getY();
+      double downTrack = pointInSegment.getX();
+
+      //check if it's in the extended bounding box
+      if (-prevMaxCrosstrack < downTrack && downTrack <= segments[i].length()) {
+        if (Math.abs(crossTrack) <= maxCrosstracks[i]) {
+          return i;
+        }
+        best = i;
+      }
+
+      prevMaxCrosstrack = maxCrosstracks[i];
+    }
+
+    return best;
+  }
+
+  /**
+   * Calculates the downtrack value of an object based on its segment downtrack
+   * The distance between the segments is taken from the cumulative segment lengths of the route
+   *
+   * @param objSegmentIndex The index of this objects current segment in the route
+   * @param objSegDowntrack the downtrack of the object along its current segment
+   *
+   * @return The object's downtrack distance along the entire route
+   */
+  protected double downtrack(int objSegmentIndex, double objSegDowntrack) {
+    double objRouteDowntrack = route.getSegmentDowntrack(objSegmentIndex) + objSegDowntrack;
+    double hostRouteDowntrack = route.getSegmentDowntrack(hostSegmentIndex) + hostSegmentDowntrack;
+    return hostDowntrack + (objRouteDowntrack - hostRouteDowntrack);
+  }
+
+  /**
+   * Computes the half extents of the axis aligned bounding box of a rotated box
+   * The extent along each axis is the sum of the box half extents weighted by the absolute rotation matrix
+   *
+   * @param rotation The rotation of the box
+   * @param size The half extents of the box along its own axes
+   *
+   * @return The half extents of the bounding box as {x, y, z}
+   */
+  public static double[] orientedBoxExtents(Quaternion rotation, Vector3 size) {
+    double[][] m = QuaternionUtils.quaternionToMat(rotation.normalize());
+    double[] extents = new double[3];
+    for (int i = 0; i < 3; i++) {
+      extents[i] = Math.abs(m[i][0]) * size.getX() + Math.abs(m[i][1]) * size.getY() + Math.abs(m[i][2]) * size.getZ();
+    }
+    return extents;
+  }
+
+  /**
+   * The location of an object relative to the route segment it was projected onto
+   */
+  public static class Projection {
+    public final RouteSegment segment;
+    public final Vector3 position;
+    public final double[] extents;
+    public final Vector3 velocity;
+    public final double downtrack;
+
+    Projection(RouteSegment segment, Vector3 position, double[] extents, Vector3 velocity, double downtrack) {
+      this.segment = segment;
+      this.position = position;
+      this.extents = extents;
+      this.velocity = velocity;
+      this.downtrack = downtrack;
+    }
+  }
+}
@@ -23,6 +23,7 @@ import gov.dot.fhwa.saxton.carma.rosutils.AlertSeverity;
 import gov.dot.fhwa.saxton.carma.rosutils.RosServiceSynchronizer;
 import gov.dot.fhwa.saxton.carma.rosutils.SaxtonBaseNode;
 import gov.dot.fhwa.saxton.carma.rosutils.SaxtonLogger;
+import gov.dot.fhwa.saxton.carma.rosutils.TransformListener;
 import gov.dot.fhwa.saxton.carma.route.Route;
 import gov.dot.fhwa.saxton.carma.route.RouteSegment;
 import java.util.LinkedList;
@@ -70,6 +71,8 @@ public class RoadwayManager extends SaxtonBaseNode implements IRoadwayManager{
   protected Subscriber<cav_msgs.SystemAlert> systemAlertSub;
   // Used Services
   protected ServiceClient<cav_srvs.GetTransformRequest, cav_srvs.GetTransformResponse> getTransformClient;
+  // Transforms
+  protected TransformListener tfListener;
 
   @Override public GraphName getDefaultNodeName() {
     return GraphName.of("environment_manager");
@@ -94,6 +97,8 @@ public class RoadwayManager extends SaxtonBaseNode implements IRoadwayManager{
     // Topics Initialization
     // Publishers
     tfPub = connectedNode.newPublisher("/tf", tf2_msgs.TFMessage._TYPE);
+    // Transforms are buffered locally so lookups do not wait on the get_transform service
+    tfListener = new TransformListener(connectedNode);
 
     roadwayEnvPub =
       connectedNode.newPublisher("roadway_environment", cav_msgs.RoadwayEnvironment._TYPE);
@@ -239,6 +244,26 @@ public class RoadwayManager extends SaxtonBaseNode implements IRoadwayManager{
   }
 
   @Override public Transform getTransform(String parentFrame, String childFrame, Time stamp) {
+    Transform tf = tfListener.lookupTransform(parentFrame, childFrame, stamp);
+    if (tf != null) {
+      return tf;
+    }
+    // Fall back on the service until the frames have been received on the tf topics
+    return requestTransform(parentFrame, childFrame, stamp);
+  }
+
+  /**
+   * Gets a transform from the get_transform service, blocking until the service responds
+   *
+   * @param parentFrame Frame Id of parent frame
+   * @param childFrame Frame Id of child frame
+   * @param stamp The time which this transform should correspond to
+   * @return The transform or null if the service could not provide it
+   */
+  protected Transform requestTransform(String parentFrame, String childFrame, Time stamp) {
+    if (getTransformClient == null) {
+      return null;
+    }
     final GetTransformRequest req = getTransformClient.newMessage();
     req.setParentFrame(parentFrame);
     req.setChildFrame(childFrame);
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.roadway;
+
+import gov.dot.fhwa.saxton.carma.geometry.GeodesicCartesianConverter;
+import gov.dot.fhwa.saxton.carma.geometry.cartesian.Point3D;
+import gov.dot.fhwa.saxton.carma.geometry.geodesic.Location;
+import gov.dot.fhwa.saxton.carma.route.Route;
+import gov.dot.fhwa.saxton.carma.route.RouteSegment;
+import gov.dot.fhwa.saxton.carma.route.RouteWaypoint;
+import org.junit.Test;
+import org.ros.rosjava_geometry.Quaternion;
+import org.ros.rosjava_geometry.Transform;
+import org.ros.rosjava_geometry.Vector3;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the ObjectRouteProjector class
+ */
+public class ObjectRouteProjectorTest {
+
+  /**
+   * Tests the bounding box extents of rotated objects
+   */
+  @Test
+  public void testOrientedBoxExtents() throws Exception {
+    Vector3 size = new Vector3(2.0, 1.0, 0.5);
+
+    // No rotation keeps the object extents
+    double[] extents = ObjectRouteProjector.orientedBoxExtents(Quaternion.identity(), size);
+    assertArrayEquals(new double[]{2.0, 1.0, 0.5}, extents, 0.0001);
+
+    // 90 deg yaw swaps the x and y extents
+    Quaternion yaw90 = Quaternion.fromAxisAngle(new Vector3(0, 0, 1), Math.PI / 2.0);
+    extents = ObjectRouteProjector.orientedBoxExtents(yaw90, size);
+    assertArrayEquals(new double[]{1.0, 2.0, 0.5}, extents, 0.0001);
+
+    // 45 deg yaw spreads both extents over x and y
+    Quaternion yaw45 = Quaternion.fromAxisAngle(new Vector3(0, 0, 1), Math.PI / 4.0);
+    extents = ObjectRouteProjector.orientedBoxExtents(yaw45, size);
+    double diag = 3.0 * Math.sqrt(0.5);
+    assertArrayEquals(new double[]{diag, diag, 0.5}, extents, 0.0001);
+
+    // 180 deg roll does not change the extents
+    Quaternion roll180 = Quaternion.fromAxisAngle(new Vector3(1, 0, 0), Math.PI);
+    extents = ObjectRouteProjector.orientedBoxExtents(roll180, size);
+    assertArrayEquals(new double[]{2.0, 1.0, 0.5}, extents, 0.0001);
+  }
+
+  /**
+   * Tests projecting objects around a multi-segment route matches locating each object with
+   * Route.routeSegmentOfPoint and the inverse segment transform as done before the projector was added
+   */
+  @Test
+  public void testProjectMatchesRouteSegmentOfPoint() throws Exception {
+    // A route which bends at every waypoint so each segment has its own frame
+    double[][] latLons = {
+      {38.9500, -77.1500}, {38.9505, -77.1500}, {38.9510, -77.1495},
+      {38.9515, -77.1495}, {38.9520, -77.1500}, {38.9525, -77.1500}
+    };
+    List<RouteWaypoint> waypoints = new ArrayList<>();
+    for (int i = 0; i < latLons.length; i++) {
+      RouteWaypoint wp = new RouteWaypoint(new Location(latLons[i][0], latLons[i][1], 0.0));
+      wp.setWaypointId(i);
+      waypoints.add(wp);
+    }
+    Route route = new Route(waypoints, "test_route", "Test Route");
+
+    int hostSegmentIndex = 2;
+    double hostSegmentDowntrack = 10.0;
+    double hostDowntrack = route.getSegmentDowntrack(hostSegmentIndex) + hostSegmentDowntrack;
+    double distBackward = 100.0;
+    double distForward = 150.0;
+    Transform earthToOdom = new GeodesicCartesianConverter().ecefToNEDFromLocaton(waypoints.get(0).getLocation())
+      .multiply(Transform.zRotation(0.3));
+    ObjectRouteProjector projector = new ObjectRouteProjector(route, hostSegmentIndex, hostSegmentDowntrack,
+      hostDowntrack, distBackward, distForward, earthToOdom);
+
+    // {segment, downtrack along segment, crosstrack, yaw, expected segment or -1 if only compared with the old path}
+    double[][] objects = {
+      {0, 20.0, 1.5, 0.0, 0},    // Two segments behind the host
+      {1, 40.0, -2.0, 0.2, 1},   // One segment behind the host
+      {2, 3.0, 0.5, -0.1, 2},    // Behind the host on its segment
+      {2, 30.0, 3.0, 0.4, 2},    // Ahead of the host on its segment
+      {3, 10.0, -1.0, 0.0, 3},   // One segment ahead of the host
+      {4, 25.0, 2.0, 1.0, 4},    // Two segments ahead of the host
+      {3, -2.0, 6.0, 0.0, -1},   // In the wedge outside of a bend
+      {2, 20.0, 25.0, 0.0, -1}   // Off the route
+    };
+    Vector3 size = new Vector3(2.4, 1.0, 0.8);
+    Vector3 velocityInOdom = new Vector3(5.0, 1.0, 0.0);
+    Transform odomToEarth = earthToOdom.invert();
+    List<RouteSegment> segmentsToSearch =
+      route.findRouteSubsection(hostSegmentIndex, hostSegmentDowntrack, distBackward, distForward);
+    assertEquals(route.getSegments().size(), segmentsToSearch.size());
+
+    for (double[] obj : objects) {
+      Transform objInPlacementSegment = new Transform(new Vector3(obj[1], obj[2], 0.0),
+        Quaternion.fromAxisAngle(new Vector3(0, 0, 1), obj[3]));
+      Transform objInOdom = odomToEarth.multiply(route.getSegments().get((int) obj[0]).getECEFToSegmentTransform())
+        .multiply(objInPlacementSegment);
+
+      ObjectRouteProjector.Projection projection = projector.project(objInOdom, size, velocityInOdom);
+
+      // Locate the object the way EnvironmentWorker did before the projector
+      Transform objInECEF = earthToOdom.multiply(objInOdom);
+      Vector3 objVecECEF = objInECEF.getTranslation();
+      RouteSegment bestSegment = route.routeSegmentOfPoint(
+        new Point3D(objVecECEF.getX(), objVecECEF.getY(), objVecECEF.getZ()), segmentsToSearch);
+      Transform ecefToBestSegment = bestSegment.getECEFToSegmentTransform().invert();
+      Transform objInSegment = ecefToBestSegment.multiply(objInECEF);
+      Vector3 velocity = ecefToBestSegment.multiply(earthToOdom).getRotationAndScale()
+        .rotateAndScaleVector(velocityInOdom);
+      int segmentIndex = bestSegment.getUptrackWaypoint().getWaypointId();
+      double downtrack = objDowntrack(route, segmentIndex, hostSegmentIndex, objInSegment.getTranslation().getX(),
+        hostSegmentDowntrack, hostDowntrack);
+
+      assertSame(bestSegment, projection.segment);
+      if (obj[4] >= 0) {
+        assertEquals((int) obj[4], segmentIndex);
+        assertEquals(obj[1], projection.position.getX(), 0.0001);
+        assertEquals(obj[2], projection.position.getY(), 0.0001);
+      }
+      assertTrue(objInSegment.getTranslation().almostEquals(projection.position, 0.0001));
+      assertTrue(velocity.almostEquals(projection.velocity, 0.0001));
+      assertEquals(downtrack, projection.downtrack, 0.0001);
+      assertArrayEquals(ObjectRouteProjector.orientedBoxExtents(objInSegment.getRotationAndScale(), size),
+        projection.extents, 0.0001);
+    }
+  }
+
+  /**
+   * Helper function calculates the downtrack of an object by summing the lengths of the segments between
+   * the object and the host vehicle, as EnvironmentWorker did before the projector
+   */
+  private static double objDowntrack(Route route, int objSegmentIndex, int hostSegmentIndex, double objSegDowntrack,
+    double hostSegDowntrack, double hostDowntrack) {
+    if (objSegmentIndex == hostSegmentIndex) {
+      return hostDowntrack + (objSegDowntrack - hostSegDowntrack);
+    } else if (objSegmentIndex < hostSegmentIndex) {
+      double intermediateDist = route.lengthOfSegments(objSegmentIndex + 1, hostSegmentIndex - 1);
+      double remainingObjSegDist = route.getSegments().get(objSegmentIndex).length() - objSegDowntrack;
+      return hostDowntrack - remainingObjSegDist - intermediateDist - hostSegDowntrack;
+    } else {
+      double intermediateDist = route.lengthOfSegments(hostSegmentIndex + 1, objSegmentIndex - 1);
+      double remainingHostSegDist = route.getSegments().get(hostSegmentIndex).length() - hostSegDowntrack;
+      return hostDowntrack + remainingHostSegDist + intermediateDist + objSegDowntrack;
+    }
+  }
+}
@@ -25,10 +25,15 @@ import java.util.regex.Pattern;
  * Static class for assisting in the parsing of Mobility Messages
  */
 public final class MobilityHelper {
+
+  // Reg ex grabs everything between two commas or the start and end of a string
+  private static final Pattern FIELD_PATTERN = Pattern.compile("(?<=(^|,))(.*?)(?=(,|$))");
+
   /**
    * Function to extract strategy params from a mobility message strategy string
    * Params are expected to be of the form TYPE|KEY1:value1,KEY2:value2 etc.
    * This will throw an exception if the provided paramsString does not match the expected type and keys
+   * Params in the binary form of StrategyParamsWriter are not supported. Use a StrategyParamsReader for those.
    * 
    * @param paramsString The strategy params string to process
    * @param expectedType The expected type value in the strategy params. If this value is null the type will be assumed not to exist.
@@ -54,8 +59,7 @@ public final class MobilityHelper {
       dataString = paramsParts[1]; // Get data string
     }
 
-    Pattern pattern = Pattern.compile("(?<=(^|,))(.*?)(?=(,|$))"); // Reg ex grabs everything between two commas or the start and end of a string
-    Matcher matcher = pattern.matcher(dataString);
+    Matcher matcher = FIELD_PATTERN.matcher(dataString);
 
     List<String> dataList = new ArrayList<>(keys.size());
 
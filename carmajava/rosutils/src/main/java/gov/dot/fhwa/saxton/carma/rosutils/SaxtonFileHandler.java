@@ -20,9 +20,43 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.FileHandler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
 
+/**
+ * Log handler which writes the log of a node to a file in the timestamped log folder of the current run.
+ * <p>
+ * Records are written asynchronously so logging never blocks a node on file IO. Published records are placed on a
+ * bounded lock-free queue which is drained by a background writer thread. When the queue is full records are dropped
+ * according to the {@link DropPolicy} and counted, and the writer notes how many records were dropped in the log file.
+ * The handler is configured through the logging properties with the following keys, prefixed by the class name
+ * <ul>
+ *   <li>async - false to write records on the logging thread instead, defaults to true</li>
+ *   <li>queueSize - the maximum number of queued records, defaults to {@link #DEFAULT_QUEUE_SIZE}</li>
+ *   <li>dropPolicy - the {@link DropPolicy} used when the queue is full, defaults to DROP_NEWEST</li>
+ * </ul>
+ */
 public class SaxtonFileHandler extends FileHandler {
+
+  /**
+   * The records discarded when a record is published to a full queue
+   */
+  public enum DropPolicy {
+    DROP_NEWEST, // The published record is discarded
+    DROP_OLDEST  // The oldest queued record is discarded to make room for the published record
+  }
+
+  public static final int DEFAULT_QUEUE_SIZE = 8192;
+  protected static final long WRITER_IDLE_WAIT = 10; // ms the writer waits for new records when the queue is empty
+
   private static String filePath = "";
   // Static code for generating the logs in a timestamped folder
   static {
@@ -51,7 +85,153 @@ public class SaxtonFileHandler extends FileHandler {
       SaxtonFileHandler.filePath = "/opt/carma/logs/carma_%u.log"; // %u will be a unique integer value for each log
     }
   }
+
+  private final Queue<LogRecord> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger queuedCount = new AtomicInteger(0);
+  private final AtomicLong droppedCount = new AtomicLong(0);
+  private final int queueSize;
+  private final DropPolicy dropPolicy;
+  private final Thread writer;
+  private volatile boolean closed = false;
+
   public SaxtonFileHandler() throws IOException {
     super(SaxtonFileHandler.filePath);
+    String prefix = SaxtonFileHandler.class.getName();
+    LogManager manager = LogManager.getLogManager();
+    this.queueSize = parseQueueSize(manager.getProperty(prefix + ".queueSize"));
+    this.dropPolicy = parseDropPolicy(manager.getProperty(prefix + ".dropPolicy"));
+    this.writer = "false".equalsIgnoreCase(manager.getProperty(prefix + ".async")) ? null : startWriter();
+  }
+
+  /**
+   * Constructor for an asynchronous handler writing to the provided file
+   *
+   * @param pattern The file name pattern as used by {@link FileHandler}
+   * @param queueSize The maximum number of queued records
+   * @param dropPolicy The records discarded when the queue is full
+   * @throws IOException If the file could not be opened
+   */
+  public SaxtonFileHandler(String pattern, int queueSize, DropPolicy dropPolicy) throws IOException {
+    super(pattern);
+    this.queueSize = Math.max(queueSize, 1);
+    this.dropPolicy = dropPolicy;
+    this.writer = startWriter();
+  }
+
+  /**
+   * Queues a record to be written by the writer thread, or writes it immediately when the handler is not asynchronous.
+   * This method never blocks when asynchronous.
+   */
+  @Override
+  public void publish(LogRecord record) {
+    if (writer == null) {
+      super.publish(record);
+      return;
+    }
+    if (closed || !isLoggable(record)) {
+      return;
+    }
+    while (queuedCount.incrementAndGet() > queueSize) {
+      queuedCount.decrementAndGet();
+      if (dropPolicy == DropPolicy.DROP_NEWEST) {
+        droppedCount.incrementAndGet();
+        return;
+      }
+      if (queue.poll() != null) {
+        // This record takes the place of the discarded oldest record
+        droppedCount.incrementAndGet();
+        queue.offer(record);
+        return;
+      }
+      // The writer emptied the queue in the meantime so try again
+    }
+    queue.offer(record);
+  }
+
+  /**
+   * Stops accepting records, waits for the writer to write the queued records and closes the file
+   */
+  @Override
+  public void close() {
+    closed = true;
+    if (writer != null && writer != Thread.currentThread()) {
+      LockSupport.unpark(writer);
+      boolean interrupted = false;
+      while (writer.isAlive()) {
+        try {
+          writer.join();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    super.close();
+  }
+
+  /**
+   * @return The number of records dropped because the queue was full
+   */
+  public long getDroppedCount() {
+    return droppedCount.get();
+  }
+
+  /**
+   * Writer thread loop which writes queued records until the handler is closed and the queue is empty
+   */
+  private void writeRecords() {
+    long reportedDrops = 0;
+    while (true) {
+      LogRecord record = queue.poll();
+      if (record != null) {
+        queuedCount.decrementAndGet();
+        super.publish(record);
+        continue;
+      }
+      long drops = droppedCount.get();
+      if (drops != reportedDrops) {
+        super.publish(new LogRecord(Level.WARNING,
+          "SaxtonFileHandler dropped " + (drops - reportedDrops) + " log records because its queue was full"));
+        reportedDrops = drops;
+      }
+      if (closed) {
+        return;
+      }
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(WRITER_IDLE_WAIT));
+    }
+  }
+
+  /**
+   * Helper function starts the writer thread
+   */
+  private Thread startWriter() {
+    Thread thread = new Thread(this::writeRecords, "SaxtonFileHandler-writer");
+    thread.setDaemon(true);
+    thread.start();
+    return thread;
+  }
+
+  /**
+   * Helper function parses the queueSize property
+   */
+  private static int parseQueueSize(String value) {
+    try {
+      return (value == null) ? DEFAULT_QUEUE_SIZE : Math.max(Integer.parseInt(value.trim()), 1);
+    } catch (NumberFormatException e) {
+      return DEFAULT_QUEUE_SIZE;
+    }
+  }
+
+  /**
+   * Helper function parses the dropPolicy property
+   */
+  private static DropPolicy parseDropPolicy(String value) {
+    try {
+      return (value == null) ? DropPolicy.DROP_NEWEST : DropPolicy.valueOf(value.trim());
+    } catch (IllegalArgumentException e) {
+      return DropPolicy.DROP_NEWEST;
+    }
   }
-}
\ No newline at end of file
+}
@@ -27,6 +27,7 @@ import java.io.PrintWriter;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.function.Supplier;
 
 
 /**
@@ -67,126 +68,255 @@ public class SaxtonLogger {
 
   /**
    * The log methods below were created to leverage the ROS node log and then adds the source and tag from the calling procedure
-   * onto the message.
+   * onto the message. The message is only built when its level is enabled, so disabled levels cost a single check.
+   * The Supplier variants also defer building the caller's message, which should be used wherever the message is
+   * expensive to build, e.g. when it is formatted or iterates over a collection.
    */
+  public boolean isDebugEnabled() {
+    return saxtonLog.isDebugEnabled();
+  }
+
   public void debug(String message) {
-    String messageToStore = getSource() + " | " + emptyTag + " | " + message;
-    saxtonLog.debug(messageToStore);
+    if (saxtonLog.isDebugEnabled()) {
+      saxtonLog.debug(decorate(emptyTag, message));
+    }
   }
 
   public void debug(String message, Throwable t) {
-    String messageToStore =  getSource() + " | " + emptyTag + " | " + message;
-    saxtonLog.debug(messageToStore, t);
+    if (saxtonLog.isDebugEnabled()) {
+      saxtonLog.debug(decorate(emptyTag, message), t);
+    }
   }
 
   public void debug(String tag, String message) {
-    String messageToStore = getSource() + " | " + tag + " | " + message;
-    saxtonLog.debug(messageToStore);
+    if (saxtonLog.isDebugEnabled()) {
+      saxtonLog.debug(decorate(tag, message));
+    }
   }
 
   public void debug(String tag, String message, Throwable t) {
-    String messageToStore = getSource() + " | " + tag + " | " + message;
-    saxtonLog.debug(messageToStore, t);
+    if (saxtonLog.isDebugEnabled()) {
+      saxtonLog.debug(decorate(tag, message), t);
+    }
+  }
+
+  public void debug(Supplier<String> message) {
+    if (saxtonLog.isDebugEnabled()) {
+      saxtonLog.debug(decorate(emptyTag, message.get()));
+    }
+  }
+
+  public void debug(String tag, Supplier<String> message) {
+    if (saxtonLog.isDebugEnabled()) {
+      saxtonLog.debug(decorate(tag, message.get()));
+    }
+  }
+
+  public boolean isInfoEnabled() {
+    return saxtonLog.isInfoEnabled();
   }
 
   public void info(String message) {
-    String messageToStore = getSource() + " | " + emptyTag + " | " + message;
-    saxtonLog.info(messageToStore);
+    if (saxtonLog.isInfoEnabled()) {
+      saxtonLog.info(decorate(emptyTag, message));
+    }
   }
 
   public void info(String message, Throwable t) {
-    String messageToStore = getSource() + " | " + emptyTag + " | " + message;
-    saxtonLog.info(messageToStore, t);
+    if (saxtonLog.isInfoEnabled()) {
+      saxtonLog.info(decorate(emptyTag, message), t);
+    }
   }
 
   public void info(String tag, String message) {
-    String messageToStore = getSource() + " | " + tag + " | " + message;
-    saxtonLog.info(messageToStore);
+    if (saxtonLog.isInfoEnabled()) {
+      saxtonLog.info(decorate(tag, message));
+    }
   }
 
   public void info(String tag, String message, Throwable t) {
-    String messageToStore = getSource() + " | " + tag + " | " + message;
-    saxtonLog.info(messageToStore, t);
+    if (saxtonLog.isInfoEnabled()) {
+      saxtonLog.info(decorate(tag, message), t);
+    }
+  }
+
+  public void info(Supplier<String> message) {
+    if (saxtonLog.isInfoEnabled()) {
+      saxtonLog.info(decorate(emptyTag, message.get()));
+    }
+  }
+
+  public void info(String tag, Supplier<String> message) {
+    if (saxtonLog.isInfoEnabled()) {
+      saxtonLog.info(decorate(tag, message.get()));
+    }
+  }
+
+  public boolean isWarnEnabled() {
+    return saxtonLog.isWarnEnabled();
   }
 
   public void warn(String message) {
-    String messageToStore = getSource() + " | " + emptyTag + " | " + message;
-    saxtonLog.warn(messageToStore);
+    if (saxtonLog.isWarnEnabled()) {
+      saxtonLog.warn(decorate(emptyTag, message));
+    }
   }
 
   public void warn(String message, Throwable t) {
-    String messageToStore = getSource() + " | " + emptyTag + " | " + message;
-    saxtonLog.warn(messageToStore, t);
+    if (saxtonLog.isWarnEnabled()) {
+      saxtonLog.warn(decorate(emptyTag, message), t);
+    }
   }
 
   public void warn(String tag, String message) {
-    String messageToStore = getSource() + " | " + tag + " | " + message;
-    saxtonLog.warn(messageToStore);
+    if (saxtonLog.isWarnEnabled()) {
+      saxtonLog.warn(decorate(tag, message));
+    }
   }
 
   public void warn(String tag, String message, Throwable t) {
-    String messageToStore = getSource() + " | " + tag + " | " + message;
-    saxtonLog.warn(messageToStore, t);
+    if (saxtonLog.isWarnEnabled()) {
+      saxtonLog.warn(decorate(tag, message), t);
+    }
+  }
+
+  public void warn(Supplier<String> message) {
+    if (saxtonLog.isWarnEnabled()) {
+      saxtonLog.warn(decorate(emptyTag, message.get()));
+    }
+  }
+
+  public void warn(String tag, Supplier<String> message) {
+    if (saxtonLog.isWarnEnabled()) {
+      saxtonLog.warn(decorate(tag, message.get()));
+    }
+  }
+
+  public boolean isErrorEnabled() {
+    return saxtonLog.isErrorEnabled();
   }
 
   public void error(String message) {
-    String messageToStore = getSource() + " | " + emptyTag + " | " + message;
-    saxtonLog.error(messageToStore);
+    if (saxtonLog.isErrorEnabled()) {
+      saxtonLog.error(decorate(emptyTag, message));
+    }
   }
 
   public void error(String message, Throwable t) {
-    String messageToStore = getSource() + " | " + emptyTag + " | " + message;
-    saxtonLog.error(messageToStore, t);
+    if (saxtonLog.isErrorEnabled()) {
+      saxtonLog.error(decorate(emptyTag, message), t);
+    }
   }
 
   public void error(String tag, String message) {
-    String messageToStore = getSource() + " | " + tag + " | " + message;
-    saxtonLog.error(messageToStore);
+    if (saxtonLog.isErrorEnabled()) {
+      saxtonLog.error(decorate(tag, message));
+    }
   }
 
   public void error(String tag, String message, Throwable t) {
-    String messageToStore = getSource() + " | " + tag + " | " + message;
-    saxtonLog.error(messageToStore, t);
+    if (saxtonLog.isErrorEnabled()) {
+      saxtonLog.error(decorate(tag, message), t);
+    }
+  }
+
+  public void error(Supplier<String> message) {
+    if (saxtonLog.isErrorEnabled()) {
+      saxtonLog.error(decorate(emptyTag, message.get()));
+    }
+  }
+
+  public void error(String tag, Supplier<String> message) {
+    if (saxtonLog.isErrorEnabled()) {
+      saxtonLog.error(decorate(tag, message.get()));
+    }
+  }
+
+  public boolean isFatalEnabled() {
+    return saxtonLog.isFatalEnabled();
   }
 
   public void fatal(String message) {
-    String messageToStore = getSource() + " | " + emptyTag + " | " + message;
-    saxtonLog.fatal(messageToStore);
+    if (saxtonLog.isFatalEnabled()) {
+      saxtonLog.fatal(decorate(emptyTag, message));
+    }
   }
 
   public void fatal(String message, Throwable t) {
-    String messageToStore = getSource() + " | " + emptyTag + " | " + message;
-    saxtonLog.fatal(messageToStore, t);
+    if (saxtonLog.isFatalEnabled()) {
+      saxtonLog.fatal(decorate(emptyTag, message), t);
+    }
   }
 
   public void fatal(String tag, String message) {
-    String messageToStore = getSource() + " | " + tag + " | " + message;
-    saxtonLog.fatal(messageToStore);
+    if (saxtonLog.isFatalEnabled()) {
+      saxtonLog.fatal(decorate(tag, message));
+    }
   }
 
   public void fatal(String tag, String message, Throwable t) {
-    String messageToStore = getSource() + " | " + tag + " | " + message;
-    saxtonLog.fatal(messageToStore, t);
+    if (saxtonLog.isFatalEnabled()) {
+      saxtonLog.fatal(decorate(tag, message), t);
+    }
+  }
+
+  public void fatal(Supplier<String> message) {
+    if (saxtonLog.isFatalEnabled()) {
+      saxtonLog.fatal(decorate(emptyTag, message.get()));
+    }
+  }
+
+  public void fatal(String tag, Supplier<String> message) {
+    if (saxtonLog.isFatalEnabled()) {
+      saxtonLog.fatal(decorate(tag, message.get()));
+    }
+  }
+
+  public boolean isTraceEnabled() {
+    return saxtonLog.isTraceEnabled();
   }
 
   public void trace(String message) {
-    String messageToStore = getSource() + " | " + emptyTag + " | " + message;
-    saxtonLog.trace(messageToStore);
+    if (saxtonLog.isTraceEnabled()) {
+      saxtonLog.trace(decorate(emptyTag, message));
+    }
   }
 
   public void trace(String message, Throwable t) {
-    String messageToStore = getSource() + " | " + emptyTag + " | " + message;
-    saxtonLog.trace(messageToStore, t);
+    if (saxtonLog.isTraceEnabled()) {
+      saxtonLog.trace(decorate(emptyTag, message), t);
+    }
   }
 
   public void trace(String tag, String message) {
-    String messageToStore = getSource() + " | " + tag + " | " + message;
-    saxtonLog.trace(messageToStore);
+    if (saxtonLog.isTraceEnabled()) {
+      saxtonLog.trace(decorate(tag, message));
+    }
   }
 
   public void trace(String tag, String message, Throwable t) {
-    String messageToStore = getSource() + " | " + tag + " | " + message;
-    saxtonLog.trace(messageToStore, t);
+    if (saxtonLog.isTraceEnabled()) {
+      saxtonLog.trace(decorate(tag, message), t);
+    }
+  }
+
+  public void trace(Supplier<String> message) {
+    if (saxtonLog.isTraceEnabled()) {
+      saxtonLog.trace(decorate(emptyTag, message.get()));
+    }
+  }
+
+  public void trace(String tag, Supplier<String> message) {
+    if (saxtonLog.isTraceEnabled()) {
+      saxtonLog.trace(decorate(tag, message.get()));
+    }
+  }
+
+  /**
+   * Helper function adds the source and tag to a message
+   */
+  private String decorate(String tag, String message) {
+    return getSource() + " | " + tag + " | " + message;
   }
 
   /**
@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.rosutils;
+
+import java.util.Arrays;
+
+import gov.dot.fhwa.saxton.carma.rosutils.StrategyParamsSchema.FieldType;
+
+/**
+ * Reads strategy params of a StrategyParamsSchema in place without splitting or regular expressions.
+ * Both the string and the binary form are accepted and the form is detected from the params.
+ * Fields after the last field of the schema are ignored so a schema may read a prefix of longer params
+ * as MobilityHelper.extractStrategyParams does.
+ * <p>
+ * Numeric values are decoded by read and may be taken with getDouble and getInt without allocation.
+ * A reader reuses its buffers so it must not be shared between threads.
+ */
+public final class StrategyParamsReader {
+
+  private static final int[] BASE64_VALUES = new int[128];
+  private static final double[] POWERS_OF_TEN = new double[23];
+  // Doubles with a mantissa below 2^53 and up to 22 fractional digits are converted exactly
+  private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+  static {
+    Arrays.fill(BASE64_VALUES, -1);
+    for (int i = 0; i < StrategyParamsWriter.BASE64_ALPHABET.length; i++) {
+      BASE64_VALUES[StrategyParamsWriter.BASE64_ALPHABET[i]] = i;
+    }
+    POWERS_OF_TEN[0] = 1.0;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+    }
+  }
+
+  private final StrategyParamsSchema schema;
+  private final double[] doubles;
+  private final int[] ints;
+  private final int[] stringStarts;
+  private final int[] stringEnds;
+  private byte[] bytes = new byte[32];
+  private CharSequence params;
+  private boolean binary;
+
+  /**
+   * @param schema The schema of the params
+   */
+  public StrategyParamsReader(StrategyParamsSchema schema) {
+    this.schema = schema;
+    int count = schema.getFieldCount();
+    this.doubles = new double[count];
+    this.ints = new int[count];
+    this.stringStarts = new int[count];
+    this.stringEnds = new int[count];
+  }
+
+  /**
+   * Reads params which start with the type of the schema
+   * @param params The strategy params
+   * @return This reader holding the field values
+   * @throws IllegalArgumentException if the params do not match the schema
+   */
+  public StrategyParamsReader read(CharSequence params) {
+    if (!schema.matchesType(params)) {
+      throw new IllegalArgumentException("Params do not have type " + schema.getType() + ": " + params);
+    }
+    int start = schema.getType() == null ? 0 : schema.getType().length() + 1;
+    return readFields(params, start);
+  }
+
+  /**
+   * Reads the fields of params from an offset, skipping any type prefix
+   * @param params The strategy params
+   * @param start The index of the first field or of the binary marker
+   * @return This reader holding the field values
+   * @throws IllegalArgumentException if the params do not match the schema
+   */
+  public StrategyParamsReader readFields(CharSequence params, int start) {
+    this.params = params;
+    this.binary = start < params.length() && params.charAt(start) == StrategyParamsSchema.BINARY_MARKER;
+    if (binary) {
+      readBinary(params, start + 1);
+    } else {
+      readText(params, start);
+    }
+    return this;
+  }
+
+  /**
+   * @return True if the last params read were in binary form
+   */
+  public boolean isBinary() {
+    return binary;
+  }
+
+  public double getDouble(int index) {
+    checkType(index, FieldType.DOUBLE);
+    return doubles[index];
+  }
+
+  public int getInt(int index) {
+    checkType(index, FieldType.INT);
+    return ints[index];
+  }
+
+  public String getString(int index) {
+    checkType(index, FieldType.STRING);
+    if (binary) {
+      StringBuilder sb = new StringBuilder(stringEnds[index] - stringStarts[index]);
+      for (int i = stringStarts[index]; i < stringEnds[index]; i++) {
+        sb.append((char) (bytes[i] & 0xFF));
+      }
+      return sb.toString();
+    }
+    return params.subSequence(stringStarts[index], stringEnds[index]).toString();
+  }
+
+  private void checkType(int index, FieldType fieldType) {
+    if (schema.getFieldType(index) != fieldType) {
+      throw new IllegalArgumentException("Field " + schema.getKey(index) + " is not a " + fieldType);
+    }
+  }
+
+  private void readText(CharSequence params, int start) {
+    int length = params.length();
+    int pos = start;
+    for (int field = 0; field < schema.getFieldCount(); field++) {
+      if (field > 0) {
+        if (pos >= length || params.charAt(pos) != StrategyParamsSchema.FIELD_SEPARATOR) {
+          throw new IllegalArgumentException("Params are missing field " + schema.getKey(field) + ": " + params);
+        }
+        pos++;
+      }
+      String key = schema.getKey(field);
+      int keyLength = key.length();
+      if (pos + keyLength >= length || params.charAt(pos + keyLength) != StrategyParamsSchema.KEY_SEPARATOR
+          || !regionMatches(params, pos, key)) {
+        throw new IllegalArgumentException("Params do not have key " + key + " at " + pos + ": " + params);
+      }
+      int valueStart = pos + keyLength + 1;
+      int valueEnd = valueStart;
+      while (valueEnd < length && params.charAt(valueEnd) != StrategyParamsSchema.FIELD_SEPARATOR) {
+        valueEnd++;
+      }
+      switch (schema.getFieldType(field)) {
+        case DOUBLE:
+          doubles[field] = parseDouble(params, valueStart, valueEnd);
+          break;
+        case INT:
+          ints[field] = parseInt(params, valueStart, valueEnd);
+          break;
+        default:
+          stringStarts[field] = valueStart;
+          stringEnds[field] = valueEnd;
+      }
+      pos = valueEnd;
+    }
+  }
+
+  private void readBinary(CharSequence params, int start) {
+    int byteCount = decodeBase64(params, start);
+    int pos = 0;
+    for (int field = 0; field < schema.getFieldCount(); field++) {
+      FieldType fieldType = schema.getFieldType(field);
+      if (fieldType == FieldType.STRING) {
+        if (pos >= byteCount) {
+          throw new IllegalArgumentException("Binary params are missing field " + schema.getKey(field) + ": " + params);
+        }
+        int stringLength = bytes[pos] & 0xFF;
+        stringStarts[field] = pos + 1;
+        stringEnds[field] = pos + 1 + stringLength;
+        pos = stringEnds[field];
+        if (pos > byteCount) {
+          throw new IllegalArgumentException("Binary params are missing field " + schema.getKey(field) + ": " + params);
+        }
+        continue;
+      }
+      if (pos + 4 > byteCount) {
+        throw new IllegalArgumentException("Binary params are missing field " + schema.getKey(field) + ": " + params);
+      }
+      int value = ((bytes[pos] & 0xFF) << 24) | ((bytes[pos + 1] & 0xFF) << 16)
+        | ((bytes[pos + 2] & 0xFF) << 8) | (bytes[pos + 3] & 0xFF);
+      pos += 4;
+      if (fieldType == FieldType.DOUBLE) {
+        doubles[field] = value / 100.0;
+      } else {
+        ints[field] = value;
+      }
+    }
+  }
+
+  private int decodeBase64(CharSequence params, int start) {
+    int length = params.length() - start;
+    int required = length * 3 / 4;
+    if (bytes.length < required) {
+      bytes = new byte[Math.max(required, bytes.length * 2)];
+    }
+    int count = 0;
+    int group = 0;
+    int bits = 0;
+    for (int i = start; i < params.length(); i++) {
+      char c = params.charAt(i);
+      int value = c < 128 ? BASE64_VALUES[c] : -1;
+      if (value < 0) {
+        throw new IllegalArgumentException("Invalid character " + c + " in binary params: " + params);
+      }
+      group = (group << 6) | value;
+      bits += 6;
+      if (bits >= 8) {
+        bits -= 8;
+        bytes[count++] = (byte) (group >>> bits);
+      }
+    }
+    return count;
+  }
+
+  private static boolean regionMatches(CharSequence params, int start, String key) {
+    for (int i = 0; i < key.length(); i++) {
+      if (params.charAt(start + i) != key.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static int parseInt(CharSequence cs, int start, int end) {
+    long value = 0;
+    int pos = start;
+    boolean negative = pos < end && cs.charAt(pos) == '-';
+    if (negative || (pos < end && cs.charAt(pos) == '+')) {
+      pos++;
+    }
+    if (pos == end) {
+      throw new IllegalArgumentException("Empty integer value in params: " + cs);
+    }
+    for (; pos < end; pos++) {
+      char c = cs.charAt(pos);
+      if (c < '0' || c > '9') {
+        throw new IllegalArgumentException("Invalid integer value in params: " + cs);
+      }
+      value = value * 10 + (c - '0');
+      if (value > (long) Integer.MAX_VALUE + 1) {
+        throw new IllegalArgumentException("Integer value out of range in params: " + cs);
+      }
+    }
+    value = negative ? -value : value;
+    if (value > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Integer value out of range in params: " + cs);
+    }
+    return (int) value;
+  }
+
+  /**
+   * Parses a plain decimal value. Exponents, NaN, infinity and long mantissas fall back to Double.parseDouble
+   * so the result is always identical to Double.parseDouble.
+   */
+  static double parseDouble(CharSequence cs, int start, int end) {
+    int pos = start;
+    boolean negative = pos < end && cs.charAt(pos) == '-';
+    if (negative || (pos < end && cs.charAt(pos) == '+')) {
+      pos++;
+    }
+    long mantissa = 0;
+    int fractionDigits = -1;
+    int digits = 0;
+    for (; pos < end; pos++) {
+      char c = cs.charAt(pos);
+      if (c >= '0' && c <= '9') {
+        mantissa = mantissa * 10 + (c - '0');
+        digits++;
+        if (fractionDigits >= 0) {
+          fractionDigits++;
+        }
+        if (mantissa >= MAX_EXACT_MANTISSA || fractionDigits >= POWERS_OF_TEN.length) {
+          return parseDoubleSlow(cs, start, end);
+        }
+      } else if (c == '.' && fractionDigits < 0) {
+        fractionDigits = 0;
+      } else {
+        return parseDoubleSlow(cs, start, end);
+      }
+    }
+    if (digits == 0) {
+      return parseDoubleSlow(cs, start, end);
+    }
+    // Both operands are exact so the division is correctly rounded like Double.parseDouble
+    double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : (double) mantissa;
+    return negative ? -value : value;
+  }
+
+  private static double parseDoubleSlow(CharSequence cs, int start, int end) {
+    try {
+      return Double.parseDouble(cs.subSequence(start, end).toString());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid decimal value in params: " + cs, e);
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.rosutils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Describes the typed fields of a mobility message strategy params string.
+ * The string form of a schema with type TYPE and fields KEY1 and KEY2 is TYPE|KEY1:value1,KEY2:value2
+ * where doubles are written with two decimal places as String.format("%.2f") would.
+ * The binary form is TYPE|# followed by the base64 encoding of the packed field values.
+ * A schema without a type has no TYPE| prefix.
+ * <p>
+ * Schemas are built once when a class is loaded and are read only afterwards.
+ * See StrategyParamsWriter and StrategyParamsReader.
+ */
+public final class StrategyParamsSchema {
+
+  /**
+   * The types of fields and their binary encoding
+   */
+  public enum FieldType {
+    /** ASCII text without commas written as one length byte and the characters */
+    STRING,
+    /** Decimal value with two fractional digits written as a 32 bit count of hundredths */
+    DOUBLE,
+    /** 32 bit integer */
+    INT
+  }
+
+  static final char TYPE_SEPARATOR = '|';
+  static final char FIELD_SEPARATOR = ',';
+  static final char KEY_SEPARATOR = ':';
+  static final char BINARY_MARKER = '#';
+
+  private final String type;
+  private final List<String> keys = new ArrayList<>();
+  private final List<FieldType> fieldTypes = new ArrayList<>();
+
+  /**
+   * @param type The type which prefixes the params or null if the params have no type
+   */
+  public StrategyParamsSchema(String type) {
+    this.type = type;
+  }
+
+  public StrategyParamsSchema addString(String key) {
+    return addField(key, FieldType.STRING);
+  }
+
+  public StrategyParamsSchema addDouble(String key) {
+    return addField(key, FieldType.DOUBLE);
+  }
+
+  public StrategyParamsSchema addInt(String key) {
+    return addField(key, FieldType.INT);
+  }
+
+  private StrategyParamsSchema addField(String key, FieldType fieldType) {
+    keys.add(key);
+    fieldTypes.add(fieldType);
+    return this;
+  }
+
+  /**
+   * @return The type which prefixes the params or null if the params have no type
+   */
+  public String getType() {
+    return type;
+  }
+
+  public int getFieldCount() {
+    return keys.size();
+  }
+
+  public String getKey(int index) {
+    return keys.get(index);
+  }
+
+  public FieldType getFieldType(int index) {
+    return fieldTypes.get(index);
+  }
+
+  /**
+   * Checks if a params string starts with the type of this schema followed by the type separator
+   * @param params The strategy params
+   * @return True if the params have the type of this schema. Always true for a schema without a type.
+   */
+  public boolean matchesType(CharSequence params) {
+    if (type == null) {
+      return true;
+    }
+    int length = type.length();
+    if (params.length() <= length || params.charAt(length) != TYPE_SEPARATOR) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (params.charAt(i) != type.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
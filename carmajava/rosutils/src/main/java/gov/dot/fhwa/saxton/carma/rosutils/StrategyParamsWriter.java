@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.rosutils;
+
+import java.util.Arrays;
+
+import gov.dot.fhwa.saxton.carma.rosutils.StrategyParamsSchema.FieldType;
+
+/**
+ * Writes strategy params for a StrategyParamsSchema without String.format.
+ * Field values are put in schema order between calls to begin and finish.
+ * The only allocation in steady state is the returned String.
+ * <p>
+ * The string form is understood by every version of the platform. The binary form is shorter
+ * but may only be enabled once every vehicle in the fleet uses a StrategyParamsReader.
+ * A writer reuses its buffers so it must not be shared between threads.
+ */
+public final class StrategyParamsWriter {
+
+  static final char[] BASE64_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+  private final StrategyParamsSchema schema;
+  private final boolean binary;
+  private final StringBuilder text = new StringBuilder(64);
+  private byte[] bytes = new byte[32];
+  private int byteCount = 0;
+  private int fieldIndex = 0;
+
+  /**
+   * @param schema The schema of the params
+   * @param binary True to write the binary form, false to write the string form
+   */
+  public StrategyParamsWriter(StrategyParamsSchema schema, boolean binary) {
+    this.schema = schema;
+    this.binary = binary;
+  }
+
+  public boolean isBinary() {
+    return binary;
+  }
+
+  /**
+   * Starts a new params string
+   */
+  public StrategyParamsWriter begin() {
+    text.setLength(0);
+    byteCount = 0;
+    fieldIndex = 0;
+    if (schema.getType() != null) {
+      text.append(schema.getType()).append(StrategyParamsSchema.TYPE_SEPARATOR);
+    }
+    if (binary) {
+      text.append(StrategyParamsSchema.BINARY_MARKER);
+    }
+    return this;
+  }
+
+  public StrategyParamsWriter putDouble(double value) {
+    nextField(FieldType.DOUBLE);
+    if (binary) {
+      double hundredths = Math.rint(value * 100.0);
+      if (!(Math.abs(hundredths) <= Integer.MAX_VALUE)) {
+        throw new IllegalArgumentException("Value " + value + " of " + schema.getKey(fieldIndex - 1) + " cannot be written in binary form");
+      }
+      writeInt((int) hundredths);
+    } else {
+      appendFixed2(text, value);
+    }
+    return this;
+  }
+
+  public StrategyParamsWriter putInt(int value) {
+    nextField(FieldType.INT);
+    if (binary) {
+      writeInt(value);
+    } else {
+      text.append(value);
+    }
+    return this;
+  }
+
+  public StrategyParamsWriter putString(CharSequence value) {
+    nextField(FieldType.STRING);
+    int length = value.length();
+    if (binary) {
+      if (length > 255) {
+        throw new IllegalArgumentException("Value of " + schema.getKey(fieldIndex - 1) + " is longer than 255 characters");
+      }
+      ensureBytes(length + 1);
+      bytes[byteCount++] = (byte) length;
+      for (int i = 0; i < length; i++) {
+        bytes[byteCount++] = (byte) value.charAt(i);
+      }
+    } else {
+      text.append(value);
+    }
+    return this;
+  }
+
+  /**
+   * Completes the params string
+   * @return The params string
+   * @throws IllegalStateException if not every field of the schema was written
+   */
+  public String finish() {
+    if (fieldIndex != schema.getFieldCount()) {
+      throw new IllegalStateException("Only " + fieldIndex + " of " + schema.getFieldCount() + " fields were written");
+    }
+    if (binary) {
+      appendBase64(text, bytes, byteCount);
+    }
+    return text.toString();
+  }
+
+  private void nextField(FieldType fieldType) {
+    if (fieldIndex >= schema.getFieldCount() || schema.getFieldType(fieldIndex) != fieldType) {
+      throw new IllegalStateException("Field " + fieldIndex + " of the schema is not a " + fieldType);
+    }
+    if (!binary) {
+      if (fieldIndex > 0) {
+        text.append(StrategyParamsSchema.FIELD_SEPARATOR);
+      }
+      text.append(schema.getKey(fieldIndex)).append(StrategyParamsSchema.KEY_SEPARATOR);
+    }
+    fieldIndex++;
+  }
+
+  private void writeInt(int value) {
+    ensureBytes(4);
+    bytes[byteCount++] = (byte) (value >>> 24);
+    bytes[byteCount++] = (byte) (value >>> 16);
+    bytes[byteCount++] = (byte) (value >>> 8);
+    bytes[byteCount++] = (byte) value;
+  }
+
+  private void ensureBytes(int count) {
+    if (byteCount + count > bytes.length) {
+      bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, byteCount + count));
+    }
+  }
+
+  /**
+   * Appends a double with two fractional digits. The output matches String.format("%.2f") in an English locale.
+   */
+  static void appendFixed2(StringBuilder sb, double value) {
+    double scaled = Math.abs(value) * 100.0;
+    long hundredths = (long) scaled;
+    double remainder = scaled - hundredths;
+    // The formatter rounds the shortest decimal form of the value half up, which differs from rounding
+    // the binary value only close to a tie such as 20.205. Those, NaN, infinite and very large values
+    // are rare enough to use the formatter.
+    if (!(scaled < 1e9) || Math.abs(remainder - 0.5) < 1e-6) {
+      sb.append(String.format("%.2f", value));
+      return;
+    }
+    if (remainder > 0.5) {
+      hundredths++;
+    }
+    // The formatter keeps the sign of negative values which round to zero
+    if (Double.doubleToRawLongBits(value) < 0) {
+      sb.append('-');
+    }
+    long fraction = hundredths % 100;
+    sb.append(hundredths / 100).append('.');
+    if (fraction < 10) {
+      sb.append('0');
+    }
+    sb.append(fraction);
+  }
+
+  static void appendBase64(StringBuilder sb, byte[] data, int length) {
+    int i = 0;
+    for (; i + 2 < length; i += 3) {
+      int group = ((data[i] & 0xFF) << 16) | ((data[i + 1] & 0xFF) << 8) | (data[i + 2] & 0xFF);
+      sb.append(BASE64_ALPHABET[group >>> 18]).append(BASE64_ALPHABET[(group >>> 12) & 0x3F])
+        .append(BASE64_ALPHABET[(group >>> 6) & 0x3F]).append(BASE64_ALPHABET[group & 0x3F]);
+    }
+    // The trailing group is written without padding
+    int remaining = length - i;
+    if (remaining == 1) {
+      int group = (data[i] & 0xFF) << 16;
+      sb.append(BASE64_ALPHABET[group >>> 18]).append(BASE64_ALPHABET[(group >>> 12) & 0x3F]);
+    } else if (remaining == 2) {
+      int group = ((data[i] & 0xFF) << 16) | ((data[i + 1] & 0xFF) << 8);
+      sb.append(BASE64_ALPHABET[group >>> 18]).append(BASE64_ALPHABET[(group >>> 12) & 0x3F])
+        .append(BASE64_ALPHABET[(group >>> 6) & 0x3F]);
+    }
+  }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.rosutils;
+
+import geometry_msgs.TransformStamped;
+import org.ros.message.Time;
+import org.ros.rosjava_geometry.Quaternion;
+import org.ros.rosjava_geometry.Transform;
+import org.ros.rosjava_geometry.Vector3;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time-stamped buffer of the transforms published on the tf topics
+ * <p>
+ * Each child frame keeps a short history of the transforms from its parent frame. A lookup walks
+ * from the child frame up to the requested parent frame and interpolates every edge at the
+ * requested stamp, so no get_transform service call is needed. Stamps outside of the history are
+ * answered with the closest available transform, which matches the behavior of the service when it
+ * reports COULD_NOT_EXTRAPOLATE.
+ */
+public class TransformBuffer {
+  private static final int MAX_FRAME_DEPTH = 32;
+
+  private final int historySize;
+  final Map<String, Edge> edges = new ConcurrentHashMap<>();
+
+  /**
+   * @param historySize The number of transforms kept for every non-static frame
+   */
+  public TransformBuffer(int historySize) {
+    this.historySize = Math.max(historySize, 1);
+  }
+
+  /**
+   * Add all transforms of a tf2 message to the buffer
+   *
+   * @param msg The message received on /tf or /tf_static
+   * @param isStatic True if the message was received on /tf_static
+   */
+  public void addTransforms(tf2_msgs.TFMessage msg, boolean isStatic) {
+    for (TransformStamped tf : msg.getTransforms()) {
+      addTransform(tf, isStatic);
+    }
+  }
+
+  /**
+   * Add a single transform to the buffer
+   *
+   * @param tf The stamped transform from its parent frame to its child frame
+   * @param isStatic True if the transform does not change over time
+   */
+  public void addTransform(TransformStamped tf, boolean isStatic) {
+    addTransform(tf.getHeader().getFrameId(), tf.getChildFrameId(), tf.getHeader().getStamp().totalNsecs(),
+        Transform.fromTransformMessage(tf.getTransform()), isStatic);
+  }
+
+  /**
+   * Add a single transform to the buffer
+   *
+   * @param parentFrame The frame id of the parent frame
+   * @param childFrame The frame id of the child frame
+   * @param stampNanos The time of the transform in ns
+   * @param transform The transform from the parent frame to the child frame
+   * @param isStatic True if the transform does not change over time
+   */
+  public void addTransform(String parentFrame, String childFrame, long stampNanos, Transform transform, boolean isStatic) {
+    Edge edge = edges.computeIfAbsent(stripSlash(childFrame), (frame) -> new Edge(historySize));
+    edge.add(stripSlash(parentFrame), stampNanos, transform, isStatic);
+  }
+
+  /**
+   * Get the transform from the parent frame to the child frame at the specified time
+   *
+   * @param parentFrame The frame id of the parent frame
+   * @param childFrame The frame id of the child frame
+   * @param stamp The time of the transform. A zero time returns the latest transform
+   *
+   * @return The transform or null if the frames are not connected in the buffer
+   */
+  public Transform lookupTransform(String parentFrame, String childFrame, Time stamp) {
+    String target = stripSlash(parentFrame);
+    String frame = stripSlash(childFrame);
+    long stampNanos = stamp == null ? 0 : stamp.totalNsecs();
+    Transform result = Transform.identity();
+    for (int depth = 0; !frame.equals(target); depth++) {
+      Edge edge = edges.get(frame);
+      if (edge == null || depth >= MAX_FRAME_DEPTH) {
+        return null;
+      }
+      synchronized (edge) {
+        Transform transform = edge.lookup(stampNanos);
+        if (transform == null) {
+          // The edge was created by a concurrent add which has not stored its transform yet
+          return null;
+        }
+        result = transform.multiply(result);
+        frame = edge.parentFrame;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Remove all transforms from the buffer
+   */
+  public void clear() {
+    edges.clear();
+  }
+
+  private static String stripSlash(String frame) {
+    return frame.startsWith("/") ? frame.substring(1) : frame;
+  }
+
+  /**
+   * Interpolate between two transforms
+   * The translation is interpolated linearly and the rotation along the shortest arc
+   *
+   * @param ratio The interpolation ratio in [0, 1] where 0 returns the first transform
+   */
+  static Transform interpolate(Transform first, Transform second, double ratio) {
+    Vector3 t0 = first.getTranslation();
+    Vector3 t1 = second.getTranslation();
+    Vector3 translation = t0.add(t1.subtract(t0).scale(ratio));
+
+    Quaternion q0 = first.getRotationAndScale();
+    Quaternion q1 = second.getRotationAndScale();
+    double dot = q0.getX() * q1.getX() + q0.getY() * q1.getY() + q0.getZ() * q1.getZ() + q0.getW() * q1.getW();
+    double sign = 1.0;
+    if (dot < 0.0) {
+      dot = -dot;
+      sign = -1.0;
+    }
+    double w0;
+    double w1;
+    if (dot > 0.9995) {
+      // Nearly parallel rotations are interpolated linearly to avoid the division by sin(theta)
+      w0 = 1.0 - ratio;
+      w1 = ratio;
+    } else {
+      double theta = Math.acos(dot);
+      double sinTheta = Math.sin(theta);
+      w0 = Math.sin((1.0 - ratio) * theta) / sinTheta;
+      w1 = Math.sin(ratio * theta) / sinTheta;
+    }
+    w1 *= sign;
+    double x = w0 * q0.getX() + w1 * q1.getX();
+    double y = w0 * q0.getY() + w1 * q1.getY();
+    double z = w0 * q0.getZ() + w1 * q1.getZ();
+    double w = w0 * q0.getW() + w1 * q1.getW();
+    double norm = Math.sqrt(x * x + y * y + z * z + w * w);
+    return new Transform(translation, new Quaternion(x / norm, y / norm, z / norm, w / norm));
+  }
+
+  /**
+   * History of the transforms from a parent frame to a single child frame
+   * Transforms are kept in a ring ordered by their stamps
+   */
+  static class Edge {
+    String parentFrame;
+    boolean isStatic = false;
+    final long[] stamps;
+    final Transform[] transforms;
+    int newest = -1;
+    int count = 0;
+
+    Edge(int size) {
+      stamps = new long[size];
+      transforms = new Transform[size];
+    }
+
+    synchronized void add(String parentFrame, long stampNanos, Transform transform, boolean isStatic) {
+      if (isStatic || this.isStatic || !parentFrame.equals(this.parentFrame)) {
+        // Static transforms and re-parented frames replace the history
+        count = 0;
+        newest = -1;
+      } else if (count > 0 && stampNanos < stamps[newest]) {
+        // Transforms out of order are dropped since tf publishers only move forward in time
+        return;
+      }
+      this.parentFrame = parentFrame;
+      this.isStatic = isStatic;
+      newest = (newest + 1) % stamps.length;
+      stamps[newest] = stampNanos;
+      transforms[newest] = transform;
+      count = Math.min(count + 1, stamps.length);
+    }
+
+    /**
+     * Must be called while holding the lock of this edge
+     *
+     * @return The transform at the stamp or null if the edge has no transforms yet
+     */
+    Transform lookup(long stampNanos) {
+      if (count == 0) {
+        return null;
+      }
+      if (isStatic || stampNanos == 0 || stampNanos >= stamps[newest]) {
+        return transforms[newest];
+      }
+      // Walk back from the newest transform, which is the common case of a recent stamp
+      int later = newest;
+      for (int i = 1; i < count; i++) {
+        int earlier = (newest - i + stamps.length) % stamps.length;
+        if (stamps[earlier] <= stampNanos) {
+          double ratio = (double) (stampNanos - stamps[earlier]) / (double) (stamps[later] - stamps[earlier]);
+          return interpolate(transforms[earlier], transforms[later], ratio);
+        }
+        later = earlier;
+      }
+      return transforms[later];
+    }
+  }
+}
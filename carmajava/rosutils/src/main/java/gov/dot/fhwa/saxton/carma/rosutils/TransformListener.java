@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.rosutils;
+
+import org.ros.message.Time;
+import org.ros.node.ConnectedNode;
+import org.ros.node.topic.Subscriber;
+import org.ros.rosjava_geometry.Transform;
+import tf2_msgs.TFMessage;
+
+/**
+ * Keeps a {@link TransformBuffer} up to date with the transforms published on /tf and /tf_static
+ * <p>
+ * Lets a node look up transforms locally instead of calling the get_transform service, which blocks
+ * the calling thread for a full service round trip.
+ */
+public class TransformListener {
+  public static final int DEFAULT_HISTORY_SIZE = 50;
+  // Several nodes publish on the tf topics so messages are queued rather than dropped while the buffer is updated
+  protected static final int TF_QUEUE_SIZE = 100;
+
+  protected final TransformBuffer buffer;
+  protected final Subscriber<TFMessage> tfSub;
+  protected final Subscriber<TFMessage> tfStaticSub;
+
+  /**
+   * Constructor which creates a buffer of the default size
+   *
+   * @param connectedNode The node used to subscribe to the tf topics
+   */
+  public TransformListener(ConnectedNode connectedNode) {
+    this(connectedNode, new TransformBuffer(DEFAULT_HISTORY_SIZE));
+  }
+
+  /**
+   * Constructor
+   *
+   * @param connectedNode The node used to subscribe to the tf topics
+   * @param buffer The buffer which will be filled with the received transforms
+   */
+  public TransformListener(ConnectedNode connectedNode, TransformBuffer buffer) {
+    this.buffer = buffer;
+    tfSub = connectedNode.newSubscriber("/tf", TFMessage._TYPE);
+    tfSub.addMessageListener((TFMessage msg) -> buffer.addTransforms(msg, false), TF_QUEUE_SIZE);
+    tfStaticSub = connectedNode.newSubscriber("/tf_static", TFMessage._TYPE);
+    tfStaticSub.addMessageListener((TFMessage msg) -> buffer.addTransforms(msg, true), TF_QUEUE_SIZE);
+  }
+
+  /**
+   * Get the transform from the parent frame to the child frame at the specified time
+   *
+   * @param parentFrame The frame id of the parent frame
+   * @param childFrame The frame id of the child frame
+   * @param stamp The time of the transform. A zero time returns the latest transform
+   *
+   * @return The transform or null if the frames have not been connected by the received transforms
+   */
+  public Transform lookupTransform(String parentFrame, String childFrame, Time stamp) {
+    return buffer.lookupTransform(parentFrame, childFrame, stamp);
+  }
+
+  /**
+   * Get the buffer holding the received transforms
+   */
+  public TransformBuffer getBuffer() {
+    return buffer;
+  }
+
+  /**
+   * Stop listening to the tf topics
+   */
+  public void shutdown() {
+    tfSub.shutdown();
+    tfStaticSub.shutdown();
+  }
+}
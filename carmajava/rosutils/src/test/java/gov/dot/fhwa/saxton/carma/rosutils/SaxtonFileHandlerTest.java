@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.rosutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SaxtonFileHandlerTest {
+
+  private static final int QUEUE_SIZE = 10;
+  private static final int NUM_RECORDS = 100;
+  private File logFile;
+
+  @Before
+  public void setup() throws IOException {
+    logFile = File.createTempFile("saxton_file_handler", ".log");
+  }
+
+  @After
+  public void cleanup() {
+    logFile.delete();
+    new File(logFile.getPath() + ".lck").delete();
+  }
+
+  @Test
+  public void testWritesAllRecords() throws Exception {
+    SaxtonFileHandler handler = createHandler(SaxtonFileHandler.DropPolicy.DROP_NEWEST);
+    for (int i = 0; i < QUEUE_SIZE; i++) {
+      handler.publish(new LogRecord(Level.INFO, "record " + i));
+    }
+    handler.close();
+
+    List<String> records = readRecords();
+    assertEquals(QUEUE_SIZE, records.size());
+    assertEquals("record 0", records.get(0));
+    assertEquals("record " + (QUEUE_SIZE - 1), records.get(QUEUE_SIZE - 1));
+    assertEquals(0, handler.getDroppedCount());
+  }
+
+  @Test
+  public void testDropNewest() throws Exception {
+    SaxtonFileHandler handler = createHandler(SaxtonFileHandler.DropPolicy.DROP_NEWEST);
+    publishWhileWriterBlocked(handler);
+
+    List<String> records = readRecords();
+    assertEquals(NUM_RECORDS, records.size() + handler.getDroppedCount());
+    assertTrue(handler.getDroppedCount() > 0);
+    assertTrue(records.contains("record 0"));
+    assertFalse(records.contains("record " + (NUM_RECORDS - 1)));
+    assertTrue(readLines().contains("SaxtonFileHandler dropped " + handler.getDroppedCount()
+      + " log records because its queue was full"));
+  }
+
+  @Test
+  public void testDropOldest() throws Exception {
+    SaxtonFileHandler handler = createHandler(SaxtonFileHandler.DropPolicy.DROP_OLDEST);
+    publishWhileWriterBlocked(handler);
+
+    List<String> records = readRecords();
+    assertEquals(NUM_RECORDS, records.size() + handler.getDroppedCount());
+    assertTrue(handler.getDroppedCount() > 0);
+    for (int i = NUM_RECORDS - QUEUE_SIZE; i < NUM_RECORDS; i++) {
+      assertTrue(records.contains("record " + i));
+    }
+  }
+
+  @Test
+  public void testIgnoresRecordsAfterClose() throws Exception {
+    SaxtonFileHandler handler = createHandler(SaxtonFileHandler.DropPolicy.DROP_NEWEST);
+    handler.close();
+    handler.publish(new LogRecord(Level.INFO, "record 0"));
+    assertTrue(readRecords().isEmpty());
+  }
+
+  /**
+   * Publishes more records than fit in the queue while the writer thread is blocked.
+   * The writer publishes each record to the underlying FileHandler, which synchronizes on the handler.
+   */
+  private void publishWhileWriterBlocked(SaxtonFileHandler handler) {
+    synchronized (handler) {
+      for (int i = 0; i < NUM_RECORDS; i++) {
+        handler.publish(new LogRecord(Level.INFO, "record " + i));
+      }
+    }
+    handler.close();
+  }
+
+  private SaxtonFileHandler createHandler(SaxtonFileHandler.DropPolicy dropPolicy) throws IOException {
+    SaxtonFileHandler handler = new SaxtonFileHandler(logFile.getPath(), QUEUE_SIZE, dropPolicy);
+    handler.setFormatter(new Formatter() {
+      @Override
+      public String format(LogRecord record) {
+        return record.getMessage() + System.lineSeparator();
+      }
+    });
+    return handler;
+  }
+
+  private List<String> readLines() throws IOException {
+    return Files.readAllLines(logFile.toPath(), StandardCharsets.UTF_8);
+  }
+
+  private List<String> readRecords() throws IOException {
+    List<String> records = new ArrayList<>();
+    for (String line : readLines()) {
+      if (line.startsWith("record ")) {
+        records.add(line);
+      }
+    }
+    return records;
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.rosutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SaxtonLoggerTest {
+
+  private RecordingLog baseLog;
+  private SaxtonLogger log;
+  private int suppliedCount;
+  private Supplier<String> message;
+
+  @Before
+  public void setup() {
+    baseLog = new RecordingLog();
+    log = new SaxtonLogger("SaxtonLoggerTest", baseLog);
+    suppliedCount = 0;
+    message = () -> {
+      suppliedCount++;
+      return "message";
+    };
+  }
+
+  @Test
+  public void testSuppliedMessages() throws Exception {
+    log.info(message);
+    log.warn("TAG", message);
+    assertEquals(2, suppliedCount);
+    assertEquals("SaxtonLoggerTest | NONE | message", baseLog.messages.get(0));
+    assertEquals("SaxtonLoggerTest | TAG | message", baseLog.messages.get(1));
+  }
+
+  @Test
+  public void testDisabledLevelsSkipMessages() throws Exception {
+    baseLog.debugEnabled = false;
+    log.debug(message);
+    log.debug("TAG", message);
+    log.debug("text");
+    assertEquals(0, suppliedCount);
+    assertTrue(baseLog.messages.isEmpty());
+    assertEquals(false, log.isDebugEnabled());
+
+    log.info("TAG", message);
+    assertEquals(1, suppliedCount);
+    assertEquals(1, baseLog.messages.size());
+  }
+
+  /**
+   * Log which records the messages logged at the enabled levels
+   */
+  private static class RecordingLog implements Log {
+    List<Object> messages = new ArrayList<>();
+    boolean debugEnabled = true;
+
+    private void record(boolean enabled, Object message) {
+      if (enabled) {
+        messages.add(message);
+      }
+    }
+
+    public boolean isDebugEnabled() { return debugEnabled; }
+    public boolean isErrorEnabled() { return true; }
+    public boolean isFatalEnabled() { return true; }
+    public boolean isInfoEnabled() { return true; }
+    public boolean isTraceEnabled() { return debugEnabled; }
+    public boolean isWarnEnabled() { return true; }
+    public void trace(Object message) { record(isTraceEnabled(), message); }
+    public void trace(Object message, Throwable t) { record(isTraceEnabled(), message); }
+    public void debug(Object message) { record(isDebugEnabled(), message); }
+    public void debug(Object message, Throwable t) { record(isDebugEnabled(), message); }
+    public void info(Object message) { record(true, message); }
+    public void info(Object message, Throwable t) { record(true, message); }
+    public void warn(Object message) { record(true, message); }
+    public void warn(Object message, Throwable t) { record(true, message); }
+    public void error(Object message) { record(true, message); }
+    public void error(Object message, Throwable t) { record(true, message); }
+    public void fatal(Object message) { record(true, message); }
+    public void fatal(Object message, Throwable t) { record(true, message); }
+  }
+}
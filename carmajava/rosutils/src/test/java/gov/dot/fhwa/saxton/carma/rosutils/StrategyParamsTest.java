@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.rosutils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs unit tests for the StrategyParamsWriter and StrategyParamsReader classes
+ */
+public class StrategyParamsTest {
+
+  StrategyParamsSchema infoSchema = new StrategyParamsSchema("INFO")
+    .addString("REAR").addDouble("LENGTH").addDouble("SPEED").addInt("SIZE").addDouble("DTD");
+  StrategyParamsSchema statusFieldsSchema = new StrategyParamsSchema(null)
+    .addDouble("CMDSPEED").addDouble("DTD").addDouble("SPEED");
+
+  /**
+   * Tests the string form matches String.format and can be read back
+   */
+  @Test
+  public void testStringForm() throws Exception {
+    StrategyParamsWriter writer = new StrategyParamsWriter(infoSchema, false);
+    double[] values = {0.0, 1.0, 5.005, 20.205, -0.001, -12.345, 123456.789, 2.675, 1e14 + 0.5};
+    for (double value : values) {
+      String expected = String.format("INFO|REAR:%s,LENGTH:%.2f,SPEED:%.2f,SIZE:%d,DTD:%.2f", "5c35acec", value, value, 3, value);
+      String params = writer.begin().putString("5c35acec").putDouble(value).putDouble(value).putInt(3).putDouble(value).finish();
+      assertEquals(expected, params);
+    }
+
+    StrategyParamsReader reader = new StrategyParamsReader(infoSchema);
+    reader.read("INFO|REAR:5c35acec,LENGTH:10.50,SPEED:-2.25,SIZE:3,DTD:1e3");
+    assertFalse(reader.isBinary());
+    assertEquals("5c35acec", reader.getString(0));
+    assertEquals(10.5, reader.getDouble(1), 0.0);
+    assertEquals(-2.25, reader.getDouble(2), 0.0);
+    assertEquals(3, reader.getInt(3));
+    assertEquals(1000.0, reader.getDouble(4), 0.0);
+
+    // The parsed values are identical to Double.parseDouble
+    for (String value : new String[] {"0.1", "20.00", "123.456", "-0.3", "9007199254740993", ".5"}) {
+      assertEquals(Double.parseDouble(value), StrategyParamsReader.parseDouble(value, 0, value.length()), 0.0);
+    }
+  }
+
+  /**
+   * Tests the binary form is shorter and carries the values with two decimal places
+   */
+  @Test
+  public void testBinaryForm() throws Exception {
+    StrategyParamsWriter writer = new StrategyParamsWriter(infoSchema, true);
+    String params = writer.begin().putString("5c35acec").putDouble(4.567).putDouble(-11.1).putInt(7).putDouble(2500.25).finish();
+    assertTrue(params.startsWith("INFO|#"));
+    assertTrue(params.length() < String.format("INFO|REAR:%s,LENGTH:%.2f,SPEED:%.2f,SIZE:%d,DTD:%.2f",
+      "5c35acec", 4.567, -11.1, 7, 2500.25).length());
+
+    StrategyParamsReader reader = new StrategyParamsReader(infoSchema);
+    reader.read(params);
+    assertTrue(reader.isBinary());
+    assertEquals("5c35acec", reader.getString(0));
+    assertEquals(4.57, reader.getDouble(1), 0.0);
+    assertEquals(-11.1, reader.getDouble(2), 0.0);
+    assertEquals(7, reader.getInt(3));
+    assertEquals(2500.25, reader.getDouble(4), 0.0);
+
+    // The fields after the type prefix are detected as binary as well
+    StrategyParamsWriter statusWriter = new StrategyParamsWriter(new StrategyParamsSchema("STATUS")
+      .addDouble("CMDSPEED").addDouble("DTD").addDouble("SPEED"), true);
+    String status = statusWriter.begin().putDouble(5.0).putDouble(20.0).putDouble(5.0).finish();
+    StrategyParamsReader statusReader = new StrategyParamsReader(statusFieldsSchema);
+    statusReader.read(status.substring("STATUS|".length()));
+    assertEquals(20.0, statusReader.getDouble(1), 0.0);
+  }
+
+  /**
+   * Tests a schema reads the prefix of params with more fields in both forms
+   */
+  @Test
+  public void testReadPrefix() throws Exception {
+    StrategyParamsSchema shortSchema = new StrategyParamsSchema("INFO")
+      .addString("REAR").addDouble("LENGTH").addDouble("SPEED").addInt("SIZE");
+    StrategyParamsReader reader = new StrategyParamsReader(shortSchema);
+    for (boolean binary : new boolean[] {false, true}) {
+      String params = new StrategyParamsWriter(infoSchema, binary).begin()
+        .putString("abc").putDouble(10.0).putDouble(5.0).putInt(2).putDouble(100.0).finish();
+      reader.read(params);
+      assertEquals("abc", reader.getString(0));
+      assertEquals(5.0, reader.getDouble(2), 0.0);
+      assertEquals(2, reader.getInt(3));
+    }
+  }
+
+  /**
+   * Tests params which do not match the schema are rejected
+   */
+  @Test
+  public void testInvalidParams() throws Exception {
+    StrategyParamsReader reader = new StrategyParamsReader(statusFieldsSchema);
+    String[] invalidParams = {
+      "CMDSPEED:1.00,DTD:50.00",
+      "CMDSPEED:1.00,DOWNTRACK:50.00,SPEED:1.00",
+      "CMDSPEED:1.00,DTD:abc,SPEED:1.00",
+      "CMDSPEED:1.00,DTD:,SPEED:1.00",
+      "#AAAA",
+      "#A*AA"
+    };
+    for (String params : invalidParams) {
+      try {
+        reader.read(params);
+        fail("Expected an exception for " + params);
+      } catch (IllegalArgumentException e) {
+        // Expected
+      }
+    }
+
+    try {
+      new StrategyParamsReader(infoSchema).read("STATUS|REAR:a,LENGTH:1.00,SPEED:1.00,SIZE:1,DTD:1.00");
+      fail("Expected an exception for the wrong type");
+    } catch (IllegalArgumentException e) {
+      // Expected
+    }
+
+    try {
+      new StrategyParamsWriter(statusFieldsSchema, false).begin().putDouble(1.0).finish();
+      fail("Expected an exception for missing fields");
+    } catch (IllegalStateException e) {
+      // Expected
+    }
+  }
+}
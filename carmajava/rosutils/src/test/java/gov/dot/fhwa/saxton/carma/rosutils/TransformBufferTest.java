@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.rosutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ros.message.Time;
+import org.ros.rosjava_geometry.Transform;
+
+public class TransformBufferTest {
+
+  private static final long NS_PER_S = 1000000000L;
+  private TransformBuffer buffer;
+
+  @Before
+  public void setup() {
+    buffer = new TransformBuffer(3);
+    buffer.addTransform("earth", "map", 0, Transform.translation(100, 0, 0), true);
+    buffer.addTransform("map", "odom", 0, Transform.zRotation(Math.PI / 2), true);
+    buffer.addTransform("odom", "base_link", 1 * NS_PER_S, Transform.translation(0, 0, 0), false);
+    buffer.addTransform("odom", "base_link", 2 * NS_PER_S, Transform.translation(10, 0, 0), false);
+    buffer.addTransform("/base_link", "/host_vehicle", 0, Transform.translation(1, 0, 0), true);
+  }
+
+  @Test
+  public void testChainLookup() {
+    Transform latest = buffer.lookupTransform("earth", "host_vehicle", new Time());
+    // The odom frame is rotated by 90 deg so forward motion moves along the y axis of the earth frame
+    Transform expected = Transform.translation(100, 0, 0)
+        .multiply(Transform.zRotation(Math.PI / 2))
+        .multiply(Transform.translation(10, 0, 0))
+        .multiply(Transform.translation(1, 0, 0));
+    assertTrue(expected.almostEquals(latest, 1e-9));
+    assertEquals(100.0, latest.getTranslation().getX(), 1e-9);
+    assertEquals(11.0, latest.getTranslation().getY(), 1e-9);
+
+    assertTrue(Transform.identity().almostEquals(buffer.lookupTransform("odom", "odom", new Time()), 1e-9));
+    assertNull(buffer.lookupTransform("earth", "unknown", new Time()));
+    assertNull(buffer.lookupTransform("host_vehicle", "earth", new Time()));
+  }
+
+  @Test
+  public void testLookupOfEmptyEdge() {
+    // An edge published by addTransform before its first transform is stored is treated as a missing frame
+    buffer.edges.put("trailer", new TransformBuffer.Edge(3));
+    assertNull(buffer.lookupTransform("odom", "trailer", new Time()));
+    assertNull(buffer.lookupTransform("odom", "trailer", Time.fromNano(1 * NS_PER_S)));
+
+    buffer.addTransform("base_link", "trailer", 1 * NS_PER_S, Transform.translation(-5, 0, 0), false);
+    assertEquals(5.0, buffer.lookupTransform("odom", "trailer", new Time()).getTranslation().getX(), 1e-9);
+  }
+
+  @Test
+  public void testInterpolation() {
+    Transform half = buffer.lookupTransform("odom", "base_link", Time.fromNano(1500000000L));
+    assertEquals(5.0, half.getTranslation().getX(), 1e-9);
+    // Stamps outside of the history return the closest transform
+    assertEquals(0.0, buffer.lookupTransform("odom", "base_link", Time.fromNano(500000000L)).getTranslation().getX(), 1e-9);
+    assertEquals(10.0, buffer.lookupTransform("odom", "base_link", Time.fromNano(3 * NS_PER_S)).getTranslation().getX(), 1e-9);
+
+    Transform rotation = TransformBuffer.interpolate(Transform.zRotation(0), Transform.zRotation(Math.PI / 2), 0.5);
+    assertTrue(Transform.zRotation(Math.PI / 4).almostEquals(rotation, 1e-9));
+  }
+
+  @Test
+  public void testBoundedHistory() {
+    buffer.addTransform("odom", "base_link", 3 * NS_PER_S, Transform.translation(20, 0, 0), false);
+    buffer.addTransform("odom", "base_link", 4 * NS_PER_S, Transform.translation(30, 0, 0), false);
+    // The first transform was overwritten so the oldest stamp is now 2 s
+    assertEquals(10.0, buffer.lookupTransform("odom", "base_link", Time.fromNano(1 * NS_PER_S)).getTranslation().getX(), 1e-9);
+    assertEquals(25.0, buffer.lookupTransform("odom", "base_link", Time.fromNano(3500000000L)).getTranslation().getX(), 1e-9);
+    // Transforms older than the newest are dropped
+    buffer.addTransform("odom", "base_link", 1 * NS_PER_S, Transform.translation(-10, 0, 0), false);
+    assertEquals(30.0, buffer.lookupTransform("odom", "base_link", new Time()).getTranslation().getX(), 1e-9);
+  }
+}
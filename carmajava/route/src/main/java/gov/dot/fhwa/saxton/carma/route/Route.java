@@ -22,6 +22,8 @@ import org.ros.message.Time;
 import gov.dot.fhwa.saxton.carma.geometry.cartesian.Point3D;
 import gov.dot.fhwa.saxton.carma.geometry.cartesian.Vector;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -38,6 +40,8 @@ public class Route {
   protected double maxJoinDistance = 20.0;
   protected List<RouteSegment> segments;
   protected List<RouteWaypoint> waypoints;
+  // Downtrack distance of the start of each segment followed by the route length. Rebuilt by calculateLength()
+  protected double[] segmentDowntracks = new double[] {0.0};
   protected boolean valid = false;
 
   /**
@@ -90,9 +94,9 @@ public class Route {
    * @return The route object
    */
   public static Route fromMessage(cav_msgs.Route routeMsg){
-    List<RouteWaypoint> waypoints = new LinkedList<>();
-
     List<cav_msgs.RouteSegment> segmentMsgs = routeMsg.getSegments();
+    List<RouteWaypoint> waypoints = new ArrayList<>(segmentMsgs.size() + 1);
+
     if (segmentMsgs.size() > 0) {
       waypoints.add(RouteWaypoint.fromMessage(segmentMsgs.get(0).getPrevWaypoint())); // Add the first waypoint
       for (cav_msgs.RouteSegment segmentMsg: routeMsg.getSegments()){
@@ -103,33 +107,74 @@ public class Route {
   }
 
   /**
-   * Calculates the length of a route
-   * @return the length of the route in meters
+   * Calculates the length of a route and the downtrack distance of the start of each segment
+   * Must be called whenever the list of segments is modified
    */
   protected void calculateLength(){
+    double[] downtracks = new double[segments.size() + 1];
     double totalLength = 0;
+    int i = 0;
 
     for(RouteSegment seg: segments) {
+      downtracks[i++] = totalLength;
       totalLength += seg.length();
     }
+    downtracks[i] = totalLength;
+    this.segmentDowntracks = downtracks;
     this.routeLength = totalLength;
   }
 
   /**
    * Calculates the distance downtrack to the end of the segment with the specified index.
    * The calculation is performed from the start of the segment with the specified startIndex
+   * If finalIndex is less than startIndex the length is 0
    * @param startIndex the index of the first segment to be included in the length calculation
    * @param finalIndex the index of the final segment to be included in the length calculation
    * @return the length of the route in meters
+   * @throws IndexOutOfBoundsException if either index does not refer to a segment when finalIndex >= startIndex
    */
   public double lengthOfSegments(int startIndex, int finalIndex){
-    double totalLength = 0;
-
-    for(int i = startIndex; i <= finalIndex; i++) {
-      totalLength += segments.get(i).length();
+    if (finalIndex < startIndex) {
+      return 0;
+    }
+    if (startIndex < 0 || finalIndex >= segments.size()) {
+      throw new IndexOutOfBoundsException("Segments " + startIndex + " to " + finalIndex + " are not on a route with "
+        + segments.size() + " segments");
     }
+    return segmentDowntracks[finalIndex + 1] - segmentDowntracks[startIndex];
+  }
+
+  /**
+   * Gets the downtrack distance of the start of the segment with the specified index
+   * @param segmentIndex the index of the segment. Passing the number of segments gives the route length
+   * @return the distance in meters from the start of the route to the start of the segment
+   */
+  public double getSegmentDowntrack(int segmentIndex) {
+    return segmentDowntracks[segmentIndex];
+  }
 
-    return totalLength;
+  /**
+   * Finds the index of the segment containing the provided downtrack distance using a binary search
+   * A segment contains all downtrack distances from its start (inclusive) to its end (exclusive).
+   * Distances before the start of the route map to the first segment.
+   * @param downtrack the distance in meters from the start of the route
+   * @return the index of the segment or -1 if the downtrack distance is at or beyond the end of the route
+   */
+  public int getSegmentIndexAtDowntrack(double downtrack) {
+    final int numSegments = segmentDowntracks.length - 1;
+    if (numSegments == 0 || !(downtrack < segmentDowntracks[numSegments])) {
+      return -1;
+    }
+    // Find the first segment whose end is past the downtrack distance
+    int index = Arrays.binarySearch(segmentDowntracks, 1, numSegments + 1, downtrack);
+    if (index >= 0) {
+      // Exactly on a segment end so the distance belongs to the next segment. Skip any zero length segments
+      while (segmentDowntracks[index] <= downtrack) {
+        index++;
+      }
+      return index - 1;
+    }
+    return -index - 2; // insertion point - 1
   }
 
   /**
@@ -256,7 +301,7 @@ public class Route {
     RouteWaypoint prevPrevWaypoint = null;
     boolean updatePreviousWP = false;
     // Build segments from waypoints
-    segments = new LinkedList<>(); // Clear currnet waypoints
+    segments = new ArrayList<>(); // Clear currnet waypoints
 
     for(RouteWaypoint waypoint: waypointList){
 
@@ -22,6 +22,7 @@ import gov.dot.fhwa.saxton.carma.rosutils.AlertSeverity;
 import gov.dot.fhwa.saxton.carma.rosutils.RosServiceSynchronizer;
 import gov.dot.fhwa.saxton.carma.rosutils.SaxtonBaseNode;
 import gov.dot.fhwa.saxton.carma.rosutils.SaxtonLogger;
+import gov.dot.fhwa.saxton.carma.rosutils.TransformListener;
 
 import org.ros.concurrent.CancellableLoop;
 import org.ros.exception.RemoteException;
@@ -79,6 +80,8 @@ public class RouteManager extends SaxtonBaseNode implements IRouteManager {
   protected RouteWorker routeWorker;
   // Used
   protected ServiceClient<cav_srvs.GetTransformRequest, cav_srvs.GetTransformResponse> getTransformClient;
+  // Transforms
+  protected TransformListener tfListener;
   
   protected boolean shutdownInitiated_ = false;
 
@@ -100,6 +103,9 @@ public class RouteManager extends SaxtonBaseNode implements IRouteManager {
     routeStatePub = connectedNode.newPublisher("route_state", cav_msgs.RouteState._TYPE);
     routeEventPub = connectedNode.newPublisher("route_event", cav_msgs.RouteEvent._TYPE);
 
+    // Transforms are buffered locally so lookups do not wait on the get_transform service
+    tfListener = new TransformListener(connectedNode);
+
     // Worker must be initialized after publishers but before subscribers
     String packagePath = params.getString("package_path");
     String databasePath = params.getString("~default_database_path");
@@ -257,6 +263,26 @@ public class RouteManager extends SaxtonBaseNode implements IRouteManager {
   }
 
   @Override public Transform getTransform(String parentFrame, String childFrame, Time stamp) {
+    Transform tf = tfListener.lookupTransform(parentFrame, childFrame, stamp);
+    if (tf != null) {
+      return tf;
+    }
+    // Fall back on the service until the frames have been received on the tf topics
+    return requestTransform(parentFrame, childFrame, stamp);
+  }
+
+  /**
+   * Gets a transform from the get_transform service, blocking until the service responds
+   *
+   * @param parentFrame Frame Id of parent frame
+   * @param childFrame Frame Id of child frame
+   * @param stamp The time which this transform should correspond to
+   * @return The transform or null if the service could not provide it
+   */
+  protected Transform requestTransform(String parentFrame, String childFrame, Time stamp) {
+    if (getTransformClient == null) {
+      return null;
+    }
     final GetTransformRequest req = getTransformClient.newMessage();
     req.setParentFrame(parentFrame);
     req.setChildFrame(childFrame);
@@ -109,6 +109,36 @@ public class RouteTest {
     System.out.println("\n\n");
   }
 
+  /**
+   * Tests the cumulative downtrack lookups against a linear walk of the route segments
+   * @throws Exception
+   */
+  @Test
+  public void testSegmentIndexAtDowntrack() throws Exception {
+    FileStrategy fS = new FileStrategy("src/test/resources/routes/SB_Platoon_65mph.yaml", log);
+    Route route = Route.fromMessage(fS.load().toMessage(messageFactory)); // Load route with waypoint ids assigned.
+    List<RouteSegment> segments = route.getSegments();
+
+    double dtdAccum = 0;
+    for (int i = 0; i < segments.size(); i++) {
+      assertEquals(dtdAccum, route.getSegmentDowntrack(i), 0.000001);
+      assertEquals(dtdAccum, route.lengthOfSegments(0, i - 1), 0.000001);
+      // Segment starts belong to the segment and a point just before the end belongs to it as well
+      if (segments.get(i).length() > 0.0) {
+        assertEquals(i, route.getSegmentIndexAtDowntrack(route.getSegmentDowntrack(i)));
+        assertEquals(i, route.getSegmentIndexAtDowntrack(dtdAccum + segments.get(i).length() * 0.99));
+      }
+      dtdAccum += segments.get(i).length();
+    }
+    assertEquals(route.getRouteLength(), route.getSegmentDowntrack(segments.size()), 0.0);
+    assertEquals(route.getRouteLength(), route.lengthOfSegments(0, segments.size() - 1), 0.000001);
+    assertEquals(segments.get(5).length() + segments.get(6).length(), route.lengthOfSegments(5, 6), 0.000001);
+
+    assertEquals(0, route.getSegmentIndexAtDowntrack(-10.0));
+    assertEquals(-1, route.getSegmentIndexAtDowntrack(route.getRouteLength()));
+    assertEquals(-1, route.getSegmentIndexAtDowntrack(route.getRouteLength() + 10.0));
+  }
+
   /**
    * Calculates the extra point to make two routes have equal length
    * Assumes route assignments are correct (long vs short)
@@ -21,15 +21,13 @@ import gov.dot.fhwa.saxton.carma.geometry.cartesian.Point3D;
 import gov.dot.fhwa.saxton.carma.geometry.geodesic.Location;
 import gov.dot.fhwa.saxton.carma.rsumetering.IRSUMeteringState;
 import gov.dot.fhwa.saxton.carma.rsumetering.PlatoonData;
-import gov.dot.fhwa.saxton.carma.rosutils.MobilityHelper;
 import gov.dot.fhwa.saxton.carma.rosutils.SaxtonLogger;
+import gov.dot.fhwa.saxton.carma.rosutils.StrategyParamsReader;
+import gov.dot.fhwa.saxton.carma.rosutils.StrategyParamsSchema;
 import gov.dot.fhwa.saxton.carma.route.FileStrategy;
 import gov.dot.fhwa.saxton.carma.route.Route;
 import gov.dot.fhwa.saxton.carma.route.RouteSegment;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -77,7 +75,10 @@ public class RSUMeterWorker {
   protected final static String COOPERATIVE_MERGE_STRATEGY = "Carma/CooperativeMerge";
   protected final String PLATOON_INFO_PARAMS = "INFO|REAR:%s,LENGTH:%.2f,SPEED:%.2f,SIZE:%d"; // Sent every three seconds 
   protected final String INFO_TYPE_PARAM = "INFO";
-  protected final List<String> INFO_STRATEGY_PARAMS = new ArrayList<>(Arrays.asList("REAR", "LENGTH", "SPEED", "SIZE"));
+  protected final static StrategyParamsSchema INFO_STRATEGY_SCHEMA = new StrategyParamsSchema("INFO")
+    .addString("REAR").addDouble("LENGTH").addDouble("SPEED").addInt("SIZE");
+  // Only used from the mobility operation callback
+  private final StrategyParamsReader infoReader = new StrategyParamsReader(INFO_STRATEGY_SCHEMA);
   
   protected final ConcurrentMap<String, PlatoonData> platoonMap = new ConcurrentHashMap<>();
   protected final ConcurrentMap<String, BSM> bsmMap = new ConcurrentHashMap<>();
@@ -257,16 +258,15 @@ public class RSUMeterWorker {
   private void updatePlatoonWithOperationMsg(MobilityOperation msg) {
 
     String strategyParams = msg.getStrategyParams();
-    List<String> paramsArray;
     try {
-      paramsArray = MobilityHelper.extractStrategyParams(strategyParams, INFO_TYPE_PARAM, INFO_STRATEGY_PARAMS);
+      infoReader.read(strategyParams);
     } catch(IllegalArgumentException e) {
       log.warn("Bad operations strategy string received. Generated exception: " + e);
       return;
     }
     
-    double platoonSpeed = Double.parseDouble(paramsArray.get(2));
-    String rearBsmId = paramsArray.get(0);
+    double platoonSpeed = infoReader.getDouble(2);
+    String rearBsmId = infoReader.getString(0);
     BSM cachedMsg = bsmMap.get(rearBsmId);
     // If we don't have a BSM for this rear vehicle then no value in tracking platoon
     if (cachedMsg == null) {
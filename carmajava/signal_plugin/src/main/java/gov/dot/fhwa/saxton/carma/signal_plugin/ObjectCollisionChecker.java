@@ -1,6 +1,7 @@
 package gov.dot.fhwa.saxton.carma.signal_plugin;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -13,6 +14,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import org.ros.message.Time;
 
 import cav_msgs.RoadwayObstacle;
+import gov.dot.fhwa.saxton.carma.geometry.cartesian.spatialstructure.ISpatialStructure;
 import gov.dot.fhwa.saxton.carma.geometry.cartesian.spatialstructure.ISpatialStructureFactory;
 import gov.dot.fhwa.saxton.carma.geometry.cartesian.spatialstructure.NSpatialHashMapFactory;
 import gov.dot.fhwa.saxton.carma.guidance.ArbitratorService;
@@ -45,6 +47,8 @@ public class ObjectCollisionChecker implements INodeCollisionChecker {
   // Tracked objects
   Map<Integer, PriorityQueue<RoadwayObstacle>> trackedLaneObjectsHistory = new HashMap<>();  
   Map<Integer, List<RoutePointStamped>> trackedLaneObjectsPredictions = new HashMap<>();
+  // Spatial structures of the current object predictions. Replaced as a whole each time updateObjects is called
+  private final AtomicReference<List<IndexedPrediction>> indexedPredictions = new AtomicReference<>(Collections.emptyList());
 
   private final AtomicReference<List<RoutePointStamped>> interpolatedHostPlan = new AtomicReference<>(new LinkedList<>()); // Current Host Plan
 
@@ -200,6 +204,9 @@ public class ObjectCollisionChecker implements INodeCollisionChecker {
       trackedLaneObjectsPredictions.remove(objId);
     }
 
+    // Index the new predictions once so that collision checks do not need to rebuild them
+    indexedPredictions.set(indexPredictions());
+
     // Check for collisions using new object data
     
 
@@ -268,6 +275,31 @@ public class ObjectCollisionChecker implements INodeCollisionChecker {
     interpolatedHostPlan.set(hostPlanPoints);
   }
 
+  /**
+   * Helper function to build a spatial structure for each current object prediction
+   * 
+   * @return An unmodifiable list of the indexed predictions
+   */
+  private List<IndexedPrediction> indexPredictions() {
+    List<IndexedPrediction> indexed = new ArrayList<>(trackedLaneObjectsPredictions.size());
+    for (List<RoutePointStamped> objPlan: trackedLaneObjectsPredictions.values()) {
+      if (objPlan.isEmpty()) {
+        continue;
+      }
+      double dynamicTimeMargin = timeMargin;
+      // Compute an estimated time margin to ensure overlap of collision bounds
+      if (objPlan.size() > 1) {
+        // TODO this assumes linear regression used for motion prediction resulting in constant slope
+        // The time margin should be half delta t plus a small bit of overlap
+        dynamicTimeMargin = ((objPlan.get(1).getStamp() - objPlan.get(0).getStamp()) / 2.0) + 0.0001;
+      }
+      ISpatialStructure structure = conflictDetector.buildPathStructure(objPlan, structureFactory.buildSpatialStructure(),
+        downtrackMargin, crosstrackMargin, dynamicTimeMargin);
+      indexed.add(new IndexedPrediction(structure, dynamicTimeMargin));
+    }
+    return Collections.unmodifiableList(indexed);
+  }
+
   /**
    * Helper function to check collisions between predicted object trajectories and the provided plan
    * 
@@ -277,22 +309,17 @@ public class ObjectCollisionChecker implements INodeCollisionChecker {
    */
   private boolean checkCollision(List<RoutePointStamped> routePlan) {
     // Check the proposed trajectory against all tracked objects for collisions
-    for (Entry<Integer, List<RoutePointStamped>> objPrediction: trackedLaneObjectsPredictions.entrySet()) {
-      List<RoutePointStamped> objPlan = objPrediction.getValue();
-      double dynamicTimeMargin = timeMargin;
-      // Compute an estimated time margin to ensure overlap of collision bounds
-      if (objPrediction.getValue().size() > 1) {
-        // TODO this assumes linear regression used for motion prediction resulting in constant slope
-        // The time margin should be half delta t plus a small bit of overlap
-        dynamicTimeMargin = ((objPlan.get(1).getStamp() - objPlan.get(0).getStamp()) / 2.0) + 0.0001;
+    for (IndexedPrediction prediction: indexedPredictions.get()) {
+      List<ConflictSpace> conflictSpaces;
+      // Spatial structures reuse internal buffers during queries so concurrent checks must be serialized
+      synchronized (prediction.structure) {
+        conflictSpaces = conflictDetector.getConflicts(
+          routePlan, prediction.structure,
+          downtrackMargin, crosstrackMargin, prediction.timeMargin,
+          longitudinalBias, lateralBias, temporalBias
+        );
       }
-      // Check for conflicts against each object and return true if any conflict is found
-      List<ConflictSpace> conflictSpaces = conflictDetector.getConflicts(
-        routePlan, objPlan, structureFactory.buildSpatialStructure(),
-        downtrackMargin, crosstrackMargin, dynamicTimeMargin,
-        longitudinalBias, lateralBias, temporalBias
-      );
-      
+      // Return true if any conflict is found
       if (!conflictSpaces.isEmpty()) {
        // System.out.println("ConflictSpaces: " + conflictSpaces);
         return true;
@@ -321,4 +348,18 @@ public class ObjectCollisionChecker implements INodeCollisionChecker {
     return hasCollision; // Check for collisions with tracked objects
 
   }
+
+  /**
+   * An object prediction which has been inserted into a spatial structure
+   * The structure is not modified after construction
+   */
+  private static final class IndexedPrediction {
+    final ISpatialStructure structure;
+    final double timeMargin;
+
+    IndexedPrediction(ISpatialStructure structure, double timeMargin) {
+      this.structure = structure;
+      this.timeMargin = timeMargin;
+    }
+  }
 }
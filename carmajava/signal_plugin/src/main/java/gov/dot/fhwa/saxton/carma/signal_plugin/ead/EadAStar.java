@@ -48,6 +48,8 @@ public class EadAStar implements IEad {
     protected double                    fineSpeedInc_;              //speed increment for detailed planning, m/s                                                        
     protected double                    maxDistanceError_;          //max allowable deviation from plan, m
     protected boolean                   replanNeeded_ = true;       //do we need to replan the trajectory?
+    protected long                      planningBudget_;            //wall clock budget for one call to plan(), ms (0 = unlimited)
+    protected double                    suboptimalityBound_ = 1.0;  //bound on the cost of the last detailed path relative to optimal
 
 
     protected String                    desiredFuelCostModel_;
@@ -74,6 +76,7 @@ public class EadAStar implements IEad {
         fineTimeInc_ = config.getDoubleDefaultValue("ead.fine_time_inc", 2.0);
         fineSpeedInc_ = config.getDoubleDefaultValue("ead.fine_speed_inc", 1.0);
         desiredFuelCostModel_ = config.getProperty("ead.desiredCostModel");
+        planningBudget_ = config.getDefaultIntValue("ead.planningBudget", 0);
         //set the max distance error to be half the typical distance between nodes a nominal speed
         speedLimit_ = (double)config.getMaximumSpeed(0.0) / Constants.MPS_TO_MPH;
         fractionalMaxAccel_ = maxAccel_ * 0.75;
@@ -89,6 +92,16 @@ public class EadAStar implements IEad {
     public List<Node> getCurrentPath() {
         return currentPath_;
     }
+
+    /**
+     * Returns the suboptimality bound of the last detailed path
+     * This is 1.0 unless an IAnytimeTreeSolver was stopped by the planning budget before it proved its path optimal
+     *
+     * @return The factor by which the cost of the last detailed path may exceed the optimal cost
+     */
+    public double getSuboptimalityBound() {
+        return suboptimalityBound_;
+    }
     
     @Override
     public void initialize(long timestep, ITreeSolver solver) {
@@ -269,6 +282,16 @@ public class EadAStar implements IEad {
         log_.debug("EAD", "Detailed path attempted to reach goal: " + goal.toString());
     }
 
+    /**
+     * Sets the deadline of the tree solver if it supports one
+     * @param deadline - wall clock deadline, ms since epoch
+     */
+    protected void setSolverDeadline(long deadline) {
+        if (solver_ instanceof IAnytimeTreeSolver) {
+            ((IAnytimeTreeSolver) solver_).setDeadline(deadline);
+        }
+    }
+
     /**
      * Intended for use in testing only!  Sets up the objects memory of previous call.
      * @param cmd - the speed command from the previous iteration
@@ -321,14 +344,23 @@ public class EadAStar implements IEad {
         currentNodeIndex_ = 0;
         currentPath_ = null;
 
+        //the coarse plan is allowed up to half of the planning budget and the detailed plan gets whatever remains
+        long deadline = planningBudget_ > 0 ? methodStartTime + planningBudget_ : Long.MAX_VALUE;
+        setSolverDeadline(planningBudget_ > 0 ? methodStartTime + planningBudget_ / 2 : Long.MAX_VALUE);
+
         //perform coarse planning to determine the goal node downtrack of the first intersection [planCoarsePath]
         goal = planCoarsePath(operSpeed, startNode, startTime, startDowntrack);
+        setSolverDeadline(deadline);
 
         //build a detailed plan to reach the near-term goal node downtrack of first intersection [planDetailedPath]
         try {
             FinePathNeighbors.numCollisions = 0; // TODO remove this variable
             currentPath_ = planDetailedPath(startNode, goal, startTime, startDowntrack);
             log_.info("EAD", "NumCollisions: " + FinePathNeighbors.numCollisions);
+            if (solver_ instanceof IAnytimeTreeSolver) {
+                suboptimalityBound_ = ((IAnytimeTreeSolver) solver_).getSuboptimalityBound();
+                log_.info("EAD", "Detailed path suboptimality bound: " + suboptimalityBound_);
+            }
         }catch (Exception e) {
             log_.warn("EAD", "plan trapped exception from planDetailedPath: ", e);
             throw e;
@@ -19,6 +19,7 @@ import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +39,10 @@ import gov.dot.fhwa.saxton.carma.signal_plugin.logger.LoggerManager;
  * It assumes a flat roadway (no grade) and uniform acceleration between the given nodes.
  * It also assumes acceleration <= -2.0 corresponds to deceleration
  * It also assumes that unknown operating modes have a cost equal to the highest cost present in the provided tables
+ *
+ * The energy column of the base rate table is compiled into an array indexed by operating mode when the model is loaded.
+ * Since the cost only depends on the quantized speeds of the two nodes and the time between them, the operating mode of
+ * each (speed, next speed, time step) triple is cached after it is first computed so repeated edges are two array reads.
  */
 public class MovesFuelCostModel implements ICostModel {
 
@@ -51,13 +56,21 @@ public class MovesFuelCostModel implements ICostModel {
     private final double dragTermC;
     private final double vehicleMassInTons;
     private final double fixedMassFactor;
-    private final Map<Integer,List<Double>> baseRateTable;
+    private final double[] energyRateByOpMode; // J/s indexed by operating mode
     private final int BASE_RATE_ENERGY_COL = 4;
     private final double ROAD_GRADE = 0.0; // By default we assume the road is flat. 0.0 in rad
     private final int EXPECTED_BASE_RATE_TABLE_LENGTH = 7; // Number of columns in the energy consumption table
     private final double SEC_PER_HR = 3600.0;
     private final double J_PER_KJ = 1000.0;
     private final double DEFAULT_PEAK_ENERGY_KJ; // The highest cost found in the energy consumption table
+    private final int MAX_OP_MODE = 40; // Highest operating mode returned by getModeConditional
+
+    // Operating mode cache indexed by the internal units of (n1 speed, n2 speed, n2 time - n1 time)
+    // Triples outside these limits are computed directly
+    private static final int CACHED_SPEEDS = 64;
+    private static final int CACHED_TIME_STEPS = 64;
+    private static final byte UNKNOWN_MODE = -2;
+    private final byte[] opModeCache = new byte[CACHED_SPEEDS * CACHED_SPEEDS * CACHED_TIME_STEPS];
 
     private int numCosts = 0;
     protected static final ILogger log = LoggerManager.getLogger(FuelCostModel.class);
@@ -83,17 +96,27 @@ public class MovesFuelCostModel implements ICostModel {
         this.dragTermC = dragTermC;
         this.vehicleMassInTons = vehicleMassInTons;
         this.fixedMassFactor = fixedMassFactor;
-        this.baseRateTable = loadTable(baseRateTablePath); // Load the base rates table
+        final Map<Integer,List<Double>> baseRateTable = loadTable(baseRateTablePath); // Load the base rates table
 
         // Find the highest energy cost in the table and store it for use when values fall outside table scope
         double maxValue = 0; 
-        for(Entry<Integer, List<Double>> entry: this.baseRateTable.entrySet()) {
+        for(Entry<Integer, List<Double>> entry: baseRateTable.entrySet()) {
             if (entry.getValue().get(BASE_RATE_ENERGY_COL) > maxValue) {
                 maxValue = entry.getValue().get(BASE_RATE_ENERGY_COL);
             }
         }
 
         this.DEFAULT_PEAK_ENERGY_KJ = maxValue;
+
+        // Compile the energy column into J/s so a cost is a single multiplication by dt
+        // Operating modes missing from the table are treated as unknown and use the peak cost
+        this.energyRateByOpMode = new double[MAX_OP_MODE + 1];
+        for (int opMode = 0; opMode <= MAX_OP_MODE; opMode++) {
+            final List<Double> baseRateList = baseRateTable.get(opMode);
+            final double energyKJPerHr = baseRateList != null ? baseRateList.get(BASE_RATE_ENERGY_COL) : DEFAULT_PEAK_ENERGY_KJ;
+            this.energyRateByOpMode[opMode] = J_PER_KJ * (energyKJPerHr / SEC_PER_HR);
+        }
+        Arrays.fill(opModeCache, UNKNOWN_MODE);
     }
 
     /**
@@ -169,6 +192,60 @@ public class MovesFuelCostModel implements ICostModel {
             ++numCosts;
         }
 
+        final double dt = n2.getTimeAsDouble() - n1.getTimeAsDouble(); // Change in time in seconds
+        final int opMode = getOpMode(n1, n2, dt);
+
+        // Return the highest cost which would still be in the table when our result is in the undefined region
+        // Additionally log the occurrence
+        if (opMode == -1) {
+            log.debug("EAD", "Invalid operating mode found for MOVES cost calculation. Using highest known cost in table: " + DEFAULT_PEAK_ENERGY_KJ + " KJ");
+            log.debug("EAD", "    Node 1: " + n1.toString());
+            log.debug("EAD", "    Node 2: " + n2.toString());
+            return J_PER_KJ * ((DEFAULT_PEAK_ENERGY_KJ / SEC_PER_HR) * dt);
+        }
+
+        return energyRateByOpMode[opMode] * dt; // Return the energy in J by multiplying J/s by dt
+    }
+
+    /**
+     * Helper function returns the operating mode used to travel between two valid nodes
+     * The result is read from the operating mode cache when the speeds and time step of the nodes are in its range
+     * 
+     * @param n1 First node
+     * @param n2 Second node
+     * @param dt The time between the nodes in seconds
+     * 
+     * @return The operating mode or -1 if the mode is undefined
+     */
+    private int getOpMode(Node n1, Node n2, double dt) {
+        final long speed1 = n1.getSpeed();
+        final long speed2 = n2.getSpeed();
+        final long timeStep = n2.getTime() - n1.getTime();
+        if (speed1 >= CACHED_SPEEDS || speed2 >= CACHED_SPEEDS || timeStep >= CACHED_TIME_STEPS) {
+            return computeOpMode(n1, n2, dt);
+        }
+
+        final int index = (int) ((speed1 * CACHED_SPEEDS + speed2) * CACHED_TIME_STEPS + timeStep);
+        int opMode = opModeCache[index];
+        if (opMode == UNKNOWN_MODE) {
+            opMode = computeOpMode(n1, n2, dt);
+            // Concurrent writers can only store the same value so no synchronization is needed
+            opModeCache[index] = (byte) opMode;
+        }
+        return opMode;
+    }
+
+    /**
+     * Helper function computes the operating mode used to travel between two valid nodes from their vehicle specific power
+     * Calculation based on UCR MOVES Brief
+     * 
+     * @param n1 First node
+     * @param n2 Second node
+     * @param dt The time between the nodes in seconds
+     * 
+     * @return The operating mode or -1 if the mode is undefined
+     */
+    private int computeOpMode(Node n1, Node n2, double dt) {
         // Get VSP
         final double A = rollingTermA;
         final double B = rotatingTermB;
@@ -178,7 +255,6 @@ public class MovesFuelCostModel implements ICostModel {
         final double g = 9.8; // Acceleration due to gravity = 9.8 m/s^2
         final double v = n2.getSpeedAsDouble(); // We are using the target node's velocity
         final double v_sqr = v*v;
-        final double dt = n2.getTimeAsDouble() - n1.getTimeAsDouble(); // Change in time in seconds
         final double a = (v - n1.getSpeedAsDouble()) / dt; // a = dV / dt : We are using the acceleration to get from current speed to target speed
         final double theta = ROAD_GRADE; 
 
@@ -186,21 +262,7 @@ public class MovesFuelCostModel implements ICostModel {
         final double VSP = (A*v + B*v_sqr + C*v_sqr*v + M*v*(a + g * Math.sin(theta))) / f;
 
         // Determine Operating Mode from OpModeTable
-        final int opMode = getModeConditional(VSP, v, a);
-
-        // Return the highest cost which would still be in the table when our result is in the undefined region
-        // Additionally log the occurrence
-        if (opMode == -1) {
-            log.debug("EAD", "Invalid operating mode found for MOVES cost calculation. Using highest known cost in table: " + DEFAULT_PEAK_ENERGY_KJ + " KJ");
-            log.debug("EAD", "    Node 1: " + n1.toString());
-            log.debug("EAD", "    Node 2: " + n2.toString());
-            return J_PER_KJ * ((DEFAULT_PEAK_ENERGY_KJ / SEC_PER_HR) * dt);
-        }
-
-        // Get Parameters
-        final List<Double> baseRateList = baseRateTable.get(opMode);
-
-        return J_PER_KJ * ((baseRateList.get(BASE_RATE_ENERGY_COL) / SEC_PER_HR) * dt); // Return the energy in J by converting KJ/hr to KJ/s and multiplying by dt and J/KJ
+        return getModeConditional(VSP, v, a);
     }
 
     /**
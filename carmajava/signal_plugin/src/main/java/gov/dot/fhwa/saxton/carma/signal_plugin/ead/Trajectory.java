@@ -24,6 +24,9 @@ import gov.dot.fhwa.saxton.carma.signal_plugin.asd.map.MapMessage;
 import gov.dot.fhwa.saxton.carma.signal_plugin.asd.spat.ISpatMessage;
 import gov.dot.fhwa.saxton.carma.signal_plugin.appcommon.IGlidepathAppConfig;
 import gov.dot.fhwa.saxton.carma.signal_plugin.ead.trajectorytree.AStarSolver;
+import gov.dot.fhwa.saxton.carma.signal_plugin.ead.trajectorytree.AnytimeAStarSolver;
+import gov.dot.fhwa.saxton.carma.signal_plugin.ead.trajectorytree.ITreeSolver;
+import gov.dot.fhwa.saxton.carma.signal_plugin.ead.trajectorytree.IndexedAStarSolver;
 import gov.dot.fhwa.saxton.carma.signal_plugin.ead.trajectorytree.Node;
 import gov.dot.fhwa.saxton.carma.signal_plugin.logger.ILogger;
 import gov.dot.fhwa.saxton.carma.signal_plugin.logger.LoggerManager;
@@ -132,9 +135,24 @@ public class Trajectory implements ITrajectory {
 		
 		ead_ = eadModel;
 
+		//get the desired tree solver from the config file
+		String solverName = config.getProperty("ead.treeSolver");
+		ITreeSolver solver;
+		if ("INDEXED_ASTAR".equals(solverName)) {
+			solver = new IndexedAStarSolver();
+		}else if ("ANYTIME_ASTAR".equals(solverName)) {
+			double initialEpsilon = config.getDoubleDefaultValue("ead.anytime.initialEpsilon", 3.0);
+			double epsilonStep = config.getDoubleDefaultValue("ead.anytime.epsilonStep", 0.5);
+			log_.infof("TRAJ", "anytime initialEpsilon = %.2f, epsilonStep = %.2f", initialEpsilon, epsilonStep);
+			solver = new AnytimeAStarSolver(initialEpsilon, epsilonStep);
+		}else {
+			solver = new AStarSolver();
+		}
+		log_.infof("TRAJ", "Using tree solver %s", solver.getClass().getSimpleName());
+
 		//pass config parameters to the EAD library
 		try {
-			ead_.initialize(timeStepSize_, new AStarSolver());
+			ead_.initialize(timeStepSize_, solver);
 		} catch (Exception e) {
 			log_.errorf("TRAJ", "Exception thrown by EAD library initialize(). maxJerk = %f, speedLimit = %f",
 					maxJerk_, speedLimit_);
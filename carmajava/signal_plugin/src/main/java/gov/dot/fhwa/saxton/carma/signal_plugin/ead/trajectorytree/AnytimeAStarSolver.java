@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.signal_plugin.ead.trajectorytree;
+
+import gov.dot.fhwa.saxton.carma.signal_plugin.logger.ILogger;
+import gov.dot.fhwa.saxton.carma.signal_plugin.logger.LoggerManager;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Implements the Anytime Repairing A* (ARA*) algorithm which can operate on nodes with distance, time, speed states
+ * The cost, heuristic, and goal is provided by the ICostModel
+ * The neighbors of a node is provided by the INeighborCalculator
+ *
+ * The search begins as a weighted A* search which orders nodes by gScore + epsilon * hScore and so quickly finds a path
+ * costing at most epsilon times the optimal cost. Epsilon is then lowered step by step, reusing the previous search
+ * effort, until it reaches 1.0 at which point the path is optimal. If the deadline passes first the best path found so
+ * far is returned and getSuboptimalityBound reports how far from optimal it may be.
+ * The bound only holds if the heuristic of the ICostModel is admissible.
+ *
+ * The search tables are reused between calls to solve so an instance of this class must not be shared between threads
+ */
+public class AnytimeAStarSolver implements IAnytimeTreeSolver {
+
+  protected static final ILogger log_ = LoggerManager.getLogger(AnytimeAStarSolver.class);
+
+  private static final int DEFAULT_CAPACITY = 1024;
+  private static final int NO_ID = NodeTable.NO_ID;
+
+  private final double initialEpsilon;
+  private final double epsilonStep;
+
+  private final NodeTable nodes = new NodeTable(DEFAULT_CAPACITY);
+  private final IndexedMinHeap openSet = new IndexedMinHeap(DEFAULT_CAPACITY);
+  // Closed nodes whose gScore improved during the current iteration. They are reopened when epsilon is lowered
+  private int[] inconsistent = new int[64];
+  private int inconsistentSize = 0;
+
+  private long deadline = Long.MAX_VALUE;
+  private double suboptimalityBound = Double.POSITIVE_INFINITY;
+  private int goalId = NO_ID;
+  private long expandedNodes = 0; // Nodes expanded by the last call to improvePath
+
+  /**
+   * Constructor
+   *
+   * @param initialEpsilon The heuristic inflation factor used for the first search. Must be at least 1.0
+   * @param epsilonStep The amount epsilon is lowered by after each completed search. Must be greater than 0
+   */
+  public AnytimeAStarSolver(double initialEpsilon, double epsilonStep) {
+    if (initialEpsilon < 1.0 || epsilonStep <= 0.0) {
+      throw new IllegalArgumentException("AnytimeAStarSolver requires initialEpsilon >= 1 and epsilonStep > 0 but was given "
+        + initialEpsilon + " and " + epsilonStep);
+    }
+    this.initialEpsilon = initialEpsilon;
+    this.epsilonStep = epsilonStep;
+  }
+
+  @Override
+  public void setDeadline(long deadline) {
+    this.deadline = deadline;
+  }
+
+  @Override
+  public double getSuboptimalityBound() {
+    return suboptimalityBound;
+  }
+
+  @Override
+  public List<Node> solve(Node start, ICostModel costModel, INeighborCalculator neighborCalculator) {
+    nodes.reset(start);
+    openSet.clear();
+    inconsistentSize = 0;
+    goalId = NO_ID;
+    suboptimalityBound = Double.POSITIVE_INFINITY;
+
+    // Cost of going from start to start is zero.
+    final double startHScore = costModel.heuristic(start);
+    final int startId = nodes.add(nodes.key(start), start, NO_ID, 0.0, startHScore);
+    if (costModel.isGoal(start)) {
+      suboptimalityBound = 1.0;
+      return nodes.rebuildPath(startId);
+    }
+
+    double epsilon = initialEpsilon;
+    openSet.add(startId, epsilon * startHScore);
+    long visitedNodes = 0;
+    boolean completed;
+    while (true) {
+      final long iterationStart = visitedNodes;
+      completed = improvePath(epsilon, costModel, neighborCalculator);
+      visitedNodes += expandedNodes;
+      suboptimalityBound = computeBound(completed ? epsilon : Double.POSITIVE_INFINITY);
+      log_.debug("EAD", "ARA* iteration with epsilon " + epsilon + " visited " + (visitedNodes - iterationStart)
+        + " nodes and " + (completed ? "completed" : "timed out") + " with a suboptimality bound of " + suboptimalityBound);
+
+      if (!completed || suboptimalityBound <= 1.0 || epsilon <= 1.0) {
+        break;
+      }
+      // Lower epsilon and reopen all inconsistent nodes
+      epsilon = Math.max(1.0, Math.min(epsilon - epsilonStep, suboptimalityBound));
+      reopen(epsilon);
+    }
+
+    if (goalId == NO_ID) {
+      log_.info("EAD", "///// solve:  No solution found" + (completed ? "." : " before the deadline."));
+      return new LinkedList<>(); // Return empty list if no path exists
+    }
+    log_.info("EAD", "Found our goal with node " + nodes.nodes[goalId].toString() + " and suboptimality bound "
+      + suboptimalityBound);
+    log_.info("EAD", "Ending sizes: discovered=" + nodes.size + ", openSet=" + openSet.size());
+    log_.debug("EAD", "We have visited " + visitedNodes + " nodes to find the solution");
+    return nodes.rebuildPath(goalId);
+  }
+
+  /**
+   * Helper function expands nodes until no node in the open set can improve on the best goal found
+   *
+   * @return False if the deadline passed before the search finished
+   */
+  private boolean improvePath(double epsilon, ICostModel costModel, INeighborCalculator neighborCalculator) {
+    expandedNodes = 0;
+    while (bestGoalGScore() > openSet.peekPriority()) {
+      if (System.currentTimeMillis() >= deadline) {
+        return false;
+      }
+      final int currentId = openSet.poll();
+      final Node current = nodes.nodes[currentId];
+      expandedNodes++;
+      nodes.closed[currentId] = true;
+
+      //if this node is unusable then toss it out and move on
+      if (costModel.isUnusable(current)) {
+        continue;
+      }
+
+      final double currentGScore = nodes.gScores[currentId];
+      for (Node neighbor : neighborCalculator.neighbors(current)) {
+        final long key = nodes.key(neighbor);
+        int neighborId = nodes.find(key);
+
+        final double tentativeGScore = currentGScore + costModel.cost(current, neighbor);
+        // If this neighbor is not a new node and the tentative gScore is worse than the current gScore
+        if (neighborId != NO_ID && tentativeGScore >= nodes.gScores[neighborId]) {
+          continue; // This is not a better path.
+        }
+
+        // Best path so far. Record path
+        if (neighborId == NO_ID) {
+          neighborId = nodes.add(key, neighbor, currentId, tentativeGScore, costModel.heuristic(neighbor));
+        } else {
+          nodes.cameFrom[neighborId] = currentId;
+          nodes.gScores[neighborId] = tentativeGScore;
+        }
+
+        // Goal nodes are never expanded so they are only tracked as the best solution
+        if (costModel.isGoal(neighbor)) {
+          if (goalId == NO_ID || tentativeGScore <= nodes.gScores[goalId]) {
+            goalId = neighborId;
+          }
+          continue;
+        }
+
+        final double priority = tentativeGScore + epsilon * nodes.hScores[neighborId];
+        if (openSet.contains(neighborId)) {
+          openSet.decreaseKey(neighborId, priority);
+        } else if (!nodes.closed[neighborId]) {
+          openSet.add(neighborId, priority);
+        } else {
+          addInconsistent(neighborId);
+        }
+      }
+    }
+    return true;
+  }
+
+  private double bestGoalGScore() {
+    return goalId == NO_ID ? Double.POSITIVE_INFINITY : nodes.gScores[goalId];
+  }
+
+  /**
+   * Helper function computes the suboptimality bound of the best goal found
+   * The minimum gScore + hScore over all open and inconsistent nodes is a lower bound on the optimal cost
+   *
+   * @param epsilon The epsilon of the last completed search or positive infinity if the search did not complete
+   */
+  private double computeBound(double epsilon) {
+    if (goalId == NO_ID) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double lowerBound = Double.POSITIVE_INFINITY;
+    for (int i = 0; i < openSet.size(); i++) {
+      final int id = openSet.idAt(i);
+      lowerBound = Math.min(lowerBound, nodes.gScores[id] + nodes.hScores[id]);
+    }
+    for (int i = 0; i < inconsistentSize; i++) {
+      final int id = inconsistent[i];
+      lowerBound = Math.min(lowerBound, nodes.gScores[id] + nodes.hScores[id]);
+    }
+    if (lowerBound == Double.POSITIVE_INFINITY) {
+      return 1.0; // Every reachable node has been expanded so the goal is optimal
+    }
+    if (lowerBound <= 0.0) {
+      return epsilon;
+    }
+    return Math.max(1.0, Math.min(epsilon, nodes.gScores[goalId] / lowerBound));
+  }
+
+  private void addInconsistent(int id) {
+    if (inconsistentSize == inconsistent.length) {
+      inconsistent = Arrays.copyOf(inconsistent, inconsistent.length * 2);
+    }
+    inconsistent[inconsistentSize++] = id;
+  }
+
+  /**
+   * Helper function moves all open and inconsistent nodes into a new open set ordered with the provided epsilon
+   * and clears the closed set
+   */
+  private void reopen(double epsilon) {
+    for (int i = 0; i < openSet.size(); i++) {
+      addInconsistent(openSet.idAt(i));
+    }
+    openSet.clear();
+    for (int i = 0; i < inconsistentSize; i++) {
+      final int id = inconsistent[i];
+      if (!openSet.contains(id)) {
+        openSet.add(id, nodes.gScores[id] + epsilon * nodes.hScores[id]);
+      }
+    }
+    inconsistentSize = 0;
+    Arrays.fill(nodes.closed, 0, nodes.size, false);
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.signal_plugin.ead.trajectorytree;
+
+/**
+ * An interface defining a tree solver which can stop at a deadline and return the best path found so far
+ * The returned path may be suboptimal. Its cost is guaranteed to be no more than the reported bound times the optimal cost
+ * assuming the heuristic of the ICostModel is admissible.
+ */
+public interface IAnytimeTreeSolver extends ITreeSolver {
+  /**
+   * Sets the wall clock time at which subsequent calls to solve must stop searching
+   *
+   * @param deadline The deadline in milliseconds since Jan 1, 1970 00:00:00 UTC. Long.MAX_VALUE means no deadline
+   */
+  void setDeadline(long deadline);
+
+  /**
+   * Returns the suboptimality bound achieved by the last call to solve
+   *
+   * @return The bound which is 1.0 for an optimal path or positive infinity if no path was found
+   */
+  double getSuboptimalityBound();
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.signal_plugin.ead.trajectorytree;
+
+import gov.dot.fhwa.saxton.carma.signal_plugin.logger.ILogger;
+import gov.dot.fhwa.saxton.carma.signal_plugin.logger.LoggerManager;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Implements the AStar algorithm which can operate on nodes with distance, time, speed states
+ * The cost, heuristic, and goal is provided by the ICostModel
+ * The neighbors of a node is provided by the INeighborCalculator
+ * This can function as a Dijkstra solver if the ICostModel always returns a heuristic of 0
+ *
+ * Produces the same paths as the AStarSolver but avoids its per node overhead.
+ * All search state is kept in a NodeTable of primitive arrays and the open set is an indexed binary heap
+ * which is reordered when a cheaper path to an already queued node is found.
+ *
+ * The search tables are reused between calls to solve so an instance of this class must not be shared between threads
+ */
+public class IndexedAStarSolver implements ITreeSolver {
+
+  protected static final ILogger log_ = LoggerManager.getLogger(IndexedAStarSolver.class);
+
+  private static final int DEFAULT_CAPACITY = 1024;
+  private static final int NO_ID = NodeTable.NO_ID;
+
+  private final NodeTable nodes = new NodeTable(DEFAULT_CAPACITY);
+  private final IndexedMinHeap openSet = new IndexedMinHeap(DEFAULT_CAPACITY);
+
+  @Override
+  public List<Node> solve(Node start, ICostModel costModel, INeighborCalculator neighborCalculator) {
+    nodes.reset(start);
+    openSet.clear();
+
+    // Cost of going from start to start is zero.
+    final double startHScore = costModel.heuristic(start);
+    final int startId = nodes.add(nodes.key(start), start, NO_ID, 0.0, startHScore);
+    // For start node fScore = hScore (the heuristic)
+    openSet.add(startId, startHScore);
+    long visitedNodes = 0;
+
+    // Begin search
+    while (!openSet.isEmpty()) {
+      final int currentId = openSet.poll(); // Retrieve and remove the node with the lowest fScore
+      final Node current = nodes.nodes[currentId];
+      visitedNodes++;
+      nodes.closed[currentId] = true; // Mark the node visited
+
+      // Check if this node is the goal
+      if (costModel.isGoal(current)) {
+        log_.info("EAD", "Found our goal with node " + current.toString());
+        log_.info("EAD", "Ending sizes: discovered=" + nodes.size + ", openSet=" + openSet.size());
+        log_.debug("EAD", "We have visited " + visitedNodes + " nodes to find the solution");
+        return nodes.rebuildPath(currentId); // Get path
+      }
+
+      //if this node is unusable then toss it out and move on
+      if (costModel.isUnusable(current)) {
+        continue;
+      }
+
+      final double currentGScore = nodes.gScores[currentId];
+      for (Node neighbor : neighborCalculator.neighbors(current)) {
+        final long key = nodes.key(neighbor);
+        int neighborId = nodes.find(key);
+        if (neighborId != NO_ID && nodes.closed[neighborId]) { // Ignore the neighbor which is already visited.
+          continue;
+        }
+
+        // Calculate tentative gScore of neighbor
+        final double tentativeGScore = currentGScore + costModel.cost(current, neighbor);
+        // If this neighbor is not a new node and the tentative gScore is worse than the current gScore
+        if (neighborId != NO_ID && tentativeGScore >= nodes.gScores[neighborId]) {
+          continue; // This is not a better path.
+        }
+
+        // Best path so far. Record path
+        if (neighborId == NO_ID) { // New node
+          final double hScore = costModel.heuristic(neighbor);
+          neighborId = nodes.add(key, neighbor, currentId, tentativeGScore, hScore);
+          openSet.add(neighborId, tentativeGScore + hScore);
+        } else { // Cheaper path to a queued node
+          nodes.cameFrom[neighborId] = currentId;
+          nodes.gScores[neighborId] = tentativeGScore;
+          openSet.decreaseKey(neighborId, tentativeGScore + nodes.hScores[neighborId]);
+        }
+      }
+    }
+    log_.info("EAD", "///// solve:  No solution found.");
+    return new LinkedList<>(); // Return empty list if no path exists
+  }
+}
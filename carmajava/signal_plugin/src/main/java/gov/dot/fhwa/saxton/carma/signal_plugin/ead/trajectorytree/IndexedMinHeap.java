@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.signal_plugin.ead.trajectorytree;
+
+import java.util.Arrays;
+
+/**
+ * Binary min heap of non-negative int ids ordered by a double priority
+ * The heap tracks the position of each id so the priority of a queued id can be lowered in place
+ * This allows an A* open set to be kept correctly ordered when a cheaper path to a queued node is found
+ *
+ * This class is not thread safe
+ */
+final class IndexedMinHeap {
+  private static final int NOT_QUEUED = -1;
+
+  private int[] heap;
+  private double[] priorities; // Indexed by id
+  private int[] positions;     // Indexed by id. The index of the id in heap or NOT_QUEUED
+  private int size = 0;
+
+  /**
+   * Constructor
+   *
+   * @param initialCapacity The number of ids which can be held before the heap needs to grow
+   */
+  IndexedMinHeap(int initialCapacity) {
+    final int capacity = Math.max(1, initialCapacity);
+    heap = new int[capacity];
+    priorities = new double[capacity];
+    positions = new int[capacity];
+    Arrays.fill(positions, NOT_QUEUED);
+  }
+
+  /**
+   * Returns true if the provided id is currently queued
+   *
+   * @param id The id to check
+   *
+   * @return True if the id is in the heap
+   */
+  boolean contains(int id) {
+    return id < positions.length && positions[id] != NOT_QUEUED;
+  }
+
+  /**
+   * Adds an id which is not already queued
+   *
+   * @param id The id to add
+   * @param priority The priority of the id. Lower values are polled first
+   */
+  void add(int id, double priority) {
+    if (id >= positions.length) {
+      growIds(id + 1);
+    }
+    if (size == heap.length) {
+      heap = Arrays.copyOf(heap, heap.length * 2);
+    }
+    priorities[id] = priority;
+    heap[size] = id;
+    positions[id] = size;
+    siftUp(size++);
+  }
+
+  /**
+   * Lowers the priority of an id which is already queued
+   *
+   * @param id The queued id
+   * @param priority The new priority which must not be greater than the current priority
+   */
+  void decreaseKey(int id, double priority) {
+    if (priority > priorities[id]) {
+      throw new IllegalArgumentException("Priority of id " + id + " cannot be increased from " + priorities[id] + " to " + priority);
+    }
+    priorities[id] = priority;
+    siftUp(positions[id]);
+  }
+
+  /**
+   * Removes and returns the id with the lowest priority
+   * No assumption should be made about the ordering of ids with equal priority
+   *
+   * @return The id with the lowest priority
+   */
+  int poll() {
+    if (size == 0) {
+      throw new IllegalStateException("Cannot poll an empty heap");
+    }
+    final int top = heap[0];
+    positions[top] = NOT_QUEUED;
+    size--;
+    if (size > 0) {
+      heap[0] = heap[size];
+      positions[heap[0]] = 0;
+      siftDown(0);
+    }
+    return top;
+  }
+
+  /**
+   * Returns the lowest priority in the heap without removing it
+   *
+   * @return The lowest priority or positive infinity if the heap is empty
+   */
+  double peekPriority() {
+    return size == 0 ? Double.POSITIVE_INFINITY : priorities[heap[0]];
+  }
+
+  /**
+   * Returns the id stored at the provided position in the heap
+   * Allows iteration over all queued ids in no particular order
+   *
+   * @param index The position in the heap which must be less than size()
+   *
+   * @return The id at that position
+   */
+  int idAt(int index) {
+    return heap[index];
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Removes all ids from the heap while keeping the allocated storage
+   */
+  void clear() {
+    for (int i = 0; i < size; i++) {
+      positions[heap[i]] = NOT_QUEUED;
+    }
+    size = 0;
+  }
+
+  private void growIds(int minCapacity) {
+    final int oldCapacity = positions.length;
+    final int capacity = Math.max(minCapacity, oldCapacity * 2);
+    priorities = Arrays.copyOf(priorities, capacity);
+    positions = Arrays.copyOf(positions, capacity);
+    Arrays.fill(positions, oldCapacity, capacity, NOT_QUEUED);
+  }
+
+  private void siftUp(int index) {
+    final int id = heap[index];
+    final double priority = priorities[id];
+    while (index > 0) {
+      final int parent = (index - 1) >>> 1;
+      final int parentId = heap[parent];
+      if (priorities[parentId] <= priority) {
+        break;
+      }
+      heap[index] = parentId;
+      positions[parentId] = index;
+      index = parent;
+    }
+    heap[index] = id;
+    positions[id] = index;
+  }
+
+  private void siftDown(int index) {
+    final int id = heap[index];
+    final double priority = priorities[id];
+    final int half = size >>> 1;
+    while (index < half) {
+      int child = 2 * index + 1;
+      final int right = child + 1;
+      if (right < size && priorities[heap[right]] < priorities[heap[child]]) {
+        child = right;
+      }
+      final int childId = heap[child];
+      if (priority <= priorities[childId]) {
+        break;
+      }
+      heap[index] = childId;
+      positions[childId] = index;
+      index = child;
+    }
+    heap[index] = id;
+    positions[id] = index;
+  }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.signal_plugin.ead.trajectorytree;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Storage for every node discovered during a tree search
+ * Each node is packed into a single long key relative to the start node and assigned a dense integer id.
+ * Packed keys are mapped to ids with an open addressing hash table using linear probing.
+ * Per node search state is kept in parallel arrays indexed by id.
+ *
+ * This class is not thread safe
+ */
+final class NodeTable {
+  static final int NO_ID = -1;
+
+  // Bits used for each component of a packed node key. The components are stored as offsets from the start node
+  private static final int DISTANCE_BITS = 26;
+  private static final int TIME_BITS = 22;
+  private static final int SPEED_BITS = 16;
+
+  // Hash table from packed key to id
+  private long[] keys;
+  private int[] slots;
+  private int mask;
+
+  // Per node state indexed by id
+  Node[] nodes;
+  double[] gScores;
+  double[] hScores;
+  int[] cameFrom;
+  boolean[] closed;
+  int size = 0;
+
+  private long startDistance;
+  private long startTime;
+  private long startSpeed;
+
+  /**
+   * Constructor
+   *
+   * @param capacity The number of nodes which can be stored before the table needs to grow
+   */
+  NodeTable(int capacity) {
+    allocateSlots(Integer.highestOneBit(Math.max(16, capacity) - 1) << 2);
+    nodes = new Node[capacity];
+    gScores = new double[capacity];
+    hScores = new double[capacity];
+    cameFrom = new int[capacity];
+    closed = new boolean[capacity];
+  }
+
+  private void allocateSlots(int capacity) {
+    keys = new long[capacity];
+    slots = new int[capacity];
+    Arrays.fill(slots, NO_ID);
+    mask = capacity - 1;
+  }
+
+  /**
+   * Clears all nodes and sets the origin used for packing keys
+   *
+   * @param start The start node of the next search
+   */
+  void reset(Node start) {
+    Arrays.fill(slots, NO_ID);
+    Arrays.fill(nodes, 0, size, null);
+    Arrays.fill(closed, 0, size, false);
+    size = 0;
+    startDistance = start.getDistance();
+    startTime = start.getTime();
+    startSpeed = start.getSpeed();
+  }
+
+  /**
+   * Packs the state of a node into a single key
+   *
+   * @param node The node to pack
+   *
+   * @return The packed key
+   * @throws IllegalArgumentException If the node is too far from the start node to be packed
+   */
+  long key(Node node) {
+    final long distance = pack(node.getDistance() - startDistance, DISTANCE_BITS, node);
+    final long time = pack(node.getTime() - startTime, TIME_BITS, node);
+    final long speed = pack(node.getSpeed() - startSpeed, SPEED_BITS, node);
+    return (distance << (TIME_BITS + SPEED_BITS)) | (time << SPEED_BITS) | speed;
+  }
+
+  private static long pack(long offset, int bits, Node node) {
+    final long bias = 1L << (bits - 1);
+    final long biased = offset + bias;
+    if (biased < 0 || biased >= (1L << bits)) {
+      throw new IllegalArgumentException("Node " + node + " is outside of the range which can be searched from the start node");
+    }
+    return biased;
+  }
+
+  private static int hash(long key) {
+    final long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  /**
+   * Returns the id of the node with the provided key
+   *
+   * @param key The packed key of the node
+   *
+   * @return The id of the node or NO_ID if it has not been discovered
+   */
+  int find(long key) {
+    int i = hash(key) & mask;
+    int id;
+    while ((id = slots[i]) != NO_ID) {
+      if (keys[i] == key) {
+        return id;
+      }
+      i = (i + 1) & mask;
+    }
+    return NO_ID;
+  }
+
+  /**
+   * Adds a node which has not been discovered yet
+   *
+   * @param key The packed key of the node
+   * @param node The node
+   * @param parentId The id of the node's parent or NO_ID
+   * @param gScore The cost to reach the node from the start
+   * @param hScore The heuristic value of the node
+   *
+   * @return The id assigned to the node
+   */
+  int add(long key, Node node, int parentId, double gScore, double hScore) {
+    if (size == nodes.length) {
+      growNodes();
+    }
+    final int id = size++;
+    nodes[id] = node;
+    gScores[id] = gScore;
+    hScores[id] = hScore;
+    cameFrom[id] = parentId;
+    closed[id] = false;
+    insertSlot(key, id);
+    // Keep the table at most half full
+    if (size * 2 > slots.length) {
+      rehash();
+    }
+    return id;
+  }
+
+  /**
+   * Walks the list of parents from the provided node back to the start node
+   * The resulting path is flipped before being returned so that it is in order of start->node
+   *
+   * @param id The id of the last node in the path
+   *
+   * @return The list of nodes which forms the path from start->node
+   */
+  List<Node> rebuildPath(int id) {
+    List<Node> path = new LinkedList<>();
+    for (; id != NO_ID; id = cameFrom[id]) {
+      path.add(nodes[id]);
+    }
+    Collections.reverse(path);
+    return path;
+  }
+
+  private void insertSlot(long key, int id) {
+    int i = hash(key) & mask;
+    while (slots[i] != NO_ID) {
+      i = (i + 1) & mask;
+    }
+    keys[i] = key;
+    slots[i] = id;
+  }
+
+  private void growNodes() {
+    final int capacity = nodes.length * 2;
+    nodes = Arrays.copyOf(nodes, capacity);
+    gScores = Arrays.copyOf(gScores, capacity);
+    hScores = Arrays.copyOf(hScores, capacity);
+    cameFrom = Arrays.copyOf(cameFrom, capacity);
+    closed = Arrays.copyOf(closed, capacity);
+  }
+
+  private void rehash() {
+    final long[] oldKeys = keys;
+    final int[] oldSlots = slots;
+    allocateSlots(oldSlots.length * 2);
+    for (int i = 0; i < oldSlots.length; i++) {
+      if (oldSlots[i] != NO_ID) {
+        insertSlot(oldKeys[i], oldSlots[i]);
+      }
+    }
+  }
+}
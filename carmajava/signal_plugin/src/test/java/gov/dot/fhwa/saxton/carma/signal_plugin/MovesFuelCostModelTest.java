@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.signal_plugin;
+
+import gov.dot.fhwa.saxton.carma.signal_plugin.ead.MovesFuelCostModel;
+import gov.dot.fhwa.saxton.carma.signal_plugin.ead.trajectorytree.Node;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Runs unit tests for the MovesFuelCostModel class
+ */
+public class MovesFuelCostModelTest {
+
+  private static final String HEADER = "OpMode, HC (g/hr),CO (g/s),NOx (g/s),CO2 (g/hr),Energy (KJ/hr),PM2.5 (g/hr)\n";
+  private static final double J_PER_S_PER_KJ_PER_HR = 1000.0 / 3600.0;
+
+  private File baseRateTable;
+
+  @Before
+  public void setUp() throws Exception {
+    baseRateTable = File.createTempFile("BaseRate", ".csv");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    baseRateTable.delete();
+  }
+
+  private MovesFuelCostModel newModel(String rows) throws IOException {
+    try (FileWriter writer = new FileWriter(baseRateTable)) {
+      writer.write(HEADER + rows);
+    }
+    // Passenger truck parameters from SignalParams.yaml
+    return new MovesFuelCostModel(0.22112, 0.002838, 0.000698, 1.86686, 1.86686, baseRateTable.getPath());
+  }
+
+  /**
+   * Tests the cost of edges matching different operating modes
+   * @throws Exception
+   */
+  @Test
+  public void testCost() throws Exception {
+    MovesFuelCostModel model = newModel("0,0,0,0,0,69322.7,0\n1,0,0,0,0,53814,0\n12,0,0,0,0,107935,0\n37,0,0,0,0,339845,0\n");
+
+    // Idle
+    assertEquals(53814 * J_PER_S_PER_KJ_PER_HR * 2.0, model.cost(new Node(0L, 0L, 0L), new Node(0L, 2L, 0L)), 0.0001);
+    // Braking
+    assertEquals(69322.7 * J_PER_S_PER_KJ_PER_HR * 2.0, model.cost(new Node(0L, 0L, 10L), new Node(10L, 2L, 0L)), 0.0001);
+    // Cruising below 25 mph with a VSP between 0 and 3
+    assertEquals(107935 * J_PER_S_PER_KJ_PER_HR * 1.0, model.cost(new Node(0L, 0L, 10L), new Node(10L, 1L, 10L)), 0.0001);
+    // Cruising above 50 mph with a VSP between 12 and 18
+    assertEquals(339845 * J_PER_S_PER_KJ_PER_HR * 1.0, model.cost(new Node(0L, 0L, 30L), new Node(30L, 1L, 30L)), 0.0001);
+
+    // Repeated edges are served from the cache and edges outside its range are computed directly
+    for (long dt : new long[] {1L, 1L, 63L, 64L, 1000L}) {
+      assertEquals(339845 * J_PER_S_PER_KJ_PER_HR * dt, model.cost(new Node(0L, 5L, 30L), new Node(30L * dt, 5L + dt, 30L)), 0.0001);
+    }
+    assertEquals(Double.MAX_VALUE, model.cost(new Node(0L, 2L, 10L), new Node(10L, 1L, 10L)), 0.0);
+  }
+
+  /**
+   * Tests that operating modes missing from the table use the highest cost in the table
+   * @throws Exception
+   */
+  @Test
+  public void testMissingOperatingMode() throws Exception {
+    MovesFuelCostModel model = newModel("0,0,0,0,0,69322.7,0\n1,0,0,0,0,53814,0\n");
+    assertEquals(69322.7 * J_PER_S_PER_KJ_PER_HR * 3.0, model.cost(new Node(0L, 0L, 30L), new Node(90L, 3L, 30L)), 0.0001);
+    assertEquals(69322.7 * J_PER_S_PER_KJ_PER_HR * 3.0, model.cost(new Node(0L, 0L, 100L), new Node(300L, 3L, 100L)), 0.0001);
+  }
+}
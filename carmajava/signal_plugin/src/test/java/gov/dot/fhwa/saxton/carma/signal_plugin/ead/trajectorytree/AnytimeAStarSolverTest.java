@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.signal_plugin.ead.trajectorytree;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the AnytimeAStarSolver class
+ */
+public class AnytimeAStarSolverTest {
+
+  private final Node start = new Node(0L, 0L, 1L);
+
+  @Test
+  public void testConvergesToOptimalPath() throws Exception {
+    AnytimeAStarSolver solver = new AnytimeAStarSolver(3.0, 0.5);
+    for (long seed = 0; seed < 10; seed++) {
+      GridModel model = new GridModel(60, 6, true, seed);
+      List<Node> path = solver.solve(start, model, model);
+
+      assertEquals(start, path.get(0));
+      assertTrue(model.isGoal(path.get(path.size() - 1)));
+      assertEquals(model.optimalCost(start), model.pathCost(path), 0.000001);
+      assertEquals(1.0, solver.getSuboptimalityBound(), 0.0);
+    }
+  }
+
+  @Test
+  public void testDeadlineExpired() throws Exception {
+    AnytimeAStarSolver solver = new AnytimeAStarSolver(3.0, 0.5);
+    GridModel model = new GridModel(60, 6, true, 0);
+    solver.setDeadline(0);
+    assertTrue(solver.solve(start, model, model).isEmpty());
+    assertEquals(Double.POSITIVE_INFINITY, solver.getSuboptimalityBound(), 0.0);
+  }
+
+  /**
+   * Stops the search after a varying number of expansions and checks the returned path is within the reported bound
+   */
+  @Test
+  public void testBoundHoldsWhenInterrupted() throws Exception {
+    final AnytimeAStarSolver solver = new AnytimeAStarSolver(5.0, 1.0);
+    for (final int expansions : new int[] {20, 50, 100, 200, 400, 800}) {
+      solver.setDeadline(Long.MAX_VALUE);
+      GridModel model = new GridModel(120, 8, true, expansions) {
+        int calls = 0;
+
+        @Override public List<Node> neighbors(Node node) {
+          if (++calls == expansions) {
+            solver.setDeadline(0);
+          }
+          return super.neighbors(node);
+        }
+      };
+      List<Node> path = solver.solve(start, model, model);
+      double bound = solver.getSuboptimalityBound();
+      if (path.isEmpty()) {
+        assertEquals(Double.POSITIVE_INFINITY, bound, 0.0);
+      } else {
+        assertTrue(bound >= 1.0);
+        assertTrue(model.pathCost(path) <= bound * model.optimalCost(start) + 0.000001);
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidEpsilon() throws Exception {
+    new AnytimeAStarSolver(0.5, 0.5);
+  }
+}
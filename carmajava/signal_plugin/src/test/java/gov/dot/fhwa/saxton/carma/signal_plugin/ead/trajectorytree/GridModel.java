@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.signal_plugin.ead.trajectorytree;
+
+import gov.dot.fhwa.saxton.carma.signal_plugin.asd.IntersectionData;
+import gov.dot.fhwa.saxton.carma.signal_plugin.ead.INodeCollisionChecker;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Grid where each step advances time by one second and changes speed by at most one m/s
+ * Every edge has a pseudo random cost in [1, 2) so many paths compete and open set entries are frequently improved
+ */
+class GridModel implements ICostModel, INeighborCalculator {
+  final long goalDistance;
+  final long maxSpeed;
+  final boolean useHeuristic;
+  final long seed;
+
+  GridModel(long goalDistance, long maxSpeed, boolean useHeuristic, long seed) {
+    this.goalDistance = goalDistance;
+    this.maxSpeed = maxSpeed;
+    this.useHeuristic = useHeuristic;
+    this.seed = seed;
+  }
+
+  @Override public double cost(Node n1, Node n2) {
+    long h = seed;
+    h = h * 31 + n1.hashCode();
+    h = h * 31 + n2.hashCode();
+    return 1.0 + new Random(h).nextDouble();
+  }
+
+  // Each step costs at least 1 and covers at most maxSpeed meters so this never overestimates
+  @Override public double heuristic(Node n1) {
+    return useHeuristic ? Math.max(0.0, (double) (goalDistance - n1.getDistance()) / maxSpeed) : 0.0;
+  }
+
+  @Override public void setTolerances(Node tolerances) {}
+
+  @Override public void setGoal(Node goal) {}
+
+  @Override public boolean isGoal(Node n) {
+    return n.getDistance() >= goalDistance;
+  }
+
+  @Override public boolean isUnusable(Node n) {
+    return false;
+  }
+
+  @Override public void initialize(List<IntersectionData> intersections, int numIntersections, double timeIncrement,
+      double speedIncrement, INodeCollisionChecker collisionChecker, double planningStartTime, double planningStartDowntrack) {}
+
+  @Override public List<Node> neighbors(Node node) {
+    List<Node> neighbors = new ArrayList<>();
+    for (long speed = Math.max(1, node.getSpeed() - 1); speed <= Math.min(maxSpeed, node.getSpeed() + 1); speed++) {
+      neighbors.add(new Node(node.getDistance() + speed, node.getTime() + 1, speed));
+    }
+    return neighbors;
+  }
+
+  @Override public void setOperatingSpeed(double os) {}
+
+  /**
+   * Reference Dijkstra search which does not stop at the first goal node
+   */
+  double optimalCost(Node start) {
+    Map<Node, Double> best = new HashMap<>();
+    PriorityQueue<Object[]> queue = new PriorityQueue<>((a, b) -> Double.compare((Double) a[1], (Double) b[1]));
+    queue.add(new Object[] {start, 0.0});
+    best.put(start, 0.0);
+    double goalCost = Double.POSITIVE_INFINITY;
+    while (!queue.isEmpty()) {
+      Object[] entry = queue.poll();
+      Node node = (Node) entry[0];
+      double cost = (Double) entry[1];
+      if (cost > best.get(node)) {
+        continue;
+      }
+      if (isGoal(node)) {
+        goalCost = Math.min(goalCost, cost);
+        continue;
+      }
+      for (Node neighbor : neighbors(node)) {
+        double newCost = cost + cost(node, neighbor);
+        Double oldCost = best.get(neighbor);
+        if (oldCost == null || newCost < oldCost) {
+          best.put(neighbor, newCost);
+          queue.add(new Object[] {neighbor, newCost});
+        }
+      }
+    }
+    return goalCost;
+  }
+
+  double pathCost(List<Node> path) {
+    double cost = 0.0;
+    for (int i = 1; i < path.size(); i++) {
+      cost += cost(path.get(i - 1), path.get(i));
+    }
+    return cost;
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.signal_plugin.ead.trajectorytree;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the IndexedAStarSolver and IndexedMinHeap classes
+ */
+public class IndexedAStarSolverTest {
+
+  @Test
+  public void testFindsOptimalPath() throws Exception {
+    IndexedAStarSolver solver = new IndexedAStarSolver();
+    Node start = new Node(0L, 0L, 1L);
+    for (long seed = 0; seed < 10; seed++) {
+      for (boolean useHeuristic : new boolean[] {false, true}) {
+        GridModel model = new GridModel(60, 6, useHeuristic, seed);
+        // The same solver instance is reused to check its tables are reset between searches
+        List<Node> path = solver.solve(start, model, model);
+
+        assertFalse(path.isEmpty());
+        assertEquals(start, path.get(0));
+        assertTrue(model.isGoal(path.get(path.size() - 1)));
+        for (int i = 1; i < path.size(); i++) {
+          assertTrue(model.neighbors(path.get(i - 1)).contains(path.get(i)));
+        }
+        assertEquals(model.optimalCost(start), model.pathCost(path), 0.000001);
+      }
+    }
+  }
+
+  @Test
+  public void testNoSolution() throws Exception {
+    GridModel model = new GridModel(60, 6, true, 0) {
+      @Override public boolean isUnusable(Node n) {
+        return n.getTime() > 5;
+      }
+    };
+    assertTrue(new IndexedAStarSolver().solve(new Node(0L, 0L, 1L), model, model).isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNodeOutOfRange() throws Exception {
+    GridModel model = new GridModel(60, 6, true, 0) {
+      @Override public List<Node> neighbors(Node node) {
+        List<Node> neighbors = new ArrayList<>();
+        neighbors.add(new Node(node.getDistance(), node.getTime() + (1L << 40), node.getSpeed()));
+        return neighbors;
+      }
+    };
+    new IndexedAStarSolver().solve(new Node(0L, 0L, 1L), model, model);
+  }
+
+  @Test
+  public void testIndexedMinHeap() throws Exception {
+    IndexedMinHeap heap = new IndexedMinHeap(2);
+    double[] expected = new double[500];
+    boolean[] queued = new boolean[500];
+    Random rand = new Random(7);
+
+    for (int i = 0; i < 20000; i++) {
+      int id = rand.nextInt(expected.length);
+      int op = rand.nextInt(3);
+      if (op == 0 && !queued[id]) {
+        expected[id] = rand.nextDouble() * 100;
+        queued[id] = true;
+        heap.add(id, expected[id]);
+      } else if (op == 1 && queued[id]) {
+        expected[id] -= rand.nextDouble() * 10;
+        heap.decreaseKey(id, expected[id]);
+      } else if (op == 2 && !heap.isEmpty()) {
+        int min = -1;
+        for (int j = 0; j < expected.length; j++) {
+          if (queued[j] && (min == -1 || expected[j] < expected[min])) {
+            min = j;
+          }
+        }
+        int polled = heap.poll();
+        assertEquals(expected[min], expected[polled], 0.0);
+        queued[polled] = false;
+      }
+      assertEquals(queued[id], heap.contains(id));
+    }
+
+    heap.clear();
+    assertTrue(heap.isEmpty());
+    assertFalse(heap.contains(0));
+  }
+}
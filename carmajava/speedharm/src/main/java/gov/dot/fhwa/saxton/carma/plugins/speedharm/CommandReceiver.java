@@ -20,54 +20,100 @@ import gov.dot.fhwa.saxton.carma.guidance.util.ILogger;
 import gov.dot.fhwa.saxton.carma.guidance.util.LoggerManager;
 import gov.dot.fhwa.saxton.speedharm.api.objects.VehicleCommand;
 
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
-import static gov.dot.fhwa.saxton.carma.plugins.speedharm.UrlConstants.*;
-
-import java.time.Duration;
-import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * Handles the communications necessary to receive speed commands from the 
  * STOL Infrastructure server
+ * <p>
+ * Commands are requested with a long-poll: the server may hold each request for up to the
+ * command wait time until a new command is available. The next request is issued when the
+ * previous one completes, but never sooner than the minimum poll interval after it was sent,
+ * so a server without long-poll support is not polled in a tight loop. New commands are pushed
+ * to the registered listeners as soon as they arrive.
  */
-public class CommandReceiver implements Runnable {
+public class CommandReceiver {
 	protected ILogger log = LoggerManager.getLogger();
-	protected RestTemplate restClient;
-	protected String serverUrl;
+	protected SpeedHarmClient client;
 	protected int vehicleSessionId;
+	protected long commandWaitTime;
+	protected long minPollInterval;
+	protected long retryDelay = 100;
 	protected AtomicReference<VehicleCommand> lastCommand = new AtomicReference<>(null);
+	private final List<Consumer<VehicleCommand>> listeners = new CopyOnWriteArrayList<>();
+	private volatile boolean running = false;
 
-	CommandReceiver(String serverUrl, int vehicleSessionId, RestTemplate restClient) {
-		this.serverUrl = serverUrl;
+	/**
+	 * @param vehicleSessionId The vehicle session on the server
+	 * @param client The client used to request commands
+	 * @param commandWaitTime The time in ms the server may hold a command request, 0 to disable long-polling
+	 * @param minPollInterval The minimum time in ms between two command requests
+	 */
+	CommandReceiver(int vehicleSessionId, SpeedHarmClient client, long commandWaitTime, long minPollInterval) {
 		this.vehicleSessionId = vehicleSessionId;
-		this.restClient = restClient;
+		this.client = client;
+		this.commandWaitTime = commandWaitTime;
+		this.minPollInterval = minPollInterval;
 	}
 
-	@Override
-	public void run() {
-		while (!Thread.currentThread().isInterrupted()) {
-			try {
-				LocalDateTime timestepStart = LocalDateTime.now();
-				VehicleCommand cmd = restClient.getForObject(serverUrl + COMMANDS_LIST + "/" + vehicleSessionId,
-						VehicleCommand.class);
-				if (cmd != null) {
-					lastCommand.set(cmd);
-					LocalDateTime cmdRecvd = LocalDateTime.now();
+	/**
+	 * Start requesting commands
+	 */
+	public void start() {
+		if (!running) {
+			running = true;
+			client.schedule(this::requestCommand, 0);
+		}
+	}
+
+	/**
+	 * Stop requesting commands. A request in flight is ignored when it completes.
+	 */
+	public void stop() {
+		running = false;
+	}
+
+	/**
+	 * Register a listener which is called on a client thread with every new command
+	 */
+	public void addCommandListener(Consumer<VehicleCommand> listener) {
+		listeners.add(listener);
+	}
 
-					log.info(String.format("Received speed command %s after %dms from server!", cmd.toString(),
-							Duration.between(timestepStart, cmdRecvd).toMillis()));
+	private void requestCommand() {
+		if (!running) {
+			return;
+		}
+		long requestStart = System.currentTimeMillis();
+		client.requestCommand(vehicleSessionId, commandWaitTime).whenComplete((cmd, error) -> {
+			long delay;
+			if (error != null) {
+				log.warn("Unable to wait for server speed command, received exception.", error);
+				delay = retryDelay;
+			} else {
+				if (cmd != null) {
+					onCommand(cmd, System.currentTimeMillis() - requestStart);
 				} else {
 					log.warn("Null command received");
 				}
-			} catch (RestClientException rce) {
-				log.warn("Unable to wait for server speed command, received exception.", rce);
-				try {
-					Thread.sleep(100);
-				} catch (InterruptedException ie) {
-					Thread.currentThread().interrupt();
-				}
+				delay = minPollInterval - (System.currentTimeMillis() - requestStart);
+			}
+			if (running) {
+				client.schedule(this::requestCommand, Math.max(delay, 0));
+			}
+		});
+	}
+
+	private void onCommand(VehicleCommand cmd, long requestDuration) {
+		VehicleCommand previous = lastCommand.getAndSet(cmd);
+		log.info(String.format("Received speed command %s after %dms from server!", cmd.toString(), requestDuration));
+		// An unchanged command returned by a server without long-poll support is not a new command
+		if (previous == null || !previous.equals(cmd)) {
+			for (Consumer<VehicleCommand> listener : listeners) {
+				listener.accept(cmd);
 			}
 		}
 	}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.plugins.speedharm;
+
+import gov.dot.fhwa.saxton.speedharm.api.objects.VehicleCommand;
+import gov.dot.fhwa.saxton.speedharm.api.objects.VehicleStatusUpdate;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.web.client.RestTemplate;
+import static gov.dot.fhwa.saxton.carma.plugins.speedharm.UrlConstants.*;
+
+/**
+ * Asynchronous client for the STOL infrastructure server
+ * <p>
+ * Requests are executed on a small pool of worker threads and completed through CompletableFutures,
+ * so no caller waits on the network. Every request has a deadline after which its future fails with
+ * a TimeoutException, regardless of how long the server takes to answer. The RestTemplate should be
+ * configured with connect and read timeouts which release the worker threads at about the same time.
+ * Connections are kept alive between requests by the underlying HTTP client.
+ */
+public class SpeedHarmClient {
+  // Query parameter asking the server to hold a command request until a new command is available
+  public static final String COMMAND_WAIT_PARAM = "wait";
+
+  protected final String serverUrl;
+  protected final RestTemplate restClient;
+  protected final long requestTimeout;
+  private final ExecutorService requestExecutor;
+  private final ScheduledExecutorService scheduler;
+
+  /**
+   * @param serverUrl The base URL of the infrastructure server
+   * @param restClient The client used to execute the requests
+   * @param requestTimeout The deadline of a request in ms
+   * @param maxConcurrentRequests The number of requests which may be executed at the same time
+   */
+  SpeedHarmClient(String serverUrl, RestTemplate restClient, long requestTimeout, int maxConcurrentRequests) {
+    this.serverUrl = serverUrl;
+    this.restClient = restClient;
+    this.requestTimeout = requestTimeout;
+    this.requestExecutor = Executors.newFixedThreadPool(Math.max(maxConcurrentRequests, 1),
+        daemonThreadFactory("SpeedHarm Client"));
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("SpeedHarm Scheduler"));
+  }
+
+  /**
+   * Post a status update of the vehicle
+   *
+   * @return A future holding the status accepted by the server or null if it was rejected
+   */
+  public CompletableFuture<VehicleStatusUpdate> sendStatus(int vehicleId, VehicleStatusUpdate vsu) {
+    String url = serverUrl + STATUS_LIST + "/" + vehicleId;
+    return submit(() -> restClient.postForObject(url, vsu, VehicleStatusUpdate.class), requestTimeout);
+  }
+
+  /**
+   * Request the latest speed command of the vehicle session
+   *
+   * @param waitTime The time in ms the server may hold the request until a new command is available,
+   * or 0 to get the current command right away. The deadline of the request is extended by this time.
+   * @return A future holding the command or null if there is none
+   */
+  public CompletableFuture<VehicleCommand> requestCommand(int vehicleSessionId, long waitTime) {
+    String url = serverUrl + COMMANDS_LIST + "/" + vehicleSessionId;
+    if (waitTime > 0) {
+      url += "?" + COMMAND_WAIT_PARAM + "=" + waitTime;
+    }
+    String requestUrl = url;
+    return submit(() -> restClient.getForObject(requestUrl, VehicleCommand.class), requestTimeout + waitTime);
+  }
+
+  /**
+   * Run a task on the scheduler of this client, which must not block
+   *
+   * @return The handle to cancel the task
+   */
+  public ScheduledFuture<?> schedule(Runnable task, long delay) {
+    return scheduler.schedule(task, delay, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Run a periodic task on the scheduler of this client, which must not block
+   *
+   * @return The handle to cancel the task
+   */
+  public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period) {
+    return scheduler.scheduleAtFixedRate(task, 0, period, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stop all threads of this client. Requests in flight fail.
+   */
+  public void shutdown() {
+    scheduler.shutdownNow();
+    requestExecutor.shutdownNow();
+  }
+
+  private <T> CompletableFuture<T> submit(Callable<T> request, long deadline) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    try {
+      Future<?> task = requestExecutor.submit(() -> {
+        try {
+          result.complete(request.call());
+        } catch (Exception e) {
+          result.completeExceptionally(e);
+        }
+      });
+      ScheduledFuture<?> timer = scheduler.schedule(() -> {
+        if (result.completeExceptionally(new TimeoutException("No response from " + serverUrl + " within " + deadline + "ms"))) {
+          task.cancel(true);
+        }
+      }, deadline, TimeUnit.MILLISECONDS);
+      result.whenComplete((response, error) -> timer.cancel(false));
+    } catch (RejectedExecutionException ree) {
+      // The client was shut down
+      result.completeExceptionally(ree);
+    }
+    return result;
+  }
+
+  private static ThreadFactory daemonThreadFactory(String name) {
+    AtomicInteger count = new AtomicInteger();
+    return (runnable) -> {
+      Thread thread = new Thread(runnable, name + " " + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
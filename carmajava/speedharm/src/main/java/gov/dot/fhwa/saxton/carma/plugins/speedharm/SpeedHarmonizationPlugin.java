@@ -17,6 +17,7 @@
 package gov.dot.fhwa.saxton.carma.plugins.speedharm;
 
 import org.ros.message.Duration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestClientException;
@@ -50,12 +51,13 @@ public class SpeedHarmonizationPlugin extends AbstractPlugin implements ISpeedHa
   protected double minimumManeuverLength = 10.0;
   protected double maxAccel = 2.0;
   protected long maneuverTimeout = 3000; //ms
+  protected long requestTimeout = 1000; //ms
+  protected long commandWaitTime = 0; //ms
+  protected long commandPollInterval = 100; //ms
 
+  protected SpeedHarmClient client = null;
   protected StatusUpdater statusUpdater = null;
-  protected Thread statusUpdaterThread = null;
-
   protected CommandReceiver commandReceiver = null;
-  protected Thread commandReceiverThread = null;
 
   protected SessionManager sessionManager;
   protected VehicleDataManager vehicleDataManager;
@@ -85,18 +87,31 @@ public class SpeedHarmonizationPlugin extends AbstractPlugin implements ISpeedHa
         10.0);
     maxAccel = pluginServiceLocator.getParameterSource().getDouble("~speed_harm_max_accel", 2.0);
     maneuverTimeout = pluginServiceLocator.getParameterSource().getInteger("~speed_harm_maneuver_timeout", 3000);
+    requestTimeout = pluginServiceLocator.getParameterSource().getInteger("~speed_harm_request_timeout", 1000);
+    commandWaitTime = pluginServiceLocator.getParameterSource().getInteger("~speed_harm_command_wait_time", 0);
+    commandPollInterval = pluginServiceLocator.getParameterSource().getInteger("~speed_harm_command_poll_interval", 100);
 
     log.info("LoadedParam: infrastructure_server_url: " + serverUrl);
     log.info("LoadedParam: vehicle_id: " + vehicleId);
     log.info("LoadedParam: speed_harm_min_maneuver_length: " + minimumManeuverLength);
     log.info("LoadedParam: speed_harm_max_accel: " + maxAccel);
     log.info("LoadedParam: speed_harm_maneuver_timeout: " + maneuverTimeout);
+    log.info("LoadedParam: speed_harm_request_timeout: " + requestTimeout);
+    log.info("LoadedParam: speed_harm_command_wait_time: " + commandWaitTime);
+    log.info("LoadedParam: speed_harm_command_poll_interval: " + commandPollInterval);
     
     List<HttpMessageConverter<?>> httpMappers = new ArrayList<HttpMessageConverter<?>>();
     MappingJackson2HttpMessageConverter jsonMapper = new MappingJackson2HttpMessageConverter();
     jsonMapper.getObjectMapper().findAndRegisterModules();
     httpMappers.add(jsonMapper);
     restClient.setMessageConverters(httpMappers);
+    // The read timeout covers the time the server may hold a command request
+    SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+    requestFactory.setConnectTimeout((int) requestTimeout);
+    requestFactory.setReadTimeout((int) (requestTimeout + commandWaitTime));
+    restClient.setRequestFactory(requestFactory);
+    // One request for status updates and one for commands, plus one which may be held past its deadline
+    client = new SpeedHarmClient(serverUrl, restClient, requestTimeout, 3);
 
     vehicleDataManager = new VehicleDataManager();
     vehicleDataManager.init(pubSubService);
@@ -121,19 +136,16 @@ public class SpeedHarmonizationPlugin extends AbstractPlugin implements ISpeedHa
       }
     }
 
-    if (statusUpdaterThread == null && statusUpdater == null) {
-      statusUpdater = new StatusUpdater(serverUrl, sessionManager.getServerSessionId(), restClient, timestepDuration,
+    if (statusUpdater == null) {
+      statusUpdater = new StatusUpdater(sessionManager.getServerSessionId(), client, timestepDuration,
           vehicleDataManager);
-      statusUpdaterThread = new Thread(statusUpdater);
-      statusUpdaterThread.setName("SpeedHarm Status Updater");
-      statusUpdaterThread.start();
+      statusUpdater.start();
     }
 
-    if (commandReceiverThread == null && commandReceiver == null) {
-      commandReceiver = new CommandReceiver(serverUrl, sessionManager.getServerSessionId(), restClient);
-      commandReceiverThread = new Thread(commandReceiver);
-      commandReceiverThread.setName("SpeedHarm Command Receiver");
-      commandReceiverThread.start();
+    if (commandReceiver == null) {
+      commandReceiver = new CommandReceiver(sessionManager.getServerSessionId(), client, commandWaitTime,
+          commandPollInterval);
+      commandReceiver.start();
     }
   }
 
@@ -161,15 +173,13 @@ public class SpeedHarmonizationPlugin extends AbstractPlugin implements ISpeedHa
 
   @Override
   public void onSuspend() {
-    if (statusUpdaterThread != null && statusUpdater != null) {
-      statusUpdaterThread.interrupt();
-      statusUpdaterThread = null;
+    if (statusUpdater != null) {
+      statusUpdater.stop();
       statusUpdater = null;
     }
 
-    if (commandReceiverThread != null && commandReceiver != null) {
-      commandReceiverThread.interrupt();
-      commandReceiverThread = null;
+    if (commandReceiver != null) {
+      commandReceiver.stop();
       commandReceiver = null;
     }
 
@@ -178,7 +188,9 @@ public class SpeedHarmonizationPlugin extends AbstractPlugin implements ISpeedHa
 
   @Override
   public void onTerminate() {
-    // NO-OP
+    if (client != null) {
+      client.shutdown();
+    }
   }
 
   private void planComplexManeuver(Trajectory traj, double start, double end) {
@@ -23,101 +23,94 @@ import gov.dot.fhwa.saxton.speedharm.api.objects.VehicleStatusUpdate;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
-import static gov.dot.fhwa.saxton.carma.plugins.speedharm.UrlConstants.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
 
 /**
  * Handles the communications necessary to send status updates to the 
  * STOL infrastructure server
+ * <p>
+ * A status update is sent every timestep without waiting for the server. If the previous
+ * update is still in flight the timestep is skipped, so a stalled server does not queue up updates.
  */
-public class StatusUpdater implements Runnable {
+public class StatusUpdater {
   protected ILogger log = LoggerManager.getLogger();
-  protected String serverUrl = "";
   protected long timestepDuration;
   protected VehicleDataManager vehicleDataManager;
-  protected RestTemplate restClient;
+  protected SpeedHarmClient client;
   protected int vehicleId;
-  protected LocalDateTime lastUpdateTime = LocalDateTime.now();
+  protected volatile LocalDateTime lastUpdateTime = LocalDateTime.now();
   protected Duration prevLatency = null;
-  protected Duration measuredLatency = null;
+  protected volatile Duration measuredLatency = null;
+  private CompletableFuture<VehicleStatusUpdate> pendingUpdate = null;
+  private ScheduledFuture<?> timestepTask = null;
 
-  StatusUpdater(String serverUrl, int vehicleId, RestTemplate restClient, long timestepDuration,
+  StatusUpdater(int vehicleId, SpeedHarmClient client, long timestepDuration,
       VehicleDataManager vehicleDataManager) {
-    this.serverUrl = serverUrl;
     this.vehicleId = vehicleId;
-    this.restClient = restClient;
+    this.client = client;
     this.timestepDuration = timestepDuration;
     this.vehicleDataManager = vehicleDataManager;
   }
 
-  @Override
-  public void run() {
-    while (!Thread.currentThread().isInterrupted()) {
-      long timestepStart = System.currentTimeMillis();
-
-      NetworkLatencyInformation latencyData = new NetworkLatencyInformation();
-      latencyData.setVehicleTxTimestamp(LocalDateTime.now());
-      latencyData.setVehicleMeasuredNetworkLatency(measuredLatency);
-
-      VehicleStatusUpdate vsu = new VehicleStatusUpdate();
-      vsu.setAutomatedControlState(vehicleDataManager.getAutomatedControl());
-      vsu.setDistanceToNearestRadarObject(vehicleDataManager.getRange());
-      vsu.setHeading(vehicleDataManager.getHeading());
-      vsu.setLat(vehicleDataManager.getLatitude());
-      vsu.setLon(vehicleDataManager.getLongitude());
-      vsu.setRelativeSpeedOfNearestRadarObject(vehicleDataManager.getRangeRate());
-      vsu.setSpeed(vehicleDataManager.getSpeed());
-      vsu.setAccel(vehicleDataManager.getAccel());
-      vsu.setNetworkLatencyInformation(latencyData);
-      vsu.setId((long) vehicleId);
-
-      log.info("Sending VehicleStatusUpdate: " + vsu.toString());
-
-      VehicleStatusUpdate response = new VehicleStatusUpdate();
-      LocalDateTime sendTime = LocalDateTime.now();
-      try {
-        response = restClient.postForObject(serverUrl + STATUS_LIST + "/" + vehicleId, vsu, VehicleStatusUpdate.class);
-
-        if (response == null) {
-          log.warn("Infrastructure server rejected status update: " + vsu);
-        } else {
-          lastUpdateTime = LocalDateTime.now();
-          prevLatency = measuredLatency;
-          measuredLatency = Duration.between(sendTime, lastUpdateTime).dividedBy(2L);
-
-          long prevMs = 0;
-          if (prevLatency != null) {
-            prevMs = prevLatency.toMillis();
-          }
+  /**
+   * Start sending a status update every timestep
+   */
+  public synchronized void start() {
+    if (timestepTask == null) {
+      timestepTask = client.scheduleAtFixedRate(this::sendStatusUpdate, timestepDuration);
+    }
+  }
 
-          long curMs = measuredLatency.toMillis();
-          double diff = 0.0;
-          if (prevMs > 0) {
-            diff = 100 * (curMs - prevMs) / prevMs;
-          }
+  /**
+   * Stop sending status updates. An update in flight is abandoned.
+   */
+  public synchronized void stop() {
+    if (timestepTask != null) {
+      timestepTask.cancel(false);
+      timestepTask = null;
+    }
+    if (pendingUpdate != null) {
+      pendingUpdate.cancel(false);
+      pendingUpdate = null;
+    }
+  }
 
-          if (Math.abs(diff) > 20.0) {
-            //log.warn(String.format("Large network jitter detected! Latency was %.02f and now is %.02f, delta = %.02f%%",
-            //    prevMs, curMs, diff));
-          } else {
-            //log.info(String.format("Latency was %.02f and now is %.02f, delta = %.02f%%", prevMs, curMs, diff));
-          }
+  protected synchronized void sendStatusUpdate() {
+    if (pendingUpdate != null && !pendingUpdate.isDone()) {
+      log.warn("Previous status update is still in flight, skipping this timestep");
+      return;
+    }
 
-        }
-      } catch (RestClientException rce) {
+    NetworkLatencyInformation latencyData = new NetworkLatencyInformation();
+    latencyData.setVehicleTxTimestamp(LocalDateTime.now());
+    latencyData.setVehicleMeasuredNetworkLatency(measuredLatency);
+
+    VehicleStatusUpdate vsu = new VehicleStatusUpdate();
+    vsu.setAutomatedControlState(vehicleDataManager.getAutomatedControl());
+    vsu.setDistanceToNearestRadarObject(vehicleDataManager.getRange());
+    vsu.setHeading(vehicleDataManager.getHeading());
+    vsu.setLat(vehicleDataManager.getLatitude());
+    vsu.setLon(vehicleDataManager.getLongitude());
+    vsu.setRelativeSpeedOfNearestRadarObject(vehicleDataManager.getRangeRate());
+    vsu.setSpeed(vehicleDataManager.getSpeed());
+    vsu.setAccel(vehicleDataManager.getAccel());
+    vsu.setNetworkLatencyInformation(latencyData);
+    vsu.setId((long) vehicleId);
+
+    log.info("Sending VehicleStatusUpdate: " + vsu.toString());
+
+    LocalDateTime sendTime = LocalDateTime.now();
+    pendingUpdate = client.sendStatus(vehicleId, vsu);
+    pendingUpdate.whenComplete((response, error) -> {
+      if (error != null || response == null) {
         log.warn("Infrastructure server rejected status update: " + vsu);
+        return;
       }
-
-      long timestepEnd = System.currentTimeMillis();
-      long sleepDuration = Math.max(timestepDuration - (timestepEnd - timestepStart), 0);
-      log.info("Speed Harmonization status updater timestep complete, sleeping for " + sleepDuration);
-
-      try {
-        Thread.sleep(sleepDuration);
-      } catch (InterruptedException e) {
-        break;
-      }
-    }
+      LocalDateTime responseTime = LocalDateTime.now();
+      prevLatency = measuredLatency;
+      measuredLatency = Duration.between(sendTime, responseTime).dividedBy(2L);
+      lastUpdateTime = responseTime;
+    });
   }
 }
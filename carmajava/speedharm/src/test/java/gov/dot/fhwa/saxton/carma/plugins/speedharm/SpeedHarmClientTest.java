@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.plugins.speedharm;
+
+import gov.dot.fhwa.saxton.carma.guidance.util.ILogger;
+import gov.dot.fhwa.saxton.carma.guidance.util.ILoggerFactory;
+import gov.dot.fhwa.saxton.carma.guidance.util.LoggerManager;
+import gov.dot.fhwa.saxton.speedharm.api.objects.VehicleCommand;
+import gov.dot.fhwa.saxton.speedharm.api.objects.VehicleStatusUpdate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SpeedHarmClientTest {
+
+  private static final long REQUEST_TIMEOUT = 500;
+  // Long enough that a long-poll which misses a command is not followed by another one during a test
+  private static final long COMMAND_WAIT_TIME = 60000;
+
+  private StubInfrastructureServer server;
+  private SpeedHarmClient client;
+
+  @Before public void setup() throws Exception {
+    ILoggerFactory mockFact = mock(ILoggerFactory.class);
+    ILogger mockLogger = mock(ILogger.class);
+    when(mockFact.createLoggerForClass(any())).thenReturn(mockLogger);
+    LoggerManager.setLoggerFactory(mockFact);
+
+    server = new StubInfrastructureServer();
+    server.start();
+
+    RestTemplate restClient = new RestTemplate();
+    List<HttpMessageConverter<?>> httpMappers = new ArrayList<HttpMessageConverter<?>>();
+    MappingJackson2HttpMessageConverter jsonMapper = new MappingJackson2HttpMessageConverter();
+    jsonMapper.getObjectMapper().findAndRegisterModules();
+    httpMappers.add(jsonMapper);
+    restClient.setMessageConverters(httpMappers);
+    SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+    requestFactory.setConnectTimeout((int) REQUEST_TIMEOUT);
+    requestFactory.setReadTimeout((int) (REQUEST_TIMEOUT + COMMAND_WAIT_TIME));
+    restClient.setRequestFactory(requestFactory);
+    client = new SpeedHarmClient(server.getUrl(), restClient, REQUEST_TIMEOUT, 3);
+  }
+
+  @After public void teardown() {
+    client.shutdown();
+    server.stop();
+  }
+
+  @Test public void testStatusUpdate() throws Exception {
+    VehicleStatusUpdate vsu = new VehicleStatusUpdate();
+    vsu.setId(1L);
+    vsu.setSpeed(12.5);
+    VehicleStatusUpdate response = client.sendStatus(1, vsu).get(1, TimeUnit.SECONDS);
+    assertNotNull(response);
+    assertEquals(12.5, response.getSpeed(), 0.0);
+    assertEquals(1, server.getStatusCount());
+  }
+
+  @Test public void testRequestDeadline() throws Exception {
+    // The server responds long after the request deadline
+    server.setLatency(20000);
+    try {
+      // The deadline completes the request well before the server responds
+      client.requestCommand(1, 0).get(10, TimeUnit.SECONDS);
+      fail("Expected the request to miss its deadline");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof TimeoutException);
+    }
+  }
+
+  @Test public void testLongPollCommandLatency() throws Exception {
+    // The number of command requests the server had seen when each command was received
+    BlockingQueue<Integer> requestsAtReceipt = new LinkedBlockingQueue<>();
+    CommandReceiver receiver = new CommandReceiver(1, client, COMMAND_WAIT_TIME, 0);
+    receiver.addCommandListener((cmd) -> requestsAtReceipt.add(server.getCommandRequestCount()));
+    receiver.start();
+    // Let the first request reach the server and wait there
+    long start = System.currentTimeMillis();
+    while (server.getCommandRequestCount() == 0 && System.currentTimeMillis() - start < 10000) {
+      Thread.sleep(20);
+    }
+    int requestsBeforeCommand = server.getCommandRequestCount();
+
+    VehicleCommand cmd = server.publishCommand(1, 15.0);
+    Integer requestCount = requestsAtReceipt.poll(10, TimeUnit.SECONDS);
+    receiver.stop();
+
+    assertNotNull(requestCount);
+    assertEquals(cmd, receiver.getLastCommand());
+    // The command is pushed by the pending long-poll instead of being found by a later poll
+    assertEquals(1, requestsBeforeCommand);
+    assertEquals(1, requestCount.intValue());
+  }
+
+  @Test public void testRecoverFromFailures() throws Exception {
+    server.publishCommand(1, 10.0);
+    server.failNextRequests(3);
+    CommandReceiver receiver = new CommandReceiver(1, client, 0, 50);
+    receiver.start();
+    long start = System.currentTimeMillis();
+    while (receiver.getLastCommand() == null && System.currentTimeMillis() - start < 10000) {
+      Thread.sleep(20);
+    }
+    receiver.stop();
+    assertNotNull(receiver.getLastCommand());
+    assertEquals(10.0, receiver.getLastCommand().getSpeed(), 0.0);
+    assertTrue(server.getCommandRequestCount() >= 4);
+  }
+}
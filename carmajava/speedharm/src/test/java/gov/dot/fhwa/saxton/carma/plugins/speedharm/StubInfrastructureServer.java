@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2018 LEIDOS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package gov.dot.fhwa.saxton.carma.plugins.speedharm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import gov.dot.fhwa.saxton.speedharm.api.objects.VehicleCommand;
+import gov.dot.fhwa.saxton.speedharm.api.objects.VehicleStatusUpdate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static gov.dot.fhwa.saxton.carma.plugins.speedharm.UrlConstants.*;
+
+/**
+ * In-process stand-in for the STOL infrastructure server
+ * <p>
+ * Serves vehicle registration, status updates and speed commands on a local port, including
+ * long-polled command requests. Latency and failed requests can be injected to test the behavior
+ * of the speed harmonization client without the real server.
+ */
+public class StubInfrastructureServer {
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+  private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+  private final Object commandLock = new Object();
+  private final AtomicInteger failuresToInject = new AtomicInteger(0);
+  private final AtomicInteger statusCount = new AtomicInteger(0);
+  private final AtomicInteger commandRequestCount = new AtomicInteger(0);
+  private volatile long latency = 0;
+  private VehicleCommand command = null;
+  private long nextCommandId = 1;
+  private int nextVehicleId = 1;
+
+  public StubInfrastructureServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(VEHICLE_LIST, this::handleVehicles);
+    server.createContext(STATUS_LIST, this::handleStatus);
+    server.createContext(COMMANDS_LIST, this::handleCommands);
+    server.setExecutor(executor);
+  }
+
+  public void start() {
+    server.start();
+  }
+
+  public void stop() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  /**
+   * @return The base URL of this server
+   */
+  public String getUrl() {
+    return "http://localhost:" + server.getAddress().getPort();
+  }
+
+  /**
+   * Delay every response by the specified time in ms
+   */
+  public void setLatency(long latency) {
+    this.latency = latency;
+  }
+
+  /**
+   * Answer the next requests with an internal server error
+   */
+  public void failNextRequests(int count) {
+    failuresToInject.set(count);
+  }
+
+  /**
+   * Make a new speed command available and complete the pending long-polls
+   */
+  public VehicleCommand publishCommand(long vehicleId, double speed) {
+    synchronized (commandLock) {
+      VehicleCommand cmd = new VehicleCommand();
+      cmd.setId(nextCommandId++);
+      cmd.setVehId(vehicleId);
+      cmd.setSpeed(speed);
+      cmd.setCommandConfidence(1.0);
+      cmd.setTimestamp(LocalDateTime.now());
+      command = cmd;
+      commandLock.notifyAll();
+      return cmd;
+    }
+  }
+
+  public int getStatusCount() {
+    return statusCount.get();
+  }
+
+  public int getCommandRequestCount() {
+    return commandRequestCount.get();
+  }
+
+  private boolean injectFaults(HttpExchange exchange) throws IOException {
+    if (latency > 0) {
+      try {
+        Thread.sleep(latency);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (failuresToInject.getAndUpdate((count) -> Math.max(count - 1, 0)) > 0) {
+      respond(exchange, 500, new byte[0]);
+      return true;
+    }
+    return false;
+  }
+
+  private void handleVehicles(HttpExchange exchange) throws IOException {
+    if (injectFaults(exchange)) {
+      return;
+    }
+    if ("POST".equals(exchange.getRequestMethod())) {
+      int vehicleId;
+      synchronized (this) {
+        vehicleId = nextVehicleId++;
+      }
+      exchange.getResponseHeaders().add("Location", getUrl() + VEHICLE_LIST + "/" + vehicleId);
+      respond(exchange, 201, "[]".getBytes("UTF-8"));
+    } else {
+      respond(exchange, 200, new byte[0]);
+    }
+  }
+
+  private void handleStatus(HttpExchange exchange) throws IOException {
+    if (injectFaults(exchange)) {
+      return;
+    }
+    VehicleStatusUpdate vsu = mapper.readValue(exchange.getRequestBody(), VehicleStatusUpdate.class);
+    statusCount.incrementAndGet();
+    respondJson(exchange, vsu);
+  }
+
+  private void handleCommands(HttpExchange exchange) throws IOException {
+    commandRequestCount.incrementAndGet();
+    if (injectFaults(exchange)) {
+      return;
+    }
+    long waitTime = 0;
+    String query = exchange.getRequestURI().getQuery();
+    if (query != null && query.startsWith(SpeedHarmClient.COMMAND_WAIT_PARAM + "=")) {
+      waitTime = Long.parseLong(query.substring(SpeedHarmClient.COMMAND_WAIT_PARAM.length() + 1));
+    }
+    VehicleCommand cmd;
+    synchronized (commandLock) {
+      // Hold the request until a new command is published or the wait time elapsed
+      VehicleCommand current = command;
+      long deadline = System.currentTimeMillis() + waitTime;
+      long remaining = waitTime;
+      while (command == current && remaining > 0) {
+        try {
+          commandLock.wait(remaining);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+        remaining = deadline - System.currentTimeMillis();
+      }
+      cmd = command;
+    }
+    respondJson(exchange, cmd);
+  }
+
+  private void respondJson(HttpExchange exchange, Object body) throws IOException {
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    respond(exchange, 200, body == null ? new byte[0] : mapper.writeValueAsBytes(body));
+  }
+
+  private void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+    exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+}